@@ -46,11 +46,15 @@ public class GenerateCode32 {
 
         // TODO remove once F32 sparse code is generated
         blacklist.add("TestDMatrixSparseCSC");
+        blacklist.add("TestDMatrixSparseCSR");
         blacklist.add("TestConvertDMatrixStruct");
         blacklist.add("TestDEigenSparseCSC");
         blacklist.add("TestConvertDMatrixStruct");
 
-        String[] sufficeRoot = new String[]{"DRM","DMA","DRB","SCC","STL","DF2","DF3","DF4","DF5","DF6","TRIPLET"};
+        // EjmlParameters is shared by all data types so it only needs to be calibrated once
+        blacklist.add("CalibrateParameters");
+
+        String[] sufficeRoot = new String[]{"DRM","DMA","DRB","SCC","SCR","STL","DF2","DF3","DF4","DF5","DF6","TRIPLET"};
 
         suffices64.add("_DDRB_to_DDRM");
         suffices64.add("_F64");
@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.data;
+
+import org.ejml.CodeGeneratorBase;
+
+import java.io.FileNotFoundException;
+
+/**
+ * Generates batches of fixed sized matrices which are stored in a struct of arrays format
+ *
+ * @author Peter Abeles
+ */
+public class GenerateMatrixFixedBatch extends CodeGeneratorBase {
+
+    String classPreamble = "DMatrix";
+
+    @Override
+    public void generate() throws FileNotFoundException {
+        for( int dimension = 2; dimension <= 6; dimension++ ){
+            print(dimension);
+        }
+    }
+
+    public void print( int dimen ) throws FileNotFoundException {
+        String nameMatrix = classPreamble+dimen+"x"+dimen;
+        String className = nameMatrix+"Batch";
+
+        setOutputFile(className);
+
+        out.print("import java.io.Serializable;\n" +
+                "import java.util.Arrays;\n" +
+                "\n" +
+                "/**\n" +
+                " * <p>\n" +
+                " * A batch of "+dimen+" by "+dimen+" matrices stored in a struct of arrays format.  Element (i,j) of every matrix\n" +
+                " * in the batch is stored in the array aIJ, e.g. a12[k] is the value at row 1 and column 2 of the k-th matrix.\n" +
+                " * Operations which are applied to every matrix in the batch will then read and write memory sequentially.\n" +
+                " * The arrays can be larger than the number of matrices in the batch.\n" +
+                " * </p>\n" +
+                " *\n" +
+                " * <p>DO NOT MODIFY.  Automatically generated code created by "+getClass().getSimpleName()+"</p>\n" +
+                " *\n" +
+                " * @author Peter Abeles\n" +
+                " */\n" +
+                "public class "+className+" implements Serializable {\n" +
+                "    /**\n" +
+                "     * Number of matrices in the batch\n" +
+                "     */\n" +
+                "    public int size;\n" +
+                "\n");
+        printClassParam(dimen);
+        out.print("\n" +
+                "    /**\n" +
+                "     * Creates a batch with the specified number of matrices. All elements are set to zero.\n" +
+                "     */\n" +
+                "    public "+className+"( int size ) {\n");
+        forEach(dimen,"        a%d%d = new double[size];\n");
+        out.print("        this.size = size;\n" +
+                "    }\n" +
+                "\n" +
+                "    public "+className+"() {\n" +
+                "        this(0);\n" +
+                "    }\n" +
+                "\n" +
+                "    public "+className+"( "+className+" original ) {\n" +
+                "        this(original.size);\n" +
+                "        set(original);\n" +
+                "    }\n" +
+                "\n" +
+                "    /**\n" +
+                "     * Changes the number of matrices in the batch.  The values of matrices which were already in the\n" +
+                "     * batch are not modified.  The arrays are only reallocated if they are too small.\n" +
+                "     *\n" +
+                "     * @param size The new number of matrices.\n" +
+                "     */\n" +
+                "    public void reshape( int size ) {\n" +
+                "        if( size < 0 )\n" +
+                "            throw new IllegalArgumentException(\"size must be non-negative\");\n" +
+                "        if( a11.length < size ) {\n");
+        forEach(dimen,"            a%d%d = Arrays.copyOf(a%1$d%2$d,size);\n");
+        out.print("        }\n" +
+                "        this.size = size;\n" +
+                "    }\n" +
+                "\n" +
+                "    /**\n" +
+                "     * Copies all the matrices in 'src' into this batch\n" +
+                "     */\n" +
+                "    public void set( "+className+" src ) {\n" +
+                "        reshape(src.size);\n");
+        forEach(dimen,"        System.arraycopy(src.a%d%d,0,a%1$d%2$d,0,size);\n");
+        out.print("    }\n" +
+                "\n" +
+                "    /**\n" +
+                "     * Sets every element in every matrix to zero\n" +
+                "     */\n" +
+                "    public void zero() {\n");
+        forEach(dimen,"        Arrays.fill(a%d%d,0,size,0.0);\n");
+        out.print("    }\n" +
+                "\n" +
+                "    /**\n" +
+                "     * Copies a matrix into the batch\n" +
+                "     *\n" +
+                "     * @param index Index of the matrix in the batch\n" +
+                "     * @param src The matrix which is copied. Not modified.\n" +
+                "     */\n" +
+                "    public void set( int index , "+nameMatrix+" src ) {\n");
+        forEach(dimen,"        a%d%d[index] = src.a%1$d%2$d;\n");
+        out.print("    }\n" +
+                "\n" +
+                "    /**\n" +
+                "     * Copies a matrix out of the batch\n" +
+                "     *\n" +
+                "     * @param index Index of the matrix in the batch\n" +
+                "     * @param dst (Optional) Storage for the matrix. If null a new matrix is created.\n" +
+                "     * @return The matrix\n" +
+                "     */\n" +
+                "    public "+nameMatrix+" get( int index , "+nameMatrix+" dst ) {\n" +
+                "        if( dst == null )\n" +
+                "            dst = new "+nameMatrix+"();\n");
+        forEach(dimen,"        dst.a%d%d = a%1$d%2$d[index];\n");
+        out.print("        return dst;\n" +
+                "    }\n" +
+                "\n" +
+                "    public double get( int index , int row , int col ) {\n" +
+                "        return getElement(row,col)[index];\n" +
+                "    }\n" +
+                "\n" +
+                "    public void set( int index , int row , int col , double value ) {\n" +
+                "        getElement(row,col)[index] = value;\n" +
+                "    }\n" +
+                "\n" +
+                "    /**\n" +
+                "     * Returns the array which stores the specified element of all the matrices\n" +
+                "     */\n" +
+                "    public double[] getElement( int row , int col ) {\n");
+        printGetter(dimen);
+        out.print("        throw new IllegalArgumentException(\"Row and/or column out of range. \"+row+\" \"+col);\n" +
+                "    }\n" +
+                "\n" +
+                "    public int getSize() {\n" +
+                "        return size;\n" +
+                "    }\n" +
+                "\n" +
+                "    public int getNumRows() {\n" +
+                "        return "+dimen+";\n" +
+                "    }\n" +
+                "\n" +
+                "    public int getNumCols() {\n" +
+                "        return "+dimen+";\n" +
+                "    }\n" +
+                "}\n\n");
+    }
+
+    private void printClassParam( int dimen ) {
+        for( int y = 1; y <= dimen; y++ ) {
+            out.print("    public double[] ");
+            for( int x = 1; x <= dimen; x++ ) {
+                out.print("a"+y+""+x);
+                if( x != dimen )
+                    out.print(",");
+                else
+                    out.println(";");
+            }
+        }
+    }
+
+    /**
+     * Prints the format once for every element.  The format is given the row and column
+     */
+    private void forEach( int dimen , String format ) {
+        for( int y = 1; y <= dimen; y++ ) {
+            for( int x = 1; x <= dimen; x++ ) {
+                out.printf(format,y,x);
+            }
+        }
+    }
+
+    private void printGetter( int dimen ) {
+        for( int y = 1; y <= dimen; y++ ) {
+            if( y == 1 )
+                out.print("        if( row == 0 ) {\n");
+            else
+                out.print("        } else if( row == "+(y-1)+" ) {\n");
+            for( int x = 1; x <= dimen; x++ ) {
+                if( x == 1 )
+                    out.print("            if( col == 0 ) {\n");
+                else
+                    out.print("            } else if( col == "+(x-1)+" ) {\n");
+                out.print("                return a"+y+""+x+";\n");
+            }
+            out.print("            }\n");
+        }
+        out.print("        }\n");
+    }
+
+    public static void main( String args[] ) throws FileNotFoundException {
+        GenerateMatrixFixedBatch app = new GenerateMatrixFixedBatch();
+
+        app.generate();
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * <p>
+ * Central location for controlling how concurrent algorithms are run.  All concurrent code in EJML is
+ * run inside a single {@link ForkJoinPool}, which can be replaced or resized.  By default the common pool
+ * is used.
+ * </p>
+ *
+ * <p>
+ * Work is split into contiguous blocks of indexes, e.g. rows of the output matrix. Each block is processed
+ * by a single thread in increasing order.  This makes it possible to write concurrent algorithms
+ * which produce results that are identical to their single threaded counter parts.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class EjmlConcurrency {
+
+    /**
+     * If false then operations which would automatically switch to a concurrent implementation will
+     * stay single threaded.
+     */
+    public static boolean USE_CONCURRENT = true;
+
+    private static ForkJoinPool pool = ForkJoinPool.commonPool();
+    // true if the pool was created by setMaxThreads() and should be shut down when replaced
+    private static boolean ownsPool = false;
+
+    /**
+     * Creates a new thread pool with the specified number of threads.  If the previous pool was also
+     * created by this function then it's shut down.
+     *
+     * @param maxThreads Maximum number of threads. Must be &ge; 1.
+     */
+    public static void setMaxThreads( int maxThreads ) {
+        if( maxThreads <= 0 )
+            throw new IllegalArgumentException("Number of threads must be positive");
+        replacePool(new ForkJoinPool(maxThreads),true);
+    }
+
+    /**
+     * Specifies which thread pool all concurrent algorithms should use.  If the previous pool was created by
+     * {@link #setMaxThreads(int)} then it's shut down. Pools passed in here are never shut down by EJML.
+     */
+    public static void setPool( ForkJoinPool pool ) {
+        if( pool == null )
+            throw new IllegalArgumentException("Pool can't be null");
+        replacePool(pool,false);
+    }
+
+    private static synchronized void replacePool( ForkJoinPool replacement , boolean owned ) {
+        ForkJoinPool previous = pool;
+        boolean previousOwned = ownsPool;
+        pool = replacement;
+        ownsPool = owned;
+        // tasks which have already been submitted are allowed to finish
+        if( previousOwned && previous != replacement )
+            previous.shutdown();
+    }
+
+    public static ForkJoinPool getPool() {
+        return pool;
+    }
+
+    public static int getMaxThreads() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Returns true if an operation with the specified number of floating point operations should be
+     * run concurrently.
+     *
+     * @param operations Approximate number of floating point operations required by the algorithm
+     * @param threshold Minimum number of operations before concurrency is used
+     */
+    public static boolean isUseConcurrent( long operations , long threshold ) {
+        return USE_CONCURRENT && operations >= threshold && pool.getParallelism() > 1;
+    }
+
+    /**
+     * Concurrent for loop.  Each index from start to end, exclusive, is passed to the consumer once.
+     *
+     * @param start First index, inclusive
+     * @param endExclusive Last index, exclusive
+     * @param consumer Processes a single index
+     */
+    public static void loopFor( int start , int endExclusive , IntConsumer consumer ) {
+        loopBlocks(start,endExclusive,1,(i0,i1)->{
+            for (int i = i0; i < i1; i++) {
+                consumer.accept(i);
+            }
+        });
+    }
+
+    /**
+     * Splits the range of indexes into contiguous blocks which are then processed in parallel.  The number
+     * of blocks is selected based on the number of threads in the pool.
+     *
+     * @param start First index, inclusive
+     * @param endExclusive Last index, exclusive
+     * @param minBlock The smallest block of indexes which will be processed by a single thread
+     * @param consumer Processes a block of indexes
+     */
+    public static void loopBlocks( int start , int endExclusive , int minBlock , IntRangeConsumer consumer ) {
+        if( endExclusive <= start )
+            return;
+        ForkJoinPool pool = EjmlConcurrency.pool;
+        int length = endExclusive-start;
+        int blockSize = Math.max(minBlock,length/pool.getParallelism());
+        if( blockSize >= length ) {
+            consumer.accept(start,endExclusive);
+        } else {
+            pool.invoke(new RangeTask(start,endExclusive,Math.max(1,blockSize),consumer));
+        }
+    }
+
+    /**
+     * Processes a block of indexes from i0 to i1, exclusive.
+     */
+    public interface IntRangeConsumer {
+        void accept( int i0 , int i1 );
+    }
+
+    /**
+     * Recursively splits the range in half until it is no larger than the block size
+     */
+    private static class RangeTask extends RecursiveAction {
+        final int start, end, blockSize;
+        final IntRangeConsumer consumer;
+
+        RangeTask(int start, int end, int blockSize, IntRangeConsumer consumer) {
+            this.start = start;
+            this.end = end;
+            this.blockSize = blockSize;
+            this.consumer = consumer;
+        }
+
+        @Override
+        protected void compute() {
+            int length = end-start;
+            if( length < 2*blockSize ) {
+                consumer.accept(start,end);
+            } else {
+                // split along a block boundary so that blocks have a consistent size
+                int middle = start + (length/blockSize/2)*blockSize;
+                invokeAll(new RangeTask(start,middle,blockSize,consumer),
+                        new RangeTask(middle,end,blockSize,consumer));
+            }
+        }
+    }
+}
@@ -21,7 +21,8 @@ package org.ejml;
 
 /**
  * This is a list of parameters that are used across the code.  To tune performance
- * for a particular system change these values.
+ * for a particular system change these values.  The values can also be loaded from a profile
+ * when this class is first used, see {@link EjmlProfile}.
  *
  * @author Peter Abeles
  */
@@ -66,7 +67,34 @@ public class EjmlParameters {
 
     public static int CMULT_COLUMN_SWITCH = 7;
     public static int CMULT_TRANAB_COLUMN_SWITCH = 20;
-    
+
+    /**
+     * Number of multiply-add operations (rows*inner*cols) in a matrix multiplication before it switches to
+     * the concurrent implementation.  See {@link EjmlConcurrency}.  Outputs with at least MULT_COLUMN_SWITCH
+     * columns are only run concurrently by the packed implementation, see MULT_PACKED_SWITCH.
+     */
+    public static int MULT_CONCURRENT_SWITCH = 100*100*100;
+
+    /**
+     * Number of non-zero elements in a sparse matrix before sparse matrix-vector multiplication switches to
+     * the concurrent implementation.
+     */
+    public static int SPARSE_MULT_CONCURRENT_SWITCH = 50_000;
+
+    /**
+     * Number of multiply-add operations (rows*inner*cols) in a matrix multiplication before it switches to
+     * the packed and register blocked implementation in MatrixMatrixMultPacked_DDRM.
+     */
+    public static long MULT_PACKED_SWITCH = 100L*100L*100L;
+
+    /**
+     * Block sizes used by the packed matrix multiplication.  MC*KC elements of 'a' should fit inside the L2 cache
+     * and KC*NC elements of 'b' inside the L3 cache.
+     */
+    public static int MULT_PACKED_MC = 96;
+    public static int MULT_PACKED_KC = 256;
+    public static int MULT_PACKED_NC = 4096;
+
     /**
      * <p>
      * At which point should it switch to the block cholesky algorithm.
@@ -81,6 +109,74 @@ public class EjmlParameters {
 
     public static int SWITCH_BLOCK64_QR = 1500;
 
+    /**
+     * Size of a symmetric matrix at which the eigen decomposition switches from the QR algorithm to divide and
+     * conquer when eigenvectors are computed.
+     */
+    public static int SWITCH_EIG_DIVIDE_CONQUER = 200;
+
+    /**
+     * Size of the smallest dimension in a matrix at which the SVD switches to the block bidiagonal decomposition.
+     */
+    public static int SWITCH_BLOCK_BIDIAGONAL = 800;
+
+    /**
+     * Size of a square matrix at which the general eigen decomposition switches to the block Hessenberg decomposition.
+     */
+    public static int SWITCH_BLOCK_HESSENBERG = 500;
+
+    /**
+     * Size of the smallest dimension in a matrix at which the LU decomposition switches to the block algorithm.
+     */
+    public static int SWITCH_BLOCK_LU = 300;
+
+    /**
+     * Number of floating point operations (2*rows*cols*min(rows,cols)) in a block QR decomposition before it
+     * switches to the concurrent implementation.
+     */
+    public static long QR_CONCURRENT_SWITCH = 300L*300L*300L;
+
+    /**
+     * Number of floating point operations (4*rows*cols*min(rows,cols)) in a block bidiagonal decomposition before
+     * it switches to the concurrent implementation.
+     */
+    public static long BIDIAGONAL_CONCURRENT_SWITCH = 300L*300L*300L;
+
+    /**
+     * Number of floating point operations (10*n<sup>3</sup>/3) in a block Hessenberg decomposition before it
+     * switches to the concurrent implementation.
+     */
+    public static long HESSENBERG_CONCURRENT_SWITCH = 300L*300L*300L;
+
+    /**
+     * Number of floating point operations (2*rows*cols*min(rows,cols)/3) in a block LU decomposition before it
+     * switches to the concurrent implementation.
+     */
+    public static long LU_CONCURRENT_SWITCH = 300L*300L*300L;
+
+    /**
+     * Number of floating point operations (n<sup>3</sup>/3) in a block Cholesky decomposition before it
+     * switches to the concurrent implementation.
+     */
+    public static long CHOLESKY_CONCURRENT_SWITCH = 300L*300L*300L/3L;
+
+    /**
+     * Number of floating point operations (n<sup>3</sup>) in a divide and conquer symmetric eigen sub-problem
+     * before its two halves are solved concurrently.
+     */
+    public static long EIG_DIVIDE_CONQUER_CONCURRENT_SWITCH = 200L*200L*200L;
+
+    /**
+     * Sparse Cholesky will switch to the supernodal algorithm when the average width of a supernode, weighted
+     * by the number of non-zero elements in it, is at least this value.
+     */
+    public static double SWITCH_SUPERNODAL_CHOLESKY = 32;
+
+    // must come after all the parameters have been assigned their default values
+    static {
+        EjmlProfile.loadDefault();
+    }
+
     public static enum MemoryUsage
     {
         /**
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml;
+
+import java.io.*;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+
+/**
+ * <p>
+ * Reads and writes the tunable values in {@link EjmlParameters} as a profile.  A profile is a Java properties file
+ * where each key is the name of a field in {@link EjmlParameters}, e.g. "TRANSPOSE_SWITCH=500".  Fields which are not
+ * in the profile keep their default value.  A profile for the current machine can be created using
+ * CalibrateParameters_DDRM in ejml-ddense.
+ * </p>
+ *
+ * <p>
+ * When {@link EjmlParameters} is first loaded it will look for a profile in the following order:
+ * </p>
+ * <ol>
+ *     <li>The file specified by the system property {@link #PROPERTY}, e.g. -Dejml.profile=/path/to/profile</li>
+ *     <li>The classpath resource {@link #RESOURCE}</li>
+ * </ol>
+ *
+ * @author Peter Abeles
+ */
+public class EjmlProfile {
+    /**
+     * Name of the system property which specifies the location of the profile
+     */
+    public static final String PROPERTY = "ejml.profile";
+
+    /**
+     * Name of the classpath resource which is loaded if the system property isn't set
+     */
+    public static final String RESOURCE = "ejml-profile.properties";
+
+    /**
+     * Loads the default profile if there is one.  Errors are printed instead of thrown since this is invoked
+     * while {@link EjmlParameters} is being initialized.
+     *
+     * @return Description of where the profile was loaded from or null if no profile was loaded
+     */
+    static String loadDefault() {
+        String path = null;
+        try {
+            path = System.getProperty(PROPERTY);
+            if( path != null ) {
+                load(new File(path));
+                return path;
+            }
+
+            ClassLoader loader = Thread.currentThread().getContextClassLoader();
+            if( loader == null )
+                loader = EjmlProfile.class.getClassLoader();
+            URL url = loader == null ? null : loader.getResource(RESOURCE);
+            if( url != null ) {
+                path = url.toString();
+                try( InputStream input = url.openStream() ) {
+                    load(input);
+                }
+                return path;
+            }
+        } catch( IOException | RuntimeException e ) {
+            System.err.println("EJML: Failed to load profile '"+path+"'. "+e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Loads a profile from a file and applies it to {@link EjmlParameters}
+     */
+    public static void load( File file ) throws IOException {
+        try( InputStream input = new FileInputStream(file) ) {
+            load(input);
+        }
+    }
+
+    /**
+     * Loads a profile from a stream and applies it to {@link EjmlParameters}. The stream is not closed.
+     */
+    public static void load( InputStream input ) throws IOException {
+        Properties profile = new Properties();
+        profile.load(new InputStreamReader(input, StandardCharsets.UTF_8));
+        load(profile);
+    }
+
+    /**
+     * Applies the profile to {@link EjmlParameters}.  If BLOCK_WIDTH is specified but not BLOCK_SIZE then BLOCK_SIZE
+     * is updated to match it.  The profile is validated before any values are changed.
+     *
+     * @param profile Values for fields in {@link EjmlParameters}
+     * @throws IllegalArgumentException If a key isn't a tunable field or if the value can't be parsed
+     */
+    public static void load( Properties profile ) {
+        // parse everything first so that a bad profile is not partially applied
+        Field[] fields = new Field[profile.size()];
+        Object[] values = new Object[profile.size()];
+        int index = 0;
+        for( String key : profile.stringPropertyNames() ) {
+            fields[index] = lookupField(key);
+            values[index] = parse(fields[index],profile.getProperty(key).trim());
+            index++;
+        }
+
+        try {
+            for (int i = 0; i < index; i++) {
+                fields[i].set(null,values[i]);
+            }
+        } catch( IllegalAccessException e ) {
+            throw new RuntimeException(e);
+        }
+
+        if( profile.containsKey("BLOCK_WIDTH") && !profile.containsKey("BLOCK_SIZE") )
+            EjmlParameters.BLOCK_SIZE = EjmlParameters.BLOCK_WIDTH*EjmlParameters.BLOCK_WIDTH;
+    }
+
+    /**
+     * Creates a profile from the current values in {@link EjmlParameters}
+     */
+    public static Properties current() {
+        Properties profile = new Properties();
+        try {
+            for( Field f : EjmlParameters.class.getFields() ) {
+                if( isTunable(f) )
+                    profile.setProperty(f.getName(), String.valueOf(f.get(null)));
+            }
+        } catch( IllegalAccessException e ) {
+            throw new RuntimeException(e);
+        }
+        return profile;
+    }
+
+    /**
+     * Saves the current values in {@link EjmlParameters} to a file
+     *
+     * @param file Output file
+     * @param comment Comment that's written at the top of the file. Can be null.
+     */
+    public static void save( File file , String comment ) throws IOException {
+        try( Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8) ) {
+            current().store(writer,comment);
+        }
+    }
+
+    private static Field lookupField( String name ) {
+        Field f;
+        try {
+            f = EjmlParameters.class.getField(name);
+        } catch( NoSuchFieldException e ) {
+            throw new IllegalArgumentException("Unknown parameter '"+name+"'");
+        }
+        if( !isTunable(f) )
+            throw new IllegalArgumentException("Parameter '"+name+"' can't be changed");
+        return f;
+    }
+
+    private static Object parse( Field f , String value ) {
+        Class<?> type = f.getType();
+        try {
+            if( type == int.class )
+                return Integer.parseInt(value);
+            else if( type == long.class )
+                return Long.parseLong(value);
+            else if( type == double.class )
+                return Double.parseDouble(value);
+            else if( type == EjmlParameters.MemoryUsage.class )
+                return EjmlParameters.MemoryUsage.valueOf(value);
+        } catch( IllegalArgumentException e ) {
+            throw new IllegalArgumentException("Bad value for '"+f.getName()+"': "+value);
+        }
+        throw new IllegalArgumentException("Unsupported type for '"+f.getName()+"'");
+    }
+
+    private static boolean isTunable( Field f ) {
+        int m = f.getModifiers();
+        return Modifier.isStatic(m) && !Modifier.isFinal(m);
+    }
+}
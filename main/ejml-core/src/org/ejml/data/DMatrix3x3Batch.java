@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.data;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * <p>
+ * A batch of 3 by 3 matrices stored in a struct of arrays format.  Element (i,j) of every matrix
+ * in the batch is stored in the array aIJ, e.g. a12[k] is the value at row 1 and column 2 of the k-th matrix.
+ * Operations which are applied to every matrix in the batch will then read and write memory sequentially.
+ * The arrays can be larger than the number of matrices in the batch.
+ * </p>
+ *
+ * <p>DO NOT MODIFY.  Automatically generated code created by GenerateMatrixFixedBatch</p>
+ *
+ * @author Peter Abeles
+ */
+public class DMatrix3x3Batch implements Serializable {
+    /**
+     * Number of matrices in the batch
+     */
+    public int size;
+
+    public double[] a11,a12,a13;
+    public double[] a21,a22,a23;
+    public double[] a31,a32,a33;
+
+    /**
+     * Creates a batch with the specified number of matrices. All elements are set to zero.
+     */
+    public DMatrix3x3Batch( int size ) {
+        a11 = new double[size];
+        a12 = new double[size];
+        a13 = new double[size];
+        a21 = new double[size];
+        a22 = new double[size];
+        a23 = new double[size];
+        a31 = new double[size];
+        a32 = new double[size];
+        a33 = new double[size];
+        this.size = size;
+    }
+
+    public DMatrix3x3Batch() {
+        this(0);
+    }
+
+    public DMatrix3x3Batch( DMatrix3x3Batch original ) {
+        this(original.size);
+        set(original);
+    }
+
+    /**
+     * Changes the number of matrices in the batch.  The values of matrices which were already in the
+     * batch are not modified.  The arrays are only reallocated if they are too small.
+     *
+     * @param size The new number of matrices.
+     */
+    public void reshape( int size ) {
+        if( size < 0 )
+            throw new IllegalArgumentException("size must be non-negative");
+        if( a11.length < size ) {
+            a11 = Arrays.copyOf(a11,size);
+            a12 = Arrays.copyOf(a12,size);
+            a13 = Arrays.copyOf(a13,size);
+            a21 = Arrays.copyOf(a21,size);
+            a22 = Arrays.copyOf(a22,size);
+            a23 = Arrays.copyOf(a23,size);
+            a31 = Arrays.copyOf(a31,size);
+            a32 = Arrays.copyOf(a32,size);
+            a33 = Arrays.copyOf(a33,size);
+        }
+        this.size = size;
+    }
+
+    /**
+     * Copies all the matrices in 'src' into this batch
+     */
+    public void set( DMatrix3x3Batch src ) {
+        reshape(src.size);
+        System.arraycopy(src.a11,0,a11,0,size);
+        System.arraycopy(src.a12,0,a12,0,size);
+        System.arraycopy(src.a13,0,a13,0,size);
+        System.arraycopy(src.a21,0,a21,0,size);
+        System.arraycopy(src.a22,0,a22,0,size);
+        System.arraycopy(src.a23,0,a23,0,size);
+        System.arraycopy(src.a31,0,a31,0,size);
+        System.arraycopy(src.a32,0,a32,0,size);
+        System.arraycopy(src.a33,0,a33,0,size);
+    }
+
+    /**
+     * Sets every element in every matrix to zero
+     */
+    public void zero() {
+        Arrays.fill(a11,0,size,0.0);
+        Arrays.fill(a12,0,size,0.0);
+        Arrays.fill(a13,0,size,0.0);
+        Arrays.fill(a21,0,size,0.0);
+        Arrays.fill(a22,0,size,0.0);
+        Arrays.fill(a23,0,size,0.0);
+        Arrays.fill(a31,0,size,0.0);
+        Arrays.fill(a32,0,size,0.0);
+        Arrays.fill(a33,0,size,0.0);
+    }
+
+    /**
+     * Copies a matrix into the batch
+     *
+     * @param index Index of the matrix in the batch
+     * @param src The matrix which is copied. Not modified.
+     */
+    public void set( int index , DMatrix3x3 src ) {
+        a11[index] = src.a11;
+        a12[index] = src.a12;
+        a13[index] = src.a13;
+        a21[index] = src.a21;
+        a22[index] = src.a22;
+        a23[index] = src.a23;
+        a31[index] = src.a31;
+        a32[index] = src.a32;
+        a33[index] = src.a33;
+    }
+
+    /**
+     * Copies a matrix out of the batch
+     *
+     * @param index Index of the matrix in the batch
+     * @param dst (Optional) Storage for the matrix. If null a new matrix is created.
+     * @return The matrix
+     */
+    public DMatrix3x3 get( int index , DMatrix3x3 dst ) {
+        if( dst == null )
+            dst = new DMatrix3x3();
+        dst.a11 = a11[index];
+        dst.a12 = a12[index];
+        dst.a13 = a13[index];
+        dst.a21 = a21[index];
+        dst.a22 = a22[index];
+        dst.a23 = a23[index];
+        dst.a31 = a31[index];
+        dst.a32 = a32[index];
+        dst.a33 = a33[index];
+        return dst;
+    }
+
+    public double get( int index , int row , int col ) {
+        return getElement(row,col)[index];
+    }
+
+    public void set( int index , int row , int col , double value ) {
+        getElement(row,col)[index] = value;
+    }
+
+    /**
+     * Returns the array which stores the specified element of all the matrices
+     */
+    public double[] getElement( int row , int col ) {
+        if( row == 0 ) {
+            if( col == 0 ) {
+                return a11;
+            } else if( col == 1 ) {
+                return a12;
+            } else if( col == 2 ) {
+                return a13;
+            }
+        } else if( row == 1 ) {
+            if( col == 0 ) {
+                return a21;
+            } else if( col == 1 ) {
+                return a22;
+            } else if( col == 2 ) {
+                return a23;
+            }
+        } else if( row == 2 ) {
+            if( col == 0 ) {
+                return a31;
+            } else if( col == 1 ) {
+                return a32;
+            } else if( col == 2 ) {
+                return a33;
+            }
+        }
+        throw new IllegalArgumentException("Row and/or column out of range. "+row+" "+col);
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getNumRows() {
+        return 3;
+    }
+
+    public int getNumCols() {
+        return 3;
+    }
+}
+
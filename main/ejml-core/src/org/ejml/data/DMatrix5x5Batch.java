@@ -0,0 +1,351 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.data;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * <p>
+ * A batch of 5 by 5 matrices stored in a struct of arrays format.  Element (i,j) of every matrix
+ * in the batch is stored in the array aIJ, e.g. a12[k] is the value at row 1 and column 2 of the k-th matrix.
+ * Operations which are applied to every matrix in the batch will then read and write memory sequentially.
+ * The arrays can be larger than the number of matrices in the batch.
+ * </p>
+ *
+ * <p>DO NOT MODIFY.  Automatically generated code created by GenerateMatrixFixedBatch</p>
+ *
+ * @author Peter Abeles
+ */
+public class DMatrix5x5Batch implements Serializable {
+    /**
+     * Number of matrices in the batch
+     */
+    public int size;
+
+    public double[] a11,a12,a13,a14,a15;
+    public double[] a21,a22,a23,a24,a25;
+    public double[] a31,a32,a33,a34,a35;
+    public double[] a41,a42,a43,a44,a45;
+    public double[] a51,a52,a53,a54,a55;
+
+    /**
+     * Creates a batch with the specified number of matrices. All elements are set to zero.
+     */
+    public DMatrix5x5Batch( int size ) {
+        a11 = new double[size];
+        a12 = new double[size];
+        a13 = new double[size];
+        a14 = new double[size];
+        a15 = new double[size];
+        a21 = new double[size];
+        a22 = new double[size];
+        a23 = new double[size];
+        a24 = new double[size];
+        a25 = new double[size];
+        a31 = new double[size];
+        a32 = new double[size];
+        a33 = new double[size];
+        a34 = new double[size];
+        a35 = new double[size];
+        a41 = new double[size];
+        a42 = new double[size];
+        a43 = new double[size];
+        a44 = new double[size];
+        a45 = new double[size];
+        a51 = new double[size];
+        a52 = new double[size];
+        a53 = new double[size];
+        a54 = new double[size];
+        a55 = new double[size];
+        this.size = size;
+    }
+
+    public DMatrix5x5Batch() {
+        this(0);
+    }
+
+    public DMatrix5x5Batch( DMatrix5x5Batch original ) {
+        this(original.size);
+        set(original);
+    }
+
+    /**
+     * Changes the number of matrices in the batch.  The values of matrices which were already in the
+     * batch are not modified.  The arrays are only reallocated if they are too small.
+     *
+     * @param size The new number of matrices.
+     */
+    public void reshape( int size ) {
+        if( size < 0 )
+            throw new IllegalArgumentException("size must be non-negative");
+        if( a11.length < size ) {
+            a11 = Arrays.copyOf(a11,size);
+            a12 = Arrays.copyOf(a12,size);
+            a13 = Arrays.copyOf(a13,size);
+            a14 = Arrays.copyOf(a14,size);
+            a15 = Arrays.copyOf(a15,size);
+            a21 = Arrays.copyOf(a21,size);
+            a22 = Arrays.copyOf(a22,size);
+            a23 = Arrays.copyOf(a23,size);
+            a24 = Arrays.copyOf(a24,size);
+            a25 = Arrays.copyOf(a25,size);
+            a31 = Arrays.copyOf(a31,size);
+            a32 = Arrays.copyOf(a32,size);
+            a33 = Arrays.copyOf(a33,size);
+            a34 = Arrays.copyOf(a34,size);
+            a35 = Arrays.copyOf(a35,size);
+            a41 = Arrays.copyOf(a41,size);
+            a42 = Arrays.copyOf(a42,size);
+            a43 = Arrays.copyOf(a43,size);
+            a44 = Arrays.copyOf(a44,size);
+            a45 = Arrays.copyOf(a45,size);
+            a51 = Arrays.copyOf(a51,size);
+            a52 = Arrays.copyOf(a52,size);
+            a53 = Arrays.copyOf(a53,size);
+            a54 = Arrays.copyOf(a54,size);
+            a55 = Arrays.copyOf(a55,size);
+        }
+        this.size = size;
+    }
+
+    /**
+     * Copies all the matrices in 'src' into this batch
+     */
+    public void set( DMatrix5x5Batch src ) {
+        reshape(src.size);
+        System.arraycopy(src.a11,0,a11,0,size);
+        System.arraycopy(src.a12,0,a12,0,size);
+        System.arraycopy(src.a13,0,a13,0,size);
+        System.arraycopy(src.a14,0,a14,0,size);
+        System.arraycopy(src.a15,0,a15,0,size);
+        System.arraycopy(src.a21,0,a21,0,size);
+        System.arraycopy(src.a22,0,a22,0,size);
+        System.arraycopy(src.a23,0,a23,0,size);
+        System.arraycopy(src.a24,0,a24,0,size);
+        System.arraycopy(src.a25,0,a25,0,size);
+        System.arraycopy(src.a31,0,a31,0,size);
+        System.arraycopy(src.a32,0,a32,0,size);
+        System.arraycopy(src.a33,0,a33,0,size);
+        System.arraycopy(src.a34,0,a34,0,size);
+        System.arraycopy(src.a35,0,a35,0,size);
+        System.arraycopy(src.a41,0,a41,0,size);
+        System.arraycopy(src.a42,0,a42,0,size);
+        System.arraycopy(src.a43,0,a43,0,size);
+        System.arraycopy(src.a44,0,a44,0,size);
+        System.arraycopy(src.a45,0,a45,0,size);
+        System.arraycopy(src.a51,0,a51,0,size);
+        System.arraycopy(src.a52,0,a52,0,size);
+        System.arraycopy(src.a53,0,a53,0,size);
+        System.arraycopy(src.a54,0,a54,0,size);
+        System.arraycopy(src.a55,0,a55,0,size);
+    }
+
+    /**
+     * Sets every element in every matrix to zero
+     */
+    public void zero() {
+        Arrays.fill(a11,0,size,0.0);
+        Arrays.fill(a12,0,size,0.0);
+        Arrays.fill(a13,0,size,0.0);
+        Arrays.fill(a14,0,size,0.0);
+        Arrays.fill(a15,0,size,0.0);
+        Arrays.fill(a21,0,size,0.0);
+        Arrays.fill(a22,0,size,0.0);
+        Arrays.fill(a23,0,size,0.0);
+        Arrays.fill(a24,0,size,0.0);
+        Arrays.fill(a25,0,size,0.0);
+        Arrays.fill(a31,0,size,0.0);
+        Arrays.fill(a32,0,size,0.0);
+        Arrays.fill(a33,0,size,0.0);
+        Arrays.fill(a34,0,size,0.0);
+        Arrays.fill(a35,0,size,0.0);
+        Arrays.fill(a41,0,size,0.0);
+        Arrays.fill(a42,0,size,0.0);
+        Arrays.fill(a43,0,size,0.0);
+        Arrays.fill(a44,0,size,0.0);
+        Arrays.fill(a45,0,size,0.0);
+        Arrays.fill(a51,0,size,0.0);
+        Arrays.fill(a52,0,size,0.0);
+        Arrays.fill(a53,0,size,0.0);
+        Arrays.fill(a54,0,size,0.0);
+        Arrays.fill(a55,0,size,0.0);
+    }
+
+    /**
+     * Copies a matrix into the batch
+     *
+     * @param index Index of the matrix in the batch
+     * @param src The matrix which is copied. Not modified.
+     */
+    public void set( int index , DMatrix5x5 src ) {
+        a11[index] = src.a11;
+        a12[index] = src.a12;
+        a13[index] = src.a13;
+        a14[index] = src.a14;
+        a15[index] = src.a15;
+        a21[index] = src.a21;
+        a22[index] = src.a22;
+        a23[index] = src.a23;
+        a24[index] = src.a24;
+        a25[index] = src.a25;
+        a31[index] = src.a31;
+        a32[index] = src.a32;
+        a33[index] = src.a33;
+        a34[index] = src.a34;
+        a35[index] = src.a35;
+        a41[index] = src.a41;
+        a42[index] = src.a42;
+        a43[index] = src.a43;
+        a44[index] = src.a44;
+        a45[index] = src.a45;
+        a51[index] = src.a51;
+        a52[index] = src.a52;
+        a53[index] = src.a53;
+        a54[index] = src.a54;
+        a55[index] = src.a55;
+    }
+
+    /**
+     * Copies a matrix out of the batch
+     *
+     * @param index Index of the matrix in the batch
+     * @param dst (Optional) Storage for the matrix. If null a new matrix is created.
+     * @return The matrix
+     */
+    public DMatrix5x5 get( int index , DMatrix5x5 dst ) {
+        if( dst == null )
+            dst = new DMatrix5x5();
+        dst.a11 = a11[index];
+        dst.a12 = a12[index];
+        dst.a13 = a13[index];
+        dst.a14 = a14[index];
+        dst.a15 = a15[index];
+        dst.a21 = a21[index];
+        dst.a22 = a22[index];
+        dst.a23 = a23[index];
+        dst.a24 = a24[index];
+        dst.a25 = a25[index];
+        dst.a31 = a31[index];
+        dst.a32 = a32[index];
+        dst.a33 = a33[index];
+        dst.a34 = a34[index];
+        dst.a35 = a35[index];
+        dst.a41 = a41[index];
+        dst.a42 = a42[index];
+        dst.a43 = a43[index];
+        dst.a44 = a44[index];
+        dst.a45 = a45[index];
+        dst.a51 = a51[index];
+        dst.a52 = a52[index];
+        dst.a53 = a53[index];
+        dst.a54 = a54[index];
+        dst.a55 = a55[index];
+        return dst;
+    }
+
+    public double get( int index , int row , int col ) {
+        return getElement(row,col)[index];
+    }
+
+    public void set( int index , int row , int col , double value ) {
+        getElement(row,col)[index] = value;
+    }
+
+    /**
+     * Returns the array which stores the specified element of all the matrices
+     */
+    public double[] getElement( int row , int col ) {
+        if( row == 0 ) {
+            if( col == 0 ) {
+                return a11;
+            } else if( col == 1 ) {
+                return a12;
+            } else if( col == 2 ) {
+                return a13;
+            } else if( col == 3 ) {
+                return a14;
+            } else if( col == 4 ) {
+                return a15;
+            }
+        } else if( row == 1 ) {
+            if( col == 0 ) {
+                return a21;
+            } else if( col == 1 ) {
+                return a22;
+            } else if( col == 2 ) {
+                return a23;
+            } else if( col == 3 ) {
+                return a24;
+            } else if( col == 4 ) {
+                return a25;
+            }
+        } else if( row == 2 ) {
+            if( col == 0 ) {
+                return a31;
+            } else if( col == 1 ) {
+                return a32;
+            } else if( col == 2 ) {
+                return a33;
+            } else if( col == 3 ) {
+                return a34;
+            } else if( col == 4 ) {
+                return a35;
+            }
+        } else if( row == 3 ) {
+            if( col == 0 ) {
+                return a41;
+            } else if( col == 1 ) {
+                return a42;
+            } else if( col == 2 ) {
+                return a43;
+            } else if( col == 3 ) {
+                return a44;
+            } else if( col == 4 ) {
+                return a45;
+            }
+        } else if( row == 4 ) {
+            if( col == 0 ) {
+                return a51;
+            } else if( col == 1 ) {
+                return a52;
+            } else if( col == 2 ) {
+                return a53;
+            } else if( col == 3 ) {
+                return a54;
+            } else if( col == 4 ) {
+                return a55;
+            }
+        }
+        throw new IllegalArgumentException("Row and/or column out of range. "+row+" "+col);
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getNumRows() {
+        return 5;
+    }
+
+    public int getNumCols() {
+        return 5;
+    }
+}
+
@@ -0,0 +1,368 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.data;
+
+import org.ejml.ops.MatrixIO;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * <p>
+ * Dense row-major matrix which is stored outside of the Java heap in direct or memory mapped buffers. The
+ * number of elements can exceed 2<sup>31</sup> and doesn't add to garbage collection pauses. A single
+ * buffer is limited to 2<sup>31</sup> bytes so the matrix is split into chunks. Each chunk holds a fixed
+ * number of complete rows, so a row is never split between two chunks.
+ * </p>
+ *
+ * <p>
+ * Elements are stored in the platform's native byte order. Memory mapped matrices can't be reshaped to be
+ * larger than the file region they were created with.
+ * </p>
+ *
+ * @see org.ejml.dense.row.OffHeapOps_DDRM
+ *
+ * @author Peter Abeles
+ */
+public class DMatrixOffHeap implements DMatrix, ReshapeMatrix {
+    /** Default maximum number of bytes in a chunk */
+    public static final int DEFAULT_CHUNK_BYTES = 1 << 30;
+
+    /** Number of rows in the matrix */
+    public int numRows;
+    /** Number of columns in the matrix */
+    public int numCols;
+
+    // storage for the rows in each chunk
+    transient DoubleBuffer[] chunks = new DoubleBuffer[0];
+    // number of rows in each chunk
+    int rowsPerChunk;
+    // maximum number of bytes in a chunk
+    int chunkBytes;
+    // number of rows which can be stored without declaring more memory
+    int capacityRows;
+    // true if the buffers are mapped to a file
+    boolean mapped;
+
+    /**
+     * Creates a matrix which is backed by direct buffers. Elements are initially zero.
+     *
+     * @param numRows Number of rows
+     * @param numCols Number of columns
+     * @param chunkBytes Maximum number of bytes in each chunk
+     */
+    public DMatrixOffHeap( int numRows , int numCols , int chunkBytes ) {
+        if( chunkBytes < Double.BYTES )
+            throw new IllegalArgumentException("chunkBytes is too small");
+        this.chunkBytes = chunkBytes;
+        reshape(numRows,numCols);
+    }
+
+    public DMatrixOffHeap( int numRows , int numCols ) {
+        this(numRows,numCols,DEFAULT_CHUNK_BYTES);
+    }
+
+    /**
+     * Creates a matrix which is backed by a file. The file is mapped in chunks and grows if needed when mapped
+     * with {@link FileChannel.MapMode#READ_WRITE}.
+     *
+     * @param channel File channel
+     * @param mode How the file is mapped
+     * @param position Location in the file of the first element
+     * @param numRows Number of rows
+     * @param numCols Number of columns
+     * @param chunkBytes Maximum number of bytes in each chunk
+     * @return The mapped matrix
+     */
+    public static DMatrixOffHeap map( FileChannel channel , FileChannel.MapMode mode , long position ,
+                                      int numRows , int numCols , int chunkBytes ) throws IOException {
+        DMatrixOffHeap m = new DMatrixOffHeap(0,0,chunkBytes);
+        m.mapped = true;
+        m.numRows = numRows;
+        m.numCols = numCols;
+        m.rowsPerChunk = computeRowsPerChunk(numCols,chunkBytes);
+        m.capacityRows = numRows;
+
+        int numChunks = numChunks(numRows,m.rowsPerChunk);
+        m.chunks = new DoubleBuffer[numChunks];
+        long bytesPerChunk = (long)m.rowsPerChunk*numCols*Double.BYTES;
+        for (int i = 0; i < numChunks; i++) {
+            int rows = Math.min(m.rowsPerChunk,numRows-i*m.rowsPerChunk);
+            long offset = position + i*bytesPerChunk;
+            ByteBuffer bb = channel.map(mode,offset,(long)rows*numCols*Double.BYTES);
+            m.chunks[i] = bb.order(ByteOrder.nativeOrder()).asDoubleBuffer();
+        }
+        return m;
+    }
+
+    public static DMatrixOffHeap map( FileChannel channel , FileChannel.MapMode mode ,
+                                      int numRows , int numCols ) throws IOException {
+        return map(channel,mode,0,numRows,numCols,DEFAULT_CHUNK_BYTES);
+    }
+
+    private static int computeRowsPerChunk( int numCols , int chunkBytes ) {
+        if( numCols == 0 )
+            return Integer.MAX_VALUE;
+        long rowBytes = (long)numCols*Double.BYTES;
+        if( rowBytes > Integer.MAX_VALUE )
+            throw new IllegalArgumentException("A single row is larger than the largest possible buffer");
+        return (int)Math.max(1,chunkBytes/rowBytes);
+    }
+
+    private static int numChunks( int numRows , int rowsPerChunk ) {
+        return (int)(((long)numRows+rowsPerChunk-1)/rowsPerChunk);
+    }
+
+    /**
+     * Changes the shape of the matrix. New memory is only declared if the number of columns changes or
+     * there isn't enough room for the rows. The value of elements is not preserved if memory is declared.
+     */
+    @Override
+    public void reshape(int numRows, int numCols) {
+        if( numRows < 0 || numCols < 0 )
+            throw new IllegalArgumentException("Negative shape");
+        if( numCols == this.numCols && numRows <= capacityRows ) {
+            this.numRows = numRows;
+            return;
+        }
+        if( mapped )
+            throw new IllegalArgumentException("A mapped matrix can't be reshaped to be larger");
+
+        this.numRows = numRows;
+        this.numCols = numCols;
+        this.rowsPerChunk = computeRowsPerChunk(numCols,chunkBytes);
+        this.capacityRows = numRows;
+
+        int numChunks = numCols == 0 ? 0 : numChunks(numRows,rowsPerChunk);
+        chunks = new DoubleBuffer[numChunks];
+        for (int i = 0; i < numChunks; i++) {
+            int rows = Math.min(rowsPerChunk,numRows-i*rowsPerChunk);
+            ByteBuffer bb = ByteBuffer.allocateDirect(rows*numCols*Double.BYTES);
+            chunks[i] = bb.order(ByteOrder.nativeOrder()).asDoubleBuffer();
+        }
+    }
+
+    @Override
+    public double get(int row, int col) {
+        if( col < 0 || col >= numCols || row < 0 || row >= numRows )
+            throw new IllegalArgumentException("Specified element is out of bounds: ("+row+" , "+col+")");
+        return unsafe_get(row,col);
+    }
+
+    @Override
+    public double unsafe_get(int row, int col) {
+        return chunks[row/rowsPerChunk].get((row%rowsPerChunk)*numCols+col);
+    }
+
+    @Override
+    public void set(int row, int col, double val) {
+        if( col < 0 || col >= numCols || row < 0 || row >= numRows )
+            throw new IllegalArgumentException("Specified element is out of bounds: ("+row+" , "+col+")");
+        unsafe_set(row,col,val);
+    }
+
+    @Override
+    public void unsafe_set(int row, int col, double val) {
+        chunks[row/rowsPerChunk].put((row%rowsPerChunk)*numCols+col,val);
+    }
+
+    /**
+     * Returns the value of an element using its row-major index, row*numCols + col
+     */
+    public double get( long index ) {
+        return unsafe_get((int)(index/numCols),(int)(index%numCols));
+    }
+
+    /**
+     * Sets the value of an element using its row-major index, row*numCols + col
+     */
+    public void set( long index , double val ) {
+        unsafe_set((int)(index/numCols),(int)(index%numCols),val);
+    }
+
+    /**
+     * Copies a row into the array
+     */
+    public void getRow( int row , double[] dst , int offset ) {
+        DoubleBuffer chunk = chunks[row/rowsPerChunk];
+        int index = (row%rowsPerChunk)*numCols;
+        for (int col = 0; col < numCols; col++) {
+            dst[offset+col] = chunk.get(index+col);
+        }
+    }
+
+    /**
+     * Copies the array into a row
+     */
+    public void setRow( int row , double[] src , int offset ) {
+        DoubleBuffer chunk = chunks[row/rowsPerChunk];
+        int index = (row%rowsPerChunk)*numCols;
+        for (int col = 0; col < numCols; col++) {
+            chunk.put(index+col,src[offset+col]);
+        }
+    }
+
+    /**
+     * Returns the chunk which contains the specified row
+     */
+    public DoubleBuffer getChunkOfRow( int row ) {
+        return chunks[row/rowsPerChunk];
+    }
+
+    /**
+     * Index of the row's first element inside of its chunk
+     */
+    public int getIndexInChunk( int row ) {
+        return (row%rowsPerChunk)*numCols;
+    }
+
+    /**
+     * Number of rows in each chunk. The last chunk can have fewer.
+     */
+    public int getRowsPerChunk() {
+        return rowsPerChunk;
+    }
+
+    public int getChunkBytes() {
+        return chunkBytes;
+    }
+
+    public boolean isMapped() {
+        return mapped;
+    }
+
+    /**
+     * Number of elements in the matrix. Throws an exception if it's too large for an int.
+     *
+     * @see #getNumElementsLong()
+     */
+    @Override
+    public int getNumElements() {
+        long N = getNumElementsLong();
+        if( N > Integer.MAX_VALUE )
+            throw new IllegalArgumentException("Too many elements for an int. Call getNumElementsLong()");
+        return (int)N;
+    }
+
+    public long getNumElementsLong() {
+        return (long)numRows*numCols;
+    }
+
+    @Override
+    public int getNumRows() {
+        return numRows;
+    }
+
+    @Override
+    public int getNumCols() {
+        return numCols;
+    }
+
+    @Override
+    public void zero() {
+        for (int i = 0; i < chunks.length; i++) {
+            DoubleBuffer chunk = chunks[i];
+            int N = chunk.capacity();
+            for (int j = 0; j < N; j++) {
+                chunk.put(j,0);
+            }
+        }
+    }
+
+    @Override
+    public <T extends Matrix> T copy() {
+        DMatrixOffHeap m = new DMatrixOffHeap(numRows,numCols,chunkBytes);
+        m.set(this);
+        return (T)m;
+    }
+
+    @Override
+    public <T extends Matrix> T createLike() {
+        return (T)new DMatrixOffHeap(numRows,numCols,chunkBytes);
+    }
+
+    @Override
+    public void set(Matrix original) {
+        DMatrix m = (DMatrix)original;
+        reshape(m.getNumRows(),m.getNumCols());
+
+        if( m instanceof DMatrixRMaj ) {
+            DMatrixRMaj src = (DMatrixRMaj)m;
+            for (int row = 0; row < numRows; row++) {
+                setRow(row,src.data,row*numCols);
+            }
+        } else {
+            for (int row = 0; row < numRows; row++) {
+                for (int col = 0; col < numCols; col++) {
+                    unsafe_set(row,col,m.get(row,col));
+                }
+            }
+        }
+    }
+
+    @Override
+    public void print() {
+        MatrixIO.printFancy(System.out,this,MatrixIO.DEFAULT_LENGTH);
+    }
+
+    @Override
+    public void print(String format) {
+        MatrixIO.print(System.out,this,format);
+    }
+
+    /**
+     * There is no specific type for off-heap matrices
+     */
+    @Override
+    public MatrixType getType() {
+        return MatrixType.UNSPECIFIED;
+    }
+
+    private void writeObject( ObjectOutputStream out ) throws IOException {
+        out.defaultWriteObject();
+        for (int row = 0; row < numRows; row++) {
+            for (int col = 0; col < numCols; col++) {
+                out.writeDouble(unsafe_get(row,col));
+            }
+        }
+    }
+
+    /**
+     * Deserialized matrices are always backed by direct buffers
+     */
+    private void readObject( ObjectInputStream in ) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        int rows = numRows, cols = numCols;
+        numRows = numCols = capacityRows = 0;
+        mapped = false;
+        chunks = new DoubleBuffer[0];
+        reshape(rows,cols);
+        for (int row = 0; row < numRows; row++) {
+            for (int col = 0; col < numCols; col++) {
+                unsafe_set(row,col,in.readDouble());
+            }
+        }
+    }
+}
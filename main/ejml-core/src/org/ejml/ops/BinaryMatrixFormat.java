@@ -0,0 +1,344 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.ops;
+
+import org.ejml.data.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * <p>
+ * Versioned binary file format for matrices.  The file starts with a {@link #HEADER_BYTES} byte header and is
+ * followed by the matrix's internal arrays, copied without any conversion.  All values are little-endian.
+ * Files are read and written through memory mapped buffers, which avoids the overhead of Java serialization and
+ * allows matrices to be loaded with a single bulk copy per array.
+ * </p>
+ *
+ * <pre>
+ * Header:
+ *  0  int magic        'E' 'J' 'M' 'L'
+ *  4  int version      {@link #VERSION}
+ *  8  int type         {@link Type#code}
+ * 12  int numRows
+ * 16  int numCols
+ * 20  int extra        block length for block matrices, nz_length for sparse matrices, otherwise 0
+ * 24  int flags        bit 0 = indicesSorted for sparse matrices
+ * 28  int reserved
+ * Dense:   data[numRows*numCols]    (two values per element for complex matrices)
+ * Block:   data[numRows*numCols]    (in the block order used by the block matrix)
+ * Sparse:  nz_values[nz_length], col_idx[numCols+1], nz_rows[nz_length]
+ * </pre>
+ *
+ * @see ReadMatrixBinary
+ * @author Peter Abeles
+ */
+public class BinaryMatrixFormat {
+    /** First four bytes in the file: "EJML" */
+    public static final int MAGIC = 0x4C4D4A45;
+    /** Version of the format that's written */
+    public static final int VERSION = 1;
+    /** Number of bytes in the header */
+    public static final int HEADER_BYTES = 32;
+
+    /** Bit in the flags which indicates the sparse row indices are sorted */
+    public static final int FLAG_SORTED = 1;
+
+    // Largest region which is mapped at once. Multiple of 8 so that values never span two regions
+    static int MAP_BYTES = 1 << 30;
+
+    /**
+     * Types of matrices which can be saved in the binary format
+     */
+    public enum Type {
+        DDRM(1,8,false,false,false),
+        FDRM(2,4,false,false,false),
+        ZDRM(3,8,true,false,false),
+        CDRM(4,4,true,false,false),
+        DDRB(5,8,false,true,false),
+        FDRB(6,4,false,true,false),
+        DSCC(7,8,false,false,true),
+        FSCC(8,4,false,false,true);
+
+        /** Value used to identify the type in the file */
+        final int code;
+        /** Number of bytes in a single value */
+        final int bytes;
+        final boolean complex;
+        final boolean block;
+        final boolean sparse;
+
+        Type(int code, int bytes, boolean complex, boolean block, boolean sparse) {
+            this.code = code;
+            this.bytes = bytes;
+            this.complex = complex;
+            this.block = block;
+            this.sparse = sparse;
+        }
+
+        public int getBits() {
+            return bytes*8;
+        }
+
+        public boolean isComplex() {
+            return complex;
+        }
+
+        public boolean isBlock() {
+            return block;
+        }
+
+        public boolean isSparse() {
+            return sparse;
+        }
+
+        public static Type lookup( int code ) {
+            for( Type t : values() ) {
+                if( t.code == code )
+                    return t;
+            }
+            throw new IllegalArgumentException("Unknown matrix type code "+code);
+        }
+
+        /**
+         * Returns the type for the matrix or null if it isn't supported
+         */
+        public static Type lookup( Matrix A ) {
+            Class c = A.getClass();
+            if( c == DMatrixRMaj.class ) return DDRM;
+            if( c == FMatrixRMaj.class ) return FDRM;
+            if( c == ZMatrixRMaj.class ) return ZDRM;
+            if( c == CMatrixRMaj.class ) return CDRM;
+            if( c == DMatrixRBlock.class ) return DDRB;
+            if( c == FMatrixRBlock.class ) return FDRB;
+            if( c == DMatrixSparseCSC.class ) return DSCC;
+            if( c == FMatrixSparseCSC.class ) return FSCC;
+            return null;
+        }
+    }
+
+    /**
+     * Returns true if the matrix can be saved in this format
+     */
+    public static boolean isSupported( Matrix A ) {
+        return Type.lookup(A) != null;
+    }
+
+    /**
+     * Returns true if the file starts with the magic number of this format
+     */
+    public static boolean isBinaryFormat( File file ) throws IOException {
+        try( RandomAccessFile raf = new RandomAccessFile(file,"r") ) {
+            if( raf.length() < 4 )
+                return false;
+            return Integer.reverseBytes(raf.readInt()) == MAGIC;
+        }
+    }
+
+    /**
+     * Saves the matrix to a file. If the file already exists it is overwritten.
+     *
+     * @param A Matrix being saved. Must be one of the types in {@link Type}
+     * @param file Output file
+     */
+    public static void save( Matrix A , File file ) throws IOException {
+        Type type = Type.lookup(A);
+        if( type == null )
+            throw new IllegalArgumentException("Matrix type not supported: "+A.getClass().getSimpleName());
+
+        try( RandomAccessFile raf = new RandomAccessFile(file,"rw") ) {
+            long length = HEADER_BYTES + dataBytes(A,type);
+            raf.setLength(length);
+            FileChannel channel = raf.getChannel();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(type.code);
+            header.putInt(A.getNumRows()).putInt(A.getNumCols());
+            switch( type ) {
+                case DDRB: header.putInt(((DMatrixRBlock)A).blockLength).putInt(0); break;
+                case FDRB: header.putInt(((FMatrixRBlock)A).blockLength).putInt(0); break;
+                case DSCC: { DMatrixSparseCSC S = (DMatrixSparseCSC)A;
+                    header.putInt(S.nz_length).putInt(S.indicesSorted ? FLAG_SORTED : 0); } break;
+                case FSCC: { FMatrixSparseCSC S = (FMatrixSparseCSC)A;
+                    header.putInt(S.nz_length).putInt(S.indicesSorted ? FLAG_SORTED : 0); } break;
+                default: header.putInt(0).putInt(0);
+            }
+            header.putInt(0);
+            header.flip();
+            while( header.hasRemaining() )
+                channel.write(header,header.position());
+
+            long pos = HEADER_BYTES;
+            switch( type ) {
+                case DDRM: case ZDRM: case DDRB: {
+                    write(channel,pos,arrayD(A),dataLength(A,type));
+                } break;
+
+                case FDRM: case CDRM: case FDRB: {
+                    write(channel,pos,arrayF(A),dataLength(A,type));
+                } break;
+
+                case DSCC: {
+                    DMatrixSparseCSC S = (DMatrixSparseCSC)A;
+                    pos = write(channel,pos,S.nz_values,S.nz_length);
+                    pos = write(channel,pos,S.col_idx,S.numCols+1);
+                    write(channel,pos,S.nz_rows,S.nz_length);
+                } break;
+
+                case FSCC: {
+                    FMatrixSparseCSC S = (FMatrixSparseCSC)A;
+                    pos = write(channel,pos,S.nz_values,S.nz_length);
+                    pos = write(channel,pos,S.col_idx,S.numCols+1);
+                    write(channel,pos,S.nz_rows,S.nz_length);
+                } break;
+            }
+        }
+    }
+
+    /**
+     * Loads a matrix from a file in a single pass
+     *
+     * @param file Input file
+     * @return The matrix
+     */
+    public static <T extends Matrix> T load( File file ) throws IOException {
+        try( ReadMatrixBinary reader = new ReadMatrixBinary(file) ) {
+            return reader.readAll();
+        }
+    }
+
+    /**
+     * Number of bytes needed to save the matrix's data
+     */
+    static long dataBytes( Matrix A , Type type ) {
+        long N = dataLength(A,type);
+        if( type.sparse ) {
+            return N*type.bytes + 4L*(A.getNumCols()+1) + 4L*N;
+        } else {
+            return N*type.bytes;
+        }
+    }
+
+    /**
+     * Number of values in the matrix's data array, or non-zero elements if sparse
+     */
+    static long dataLength( Matrix A , Type type ) {
+        switch( type ) {
+            case DSCC: return ((DMatrixSparseCSC)A).nz_length;
+            case FSCC: return ((FMatrixSparseCSC)A).nz_length;
+            default:
+                return (long)A.getNumRows()*A.getNumCols()*(type.complex ? 2 : 1);
+        }
+    }
+
+    // The dense matrices don't share a common interface for accessing their data arrays
+    private static double[] arrayD( Matrix A ) {
+        if( A instanceof DMatrixRMaj ) return ((DMatrixRMaj)A).data;
+        if( A instanceof ZMatrixRMaj ) return ((ZMatrixRMaj)A).data;
+        return ((DMatrixRBlock)A).data;
+    }
+
+    private static float[] arrayF( Matrix A ) {
+        if( A instanceof FMatrixRMaj ) return ((FMatrixRMaj)A).data;
+        if( A instanceof CMatrixRMaj ) return ((CMatrixRMaj)A).data;
+        return ((FMatrixRBlock)A).data;
+    }
+
+    /**
+     * Maps a region of the file for writing
+     */
+    private static MappedByteBuffer mapWrite( FileChannel channel , long pos , long bytes ) throws IOException {
+        return (MappedByteBuffer)channel.map(FileChannel.MapMode.READ_WRITE,pos,bytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    static MappedByteBuffer mapRead( FileChannel channel , long pos , long bytes ) throws IOException {
+        return (MappedByteBuffer)channel.map(FileChannel.MapMode.READ_ONLY,pos,bytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    static long write( FileChannel channel , long pos , double[] data , long length ) throws IOException {
+        int offset = 0;
+        while( offset < length ) {
+            int n = (int)Math.min(length-offset,MAP_BYTES/8);
+            mapWrite(channel,pos,n*8L).asDoubleBuffer().put(data,offset,n);
+            offset += n;
+            pos += n*8L;
+        }
+        return pos;
+    }
+
+    static long write( FileChannel channel , long pos , float[] data , long length ) throws IOException {
+        int offset = 0;
+        while( offset < length ) {
+            int n = (int)Math.min(length-offset,MAP_BYTES/4);
+            mapWrite(channel,pos,n*4L).asFloatBuffer().put(data,offset,n);
+            offset += n;
+            pos += n*4L;
+        }
+        return pos;
+    }
+
+    static long write( FileChannel channel , long pos , int[] data , long length ) throws IOException {
+        int offset = 0;
+        while( offset < length ) {
+            int n = (int)Math.min(length-offset,MAP_BYTES/4);
+            mapWrite(channel,pos,n*4L).asIntBuffer().put(data,offset,n);
+            offset += n;
+            pos += n*4L;
+        }
+        return pos;
+    }
+
+    static long read( FileChannel channel , long pos , double[] data , long length ) throws IOException {
+        int offset = 0;
+        while( offset < length ) {
+            int n = (int)Math.min(length-offset,MAP_BYTES/8);
+            mapRead(channel,pos,n*8L).asDoubleBuffer().get(data,offset,n);
+            offset += n;
+            pos += n*8L;
+        }
+        return pos;
+    }
+
+    static long read( FileChannel channel , long pos , float[] data , long length ) throws IOException {
+        int offset = 0;
+        while( offset < length ) {
+            int n = (int)Math.min(length-offset,MAP_BYTES/4);
+            mapRead(channel,pos,n*4L).asFloatBuffer().get(data,offset,n);
+            offset += n;
+            pos += n*4L;
+        }
+        return pos;
+    }
+
+    static long read( FileChannel channel , long pos , int[] data , long length ) throws IOException {
+        int offset = 0;
+        while( offset < length ) {
+            int n = (int)Math.min(length-offset,MAP_BYTES/4);
+            mapRead(channel,pos,n*4L).asIntBuffer().get(data,offset,n);
+            offset += n;
+            pos += n*4L;
+        }
+        return pos;
+    }
+}
@@ -18,6 +18,7 @@
 
 package org.ejml.ops;
 
+import org.ejml.UtilEjml;
 import org.ejml.data.*;
 
 import java.util.Arrays;
@@ -915,4 +916,203 @@ public class ConvertDMatrixStruct {
 
         return dst;
     }
+
+    public static DMatrixRMaj convert(DMatrixSparseCSR src , DMatrixRMaj dst ) {
+        if( dst == null )
+            dst = new DMatrixRMaj(src.numRows, src.numCols);
+        else {
+            dst.reshape(src.numRows, src.numCols);
+            dst.zero();
+        }
+
+        int idx0 = src.row_idx[0];
+        for (int row = 0; row < src.numRows; row++) {
+            int idx1 = src.row_idx[row+1];
+            int indexDst = row*src.numCols;
+
+            for (int i = idx0; i < idx1; i++) {
+                dst.data[indexDst+src.nz_cols[i]] = src.nz_values[i];
+            }
+            idx0 = idx1;
+        }
+
+        return dst;
+    }
+
+    /**
+     * Converts a dense matrix into a compressed row matrix. Elements with an absolute value less than or equal
+     * to tol are not included.
+     *
+     * @param src Original matrix that is to be converted.
+     * @param dst Storage for the converted matrix.  If null a new instance will be returned.
+     * @param tol Elements with a magnitude less than or equal to this are skipped.
+     * @return The converted matrix
+     */
+    public static DMatrixSparseCSR convert(DMatrixRMaj src , DMatrixSparseCSR dst , double tol ) {
+        int nonzero = 0;
+        int N = src.numRows*src.numCols;
+        for (int i = 0; i < N; i++) {
+            if( Math.abs(src.data[i]) > tol )
+                nonzero++;
+        }
+
+        if( dst == null )
+            dst = new DMatrixSparseCSR(src.numRows, src.numCols, nonzero);
+        else
+            dst.reshape(src.numRows, src.numCols, nonzero);
+        dst.nz_length = 0;
+
+        dst.row_idx[0] = 0;
+        int index = 0;
+        for (int row = 0; row < src.numRows; row++) {
+            for (int col = 0; col < src.numCols; col++, index++) {
+                double value = src.data[index];
+                if( Math.abs(value) <= tol )
+                    continue;
+
+                dst.nz_cols[dst.nz_length] = col;
+                dst.nz_values[dst.nz_length] = value;
+                dst.nz_length += 1;
+            }
+            dst.row_idx[row+1] = dst.nz_length;
+        }
+        dst.indicesSorted = true;
+
+        return dst;
+    }
+
+    /**
+     * Converts a compressed column matrix into a compressed row matrix in O(N + nz_length) time.  The column
+     * indices in the output are always sorted.
+     *
+     * @param src Original matrix which is to be copied.  Not modified.
+     * @param dst Destination. Will be a copy.  If null a new instance will be returned.
+     * @param gw (Optional) Storage for internal workspace.  Can be null.
+     * @return The converted matrix
+     */
+    public static DMatrixSparseCSR convert(DMatrixSparseCSC src , DMatrixSparseCSR dst , IGrowArray gw ) {
+        if( dst == null )
+            dst = new DMatrixSparseCSR(src.numRows, src.numCols, src.nz_length);
+        else
+            dst.reshape(src.numRows, src.numCols, src.nz_length);
+
+        int hist[] = UtilEjml.adjustClear(gw,src.numRows);
+
+        // compute the number of elements in each row
+        for (int i = 0; i < src.nz_length; i++) {
+            hist[src.nz_rows[i]]++;
+        }
+
+        // define row_idx then write the elements of each column in order
+        dst.histogramToStructure(hist);
+        System.arraycopy(dst.row_idx,0,hist,0,dst.numRows);
+
+        for (int col = 0; col < src.numCols; col++) {
+            int idx0 = src.col_idx[col];
+            int idx1 = src.col_idx[col+1];
+
+            for (int i = idx0; i < idx1; i++) {
+                int index = hist[src.nz_rows[i]]++;
+                dst.nz_cols[index] = col;
+                dst.nz_values[index] = src.nz_values[i];
+            }
+        }
+        dst.indicesSorted = true;
+
+        return dst;
+    }
+
+    public static DMatrixSparseCSR convert(DMatrixSparseCSC src , DMatrixSparseCSR dst ) {
+        return convert(src,dst,null);
+    }
+
+    /**
+     * Converts a compressed row matrix into a compressed column matrix in O(N + nz_length) time.  The row
+     * indices in the output are always sorted.
+     *
+     * @param src Original matrix which is to be copied.  Not modified.
+     * @param dst Destination. Will be a copy.  If null a new instance will be returned.
+     * @param gw (Optional) Storage for internal workspace.  Can be null.
+     * @return The converted matrix
+     */
+    public static DMatrixSparseCSC convert(DMatrixSparseCSR src , DMatrixSparseCSC dst , IGrowArray gw ) {
+        if( dst == null )
+            dst = new DMatrixSparseCSC(src.numRows, src.numCols, src.nz_length);
+        else
+            dst.reshape(src.numRows, src.numCols, src.nz_length);
+
+        int hist[] = UtilEjml.adjustClear(gw,src.numCols);
+
+        // compute the number of elements in each column
+        for (int i = 0; i < src.nz_length; i++) {
+            hist[src.nz_cols[i]]++;
+        }
+
+        // define col_idx then write the elements of each row in order
+        dst.histogramToStructure(hist);
+        System.arraycopy(dst.col_idx,0,hist,0,dst.numCols);
+
+        for (int row = 0; row < src.numRows; row++) {
+            int idx0 = src.row_idx[row];
+            int idx1 = src.row_idx[row+1];
+
+            for (int i = idx0; i < idx1; i++) {
+                int index = hist[src.nz_cols[i]]++;
+                dst.nz_rows[index] = row;
+                dst.nz_values[index] = src.nz_values[i];
+            }
+        }
+        dst.indicesSorted = true;
+
+        return dst;
+    }
+
+    public static DMatrixSparseCSC convert(DMatrixSparseCSR src , DMatrixSparseCSC dst ) {
+        return convert(src,dst,null);
+    }
+
+    /**
+     * Converts a triplet matrix into a compressed row matrix.
+     *
+     * @param src Original matrix which is to be copied.  Not modified.
+     * @param dst Destination. Will be a copy.  If null a new instance will be returned.
+     * @param hist Workspace.  Should be at least as long as the number of rows.  Can be null.
+     * @return The converted matrix
+     */
+    public static DMatrixSparseCSR convert(DMatrixSparseTriplet src , DMatrixSparseCSR dst , int hist[] ) {
+        if( dst == null )
+            dst = new DMatrixSparseCSR(src.numRows, src.numCols , src.nz_length);
+        else
+            dst.reshape(src.numRows, src.numCols, src.nz_length);
+
+        if( hist == null )
+            hist = new int[ src.numRows ];
+        else if( hist.length >= src.numRows )
+            Arrays.fill(hist,0,src.numRows, 0);
+        else
+            throw new IllegalArgumentException("Length of hist must be at least numRows");
+
+        // compute the number of elements in each row
+        for (int i = 0; i < src.nz_length; i++) {
+            hist[src.nz_rowcol.data[i*2]]++;
+        }
+
+        // define row_idx
+        dst.histogramToStructure(hist);
+        System.arraycopy(dst.row_idx,0,hist,0,dst.numRows);
+
+        // now write the column indexes and the values
+        for (int i = 0; i < src.nz_length; i++) {
+            int row = src.nz_rowcol.data[i*2];
+            int col = src.nz_rowcol.data[i*2+1];
+            double value = src.nz_value.data[i];
+
+            int index = hist[row]++;
+            dst.nz_cols[index] = col;
+            dst.nz_values[index] = value;
+        }
+        dst.indicesSorted = false;
+
+        return dst;
+    }
 }
@@ -59,6 +59,10 @@ public class ConvertMatrixType {
                         m = new FMatrixSparseCSC(matrix.getNumRows(),matrix.getNumCols());
                         ConvertMatrixData.convert((DMatrixRMaj) matrix, (FMatrixSparseCSC)m);
                     } break;
+
+                    case DSCR: {
+                        m = ConvertDMatrixStruct.convert((DMatrixRMaj) matrix, (DMatrixSparseCSR)null, 0);
+                    } break;
                 }
             } break;
 
@@ -91,6 +95,10 @@ public class ConvertMatrixType {
                         m = new FMatrixSparseCSC(matrix.getNumRows(),matrix.getNumCols());
                         ConvertFMatrixStruct.convert((FMatrixRMaj) matrix, (FMatrixSparseCSC)m);
                     } break;
+
+                    case FSCR: {
+                        m = ConvertFMatrixStruct.convert((FMatrixRMaj) matrix, (FMatrixSparseCSR)null, 0);
+                    } break;
                 }
             } break;
 
@@ -138,6 +146,10 @@ public class ConvertMatrixType {
                         m = new FMatrixSparseCSC(matrix.getNumRows(),matrix.getNumCols());
                         ConvertMatrixData.convert((DMatrixSparseCSC) matrix, (FMatrixSparseCSC)m);
                     } break;
+
+                    case DSCR: {
+                        m = ConvertDMatrixStruct.convert((DMatrixSparseCSC) matrix, (DMatrixSparseCSR)null);
+                    } break;
                 }
             } break;
 
@@ -167,6 +179,34 @@ public class ConvertMatrixType {
                         m = new DMatrixSparseCSC(matrix.getNumRows(),matrix.getNumCols());
                         ConvertMatrixData.convert((FMatrixSparseCSC) matrix, (DMatrixSparseCSC)m);
                     } break;
+
+                    case FSCR: {
+                        m = ConvertFMatrixStruct.convert((FMatrixSparseCSC) matrix, (FMatrixSparseCSR)null);
+                    } break;
+                }
+            } break;
+
+            case DSCR: {
+                switch( desired ) {
+                    case DDRM: {
+                        m = ConvertDMatrixStruct.convert((DMatrixSparseCSR) matrix, (DMatrixRMaj)null);
+                    } break;
+
+                    case DSCC: {
+                        m = ConvertDMatrixStruct.convert((DMatrixSparseCSR) matrix, (DMatrixSparseCSC)null);
+                    } break;
+                }
+            } break;
+
+            case FSCR: {
+                switch( desired ) {
+                    case FDRM: {
+                        m = ConvertFMatrixStruct.convert((FMatrixSparseCSR) matrix, (FMatrixRMaj)null);
+                    } break;
+
+                    case FSCC: {
+                        m = ConvertFMatrixStruct.convert((FMatrixSparseCSR) matrix, (FMatrixSparseCSC)null);
+                    } break;
                 }
             } break;
         }
@@ -39,7 +39,7 @@ public class MatrixIO {
     public static final int DEFAULT_LENGTH = 11; // length of pretty print
 
     /**
-     * Saves a matrix to disk using Java binary serialization.
+     * Saves a matrix to disk in a binary format.  Same as {@link #saveBin(Matrix, String)}.
      *
      * @param A The matrix being saved.
      * @param fileName Name of the file its being saved at.
@@ -48,6 +48,26 @@ public class MatrixIO {
     public static void saveBin(DMatrix A, String fileName)
         throws IOException
     {
+        saveBin((Matrix)A,fileName);
+    }
+
+    /**
+     * Saves a matrix to disk in a binary format.  Matrices supported by {@link BinaryMatrixFormat} are saved
+     * using that format, which is much faster to read and write.  All other matrices are saved using Java
+     * binary serialization.
+     *
+     * @param A The matrix being saved.
+     * @param fileName Name of the file its being saved at.
+     * @throws java.io.IOException
+     */
+    public static void saveBin(Matrix A, String fileName)
+        throws IOException
+    {
+        if( BinaryMatrixFormat.isSupported(A) ) {
+            BinaryMatrixFormat.save(A,new File(fileName));
+            return;
+        }
+
         FileOutputStream fileStream = new FileOutputStream(fileName);
         ObjectOutputStream stream = new ObjectOutputStream(fileStream);
 
@@ -66,17 +86,34 @@ public class MatrixIO {
     }
 
     /**
-     * Loads a {@link DMatrix} which has been saved to file using Java binary
-     * serialization.
+     * Loads a {@link DMatrix} which has been saved to file using {@link #saveBin(DMatrix, String)}.  Use
+     * {@link #loadBin(File)} to load other types of matrices.
      *
      * @param fileName The file being loaded.
-     * @return  DMatrixRMaj
+     * @return  The matrix
      * @throws IOException
      */
     public static <T extends DMatrix> T loadBin(String fileName)
         throws IOException
     {
-        FileInputStream fileStream = new FileInputStream(fileName);
+        return loadBin(new File(fileName));
+    }
+
+    /**
+     * Loads a {@link Matrix} which has been saved to file using {@link #saveBin(Matrix, String)}.  Files
+     * saved using Java binary serialization by older versions can still be read.
+     *
+     * @param file The file being loaded.
+     * @return  The matrix
+     * @throws IOException
+     */
+    public static <T extends Matrix> T loadBin(File file)
+        throws IOException
+    {
+        if( BinaryMatrixFormat.isBinaryFormat(file) )
+            return BinaryMatrixFormat.load(file);
+
+        FileInputStream fileStream = new FileInputStream(file);
         ObjectInputStream stream = new ObjectInputStream(fileStream);
 
         T ret;
@@ -355,6 +392,10 @@ public class MatrixIO {
                 print(out,(DMatrixSparseTriplet)mat,format);
                 break;
 
+            case DSCR:
+                print(out,(DMatrix)mat,format);
+                break;
+
             case FSCC:
                 print(out,(FMatrixSparseCSC)mat,format);
                 break;
@@ -363,6 +404,10 @@ public class MatrixIO {
                 print(out,(FMatrixSparseTriplet)mat,format);
                 break;
 
+            case FSCR:
+                print(out,(FMatrix)mat,format);
+                break;
+
             default:
                 throw new RuntimeException("Unknown type "+mat.getType());
         }
@@ -0,0 +1,381 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.ops;
+
+import org.ejml.data.*;
+import org.ejml.ops.BinaryMatrixFormat.Type;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+import static org.ejml.ops.BinaryMatrixFormat.HEADER_BYTES;
+
+/**
+ * <p>
+ * Reads a matrix saved in the {@link BinaryMatrixFormat}.  The entire matrix can be loaded with {@link #readAll()}
+ * or it can be read one row at a time for dense matrices or one column at a time for sparse matrices, which allows
+ * matrices that are larger than the available memory to be processed.
+ * </p>
+ *
+ * <pre>
+ * try( ReadMatrixBinary reader = new ReadMatrixBinary(file) ) {
+ *     double[] row = new double[reader.getNumCols()];
+ *     for( int i = 0; i < reader.getNumRows(); i++ ) {
+ *         reader.readRow(i,row);
+ *         ...
+ *     }
+ * }
+ * </pre>
+ *
+ * @author Peter Abeles
+ */
+public class ReadMatrixBinary implements Closeable {
+    private RandomAccessFile file;
+    private FileChannel channel;
+
+    private Type type;
+    private int version;
+    private int numRows,numCols;
+    // block length or number of non-zero elements
+    private int extra;
+    private int flags;
+
+    // storage used when streaming
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(0);
+
+    /**
+     * Opens the file and reads the header
+     *
+     * @throws IOException If the file can't be read or isn't in the binary format
+     */
+    public ReadMatrixBinary( File file ) throws IOException {
+        this.file = new RandomAccessFile(file,"r");
+        this.channel = this.file.getChannel();
+        try {
+            readHeader();
+        } catch( IOException | RuntimeException e ) {
+            close();
+            throw e;
+        }
+    }
+
+    private void readHeader() throws IOException {
+        if( channel.size() < HEADER_BYTES )
+            throw new IOException("File is too small to be a matrix");
+        ByteBuffer header = fill(0,HEADER_BYTES);
+        if( header.getInt() != BinaryMatrixFormat.MAGIC )
+            throw new IOException("Not a binary matrix file");
+        version = header.getInt();
+        if( version < 1 || version > BinaryMatrixFormat.VERSION )
+            throw new IOException("Unsupported version "+version);
+        try {
+            type = Type.lookup(header.getInt());
+        } catch( IllegalArgumentException e ) {
+            throw new IOException(e.getMessage());
+        }
+        numRows = header.getInt();
+        numCols = header.getInt();
+        extra = header.getInt();
+        flags = header.getInt();
+
+        if( numRows < 0 || numCols < 0 || extra < 0 )
+            throw new IOException("Corrupted header");
+        long expected = HEADER_BYTES + (type.sparse ?
+                (long)extra*type.bytes + 4L*(numCols+1) + 4L*extra :
+                (long)numRows*numCols*(type.complex ? 2 : 1)*type.bytes);
+        if( channel.size() < expected )
+            throw new IOException("File is truncated. Expected "+expected+" bytes but found "+channel.size());
+    }
+
+    /**
+     * Reads the entire matrix.  The arrays are copied directly out of a memory mapped file.
+     *
+     * @return The matrix. The type depends on what was saved.
+     */
+    public <T extends Matrix> T readAll() throws IOException {
+        long pos = HEADER_BYTES;
+        long N = (long)numRows*numCols*(type.complex ? 2 : 1);
+        if( !type.sparse && N > Integer.MAX_VALUE )
+            throw new IOException("Matrix is too large to fit inside an array. Read it one row at a time instead");
+
+        Matrix ret;
+        switch( type ) {
+            case DDRM: {
+                DMatrixRMaj A = new DMatrixRMaj(numRows,numCols);
+                BinaryMatrixFormat.read(channel,pos,A.data,N);
+                ret = A;
+            } break;
+
+            case FDRM: {
+                FMatrixRMaj A = new FMatrixRMaj(numRows,numCols);
+                BinaryMatrixFormat.read(channel,pos,A.data,N);
+                ret = A;
+            } break;
+
+            case ZDRM: {
+                ZMatrixRMaj A = new ZMatrixRMaj(numRows,numCols);
+                BinaryMatrixFormat.read(channel,pos,A.data,N);
+                ret = A;
+            } break;
+
+            case CDRM: {
+                CMatrixRMaj A = new CMatrixRMaj(numRows,numCols);
+                BinaryMatrixFormat.read(channel,pos,A.data,N);
+                ret = A;
+            } break;
+
+            case DDRB: {
+                DMatrixRBlock A = new DMatrixRBlock(numRows,numCols,extra);
+                BinaryMatrixFormat.read(channel,pos,A.data,N);
+                ret = A;
+            } break;
+
+            case FDRB: {
+                FMatrixRBlock A = new FMatrixRBlock(numRows,numCols,extra);
+                BinaryMatrixFormat.read(channel,pos,A.data,N);
+                ret = A;
+            } break;
+
+            case DSCC: {
+                DMatrixSparseCSC A = new DMatrixSparseCSC(numRows,numCols,extra);
+                pos = BinaryMatrixFormat.read(channel,pos,A.nz_values,extra);
+                pos = BinaryMatrixFormat.read(channel,pos,A.col_idx,numCols+1);
+                BinaryMatrixFormat.read(channel,pos,A.nz_rows,extra);
+                A.nz_length = extra;
+                A.indicesSorted = (flags & BinaryMatrixFormat.FLAG_SORTED) != 0;
+                ret = A;
+            } break;
+
+            case FSCC: {
+                FMatrixSparseCSC A = new FMatrixSparseCSC(numRows,numCols,extra);
+                pos = BinaryMatrixFormat.read(channel,pos,A.nz_values,extra);
+                pos = BinaryMatrixFormat.read(channel,pos,A.col_idx,numCols+1);
+                BinaryMatrixFormat.read(channel,pos,A.nz_rows,extra);
+                A.nz_length = extra;
+                A.indicesSorted = (flags & BinaryMatrixFormat.FLAG_SORTED) != 0;
+                ret = A;
+            } break;
+
+            default:
+                throw new RuntimeException("Unknown type "+type);
+        }
+        return (T)ret;
+    }
+
+    /**
+     * Reads a single row from a 64-bit dense matrix.  Complex matrices have two values for each column.
+     *
+     * @param row The row which is to be read
+     * @param storage (Optional) Storage for the row. If null a new array is created.
+     * @return The row
+     */
+    public double[] readRow( int row , double[] storage ) throws IOException {
+        checkDenseRow(row,64);
+        int length = numCols*(type.complex ? 2 : 1);
+        if( storage == null )
+            storage = new double[length];
+        else if( storage.length < length )
+            throw new IllegalArgumentException("storage is too small");
+
+        if( type.block ) {
+            int blockLength = extra;
+            int row0 = row - row%blockLength;
+            int height = Math.min(blockLength,numRows-row0);
+            for (int col0 = 0; col0 < numCols; col0 += blockLength) {
+                int width = Math.min(blockLength,numCols-col0);
+                long index = (long)row0*numCols + (long)height*col0 + (long)(row-row0)*width;
+                fill(HEADER_BYTES+index*8,width*8).asDoubleBuffer().get(storage,col0,width);
+            }
+        } else {
+            fill(HEADER_BYTES+(long)row*length*8,length*8).asDoubleBuffer().get(storage,0,length);
+        }
+        return storage;
+    }
+
+    /**
+     * Reads a single row from a 32-bit dense matrix.  Complex matrices have two values for each column.
+     *
+     * @param row The row which is to be read
+     * @param storage (Optional) Storage for the row. If null a new array is created.
+     * @return The row
+     */
+    public float[] readRow( int row , float[] storage ) throws IOException {
+        checkDenseRow(row,32);
+        int length = numCols*(type.complex ? 2 : 1);
+        if( storage == null )
+            storage = new float[length];
+        else if( storage.length < length )
+            throw new IllegalArgumentException("storage is too small");
+
+        if( type.block ) {
+            int blockLength = extra;
+            int row0 = row - row%blockLength;
+            int height = Math.min(blockLength,numRows-row0);
+            for (int col0 = 0; col0 < numCols; col0 += blockLength) {
+                int width = Math.min(blockLength,numCols-col0);
+                long index = (long)row0*numCols + (long)height*col0 + (long)(row-row0)*width;
+                fill(HEADER_BYTES+index*4,width*4).asFloatBuffer().get(storage,col0,width);
+            }
+        } else {
+            fill(HEADER_BYTES+(long)row*length*4,length*4).asFloatBuffer().get(storage,0,length);
+        }
+        return storage;
+    }
+
+    /**
+     * Reads the non-zero elements in a column of a 64-bit sparse matrix.
+     *
+     * @param col The column which is to be read
+     * @param rows Storage for the row index of each element. Must be large enough.
+     * @param values Storage for the value of each element. Must be large enough.
+     * @return Number of non-zero elements in the column
+     */
+    public int readColumn( int col , int[] rows , double[] values ) throws IOException {
+        int idx0 = checkSparseColumn(col,64);
+        int length = fill(columnIndexPosition(col)+4,4).getInt() - idx0;
+
+        fill(HEADER_BYTES+idx0*8L,length*8).asDoubleBuffer().get(values,0,length);
+        fill(rowIndexPosition(idx0),length*4).asIntBuffer().get(rows,0,length);
+        return length;
+    }
+
+    /**
+     * Reads the non-zero elements in a column of a 32-bit sparse matrix.
+     *
+     * @param col The column which is to be read
+     * @param rows Storage for the row index of each element. Must be large enough.
+     * @param values Storage for the value of each element. Must be large enough.
+     * @return Number of non-zero elements in the column
+     */
+    public int readColumn( int col , int[] rows , float[] values ) throws IOException {
+        int idx0 = checkSparseColumn(col,32);
+        int length = fill(columnIndexPosition(col)+4,4).getInt() - idx0;
+
+        fill(HEADER_BYTES+idx0*4L,length*4).asFloatBuffer().get(values,0,length);
+        fill(rowIndexPosition(idx0),length*4).asIntBuffer().get(rows,0,length);
+        return length;
+    }
+
+    /**
+     * Returns the number of non-zero elements in the column of a sparse matrix
+     */
+    public int getColumnLength( int col ) throws IOException {
+        checkSparseColumn(col,type.getBits());
+        ByteBuffer b = fill(columnIndexPosition(col),8);
+        int idx0 = b.getInt();
+        return b.getInt()-idx0;
+    }
+
+    private void checkDenseRow( int row , int bits ) {
+        if( type.sparse || type.getBits() != bits )
+            throw new IllegalArgumentException("Can't read a "+bits+"-bit dense row from a "+type+" matrix");
+        if( row < 0 || row >= numRows )
+            throw new IllegalArgumentException("Row out of bounds");
+    }
+
+    /**
+     * Checks the request and returns the index of the first element in the column
+     */
+    private int checkSparseColumn( int col , int bits ) throws IOException {
+        if( !type.sparse || type.getBits() != bits )
+            throw new IllegalArgumentException("Can't read a "+bits+"-bit sparse column from a "+type+" matrix");
+        if( col < 0 || col >= numCols )
+            throw new IllegalArgumentException("Column out of bounds");
+        return fill(columnIndexPosition(col),4).getInt();
+    }
+
+    private long columnIndexPosition( int col ) {
+        return HEADER_BYTES + (long)extra*type.bytes + col*4L;
+    }
+
+    private long rowIndexPosition( int index ) {
+        return HEADER_BYTES + (long)extra*type.bytes + (numCols+1)*4L + index*4L;
+    }
+
+    /**
+     * Reads the specified number of bytes starting at the location in the file into the buffer
+     */
+    private ByteBuffer fill( long position , int bytes ) throws IOException {
+        if( buffer.capacity() < bytes )
+            buffer = ByteBuffer.allocateDirect(bytes);
+        buffer.clear();
+        buffer.limit(bytes);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        while( buffer.hasRemaining() ) {
+            if( channel.read(buffer,position+buffer.position()) < 0 )
+                throw new IOException("Unexpected end of file");
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+
+    /**
+     * The type of matrix which was saved
+     */
+    public Type getType() {
+        return type;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public int getNumRows() {
+        return numRows;
+    }
+
+    public int getNumCols() {
+        return numCols;
+    }
+
+    /**
+     * Block length for block matrices
+     */
+    public int getBlockLength() {
+        if( !type.block )
+            throw new IllegalArgumentException("Not a block matrix");
+        return extra;
+    }
+
+    /**
+     * Number of non-zero elements for sparse matrices
+     */
+    public int getNonZeroLength() {
+        if( !type.sparse )
+            throw new IllegalArgumentException("Not a sparse matrix");
+        return extra;
+    }
+
+    /**
+     * True if the row indices are sorted in a sparse matrix
+     */
+    public boolean isIndicesSorted() {
+        return (flags & BinaryMatrixFormat.FLAG_SORTED) != 0;
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml;
+
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestEjmlConcurrency {
+
+    @Test
+    public void loopFor() {
+        ForkJoinPool original = EjmlConcurrency.getPool();
+        try {
+            EjmlConcurrency.setMaxThreads(4);
+            for (int length : new int[]{0,1,3,4,17,100}) {
+                AtomicIntegerArray counts = new AtomicIntegerArray(length+5);
+                EjmlConcurrency.loopFor(5,5+length,i->counts.incrementAndGet(i));
+                for (int i = 0; i < counts.length(); i++) {
+                    assertEquals(i < 5 ? 0 : 1, counts.get(i));
+                }
+            }
+        } finally {
+            EjmlConcurrency.setPool(original);
+        }
+    }
+
+    /**
+     * Every index must be in exactly one block and blocks must respect the minimum size
+     */
+    @Test
+    public void loopBlocks() {
+        ForkJoinPool original = EjmlConcurrency.getPool();
+        try {
+            EjmlConcurrency.setMaxThreads(3);
+            for (int minBlock : new int[]{1,4,50}) {
+                int length = 101;
+                AtomicIntegerArray counts = new AtomicIntegerArray(length);
+                EjmlConcurrency.loopBlocks(0,length,minBlock,(i0,i1)->{
+                    assertTrue(i1-i0 >= Math.min(minBlock,length));
+                    for (int i = i0; i < i1; i++) {
+                        counts.incrementAndGet(i);
+                    }
+                });
+                for (int i = 0; i < length; i++) {
+                    assertEquals(1, counts.get(i));
+                }
+            }
+        } finally {
+            EjmlConcurrency.setPool(original);
+        }
+    }
+
+    @Test
+    public void isUseConcurrent() {
+        ForkJoinPool original = EjmlConcurrency.getPool();
+        try {
+            EjmlConcurrency.setMaxThreads(2);
+            assertTrue(EjmlConcurrency.isUseConcurrent(100,100));
+            assertFalse(EjmlConcurrency.isUseConcurrent(99,100));
+
+            EjmlConcurrency.USE_CONCURRENT = false;
+            assertFalse(EjmlConcurrency.isUseConcurrent(100,100));
+            EjmlConcurrency.USE_CONCURRENT = true;
+
+            EjmlConcurrency.setMaxThreads(1);
+            assertFalse(EjmlConcurrency.isUseConcurrent(100,100));
+        } finally {
+            EjmlConcurrency.USE_CONCURRENT = true;
+            EjmlConcurrency.setPool(original);
+        }
+    }
+
+    /**
+     * Pools created by setMaxThreads() are shut down when replaced, pools passed in by the user are not
+     */
+    @Test
+    public void setMaxThreads_shutdown() {
+        ForkJoinPool original = EjmlConcurrency.getPool();
+        ForkJoinPool user = new ForkJoinPool(2);
+        try {
+            EjmlConcurrency.setMaxThreads(2);
+            ForkJoinPool first = EjmlConcurrency.getPool();
+            EjmlConcurrency.setMaxThreads(3);
+            assertTrue(first.isShutdown());
+            assertEquals(3,EjmlConcurrency.getMaxThreads());
+
+            ForkJoinPool second = EjmlConcurrency.getPool();
+            EjmlConcurrency.setPool(user);
+            assertTrue(second.isShutdown());
+
+            EjmlConcurrency.setMaxThreads(2);
+            assertFalse(user.isShutdown());
+        } finally {
+            EjmlConcurrency.setPool(original);
+            user.shutdown();
+        }
+    }
+}
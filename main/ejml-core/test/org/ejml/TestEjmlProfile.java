@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestEjmlProfile {
+
+    Properties original;
+
+    @Before
+    public void before() {
+        original = EjmlProfile.current();
+    }
+
+    @After
+    public void after() {
+        EjmlProfile.load(original);
+    }
+
+    @Test
+    public void load_stream() throws IOException {
+        String text = "TRANSPOSE_SWITCH=123\nMULT_PACKED_SWITCH = 99999999999\nMEMORY=LOW_MEMORY\n";
+        EjmlProfile.load(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(123, EjmlParameters.TRANSPOSE_SWITCH);
+        assertEquals(99999999999L, EjmlParameters.MULT_PACKED_SWITCH);
+        assertEquals(EjmlParameters.MemoryUsage.LOW_MEMORY, EjmlParameters.MEMORY);
+    }
+
+    @Test
+    public void load_unknownKey() {
+        Properties profile = new Properties();
+        profile.setProperty("NOT_A_PARAMETER","5");
+        try {
+            EjmlProfile.load(profile);
+            fail("Should have thrown an exception");
+        } catch( IllegalArgumentException ignore ){}
+    }
+
+    /**
+     * A bad value should cause an exception and none of the values should be changed
+     */
+    @Test
+    public void load_badValue() {
+        int before = EjmlParameters.TRANSPOSE_SWITCH;
+        Properties profile = new Properties();
+        profile.setProperty("TRANSPOSE_SWITCH",""+(before+10));
+        profile.setProperty("MULT_COLUMN_SWITCH","ten");
+        try {
+            EjmlProfile.load(profile);
+            fail("Should have thrown an exception");
+        } catch( IllegalArgumentException ignore ){}
+
+        assertEquals(before, EjmlParameters.TRANSPOSE_SWITCH);
+    }
+
+    @Test
+    public void load_blockSize() {
+        Properties profile = new Properties();
+        profile.setProperty("BLOCK_WIDTH","30");
+        EjmlProfile.load(profile);
+
+        assertEquals(30, EjmlParameters.BLOCK_WIDTH);
+        assertEquals(900, EjmlParameters.BLOCK_SIZE);
+    }
+
+    @Test
+    public void save_load() throws IOException {
+        File file = File.createTempFile("ejml","profile");
+        try {
+            EjmlParameters.MULT_INNER_SWITCH = 77;
+            EjmlProfile.save(file,"test");
+            EjmlParameters.MULT_INNER_SWITCH = 5;
+            EjmlProfile.load(file);
+            assertEquals(77, EjmlParameters.MULT_INNER_SWITCH);
+        } finally {
+            assertTrue(file.delete());
+        }
+    }
+}
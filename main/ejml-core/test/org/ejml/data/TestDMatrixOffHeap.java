@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.data;
+
+import org.ejml.UtilEjml;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestDMatrixOffHeap {
+
+    Random rand = new Random(234);
+
+    @Test
+    public void testGeneric() {
+        GenericTestsDMatrix g;
+        g = new GenericTestsDMatrix() {
+            protected DMatrix createMatrix(int numRows, int numCols) {
+                return new DMatrixOffHeap(numRows,numCols);
+            }
+        };
+
+        g.allTests();
+
+        // small chunks so that the matrix is split across several buffers
+        g = new GenericTestsDMatrix() {
+            protected DMatrix createMatrix(int numRows, int numCols) {
+                return new DMatrixOffHeap(numRows,numCols,Double.BYTES*numCols*2);
+            }
+        };
+
+        g.allTests();
+    }
+
+    @Test
+    public void chunks() {
+        int numCols = 5;
+        DMatrixOffHeap m = new DMatrixOffHeap(11,numCols,Double.BYTES*numCols*3+2);
+
+        assertEquals(3,m.getRowsPerChunk());
+        assertEquals(4,m.chunks.length);
+        assertEquals(3*numCols,m.chunks[0].capacity());
+        assertEquals(2*numCols,m.chunks[3].capacity());
+
+        // a row which is larger than a chunk is given its own chunk
+        m = new DMatrixOffHeap(4,numCols,Double.BYTES);
+        assertEquals(1,m.getRowsPerChunk());
+        assertEquals(4,m.chunks.length);
+    }
+
+    @Test
+    public void set_get_long() {
+        DMatrixOffHeap m = new DMatrixOffHeap(7,4,Double.BYTES*4*2);
+
+        for (long i = 0; i < m.getNumElementsLong(); i++) {
+            m.set(i,i+0.5);
+        }
+
+        for (int row = 0; row < 7; row++) {
+            for (int col = 0; col < 4; col++) {
+                assertEquals(row*4+col+0.5,m.get(row,col),UtilEjml.TEST_F64);
+                assertEquals(row*4+col+0.5,m.get(row*4L+col),UtilEjml.TEST_F64);
+            }
+        }
+    }
+
+    @Test
+    public void setRow_getRow() {
+        DMatrixOffHeap m = new DMatrixOffHeap(5,3,Double.BYTES*3*2);
+
+        double row[] = new double[]{0,1,2,3,4};
+        m.setRow(3,row,1);
+        double found[] = new double[4];
+        m.getRow(3,found,1);
+
+        for (int col = 0; col < 3; col++) {
+            assertEquals(col+1,m.get(3,col),UtilEjml.TEST_F64);
+            assertEquals(col+1,found[col+1],UtilEjml.TEST_F64);
+        }
+    }
+
+    @Test
+    public void reshape() {
+        DMatrixOffHeap m = new DMatrixOffHeap(5,3,Double.BYTES*3*2);
+        m.set(1,2,3);
+
+        // smaller so the data is kept
+        m.reshape(2,3);
+        assertEquals(2,m.numRows);
+        assertEquals(3,m.get(1,2),UtilEjml.TEST_F64);
+
+        // grows back into the old capacity
+        m.reshape(5,3);
+        assertEquals(3,m.get(1,2),UtilEjml.TEST_F64);
+
+        m.reshape(10,4);
+        assertEquals(10,m.numRows);
+        assertEquals(4,m.numCols);
+        assertEquals(10,m.chunks.length);
+        m.set(9,3,2);
+        assertEquals(2,m.get(9,3),UtilEjml.TEST_F64);
+    }
+
+    @Test
+    public void set_matrix() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(9,4,rand);
+        DMatrixOffHeap m = new DMatrixOffHeap(1,1,Double.BYTES*4*2);
+
+        m.set(A);
+        checkEquals(A,m);
+
+        DMatrixOffHeap c = m.copy();
+        checkEquals(A,c);
+        assertEquals(m.getChunkBytes(),c.getChunkBytes());
+    }
+
+    @Test
+    public void zero() {
+        DMatrixOffHeap m = new DMatrixOffHeap(1,1,Double.BYTES*4*2);
+        m.set(RandomMatrices_DDRM.rectangle(9,4,rand));
+        m.zero();
+
+        for (long i = 0; i < m.getNumElementsLong(); i++) {
+            assertEquals(0,m.get(i),0);
+        }
+    }
+
+    @Test
+    public void map() throws IOException {
+        File file = File.createTempFile("offheap","dat");
+        file.deleteOnExit();
+
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(9,4,rand);
+
+        try( RandomAccessFile raf = new RandomAccessFile(file,"rw") ) {
+            DMatrixOffHeap m = DMatrixOffHeap.map(raf.getChannel(),FileChannel.MapMode.READ_WRITE,
+                    0,9,4,Double.BYTES*4*2);
+            assertTrue(m.isMapped());
+            m.set(A);
+            checkEquals(A,m);
+
+            // can't grow a mapped matrix
+            try {
+                m.reshape(10,4);
+                fail("Should have thrown an exception");
+            } catch( IllegalArgumentException ignore ){}
+        }
+
+        assertEquals(9*4*Double.BYTES,file.length());
+
+        // read it back in with a different chunk size
+        try( RandomAccessFile raf = new RandomAccessFile(file,"r") ) {
+            DMatrixOffHeap m = DMatrixOffHeap.map(raf.getChannel(),FileChannel.MapMode.READ_ONLY,9,4);
+            checkEquals(A,m);
+        }
+    }
+
+    @Test
+    public void serialize() throws IOException, ClassNotFoundException {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(9,4,rand);
+        DMatrixOffHeap m = new DMatrixOffHeap(1,1,Double.BYTES*4*2);
+        m.set(A);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try( ObjectOutputStream out = new ObjectOutputStream(bytes) ) {
+            out.writeObject(m);
+        }
+        try( ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())) ) {
+            DMatrixOffHeap found = (DMatrixOffHeap)in.readObject();
+            checkEquals(A,found);
+            assertEquals(m.getRowsPerChunk(),found.getRowsPerChunk());
+        }
+    }
+
+    private static void checkEquals( DMatrixRMaj expected , DMatrixOffHeap found ) {
+        DMatrixRMaj copy = new DMatrixRMaj(found.numRows,found.numCols);
+        copy.set(found);
+        assertTrue(MatrixFeatures_DDRM.isIdentical(expected,copy,UtilEjml.TEST_F64));
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.data;
+
+import org.ejml.ops.ConvertDMatrixStruct;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.ejml.sparse.csr.CommonOps_DSCR;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestDMatrixSparseCSR extends GenericTestsDMatrixSparse {
+
+    @Override
+    public DMatrixSparse createSparse(int numRows, int numCols) {
+        return new DMatrixSparseCSR(numRows,numCols,10);
+    }
+
+    @Override
+    public DMatrixSparse createSparse(DMatrixSparseTriplet orig) {
+        return ConvertDMatrixStruct.convert(orig,(DMatrixSparseCSR)null,null);
+    }
+
+    @Override
+    public boolean isStructureValid(DMatrixSparse m) {
+        return CommonOps_DSCR.checkStructure((DMatrixSparseCSR)m);
+    }
+
+    @Test
+    public void reshape_row_col_length() {
+        DMatrixSparseCSR a = new DMatrixSparseCSR(2,3,4);
+
+        a.reshape(1,2,3);
+        assertTrue(CommonOps_DSCR.checkStructure(a));
+        assertEquals(1,a.numRows);
+        assertEquals(2,a.numCols);
+        assertEquals(4,a.nz_values.length);
+        assertEquals(0,a.nz_length);
+    }
+
+    @Test
+    public void sortIndices() {
+        DMatrixSparseCSR a = ConvertDMatrixStruct.convert(
+                RandomMatrices_DSCC.rectangle(4,5,20,-1,1,rand),(DMatrixSparseCSR)null);
+
+        // make sure it's not sorted correctly
+        double v0 = a.get(0,0), v2 = a.get(0,2);
+        a.nz_cols[0]=2;
+        a.nz_cols[2]=0;
+        a.nz_values[0]=v2;
+        a.nz_values[2]=v0;
+        assertFalse(CommonOps_DSCR.checkIndicesSorted(a));
+        a.indicesSorted = false;
+
+        // now sort it and see if its fixed
+        a.sortIndices(null);
+
+        assertTrue(CommonOps_DSCR.checkIndicesSorted(a));
+        assertTrue(a.indicesSorted);
+        assertEquals(v0,a.get(0,0),0);
+        assertEquals(v2,a.get(0,2),0);
+    }
+
+    @Test
+    public void growMaxRows() {
+        DMatrixSparseCSR a = new DMatrixSparseCSR(3,5,10);
+        a.row_idx[0] = 5;
+        a.row_idx[1] = 15;
+
+        // shouldn't declare a new array
+        a.growMaxRows(3,false);
+        assertEquals(5,a.row_idx[0]);
+        assertEquals(15,a.row_idx[1]);
+
+        // resize is needed now
+        a.growMaxRows(5,true);
+        assertEquals(6,a.row_idx.length);
+        assertEquals(5,a.row_idx[0]);
+        assertEquals(15,a.row_idx[1]);
+
+        a.growMaxRows(6,false);
+        assertEquals(7,a.row_idx.length);
+        assertEquals(0,a.row_idx[1]);
+    }
+
+    /**
+     * The matrix is already sorted.  See if it is still sorted after set has been called.
+     */
+    @Test
+    public void set_sorted() {
+        DMatrixSparseCSR a = new DMatrixSparseCSR(5,4,0);
+        a.indicesSorted = true;
+
+        a.set(2,1, 1);
+        assertTrue(a.indicesSorted);
+        assertTrue(CommonOps_DSCR.checkStructure(a));
+
+        a.set(2,0, 1);
+        assertTrue(a.indicesSorted);
+        assertTrue(CommonOps_DSCR.checkStructure(a));
+
+        a.set(2,3, 1);
+        assertTrue(a.indicesSorted);
+        assertTrue(CommonOps_DSCR.checkStructure(a));
+
+        a.set(2,2, 1);
+        assertTrue(a.indicesSorted);
+        assertTrue(CommonOps_DSCR.checkStructure(a));
+    }
+}
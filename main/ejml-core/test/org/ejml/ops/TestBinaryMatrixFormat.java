@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.ops;
+
+import org.ejml.data.*;
+import org.ejml.dense.block.MatrixOps_DDRB;
+import org.ejml.dense.block.MatrixOps_FDRB;
+import org.ejml.dense.row.*;
+import org.ejml.sparse.csc.MatrixFeatures_DSCC;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestBinaryMatrixFormat {
+
+    Random rand = new Random(234);
+
+    File file;
+
+    @Before
+    public void before() throws IOException {
+        file = File.createTempFile("ejml",".bin");
+    }
+
+    @After
+    public void after() {
+        BinaryMatrixFormat.MAP_BYTES = 1 << 30;
+        assertTrue(file.delete());
+    }
+
+    @Test
+    public void dense() throws IOException {
+        DMatrixRMaj D = RandomMatrices_DDRM.rectangle(7,5,rand);
+        assertTrue(MatrixFeatures_DDRM.isIdentical(D,saveLoad(D),0));
+
+        FMatrixRMaj F = RandomMatrices_FDRM.rectangle(7,5,rand);
+        assertTrue(MatrixFeatures_FDRM.isIdentical(F,saveLoad(F),0));
+
+        ZMatrixRMaj Z = RandomMatrices_ZDRM.rectangle(7,5,-1,1,rand);
+        assertTrue(MatrixFeatures_ZDRM.isIdentical(Z,saveLoad(Z),0));
+
+        CMatrixRMaj C = RandomMatrices_CDRM.rectangle(7,5,-1,1,rand);
+        assertTrue(MatrixFeatures_CDRM.isIdentical(C,saveLoad(C),0));
+    }
+
+    @Test
+    public void dense_empty() throws IOException {
+        DMatrixRMaj D = new DMatrixRMaj(0,4);
+        DMatrixRMaj found = saveLoad(D);
+        assertEquals(0, found.numRows);
+        assertEquals(4, found.numCols);
+    }
+
+    @Test
+    public void block() throws IOException {
+        DMatrixRBlock D = MatrixOps_DDRB.createRandom(11,7,-1,1,rand,3);
+        DMatrixRBlock foundD = saveLoad(D);
+        assertEquals(3, foundD.blockLength);
+        assertTrue(MatrixOps_DDRB.isEquals(D,foundD));
+
+        FMatrixRBlock F = MatrixOps_FDRB.createRandom(11,7,-1,1,rand,3);
+        FMatrixRBlock foundF = saveLoad(F);
+        assertEquals(3, foundF.blockLength);
+        assertTrue(MatrixOps_FDRB.isEquals(F,foundF));
+    }
+
+    @Test
+    public void sparse() throws IOException {
+        DMatrixSparseCSC D = RandomMatrices_DSCC.rectangle(20,15,40,rand);
+        DMatrixSparseCSC foundD = saveLoad(D);
+        assertTrue(MatrixFeatures_DSCC.isEquals(D,foundD));
+        assertEquals(D.indicesSorted,foundD.indicesSorted);
+
+        FMatrixSparseCSC F = ConvertFMatrixStruct.convert(RandomMatrices_FDRM.rectangle(8,6,rand),
+                (FMatrixSparseCSC)null,0.5f);
+        FMatrixSparseCSC foundF = saveLoad(F);
+        assertEquals(F.nz_length,foundF.nz_length);
+        for (int row = 0; row < F.numRows; row++) {
+            for (int col = 0; col < F.numCols; col++) {
+                assertEquals(F.get(row,col),foundF.get(row,col),0.0f);
+            }
+        }
+    }
+
+    /**
+     * Forces the arrays to be read and written using several mapped regions
+     */
+    @Test
+    public void multipleRegions() throws IOException {
+        BinaryMatrixFormat.MAP_BYTES = 64;
+
+        DMatrixRMaj D = RandomMatrices_DDRM.rectangle(13,7,rand);
+        assertTrue(MatrixFeatures_DDRM.isIdentical(D,saveLoad(D),0));
+
+        DMatrixSparseCSC S = RandomMatrices_DSCC.rectangle(20,15,40,rand);
+        assertTrue(MatrixFeatures_DSCC.isEquals(S,saveLoad(S)));
+    }
+
+    @Test
+    public void overwriteLargerFile() throws IOException {
+        BinaryMatrixFormat.save(new DMatrixRMaj(20,20),file);
+        DMatrixRMaj D = RandomMatrices_DDRM.rectangle(2,3,rand);
+        BinaryMatrixFormat.save(D,file);
+        assertEquals(BinaryMatrixFormat.HEADER_BYTES+6*8, file.length());
+        assertTrue(MatrixFeatures_DDRM.isIdentical(D,BinaryMatrixFormat.load(file),0));
+    }
+
+    @Test
+    public void isBinaryFormat() throws IOException {
+        assertFalse(BinaryMatrixFormat.isBinaryFormat(file));
+        BinaryMatrixFormat.save(new DMatrixRMaj(2,3),file);
+        assertTrue(BinaryMatrixFormat.isBinaryFormat(file));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void save_unsupported() throws IOException {
+        BinaryMatrixFormat.save(new DMatrix3x3(),file);
+    }
+
+    private <T extends Matrix> T saveLoad( T A ) throws IOException {
+        BinaryMatrixFormat.save(A,file);
+        T found = BinaryMatrixFormat.load(file);
+        assertNotSame(A,found);
+        assertSame(A.getClass(),found.getClass());
+        return found;
+    }
+}
@@ -27,6 +27,7 @@ import org.ejml.dense.row.RandomMatrices_DDRM;
 import org.ejml.sparse.csc.CommonOps_DSCC;
 import org.ejml.sparse.csc.MatrixFeatures_DSCC;
 import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.ejml.sparse.csr.CommonOps_DSCR;
 import org.ejml.sparse.triplet.MatrixFeatures_DSTL;
 import org.ejml.sparse.triplet.RandomMatrices_DSTL;
 import org.junit.Test;
@@ -368,4 +369,77 @@ public class TestConvertDMatrixStruct {
         assertTrue(MatrixFeatures_DSTL.isEquals(a,c, UtilEjml.TEST_F64));
     }
 
+    @Test
+    public void DMatrixRow_SparseCSR() {
+        DMatrixRMaj a = RandomMatrices_DDRM.rectangle(5,6,-1,1,rand);
+
+        a.set(4,3, 0);
+        a.set(1,3, 0);
+        a.set(2,3, 0);
+        a.set(2,0, 0);
+
+        for( DMatrixSparseCSR b : new DMatrixSparseCSR[]{null,new DMatrixSparseCSR(1,1,2)}) {
+            b = ConvertDMatrixStruct.convert(a,b, UtilEjml.EPS);
+
+            assertEquals(a.numRows, b.numRows);
+            assertEquals(a.numCols, b.numCols);
+            assertEquals(5*6-4, b.nz_length);
+            assertTrue(CommonOps_DSCR.checkStructure(b));
+            assertTrue(b.indicesSorted);
+            EjmlUnitTests.assertEquals(a, b);
+
+            // now try it the other direction
+            DMatrixRMaj c = ConvertDMatrixStruct.convert(b,(DMatrixRMaj)null);
+            assertTrue(MatrixFeatures_DDRM.isEquals(a,c, UtilEjml.TEST_F64));
+
+            c = ConvertDMatrixStruct.convert(b,new DMatrixRMaj(1,1));
+            assertTrue(MatrixFeatures_DDRM.isEquals(a,c, UtilEjml.TEST_F64));
+        }
+    }
+
+    @Test
+    public void SMatrixCC_SMatrixCR() {
+        DMatrixSparseCSC a = RandomMatrices_DSCC.rectangle(7,5,15,-1,1,rand);
+        IGrowArray gw = new IGrowArray();
+
+        DMatrixSparseCSR b = ConvertDMatrixStruct.convert(a,(DMatrixSparseCSR)null,gw);
+        assertTrue(CommonOps_DSCR.checkStructure(b));
+        assertTrue(b.indicesSorted);
+        assertEquals(a.nz_length, b.nz_length);
+        EjmlUnitTests.assertEquals(a, b);
+
+        // reuse the output and the other direction
+        ConvertDMatrixStruct.convert(a,b,gw);
+        EjmlUnitTests.assertEquals(a, b);
+        DMatrixSparseCSC c = ConvertDMatrixStruct.convert(b,new DMatrixSparseCSC(1,1,1),gw);
+        assertTrue(CommonOps_DSCC.checkStructure(c));
+        assertTrue(MatrixFeatures_DSCC.isEqualsSort(a,c, UtilEjml.TEST_F64));
+
+        // empty rows and columns
+        a = new DMatrixSparseCSC(4,3,0);
+        a.set(2,1,3);
+        b = ConvertDMatrixStruct.convert(a,b,null);
+        assertTrue(CommonOps_DSCR.checkStructure(b));
+        EjmlUnitTests.assertEquals(a, b);
+    }
+
+    @Test
+    public void SMatrixTriplet_SMatrixCR() {
+        DMatrixSparseTriplet a = RandomMatrices_DSTL.uniform(5,6,10,-1,1,rand);
+
+        for( DMatrixSparseCSR b : new DMatrixSparseCSR[]{null,new DMatrixSparseCSR(1,1,2)}) {
+            b = ConvertDMatrixStruct.convert(a,b,null);
+
+            assertEquals(a.numRows, b.numRows);
+            assertEquals(a.numCols, b.numCols);
+            assertEquals(a.nz_length, b.nz_length);
+            assertTrue(CommonOps_DSCR.checkStructure(b));
+            for (int i = 0; i < a.nz_length; i++) {
+                int row = a.nz_rowcol.data[i*2];
+                int col = a.nz_rowcol.data[i*2+1];
+                assertEquals(a.nz_value.data[i], b.get(row, col), UtilEjml.TEST_F64);
+            }
+        }
+    }
+
 }
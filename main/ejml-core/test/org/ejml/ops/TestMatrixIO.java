@@ -18,6 +18,8 @@
 
 package org.ejml.ops;
 
+import org.ejml.data.DMatrix;
+import org.ejml.data.DMatrix3x3;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.data.DMatrixSparseTriplet;
 import org.ejml.data.ZMatrixRMaj;
@@ -29,10 +31,13 @@ import org.junit.Test;
 
 import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.PrintStream;
 import java.util.Random;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
@@ -61,6 +66,70 @@ public class TestMatrixIO {
         assertTrue(f.delete());
     }
 
+    /**
+     * Matrices which aren't a DMatrix are loaded using the File variant
+     */
+    @Test
+    public void load_save_binary_matrix() throws IOException {
+        ZMatrixRMaj A = new ZMatrixRMaj(2,3);
+        for (int i = 0; i < A.data.length; i++) {
+            A.data[i] = rand.nextDouble();
+        }
+
+        MatrixIO.saveBin(A, "temp.mat");
+        ZMatrixRMaj A_copy = MatrixIO.loadBin(new File("temp.mat"));
+        assertTrue(A != A_copy);
+        assertArrayEquals(A.data,A_copy.data,0.0);
+
+        File f = new File("temp.mat");
+        assertTrue(f.delete());
+    }
+
+    /**
+     * The signatures from before Matrix was supported must still exist so that old code links
+     */
+    @Test
+    public void binary_compatibility() throws NoSuchMethodException {
+        assertEquals(void.class,MatrixIO.class.getMethod("saveBin",DMatrix.class,String.class).getReturnType());
+        assertEquals(DMatrix.class,MatrixIO.class.getMethod("loadBin",String.class).getReturnType());
+    }
+
+    /**
+     * Files saved with Java serialization by older versions must still be readable
+     */
+    @Test
+    public void load_binary_serialized() throws IOException {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(6,3,rand);
+
+        try( ObjectOutputStream stream = new ObjectOutputStream(new FileOutputStream("temp.mat")) ) {
+            stream.writeObject(A);
+        }
+
+        DMatrixRMaj A_copy = MatrixIO.loadBin("temp.mat");
+        assertTrue(MatrixFeatures_DDRM.isEquals(A,A_copy));
+
+        File f = new File("temp.mat");
+        assertTrue(f.delete());
+    }
+
+    /**
+     * Matrices which the binary format doesn't support are serialized
+     */
+    @Test
+    public void load_save_binary_unsupported() throws IOException {
+        DMatrix3x3 A = new DMatrix3x3(1,2,3,4,5,6,7,8,9);
+
+        MatrixIO.saveBin(A, "temp.mat");
+        DMatrix3x3 A_copy = MatrixIO.loadBin("temp.mat");
+        assertTrue(A != A_copy);
+        for (int i = 0; i < 9; i++) {
+            assertEquals(A.get(i/3,i%3), A_copy.get(i/3,i%3), 0.0);
+        }
+
+        File f = new File("temp.mat");
+        assertTrue(f.delete());
+    }
+
     @Test
     public void load_save_dense_csv() throws IOException {
         DMatrixRMaj A = RandomMatrices_DDRM.rectangle(6,3,rand);
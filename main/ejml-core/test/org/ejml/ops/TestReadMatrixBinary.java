@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.ops;
+
+import org.ejml.data.*;
+import org.ejml.dense.block.MatrixOps_DDRB;
+import org.ejml.dense.block.MatrixOps_FDRB;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.dense.row.RandomMatrices_FDRM;
+import org.ejml.dense.row.RandomMatrices_ZDRM;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestReadMatrixBinary {
+
+    Random rand = new Random(234);
+
+    File file;
+
+    @Before
+    public void before() throws IOException {
+        file = File.createTempFile("ejml",".bin");
+    }
+
+    @After
+    public void after() {
+        assertTrue(file.delete());
+    }
+
+    @Test
+    public void header() throws IOException {
+        BinaryMatrixFormat.save(MatrixOps_DDRB.createRandom(11,7,-1,1,rand,3),file);
+        try( ReadMatrixBinary reader = new ReadMatrixBinary(file) ) {
+            assertEquals(BinaryMatrixFormat.Type.DDRB, reader.getType());
+            assertEquals(BinaryMatrixFormat.VERSION, reader.getVersion());
+            assertEquals(11, reader.getNumRows());
+            assertEquals(7, reader.getNumCols());
+            assertEquals(3, reader.getBlockLength());
+        }
+    }
+
+    @Test
+    public void readRow_DDRM() throws IOException {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(6,4,rand);
+        BinaryMatrixFormat.save(A,file);
+        try( ReadMatrixBinary reader = new ReadMatrixBinary(file) ) {
+            double[] row = new double[4];
+            for (int i = 0; i < A.numRows; i++) {
+                reader.readRow(i,row);
+                for (int j = 0; j < A.numCols; j++) {
+                    assertEquals(A.get(i,j),row[j],0.0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void readRow_ZDRM() throws IOException {
+        ZMatrixRMaj A = RandomMatrices_ZDRM.rectangle(6,4,-1,1,rand);
+        BinaryMatrixFormat.save(A,file);
+        try( ReadMatrixBinary reader = new ReadMatrixBinary(file) ) {
+            for (int i = 0; i < A.numRows; i++) {
+                double[] row = reader.readRow(i,(double[])null);
+                assertEquals(8, row.length);
+                for (int j = 0; j < A.numCols; j++) {
+                    assertEquals(A.getReal(i,j),row[j*2],0.0);
+                    assertEquals(A.getImag(i,j),row[j*2+1],0.0);
+                }
+            }
+        }
+    }
+
+    /**
+     * Block matrices need to be reassembled from several blocks. Use a size which isn't a multiple of the block
+     * size to test the partial blocks along the edges
+     */
+    @Test
+    public void readRow_DDRB() throws IOException {
+        DMatrixRBlock A = MatrixOps_DDRB.createRandom(11,7,-1,1,rand,3);
+        BinaryMatrixFormat.save(A,file);
+        try( ReadMatrixBinary reader = new ReadMatrixBinary(file) ) {
+            double[] row = new double[7];
+            for (int i = 0; i < A.numRows; i++) {
+                reader.readRow(i,row);
+                for (int j = 0; j < A.numCols; j++) {
+                    assertEquals(A.get(i,j),row[j],0.0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void readRow_FDRB() throws IOException {
+        FMatrixRBlock A = MatrixOps_FDRB.createRandom(11,7,-1,1,rand,3);
+        BinaryMatrixFormat.save(A,file);
+        try( ReadMatrixBinary reader = new ReadMatrixBinary(file) ) {
+            float[] row = new float[7];
+            for (int i = 0; i < A.numRows; i++) {
+                reader.readRow(i,row);
+                for (int j = 0; j < A.numCols; j++) {
+                    assertEquals(A.get(i,j),row[j],0.0f);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void readRow_wrongType() throws IOException {
+        BinaryMatrixFormat.save(RandomMatrices_FDRM.rectangle(6,4,rand),file);
+        try( ReadMatrixBinary reader = new ReadMatrixBinary(file) ) {
+            try {
+                reader.readRow(0,new double[4]);
+                fail("Should have thrown an exception");
+            } catch( IllegalArgumentException ignore ){}
+            assertEquals(4, reader.readRow(0,(float[])null).length);
+        }
+    }
+
+    @Test
+    public void readColumn() throws IOException {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(20,15,40,rand);
+        BinaryMatrixFormat.save(A,file);
+        try( ReadMatrixBinary reader = new ReadMatrixBinary(file) ) {
+            assertEquals(A.nz_length, reader.getNonZeroLength());
+            assertEquals(A.indicesSorted, reader.isIndicesSorted());
+
+            int[] rows = new int[A.numRows];
+            double[] values = new double[A.numRows];
+            for (int col = 0; col < A.numCols; col++) {
+                int length = reader.readColumn(col,rows,values);
+                assertEquals(A.col_idx[col+1]-A.col_idx[col], length);
+                assertEquals(length, reader.getColumnLength(col));
+                for (int i = 0; i < length; i++) {
+                    assertEquals(A.get(rows[i],col),values[i],0.0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void notBinaryFile() throws IOException {
+        try( RandomAccessFile raf = new RandomAccessFile(file,"rw") ) {
+            raf.write(new byte[64]);
+        }
+        try {
+            new ReadMatrixBinary(file).close();
+            fail("Should have thrown an exception");
+        } catch( IOException ignore ){}
+    }
+
+    @Test
+    public void truncated() throws IOException {
+        BinaryMatrixFormat.save(RandomMatrices_DDRM.rectangle(6,4,rand),file);
+        try( RandomAccessFile raf = new RandomAccessFile(file,"rw") ) {
+            raf.setLength(raf.length()-8);
+        }
+        try {
+            new ReadMatrixBinary(file).close();
+            fail("Should have thrown an exception");
+        } catch( IOException ignore ){}
+    }
+}
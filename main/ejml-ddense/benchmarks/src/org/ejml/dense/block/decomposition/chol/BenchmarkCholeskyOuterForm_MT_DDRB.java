@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.block.decomposition.chol;
+
+import org.ejml.EjmlConcurrency;
+import org.ejml.EjmlParameters;
+import org.ejml.data.DMatrixRBlock;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.block.MatrixOps_DDRB;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the concurrent block Cholesky decomposition against the single threaded version.  threads=0 is the
+ * single threaded implementation.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkCholeskyOuterForm_MT_DDRB {
+
+    @Param({"300", "1000", "2000"})
+    public int size;
+
+    @Param({"0", "2", "4", "8"})
+    public int threads;
+
+    public DMatrixRBlock A = new DMatrixRBlock(1,1);
+    public DMatrixRBlock tmp = new DMatrixRBlock(1,1);
+
+    CholeskyOuterForm_DDRB alg;
+
+    @Setup
+    public void setup() {
+        Random rand = new Random(234);
+
+        DMatrixRMaj original = RandomMatrices_DDRM.symmetricPosDef(size,rand);
+        A = MatrixOps_DDRB.convert(original,EjmlParameters.BLOCK_WIDTH);
+        tmp = A.copy();
+
+        if( threads == 0 ) {
+            alg = new CholeskyOuterForm_DDRB(true);
+        } else {
+            EjmlConcurrency.setMaxThreads(threads);
+            alg = new CholeskyOuterForm_MT_DDRB(true);
+        }
+    }
+
+    @Benchmark
+    public void decompose() {
+        tmp.set(A);
+        alg.decompose(tmp);
+    }
+
+    public static void main( String[] args ) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkCholeskyOuterForm_MT_DDRB.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
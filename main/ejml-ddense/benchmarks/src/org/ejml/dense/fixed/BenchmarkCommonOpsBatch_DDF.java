@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.fixed;
+
+import org.ejml.data.DMatrix3x3;
+import org.ejml.data.DMatrix3x3Batch;
+import org.ejml.data.DMatrix6x6;
+import org.ejml.data.DMatrix6x6Batch;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares batch operations against calling the fixed sized operations on an array of matrices
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkCommonOpsBatch_DDF {
+
+    @Param({"1000", "200000"})
+    public int size;
+
+    DMatrix6x6Batch A6 = new DMatrix6x6Batch(),B6 = new DMatrix6x6Batch(),C6 = new DMatrix6x6Batch();
+    DMatrix6x6[] a6,b6,c6;
+
+    DMatrix3x3Batch A3 = new DMatrix3x3Batch(),C3 = new DMatrix3x3Batch();
+    DMatrix3x3[] a3,c3;
+
+    @Setup
+    public void setup() {
+        Random rand = new Random(234);
+
+        a6 = new DMatrix6x6[size]; b6 = new DMatrix6x6[size]; c6 = new DMatrix6x6[size];
+        a3 = new DMatrix3x3[size]; c3 = new DMatrix3x3[size];
+        A6.reshape(size); B6.reshape(size); C6.reshape(size);
+        A3.reshape(size); C3.reshape(size);
+
+        for (int i = 0; i < size; i++) {
+            a6[i] = random6(rand); b6[i] = random6(rand); c6[i] = new DMatrix6x6();
+            a3[i] = random3(rand); c3[i] = new DMatrix3x3();
+            A6.set(i,a6[i]); B6.set(i,b6[i]); A3.set(i,a3[i]);
+        }
+    }
+
+    private static DMatrix6x6 random6( Random rand ) {
+        DMatrix6x6 m = new DMatrix6x6();
+        for (int i = 0; i < 36; i++) {
+            m.set(i/6,i%6,rand.nextDouble());
+        }
+        return m;
+    }
+
+    private static DMatrix3x3 random3( Random rand ) {
+        DMatrix3x3 m = new DMatrix3x3();
+        for (int i = 0; i < 9; i++) {
+            m.set(i/3,i%3,rand.nextDouble());
+        }
+        return m;
+    }
+
+    @Benchmark
+    public void batch_mult6() {
+        CommonOpsBatch_DDF6.mult(A6,B6,C6);
+    }
+
+    @Benchmark
+    public void array_mult6() {
+        for (int i = 0; i < size; i++) {
+            CommonOps_DDF6.mult(a6[i],b6[i],c6[i]);
+        }
+    }
+
+    @Benchmark
+    public void batch_multTransB6() {
+        CommonOpsBatch_DDF6.multTransB(A6,B6,C6);
+    }
+
+    @Benchmark
+    public void array_multTransB6() {
+        for (int i = 0; i < size; i++) {
+            CommonOps_DDF6.multTransB(a6[i],b6[i],c6[i]);
+        }
+    }
+
+    @Benchmark
+    public void batch_add6() {
+        CommonOpsBatch_DDF6.add(A6,B6,C6);
+    }
+
+    @Benchmark
+    public void array_add6() {
+        for (int i = 0; i < size; i++) {
+            CommonOps_DDF6.add(a6[i],b6[i],c6[i]);
+        }
+    }
+
+    @Benchmark
+    public void batch_invert6() {
+        CommonOpsBatch_DDF6.invert(A6,C6);
+    }
+
+    @Benchmark
+    public void batch_invert3() {
+        CommonOpsBatch_DDF3.invert(A3,C3);
+    }
+
+    @Benchmark
+    public void array_invert3() {
+        for (int i = 0; i < size; i++) {
+            CommonOps_DDF3.invert(a3[i],c3[i]);
+        }
+    }
+
+    public static void main( String[] args ) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkCommonOpsBatch_DDF.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
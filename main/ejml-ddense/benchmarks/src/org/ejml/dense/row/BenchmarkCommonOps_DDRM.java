@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row;
+
+import org.ejml.data.DMatrixRMaj;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Frequently used operations in {@link CommonOps_DDRM} on square matrices.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkCommonOps_DDRM {
+
+    @Param({"10", "100", "500", "1000"})
+    public int size;
+
+    public DMatrixRMaj A,B,C;
+    public DMatrixRMaj X;
+
+    @Setup
+    public void setup() {
+        Random rand = new Random(234);
+
+        A = RandomMatrices_DDRM.rectangle(size,size,-1,1,rand);
+        B = RandomMatrices_DDRM.rectangle(size,size,-1,1,rand);
+        C = new DMatrixRMaj(size,size);
+        X = RandomMatrices_DDRM.rectangle(size,1,-1,1,rand);
+    }
+
+    @Benchmark
+    public void mult() {
+        CommonOps_DDRM.mult(A,B,C);
+    }
+
+    @Benchmark
+    public void multTransA() {
+        CommonOps_DDRM.multTransA(A,B,C);
+    }
+
+    @Benchmark
+    public void multTransB() {
+        CommonOps_DDRM.multTransB(A,B,C);
+    }
+
+    @Benchmark
+    public void multAdd() {
+        CommonOps_DDRM.multAdd(A,B,C);
+    }
+
+    @Benchmark
+    public void mult_vector() {
+        CommonOps_DDRM.mult(A,X,C);
+    }
+
+    @Benchmark
+    public void add() {
+        CommonOps_DDRM.add(A,B,C);
+    }
+
+    @Benchmark
+    public void transpose() {
+        CommonOps_DDRM.transpose(A,C);
+    }
+
+    @Benchmark
+    public void invert() {
+        CommonOps_DDRM.invert(A,C);
+    }
+
+    @Benchmark
+    public void solve() {
+        CommonOps_DDRM.solve(A,B,C);
+    }
+
+    @Benchmark
+    public void solve_vector() {
+        CommonOps_DDRM.solve(A,X,C);
+    }
+
+    @Benchmark
+    public void det( Blackhole bh ) {
+        bh.consume(CommonOps_DDRM.det(A));
+    }
+
+    public static void main( String[] args ) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkCommonOps_DDRM.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.dense.row;
+
+import org.ejml.data.DMatrixOffHeap;
+import org.ejml.data.DMatrixRMaj;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares operations on tall and skinny matrices in {@link OffHeapOps_DDRM} against the same operations
+ * in {@link CommonOps_DDRM} on matrices stored in the heap.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkOffHeapOps_DDRM {
+
+    @Param({"100000", "1000000"})
+    public int rows;
+
+    @Param({"10", "50"})
+    public int cols;
+
+    public DMatrixRMaj A;
+    public DMatrixOffHeap offA;
+    public DMatrixRMaj B,X;
+    public DMatrixRMaj C = new DMatrixRMaj(1,1);
+
+    @Setup
+    public void setup() {
+        Random rand = new Random(234);
+
+        A = RandomMatrices_DDRM.rectangle(rows,cols,-1,1,rand);
+        offA = new DMatrixOffHeap(rows,cols,1 << 24);
+        offA.set(A);
+        B = RandomMatrices_DDRM.rectangle(rows,1,-1,1,rand);
+        X = RandomMatrices_DDRM.rectangle(cols,1,-1,1,rand);
+    }
+
+    @Benchmark
+    public void mult_heap() {
+        CommonOps_DDRM.mult(A,X,C);
+    }
+
+    @Benchmark
+    public void mult_offheap() {
+        OffHeapOps_DDRM.mult(offA,X,C);
+    }
+
+    @Benchmark
+    public void multTransA_heap() {
+        CommonOps_DDRM.multTransA(A,B,C);
+    }
+
+    @Benchmark
+    public void multTransA_offheap() {
+        OffHeapOps_DDRM.multTransA(offA,B,C);
+    }
+
+    @Benchmark
+    public void multInner_heap() {
+        CommonOps_DDRM.multInner(A,C);
+    }
+
+    @Benchmark
+    public void multInner_offheap() {
+        OffHeapOps_DDRM.multInner(offA,C);
+    }
+
+    @Benchmark
+    public void sumCols_heap() {
+        CommonOps_DDRM.sumCols(A,C);
+    }
+
+    @Benchmark
+    public void sumCols_offheap() {
+        OffHeapOps_DDRM.sumCols(offA,C);
+    }
+
+    public static void main( String[] args ) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkOffHeapOps_DDRM.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition;
+
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.dense.row.decomposition.bidiagonal.BidiagonalDecompositionRow_DDRM;
+import org.ejml.dense.row.decomposition.hessenberg.HessenbergSimilarDecomposition_DDRM;
+import org.ejml.dense.row.factory.DecompositionFactory_DDRM;
+import org.ejml.interfaces.decomposition.DecompositionInterface;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Covers every family of dense decomposition using the implementation selected by {@link DecompositionFactory_DDRM}.
+ * If a decomposition modifies its input then a copy of the input is decomposed, which is included in the time.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkDecompositions_DDRM {
+
+    @Param({"10", "100", "500"})
+    public int size;
+
+    // general square matrix
+    public DMatrixRMaj A;
+    // symmetric positive definite matrix
+    public DMatrixRMaj S;
+
+    DMatrixRMaj work = new DMatrixRMaj(1,1);
+
+    DecompositionInterface<DMatrixRMaj> chol,lu,qr,qrp,svd,eigSymm,eigGeneral,tridiagonal,hessenberg,bidiagonal;
+
+    @Setup
+    public void setup() {
+        Random rand = new Random(234);
+
+        A = RandomMatrices_DDRM.rectangle(size,size,-1,1,rand);
+        S = RandomMatrices_DDRM.symmetricPosDef(size,rand);
+
+        chol = DecompositionFactory_DDRM.chol(size,true);
+        lu = DecompositionFactory_DDRM.lu(size,size);
+        qr = DecompositionFactory_DDRM.qr(size,size);
+        qrp = DecompositionFactory_DDRM.qrp(size,size);
+        svd = DecompositionFactory_DDRM.svd(size,size,true,true,true);
+        eigSymm = DecompositionFactory_DDRM.eig(size,true,true);
+        eigGeneral = DecompositionFactory_DDRM.eig(size,true,false);
+        tridiagonal = DecompositionFactory_DDRM.tridiagonal(size);
+        hessenberg = new HessenbergSimilarDecomposition_DDRM(size);
+        bidiagonal = new BidiagonalDecompositionRow_DDRM(size);
+    }
+
+    @Benchmark
+    public void cholesky() {
+        decompose(chol,S);
+    }
+
+    @Benchmark
+    public void lu() {
+        decompose(lu,A);
+    }
+
+    @Benchmark
+    public void qr() {
+        decompose(qr,A);
+    }
+
+    @Benchmark
+    public void qrp() {
+        decompose(qrp,A);
+    }
+
+    @Benchmark
+    public void svd() {
+        decompose(svd,A);
+    }
+
+    @Benchmark
+    public void eigen_symmetric() {
+        decompose(eigSymm,S);
+    }
+
+    @Benchmark
+    public void eigen_general() {
+        decompose(eigGeneral,A);
+    }
+
+    @Benchmark
+    public void tridiagonal() {
+        decompose(tridiagonal,S);
+    }
+
+    @Benchmark
+    public void hessenberg() {
+        decompose(hessenberg,A);
+    }
+
+    @Benchmark
+    public void bidiagonal() {
+        decompose(bidiagonal,A);
+    }
+
+    private void decompose( DecompositionInterface<DMatrixRMaj> alg , DMatrixRMaj input ) {
+        if( alg.inputModified() ) {
+            work.set(input);
+            input = work;
+        }
+        if( !alg.decompose(input) )
+            throw new RuntimeException("Decomposition failed");
+    }
+
+    public static void main( String[] args ) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkDecompositions_DDRM.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.dense.row.decomposition.bidiagonal;
+
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.interfaces.decomposition.BidiagonalDecomposition_F64;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the row major bidiagonal decomposition against the block decomposition
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkBidiagonal_DDRM {
+
+    @Param({"100", "500", "1000"})
+    public int size;
+
+    public DMatrixRMaj A;
+    public DMatrixRMaj tmp = new DMatrixRMaj(1,1);
+
+    BidiagonalDecomposition_F64<DMatrixRMaj> row = new BidiagonalDecompositionRow_DDRM();
+    BidiagonalDecomposition_F64<DMatrixRMaj> block = new BidiagonalDecomposition_DDRB_to_DDRM();
+
+    @Setup
+    public void setup() {
+        Random rand = new Random(234);
+
+        A = RandomMatrices_DDRM.rectangle(size*3/2,size,-1,1,rand);
+    }
+
+    @Benchmark
+    public void row() {
+        tmp.set(A);
+        row.decompose(tmp);
+    }
+
+    @Benchmark
+    public void block() {
+        tmp.set(A);
+        block.decompose(tmp);
+    }
+
+    @Benchmark
+    public void row_UV() {
+        tmp.set(A);
+        row.decompose(tmp);
+        row.getU(null,true,true);
+        row.getV(null,true,true);
+    }
+
+    @Benchmark
+    public void block_UV() {
+        tmp.set(A);
+        block.decompose(tmp);
+        block.getU(null,true,true);
+        block.getV(null,true,true);
+    }
+
+    public static void main( String[] args ) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkBidiagonal_DDRM.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
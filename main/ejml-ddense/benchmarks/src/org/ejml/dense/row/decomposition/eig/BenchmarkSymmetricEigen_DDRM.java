@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.dense.row.decomposition.eig;
+
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.dense.row.factory.DecompositionFactory_DDRM;
+import org.ejml.interfaces.decomposition.EigenDecomposition_F64;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the QR algorithm against divide and conquer for computing all the eigenvalues and eigenvectors of a
+ * symmetric matrix.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkSymmetricEigen_DDRM {
+
+    @Param({"100", "500", "1000", "2000"})
+    public int size;
+
+    public DMatrixRMaj A;
+    DMatrixRMaj work = new DMatrixRMaj(1,1);
+
+    EigenDecomposition_F64<DMatrixRMaj> qr;
+    EigenDecomposition_F64<DMatrixRMaj> divideConquer;
+
+    @Setup
+    public void setup() {
+        Random rand = new Random(234);
+
+        A = RandomMatrices_DDRM.symmetric(size,-1,1,rand);
+
+        qr = new SymmetricQRAlgorithmDecomposition_DDRM(DecompositionFactory_DDRM.tridiagonal(size),true);
+        divideConquer = new SymmetricDivideConquerDecomposition_DDRM(DecompositionFactory_DDRM.tridiagonal(size));
+    }
+
+    @Benchmark
+    public void qr() {
+        decompose(qr);
+    }
+
+    @Benchmark
+    public void divideConquer() {
+        decompose(divideConquer);
+    }
+
+    private void decompose( EigenDecomposition_F64<DMatrixRMaj> alg ) {
+        work.set(A);
+        if( !alg.decompose(work) )
+            throw new RuntimeException("Decomposition failed");
+    }
+
+    public static void main( String[] args ) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkSymmetricEigen_DDRM.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.dense.row.decomposition.svd;
+
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.dense.row.factory.DecompositionFactory_DDRM;
+import org.ejml.interfaces.decomposition.SingularValueDecomposition_F64;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a full SVD against a randomized SVD which only computes the largest singular values
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkSvdRandomized_DDRM {
+
+    @Param({"200", "1000"})
+    public int size;
+
+    @Param({"10", "50"})
+    public int rank;
+
+    public DMatrixRMaj A;
+
+    SingularValueDecomposition_F64<DMatrixRMaj> full;
+    SingularValueDecomposition_F64<DMatrixRMaj> randomized;
+
+    @Setup
+    public void setup() {
+        Random rand = new Random(234);
+
+        A = RandomMatrices_DDRM.rectangle(size*3/2,size,-1,1,rand);
+
+        full = DecompositionFactory_DDRM.svd(true,true,true);
+        randomized = DecompositionFactory_DDRM.svdRandomized(rank,true,true);
+    }
+
+    @Benchmark
+    public void full() {
+        if( !full.decompose(A.copy()) )
+            throw new RuntimeException("Decomposition failed");
+    }
+
+    @Benchmark
+    public void randomized() {
+        if( !randomized.decompose(A) )
+            throw new RuntimeException("Decomposition failed");
+    }
+
+    public static void main( String[] args ) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkSvdRandomized_DDRM.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
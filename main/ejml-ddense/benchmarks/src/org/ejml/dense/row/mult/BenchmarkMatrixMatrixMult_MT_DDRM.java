@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.mult;
+
+import org.ejml.EjmlConcurrency;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shows how the concurrent matrix multiplication scales with the number of threads.  threads=0 is the
+ * single threaded implementation.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkMatrixMatrixMult_MT_DDRM {
+
+    @Param({"100", "500", "1000", "2000"})
+    public int size;
+
+    @Param({"0", "1", "2", "4", "8", "16", "32"})
+    public int threads;
+
+    public DMatrixRMaj A,B,C;
+
+    @Setup
+    public void setup() {
+        Random rand = new Random(234);
+
+        A = RandomMatrices_DDRM.rectangle(size,size,-1,1,rand);
+        B = RandomMatrices_DDRM.rectangle(size,size,-1,1,rand);
+        C = new DMatrixRMaj(size,size);
+
+        if( threads > 0 )
+            EjmlConcurrency.setMaxThreads(threads);
+    }
+
+    @Benchmark
+    public void mult_reorder() {
+        if( threads == 0 )
+            MatrixMatrixMult_DDRM.mult_reorder(A,B,C);
+        else
+            MatrixMatrixMult_MT_DDRM.mult_reorder(A,B,C);
+    }
+
+    @Benchmark
+    public void multTransA_reorder() {
+        if( threads == 0 )
+            MatrixMatrixMult_DDRM.multTransA_reorder(A,B,C);
+        else
+            MatrixMatrixMult_MT_DDRM.multTransA_reorder(A,B,C);
+    }
+
+    @Benchmark
+    public void multTransB() {
+        if( threads == 0 )
+            MatrixMatrixMult_DDRM.multTransB(A,B,C);
+        else
+            MatrixMatrixMult_MT_DDRM.multTransB(A,B,C);
+    }
+
+    @Benchmark
+    public void multTransAB_aux() {
+        if( threads == 0 )
+            MatrixMatrixMult_DDRM.multTransAB_aux(A,B,C,null);
+        else
+            MatrixMatrixMult_MT_DDRM.multTransAB_aux(A,B,C);
+    }
+
+    @Benchmark
+    public void multAdd_reorder() {
+        if( threads == 0 )
+            MatrixMatrixMult_DDRM.multAdd_reorder(A,B,C);
+        else
+            MatrixMatrixMult_MT_DDRM.multAdd_reorder(A,B,C);
+    }
+
+    public static void main( String[] args ) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkMatrixMatrixMult_MT_DDRM.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -60,9 +60,12 @@ public class GeneratorBlockInnerMultiplication {
                 "\n" +
                 "package org.ejml.dense.block;\n" +
                 "\n" +
+                "import org.ejml.data.DMatrixRBlock;\n" +
+                "import org.ejml.dense.row.misc.ArrayKernels_DDRM;\n" +
+                "\n" +
                 "/**\n" +
                 " * <p>\n" +
-                " * Matrix multiplication for the inner row major blocks, typically inside of a {@link org.ejml.data.DMatrixRBlock}.\n" +
+                " * Matrix multiplication for the inner row major blocks, typically inside of a {@link DMatrixRBlock}.\n" +
                 " * </p>\n" +
                 " *\n" +
                 " * <p>\n" +
@@ -91,8 +94,8 @@ public class GeneratorBlockInnerMultiplication {
 
         stream.println();
 
-        String o = ( opType == Operation.MINUS ) ? "-=" : "+=";
         String m = hasAlpha ? "alpha*" : "";
+        if( opType == Operation.MINUS ) m = "-"+m;
 
         stream.print(
                 "        int a = indexA;\n"+
@@ -100,33 +103,25 @@ public class GeneratorBlockInnerMultiplication {
                 "        for( int i = 0; i < heightA; i++ , rowC += widthC ) {\n" +
                 "            int b = indexB;\n" +
                 "\n" +
-                "            final int endC = rowC + widthC;\n" +
                 "            final int endA = a + widthA;"+
                 "\n"+
                 "            while( a != endA ) {//for( int k = 0; k < widthA; k++ ) {\n" +
                 "                double valA = "+m+"dataA[a++];\n" +
-                "\n" +
-                "                int c = rowC;\n" +
                 "\n");
 
         if( opType == Operation.SET ) {
              stream.print(
                 "                if( b == indexB ) {\n" +
-                "                    while( c != endC  ) {//for( int j = 0; j < widthC; j++ ) {\n" +
-                "                        dataC[ c++ ] = valA * dataB[ b++ ];\n" +
-                "                    }\n" +
+                "                    ArrayKernels_DDRM.IMPL.scale(valA,dataB,b,dataC,rowC,widthC);\n" +
                 "                } else {\n" +
-                "                    while( c != endC  ) {//for( int j = 0; j < widthC; j++ ) {\n" +
-                "                        dataC[ c++ ] "+o+" valA * dataB[ b++ ];\n" +
-                "                    }\n" +
+                "                    ArrayKernels_DDRM.IMPL.axpy(valA,dataB,b,dataC,rowC,widthC);\n" +
                 "                }\n");
         } else {
              stream.print(
-                "                while( c != endC  ) {//for( int j = 0; j < widthC; j++ ) {\n" +
-                "                    dataC[ c++ ] "+o+" valA * dataB[ b++ ];\n" +
-                "                }\n");
+                "                ArrayKernels_DDRM.IMPL.axpy(valA,dataB,b,dataC,rowC,widthC);\n");
         }
         stream.println(
+                "                b += widthC;\n" +
                 "            }\n" +
                 "        }");
 
@@ -145,8 +140,8 @@ public class GeneratorBlockInnerMultiplication {
 
         createHeader(hasAlpha,opType,true,false);
 
-        String o = ( opType == Operation.MINUS ) ? "-=" : "+=";
         String m = hasAlpha ? "alpha*" : "";
+        if( opType == Operation.MINUS ) m = "-"+m;
 
         stream.print(
                 "//        for( int i = 0; i < widthA; i++ ) {\n" +
@@ -169,29 +164,20 @@ public class GeneratorBlockInnerMultiplication {
         "            // for( int k = 0; k < heightA; k++ ) {\n" +
         "            while(colA != endA ) {\n" +
         "                double valA = "+m+"dataA[colA];\n" +
-        "\n" +
-        "                int c = rowC;\n" +
-        "                final int endB = b + widthC;\n" +
-        "\n" +
-        "                //for( int j = 0; j < widthC; j++ ) {\n");
+        "\n");
         if( opType == Operation.SET ) {
             stream.print(
                     "                if( b == indexB ) {\n" +
-                    "                    while( b != endB ) {\n" +
-                    "                        dataC[ c++ ] = valA * dataB[b++];\n" +
-                    "                    } \n" +
+                    "                    ArrayKernels_DDRM.IMPL.scale(valA,dataB,b,dataC,rowC,widthC);\n" +
                     "                } else {\n" +
-                    "                    while( b != endB ) {\n" +
-                    "                        dataC[ c++ ] "+o+" valA * dataB[b++];\n" +
-                    "                    }\n" +
+                    "                    ArrayKernels_DDRM.IMPL.axpy(valA,dataB,b,dataC,rowC,widthC);\n" +
                     "                }\n");
         } else {
             stream.print(
-                    "                while( b != endB ) {\n" +
-                    "                    dataC[ c++ ] "+o+" valA * dataB[b++];\n" +
-                    "                }\n");
+                    "                ArrayKernels_DDRM.IMPL.axpy(valA,dataB,b,dataC,rowC,widthC);\n");
         }
         stream.print(
+        "                b += widthC;\n"+
         "                colA += widthA;\n"+
         "            }\n" +
         "        }\n");
@@ -209,11 +195,7 @@ public class GeneratorBlockInnerMultiplication {
         stream.println(
                 "        for( int i = 0; i < heightA; i++ ) {\n" +
                 "            for( int j = 0; j < widthC; j++ ) {\n" +
-                "                double val = 0;\n" +
-                "\n" +
-                "                for( int k = 0; k < widthA; k++ ) {\n" +
-                "                    val += dataA[i*widthA + k + indexA] * dataB[j*widthA + k + indexB];\n" +
-                "                }\n" +
+                "                double val = ArrayKernels_DDRM.IMPL.dot(dataA,i*widthA + indexA,dataB,j*widthA + indexB,widthA);\n" +
                 "\n" +
                 "                dataC[ i*widthC + j + indexC ] "+o+" val;\n" +
                 "            }\n" +
@@ -304,7 +286,7 @@ public class GeneratorBlockInnerMultiplication {
     }
 
     public static void main( String args[] ) throws FileNotFoundException {
-        GeneratorBlockInnerMultiplication app = new GeneratorBlockInnerMultiplication("BlockInnerMultiplication");
+        GeneratorBlockInnerMultiplication app = new GeneratorBlockInnerMultiplication("InnerMultiplication_DDRB");
 
         app.createClass();
 
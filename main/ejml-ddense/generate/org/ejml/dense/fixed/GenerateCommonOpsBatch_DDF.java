@@ -0,0 +1,748 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.fixed;
+
+import org.ejml.UtilEjml;
+import org.ejml.dense.row.misc.GenerateDeterminantFromMinor;
+import org.ejml.dense.row.misc.GenerateInverseFromMinor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+
+/**
+ * Automatic code generator for operations on batches of fixed sized matrices.  The unrolled code is the same
+ * as {@link GenerateCommonOps_DDF} but it's placed inside of loops which go through the batch.
+ *
+ * @author Peter Abeles
+ */
+public class GenerateCommonOpsBatch_DDF extends GenerateFixed {
+
+    public GenerateCommonOpsBatch_DDF() {
+        super("CommonOpsBatch_DDF");
+    }
+
+    @Override
+    public void generate() throws FileNotFoundException {
+        for( int dimension = 2; dimension <= 6; dimension++ ){
+            printPreable(dimension);
+
+            add(dimension);
+            subtract(dimension);
+            scale(dimension);
+            mult(dimension);
+            multTransA(dimension);
+            multTransB(dimension);
+            if( dimension <= UtilEjml.maxInverseSize ) {
+                invert(dimension);
+                det(dimension);
+            } else {
+                invertLU(dimension);
+                detLU(dimension);
+            }
+            cholL(dimension);
+            trace(dimension);
+            elementLoops();
+            if( dimension > UtilEjml.maxInverseSize )
+                luLoops(dimension);
+            checkSize();
+
+            out.println("}\n");
+        }
+    }
+
+    public void printPreable( int dimen ) throws FileNotFoundException {
+
+        setClassNames(dimen);
+
+        out.print(
+                "import org.ejml.MatrixDimensionException;\n" +
+                "import org.ejml.UtilEjml;\n" +
+                "import org.ejml.data."+nameBatch+";\n" +
+                "\n" +
+                "/**\n" +
+                " * <p>Common matrix operations which are applied to every matrix in a batch of "+dimen+" x "+dimen+" matrices.\n" +
+                " * The output batch is resized to match the size of the input batch.</p>\n" +
+                " * <p>DO NOT MODIFY.  Automatically generated code created by "+getClass().getSimpleName()+"</p>\n" +
+                " *\n" +
+                " * @see CommonOps_DDF"+dimen+"\n" +
+                " * @author Peter Abeles\n" +
+                " */\n" +
+                "public class "+className+" {\n" +
+                "    /**\n" +
+                "     * Number of matrices processed at once by multiplication.  Each output row is computed for the\n" +
+                "     * entire block before moving on to the next, which keeps the number of arrays accessed in each loop small\n" +
+                "     * while the block stays in the cache.\n" +
+                "     */\n" +
+                "    public static int BLOCK_LENGTH = 512;\n" +
+                "\n");
+        if( dimen > UtilEjml.maxInverseSize ) {
+            out.print(
+                "    /**\n" +
+                "     * Invert and det eliminate without pivoting so that every matrix in a block is processed by the same\n" +
+                "     * loops.  Each matrix is scaled so that its largest element is one.  If a pivot is smaller than this\n" +
+                "     * value, which bounds the growth of the elements, then the matrix is processed again using\n" +
+                "     * partial pivoting.\n" +
+                "     */\n" +
+                "    public static double PIVOT_TOL = 1e-4;\n" +
+                "\n");
+        }
+    }
+
+    private void add( int dimen ) {
+        elementWise(dimen,"add","+");
+    }
+
+    private void subtract( int dimen ) {
+        elementWise(dimen,"subtract","-");
+    }
+
+    private void elementWise( int dimen , String name , String op ) {
+        out.print("    /**\n" +
+                "     * <p>Performs the following operation on each matrix:<br>\n" +
+                "     * <br>\n" +
+                "     * c = a "+op+" b <br>\n" +
+                "     * c<sub>ij</sub> = a<sub>ij</sub> "+op+" b<sub>ij</sub> <br>\n" +
+                "     * </p>\n" +
+                "     *\n" +
+                "     * <p>\n" +
+                "     * Batch C can be the same instance as batch A and/or B.\n" +
+                "     * </p>\n" +
+                "     *\n" +
+                "     * @param a A batch. Not modified.\n" +
+                "     * @param b A batch. Not modified.\n" +
+                "     * @param c The results. Modified.\n" +
+                "     */\n" +
+                "    public static void "+name+"( "+nameBatch+" a , "+nameBatch+" b , "+nameBatch+" c ) {\n" +
+                "        checkSize(a,b);\n" +
+                "        c.reshape(a.size);\n");
+        for( int y = 1; y <= dimen; y++ ) {
+            for( int x = 1; x <= dimen; x++ ) {
+                String e = el(y,x);
+                out.print("        "+name+"(a."+e+",b."+e+",c."+e+",a.size);\n");
+            }
+        }
+        out.print("    }\n\n");
+    }
+
+    private void scale( int dimen ) {
+        out.print("    /**\n" +
+                "     * <p>Performs the following operation on each matrix:<br>\n" +
+                "     * <br>\n" +
+                "     * b = alpha * a <br>\n" +
+                "     * b<sub>ij</sub> = alpha * a<sub>ij</sub> <br>\n" +
+                "     * </p>\n" +
+                "     *\n" +
+                "     * @param alpha The scaling factor.\n" +
+                "     * @param a A batch. Not modified.\n" +
+                "     * @param b The results. Can be the same instance as a. Modified.\n" +
+                "     */\n" +
+                "    public static void scale( double alpha , "+nameBatch+" a , "+nameBatch+" b ) {\n" +
+                "        b.reshape(a.size);\n");
+        for( int y = 1; y <= dimen; y++ ) {
+            for( int x = 1; x <= dimen; x++ ) {
+                String e = el(y,x);
+                out.print("        scale(alpha,a."+e+",b."+e+",a.size);\n");
+            }
+        }
+        out.print("    }\n\n");
+    }
+
+    /**
+     * Loops which process one element at a time. Each one only reads and writes a few arrays.
+     */
+    private void elementLoops() {
+        out.print("    private static void add( double[] a , double[] b , double[] c , int size ) {\n" +
+                "        for (int i = 0; i < size; i++) {\n" +
+                "            c[i] = a[i] + b[i];\n" +
+                "        }\n" +
+                "    }\n" +
+                "\n" +
+                "    private static void subtract( double[] a , double[] b , double[] c , int size ) {\n" +
+                "        for (int i = 0; i < size; i++) {\n" +
+                "            c[i] = a[i] - b[i];\n" +
+                "        }\n" +
+                "    }\n" +
+                "\n" +
+                "    private static void scale( double alpha , double[] a , double[] b , int size ) {\n" +
+                "        for (int i = 0; i < size; i++) {\n" +
+                "            b[i] = alpha*a[i];\n" +
+                "        }\n" +
+                "    }\n\n");
+    }
+
+    private void mult( int dimen ) {
+        printMult(dimen,"mult","a * b","a<sub>ik</sub> * b<sub>kj</sub>",false,false);
+    }
+
+    private void multTransA( int dimen ) {
+        printMult(dimen,"multTransA","a<sup>T</sup> * b","a<sub>ki</sub> * b<sub>kj</sub>",true,false);
+    }
+
+    private void multTransB( int dimen ) {
+        printMult(dimen,"multTransB","a * b<sup>T</sup>","a<sub>ik</sub> * b<sub>jk</sub>",false,true);
+    }
+
+    private void printMult( int dimen , String name , String equation , String element ,
+                            boolean transA , boolean transB ) {
+        out.print("    /**\n" +
+                "     * <p>Performs the following operation on each matrix:<br>\n" +
+                "     * <br>\n" +
+                "     * c = "+equation+" <br>\n" +
+                "     * <br>\n" +
+                "     * c<sub>ij</sub> = &sum;<sub>k=1:n</sub> { "+element+"}\n" +
+                "     * </p>\n" +
+                "     *\n" +
+                "     * @param a The left batch in the multiplication operation. Not modified.\n" +
+                "     * @param b The right batch in the multiplication operation. Not modified.\n" +
+                "     * @param c Where the results of the operation are stored. Can't be a or b. Modified.\n" +
+                "     */\n" +
+                "    public static void "+name+"( "+nameBatch+" a , "+nameBatch+" b , "+nameBatch+" c ) {\n" +
+                "        checkSize(a,b);\n" +
+                "        c.reshape(a.size);\n" +
+                "        final int size = a.size;\n" +
+                "        for (int i0 = 0; i0 < size; i0 += BLOCK_LENGTH) {\n" +
+                "            final int i1 = i0 + Math.min(BLOCK_LENGTH,size-i0);\n");
+        for( int y = 1; y <= dimen; y++ ) {
+            out.print("            for (int i = i0; i < i1; i++) {\n");
+            out.print("               ");
+            for( int k = 1; k <= dimen; k++ ) {
+                String ea = transA ? el(k,y) : el(y,k);
+                out.print(" double a"+k+" = a."+ea+"[i];");
+            }
+            out.println();
+            for( int x = 1; x <= dimen; x++ ) {
+                out.print("                c."+el(y,x)+"[i] = ");
+                for( int k = 1; k <= dimen; k++ ) {
+                    String eb = transB ? el(x,k) : el(k,x);
+                    out.print("a"+k+"*b."+eb+"[i]");
+                    if( k < dimen )
+                        out.print(" + ");
+                    else
+                        out.print(";\n");
+                }
+            }
+            out.print("            }\n");
+        }
+        out.print("        }\n" +
+                "    }\n\n");
+    }
+
+    private void invert( int dimen ){
+        out.print("    /**\n" +
+                "     * Inverts each matrix in 'a' using minor matrices and stores the results in 'inv'.  Scaling is applied\n" +
+                "     * to improve stability against overflow and underflow.\n" +
+                "     *\n" +
+                "     * WARNING: Potentially less stable than using LU decomposition.\n" +
+                "     *\n" +
+                "     * @param a Input batch. Not modified.\n" +
+                "     * @param inv Inverted output batch. Can be the same instance as a. Modified.\n" +
+                "     * @return Number of matrices which could not be inverted.  Their inverse will contain\n" +
+                "     * uncountable numbers.  Not always reliable.\n" +
+                "     */\n" +
+                "    public static int invert( "+nameBatch+" a , "+nameBatch+" inv ) {\n" +
+                "        inv.reshape(a.size);\n" +
+                "        final int size = a.size;\n" +
+                "        int failed = 0;\n" +
+                "        for (int i = 0; i < size; i++) {\n" +
+                "            double scale = Math.abs(a.a11[i]);\n");
+
+        int matrix[] = new int[dimen*dimen];
+        int index = 0;
+        for (int y = 1; y <= dimen; y++) {
+            for (int x = 1; x <= dimen; x++, index++) {
+                matrix[index] = index;
+                if( index > 0 )
+                    out.print("            scale = Math.max(scale,Math.abs(a."+el(y,x)+"[i]));\n");
+            }
+        }
+        out.print("            scale = 1.0/scale;\n\n");
+        for (int y = 1; y <= dimen; y++) {
+            for (int x = 1; x <= dimen; x++) {
+                out.print("            double "+el(y,x)+" = a."+el(y,x)+"[i]*scale;\n");
+            }
+        }
+        out.println();
+
+        ByteArrayOutputStream text = new ByteArrayOutputStream();
+        try {
+            GenerateInverseFromMinor gen = new GenerateInverseFromMinor(false);
+            gen.printMinors(matrix, dimen, new PrintStream(text));
+        } catch (FileNotFoundException e) {
+            throw new RuntimeException(e);
+        }
+        out.print(indent(text.toString()));
+        out.println();
+
+        for (int y = 1; y <= dimen; y++) {
+            for( int x = 1; x <= dimen; x++ ) {
+                out.print("            inv."+el(y,x)+"[i] = m"+x+""+y+"/det;\n");
+            }
+        }
+        out.print("\n" +
+                "            if( UtilEjml.isUncountable(det) )\n" +
+                "                failed++;\n" +
+                "        }\n" +
+                "        return failed;\n" +
+                "    }\n\n");
+    }
+
+    private void det( int dimen ){
+        out.print("    /**\n" +
+                "     * Computes the determinant of each matrix using minor matrices.<br>\n" +
+                "     * WARNING: Potentially less stable than using LU decomposition.\n" +
+                "     *\n" +
+                "     * @param mat Input batch.  Not modified.\n" +
+                "     * @param output (Optional) Storage for the determinants. If null or too small a new array is created.\n" +
+                "     * @return The determinant of each matrix.\n" +
+                "     */\n" +
+                "    public static double[] det( "+nameBatch+" mat , double[] output ) {\n" +
+                "        final int size = mat.size;\n" +
+                "        if( output == null || output.length < size )\n" +
+                "            output = new double[size];\n" +
+                "        for (int i = 0; i < size; i++) {\n");
+        if( dimen == 2 ) {
+            out.print("            output[i] = mat.a11[i]*mat.a22[i] - mat.a12[i]*mat.a21[i];\n");
+        } else if( dimen == 3 ) {
+            out.print("            double a = mat.a11[i]*(mat.a22[i]*mat.a33[i] - mat.a23[i]*mat.a32[i]);\n" +
+                    "            double b = mat.a12[i]*(mat.a21[i]*mat.a33[i] - mat.a23[i]*mat.a31[i]);\n" +
+                    "            double c = mat.a13[i]*(mat.a21[i]*mat.a32[i] - mat.a31[i]*mat.a22[i]);\n" +
+                    "\n" +
+                    "            output[i] = a-b+c;\n");
+        } else {
+            ByteArrayOutputStream text = new ByteArrayOutputStream();
+            GenerateDeterminantFromMinor helper = new GenerateDeterminantFromMinor(new PrintStream(text)) {
+                @Override
+                protected String getInputValue(int element) {
+                    int row = element/(N+1) + 1;
+                    int col = element%(N+1) + 1;
+                    return "mat.a"+row+""+col+"[i]";
+                }
+            };
+            helper.printFunctionInner(dimen);
+            out.print(indent(text.toString()));
+            out.print("\n            output[i] = ret;\n");
+        }
+
+        out.print("        }\n" +
+                "        return output;\n" +
+                "    }\n\n");
+    }
+
+    private void invertLU( int N ){
+        out.print("    /**\n" +
+                "     * Inverts each matrix in 'a' and stores the results in 'inv'.  The batch is processed in blocks of\n" +
+                "     * {@link #BLOCK_LENGTH} matrices using Gauss-Jordan elimination without pivoting.  Each step of the\n" +
+                "     * elimination is a loop through the block without branches, so the same operation is applied to\n" +
+                "     * every matrix and it can be vectorized.  Matrices with a pivot smaller than {@link #PIVOT_TOL} are\n" +
+                "     * inverted again one at a time using LU decomposition with partial pivoting.\n" +
+                "     *\n" +
+                "     * @param a Input batch. Not modified.\n" +
+                "     * @param inv Inverted output batch. Can be the same instance as a. Modified.\n" +
+                "     * @return Number of matrices which could not be inverted because they are singular.  Their\n" +
+                "     * inverse will contain uncountable numbers.\n" +
+                "     */\n" +
+                "    public static int invert( "+nameBatch+" a , "+nameBatch+" inv ) {\n" +
+                "        inv.reshape(a.size);\n" +
+                "        final int size = a.size;\n");
+        declareBlockWork(N);
+        out.print("        final double[] lu = new double["+(N*N)+"];\n" +
+                "        final double[] work = new double["+(N*N)+"];\n" +
+                "        final int[] pivot = new int["+N+"];\n" +
+                "        int failed = 0;\n" +
+                "        for (int i0 = 0; i0 < size; i0 += BLOCK_LENGTH) {\n" +
+                "            final int n = Math.min(BLOCK_LENGTH,size-i0);\n");
+        copyScaled(N,"a");
+
+        for (int k = 1; k <= N; k++) {
+            out.print("            // eliminate column "+k+"\n" +
+                    "            for (int i = 0; i < n; i++) {\n" +
+                    "                double p = "+w(k,k)+"[i];\n" +
+                    "                minPivot[i] = Math.min(minPivot[i],Math.abs(p));\n" +
+                    "                p = 1.0/p;\n" +
+                    "                "+w(k,k)+"[i] = p;\n");
+            for (int x = 1; x <= N; x++) {
+                if( x != k )
+                    out.print("                "+w(k,x)+"[i] *= p;\n");
+            }
+            out.print("            }\n");
+            for (int y = 1; y <= N; y++) {
+                if( y == k )
+                    continue;
+                out.print("            for (int i = 0; i < n; i++) {\n" +
+                        "                double f = "+w(y,k)+"[i];\n" +
+                        "                "+w(y,k)+"[i] = -f*"+w(k,k)+"[i];\n");
+                for (int x = 1; x <= N; x++) {
+                    if( x != k )
+                        out.print("                "+w(y,x)+"[i] -= f*"+w(k,x)+"[i];\n");
+                }
+                out.print("            }\n");
+            }
+        }
+
+        out.print("\n" +
+                "            // redo matrices with small pivots using partial pivoting. inv(a) = inv(a*scale)*scale\n" +
+                "            for (int i = 0; i < n; i++) {\n" +
+                "                if( minPivot[i] > PIVOT_TOL )\n" +
+                "                    continue;\n" +
+                "                final int j = i0+i;\n");
+        copyToArray(N,"a","lu","j","                ");
+        out.print("                double det = decomposeLU(lu,pivot);\n" +
+                "                invertLU(lu,pivot,work);\n" +
+                "                if( det == 0 || UtilEjml.isUncountable(det) )\n" +
+                "                    failed++;\n" +
+                "                scale[i] = 1;\n");
+        for (int y = 1; y <= N; y++) {
+            out.print("               ");
+            for (int x = 1; x <= N; x++) {
+                out.print(" "+w(y,x)+"[i] = work["+((y-1)*N+x-1)+"];");
+            }
+            out.println();
+        }
+        out.print("            }\n" +
+                "\n" +
+                "            for (int i = 0; i < n; i++) {\n" +
+                "                final double s = scale[i];\n");
+        for (int y = 1; y <= N; y++) {
+            for (int x = 1; x <= N; x++) {
+                out.print("                inv."+el(y,x)+"[i0+i] = "+w(y,x)+"[i]*s;\n");
+            }
+        }
+        out.print("            }\n" +
+                "        }\n" +
+                "        return failed;\n" +
+                "    }\n\n");
+    }
+
+    private void detLU( int N ){
+        out.print("    /**\n" +
+                "     * Computes the determinant of each matrix.  The batch is processed in blocks of {@link #BLOCK_LENGTH}\n" +
+                "     * matrices using Gaussian elimination without pivoting.  Each step of the elimination is a loop\n" +
+                "     * through the block without branches, so it can be vectorized.  Matrices with a pivot smaller than\n" +
+                "     * {@link #PIVOT_TOL} are computed again one at a time using LU decomposition with partial pivoting.\n" +
+                "     *\n" +
+                "     * @param mat Input batch.  Not modified.\n" +
+                "     * @param output (Optional) Storage for the determinants. If null or too small a new array is created.\n" +
+                "     * @return The determinant of each matrix.\n" +
+                "     */\n" +
+                "    public static double[] det( "+nameBatch+" mat , double[] output ) {\n" +
+                "        final int size = mat.size;\n" +
+                "        if( output == null || output.length < size )\n" +
+                "            output = new double[size];\n");
+        declareBlockWork(N);
+        out.print("        final double[] det = new double[length];\n" +
+                "        final double[] recip = new double[length];\n" +
+                "        final double[] lu = new double["+(N*N)+"];\n" +
+                "        final int[] pivot = new int["+N+"];\n" +
+                "        for (int i0 = 0; i0 < size; i0 += BLOCK_LENGTH) {\n" +
+                "            final int n = Math.min(BLOCK_LENGTH,size-i0);\n");
+        copyScaled(N,"mat");
+        out.print("            for (int i = 0; i < n; i++) {\n" +
+                "                det[i] = 1;\n" +
+                "            }\n");
+
+        for (int k = 1; k < N; k++) {
+            out.print("            // eliminate column "+k+"\n" +
+                    "            for (int i = 0; i < n; i++) {\n" +
+                    "                double p = "+w(k,k)+"[i];\n" +
+                    "                minPivot[i] = Math.min(minPivot[i],Math.abs(p));\n" +
+                    "                det[i] *= p;\n" +
+                    "                recip[i] = 1.0/p;\n" +
+                    "            }\n");
+            for (int y = k+1; y <= N; y++) {
+                out.print("            for (int i = 0; i < n; i++) {\n" +
+                        "                double f = "+w(y,k)+"[i]*recip[i];\n");
+                for (int x = k+1; x <= N; x++) {
+                    out.print("                "+w(y,x)+"[i] -= f*"+w(k,x)+"[i];\n");
+                }
+                out.print("            }\n");
+            }
+        }
+        out.print("            // det(mat) = det(mat*scale)/scale^"+N+"\n" +
+                "            for (int i = 0; i < n; i++) {\n" +
+                "                double p = "+w(N,N)+"[i];\n" +
+                "                minPivot[i] = Math.min(minPivot[i],Math.abs(p));\n" +
+                "                double s = scale[i];\n" +
+                "                output[i0+i] = det[i]*p/(");
+        for (int k = 1; k <= N; k++) {
+            out.print(k < N ? "s*" : "s);\n");
+        }
+        out.print("            }\n" +
+                "\n" +
+                "            // redo matrices with small pivots using partial pivoting\n" +
+                "            for (int i = 0; i < n; i++) {\n" +
+                "                if( minPivot[i] > PIVOT_TOL )\n" +
+                "                    continue;\n" +
+                "                final int j = i0+i;\n");
+        copyToArray(N,"mat","lu","j","                ");
+        out.print("                output[j] = decomposeLU(lu,pivot);\n" +
+                "            }\n" +
+                "        }\n" +
+                "        return output;\n" +
+                "    }\n\n");
+    }
+
+    /**
+     * Declares the storage for processing a block of matrices at once.  Element (i,j) of each matrix in the block
+     * is stored in its own array.
+     */
+    private void declareBlockWork( int N ) {
+        out.print("        final int length = Math.min(BLOCK_LENGTH,size);\n" +
+                "        final double[] scale = new double[length];\n" +
+                "        final double[] minPivot = new double[length];\n");
+        for (int y = 1; y <= N; y++) {
+            out.print("        final double[]");
+            for (int x = 1; x <= N; x++) {
+                out.print(" "+w(y,x)+" = new double[length]"+(x < N ? "," : ";\n"));
+            }
+        }
+    }
+
+    /**
+     * Copies a block of matrices into the work arrays and scales each one by its largest element
+     */
+    private void copyScaled( int N , String batch ) {
+        out.print("            for (int i = 0; i < n; i++) {\n" +
+                "                final int j = i0+i;\n" +
+                "                double s = Math.abs("+batch+".a11[j]);\n");
+        for (int y = 1; y <= N; y++) {
+            for (int x = 1; x <= N; x++) {
+                if( y != 1 || x != 1 )
+                    out.print("                s = Math.max(s,Math.abs("+batch+"."+el(y,x)+"[j]));\n");
+            }
+        }
+        out.print("                s = 1.0/s;\n" +
+                "                scale[i] = s;\n" +
+                "                minPivot[i] = Double.MAX_VALUE;\n");
+        for (int y = 1; y <= N; y++) {
+            for (int x = 1; x <= N; x++) {
+                out.print("                "+w(y,x)+"[i] = "+batch+"."+el(y,x)+"[j]*s;\n");
+            }
+        }
+        out.print("            }\n");
+    }
+
+    /**
+     * Copies the matrix at index 'i' in the batch into a row-major array
+     */
+    private void copyToArray( int dimen , String batch , String array , String index , String indent ) {
+        for (int y = 1; y <= dimen; y++) {
+            out.print(indent.substring(1));
+            for (int x = 1; x <= dimen; x++) {
+                out.print(" "+array+"["+((y-1)*dimen+x-1)+"] = "+batch+"."+el(y,x)+"["+index+"];");
+            }
+            out.println();
+        }
+    }
+
+    /**
+     * LU decomposition and inversion of a single row-major matrix.  Used for matrices which are too large for
+     * the inverse and determinant to be computed from minor matrices.
+     */
+    private void luLoops( int N ) {
+        out.print("    /**\n" +
+                "     * Decomposes the row-major matrix in place into P*A = L*U using partial pivoting.  L has ones along\n" +
+                "     * the diagonal which are not saved.  Row k was swapped with row pivot[k].\n" +
+                "     *\n" +
+                "     * @return The determinant\n" +
+                "     */\n" +
+                "    private static double decomposeLU( double[] lu , int[] pivot ) {\n" +
+                "        double det = 1;\n" +
+                "        for (int k = 0; k < "+N+"; k++) {\n" +
+                "            int p = k;\n" +
+                "            double max = Math.abs(lu[k*"+N+"+k]);\n" +
+                "            for (int row = k+1; row < "+N+"; row++) {\n" +
+                "                double v = Math.abs(lu[row*"+N+"+k]);\n" +
+                "                if( v > max ) {\n" +
+                "                    max = v;\n" +
+                "                    p = row;\n" +
+                "                }\n" +
+                "            }\n" +
+                "            pivot[k] = p;\n" +
+                "            if( p != k ) {\n" +
+                "                swapRows(lu,k,p);\n" +
+                "                det = -det;\n" +
+                "            }\n" +
+                "            double diag = lu[k*"+N+"+k];\n" +
+                "            det *= diag;\n" +
+                "            // the column is zero below the diagonal when singular, so there is nothing to eliminate\n" +
+                "            if( diag == 0 )\n" +
+                "                continue;\n" +
+                "            for (int row = k+1; row < "+N+"; row++) {\n" +
+                "                double f = lu[row*"+N+"+k] /= diag;\n" +
+                "                for (int col = k+1; col < "+N+"; col++) {\n" +
+                "                    lu[row*"+N+"+col] -= f*lu[k*"+N+"+col];\n" +
+                "                }\n" +
+                "            }\n" +
+                "        }\n" +
+                "        return det;\n" +
+                "    }\n" +
+                "\n" +
+                "    /**\n" +
+                "     * Computes the inverse from the output of {@link #decomposeLU} by solving for each column of the\n" +
+                "     * identity matrix\n" +
+                "     */\n" +
+                "    private static void invertLU( double[] lu , int[] pivot , double[] inv ) {\n" +
+                "        for (int i = 0; i < "+(N*N)+"; i++) {\n" +
+                "            inv[i] = 0;\n" +
+                "        }\n" +
+                "        for (int k = 0; k < "+N+"; k++) {\n" +
+                "            inv[k*"+N+"+k] = 1;\n" +
+                "        }\n" +
+                "        for (int k = 0; k < "+N+"; k++) {\n" +
+                "            if( pivot[k] != k )\n" +
+                "                swapRows(inv,k,pivot[k]);\n" +
+                "        }\n" +
+                "        // L*Y = P\n" +
+                "        for (int row = 1; row < "+N+"; row++) {\n" +
+                "            for (int k = 0; k < row; k++) {\n" +
+                "                double f = lu[row*"+N+"+k];\n" +
+                "                for (int col = 0; col < "+N+"; col++) {\n" +
+                "                    inv[row*"+N+"+col] -= f*inv[k*"+N+"+col];\n" +
+                "                }\n" +
+                "            }\n" +
+                "        }\n" +
+                "        // U*X = Y\n" +
+                "        for (int row = "+(N-1)+"; row >= 0; row--) {\n" +
+                "            for (int k = row+1; k < "+N+"; k++) {\n" +
+                "                double f = lu[row*"+N+"+k];\n" +
+                "                for (int col = 0; col < "+N+"; col++) {\n" +
+                "                    inv[row*"+N+"+col] -= f*inv[k*"+N+"+col];\n" +
+                "                }\n" +
+                "            }\n" +
+                "            double diag = lu[row*"+N+"+row];\n" +
+                "            for (int col = 0; col < "+N+"; col++) {\n" +
+                "                inv[row*"+N+"+col] /= diag;\n" +
+                "            }\n" +
+                "        }\n" +
+                "    }\n" +
+                "\n" +
+                "    private static void swapRows( double[] m , int rowA , int rowB ) {\n" +
+                "        for (int col = 0; col < "+N+"; col++) {\n" +
+                "            double tmp = m[rowA*"+N+"+col];\n" +
+                "            m[rowA*"+N+"+col] = m[rowB*"+N+"+col];\n" +
+                "            m[rowB*"+N+"+col] = tmp;\n" +
+                "        }\n" +
+                "    }\n\n");
+    }
+
+    private void cholL( int N ){
+        out.print("    /**\n" +
+                "     * Performs a lower Cholesky decomposition of each matrix in 'A' and stores result in A.\n" +
+                "     *\n" +
+                "     * @param A (Input) SPD Matrices. (Output) lower cholesky.\n"+
+                "     * @return Number of matrices where the decomposition failed.  Not always reliable.\n" +
+                "     */\n" +
+                "    public static int cholL( "+nameBatch+" A ) {\n" +
+                "        final int size = A.size;\n" +
+                "        int failed = 0;\n" +
+                "        for (int i = 0; i < size; i++) {\n");
+
+        for( int i = 1; i <= N; i++ ) {
+            for( int j = 1; j <= N; j++ ) {
+                if( j > i ) {
+                    out.print("            A."+el(i,j)+"[i] = 0;\n");
+                } else if( i == j ) {
+                    out.print("            A."+el(i,i)+"[i] = Math.sqrt(A."+el(i,i)+"[i]");
+                    for (int k = 1; k < j; k++) {
+                        out.print("-A."+el(i,k)+"[i]*A."+el(i,k)+"[i]");
+                    }
+                    out.println(");");
+                } else {
+                    out.print("            A." + el(i,j) + "[i] = (A."+el(i,j)+"[i]");
+                    for (int k = 1; k < j; k++) {
+                        out.print("-A."+el(i,k)+"[i]*A."+el(j,k)+"[i]");
+                    }
+                    out.println(")/A."+el(j,j)+"[i];");
+                }
+            }
+        }
+        out.print("            if( UtilEjml.isUncountable(A."+el(N,N)+"[i]) )\n" +
+                "                failed++;\n" +
+                "        }\n" +
+                "        return failed;\n" +
+                "    }\n\n");
+    }
+
+    private void trace( int dimen ) {
+        out.print("    /**\n" +
+                "     * <p>\n" +
+                "     * This computes the trace of each matrix:<br>\n" +
+                "     * <br>\n" +
+                "     * trace = &sum;<sub>i=1:n</sub> { a<sub>ii</sub> }\n" +
+                "     * </p>\n" +
+                "     *\n" +
+                "     * @param a Input batch.  Not modified.\n" +
+                "     * @param output (Optional) Storage for the traces. If null or too small a new array is created.\n" +
+                "     * @return The trace of each matrix.\n" +
+                "     */\n" +
+                "    public static double[] trace( "+nameBatch+" a , double[] output ) {\n" +
+                "        final int size = a.size;\n" +
+                "        if( output == null || output.length < size )\n" +
+                "            output = new double[size];\n" +
+                "        for (int i = 0; i < size; i++) {\n" +
+                "            output[i] = ");
+        for( int i = 1; i <= dimen; i++ ) {
+            out.print("a."+el(i,i)+"[i]");
+            if( i < dimen )
+                out.print(" + ");
+            else
+                out.println(";");
+        }
+        out.print("        }\n" +
+                "        return output;\n" +
+                "    }\n\n");
+    }
+
+    private void checkSize() {
+        out.print("    private static void checkSize( "+nameBatch+" a , "+nameBatch+" b ) {\n" +
+                "        if( a.size != b.size )\n" +
+                "            throw new MatrixDimensionException(\"Batches must have the same size. \"+a.size+\" \"+b.size);\n" +
+                "    }\n");
+    }
+
+    private static String el( int row , int col ) {
+        return "a"+row+""+col;
+    }
+
+    private static String w( int row , int col ) {
+        return "w"+row+""+col;
+    }
+
+    /**
+     * Adds one level of indentation to code which was written for a function body so it can go inside a loop
+     */
+    private static String indent( String code ) {
+        StringBuilder ret = new StringBuilder();
+        for( String line : code.split("\n",-1) ) {
+            if( ret.length() > 0 )
+                ret.append('\n');
+            if( !line.isEmpty() )
+                ret.append("    ");
+            ret.append(line);
+        }
+        return ret.toString();
+    }
+
+    public static void main( String args[] ) throws FileNotFoundException {
+        GenerateCommonOpsBatch_DDF app = new GenerateCommonOpsBatch_DDF();
+
+        app.generate();
+    }
+}
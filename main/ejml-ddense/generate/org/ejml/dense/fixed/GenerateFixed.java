@@ -30,6 +30,7 @@ public abstract class GenerateFixed extends CodeGeneratorBase {
 
     protected String nameMatrix;
     protected String nameVector;
+    protected String nameBatch;
 
     public GenerateFixed(String classPreamble) {
         this.classPreamble = classPreamble;
@@ -39,6 +40,7 @@ public abstract class GenerateFixed extends CodeGeneratorBase {
         String nameClass = classPreamble+dimen;
         nameMatrix = "DMatrix"+dimen+"x"+dimen;
         nameVector = "DMatrix"+dimen;
+        nameBatch = nameMatrix+"Batch";
 
         setOutputFile(nameClass);
     }
@@ -30,20 +30,80 @@ import java.io.FileNotFoundException;
  * of the tediousness of writing and maintaining it is autogenerated.
  * <p>
  * <p>
- * To create {@link MatrixMatrixMult_DDRM} simply run this application and copy it to the appropriate location.
+ * To create {@link MatrixMatrixMult_DDRM}, {@link MatrixMatrixMult_MT_DDRM}, and {@link MatrixMatrixMultPacked_DDRM}
+ * simply run this application and copy them to the appropriate location.
  * </p>
  *
  * @author Peter Abeles
  */
 public class GeneratorMatrixMatrixMult_DDRM extends CodeGeneratorBase {
 
+    // size of the register block in the packed micro kernel
+    public static final int MR = 4;
+    public static final int NR = 8;
+
+    // if true the concurrent version is generated
+    boolean concurrent;
+    // if true the packed and register blocked version is generated
+    boolean packed;
+
+    public GeneratorMatrixMatrixMult_DDRM( boolean concurrent ) {
+        this(concurrent,false);
+    }
+
+    public GeneratorMatrixMatrixMult_DDRM( boolean concurrent , boolean packed ) {
+        this.concurrent = concurrent;
+        this.packed = packed;
+    }
+
     @Override
     public void generate() throws FileNotFoundException {
-        setOutputFile("MatrixMatrixMult_DDRM");
-        String preamble = 
+        if( packed ) {
+            generatePacked();
+            return;
+        }
+
+        if( concurrent ) {
+            setOutputFile("MatrixMatrixMult_MT_DDRM");
+            printPreambleConcurrent();
+        } else {
+            setOutputFile("MatrixMatrixMult_DDRM");
+            printPreamble();
+        }
+
+        for( int i = 0; i < 2; i++ ) {
+            boolean alpha = i == 1;
+            for( int j = 0; j < 2; j++ ) {
+                boolean add = j == 1;
+                printMult_reroder(alpha,add);
+                out.print("\n");
+                printMult_small(alpha,add);
+                out.print("\n");
+                printMult_aux(alpha,add);
+                out.print("\n");
+                printMultTransA_reorder(alpha,add);
+                out.print("\n");
+                printMultTransA_small(alpha,add);
+                out.print("\n");
+                printMultTransAB(alpha,add);
+                out.print("\n");
+                printMultTransAB_aux(alpha,add);
+                out.print("\n");
+                printMultTransB(alpha,add);
+                out.print("\n");
+            }
+        }
+        out.print("}\n");
+        out.println();
+        out.close();
+    }
+
+    private void printPreamble() {
+        String preamble =
                 "import org.ejml.MatrixDimensionException;\n" +
                 "import org.ejml.data.DMatrix1Row;\n" +
                 "import org.ejml.dense.row.CommonOps_DDRM;\n" +
+                "import org.ejml.dense.row.misc.ArrayKernels_DDRM;\n" +
                 "\n" +
                 "/**\n" +
                 " * <p>\n" +
@@ -81,32 +141,37 @@ public class GeneratorMatrixMatrixMult_DDRM extends CodeGeneratorBase {
                 "public class "+className+" {\n";
 
         out.print(preamble);
+    }
 
-        for( int i = 0; i < 2; i++ ) {
-            boolean alpha = i == 1;
-            for( int j = 0; j < 2; j++ ) {
-                boolean add = j == 1;
-                printMult_reroder(alpha,add);
-                out.print("\n");
-                printMult_small(alpha,add);
-                out.print("\n");
-                printMult_aux(alpha,add);
-                out.print("\n");
-                printMultTransA_reorder(alpha,add);
-                out.print("\n");
-                printMultTransA_small(alpha,add);
-                out.print("\n");
-                printMultTransAB(alpha,add);
-                out.print("\n");
-                printMultTransAB_aux(alpha,add);
-                out.print("\n");
-                printMultTransB(alpha,add);
-                out.print("\n");
-            }
-        }
-        out.print("}\n");
-        out.println();
-        out.close();
+    private void printPreambleConcurrent() {
+        String preamble =
+                "import org.ejml.EjmlConcurrency;\n" +
+                "import org.ejml.MatrixDimensionException;\n" +
+                "import org.ejml.data.DMatrix1Row;\n" +
+                "import org.ejml.dense.row.CommonOps_DDRM;\n" +
+                "import org.ejml.dense.row.misc.ArrayKernels_DDRM;\n" +
+                "\n" +
+                "/**\n" +
+                " * <p>\n" +
+                " * Concurrent implementations of the algorithms in {@link MatrixMatrixMult_DDRM}.  The output matrix is\n" +
+                " * split into panels of rows, or columns for the 'aux' variants, which are then processed in parallel\n" +
+                " * using {@link EjmlConcurrency}.\n" +
+                " * </p>\n" +
+                " *\n" +
+                " * <p>\n" +
+                " * Every element in the output matrix is computed using the exact same sequence of floating point\n" +
+                " * operations as in the single threaded version.  The results are identical to {@link MatrixMatrixMult_DDRM}\n" +
+                " * no matter how many threads are used.  The 'aux' variants allocate one auxiliary array for each panel.\n" +
+                " * </p>\n" +
+                " * \n" +
+                " * <center>******** IMPORTANT **********</center>\n" +
+                " * This class was auto generated using "+getClass().getName()+"\n"+
+                " * \n" +
+                " * @author Peter Abeles\n" +
+                " */\n"+
+                "public class "+className+" {\n";
+
+        out.print(preamble);
     }
 
     private String makeBoundsCheck(boolean tranA, boolean tranB, String auxLength)
@@ -202,7 +267,37 @@ public class GeneratorMatrixMatrixMult_DDRM extends CodeGeneratorBase {
             valLine = "valA = a.get(indexA++);\n";
         }
 
-        String assignment = add ? "plus" : "set";
+        String first = add ? "axpy" : "scale";
+
+        if( concurrent ) {
+            String foo =
+                    header + makeBoundsCheck(false,false, null)+handleZeros(add) +
+                            "        final int endOfKLoop = b.numRows*b.numCols;\n"+
+                            "\n" +
+                            "        EjmlConcurrency.loopFor(0, a.numRows, i -> {\n" +
+                            "            int indexCbase = i*c.numCols;\n" +
+                            "            int indexA = i*a.numCols;\n" +
+                            "\n"+
+                            "            // need to assign c.data to a value initially\n" +
+                            "            int indexB = 0;\n" +
+                            "\n" +
+                            "            double "+valLine +
+                            "\n" +
+                            "            ArrayKernels_DDRM.IMPL."+first+"(valA,b.data,indexB,c.data,indexCbase,b.numCols);\n" +
+                            "            indexB += b.numCols;\n" +
+                            "\n" +
+                            "            // now add to it\n"+
+                            "            while( indexB != endOfKLoop ) { // k loop\n"+
+                            "                "+valLine+
+                            "\n" +
+                            "                ArrayKernels_DDRM.IMPL.axpy(valA,b.data,indexB,c.data,indexCbase,b.numCols);\n" +
+                            "                indexB += b.numCols;\n" +
+                            "            }\n" +
+                            "        });\n" +
+                            "    }\n";
+            out.print(foo);
+            return;
+        }
 
         String foo =
                 header + makeBoundsCheck(false,false, null)+handleZeros(add) +
@@ -215,25 +310,18 @@ public class GeneratorMatrixMatrixMult_DDRM extends CodeGeneratorBase {
                         "\n"+
                         "            // need to assign c.data to a value initially\n" +
                         "            int indexB = 0;\n" +
-                        "            int indexC = indexCbase;\n" +
-                        "            int end = indexB + b.numCols;\n" +
                         "\n" +
                         "            "+valLine +
                         "\n" +
-                        "            while( indexB < end ) {\n" +
-                        "                c."+assignment+"(indexC++ , valA*b.get(indexB++));\n" +
-                        "            }\n" +
+                        "            ArrayKernels_DDRM.IMPL."+first+"(valA,b.data,indexB,c.data,indexCbase,b.numCols);\n" +
+                        "            indexB += b.numCols;\n" +
                         "\n" +
                         "            // now add to it\n"+
                         "            while( indexB != endOfKLoop ) { // k loop\n"+
-                        "                indexC = indexCbase;\n" +
-                        "                end = indexB + b.numCols;\n" +
-                        "\n" +
                         "                "+valLine+
                         "\n" +
-                        "                while( indexB < end ) { // j loop\n" +
-                        "                    c.plus(indexC++ , valA*b.get(indexB++));\n" +
-                        "                }\n" +
+                        "                ArrayKernels_DDRM.IMPL.axpy(valA,b.data,indexB,c.data,indexCbase,b.numCols);\n" +
+                        "                indexB += b.numCols;\n" +
                         "            }\n" +
                         "            indexCbase += c.numCols;\n" +
                         "        }\n" +
@@ -255,6 +343,32 @@ public class GeneratorMatrixMatrixMult_DDRM extends CodeGeneratorBase {
             valLine = "                c."+assignment+"( cIndex++ , total );\n";
         }
 
+        if( concurrent ) {
+            String foo =
+                    header + makeBoundsCheck(false,false, null)+
+                            "        EjmlConcurrency.loopFor(0, a.numRows, i -> {\n" +
+                            "            int aIndexStart = i*a.numCols;\n" +
+                            "            int cIndex = i*c.numCols;\n" +
+                            "\n" +
+                            "            for( int j = 0; j < b.numCols; j++ ) {\n" +
+                            "                double total = 0;\n" +
+                            "\n" +
+                            "                int indexA = aIndexStart;\n" +
+                            "                int indexB = j;\n" +
+                            "                int end = indexA + b.numRows;\n" +
+                            "                while( indexA < end ) {\n" +
+                            "                    total += a.get(indexA++) * b.get(indexB);\n" +
+                            "                    indexB += b.numCols;\n" +
+                            "                }\n" +
+                            "\n" +
+                            valLine +
+                            "            }\n" +
+                            "        });\n" +
+                            "    }\n";
+            out.print(foo);
+            return;
+        }
+
         String foo =
                 header + makeBoundsCheck(false,false, null)+
                         "        int aIndexStart = 0;\n" +
@@ -283,7 +397,7 @@ public class GeneratorMatrixMatrixMult_DDRM extends CodeGeneratorBase {
     public void printMult_aux( boolean alpha , boolean add ) {
         String header,valLine;
 
-        header = makeHeader("mult","aux",add,alpha, true, false,false);
+        header = makeHeader("mult","aux",add,alpha, !concurrent, false,false);
 
         String assignment = add ? "plus" : "set";
 
@@ -293,6 +407,33 @@ public class GeneratorMatrixMatrixMult_DDRM extends CodeGeneratorBase {
             valLine = "                c."+assignment+"( i*c.numCols+j , total );\n";
         }
 
+        if( concurrent ) {
+            String foo =
+                    header + makeBoundsCheck(false,false, null)+
+                            "        EjmlConcurrency.loopBlocks(0, b.numCols, 1, (j0,j1) -> {\n" +
+                            "            double[] aux = new double[ b.numRows ];\n" +
+                            "\n" +
+                            "            for( int j = j0; j < j1; j++ ) {\n" +
+                            "                // create a copy of the column in B to avoid cache issues\n" +
+                            "                for( int k = 0; k < b.numRows; k++ ) {\n" +
+                            "                    aux[k] = b.unsafe_get(k,j);\n" +
+                            "                }\n" +
+                            "\n" +
+                            "                int indexA = 0;\n" +
+                            "                for( int i = 0; i < a.numRows; i++ ) {\n" +
+                            "                    double total = 0;\n" +
+                            "                    for( int k = 0; k < b.numRows; ) {\n" +
+                            "                        total += a.get(indexA++)*aux[k++];\n" +
+                            "                    }\n" +
+                            "    " + valLine +
+                            "                }\n" +
+                            "            }\n" +
+                            "        });\n" +
+                            "    }\n";
+            out.print(foo);
+            return;
+        }
+
         String foo =
                 header + makeBoundsCheck(false,false, "b.numRows")+
                         "        for( int j = 0; j < b.numCols; j++ ) {\n" +
@@ -319,7 +460,7 @@ public class GeneratorMatrixMatrixMult_DDRM extends CodeGeneratorBase {
 
         header = makeHeader("mult","reorder",add,alpha, false, true,false);
 
-        String assignment = add ? "plus" : "set";
+        String first = add ? "axpy" : "scale";
 
         if( alpha ) {
             valLine1 = "valA = alpha*a.get(i);\n";
@@ -329,6 +470,30 @@ public class GeneratorMatrixMatrixMult_DDRM extends CodeGeneratorBase {
             valLine2 = "valA = a.unsafe_get(k,i);\n";
         }
 
+        if( concurrent ) {
+            String foo =
+                    header + makeBoundsCheck(true,false, null)+handleZeros(add)+
+                            "        EjmlConcurrency.loopFor(0, a.numCols, i -> {\n" +
+                            "            int indexC_start = i*c.numCols;\n" +
+                            "\n" +
+                            "            // first assign R\n" +
+                            "            double " +valLine1+
+                            "            int indexB = 0;\n" +
+                            "            ArrayKernels_DDRM.IMPL."+first+"(valA,b.data,indexB,c.data,indexC_start,b.numCols);\n" +
+                            "            indexB += b.numCols;\n" +
+                            "            // now increment it\n" +
+                            "            for( int k = 1; k < a.numRows; k++ ) {\n" +
+                            "                " +valLine2+
+                            "                // this is the loop for j\n" +
+                            "                ArrayKernels_DDRM.IMPL.axpy(valA,b.data,indexB,c.data,indexC_start,b.numCols);\n" +
+                            "                indexB += b.numCols;\n" +
+                            "            }\n" +
+                            "        });\n" +
+                            "    }\n";
+            out.print(foo);
+            return;
+        }
+
         String foo =
                 header + makeBoundsCheck(true,false, null)+handleZeros(add)+
                         "        double valA;\n" +
@@ -339,20 +504,14 @@ public class GeneratorMatrixMatrixMult_DDRM extends CodeGeneratorBase {
                         "            // first assign R\n" +
                         "            " +valLine1+
                         "            int indexB = 0;\n" +
-                        "            int end = indexB+b.numCols;\n" +
-                        "            int indexC = indexC_start;\n" +
-                        "            while( indexB<end ) {\n" +
-                        "                c."+assignment+"( indexC++ , valA*b.get(indexB++));\n" +
-                        "            }\n" +
+                        "            ArrayKernels_DDRM.IMPL."+first+"(valA,b.data,indexB,c.data,indexC_start,b.numCols);\n" +
+                        "            indexB += b.numCols;\n" +
                         "            // now increment it\n" +
                         "            for( int k = 1; k < a.numRows; k++ ) {\n" +
                         "                " +valLine2+
-                        "                end = indexB+b.numCols;\n" +
-                        "                indexC = indexC_start;\n" +
                         "                // this is the loop for j\n" +
-                        "                while( indexB<end ) {\n" +
-                        "                    c.plus( indexC++ , valA*b.get(indexB++));\n" +
-                        "                }\n" +
+                        "                ArrayKernels_DDRM.IMPL.axpy(valA,b.data,indexB,c.data,indexC_start,b.numCols);\n" +
+                        "                indexB += b.numCols;\n" +
                         "            }\n" +
                         "        }\n" +
                         "    }\n";
@@ -372,6 +531,33 @@ public class GeneratorMatrixMatrixMult_DDRM extends CodeGeneratorBase {
             valLine = "c."+assignment+"( cIndex++ , total );\n";
         }
 
+        if( concurrent ) {
+            String foo =
+                    header + makeBoundsCheck(true,false, null)+
+                            "        EjmlConcurrency.loopFor(0, a.numCols, i -> {\n" +
+                            "            int cIndex = i*c.numCols;\n" +
+                            "\n" +
+                            "            for( int j = 0; j < b.numCols; j++ ) {\n" +
+                            "                int indexA = i;\n" +
+                            "                int indexB = j;\n" +
+                            "                int end = indexB + b.numRows*b.numCols;\n" +
+                            "\n" +
+                            "                double total = 0;\n" +
+                            "\n" +
+                            "                // loop for k\n" +
+                            "                for(; indexB < end; indexB += b.numCols ) {\n" +
+                            "                    total += a.get(indexA) * b.get(indexB);\n" +
+                            "                    indexA += a.numCols;\n" +
+                            "                }\n" +
+                            "\n" +
+                            "                "+valLine +
+                            "            }\n" +
+                            "        });\n" +
+                            "    }\n";
+            out.print(foo);
+            return;
+        }
+
         String foo =
                 header + makeBoundsCheck(true,false, null)+
                         "        int cIndex = 0;\n" +
@@ -411,22 +597,35 @@ public class GeneratorMatrixMatrixMult_DDRM extends CodeGeneratorBase {
             valLine = "c."+assignment+"( cIndex++ , total );\n";
         }
 
+        if( concurrent ) {
+            String foo =
+                    header + makeBoundsCheck(false,true, null)+
+                            "        EjmlConcurrency.loopFor(0, a.numRows, xA -> {\n" +
+                            "            int cIndex = xA*c.numCols;\n" +
+                            "            int aIndexStart = xA*a.numCols;\n" +
+                            "            int indexB = 0;\n"+
+                            "            for( int xB = 0; xB < b.numRows; xB++ ) {\n" +
+                            "                double total = ArrayKernels_DDRM.IMPL.dot(a.data,aIndexStart,b.data,indexB,b.numCols);\n" +
+                            "                indexB += b.numCols;\n" +
+                            "\n" +
+                            "                "+valLine +
+                            "            }\n" +
+                            "        });\n" +
+                            "    }\n";
+            out.print(foo);
+            return;
+        }
+
         String foo =
                 header + makeBoundsCheck(false,true, null)+
                         "        int cIndex = 0;\n" +
                         "        int aIndexStart = 0;\n" +
                         "\n" +
                         "        for( int xA = 0; xA < a.numRows; xA++ ) {\n" +
-                        "            int end = aIndexStart + b.numCols;\n" +
                         "            int indexB = 0;\n"+
                         "            for( int xB = 0; xB < b.numRows; xB++ ) {\n" +
-                        "                int indexA = aIndexStart;\n" +
-                        "\n" +
-                        "                double total = 0;\n" +
-                        "\n" +
-                        "                while( indexA<end ) {\n" +
-                        "                    total += a.get(indexA++) * b.get(indexB++);\n" +
-                        "                }\n" +
+                        "                double total = ArrayKernels_DDRM.IMPL.dot(a.data,aIndexStart,b.data,indexB,b.numCols);\n" +
+                        "                indexB += b.numCols;\n" +
                         "\n" +
                         "                "+valLine +
                         "            }\n" +
@@ -449,6 +648,31 @@ public class GeneratorMatrixMatrixMult_DDRM extends CodeGeneratorBase {
             valLine = "c."+assignment+"( cIndex++ , total );\n";
         }
 
+        if( concurrent ) {
+            String foo =
+                    header + makeBoundsCheck(true,true, null)+
+                            "        EjmlConcurrency.loopFor(0, a.numCols, i -> {\n" +
+                            "            int cIndex = i*c.numCols;\n" +
+                            "            int indexB = 0;\n"+
+                            "            for( int j = 0; j < b.numRows; j++ ) {\n" +
+                            "                int indexA = i;\n" +
+                            "                int end = indexB + b.numCols;\n" +
+                            "\n" +
+                            "                double total = 0;\n" +
+                            "\n" +
+                            "                for( ;indexB<end; ) {\n" +
+                            "                    total += a.get(indexA) * b.get(indexB++);\n" +
+                            "                    indexA += a.numCols;\n" +
+                            "                }\n" +
+                            "\n" +
+                            "                "+valLine+
+                            "            }\n" +
+                            "        });\n"+
+                            "    }\n";
+            out.print(foo);
+            return;
+        }
+
         String foo =
                 header + makeBoundsCheck(true,true, null)+
                         "        int cIndex = 0;\n" +
@@ -476,7 +700,7 @@ public class GeneratorMatrixMatrixMult_DDRM extends CodeGeneratorBase {
     public void printMultTransAB_aux( boolean alpha , boolean add ) {
         String header,valLine;
 
-        header = makeHeader("mult","aux",add,alpha, true, true,true);
+        header = makeHeader("mult","aux",add,alpha, !concurrent, true,true);
 
         String assignment = add ? "plus" : "set";
 
@@ -486,6 +710,33 @@ public class GeneratorMatrixMatrixMult_DDRM extends CodeGeneratorBase {
             valLine = "c."+assignment+"( indexC++ , total );\n";
         }
 
+        if( concurrent ) {
+            String foo =
+                    header + makeBoundsCheck(true,true, null)+handleZeros(add)+
+                            "        EjmlConcurrency.loopBlocks(0, a.numCols, 1, (i0,i1) -> {\n" +
+                            "            double[] aux = new double[ a.numRows ];\n" +
+                            "\n" +
+                            "            int indexC = i0*c.numCols;\n" +
+                            "            for( int i = i0; i < i1; i++ ) {\n" +
+                            "                for( int k = 0; k < b.numCols; k++ ) {\n" +
+                            "                    aux[k] = a.unsafe_get(k,i);\n" +
+                            "                }\n" +
+                            "\n" +
+                            "                for( int j = 0; j < b.numRows; j++ ) {\n" +
+                            "                    double total = 0;\n" +
+                            "\n" +
+                            "                    for( int k = 0; k < b.numCols; k++ ) {\n" +
+                            "                        total += aux[k] * b.unsafe_get(j,k);\n" +
+                            "                    }\n" +
+                            "                    "+valLine +
+                            "                }\n" +
+                            "            }\n" +
+                            "        });\n"+
+                            "    }\n";
+            out.print(foo);
+            return;
+        }
+
         String foo =
                 header + makeBoundsCheck(true,true, "a.numRows")+handleZeros(add)+
                         "        int indexC = 0;\n" +
@@ -507,9 +758,342 @@ public class GeneratorMatrixMatrixMult_DDRM extends CodeGeneratorBase {
         out.print(foo);
     }
 
-    public static void main( String args[] ) throws FileNotFoundException {
-        GeneratorMatrixMatrixMult_DDRM gen = new GeneratorMatrixMatrixMult_DDRM();
+    private void generatePacked() throws FileNotFoundException {
+        setOutputFile("MatrixMatrixMultPacked_DDRM");
+        printPreamblePacked();
 
-        gen.generate();
+        for( int i = 0; i < 2; i++ ) {
+            boolean alpha = i == 1;
+            for( int j = 0; j < 2; j++ ) {
+                boolean add = j == 1;
+                for( int k = 0; k < 4; k++ ) {
+                    printMultPacked(alpha,add,k==1||k==3,k==2||k==3);
+                    out.print("\n");
+                }
+            }
+        }
+        printPackedDriver();
+        out.print("\n");
+        printPackA();
+        out.print("\n");
+        printPackB();
+        out.print("\n");
+        printKernel();
+        out.print("}\n");
+        out.println();
+        out.close();
+    }
+
+    private void printPreamblePacked() {
+        String preamble =
+                "import org.ejml.EjmlConcurrency;\n" +
+                "import org.ejml.EjmlParameters;\n" +
+                "import org.ejml.MatrixDimensionException;\n" +
+                "import org.ejml.data.DMatrix1Row;\n" +
+                "import org.ejml.dense.row.CommonOps_DDRM;\n" +
+                "\n" +
+                "/**\n" +
+                " * <p>\n" +
+                " * Matrix multiplication for large matrices which is designed around the memory hierarchy, following the\n" +
+                " * approach used in GotoBLAS and BLIS. Blocks of the inputs are copied (packed) into contiguous arrays so that\n" +
+                " * they are read sequentially and stay inside the cache while they are being used. The inner most loop is a\n" +
+                " * "+MR+" x "+NR+" register blocked micro kernel which keeps the partial sums of a small block in C in local\n" +
+                " * variables.\n" +
+                " * </p>\n" +
+                " *\n" +
+                " * <pre>\n" +
+                " * for jc = 0:NC:n-1     B(:,jc) panel is packed for each pc, sized to fit in the L3 cache\n" +
+                " *   for pc = 0:KC:k-1\n" +
+                " *     for ic = 0:MC:m-1 A(ic,pc) block is packed, sized to fit in the L2 cache\n" +
+                " *       for jr = 0:NR:NC-1\n" +
+                " *         for ir = 0:MR:MC-1\n" +
+                " *           C(ir,jr) += A(ir,:)*B(:,jr)  micro kernel\n" +
+                " * </pre>\n" +
+                " *\n" +
+                " * <p>\n" +
+                " * The block sizes are specified by {@link EjmlParameters#MULT_PACKED_MC}, {@link EjmlParameters#MULT_PACKED_KC},\n" +
+                " * and {@link EjmlParameters#MULT_PACKED_NC}. If the matrix is large enough then C is split into blocks of\n" +
+                " * rows and columns which are computed concurrently, see {@link EjmlConcurrency}. The results are the same\n" +
+                " * with any number of threads.\n" +
+                " * </p>\n" +
+                " * \n" +
+                " * <center>******** IMPORTANT **********</center>\n" +
+                " * This class was auto generated using "+getClass().getName()+"\n"+
+                " * \n" +
+                " * @author Peter Abeles\n" +
+                " */\n"+
+                "public class "+className+" {\n" +
+                "    /**\n" +
+                "     * Number of rows in C which are computed by the micro kernel\n" +
+                "     */\n" +
+                "    public static final int MR = "+MR+";\n" +
+                "    /**\n" +
+                "     * Number of columns in C which are computed by the micro kernel\n" +
+                "     */\n" +
+                "    public static final int NR = "+NR+";\n" +
+                "\n";
+
+        out.print(preamble);
+    }
+
+    public void printMultPacked( boolean alpha , boolean add , boolean tranA , boolean tranB ) {
+        String header = makeHeader("mult","packed",add,alpha,false,tranA,tranB);
+
+        String foo =
+                header + makeBoundsCheck(tranA,tranB, null)+handleZeros(add)+
+                        "        multPacked("+(alpha?"alpha":"1")+",a,"+tranA+",b,"+tranB+",c,"+add+");\n" +
+                        "    }\n";
+        out.print(foo);
+    }
+
+    private void printPackedDriver() {
+        String foo =
+                "    /**\n" +
+                "     * Computes c = alpha*op(a)*op(b) + c, where op() optionally transposes the matrix. If add is false then c\n" +
+                "     * is set to zero first.\n" +
+                "     */\n" +
+                "    private static void multPacked( final double alpha ,\n" +
+                "                                    final DMatrix1Row a , final boolean tranA ,\n" +
+                "                                    final DMatrix1Row b , final boolean tranB ,\n" +
+                "                                    final DMatrix1Row c , final boolean add )\n" +
+                "    {\n" +
+                "        final int M = c.numRows;\n" +
+                "        final int N = c.numCols;\n" +
+                "        final int K = tranA ? a.numRows : a.numCols;\n" +
+                "\n" +
+                "        if( !add )\n" +
+                "            CommonOps_DDRM.fill(c,0);\n" +
+                "\n" +
+                "        // the block sizes must be a multiple of the micro kernel's size\n" +
+                "        final int MC = roundUp(Math.min(EjmlParameters.MULT_PACKED_MC,M),MR);\n" +
+                "        final int KC = Math.min(EjmlParameters.MULT_PACKED_KC,K);\n" +
+                "        final int NC = roundUp(Math.min(EjmlParameters.MULT_PACKED_NC,N),NR);\n" +
+                "\n" +
+                "        final double[] packB = new double[KC*NC];\n" +
+                "\n" +
+                "        if( !EjmlConcurrency.isUseConcurrent((long)M*N*K,EjmlParameters.MULT_CONCURRENT_SWITCH) ) {\n" +
+                "            final double[] packA = new double[MC*KC];\n" +
+                "            for( int jc = 0; jc < N; jc += NC ) {\n" +
+                "                int nc = Math.min(NC,N-jc);\n" +
+                "                for( int pc = 0; pc < K; pc += KC ) {\n" +
+                "                    int kc = Math.min(KC,K-pc);\n" +
+                "                    packB(b,tranB,pc,kc,jc,0,nc,packB);\n" +
+                "                    for( int ic = 0; ic < M; ic += MC ) {\n" +
+                "                        int mc = Math.min(MC,M-ic);\n" +
+                "                        packA(a,tranA,ic,mc,pc,kc,packA,0);\n" +
+                "                        macroKernel(alpha,packA,0,packB,0,mc,nc,kc,c,ic,jc);\n" +
+                "                    }\n" +
+                "                }\n" +
+                "            }\n" +
+                "            return;\n" +
+                "        }\n" +
+                "\n" +
+                "        // All of A(:,pc) is packed at once so that C can be split into blocks of rows and columns without two\n" +
+                "        // threads packing the same block of A. Each element in C is summed in the same order as above, so the\n" +
+                "        // results don't depend on the number of threads.\n" +
+                "        final double[] packA = new double[roundUp(M,MR)*KC];\n" +
+                "        final int numBlocksM = (M+MC-1)/MC;\n" +
+                "\n" +
+                "        for( int jc = 0; jc < N; jc += NC ) {\n" +
+                "            final int nc = Math.min(NC,N-jc);\n" +
+                "            // split the columns into just enough blocks so that every thread has work\n" +
+                "            final int slivers = (nc+NR-1)/NR;\n" +
+                "            final int targetN = Math.min(slivers,(EjmlConcurrency.getMaxThreads()+numBlocksM-1)/numBlocksM);\n" +
+                "            final int widthN = ((slivers+targetN-1)/targetN)*NR;\n" +
+                "            final int numBlocksN = (nc+widthN-1)/widthN;\n" +
+                "\n" +
+                "            for( int pc = 0; pc < K; pc += KC ) {\n" +
+                "                final int kc = Math.min(KC,K-pc);\n" +
+                "                final int _jc = jc, _pc = pc;\n" +
+                "\n" +
+                "                EjmlConcurrency.loopBlocks(0,slivers,1,(j0,j1)->\n" +
+                "                        packB(b,tranB,_pc,kc,_jc,j0*NR,Math.min(nc,j1*NR),packB));\n" +
+                "                EjmlConcurrency.loopFor(0,numBlocksM,blockM->{\n" +
+                "                    int ic = blockM*MC;\n" +
+                "                    packA(a,tranA,ic,Math.min(MC,M-ic),_pc,kc,packA,ic*kc);\n" +
+                "                });\n" +
+                "                EjmlConcurrency.loopFor(0,numBlocksM*numBlocksN,block->{\n" +
+                "                    int ic = (block/numBlocksN)*MC;\n" +
+                "                    int jr = (block%numBlocksN)*widthN;\n" +
+                "                    macroKernel(alpha,packA,ic*kc,packB,jr*kc,Math.min(MC,M-ic),Math.min(widthN,nc-jr),kc,c,ic,_jc+jr);\n" +
+                "                });\n" +
+                "            }\n" +
+                "        }\n" +
+                "    }\n" +
+                "\n" +
+                "    /**\n" +
+                "     * Multiplies a packed block of A against a packed panel of B and adds the results to C\n" +
+                "     */\n" +
+                "    private static void macroKernel( double alpha , double[] packA , int offsetA , double[] packB , int offsetB ,\n" +
+                "                                     int mc , int nc , int kc ,\n" +
+                "                                     DMatrix1Row c , int row0 , int col0 )\n" +
+                "    {\n" +
+                "        final double[] dataC = c.data;\n" +
+                "        final int strideC = c.numCols;\n" +
+                "        for( int jr = 0; jr < nc; jr += NR ) {\n" +
+                "            int cols = Math.min(NR,nc-jr);\n" +
+                "            int indexB = offsetB + jr*kc;\n" +
+                "            for( int ir = 0; ir < mc; ir += MR ) {\n" +
+                "                int rows = Math.min(MR,mc-ir);\n" +
+                "                int indexC = (row0+ir)*strideC + col0+jr;\n" +
+                "                microKernel(kc,packA,offsetA+ir*kc,packB,indexB,alpha,dataC,indexC,strideC,rows,cols);\n" +
+                "            }\n" +
+                "        }\n" +
+                "    }\n" +
+                "\n" +
+                "    private static int roundUp( int value , int multiple ) {\n" +
+                "        return ((value+multiple-1)/multiple)*multiple;\n" +
+                "    }\n";
+        out.print(foo);
+    }
+
+    private void printPackA() {
+        String foo =
+                "    /**\n" +
+                "     * Copies op(a)(row0:row0+mc, k0:k0+kc) into slivers which are MR rows tall. Inside a sliver the elements are\n" +
+                "     * ordered by column so that the micro kernel can read them sequentially. Rows outside of the matrix are\n" +
+                "     * filled with zeros. The block is written starting at 'offset'.\n" +
+                "     */\n" +
+                "    private static void packA( DMatrix1Row a , boolean tranA , int row0 , int mc , int k0 , int kc ,\n" +
+                "                               double[] packA , int offset ) {\n" +
+                "        final double[] dataA = a.data;\n" +
+                "        int index = offset;\n" +
+                "        for( int ir = 0; ir < mc; ir += MR ) {\n" +
+                "            int rows = Math.min(MR,mc-ir);\n" +
+                "            if( tranA ) {\n" +
+                "                for( int p = 0; p < kc; p++ ) {\n" +
+                "                    int indexA = (k0+p)*a.numCols + row0+ir;\n" +
+                "                    int i = 0;\n" +
+                "                    for( ; i < rows; i++ ) packA[index++] = dataA[indexA+i];\n" +
+                "                    for( ; i < MR; i++ ) packA[index++] = 0;\n" +
+                "                }\n" +
+                "            } else {\n" +
+                "                for( int i = 0; i < rows; i++ ) {\n" +
+                "                    int indexA = (row0+ir+i)*a.numCols + k0;\n" +
+                "                    int indexP = index + i;\n" +
+                "                    for( int p = 0; p < kc; p++, indexP += MR ) {\n" +
+                "                        packA[indexP] = dataA[indexA+p];\n" +
+                "                    }\n" +
+                "                }\n" +
+                "                for( int i = rows; i < MR; i++ ) {\n" +
+                "                    int indexP = index + i;\n" +
+                "                    for( int p = 0; p < kc; p++, indexP += MR ) {\n" +
+                "                        packA[indexP] = 0;\n" +
+                "                    }\n" +
+                "                }\n" +
+                "                index += MR*kc;\n" +
+                "            }\n" +
+                "        }\n" +
+                "    }\n";
+        out.print(foo);
+    }
+
+    private void printPackB() {
+        String foo =
+                "    /**\n" +
+                "     * Copies columns jr0 to jr1 of op(b)(k0:k0+kc, col0:) into slivers which are NR columns wide. Inside a sliver\n" +
+                "     * the elements are ordered by row so that the micro kernel can read them sequentially. Columns outside of the\n" +
+                "     * matrix are filled with zeros. jr0 must be a multiple of NR.\n" +
+                "     */\n" +
+                "    private static void packB( DMatrix1Row b , boolean tranB , int k0 , int kc , int col0 ,\n" +
+                "                               int jr0 , int jr1 , double[] packB ) {\n" +
+                "        final double[] dataB = b.data;\n" +
+                "        int index = jr0*kc;\n" +
+                "        for( int jr = jr0; jr < jr1; jr += NR ) {\n" +
+                "            int cols = Math.min(NR,jr1-jr);\n" +
+                "            if( tranB ) {\n" +
+                "                for( int j = 0; j < cols; j++ ) {\n" +
+                "                    int indexB = (col0+jr+j)*b.numCols + k0;\n" +
+                "                    int indexP = index + j;\n" +
+                "                    for( int p = 0; p < kc; p++, indexP += NR ) {\n" +
+                "                        packB[indexP] = dataB[indexB+p];\n" +
+                "                    }\n" +
+                "                }\n" +
+                "                for( int j = cols; j < NR; j++ ) {\n" +
+                "                    int indexP = index + j;\n" +
+                "                    for( int p = 0; p < kc; p++, indexP += NR ) {\n" +
+                "                        packB[indexP] = 0;\n" +
+                "                    }\n" +
+                "                }\n" +
+                "                index += NR*kc;\n" +
+                "            } else {\n" +
+                "                for( int p = 0; p < kc; p++ ) {\n" +
+                "                    int indexB = (k0+p)*b.numCols + col0+jr;\n" +
+                "                    int j = 0;\n" +
+                "                    for( ; j < cols; j++ ) packB[index++] = dataB[indexB+j];\n" +
+                "                    for( ; j < NR; j++ ) packB[index++] = 0;\n" +
+                "                }\n" +
+                "            }\n" +
+                "        }\n" +
+                "    }\n";
+        out.print(foo);
+    }
+
+    /**
+     * The micro kernel is fully unrolled so that the partial sums can be kept in registers
+     */
+    private void printKernel() {
+        String foo =
+                "    /**\n" +
+                "     * C(0:rows,0:cols) += alpha*A*B where A is a packed "+MR+" x kc sliver and B is a packed kc x "+NR+" sliver.\n" +
+                "     */\n" +
+                "    private static void microKernel( int kc , double[] packA , int indexA , double[] packB , int indexB ,\n" +
+                "                                     double alpha , double[] dataC , int indexC , int strideC ,\n" +
+                "                                     int rows , int cols )\n" +
+                "    {\n";
+
+        foo += "        double ";
+        for (int i = 0; i < MR; i++) {
+            for (int j = 0; j < NR; j++) {
+                foo += "c"+i+j+"=0"+((i==MR-1&&j==NR-1)?";\n":",");
+            }
+        }
+        foo += "\n" +
+                "        for( int p = 0; p < kc; p++ ) {\n";
+        for (int i = 0; i < MR; i++) {
+            foo += "            double a"+i+" = packA[indexA+"+i+"];\n";
+        }
+        for (int j = 0; j < NR; j++) {
+            foo += "            double b"+j+" = packB[indexB+"+j+"];\n";
+        }
+        for (int i = 0; i < MR; i++) {
+            foo += "           ";
+            for (int j = 0; j < NR; j++) {
+                foo += " c"+i+j+" += a"+i+"*b"+j+";";
+            }
+            foo += "\n";
+        }
+        foo +=  "            indexA += MR;\n" +
+                "            indexB += NR;\n" +
+                "        }\n" +
+                "\n" +
+                "        if( rows == MR && cols == NR ) {\n";
+        for (int i = 0; i < MR; i++) {
+            for (int j = 0; j < NR; j++) {
+                foo += "            dataC[indexC+"+j+"] += alpha*c"+i+j+";\n";
+            }
+            if( i < MR-1 )
+                foo += "            indexC += strideC;\n";
+        }
+        foo += "        } else {\n" +
+                "            // edge of the matrix\n";
+        for (int i = 0; i < MR; i++) {
+            foo += "            if( rows > "+i+" ) {\n";
+            for (int j = 0; j < NR; j++) {
+                foo += "                if( cols > "+j+" ) dataC[indexC+"+j+"] += alpha*c"+i+j+";\n";
+            }
+            foo += "            }\n";
+            if( i < MR-1 )
+                foo += "            indexC += strideC;\n";
+        }
+        foo += "        }\n" +
+                "    }\n";
+        out.print(foo);
+    }
+
+    public static void main( String args[] ) throws FileNotFoundException {
+        new GeneratorMatrixMatrixMult_DDRM(false).generate();
+        new GeneratorMatrixMatrixMult_DDRM(true).generate();
+        new GeneratorMatrixMatrixMult_DDRM(false,true).generate();
     }
 }
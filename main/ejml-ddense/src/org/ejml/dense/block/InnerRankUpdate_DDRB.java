@@ -103,8 +103,23 @@ public class InnerRankUpdate_DDRB {
         if( A.row1-A.row0 != N )
             throw new IllegalArgumentException("A does not have the expected number of rows based on B's width");
 
+        symmRankNMinus_U(blockLength,A,B,B.col0,B.col1);
+    }
 
-        for( int i = B.col0; i < B.col1; i += blockLength ) {
+    /**
+     * Same as {@link #symmRankNMinus_U(int, DSubmatrixD1, DSubmatrixD1)} but only the blocks in A which are
+     * in columns that correspond to columns col0 to col1-1 in B are modified.  The blocks in different columns
+     * are independent of each other and can be updated at the same time.
+     *
+     * @param col0 First column in B, inclusive.  Must be aligned with a block.
+     * @param col1 Last column in B, exclusive.
+     */
+    public static void symmRankNMinus_U(int blockLength ,
+                                        DSubmatrixD1 A , DSubmatrixD1 B , int col0 , int col1 )
+    {
+        int heightB = B.row1-B.row0;
+
+        for( int i = B.col0; i < col1; i += blockLength ) {
 
             int indexB_i = B.row0*B.original.numCols + i*heightB;
             int widthB_i = Math.min(blockLength,B.col1-i);
@@ -112,7 +127,7 @@ public class InnerRankUpdate_DDRB {
             int rowA = i-B.col0+A.row0;
             int heightA = Math.min( blockLength , A.row1 - rowA);
 
-            for( int j = i; j < B.col1; j += blockLength ) {
+            for( int j = Math.max(i,col0); j < col1; j += blockLength ) {
 
                 int widthB_j = Math.min(blockLength,B.col1-j);
 
@@ -153,7 +168,23 @@ public class InnerRankUpdate_DDRB {
         if( A.row1-A.row0 != N )
             throw new IllegalArgumentException("A does not have the expected number of rows based on B's height");
 
-        for( int i = B.row0; i < B.row1; i += blockLength ) {
+        symmRankNMinus_L(blockLength,A,B,B.row0,B.row1);
+    }
+
+    /**
+     * Same as {@link #symmRankNMinus_L(int, DSubmatrixD1, DSubmatrixD1)} but only the blocks in A which are
+     * in rows that correspond to rows row0 to row1-1 in B are modified.  The blocks in different rows
+     * are independent of each other and can be updated at the same time.
+     *
+     * @param row0 First row in B, inclusive.  Must be aligned with a block.
+     * @param row1 Last row in B, exclusive.
+     */
+    public static void symmRankNMinus_L(int blockLength ,
+                                        DSubmatrixD1 A , DSubmatrixD1 B , int row0 , int row1 )
+    {
+        int widthB = B.col1-B.col0;
+
+        for( int i = row0; i < row1; i += blockLength ) {
 
 
             int heightB_i = Math.min(blockLength,B.row1-i);
@@ -0,0 +1,301 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.dense.block.decomposition.bidiagonal;
+
+import org.ejml.data.DMatrixRBlock;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DSubmatrixD1;
+import org.ejml.dense.block.MatrixMult_DDRB;
+import org.ejml.dense.block.MatrixOps_DDRB;
+import org.ejml.dense.block.decomposition.qr.QRDecompositionHouseholder_DDRB;
+import org.ejml.interfaces.decomposition.BidiagonalDecomposition_F64;
+
+
+/**
+ * <p>
+ * Bidiagonal decomposition for block matrices, A = U*B*V<sup>T</sup>.  The matrix is reduced one block wide
+ * panel at a time using {@link BidiagonalHelper_DDRB#bidiagPanel}.  The reflectors from a panel are then applied to
+ * the remainder of the matrix with a single matrix multiplication.  About half of the floating point operations are
+ * done inside of matrix multiplications.
+ * </p>
+ *
+ * <p>
+ * Left reflectors are stored in the lower triangle and right reflectors in the upper triangle above the off
+ * diagonal.  U and V are computed from the reflectors using the block QR algorithm.
+ * </p>
+ *
+ * <p>
+ * Based on LAPACK's dgebrd and "Block Reduction of Matrices to Condensed Forms for Eigenvalue Computations"
+ * by J. J. Dongarra, D. C. Sorensen, S. J. Hammarling, 1989.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class BidiagonalDecompositionHouseholder_DDRB
+        implements BidiagonalDecomposition_F64<DMatrixRBlock> {
+
+    // matrix which is being decomposed.
+    protected DMatrixRBlock A;
+    protected int blockLength;
+
+    // number of rows, columns, and the smaller of the two
+    protected int m,n,min;
+
+    protected double gammasU[] = new double[1];
+    protected double gammasV[] = new double[1];
+
+    // panel's reflectors and deferred updates
+    protected DMatrixRMaj X = new DMatrixRMaj(1,1);
+    protected DMatrixRMaj Y = new DMatrixRMaj(1,1);
+    protected DMatrixRMaj U = new DMatrixRMaj(1,1);
+    protected DMatrixRMaj V = new DMatrixRMaj(1,1);
+
+    // block versions of the panel matrices used to update the remainder of the matrix.
+    // UX = [U X] and YV = [Y^T ; V]
+    protected DMatrixRBlock blockUX = new DMatrixRBlock(1,1);
+    protected DMatrixRBlock blockYV = new DMatrixRBlock(1,1);
+    protected DMatrixRBlock tmp = new DMatrixRBlock(1,1);
+
+    // work space
+    protected double u[] = new double[1];
+    protected double v[] = new double[1];
+    protected double t[] = new double[1];
+
+    // used to compute U and V from the reflectors
+    private ReflectorsQ qr = new ReflectorsQ();
+
+    @Override
+    public boolean decompose( DMatrixRBlock orig ) {
+        init(orig);
+
+        for( int k = 0; k < min; k += blockLength ) {
+            int width = Math.min(blockLength,min-k);
+
+            reducePanel(k,width);
+
+            int next = k + width;
+            if( next < m && next < n ) {
+                setupPanelBlocks(width);
+                updateRemainder(next);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Reduces the panel starting at (col0,col0) to bidiagonal form
+     */
+    protected void reducePanel( int col0 , int width ) {
+        BidiagonalHelper_DDRB.bidiagPanel(A,col0,width,gammasU,gammasV,X,Y,U,V,u,v,t,false);
+    }
+
+    protected void init( DMatrixRBlock orig ) {
+        this.A = orig;
+        this.blockLength = orig.blockLength;
+        this.m = orig.numRows;
+        this.n = orig.numCols;
+        this.min = Math.min(m,n);
+
+        if( gammasU.length < n ) {
+            gammasU = new double[n];
+            gammasV = new double[n];
+        }
+        int max = Math.max(m,n);
+        if( u.length < max ) {
+            u = new double[max];
+            v = new double[max];
+        }
+        if( t.length < 2*blockLength )
+            t = new double[2*blockLength];
+    }
+
+    /**
+     * Converts the panel matrices into block matrices so that the remainder can be updated with a single
+     * matrix multiplication.  The panel must be one block wide.
+     */
+    protected void setupPanelBlocks( int width ) {
+        blockUX.reshape(m,2*width,blockLength,false);
+        blockYV.reshape(2*width,n,blockLength,false);
+
+        // each block row in UX contains one block from U followed by one from X
+        for( int blockRow = 0; blockRow < m; blockRow += blockLength ) {
+            int height = Math.min(blockLength,m-blockRow);
+            int index = blockRow*2*width;
+            System.arraycopy(U.data,blockRow*width,blockUX.data,index,height*width);
+            System.arraycopy(X.data,blockRow*width,blockUX.data,index+height*width,height*width);
+        }
+
+        // the two block rows in YV have the same layout as Y^T and V
+        tmp.reshape(width,n,blockLength,false);
+        MatrixOps_DDRB.convertTranSrc(Y,tmp);
+        System.arraycopy(tmp.data,0,blockYV.data,0,width*n);
+        MatrixOps_DDRB.convert(V,tmp);
+        System.arraycopy(tmp.data,0,blockYV.data,width*n,width*n);
+    }
+
+    /**
+     * Applies the panel's reflectors to the lower right submatrix which starts at (row0,row0).<br>
+     * A = A - U*Y<sup>T</sup> - X*V
+     */
+    protected void updateRemainder( int row0 ) {
+        updateColumns(row0,row0,n);
+    }
+
+    /**
+     * Updates columns col0 to col1-1 in the lower right submatrix.  Both must be at the start of a block.
+     */
+    protected void updateColumns( int row0 , int col0 , int col1 ) {
+        int inner = blockUX.numCols;
+        MatrixMult_DDRB.multMinus(blockLength,
+                new DSubmatrixD1(blockUX,row0,m,0,inner),
+                new DSubmatrixD1(blockYV,0,inner,col0,col1),
+                new DSubmatrixD1(A,row0,m,col0,col1));
+    }
+
+    @Override
+    public void getDiagonal(double[] diag, double[] off) {
+        for( int i = 0; i < min; i++ ) {
+            diag[i] = A.get(i,i);
+            if( i+1 < min )
+                off[i] = A.get(i,i+1);
+        }
+        if( n > m )
+            off[min-1] = A.get(min-1,min);
+    }
+
+    @Override
+    public DMatrixRBlock getB( DMatrixRBlock B , boolean compact ) {
+        int w = n > m ? min + 1 : min;
+
+        if( compact )
+            B = checkShape(B,min,w);
+        else
+            B = checkShape(B,m,n);
+        MatrixOps_DDRB.set(B,0);
+
+        for( int i = 0; i < min; i++ ) {
+            B.set(i,i,A.get(i,i));
+            if( i+1 < w )
+                B.set(i,i+1,A.get(i,i+1));
+        }
+
+        return B;
+    }
+
+    @Override
+    public DMatrixRBlock getU( DMatrixRBlock U , boolean transpose , boolean compact ) {
+        DMatrixRBlock reflectors = A;
+        if( n > m ) {
+            // only the first m columns contain reflectors
+            reflectors = new DMatrixRBlock(m,m,blockLength);
+            for( int i = 0; i < m; i++ ) {
+                for( int j = 0; j < i; j++ ) {
+                    reflectors.set(i,j,A.get(i,j));
+                }
+            }
+        }
+
+        int cols = compact ? min : m;
+
+        if( transpose ) {
+            U = checkShape(U,cols,m);
+            MatrixOps_DDRB.transpose(qr.computeQ(reflectors,gammasU,null,compact),U);
+        } else {
+            U = checkShape(U,m,cols);
+            qr.computeQ(reflectors,gammasU,U,compact);
+        }
+
+        return U;
+    }
+
+    @Override
+    public DMatrixRBlock getV( DMatrixRBlock V , boolean transpose , boolean compact ) {
+        int w = n > m ? min + 1 : min;
+        int cols = compact ? w : n;
+
+        if( transpose )
+            V = checkShape(V,cols,n);
+        else
+            V = checkShape(V,n,cols);
+        MatrixOps_DDRB.set(V,0);
+        V.set(0,0,1);
+
+        // the right reflectors start one column over.  Copy them into a matrix where they start along the
+        // diagonal so that the QR algorithm can be used
+        int p = Math.min(min,n-1);
+        if( p == 0 )
+            return V;
+
+        DMatrixRBlock reflectors = new DMatrixRBlock(n-1,p,blockLength);
+        for( int j = 0; j < p; j++ ) {
+            for( int i = j+1; i < n-1; i++ ) {
+                reflectors.set(i,j,A.get(j,i+1));
+            }
+        }
+
+        DMatrixRBlock Q = qr.computeQ(reflectors,gammasV,null,compact);
+
+        for( int i = 0; i < Q.numRows; i++ ) {
+            for( int j = 0; j < Q.numCols; j++ ) {
+                if( transpose )
+                    V.set(j+1,i+1,Q.get(i,j));
+                else
+                    V.set(i+1,j+1,Q.get(i,j));
+            }
+        }
+
+        return V;
+    }
+
+    private DMatrixRBlock checkShape( DMatrixRBlock M , int numRows , int numCols ) {
+        if( M == null )
+            return new DMatrixRBlock(numRows,numCols,blockLength);
+        if( M.blockLength != blockLength )
+            throw new IllegalArgumentException("Block length must be "+blockLength);
+        M.reshape(numRows,numCols,false);
+        return M;
+    }
+
+    public double[] getGammasU() {
+        return gammasU;
+    }
+
+    public double[] getGammasV() {
+        return gammasV;
+    }
+
+    @Override
+    public boolean inputModified() {
+        return true;
+    }
+
+    /**
+     * Computes an orthogonal matrix from reflectors stored in the lower triangle using the block QR algorithm
+     */
+    private static class ReflectorsQ extends QRDecompositionHouseholder_DDRB {
+        public DMatrixRBlock computeQ( DMatrixRBlock reflectors , double gammas[] ,
+                                       DMatrixRBlock Q , boolean compact ) {
+            setup(reflectors);
+            this.gammas = gammas;
+            return getQ(Q,compact);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.dense.block.decomposition.bidiagonal;
+
+import org.ejml.EjmlConcurrency;
+import org.ejml.EjmlParameters;
+import org.ejml.data.DMatrixRBlock;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link BidiagonalDecompositionHouseholder_DDRB}.  The reflectors in each panel
+ * are applied to the remainder of the matrix one block column per thread.  While a panel is being reduced the
+ * matrix-vector multiplications with the remainder of the matrix are split between threads by blocks.
+ * </p>
+ *
+ * <p>
+ * The same operations are performed on each block as in the single threaded algorithm so the results are identical.
+ * If the matrix is too small then the single threaded algorithm is used,
+ * see {@link EjmlParameters#BIDIAGONAL_CONCURRENT_SWITCH}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class BidiagonalDecompositionHouseholder_MT_DDRB extends BidiagonalDecompositionHouseholder_DDRB {
+
+    // if true the remainder of the matrix is updated concurrently
+    private boolean concurrent;
+
+    @Override
+    public boolean decompose( DMatrixRBlock orig ) {
+        long ops = 4L*orig.numRows*orig.numCols*Math.min(orig.numRows,orig.numCols);
+        concurrent = EjmlConcurrency.isUseConcurrent(ops,EjmlParameters.BIDIAGONAL_CONCURRENT_SWITCH);
+        return super.decompose(orig);
+    }
+
+    @Override
+    protected void reducePanel( int col0 , int width ) {
+        BidiagonalHelper_DDRB.bidiagPanel(A,col0,width,gammasU,gammasV,X,Y,U,V,u,v,t,concurrent);
+    }
+
+    @Override
+    protected void updateRemainder( int row0 ) {
+        int numBlocks = (n-row0+blockLength-1)/blockLength;
+        if( !concurrent || numBlocks <= 1 ) {
+            super.updateRemainder(row0);
+            return;
+        }
+
+        EjmlConcurrency.loopFor(0,numBlocks,idx->{
+            int col0 = row0 + idx*blockLength;
+            updateColumns(row0,col0,Math.min(n,col0+blockLength));
+        });
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
  *
  * This file is part of Efficient Java Matrix Library (EJML).
  *
@@ -16,74 +16,406 @@
  * limitations under the License.
  */
 
-package org.ejml.dense.block.decomposition.bidiagonal;
 
-import org.ejml.data.DSubmatrixD1;
+package org.ejml.dense.block.decomposition.bidiagonal;
 
-import static org.ejml.dense.block.decomposition.qr.BlockHouseHolder_DDRB.*;
+import org.ejml.EjmlConcurrency;
+import org.ejml.data.DMatrixRBlock;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.decomposition.qr.QrHelperFunctions_DDRM;
 
 
 /**
+ * <p>
+ * Functions for reducing a panel of a {@link DMatrixRBlock} to bidiagonal form.  Based on LAPACK's dlabrd.
+ * </p>
+ *
+ * <p>
+ * The first 'width' columns and rows of the submatrix starting at (col0,col0) are reduced using
+ * Householder reflectors.  Instead of updating the rest of the matrix after each reflector, the update is
+ * deferred and accumulated in X and Y.  The remainder of the matrix is then updated with two matrix
+ * multiplications, A = A - U*Y<sup>T</sup> - X*V, where the columns in U are the left reflectors
+ * and the rows in V the right reflectors.
+ * </p>
+ *
+ * <p>
+ * Reflectors are stored in the same format as {@link org.ejml.dense.row.decomposition.bidiagonal.BidiagonalDecompositionRow_DDRM}.
+ * </p>
+ *
  * @author Peter Abeles
  */
 public class BidiagonalHelper_DDRB {
 
     /**
-     * Performs a standard bidiagonal decomposition just on the outer blocks of the provided matrix
+     * <p>
+     * Reduces a panel of the matrix to bidiagonal form.  Only the panel is modified, see class description.
+     * </p>
      *
-     * @param blockLength
-     * @param A
-     * @param gammasU
+     * @param A Matrix being decomposed.  Modified.
+     * @param col0 First row and column in the panel.
+     * @param width Number of rows and columns in the panel.
+     * @param gammasU Gammas of the left reflectors.  Modified.
+     * @param gammasV Gammas of the right reflectors.  Modified.
+     * @param X (Output) numRows x width matrix
+     * @param Y (Output) numCols x width matrix
+     * @param U (Output) numRows x width matrix which contains the left reflectors, including the ones and zeros.
+     * @param V (Output) width x numCols matrix which contains the right reflectors, including the ones and zeros.
+     * @param u Work space.  Length of at least max(numRows,numCols)
+     * @param v Work space.  Length of at least max(numRows,numCols)
+     * @param t Work space.  Length of at least 2*width
+     * @param concurrent If true then matrix-vector multiplications with the rest of the matrix are done concurrently
      */
-
-    public static boolean bidiagOuterBlocks( final int blockLength ,
-                                             final DSubmatrixD1 A ,
-                                             final double gammasU[],
-                                             final double gammasV[])
+    public static void bidiagPanel( final DMatrixRBlock A , final int col0 , final int width ,
+                                    final double gammasU[] , final double gammasV[] ,
+                                    final DMatrixRMaj X , final DMatrixRMaj Y ,
+                                    final DMatrixRMaj U , final DMatrixRMaj V ,
+                                    final double u[] , final double v[] , final double t[] ,
+                                    final boolean concurrent )
     {
-//        System.out.println("---------- Orig");
-//        A.original.print();
+        final int m = A.numRows;
+        final int n = A.numCols;
+
+        X.reshape(m,width); Y.reshape(n,width);
+        U.reshape(m,width); V.reshape(width,n);
+        X.zero(); Y.zero(); U.zero(); V.zero();
+
+        final double dataX[] = X.data;
+        final double dataY[] = Y.data;
+        final double dataU[] = U.data;
+        final double dataV[] = V.data;
+
+        for( int i = 0; i < width; i++ ) {
+            final int c = col0 + i;
+
+            //------------ Left reflector
+            // apply previous reflectors to column c
+            extractCol(A,c,c,u);
+            for( int j = 0; j < i; j++ ) {
+                t[j] = dataY[c*width+j];
+                t[width+j] = dataV[j*n+c];
+            }
+            for( int r = c; r < m; r++ ) {
+                double val = u[r];
+                int indexUX = r*width;
+                for( int j = 0; j < i; j++ ) {
+                    val -= dataU[indexUX+j]*t[j] + dataX[indexUX+j]*t[width+j];
+                }
+                u[r] = val;
+            }
+
+            double gamma = gammasU[c] = computeHouseholder(c,m,u);
+            insertCol(A,c,c,u);
+            u[c] = 1;
+            for( int r = c; r < m; r++ ) {
+                dataU[r*width+i] = u[r];
+            }
+
+            if( c+1 >= n ) {
+                gammasV[c] = 0;
+                continue;
+            }
+
+            // y = gamma*(A - U*Y^T - X*V)^T*u
+            for( int j = 0; j < i; j++ ) {
+                t[j] = 0;
+                t[width+j] = 0;
+            }
+            for( int r = c; r < m; r++ ) {
+                double valU = u[r];
+                int indexUX = r*width;
+                for( int j = 0; j < i; j++ ) {
+                    t[j] += dataU[indexUX+j]*valU;
+                    t[width+j] += dataX[indexUX+j]*valU;
+                }
+            }
+            multTransA_vec(A,c,c+1,u,v,concurrent);
+            for( int col = c+1; col < n; col++ ) {
+                double val = v[col];
+                for( int j = 0; j < i; j++ ) {
+                    val -= dataY[col*width+j]*t[j] + dataV[j*n+col]*t[width+j];
+                }
+                dataY[col*width+i] = gamma*val;
+            }
+
+            //------------ Right reflector
+            // apply previous reflectors and the one just computed to row c
+            extractRow(A,c,c+1,v);
+            for( int col = c+1; col < n; col++ ) {
+                double val = v[col];
+                int indexY = col*width;
+                for( int j = 0; j <= i; j++ ) {
+                    val -= dataU[c*width+j]*dataY[indexY+j];
+                }
+                v[col] = val;
+            }
+            for( int j = 0; j < i; j++ ) {
+                double valX = dataX[c*width+j];
+                int indexV = j*n;
+                for( int col = c+1; col < n; col++ ) {
+                    v[col] -= valX*dataV[indexV+col];
+                }
+            }
+
+            gamma = gammasV[c] = computeHouseholder(c+1,n,v);
+            insertRow(A,c,c+1,v);
+            v[c+1] = 1;
+            for( int col = c+1; col < n; col++ ) {
+                dataV[i*n+col] = v[col];
+            }
+
+            if( c+1 >= m )
+                continue;
+
+            // x = gamma*(A - U*Y^T - X*V)*v
+            for( int j = 0; j <= i; j++ ) {
+                t[j] = 0;
+            }
+            for( int col = c+1; col < n; col++ ) {
+                double valV = v[col];
+                int indexY = col*width;
+                for( int j = 0; j <= i; j++ ) {
+                    t[j] += dataY[indexY+j]*valV;
+                }
+            }
+            for( int j = 0; j < i; j++ ) {
+                double sum = 0;
+                int indexV = j*n;
+                for( int col = c+1; col < n; col++ ) {
+                    sum += dataV[indexV+col]*v[col];
+                }
+                t[width+j] = sum;
+            }
+            mult_vec(A,c+1,c+1,v,u,concurrent);
+            for( int r = c+1; r < m; r++ ) {
+                double val = u[r];
+                for( int j = 0; j <= i; j++ ) {
+                    val -= dataU[r*width+j]*t[j];
+                }
+                for( int j = 0; j < i; j++ ) {
+                    val -= dataX[r*width+j]*t[width+j];
+                }
+                dataX[r*width+i] = gamma*val;
+            }
+        }
+    }
+
+    /**
+     * Computes a Householder reflector from elements j to end-1 in u.  Elements after j are overwritten by the
+     * reflector, which has an implicit one at j, and u[j] is set to the value the leading element becomes.
+     *
+     * @return gamma for the reflector
+     */
+    public static double computeHouseholder( int j , int end , double u[] ) {
+        double max = QrHelperFunctions_DDRM.findMax(u,j,end-j);
+
+        if( max > 0 ) {
+            double tau = QrHelperFunctions_DDRM.computeTauAndDivide(j,end,u,max);
+            double nu = u[j] + tau;
+            QrHelperFunctions_DDRM.divideElements(j+1,end,u,nu);
+            u[j] = -tau*max;
+            return nu/tau;
+        } else {
+            return 0;
+        }
+    }
+
+    /**
+     * Copies elements in column 'col' starting at row0 into u.
+     */
+    public static void extractCol( DMatrixRBlock A , int row0 , int col , double u[] ) {
+        final int blockLength = A.blockLength;
+        final int blockCol = col - col % blockLength;
+        final int width = Math.min(blockLength,A.numCols-blockCol);
+
+        for( int blockRow = row0 - row0 % blockLength; blockRow < A.numRows; blockRow += blockLength ) {
+            int height = Math.min(blockLength,A.numRows-blockRow);
+            int index = blockRow*A.numCols + blockCol*height + col-blockCol - blockRow*width;
+            for( int r = Math.max(row0,blockRow); r < blockRow+height; r++ ) {
+                u[r] = A.data[index + r*width];
+            }
+        }
+    }
+
+    /**
+     * Copies elements in u into column 'col' starting at row0.
+     */
+    public static void insertCol( DMatrixRBlock A , int row0 , int col , double u[] ) {
+        final int blockLength = A.blockLength;
+        final int blockCol = col - col % blockLength;
+        final int width = Math.min(blockLength,A.numCols-blockCol);
 
-        int width = Math.min(blockLength,A.col1-A.col0);
-        int height = Math.min(blockLength,A.row1-A.row0);
+        for( int blockRow = row0 - row0 % blockLength; blockRow < A.numRows; blockRow += blockLength ) {
+            int height = Math.min(blockLength,A.numRows-blockRow);
+            int index = blockRow*A.numCols + blockCol*height + col-blockCol - blockRow*width;
+            for( int r = Math.max(row0,blockRow); r < blockRow+height; r++ ) {
+                A.data[index + r*width] = u[r];
+            }
+        }
+    }
 
-        int min = Math.min(width,height);
+    /**
+     * Copies elements in row 'row' starting at col0 into v.
+     */
+    public static void extractRow( DMatrixRBlock A , int row , int col0 , double v[] ) {
+        final int blockLength = A.blockLength;
+        final int blockRow = row - row % blockLength;
+        final int height = Math.min(blockLength,A.numRows-blockRow);
 
-        for( int i = 0; i < min; i++ ) {
-            //--- Apply reflector to the column
+        for( int blockCol = col0 - col0 % blockLength; blockCol < A.numCols; blockCol += blockLength ) {
+            int width = Math.min(blockLength,A.numCols-blockCol);
+            int index = blockRow*A.numCols + blockCol*height + (row-blockRow)*width - blockCol;
+            for( int col = Math.max(col0,blockCol); col < blockCol+width; col++ ) {
+                v[col] = A.data[index + col];
+            }
+        }
+    }
 
-            // compute the householder vector
-            if (!computeHouseHolderCol(blockLength, A, gammasU, i))
-                return false;
+    /**
+     * Copies elements in v into row 'row' starting at col0.
+     */
+    public static void insertRow( DMatrixRBlock A , int row , int col0 , double v[] ) {
+        final int blockLength = A.blockLength;
+        final int blockRow = row - row % blockLength;
+        final int height = Math.min(blockLength,A.numRows-blockRow);
 
-            // apply to rest of the columns in the column block
-            rank1UpdateMultR_Col(blockLength,A,i,gammasU[A.col0+i]);
+        for( int blockCol = col0 - col0 % blockLength; blockCol < A.numCols; blockCol += blockLength ) {
+            int width = Math.min(blockLength,A.numCols-blockCol);
+            int index = blockRow*A.numCols + blockCol*height + (row-blockRow)*width - blockCol;
+            for( int col = Math.max(col0,blockCol); col < blockCol+width; col++ ) {
+                A.data[index + col] = v[col];
+            }
+        }
+    }
 
-            // apply to the top row block
-            rank1UpdateMultR_TopRow(blockLength,A,i,gammasU[A.col0+i]);
+    /**
+     * y(col0:numCols) = A(row0:numRows,col0:numCols)<sup>T</sup>*u(row0:numRows)
+     */
+    public static void multTransA_vec( DMatrixRBlock A , int row0 , int col0 , double u[] , double y[] ,
+                                       boolean concurrent ) {
+        final int blockLength = A.blockLength;
+        int first = col0 - col0 % blockLength;
+        int numBlocks = (A.numCols - first + blockLength - 1)/blockLength;
 
-            System.out.println("After column stuff");
-            A.original.print();
+        if( !concurrent || numBlocks <= 1 ) {
+            multTransA_vec(A,row0,col0,A.numCols,u,y);
+        } else {
+            // each thread computes a different block of elements in y
+            EjmlConcurrency.loopFor(0,numBlocks,idx->{
+                int c0 = Math.max(col0,first+idx*blockLength);
+                multTransA_vec(A,row0,c0,Math.min(A.numCols,first+(idx+1)*blockLength),u,y);
+            });
+        }
+    }
 
-            //-- Apply reflector to the row
-            if(!computeHouseHolderRow(blockLength,A,gammasV,i))
-                return false;
-            
-            // apply to rest of the rows in the row block
-            rank1UpdateMultL_Row(blockLength,A,i,i+1,gammasV[A.row0+i]);
+    /**
+     * y(col0:col1) = A(row0:numRows,col0:col1)<sup>T</sup>*u(row0:numRows)
+     */
+    public static void multTransA_vec( DMatrixRBlock A , int row0 , int col0 , int col1 , double u[] , double y[] ) {
+        final int blockLength = A.blockLength;
+        final double data[] = A.data;
+
+        for( int col = col0; col < col1; col++ )
+            y[col] = 0;
+
+        for( int blockRow = row0 - row0 % blockLength; blockRow < A.numRows; blockRow += blockLength ) {
+            int height = Math.min(blockLength,A.numRows-blockRow);
+            int r0 = Math.max(row0,blockRow);
+
+            for( int blockCol = col0 - col0 % blockLength; blockCol < col1; blockCol += blockLength ) {
+                int width = Math.min(blockLength,A.numCols-blockCol);
+                int c0 = Math.max(col0,blockCol);
+                int c1 = Math.min(col1,blockCol+width);
+                int indexBlock = blockRow*A.numCols + blockCol*height - blockCol;
 
-            System.out.println("After update row");
-            A.original.print();
+                // process four rows at once to reduce the number of times 'y' is read and written
+                int r = r0;
+                for( ; r+3 < blockRow+height; r += 4 ) {
+                    double u0 = u[r], u1 = u[r+1], u2 = u[r+2], u3 = u[r+3];
+                    int index0 = indexBlock + (r-blockRow)*width;
+                    int index1 = index0 + width;
+                    int index2 = index1 + width;
+                    int index3 = index2 + width;
+                    for( int col = c0; col < c1; col++ ) {
+                        y[col] += data[index0+col]*u0 + data[index1+col]*u1 + data[index2+col]*u2 + data[index3+col]*u3;
+                    }
+                }
+                for( ; r < blockRow+height; r++ ) {
+                    double valU = u[r];
+                    int index = indexBlock + (r-blockRow)*width;
+                    for( int col = c0; col < c1; col++ ) {
+                        y[col] += data[index+col]*valU;
+                    }
+                }
+            }
+        }
+    }
 
-            // apply to the left column block
-            // TODO THIS WON'T WORK!!!!!!!!!!!!!
-            // Needs the whole matrix to have been updated by the left reflector to compute the correct solution
-//            rank1UpdateMultL_LeftCol(blockLength,A,i,i+1,gammasV[A.row0+i]);
+    /**
+     * x(row0:numRows) = A(row0:numRows,col0:numCols)*v(col0:numCols)
+     */
+    public static void mult_vec( DMatrixRBlock A , int row0 , int col0 , double v[] , double x[] ,
+                                 boolean concurrent ) {
+        final int blockLength = A.blockLength;
+        int first = row0 - row0 % blockLength;
+        int numBlocks = (A.numRows - first + blockLength - 1)/blockLength;
 
-            System.out.println("After row stuff");
-            A.original.print();
+        if( !concurrent || numBlocks <= 1 ) {
+            mult_vec(A,row0,A.numRows,col0,v,x);
+        } else {
+            // each thread computes a different block of elements in x
+            EjmlConcurrency.loopFor(0,numBlocks,idx->{
+                int r0 = Math.max(row0,first+idx*blockLength);
+                mult_vec(A,r0,Math.min(A.numRows,first+(idx+1)*blockLength),col0,v,x);
+            });
         }
+    }
+
+    /**
+     * x(row0:row1) = A(row0:row1,col0:numCols)*v(col0:numCols)
+     */
+    public static void mult_vec( DMatrixRBlock A , int row0 , int row1 , int col0 , double v[] , double x[] ) {
+        final int blockLength = A.blockLength;
+        final double data[] = A.data;
 
-        return true;
+        for( int blockRow = row0 - row0 % blockLength; blockRow < row1; blockRow += blockLength ) {
+            int height = Math.min(blockLength,A.numRows-blockRow);
+            int r0 = Math.max(row0,blockRow);
+            int r1 = Math.min(row1,blockRow+height);
+
+            for( int r = r0; r < r1; r++ )
+                x[r] = 0;
+
+            for( int blockCol = col0 - col0 % blockLength; blockCol < A.numCols; blockCol += blockLength ) {
+                int width = Math.min(blockLength,A.numCols-blockCol);
+                int c0 = Math.max(col0,blockCol);
+                int indexBlock = blockRow*A.numCols + blockCol*height - blockCol;
+
+                // process four rows at once to reduce the number of times 'v' is read
+                int r = r0;
+                for( ; r+3 < r1; r += 4 ) {
+                    int index0 = indexBlock + (r-blockRow)*width;
+                    int index1 = index0 + width;
+                    int index2 = index1 + width;
+                    int index3 = index2 + width;
+                    double sum0 = 0, sum1 = 0, sum2 = 0, sum3 = 0;
+                    for( int col = c0; col < blockCol+width; col++ ) {
+                        double valV = v[col];
+                        sum0 += data[index0+col]*valV;
+                        sum1 += data[index1+col]*valV;
+                        sum2 += data[index2+col]*valV;
+                        sum3 += data[index3+col]*valV;
+                    }
+                    x[r] += sum0; x[r+1] += sum1; x[r+2] += sum2; x[r+3] += sum3;
+                }
+                for( ; r < r1; r++ ) {
+                    int index = indexBlock + (r-blockRow)*width;
+                    double sum = 0;
+                    for( int col = c0; col < blockCol+width; col++ ) {
+                        sum += data[index+col]*v[col];
+                    }
+                    x[r] += sum;
+                }
+            }
+        }
     }
 }
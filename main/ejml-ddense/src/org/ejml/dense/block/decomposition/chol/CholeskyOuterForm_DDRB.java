@@ -41,9 +41,9 @@ import org.ejml.interfaces.decomposition.CholeskyDecomposition_F64;
 public class CholeskyOuterForm_DDRB implements CholeskyDecomposition_F64<DMatrixRBlock> {
 
     // if it should compute an upper or lower triangular matrix
-    private boolean lower = false;
+    protected boolean lower = false;
     // The decomposed matrix.
-    private DMatrixRBlock T;
+    protected DMatrixRBlock T;
 
     // predeclare local work space
     private DSubmatrixD1 subA = new DSubmatrixD1();
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.block.decomposition.chol;
+
+import org.ejml.EjmlConcurrency;
+import org.ejml.EjmlParameters;
+import org.ejml.data.DMatrixRBlock;
+import org.ejml.data.DSubmatrixD1;
+import org.ejml.dense.block.InnerRankUpdate_DDRB;
+import org.ejml.dense.block.MatrixOps_DDRB;
+import org.ejml.dense.block.TriangularSolver_DDRB;
+
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link CholeskyOuterForm_DDRB}.  The factorization is broken up into tasks
+ * which each operate on a single block row (or block column for upper) and a task is run as soon as
+ * all the tasks it depends on have finished.  This allows the next diagonal block to be factored while
+ * the rest of the trailing submatrix is still being updated.  For step k the tasks are:
+ * </p>
+ *
+ * <ul>
+ *     <li>Factor(k): Cholesky decomposition of diagonal block (k,k).</li>
+ *     <li>Solve(i,k): Solves for block (i,k) using the diagonal block.  Depends on Factor(k) and Update(i,k-1).</li>
+ *     <li>Update(i,k): Blocks (i,k+1) to (i,i) = (i,j) - (i,k)*(j,k)<sup>T</sup>.  Depends on Solve(k+1,k) to Solve(i,k)</li>
+ * </ul>
+ *
+ * <p>
+ * Factor(k+1) depends on Update(k+1,k).  Each block is computed using the same operations, in the same order,
+ * as the single threaded algorithm so the results are identical.  If the matrix is too small then the single
+ * threaded algorithm is used, see {@link EjmlParameters#CHOLESKY_CONCURRENT_SWITCH}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class CholeskyOuterForm_MT_DDRB extends CholeskyOuterForm_DDRB {
+
+    // number of blocks along each side of the matrix
+    private int numBlocks;
+
+    // number of tasks each task is waiting on before it can run
+    private AtomicIntegerArray pendingFactor;
+    private AtomicIntegerArray pendingSolve;
+    private AtomicIntegerArray pendingUpdate;
+
+    // set to true if a diagonal block could not be decomposed
+    private volatile boolean failed;
+
+    public CholeskyOuterForm_MT_DDRB(boolean lower) {
+        super(lower);
+    }
+
+    @Override
+    public boolean decompose(DMatrixRBlock A) {
+        if( A.numCols != A.numRows )
+            throw new IllegalArgumentException("A must be square");
+
+        long N = A.numRows;
+        if( N <= A.blockLength || !EjmlConcurrency.isUseConcurrent(N*N*N/3,EjmlParameters.CHOLESKY_CONCURRENT_SWITCH) )
+            return super.decompose(A);
+
+        this.T = A;
+        numBlocks = (A.numRows + A.blockLength - 1)/A.blockLength;
+        failed = false;
+
+        int nb = numBlocks;
+        pendingFactor = new AtomicIntegerArray(nb);
+        pendingSolve = new AtomicIntegerArray(nb*nb);
+        pendingUpdate = new AtomicIntegerArray(nb*nb);
+        for (int k = 0; k < nb; k++) {
+            pendingFactor.set(k, k > 0 ? 1 : 0);
+            for (int i = k+1; i < nb; i++) {
+                pendingSolve.set(i*nb+k, k > 0 ? 2 : 1);
+                pendingUpdate.set(i*nb+k, i-k);
+            }
+        }
+
+        // every block task reports to the root when it's done
+        EjmlConcurrency.getPool().invoke(new Root(nb*nb));
+
+        if( failed )
+            return false;
+
+        MatrixOps_DDRB.zeroTriangle(lower,T);
+
+        return true;
+    }
+
+    /**
+     * Waits for all the block tasks to finish
+     */
+    private class Root extends CountedCompleter<Void> {
+        Root( int totalTasks ) {
+            setPendingCount(totalTasks-1);
+        }
+
+        @Override
+        public void compute() {
+            new BlockTask(this,FACTOR,0,0).fork();
+        }
+    }
+
+    private static final int FACTOR = 0;
+    private static final int SOLVE = 1;
+    private static final int UPDATE = 2;
+
+    private class BlockTask extends CountedCompleter<Void> {
+        final int type;
+        final int i,k;
+
+        BlockTask( Root root , int type , int i , int k ) {
+            super(root);
+            this.type = type;
+            this.i = i;
+            this.k = k;
+        }
+
+        @Override
+        public void compute() {
+            // once it has failed the remaining tasks are still run, but don't do anything
+            if( !failed ) {
+                switch( type ) {
+                    case FACTOR: factor(k); break;
+                    case SOLVE: solve(i,k); break;
+                    case UPDATE: update(i,k); break;
+                }
+            }
+
+            Root root = (Root)getCompleter();
+            int nb = numBlocks;
+            switch( type ) {
+                case FACTOR:
+                    for (int m = k+1; m < nb; m++) {
+                        if( pendingSolve.decrementAndGet(m*nb+k) == 0 )
+                            new BlockTask(root,SOLVE,m,k).fork();
+                    }
+                    break;
+
+                case SOLVE:
+                    for (int m = i; m < nb; m++) {
+                        if( pendingUpdate.decrementAndGet(m*nb+k) == 0 )
+                            new BlockTask(root,UPDATE,m,k).fork();
+                    }
+                    break;
+
+                case UPDATE:
+                    if( i == k+1 ) {
+                        if( pendingFactor.decrementAndGet(i) == 0 )
+                            new BlockTask(root,FACTOR,i,i).fork();
+                    } else {
+                        if( pendingSolve.decrementAndGet(i*nb+k+1) == 0 )
+                            new BlockTask(root,SOLVE,i,k+1).fork();
+                    }
+                    break;
+            }
+
+            tryComplete();
+        }
+    }
+
+    private void factor( int k ) {
+        DSubmatrixD1 subA = block(k,k);
+        boolean success = lower ? InnerCholesky_DDRB.lower(subA) : InnerCholesky_DDRB.upper(subA);
+        if( !success )
+            failed = true;
+    }
+
+    /**
+     * B = L<sup>-1</sup>B for the block in row i and column k, or the transposed block for upper.
+     */
+    private void solve( int i , int k ) {
+        int blockLength = T.blockLength;
+        DSubmatrixD1 subA = block(k,k);
+        if( lower ) {
+            TriangularSolver_DDRB.solveBlock(blockLength,false,subA,block(i,k),false,true);
+        } else {
+            TriangularSolver_DDRB.solveBlock(blockLength,true,subA,block(k,i),true,false);
+        }
+    }
+
+    /**
+     * C = C - B*B<sup>T</sup> for the blocks in row i of the trailing submatrix, or the transposed column for upper.
+     */
+    private void update( int i , int k ) {
+        int blockLength = T.blockLength;
+        int N = T.numRows;
+        int start = (k+1)*blockLength;
+
+        DSubmatrixD1 subC = new DSubmatrixD1(T,start,N,start,N);
+        int i0 = i*blockLength;
+        int i1 = Math.min(N,i0+blockLength);
+        if( lower ) {
+            DSubmatrixD1 subB = new DSubmatrixD1(T,start,N,k*blockLength,start);
+            InnerRankUpdate_DDRB.symmRankNMinus_L(blockLength,subC,subB,i0,i1);
+        } else {
+            DSubmatrixD1 subB = new DSubmatrixD1(T,k*blockLength,start,start,N);
+            InnerRankUpdate_DDRB.symmRankNMinus_U(blockLength,subC,subB,i0,i1);
+        }
+    }
+
+    private DSubmatrixD1 block( int row , int col ) {
+        int blockLength = T.blockLength;
+        int row0 = row*blockLength;
+        int col0 = col*blockLength;
+        return new DSubmatrixD1(T,row0,Math.min(T.numRows,row0+blockLength),
+                col0,Math.min(T.numCols,col0+blockLength));
+    }
+}
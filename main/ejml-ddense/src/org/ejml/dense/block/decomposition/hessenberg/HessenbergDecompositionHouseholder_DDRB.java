@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.dense.block.decomposition.hessenberg;
+
+import org.ejml.data.DMatrixRBlock;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DSubmatrixD1;
+import org.ejml.dense.block.MatrixMult_DDRB;
+import org.ejml.dense.block.MatrixOps_DDRB;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.interfaces.decomposition.DecompositionInterface;
+
+
+/**
+ * <p>
+ * Reduces a square block matrix to upper Hessenberg form, A = Q*H*Q<sup>T</sup>.  The matrix is reduced one block
+ * wide panel at a time using {@link HessenbergHelper_DDRB#hessenbergPanel}.  The panel's reflectors are then
+ * applied to the remainder of the matrix using matrix multiplications, see {@link #updateColumns}.
+ * </p>
+ *
+ * <p>
+ * Reflectors are stored below the sub-diagonal using the same format as HessenbergSimilarDecomposition_DDRM.
+ * </p>
+ *
+ * <p>
+ * Based on LAPACK's dgehrd and "On Aggregating Householder Transformations for the Hessenberg Reduction"
+ * by G. Quintana-Orti and R. van de Geijn, 2006.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class HessenbergDecompositionHouseholder_DDRB
+        implements DecompositionInterface<DMatrixRBlock> {
+
+    // matrix which is being decomposed.
+    protected DMatrixRBlock A;
+    protected int blockLength;
+
+    // number of rows and columns
+    protected int N;
+
+    protected double gammas[] = new double[1];
+
+    // panel's reflectors in compact WY form and Y = A*V*T
+    protected DMatrixRMaj V = new DMatrixRMaj(1,1);
+    protected DMatrixRMaj T = new DMatrixRMaj(1,1);
+    protected DMatrixRMaj Y = new DMatrixRMaj(1,1);
+    protected DMatrixRMaj VT = new DMatrixRMaj(1,1);
+
+    // block versions of the panel matrices used to update the remainder of the matrix
+    protected DMatrixRBlock blockV = new DMatrixRBlock(1,1);
+    protected DMatrixRBlock blockVt = new DMatrixRBlock(1,1);
+    protected DMatrixRBlock blockVT = new DMatrixRBlock(1,1);
+    protected DMatrixRBlock blockY = new DMatrixRBlock(1,1);
+    // storage for V^T*A
+    protected DMatrixRBlock blockW = new DMatrixRBlock(1,1);
+
+    // work space
+    protected double u[] = new double[1];
+    protected double y[] = new double[1];
+    protected double w[] = new double[1];
+
+    @Override
+    public boolean decompose( DMatrixRBlock orig ) {
+        if( orig.numCols != orig.numRows )
+            throw new IllegalArgumentException("A must be square.");
+        init(orig);
+
+        for( int k = 0; k < N; k += blockLength ) {
+            int width = Math.min(blockLength,N-k);
+
+            reducePanel(k,width);
+
+            int next = k + width;
+            if( next < N ) {
+                setupPanelBlocks(width);
+                updateRemainder(k,next);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Reduces the panel starting at column col0
+     */
+    protected void reducePanel( int col0 , int width ) {
+        HessenbergHelper_DDRB.hessenbergPanel(A,col0,width,gammas,V,Y,T,u,y,w,false);
+    }
+
+    protected void init( DMatrixRBlock orig ) {
+        this.A = orig;
+        this.blockLength = orig.blockLength;
+        this.N = orig.numRows;
+
+        if( gammas.length < N ) {
+            gammas = new double[N];
+            u = new double[N];
+            y = new double[N];
+        }
+        if( w.length < blockLength )
+            w = new double[blockLength];
+    }
+
+    /**
+     * Converts the panel matrices into block matrices.  Since the panel is at most one block wide, V, Y, and
+     * V*T<sup>T</sup> already have the correct memory layout.
+     */
+    protected void setupPanelBlocks( int width ) {
+        VT.reshape(N,width);
+        CommonOps_DDRM.multTransB(V,T,VT);
+
+        blockV.reshape(N,width,blockLength,false);
+        blockY.reshape(N,width,blockLength,false);
+        blockVT.reshape(N,width,blockLength,false);
+        System.arraycopy(V.data,0,blockV.data,0,N*width);
+        System.arraycopy(Y.data,0,blockY.data,0,N*width);
+        System.arraycopy(VT.data,0,blockVT.data,0,N*width);
+
+        blockVt.reshape(width,N,blockLength,false);
+        MatrixOps_DDRB.convertTranSrc(V,blockVt);
+        blockW.reshape(width,N,blockLength,false);
+    }
+
+    /**
+     * Applies the panel's reflectors to all the columns after the panel
+     *
+     * @param row0 First row with a non-zero element in V.  Must be at the start of a block.
+     * @param col0 First column after the panel.
+     */
+    protected void updateRemainder( int row0 , int col0 ) {
+        updateColumns(row0,col0,N);
+    }
+
+    /**
+     * Updates columns col0 to col1-1.  Both must be at the start of a block.<br>
+     * A = A - Y*V<sup>T</sup><br>
+     * A = A - V*T<sup>T</sup>*(V<sup>T</sup>*A)
+     */
+    protected void updateColumns( int row0 , int col0 , int col1 ) {
+        int width = blockV.numCols;
+
+        // multiply by Q on the right
+        MatrixMult_DDRB.multMinus(blockLength,
+                new DSubmatrixD1(blockY,0,N,0,width),
+                new DSubmatrixD1(blockVt,0,width,col0,col1),
+                new DSubmatrixD1(A,0,N,col0,col1));
+
+        // multiply by Q^T on the left.  Rows before row0 are not modified
+        DSubmatrixD1 subA = new DSubmatrixD1(A,row0,N,col0,col1);
+        DSubmatrixD1 subW = new DSubmatrixD1(blockW,0,width,col0,col1);
+        MatrixMult_DDRB.multTransA(blockLength,new DSubmatrixD1(blockV,row0,N,0,width),subA,subW);
+        MatrixMult_DDRB.multMinus(blockLength,new DSubmatrixD1(blockVT,row0,N,0,width),subW,subA);
+    }
+
+    /**
+     * The matrix which contains H and the reflectors
+     */
+    public DMatrixRBlock getQH() {
+        return A;
+    }
+
+    public double[] getGammas() {
+        return gammas;
+    }
+
+    @Override
+    public boolean inputModified() {
+        return true;
+    }
+}
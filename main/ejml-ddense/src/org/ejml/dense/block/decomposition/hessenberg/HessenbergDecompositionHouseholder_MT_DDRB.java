@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.dense.block.decomposition.hessenberg;
+
+import org.ejml.EjmlConcurrency;
+import org.ejml.EjmlParameters;
+import org.ejml.data.DMatrixRBlock;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link HessenbergDecompositionHouseholder_DDRB}.  The reflectors in each panel
+ * are applied to the remainder of the matrix one block column per thread.  While a panel is being reduced the
+ * matrix-vector multiplications with the remainder of the matrix are split between threads by blocks.
+ * </p>
+ *
+ * <p>
+ * The same operations are performed on each block as in the single threaded algorithm so the results are identical.
+ * If the matrix is too small then the single threaded algorithm is used,
+ * see {@link EjmlParameters#HESSENBERG_CONCURRENT_SWITCH}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class HessenbergDecompositionHouseholder_MT_DDRB extends HessenbergDecompositionHouseholder_DDRB {
+
+    // if true the remainder of the matrix is updated concurrently
+    private boolean concurrent;
+
+    @Override
+    public boolean decompose( DMatrixRBlock orig ) {
+        long ops = 10L*orig.numRows*orig.numRows*orig.numRows/3L;
+        concurrent = EjmlConcurrency.isUseConcurrent(ops,EjmlParameters.HESSENBERG_CONCURRENT_SWITCH);
+        return super.decompose(orig);
+    }
+
+    @Override
+    protected void reducePanel( int col0 , int width ) {
+        HessenbergHelper_DDRB.hessenbergPanel(A,col0,width,gammas,V,Y,T,u,y,w,concurrent);
+    }
+
+    @Override
+    protected void updateRemainder( int row0 , int col0 ) {
+        int numBlocks = (N-col0+blockLength-1)/blockLength;
+        if( !concurrent || numBlocks <= 1 ) {
+            super.updateRemainder(row0,col0);
+            return;
+        }
+
+        EjmlConcurrency.loopFor(0,numBlocks,idx->{
+            int c0 = col0 + idx*blockLength;
+            updateColumns(row0,c0,Math.min(N,c0+blockLength));
+        });
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.dense.block.decomposition.hessenberg;
+
+import org.ejml.data.DMatrixRBlock;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.block.decomposition.bidiagonal.BidiagonalHelper_DDRB;
+
+/**
+ * <p>
+ * Functions used by {@link HessenbergDecompositionHouseholder_DDRB} to reduce a panel of the matrix.
+ * </p>
+ *
+ * <p>
+ * The reflectors in a panel are accumulated in compact WY form, Q = I - V*T*V<sup>T</sup>, where V contains the
+ * reflectors and T is upper triangular.  Y = A*V*T is also computed, where A is the matrix before the panel
+ * was processed.  Only the panel is modified.  The rest of the matrix is updated later using
+ * A = (I - V*T<sup>T</sup>*V<sup>T</sup>)*(A - Y*V<sup>T</sup>).
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class HessenbergHelper_DDRB {
+
+    /**
+     * <p>
+     * Reduces columns col0 to col0+width-1 to upper Hessenberg form.  Reflectors are stored below the sub-diagonal,
+     * with an implicit 1 on the sub-diagonal, the same as in HessenbergSimilarDecomposition_DDRM.  No reflector is
+     * computed for the last two columns, but they are still updated.
+     * </p>
+     *
+     * @param A Matrix being decomposed.  Modified.
+     * @param col0 First column in the panel.  Must be at the start of a block.
+     * @param width Number of columns in the panel.  &le; blockLength
+     * @param gammas Storage for the gammas of each reflector.  Modified.
+     * @param V (Output) N by width matrix containing the reflectors.
+     * @param Y (Output) N by width matrix.  Y = A*V*T
+     * @param T (Output) width by width upper triangular matrix.
+     * @param u Work space.  Length N.
+     * @param y Work space.  Length N.
+     * @param w Work space.  Length width.
+     * @param concurrent If true then the matrix-vector multiplications are done concurrently.
+     */
+    public static void hessenbergPanel( final DMatrixRBlock A , final int col0 , final int width ,
+                                        final double gammas[] ,
+                                        final DMatrixRMaj V , final DMatrixRMaj Y , final DMatrixRMaj T ,
+                                        final double u[] , final double y[] , final double w[] ,
+                                        final boolean concurrent ) {
+        final int N = A.numRows;
+
+        V.reshape(N,width); V.zero();
+        Y.reshape(N,width); Y.zero();
+        T.reshape(width,width); T.zero();
+
+        final double dataV[] = V.data;
+        final double dataY[] = Y.data;
+        final double dataT[] = T.data;
+
+        for( int j = 0; j < width; j++ ) {
+            int col = col0 + j;
+
+            BidiagonalHelper_DDRB.extractCol(A,0,col,u);
+
+            if( j > 0 ) {
+                // apply the previous reflectors in the panel from the right. u = u - Y*V(col,:)^T
+                int indexV = col*width;
+                for( int i = 0; i < N; i++ ) {
+                    int indexY = i*width;
+                    double sum = 0;
+                    for( int l = 0; l < j; l++ ) {
+                        sum += dataY[indexY+l]*dataV[indexV+l];
+                    }
+                    u[i] -= sum;
+                }
+
+                // and from the left. u = u - V*T^T*V^T*u
+                multTransV(dataV,width,j,col0+1,N,u,w);
+                for( int l = j-1; l >= 0; l-- ) {
+                    double sum = 0;
+                    for( int p = 0; p <= l; p++ ) {
+                        sum += dataT[p*width+l]*w[p];
+                    }
+                    w[l] = sum;
+                }
+                for( int i = col0+1; i < N; i++ ) {
+                    int index = i*width;
+                    double sum = 0;
+                    for( int l = 0; l < j; l++ ) {
+                        sum += dataV[index+l]*w[l];
+                    }
+                    u[i] -= sum;
+                }
+            }
+
+            if( col >= N-2 ) {
+                BidiagonalHelper_DDRB.insertCol(A,0,col,u);
+                continue;
+            }
+
+            double gamma = BidiagonalHelper_DDRB.computeHouseholder(col+1,N,u);
+            gammas[col] = gamma;
+            BidiagonalHelper_DDRB.insertCol(A,0,col,u);
+
+            u[col+1] = 1;
+            for( int i = col+1; i < N; i++ ) {
+                dataV[i*width+j] = u[i];
+            }
+
+            // w = V^T*u using the previous reflectors
+            multTransV(dataV,width,j,col+1,N,u,w);
+
+            // Y(:,j) = gamma*(A*u - Y*w).  Columns after col have not been modified yet
+            BidiagonalHelper_DDRB.mult_vec(A,0,col+1,u,y,concurrent);
+            for( int i = 0; i < N; i++ ) {
+                int indexY = i*width;
+                double sum = 0;
+                for( int l = 0; l < j; l++ ) {
+                    sum += dataY[indexY+l]*w[l];
+                }
+                dataY[indexY+j] = gamma*(y[i] - sum);
+            }
+
+            // T(0:j,j) = -gamma*T*w
+            for( int l = 0; l < j; l++ ) {
+                double sum = 0;
+                for( int p = l; p < j; p++ ) {
+                    sum += dataT[l*width+p]*w[p];
+                }
+                dataT[l*width+j] = -gamma*sum;
+            }
+            dataT[j*width+j] = gamma;
+        }
+    }
+
+    /**
+     * w(0:j) = V(row0:row1,0:j)<sup>T</sup>*u(row0:row1)
+     */
+    private static void multTransV( double dataV[] , int width , int j , int row0 , int row1 ,
+                                    double u[] , double w[] ) {
+        for( int l = 0; l < j; l++ )
+            w[l] = 0;
+        for( int i = row0; i < row1; i++ ) {
+            int index = i*width;
+            double val = u[i];
+            for( int l = 0; l < j; l++ ) {
+                w[l] += dataV[index+l]*val;
+            }
+        }
+    }
+}
@@ -0,0 +1,299 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.dense.block.decomposition.lu;
+
+import org.ejml.data.DMatrixRBlock;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DSubmatrixD1;
+import org.ejml.dense.block.MatrixMult_DDRB;
+import org.ejml.interfaces.decomposition.DecompositionInterface;
+
+
+/**
+ * <p>
+ * Right looking block LU decomposition with partial pivoting for block matrices, P*A = L*U.  For each block column
+ * the following steps are performed:
+ * </p>
+ *
+ * <ol>
+ * <li>The block column is factored with partial pivoting using an unblocked algorithm.</li>
+ * <li>The row swaps are applied to the rest of the matrix.</li>
+ * <li>The block row to the right is solved for, U<sub>12</sub> = L<sub>11</sub><sup>-1</sup>A<sub>12</sub></li>
+ * <li>The lower right submatrix is updated, A<sub>22</sub> = A<sub>22</sub> - L<sub>21</sub>U<sub>12</sub></li>
+ * </ol>
+ *
+ * <p>
+ * Almost all the floating point operations are in the last step, which is a matrix multiplication.  L and U are
+ * stored in the input matrix using the same format as LUDecompositionBase_DDRM, with row swaps in 'indx' and the
+ * row permutation in 'pivot'.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class LUDecompositionBlock_DDRB implements DecompositionInterface<DMatrixRBlock> {
+
+    // matrix which is being decomposed
+    protected DMatrixRBlock A;
+    protected int blockLength;
+
+    // shape of the matrix
+    protected int m,n;
+
+    // row which was swapped with each row
+    protected int indx[] = new int[1];
+    // row permutation
+    protected int pivot[] = new int[1];
+    // sign of the permutation
+    protected double pivsign;
+
+    // row major copy of the block column which is being factored
+    protected DMatrixRMaj panel = new DMatrixRMaj(1,1);
+
+    @Override
+    public boolean decompose( DMatrixRBlock orig ) {
+        init(orig);
+
+        int min = Math.min(m,n);
+        for( int k = 0; k < min; k += blockLength ) {
+            int width = Math.min(blockLength,n-k);
+
+            factorPanel(k,width);
+
+            // apply the row swaps to columns before the panel
+            swapRows(k,k+Math.min(width,m-k),0,k);
+
+            int next = k + width;
+            if( next < n )
+                updateRemainder(k,next);
+        }
+
+        return true;
+    }
+
+    protected void init( DMatrixRBlock orig ) {
+        this.A = orig;
+        this.blockLength = orig.blockLength;
+        this.m = orig.numRows;
+        this.n = orig.numCols;
+
+        int max = Math.max(m,n);
+        if( pivot.length < max ) {
+            indx = new int[max];
+            pivot = new int[max];
+        }
+        for( int i = 0; i < m; i++ ) {
+            pivot[i] = i;
+        }
+        pivsign = 1;
+    }
+
+    /**
+     * Factors the block column starting at (col0,col0) using partial pivoting.  Row swaps are only applied
+     * inside the block column.
+     */
+    protected void factorPanel( int col0 , int width ) {
+        final int rows = m - col0;
+        panel.reshape(rows,width);
+
+        // stacked on top of each other the blocks in a block column have the same layout as a row major matrix
+        copyPanel(col0,width,true);
+
+        final double d[] = panel.data;
+        final int numPivots = Math.min(width,rows);
+
+        for( int j = 0; j < numPivots; j++ ) {
+            int indexJ = j*width;
+
+            // find the pivot and swap rows if necessary
+            int p = j;
+            double max = Math.abs(d[indexJ+j]);
+            for( int i = j+1; i < rows; i++ ) {
+                double v = Math.abs(d[i*width+j]);
+                if( v > max ) {
+                    p = i;
+                    max = v;
+                }
+            }
+
+            if( p != j ) {
+                int indexP = p*width;
+                for( int c = 0; c < width; c++ ) {
+                    double t = d[indexP+c];
+                    d[indexP+c] = d[indexJ+c];
+                    d[indexJ+c] = t;
+                }
+                int k = pivot[col0+p]; pivot[col0+p] = pivot[col0+j]; pivot[col0+j] = k;
+                pivsign = -pivsign;
+            }
+            indx[col0+j] = col0+p;
+
+            // compute multipliers
+            double ujj = d[indexJ+j];
+            if( ujj != 0 ) {
+                for( int i = j+1; i < rows; i++ ) {
+                    d[i*width+j] /= ujj;
+                }
+            }
+
+            // update the rest of the panel
+            for( int i = j+1; i < rows; i++ ) {
+                int indexI = i*width;
+                double lij = d[indexI+j];
+                if( lij == 0 )
+                    continue;
+                for( int c = j+1; c < width; c++ ) {
+                    d[indexI+c] -= lij*d[indexJ+c];
+                }
+            }
+        }
+
+        copyPanel(col0,width,false);
+    }
+
+    /**
+     * Copies the block column between the block matrix and the row major panel
+     */
+    private void copyPanel( int col0 , int width , boolean toPanel ) {
+        for( int blockRow = col0; blockRow < m; blockRow += blockLength ) {
+            int height = Math.min(blockLength,m-blockRow);
+            int indexA = blockRow*n + col0*height;
+            int indexP = (blockRow-col0)*width;
+            if( toPanel )
+                System.arraycopy(A.data,indexA,panel.data,indexP,height*width);
+            else
+                System.arraycopy(panel.data,indexP,A.data,indexA,height*width);
+        }
+    }
+
+    /**
+     * Updates all the columns after the block column starting at (row0,row0)
+     */
+    protected void updateRemainder( int row0 , int col0 ) {
+        updateColumns(row0,col0,n);
+    }
+
+    /**
+     * Applies the row swaps from the block column starting at (row0,row0) to columns col0 to col1-1, solves for U,
+     * and then updates the lower submatrix.  The block column must be one block wide and col0 and col1 must be
+     * at the start of a block.
+     */
+    protected void updateColumns( int row0 , int col0 , int col1 ) {
+        int row1 = Math.min(m,row0+blockLength);
+
+        swapRows(row0,row1,col0,col1);
+        solveL11(row0,col0,col1);
+
+        if( row1 < m ) {
+            MatrixMult_DDRB.multMinus(blockLength,
+                    new DSubmatrixD1(A,row1,m,row0,row0+blockLength),
+                    new DSubmatrixD1(A,row0,row1,col0,col1),
+                    new DSubmatrixD1(A,row1,m,col0,col1));
+        }
+    }
+
+    /**
+     * Swaps rows row0 to row1-1 with the rows in indx.  Only columns col0 to col1-1 are modified.
+     */
+    protected void swapRows( int row0 , int row1 , int col0 , int col1 ) {
+        for( int i = row0; i < row1; i++ ) {
+            int p = indx[i];
+            if( p != i )
+                swapRow(i,p,col0,col1);
+        }
+    }
+
+    private void swapRow( int rowA , int rowB , int col0 , int col1 ) {
+        final double data[] = A.data;
+        int blockRowA = rowA - rowA % blockLength;
+        int blockRowB = rowB - rowB % blockLength;
+        int heightA = Math.min(blockLength,m-blockRowA);
+        int heightB = Math.min(blockLength,m-blockRowB);
+
+        for( int blockCol = col0 - col0 % blockLength; blockCol < col1; blockCol += blockLength ) {
+            int width = Math.min(blockLength,n-blockCol);
+            int c0 = Math.max(col0,blockCol)-blockCol;
+            int c1 = Math.min(col1,blockCol+width)-blockCol;
+            int indexA = blockRowA*n + blockCol*heightA + (rowA-blockRowA)*width;
+            int indexB = blockRowB*n + blockCol*heightB + (rowB-blockRowB)*width;
+
+            for( int c = c0; c < c1; c++ ) {
+                double t = data[indexA+c];
+                data[indexA+c] = data[indexB+c];
+                data[indexB+c] = t;
+            }
+        }
+    }
+
+    /**
+     * Solves for U<sub>12</sub> in columns col0 to col1-1 of the block row starting at row0.
+     * U<sub>12</sub> = L<sub>11</sub><sup>-1</sup>A<sub>12</sub>, where L<sub>11</sub> is lower triangular
+     * with ones along its diagonal.
+     */
+    protected void solveL11( int row0 , int col0 , int col1 ) {
+        final double data[] = A.data;
+        int height = Math.min(blockLength,m-row0);
+        int indexL = row0*n + row0*height;
+
+        for( int blockCol = col0; blockCol < col1; blockCol += blockLength ) {
+            int width = Math.min(blockLength,n-blockCol);
+            int indexB = row0*n + blockCol*height;
+
+            for( int i = 1; i < height; i++ ) {
+                int indexBi = indexB + i*width;
+                for( int l = 0; l < i; l++ ) {
+                    double valL = data[indexL + i*blockLength + l];
+                    if( valL == 0 )
+                        continue;
+                    int indexBl = indexB + l*width;
+                    for( int c = 0; c < width; c++ ) {
+                        data[indexBi+c] -= valL*data[indexBl+c];
+                    }
+                }
+            }
+        }
+    }
+
+    public DMatrixRBlock getLU() {
+        return A;
+    }
+
+    /**
+     * Row which was swapped with each row.  Swaps are applied in order.
+     */
+    public int[] getIndx() {
+        return indx;
+    }
+
+    public int[] getPivot() {
+        return pivot;
+    }
+
+    /**
+     * Sign of the row permutation.  Either 1 or -1
+     */
+    public double getPivotSign() {
+        return pivsign;
+    }
+
+    @Override
+    public boolean inputModified() {
+        return true;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.dense.block.decomposition.lu;
+
+import org.ejml.EjmlConcurrency;
+import org.ejml.EjmlParameters;
+import org.ejml.data.DMatrixRBlock;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link LUDecompositionBlock_DDRB}.  After each block column has been factored the
+ * row swaps, triangular solve, and matrix multiplication are done one block column per thread.
+ * </p>
+ *
+ * <p>
+ * The same operations are performed on each block as in the single threaded algorithm so the results are identical.
+ * If the matrix is too small then the single threaded algorithm is used,
+ * see {@link EjmlParameters#LU_CONCURRENT_SWITCH}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class LUDecompositionBlock_MT_DDRB extends LUDecompositionBlock_DDRB {
+
+    // if true the remainder of the matrix is updated concurrently
+    private boolean concurrent;
+
+    @Override
+    public boolean decompose( DMatrixRBlock orig ) {
+        long ops = 2L*orig.numRows*orig.numCols*Math.min(orig.numRows,orig.numCols)/3L;
+        concurrent = EjmlConcurrency.isUseConcurrent(ops,EjmlParameters.LU_CONCURRENT_SWITCH);
+        return super.decompose(orig);
+    }
+
+    @Override
+    protected void updateRemainder( int row0 , int col0 ) {
+        int numBlocks = (n-col0+blockLength-1)/blockLength;
+        if( !concurrent || numBlocks <= 1 ) {
+            super.updateRemainder(row0,col0);
+            return;
+        }
+
+        EjmlConcurrency.loopFor(0,numBlocks,idx->{
+            int c0 = col0 + idx*blockLength;
+            updateColumns(row0,c0,Math.min(n,c0+blockLength));
+        });
+    }
+}
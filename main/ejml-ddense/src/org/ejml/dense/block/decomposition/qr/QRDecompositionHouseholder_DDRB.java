@@ -61,27 +61,27 @@ public class QRDecompositionHouseholder_DDRB
     // the input matrix which is overwritten with the decomposition.
     // Reflectors are stored in the lower triangular portion. The R matrix is stored
     // in the upper triangle portion
-    private DMatrixRBlock dataA;
+    protected DMatrixRBlock dataA;
 
     // where the computed W matrix is stored
-    private DMatrixRBlock dataW = new DMatrixRBlock(1,1);
+    protected DMatrixRBlock dataW = new DMatrixRBlock(1,1);
     // Matrix used to store an intermediate calculation
-    private DMatrixRBlock dataWTA = new DMatrixRBlock(1,1);
+    protected DMatrixRBlock dataWTA = new DMatrixRBlock(1,1);
 
     // size of the inner matrix block.
-    private int blockLength;
+    protected int blockLength;
     
     // The submatrices which are being manipulated in each iteration
-    private DSubmatrixD1 A = new DSubmatrixD1();
-    private DSubmatrixD1 Y = new DSubmatrixD1();
-    private DSubmatrixD1 W = new DSubmatrixD1(dataW);
-    private DSubmatrixD1 WTA = new DSubmatrixD1(dataWTA);
-    private double temp[] = new double[1];
+    protected DSubmatrixD1 A = new DSubmatrixD1();
+    protected DSubmatrixD1 Y = new DSubmatrixD1();
+    protected DSubmatrixD1 W = new DSubmatrixD1(dataW);
+    protected DSubmatrixD1 WTA = new DSubmatrixD1(dataWTA);
+    protected double temp[] = new double[1];
     // stores the computed gammas
-    private double gammas[] = new double[1];
+    protected double gammas[] = new double[1];
 
     // save the W matrix the first time it is computed in the decomposition
-    private boolean saveW = false;
+    protected boolean saveW = false;
 
     /**
      * This is the input matrix after it has been overwritten with the decomposition.
@@ -323,7 +323,7 @@ public class QRDecompositionHouseholder_DDRB
      *
      * @param orig
      */
-    private void setup(DMatrixRBlock orig) {
+    protected void setup(DMatrixRBlock orig) {
         blockLength = orig.blockLength;
         dataW.blockLength = blockLength;
         dataWTA.blockLength = blockLength;
@@ -382,7 +382,7 @@ public class QRDecompositionHouseholder_DDRB
     /**
      * Sets the submatrix of W up give Y is already configured and if it is being cached or not.
      */
-    private void setW() {
+    protected void setW() {
         if( saveW ) {
             W.col0 = Y.col0;
             W.col1 = Y.col1;
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.block.decomposition.qr;
+
+import org.ejml.EjmlConcurrency;
+import org.ejml.EjmlParameters;
+import org.ejml.data.DMatrixRBlock;
+import org.ejml.data.DSubmatrixD1;
+import org.ejml.dense.block.MatrixMult_DDRB;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link QRDecompositionHouseholder_DDRB}.  Most of the work is in updating the
+ * remainder of the matrix with the reflectors from each block column, A = A + Y (W<sup>T</sup>A).  Each block
+ * column of A is updated independently, so the block columns are split between threads.
+ * </p>
+ *
+ * <p>
+ * Look ahead is used to reduce the amount of time spent in the single threaded block column decomposition.
+ * The block column which is to be decomposed next is updated first.  It's then decomposed by one thread while
+ * the other threads update the rest of the matrix.
+ * </p>
+ *
+ * <p>
+ * The same operations are performed on each block as in the single threaded algorithm so the results are identical.
+ * If the matrix is too small then the single threaded algorithm is used,
+ * see {@link EjmlParameters#QR_CONCURRENT_SWITCH}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class QRDecompositionHouseholder_MT_DDRB extends QRDecompositionHouseholder_DDRB {
+
+    // set to true if decomposing the next block column failed
+    private volatile boolean failed;
+
+    @Override
+    public boolean decompose(DMatrixRBlock orig) {
+        long m = Math.min(orig.numCols,orig.numRows);
+        long ops = 2L*orig.numRows*orig.numCols*m;
+        if( orig.numCols <= orig.blockLength ||
+                !EjmlConcurrency.isUseConcurrent(ops,EjmlParameters.QR_CONCURRENT_SWITCH) )
+            return super.decompose(orig);
+
+        setup(orig);
+
+        final int numCols = orig.numCols;
+        final int minLength = (int)m;
+
+        // decompose the first block column
+        Y.col0 = 0;
+        Y.col1 = Math.min( numCols , blockLength );
+        Y.row0 = 0;
+        if( !BlockHouseHolder_DDRB.decomposeQR_block_col(blockLength,Y,gammas) )
+            return false;
+
+        for( int j = 0; j < minLength; j += blockLength ) {
+            Y.col0 = j;
+            Y.col1 = Math.min( numCols , Y.col0 + blockLength );
+            Y.row0 = j;
+
+            setW();
+
+            final int col0 = Y.col1;
+            if( col0 >= numCols ) {
+                if( saveW )
+                    BlockHouseHolder_DDRB.computeW_Column(blockLength,Y,W,temp, gammas,Y.col0);
+                break;
+            }
+
+            BlockHouseHolder_DDRB.computeW_Column(blockLength,Y,W,temp, gammas,Y.col0);
+            WTA.original.reshape(W.col1-W.col0,numCols-col0,false);
+
+            // Update the block column which is decomposed next first
+            final boolean lookAhead = col0 < minLength;
+            final int rest0 = lookAhead ? Math.min(numCols,col0+blockLength) : col0;
+            if( lookAhead )
+                update(col0,rest0);
+
+            // Decompose the next block column while the other threads update the rest of the matrix
+            final int numBlocks = (numCols-rest0+blockLength-1)/blockLength;
+            failed = false;
+            EjmlConcurrency.loopFor(lookAhead ? -1 : 0,numBlocks,idx->{
+                if( idx < 0 ) {
+                    DSubmatrixD1 next = new DSubmatrixD1(dataA,col0,dataA.numRows,col0,rest0);
+                    if( !BlockHouseHolder_DDRB.decomposeQR_block_col(blockLength,next,gammas) )
+                        failed = true;
+                } else {
+                    int c0 = rest0 + idx*blockLength;
+                    update(c0,Math.min(numCols,c0+blockLength));
+                }
+            });
+
+            if( failed )
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Applies the reflectors in the current block column to columns c0 to c1-1 of the matrix.
+     * A = A + Y (W<sup>T</sup>A)
+     */
+    private void update( int c0 , int c1 ) {
+        int offset = Y.col1;
+        DSubmatrixD1 subA = new DSubmatrixD1(dataA,Y.row0,Y.row1,c0,c1);
+        DSubmatrixD1 subWTA = new DSubmatrixD1(dataWTA,0,W.col1-W.col0,c0-offset,c1-offset);
+
+        MatrixMult_DDRB.multTransA(blockLength,W,subA,subWTA);
+        BlockHouseHolder_DDRB.multAdd_zeros(blockLength,Y,subWTA,subA);
+    }
+}
@@ -23,6 +23,7 @@ import org.ejml.data.DSubmatrixD1;
 import org.ejml.dense.block.MatrixOps_DDRB;
 import org.ejml.dense.block.TriangularSolver_DDRB;
 import org.ejml.dense.block.decomposition.chol.CholeskyOuterForm_DDRB;
+import org.ejml.dense.block.decomposition.chol.CholeskyOuterForm_MT_DDRB;
 import org.ejml.dense.row.SpecializedOps_DDRM;
 import org.ejml.interfaces.decomposition.CholeskyDecomposition_F64;
 import org.ejml.interfaces.linsol.LinearSolverDense;
@@ -42,7 +43,8 @@ import org.ejml.interfaces.linsol.LinearSolverDense;
  * </p>
  *
  * <p>
- * It is also possible to use the upper triangular cholesky decomposition.
+ * It is also possible to use the upper triangular cholesky decomposition.  Large matrices are decomposed
+ * concurrently, see {@link CholeskyOuterForm_MT_DDRB}.
  * </p>
  *
  * @author Peter Abeles
@@ -50,7 +52,7 @@ import org.ejml.interfaces.linsol.LinearSolverDense;
 public class CholeskyOuterSolver_DDRB implements LinearSolverDense<DMatrixRBlock> {
 
     // cholesky decomposition
-    private CholeskyOuterForm_DDRB decomposer = new CholeskyOuterForm_DDRB(true);
+    private CholeskyOuterForm_DDRB decomposer = new CholeskyOuterForm_MT_DDRB(true);
 
     // size of a block take from input matrix
     private int blockLength;
@@ -23,6 +23,7 @@ import org.ejml.data.DSubmatrixD1;
 import org.ejml.dense.block.MatrixOps_DDRB;
 import org.ejml.dense.block.TriangularSolver_DDRB;
 import org.ejml.dense.block.decomposition.qr.QRDecompositionHouseholder_DDRB;
+import org.ejml.dense.block.decomposition.qr.QRDecompositionHouseholder_MT_DDRB;
 import org.ejml.dense.row.SpecializedOps_DDRM;
 import org.ejml.interfaces.decomposition.QRDecomposition;
 import org.ejml.interfaces.linsol.LinearSolverDense;
@@ -49,7 +50,7 @@ import org.ejml.interfaces.linsol.LinearSolverDense;
 public class QrHouseHolderSolver_DDRB implements LinearSolverDense<DMatrixRBlock> {
 
     // QR decomposition algorithm
-    protected QRDecompositionHouseholder_DDRB decomposer = new QRDecompositionHouseholder_DDRB();
+    protected QRDecompositionHouseholder_DDRB decomposer = new QRDecompositionHouseholder_MT_DDRB();
 
     // the input matrix which has been decomposed
     protected DMatrixRBlock QR;
@@ -0,0 +1,396 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.fixed;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrix3x3Batch;
+
+/**
+ * <p>Common matrix operations which are applied to every matrix in a batch of 3 x 3 matrices.
+ * The output batch is resized to match the size of the input batch.</p>
+ * <p>DO NOT MODIFY.  Automatically generated code created by GenerateCommonOpsBatch_DDF</p>
+ *
+ * @see CommonOps_DDF3
+ * @author Peter Abeles
+ */
+public class CommonOpsBatch_DDF3 {
+    /**
+     * Number of matrices processed at once by multiplication.  Each output row is computed for the
+     * entire block before moving on to the next, which keeps the number of arrays accessed in each loop small
+     * while the block stays in the cache.
+     */
+    public static int BLOCK_LENGTH = 512;
+
+    /**
+     * <p>Performs the following operation on each matrix:<br>
+     * <br>
+     * c = a + b <br>
+     * c<sub>ij</sub> = a<sub>ij</sub> + b<sub>ij</sub> <br>
+     * </p>
+     *
+     * <p>
+     * Batch C can be the same instance as batch A and/or B.
+     * </p>
+     *
+     * @param a A batch. Not modified.
+     * @param b A batch. Not modified.
+     * @param c The results. Modified.
+     */
+    public static void add( DMatrix3x3Batch a , DMatrix3x3Batch b , DMatrix3x3Batch c ) {
+        checkSize(a,b);
+        c.reshape(a.size);
+        add(a.a11,b.a11,c.a11,a.size);
+        add(a.a12,b.a12,c.a12,a.size);
+        add(a.a13,b.a13,c.a13,a.size);
+        add(a.a21,b.a21,c.a21,a.size);
+        add(a.a22,b.a22,c.a22,a.size);
+        add(a.a23,b.a23,c.a23,a.size);
+        add(a.a31,b.a31,c.a31,a.size);
+        add(a.a32,b.a32,c.a32,a.size);
+        add(a.a33,b.a33,c.a33,a.size);
+    }
+
+    /**
+     * <p>Performs the following operation on each matrix:<br>
+     * <br>
+     * c = a - b <br>
+     * c<sub>ij</sub> = a<sub>ij</sub> - b<sub>ij</sub> <br>
+     * </p>
+     *
+     * <p>
+     * Batch C can be the same instance as batch A and/or B.
+     * </p>
+     *
+     * @param a A batch. Not modified.
+     * @param b A batch. Not modified.
+     * @param c The results. Modified.
+     */
+    public static void subtract( DMatrix3x3Batch a , DMatrix3x3Batch b , DMatrix3x3Batch c ) {
+        checkSize(a,b);
+        c.reshape(a.size);
+        subtract(a.a11,b.a11,c.a11,a.size);
+        subtract(a.a12,b.a12,c.a12,a.size);
+        subtract(a.a13,b.a13,c.a13,a.size);
+        subtract(a.a21,b.a21,c.a21,a.size);
+        subtract(a.a22,b.a22,c.a22,a.size);
+        subtract(a.a23,b.a23,c.a23,a.size);
+        subtract(a.a31,b.a31,c.a31,a.size);
+        subtract(a.a32,b.a32,c.a32,a.size);
+        subtract(a.a33,b.a33,c.a33,a.size);
+    }
+
+    /**
+     * <p>Performs the following operation on each matrix:<br>
+     * <br>
+     * b = alpha * a <br>
+     * b<sub>ij</sub> = alpha * a<sub>ij</sub> <br>
+     * </p>
+     *
+     * @param alpha The scaling factor.
+     * @param a A batch. Not modified.
+     * @param b The results. Can be the same instance as a. Modified.
+     */
+    public static void scale( double alpha , DMatrix3x3Batch a , DMatrix3x3Batch b ) {
+        b.reshape(a.size);
+        scale(alpha,a.a11,b.a11,a.size);
+        scale(alpha,a.a12,b.a12,a.size);
+        scale(alpha,a.a13,b.a13,a.size);
+        scale(alpha,a.a21,b.a21,a.size);
+        scale(alpha,a.a22,b.a22,a.size);
+        scale(alpha,a.a23,b.a23,a.size);
+        scale(alpha,a.a31,b.a31,a.size);
+        scale(alpha,a.a32,b.a32,a.size);
+        scale(alpha,a.a33,b.a33,a.size);
+    }
+
+    /**
+     * <p>Performs the following operation on each matrix:<br>
+     * <br>
+     * c = a * b <br>
+     * <br>
+     * c<sub>ij</sub> = &sum;<sub>k=1:n</sub> { a<sub>ik</sub> * b<sub>kj</sub>}
+     * </p>
+     *
+     * @param a The left batch in the multiplication operation. Not modified.
+     * @param b The right batch in the multiplication operation. Not modified.
+     * @param c Where the results of the operation are stored. Can't be a or b. Modified.
+     */
+    public static void mult( DMatrix3x3Batch a , DMatrix3x3Batch b , DMatrix3x3Batch c ) {
+        checkSize(a,b);
+        c.reshape(a.size);
+        final int size = a.size;
+        for (int i0 = 0; i0 < size; i0 += BLOCK_LENGTH) {
+            final int i1 = i0 + Math.min(BLOCK_LENGTH,size-i0);
+            for (int i = i0; i < i1; i++) {
+                double a1 = a.a11[i]; double a2 = a.a12[i]; double a3 = a.a13[i];
+                c.a11[i] = a1*b.a11[i] + a2*b.a21[i] + a3*b.a31[i];
+                c.a12[i] = a1*b.a12[i] + a2*b.a22[i] + a3*b.a32[i];
+                c.a13[i] = a1*b.a13[i] + a2*b.a23[i] + a3*b.a33[i];
+            }
+            for (int i = i0; i < i1; i++) {
+                double a1 = a.a21[i]; double a2 = a.a22[i]; double a3 = a.a23[i];
+                c.a21[i] = a1*b.a11[i] + a2*b.a21[i] + a3*b.a31[i];
+                c.a22[i] = a1*b.a12[i] + a2*b.a22[i] + a3*b.a32[i];
+                c.a23[i] = a1*b.a13[i] + a2*b.a23[i] + a3*b.a33[i];
+            }
+            for (int i = i0; i < i1; i++) {
+                double a1 = a.a31[i]; double a2 = a.a32[i]; double a3 = a.a33[i];
+                c.a31[i] = a1*b.a11[i] + a2*b.a21[i] + a3*b.a31[i];
+                c.a32[i] = a1*b.a12[i] + a2*b.a22[i] + a3*b.a32[i];
+                c.a33[i] = a1*b.a13[i] + a2*b.a23[i] + a3*b.a33[i];
+            }
+        }
+    }
+
+    /**
+     * <p>Performs the following operation on each matrix:<br>
+     * <br>
+     * c = a<sup>T</sup> * b <br>
+     * <br>
+     * c<sub>ij</sub> = &sum;<sub>k=1:n</sub> { a<sub>ki</sub> * b<sub>kj</sub>}
+     * </p>
+     *
+     * @param a The left batch in the multiplication operation. Not modified.
+     * @param b The right batch in the multiplication operation. Not modified.
+     * @param c Where the results of the operation are stored. Can't be a or b. Modified.
+     */
+    public static void multTransA( DMatrix3x3Batch a , DMatrix3x3Batch b , DMatrix3x3Batch c ) {
+        checkSize(a,b);
+        c.reshape(a.size);
+        final int size = a.size;
+        for (int i0 = 0; i0 < size; i0 += BLOCK_LENGTH) {
+            final int i1 = i0 + Math.min(BLOCK_LENGTH,size-i0);
+            for (int i = i0; i < i1; i++) {
+                double a1 = a.a11[i]; double a2 = a.a21[i]; double a3 = a.a31[i];
+                c.a11[i] = a1*b.a11[i] + a2*b.a21[i] + a3*b.a31[i];
+                c.a12[i] = a1*b.a12[i] + a2*b.a22[i] + a3*b.a32[i];
+                c.a13[i] = a1*b.a13[i] + a2*b.a23[i] + a3*b.a33[i];
+            }
+            for (int i = i0; i < i1; i++) {
+                double a1 = a.a12[i]; double a2 = a.a22[i]; double a3 = a.a32[i];
+                c.a21[i] = a1*b.a11[i] + a2*b.a21[i] + a3*b.a31[i];
+                c.a22[i] = a1*b.a12[i] + a2*b.a22[i] + a3*b.a32[i];
+                c.a23[i] = a1*b.a13[i] + a2*b.a23[i] + a3*b.a33[i];
+            }
+            for (int i = i0; i < i1; i++) {
+                double a1 = a.a13[i]; double a2 = a.a23[i]; double a3 = a.a33[i];
+                c.a31[i] = a1*b.a11[i] + a2*b.a21[i] + a3*b.a31[i];
+                c.a32[i] = a1*b.a12[i] + a2*b.a22[i] + a3*b.a32[i];
+                c.a33[i] = a1*b.a13[i] + a2*b.a23[i] + a3*b.a33[i];
+            }
+        }
+    }
+
+    /**
+     * <p>Performs the following operation on each matrix:<br>
+     * <br>
+     * c = a * b<sup>T</sup> <br>
+     * <br>
+     * c<sub>ij</sub> = &sum;<sub>k=1:n</sub> { a<sub>ik</sub> * b<sub>jk</sub>}
+     * </p>
+     *
+     * @param a The left batch in the multiplication operation. Not modified.
+     * @param b The right batch in the multiplication operation. Not modified.
+     * @param c Where the results of the operation are stored. Can't be a or b. Modified.
+     */
+    public static void multTransB( DMatrix3x3Batch a , DMatrix3x3Batch b , DMatrix3x3Batch c ) {
+        checkSize(a,b);
+        c.reshape(a.size);
+        final int size = a.size;
+        for (int i0 = 0; i0 < size; i0 += BLOCK_LENGTH) {
+            final int i1 = i0 + Math.min(BLOCK_LENGTH,size-i0);
+            for (int i = i0; i < i1; i++) {
+                double a1 = a.a11[i]; double a2 = a.a12[i]; double a3 = a.a13[i];
+                c.a11[i] = a1*b.a11[i] + a2*b.a12[i] + a3*b.a13[i];
+                c.a12[i] = a1*b.a21[i] + a2*b.a22[i] + a3*b.a23[i];
+                c.a13[i] = a1*b.a31[i] + a2*b.a32[i] + a3*b.a33[i];
+            }
+            for (int i = i0; i < i1; i++) {
+                double a1 = a.a21[i]; double a2 = a.a22[i]; double a3 = a.a23[i];
+                c.a21[i] = a1*b.a11[i] + a2*b.a12[i] + a3*b.a13[i];
+                c.a22[i] = a1*b.a21[i] + a2*b.a22[i] + a3*b.a23[i];
+                c.a23[i] = a1*b.a31[i] + a2*b.a32[i] + a3*b.a33[i];
+            }
+            for (int i = i0; i < i1; i++) {
+                double a1 = a.a31[i]; double a2 = a.a32[i]; double a3 = a.a33[i];
+                c.a31[i] = a1*b.a11[i] + a2*b.a12[i] + a3*b.a13[i];
+                c.a32[i] = a1*b.a21[i] + a2*b.a22[i] + a3*b.a23[i];
+                c.a33[i] = a1*b.a31[i] + a2*b.a32[i] + a3*b.a33[i];
+            }
+        }
+    }
+
+    /**
+     * Inverts each matrix in 'a' using minor matrices and stores the results in 'inv'.  Scaling is applied
+     * to improve stability against overflow and underflow.
+     *
+     * WARNING: Potentially less stable than using LU decomposition.
+     *
+     * @param a Input batch. Not modified.
+     * @param inv Inverted output batch. Can be the same instance as a. Modified.
+     * @return Number of matrices which could not be inverted.  Their inverse will contain
+     * uncountable numbers.  Not always reliable.
+     */
+    public static int invert( DMatrix3x3Batch a , DMatrix3x3Batch inv ) {
+        inv.reshape(a.size);
+        final int size = a.size;
+        int failed = 0;
+        for (int i = 0; i < size; i++) {
+            double scale = Math.abs(a.a11[i]);
+            scale = Math.max(scale,Math.abs(a.a12[i]));
+            scale = Math.max(scale,Math.abs(a.a13[i]));
+            scale = Math.max(scale,Math.abs(a.a21[i]));
+            scale = Math.max(scale,Math.abs(a.a22[i]));
+            scale = Math.max(scale,Math.abs(a.a23[i]));
+            scale = Math.max(scale,Math.abs(a.a31[i]));
+            scale = Math.max(scale,Math.abs(a.a32[i]));
+            scale = Math.max(scale,Math.abs(a.a33[i]));
+            scale = 1.0/scale;
+
+            double a11 = a.a11[i]*scale;
+            double a12 = a.a12[i]*scale;
+            double a13 = a.a13[i]*scale;
+            double a21 = a.a21[i]*scale;
+            double a22 = a.a22[i]*scale;
+            double a23 = a.a23[i]*scale;
+            double a31 = a.a31[i]*scale;
+            double a32 = a.a32[i]*scale;
+            double a33 = a.a33[i]*scale;
+
+            double m11 = a22*a33 - a23*a32;
+            double m12 = -( a21*a33 - a23*a31);
+            double m13 = a21*a32 - a22*a31;
+            double m21 = -( a12*a33 - a13*a32);
+            double m22 = a11*a33 - a13*a31;
+            double m23 = -( a11*a32 - a12*a31);
+            double m31 = a12*a23 - a13*a22;
+            double m32 = -( a11*a23 - a13*a21);
+            double m33 = a11*a22 - a12*a21;
+
+            double det = (a11*m11 + a12*m12 + a13*m13)/scale;
+
+            inv.a11[i] = m11/det;
+            inv.a12[i] = m21/det;
+            inv.a13[i] = m31/det;
+            inv.a21[i] = m12/det;
+            inv.a22[i] = m22/det;
+            inv.a23[i] = m32/det;
+            inv.a31[i] = m13/det;
+            inv.a32[i] = m23/det;
+            inv.a33[i] = m33/det;
+
+            if( UtilEjml.isUncountable(det) )
+                failed++;
+        }
+        return failed;
+    }
+
+    /**
+     * Computes the determinant of each matrix using minor matrices.<br>
+     * WARNING: Potentially less stable than using LU decomposition.
+     *
+     * @param mat Input batch.  Not modified.
+     * @param output (Optional) Storage for the determinants. If null or too small a new array is created.
+     * @return The determinant of each matrix.
+     */
+    public static double[] det( DMatrix3x3Batch mat , double[] output ) {
+        final int size = mat.size;
+        if( output == null || output.length < size )
+            output = new double[size];
+        for (int i = 0; i < size; i++) {
+            double a = mat.a11[i]*(mat.a22[i]*mat.a33[i] - mat.a23[i]*mat.a32[i]);
+            double b = mat.a12[i]*(mat.a21[i]*mat.a33[i] - mat.a23[i]*mat.a31[i]);
+            double c = mat.a13[i]*(mat.a21[i]*mat.a32[i] - mat.a31[i]*mat.a22[i]);
+
+            output[i] = a-b+c;
+        }
+        return output;
+    }
+
+    /**
+     * Performs a lower Cholesky decomposition of each matrix in 'A' and stores result in A.
+     *
+     * @param A (Input) SPD Matrices. (Output) lower cholesky.
+     * @return Number of matrices where the decomposition failed.  Not always reliable.
+     */
+    public static int cholL( DMatrix3x3Batch A ) {
+        final int size = A.size;
+        int failed = 0;
+        for (int i = 0; i < size; i++) {
+            A.a11[i] = Math.sqrt(A.a11[i]);
+            A.a12[i] = 0;
+            A.a13[i] = 0;
+            A.a21[i] = (A.a21[i])/A.a11[i];
+            A.a22[i] = Math.sqrt(A.a22[i]-A.a21[i]*A.a21[i]);
+            A.a23[i] = 0;
+            A.a31[i] = (A.a31[i])/A.a11[i];
+            A.a32[i] = (A.a32[i]-A.a31[i]*A.a21[i])/A.a22[i];
+            A.a33[i] = Math.sqrt(A.a33[i]-A.a31[i]*A.a31[i]-A.a32[i]*A.a32[i]);
+            if( UtilEjml.isUncountable(A.a33[i]) )
+                failed++;
+        }
+        return failed;
+    }
+
+    /**
+     * <p>
+     * This computes the trace of each matrix:<br>
+     * <br>
+     * trace = &sum;<sub>i=1:n</sub> { a<sub>ii</sub> }
+     * </p>
+     *
+     * @param a Input batch.  Not modified.
+     * @param output (Optional) Storage for the traces. If null or too small a new array is created.
+     * @return The trace of each matrix.
+     */
+    public static double[] trace( DMatrix3x3Batch a , double[] output ) {
+        final int size = a.size;
+        if( output == null || output.length < size )
+            output = new double[size];
+        for (int i = 0; i < size; i++) {
+            output[i] = a.a11[i] + a.a22[i] + a.a33[i];
+        }
+        return output;
+    }
+
+    private static void add( double[] a , double[] b , double[] c , int size ) {
+        for (int i = 0; i < size; i++) {
+            c[i] = a[i] + b[i];
+        }
+    }
+
+    private static void subtract( double[] a , double[] b , double[] c , int size ) {
+        for (int i = 0; i < size; i++) {
+            c[i] = a[i] - b[i];
+        }
+    }
+
+    private static void scale( double alpha , double[] a , double[] b , int size ) {
+        for (int i = 0; i < size; i++) {
+            b[i] = alpha*a[i];
+        }
+    }
+
+    private static void checkSize( DMatrix3x3Batch a , DMatrix3x3Batch b ) {
+        if( a.size != b.size )
+            throw new MatrixDimensionException("Batches must have the same size. "+a.size+" "+b.size);
+    }
+}
+
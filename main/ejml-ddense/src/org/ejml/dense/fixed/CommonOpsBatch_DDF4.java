@@ -0,0 +1,503 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.fixed;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrix4x4Batch;
+
+/**
+ * <p>Common matrix operations which are applied to every matrix in a batch of 4 x 4 matrices.
+ * The output batch is resized to match the size of the input batch.</p>
+ * <p>DO NOT MODIFY.  Automatically generated code created by GenerateCommonOpsBatch_DDF</p>
+ *
+ * @see CommonOps_DDF4
+ * @author Peter Abeles
+ */
+public class CommonOpsBatch_DDF4 {
+    /**
+     * Number of matrices processed at once by multiplication.  Each output row is computed for the
+     * entire block before moving on to the next, which keeps the number of arrays accessed in each loop small
+     * while the block stays in the cache.
+     */
+    public static int BLOCK_LENGTH = 512;
+
+    /**
+     * <p>Performs the following operation on each matrix:<br>
+     * <br>
+     * c = a + b <br>
+     * c<sub>ij</sub> = a<sub>ij</sub> + b<sub>ij</sub> <br>
+     * </p>
+     *
+     * <p>
+     * Batch C can be the same instance as batch A and/or B.
+     * </p>
+     *
+     * @param a A batch. Not modified.
+     * @param b A batch. Not modified.
+     * @param c The results. Modified.
+     */
+    public static void add( DMatrix4x4Batch a , DMatrix4x4Batch b , DMatrix4x4Batch c ) {
+        checkSize(a,b);
+        c.reshape(a.size);
+        add(a.a11,b.a11,c.a11,a.size);
+        add(a.a12,b.a12,c.a12,a.size);
+        add(a.a13,b.a13,c.a13,a.size);
+        add(a.a14,b.a14,c.a14,a.size);
+        add(a.a21,b.a21,c.a21,a.size);
+        add(a.a22,b.a22,c.a22,a.size);
+        add(a.a23,b.a23,c.a23,a.size);
+        add(a.a24,b.a24,c.a24,a.size);
+        add(a.a31,b.a31,c.a31,a.size);
+        add(a.a32,b.a32,c.a32,a.size);
+        add(a.a33,b.a33,c.a33,a.size);
+        add(a.a34,b.a34,c.a34,a.size);
+        add(a.a41,b.a41,c.a41,a.size);
+        add(a.a42,b.a42,c.a42,a.size);
+        add(a.a43,b.a43,c.a43,a.size);
+        add(a.a44,b.a44,c.a44,a.size);
+    }
+
+    /**
+     * <p>Performs the following operation on each matrix:<br>
+     * <br>
+     * c = a - b <br>
+     * c<sub>ij</sub> = a<sub>ij</sub> - b<sub>ij</sub> <br>
+     * </p>
+     *
+     * <p>
+     * Batch C can be the same instance as batch A and/or B.
+     * </p>
+     *
+     * @param a A batch. Not modified.
+     * @param b A batch. Not modified.
+     * @param c The results. Modified.
+     */
+    public static void subtract( DMatrix4x4Batch a , DMatrix4x4Batch b , DMatrix4x4Batch c ) {
+        checkSize(a,b);
+        c.reshape(a.size);
+        subtract(a.a11,b.a11,c.a11,a.size);
+        subtract(a.a12,b.a12,c.a12,a.size);
+        subtract(a.a13,b.a13,c.a13,a.size);
+        subtract(a.a14,b.a14,c.a14,a.size);
+        subtract(a.a21,b.a21,c.a21,a.size);
+        subtract(a.a22,b.a22,c.a22,a.size);
+        subtract(a.a23,b.a23,c.a23,a.size);
+        subtract(a.a24,b.a24,c.a24,a.size);
+        subtract(a.a31,b.a31,c.a31,a.size);
+        subtract(a.a32,b.a32,c.a32,a.size);
+        subtract(a.a33,b.a33,c.a33,a.size);
+        subtract(a.a34,b.a34,c.a34,a.size);
+        subtract(a.a41,b.a41,c.a41,a.size);
+        subtract(a.a42,b.a42,c.a42,a.size);
+        subtract(a.a43,b.a43,c.a43,a.size);
+        subtract(a.a44,b.a44,c.a44,a.size);
+    }
+
+    /**
+     * <p>Performs the following operation on each matrix:<br>
+     * <br>
+     * b = alpha * a <br>
+     * b<sub>ij</sub> = alpha * a<sub>ij</sub> <br>
+     * </p>
+     *
+     * @param alpha The scaling factor.
+     * @param a A batch. Not modified.
+     * @param b The results. Can be the same instance as a. Modified.
+     */
+    public static void scale( double alpha , DMatrix4x4Batch a , DMatrix4x4Batch b ) {
+        b.reshape(a.size);
+        scale(alpha,a.a11,b.a11,a.size);
+        scale(alpha,a.a12,b.a12,a.size);
+        scale(alpha,a.a13,b.a13,a.size);
+        scale(alpha,a.a14,b.a14,a.size);
+        scale(alpha,a.a21,b.a21,a.size);
+        scale(alpha,a.a22,b.a22,a.size);
+        scale(alpha,a.a23,b.a23,a.size);
+        scale(alpha,a.a24,b.a24,a.size);
+        scale(alpha,a.a31,b.a31,a.size);
+        scale(alpha,a.a32,b.a32,a.size);
+        scale(alpha,a.a33,b.a33,a.size);
+        scale(alpha,a.a34,b.a34,a.size);
+        scale(alpha,a.a41,b.a41,a.size);
+        scale(alpha,a.a42,b.a42,a.size);
+        scale(alpha,a.a43,b.a43,a.size);
+        scale(alpha,a.a44,b.a44,a.size);
+    }
+
+    /**
+     * <p>Performs the following operation on each matrix:<br>
+     * <br>
+     * c = a * b <br>
+     * <br>
+     * c<sub>ij</sub> = &sum;<sub>k=1:n</sub> { a<sub>ik</sub> * b<sub>kj</sub>}
+     * </p>
+     *
+     * @param a The left batch in the multiplication operation. Not modified.
+     * @param b The right batch in the multiplication operation. Not modified.
+     * @param c Where the results of the operation are stored. Can't be a or b. Modified.
+     */
+    public static void mult( DMatrix4x4Batch a , DMatrix4x4Batch b , DMatrix4x4Batch c ) {
+        checkSize(a,b);
+        c.reshape(a.size);
+        final int size = a.size;
+        for (int i0 = 0; i0 < size; i0 += BLOCK_LENGTH) {
+            final int i1 = i0 + Math.min(BLOCK_LENGTH,size-i0);
+            for (int i = i0; i < i1; i++) {
+                double a1 = a.a11[i]; double a2 = a.a12[i]; double a3 = a.a13[i]; double a4 = a.a14[i];
+                c.a11[i] = a1*b.a11[i] + a2*b.a21[i] + a3*b.a31[i] + a4*b.a41[i];
+                c.a12[i] = a1*b.a12[i] + a2*b.a22[i] + a3*b.a32[i] + a4*b.a42[i];
+                c.a13[i] = a1*b.a13[i] + a2*b.a23[i] + a3*b.a33[i] + a4*b.a43[i];
+                c.a14[i] = a1*b.a14[i] + a2*b.a24[i] + a3*b.a34[i] + a4*b.a44[i];
+            }
+            for (int i = i0; i < i1; i++) {
+                double a1 = a.a21[i]; double a2 = a.a22[i]; double a3 = a.a23[i]; double a4 = a.a24[i];
+                c.a21[i] = a1*b.a11[i] + a2*b.a21[i] + a3*b.a31[i] + a4*b.a41[i];
+                c.a22[i] = a1*b.a12[i] + a2*b.a22[i] + a3*b.a32[i] + a4*b.a42[i];
+                c.a23[i] = a1*b.a13[i] + a2*b.a23[i] + a3*b.a33[i] + a4*b.a43[i];
+                c.a24[i] = a1*b.a14[i] + a2*b.a24[i] + a3*b.a34[i] + a4*b.a44[i];
+            }
+            for (int i = i0; i < i1; i++) {
+                double a1 = a.a31[i]; double a2 = a.a32[i]; double a3 = a.a33[i]; double a4 = a.a34[i];
+                c.a31[i] = a1*b.a11[i] + a2*b.a21[i] + a3*b.a31[i] + a4*b.a41[i];
+                c.a32[i] = a1*b.a12[i] + a2*b.a22[i] + a3*b.a32[i] + a4*b.a42[i];
+                c.a33[i] = a1*b.a13[i] + a2*b.a23[i] + a3*b.a33[i] + a4*b.a43[i];
+                c.a34[i] = a1*b.a14[i] + a2*b.a24[i] + a3*b.a34[i] + a4*b.a44[i];
+            }
+            for (int i = i0; i < i1; i++) {
+                double a1 = a.a41[i]; double a2 = a.a42[i]; double a3 = a.a43[i]; double a4 = a.a44[i];
+                c.a41[i] = a1*b.a11[i] + a2*b.a21[i] + a3*b.a31[i] + a4*b.a41[i];
+                c.a42[i] = a1*b.a12[i] + a2*b.a22[i] + a3*b.a32[i] + a4*b.a42[i];
+                c.a43[i] = a1*b.a13[i] + a2*b.a23[i] + a3*b.a33[i] + a4*b.a43[i];
+                c.a44[i] = a1*b.a14[i] + a2*b.a24[i] + a3*b.a34[i] + a4*b.a44[i];
+            }
+        }
+    }
+
+    /**
+     * <p>Performs the following operation on each matrix:<br>
+     * <br>
+     * c = a<sup>T</sup> * b <br>
+     * <br>
+     * c<sub>ij</sub> = &sum;<sub>k=1:n</sub> { a<sub>ki</sub> * b<sub>kj</sub>}
+     * </p>
+     *
+     * @param a The left batch in the multiplication operation. Not modified.
+     * @param b The right batch in the multiplication operation. Not modified.
+     * @param c Where the results of the operation are stored. Can't be a or b. Modified.
+     */
+    public static void multTransA( DMatrix4x4Batch a , DMatrix4x4Batch b , DMatrix4x4Batch c ) {
+        checkSize(a,b);
+        c.reshape(a.size);
+        final int size = a.size;
+        for (int i0 = 0; i0 < size; i0 += BLOCK_LENGTH) {
+            final int i1 = i0 + Math.min(BLOCK_LENGTH,size-i0);
+            for (int i = i0; i < i1; i++) {
+                double a1 = a.a11[i]; double a2 = a.a21[i]; double a3 = a.a31[i]; double a4 = a.a41[i];
+                c.a11[i] = a1*b.a11[i] + a2*b.a21[i] + a3*b.a31[i] + a4*b.a41[i];
+                c.a12[i] = a1*b.a12[i] + a2*b.a22[i] + a3*b.a32[i] + a4*b.a42[i];
+                c.a13[i] = a1*b.a13[i] + a2*b.a23[i] + a3*b.a33[i] + a4*b.a43[i];
+                c.a14[i] = a1*b.a14[i] + a2*b.a24[i] + a3*b.a34[i] + a4*b.a44[i];
+            }
+            for (int i = i0; i < i1; i++) {
+                double a1 = a.a12[i]; double a2 = a.a22[i]; double a3 = a.a32[i]; double a4 = a.a42[i];
+                c.a21[i] = a1*b.a11[i] + a2*b.a21[i] + a3*b.a31[i] + a4*b.a41[i];
+                c.a22[i] = a1*b.a12[i] + a2*b.a22[i] + a3*b.a32[i] + a4*b.a42[i];
+                c.a23[i] = a1*b.a13[i] + a2*b.a23[i] + a3*b.a33[i] + a4*b.a43[i];
+                c.a24[i] = a1*b.a14[i] + a2*b.a24[i] + a3*b.a34[i] + a4*b.a44[i];
+            }
+            for (int i = i0; i < i1; i++) {
+                double a1 = a.a13[i]; double a2 = a.a23[i]; double a3 = a.a33[i]; double a4 = a.a43[i];
+                c.a31[i] = a1*b.a11[i] + a2*b.a21[i] + a3*b.a31[i] + a4*b.a41[i];
+                c.a32[i] = a1*b.a12[i] + a2*b.a22[i] + a3*b.a32[i] + a4*b.a42[i];
+                c.a33[i] = a1*b.a13[i] + a2*b.a23[i] + a3*b.a33[i] + a4*b.a43[i];
+                c.a34[i] = a1*b.a14[i] + a2*b.a24[i] + a3*b.a34[i] + a4*b.a44[i];
+            }
+            for (int i = i0; i < i1; i++) {
+                double a1 = a.a14[i]; double a2 = a.a24[i]; double a3 = a.a34[i]; double a4 = a.a44[i];
+                c.a41[i] = a1*b.a11[i] + a2*b.a21[i] + a3*b.a31[i] + a4*b.a41[i];
+                c.a42[i] = a1*b.a12[i] + a2*b.a22[i] + a3*b.a32[i] + a4*b.a42[i];
+                c.a43[i] = a1*b.a13[i] + a2*b.a23[i] + a3*b.a33[i] + a4*b.a43[i];
+                c.a44[i] = a1*b.a14[i] + a2*b.a24[i] + a3*b.a34[i] + a4*b.a44[i];
+            }
+        }
+    }
+
+    /**
+     * <p>Performs the following operation on each matrix:<br>
+     * <br>
+     * c = a * b<sup>T</sup> <br>
+     * <br>
+     * c<sub>ij</sub> = &sum;<sub>k=1:n</sub> { a<sub>ik</sub> * b<sub>jk</sub>}
+     * </p>
+     *
+     * @param a The left batch in the multiplication operation. Not modified.
+     * @param b The right batch in the multiplication operation. Not modified.
+     * @param c Where the results of the operation are stored. Can't be a or b. Modified.
+     */
+    public static void multTransB( DMatrix4x4Batch a , DMatrix4x4Batch b , DMatrix4x4Batch c ) {
+        checkSize(a,b);
+        c.reshape(a.size);
+        final int size = a.size;
+        for (int i0 = 0; i0 < size; i0 += BLOCK_LENGTH) {
+            final int i1 = i0 + Math.min(BLOCK_LENGTH,size-i0);
+            for (int i = i0; i < i1; i++) {
+                double a1 = a.a11[i]; double a2 = a.a12[i]; double a3 = a.a13[i]; double a4 = a.a14[i];
+                c.a11[i] = a1*b.a11[i] + a2*b.a12[i] + a3*b.a13[i] + a4*b.a14[i];
+                c.a12[i] = a1*b.a21[i] + a2*b.a22[i] + a3*b.a23[i] + a4*b.a24[i];
+                c.a13[i] = a1*b.a31[i] + a2*b.a32[i] + a3*b.a33[i] + a4*b.a34[i];
+                c.a14[i] = a1*b.a41[i] + a2*b.a42[i] + a3*b.a43[i] + a4*b.a44[i];
+            }
+            for (int i = i0; i < i1; i++) {
+                double a1 = a.a21[i]; double a2 = a.a22[i]; double a3 = a.a23[i]; double a4 = a.a24[i];
+                c.a21[i] = a1*b.a11[i] + a2*b.a12[i] + a3*b.a13[i] + a4*b.a14[i];
+                c.a22[i] = a1*b.a21[i] + a2*b.a22[i] + a3*b.a23[i] + a4*b.a24[i];
+                c.a23[i] = a1*b.a31[i] + a2*b.a32[i] + a3*b.a33[i] + a4*b.a34[i];
+                c.a24[i] = a1*b.a41[i] + a2*b.a42[i] + a3*b.a43[i] + a4*b.a44[i];
+            }
+            for (int i = i0; i < i1; i++) {
+                double a1 = a.a31[i]; double a2 = a.a32[i]; double a3 = a.a33[i]; double a4 = a.a34[i];
+                c.a31[i] = a1*b.a11[i] + a2*b.a12[i] + a3*b.a13[i] + a4*b.a14[i];
+                c.a32[i] = a1*b.a21[i] + a2*b.a22[i] + a3*b.a23[i] + a4*b.a24[i];
+                c.a33[i] = a1*b.a31[i] + a2*b.a32[i] + a3*b.a33[i] + a4*b.a34[i];
+                c.a34[i] = a1*b.a41[i] + a2*b.a42[i] + a3*b.a43[i] + a4*b.a44[i];
+            }
+            for (int i = i0; i < i1; i++) {
+                double a1 = a.a41[i]; double a2 = a.a42[i]; double a3 = a.a43[i]; double a4 = a.a44[i];
+                c.a41[i] = a1*b.a11[i] + a2*b.a12[i] + a3*b.a13[i] + a4*b.a14[i];
+                c.a42[i] = a1*b.a21[i] + a2*b.a22[i] + a3*b.a23[i] + a4*b.a24[i];
+                c.a43[i] = a1*b.a31[i] + a2*b.a32[i] + a3*b.a33[i] + a4*b.a34[i];
+                c.a44[i] = a1*b.a41[i] + a2*b.a42[i] + a3*b.a43[i] + a4*b.a44[i];
+            }
+        }
+    }
+
+    /**
+     * Inverts each matrix in 'a' using minor matrices and stores the results in 'inv'.  Scaling is applied
+     * to improve stability against overflow and underflow.
+     *
+     * WARNING: Potentially less stable than using LU decomposition.
+     *
+     * @param a Input batch. Not modified.
+     * @param inv Inverted output batch. Can be the same instance as a. Modified.
+     * @return Number of matrices which could not be inverted.  Their inverse will contain
+     * uncountable numbers.  Not always reliable.
+     */
+    public static int invert( DMatrix4x4Batch a , DMatrix4x4Batch inv ) {
+        inv.reshape(a.size);
+        final int size = a.size;
+        int failed = 0;
+        for (int i = 0; i < size; i++) {
+            double scale = Math.abs(a.a11[i]);
+            scale = Math.max(scale,Math.abs(a.a12[i]));
+            scale = Math.max(scale,Math.abs(a.a13[i]));
+            scale = Math.max(scale,Math.abs(a.a14[i]));
+            scale = Math.max(scale,Math.abs(a.a21[i]));
+            scale = Math.max(scale,Math.abs(a.a22[i]));
+            scale = Math.max(scale,Math.abs(a.a23[i]));
+            scale = Math.max(scale,Math.abs(a.a24[i]));
+            scale = Math.max(scale,Math.abs(a.a31[i]));
+            scale = Math.max(scale,Math.abs(a.a32[i]));
+            scale = Math.max(scale,Math.abs(a.a33[i]));
+            scale = Math.max(scale,Math.abs(a.a34[i]));
+            scale = Math.max(scale,Math.abs(a.a41[i]));
+            scale = Math.max(scale,Math.abs(a.a42[i]));
+            scale = Math.max(scale,Math.abs(a.a43[i]));
+            scale = Math.max(scale,Math.abs(a.a44[i]));
+            scale = 1.0/scale;
+
+            double a11 = a.a11[i]*scale;
+            double a12 = a.a12[i]*scale;
+            double a13 = a.a13[i]*scale;
+            double a14 = a.a14[i]*scale;
+            double a21 = a.a21[i]*scale;
+            double a22 = a.a22[i]*scale;
+            double a23 = a.a23[i]*scale;
+            double a24 = a.a24[i]*scale;
+            double a31 = a.a31[i]*scale;
+            double a32 = a.a32[i]*scale;
+            double a33 = a.a33[i]*scale;
+            double a34 = a.a34[i]*scale;
+            double a41 = a.a41[i]*scale;
+            double a42 = a.a42[i]*scale;
+            double a43 = a.a43[i]*scale;
+            double a44 = a.a44[i]*scale;
+
+            double m11 =  + a22*(a33*a44 - a34*a43) - a23*(a32*a44 - a34*a42) + a24*(a32*a43 - a33*a42);
+            double m12 = -(  + a21*(a33*a44 - a34*a43) - a23*(a31*a44 - a34*a41) + a24*(a31*a43 - a33*a41));
+            double m13 =  + a21*(a32*a44 - a34*a42) - a22*(a31*a44 - a34*a41) + a24*(a31*a42 - a32*a41);
+            double m14 = -(  + a21*(a32*a43 - a33*a42) - a22*(a31*a43 - a33*a41) + a23*(a31*a42 - a32*a41));
+            double m21 = -(  + a12*(a33*a44 - a34*a43) - a13*(a32*a44 - a34*a42) + a14*(a32*a43 - a33*a42));
+            double m22 =  + a11*(a33*a44 - a34*a43) - a13*(a31*a44 - a34*a41) + a14*(a31*a43 - a33*a41);
+            double m23 = -(  + a11*(a32*a44 - a34*a42) - a12*(a31*a44 - a34*a41) + a14*(a31*a42 - a32*a41));
+            double m24 =  + a11*(a32*a43 - a33*a42) - a12*(a31*a43 - a33*a41) + a13*(a31*a42 - a32*a41);
+            double m31 =  + a12*(a23*a44 - a24*a43) - a13*(a22*a44 - a24*a42) + a14*(a22*a43 - a23*a42);
+            double m32 = -(  + a11*(a23*a44 - a24*a43) - a13*(a21*a44 - a24*a41) + a14*(a21*a43 - a23*a41));
+            double m33 =  + a11*(a22*a44 - a24*a42) - a12*(a21*a44 - a24*a41) + a14*(a21*a42 - a22*a41);
+            double m34 = -(  + a11*(a22*a43 - a23*a42) - a12*(a21*a43 - a23*a41) + a13*(a21*a42 - a22*a41));
+            double m41 = -(  + a12*(a23*a34 - a24*a33) - a13*(a22*a34 - a24*a32) + a14*(a22*a33 - a23*a32));
+            double m42 =  + a11*(a23*a34 - a24*a33) - a13*(a21*a34 - a24*a31) + a14*(a21*a33 - a23*a31);
+            double m43 = -(  + a11*(a22*a34 - a24*a32) - a12*(a21*a34 - a24*a31) + a14*(a21*a32 - a22*a31));
+            double m44 =  + a11*(a22*a33 - a23*a32) - a12*(a21*a33 - a23*a31) + a13*(a21*a32 - a22*a31);
+
+            double det = (a11*m11 + a12*m12 + a13*m13 + a14*m14)/scale;
+
+            inv.a11[i] = m11/det;
+            inv.a12[i] = m21/det;
+            inv.a13[i] = m31/det;
+            inv.a14[i] = m41/det;
+            inv.a21[i] = m12/det;
+            inv.a22[i] = m22/det;
+            inv.a23[i] = m32/det;
+            inv.a24[i] = m42/det;
+            inv.a31[i] = m13/det;
+            inv.a32[i] = m23/det;
+            inv.a33[i] = m33/det;
+            inv.a34[i] = m43/det;
+            inv.a41[i] = m14/det;
+            inv.a42[i] = m24/det;
+            inv.a43[i] = m34/det;
+            inv.a44[i] = m44/det;
+
+            if( UtilEjml.isUncountable(det) )
+                failed++;
+        }
+        return failed;
+    }
+
+    /**
+     * Computes the determinant of each matrix using minor matrices.<br>
+     * WARNING: Potentially less stable than using LU decomposition.
+     *
+     * @param mat Input batch.  Not modified.
+     * @param output (Optional) Storage for the determinants. If null or too small a new array is created.
+     * @return The determinant of each matrix.
+     */
+    public static double[] det( DMatrix4x4Batch mat , double[] output ) {
+        final int size = mat.size;
+        if( output == null || output.length < size )
+            output = new double[size];
+        for (int i = 0; i < size; i++) {
+            double  a11 = mat.a22[i];
+            double  a12 = mat.a23[i];
+            double  a13 = mat.a24[i];
+            double  a21 = mat.a32[i];
+            double  a22 = mat.a33[i];
+            double  a23 = mat.a34[i];
+            double  a31 = mat.a42[i];
+            double  a32 = mat.a43[i];
+            double  a33 = mat.a44[i];
+
+            double ret = 0;
+            ret += mat.a11[i] * ( + a11*(a22*a33 - a23*a32) - a12*(a21*a33 - a23*a31) + a13*(a21*a32 - a22*a31));
+            a11 = mat.a21[i];
+            a21 = mat.a31[i];
+            a31 = mat.a41[i];
+            ret -= mat.a12[i] * ( + a11*(a22*a33 - a23*a32) - a12*(a21*a33 - a23*a31) + a13*(a21*a32 - a22*a31));
+            a12 = mat.a22[i];
+            a22 = mat.a32[i];
+            a32 = mat.a42[i];
+            ret += mat.a13[i] * ( + a11*(a22*a33 - a23*a32) - a12*(a21*a33 - a23*a31) + a13*(a21*a32 - a22*a31));
+            a13 = mat.a23[i];
+            a23 = mat.a33[i];
+            a33 = mat.a43[i];
+            ret -= mat.a14[i] * ( + a11*(a22*a33 - a23*a32) - a12*(a21*a33 - a23*a31) + a13*(a21*a32 - a22*a31));
+
+            output[i] = ret;
+        }
+        return output;
+    }
+
+    /**
+     * Performs a lower Cholesky decomposition of each matrix in 'A' and stores result in A.
+     *
+     * @param A (Input) SPD Matrices. (Output) lower cholesky.
+     * @return Number of matrices where the decomposition failed.  Not always reliable.
+     */
+    public static int cholL( DMatrix4x4Batch A ) {
+        final int size = A.size;
+        int failed = 0;
+        for (int i = 0; i < size; i++) {
+            A.a11[i] = Math.sqrt(A.a11[i]);
+            A.a12[i] = 0;
+            A.a13[i] = 0;
+            A.a14[i] = 0;
+            A.a21[i] = (A.a21[i])/A.a11[i];
+            A.a22[i] = Math.sqrt(A.a22[i]-A.a21[i]*A.a21[i]);
+            A.a23[i] = 0;
+            A.a24[i] = 0;
+            A.a31[i] = (A.a31[i])/A.a11[i];
+            A.a32[i] = (A.a32[i]-A.a31[i]*A.a21[i])/A.a22[i];
+            A.a33[i] = Math.sqrt(A.a33[i]-A.a31[i]*A.a31[i]-A.a32[i]*A.a32[i]);
+            A.a34[i] = 0;
+            A.a41[i] = (A.a41[i])/A.a11[i];
+            A.a42[i] = (A.a42[i]-A.a41[i]*A.a21[i])/A.a22[i];
+            A.a43[i] = (A.a43[i]-A.a41[i]*A.a31[i]-A.a42[i]*A.a32[i])/A.a33[i];
+            A.a44[i] = Math.sqrt(A.a44[i]-A.a41[i]*A.a41[i]-A.a42[i]*A.a42[i]-A.a43[i]*A.a43[i]);
+            if( UtilEjml.isUncountable(A.a44[i]) )
+                failed++;
+        }
+        return failed;
+    }
+
+    /**
+     * <p>
+     * This computes the trace of each matrix:<br>
+     * <br>
+     * trace = &sum;<sub>i=1:n</sub> { a<sub>ii</sub> }
+     * </p>
+     *
+     * @param a Input batch.  Not modified.
+     * @param output (Optional) Storage for the traces. If null or too small a new array is created.
+     * @return The trace of each matrix.
+     */
+    public static double[] trace( DMatrix4x4Batch a , double[] output ) {
+        final int size = a.size;
+        if( output == null || output.length < size )
+            output = new double[size];
+        for (int i = 0; i < size; i++) {
+            output[i] = a.a11[i] + a.a22[i] + a.a33[i] + a.a44[i];
+        }
+        return output;
+    }
+
+    private static void add( double[] a , double[] b , double[] c , int size ) {
+        for (int i = 0; i < size; i++) {
+            c[i] = a[i] + b[i];
+        }
+    }
+
+    private static void subtract( double[] a , double[] b , double[] c , int size ) {
+        for (int i = 0; i < size; i++) {
+            c[i] = a[i] - b[i];
+        }
+    }
+
+    private static void scale( double alpha , double[] a , double[] b , int size ) {
+        for (int i = 0; i < size; i++) {
+            b[i] = alpha*a[i];
+        }
+    }
+
+    private static void checkSize( DMatrix4x4Batch a , DMatrix4x4Batch b ) {
+        if( a.size != b.size )
+            throw new MatrixDimensionException("Batches must have the same size. "+a.size+" "+b.size);
+    }
+}
+
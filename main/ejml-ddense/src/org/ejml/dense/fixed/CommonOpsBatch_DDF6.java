@@ -0,0 +1,1406 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.fixed;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrix6x6Batch;
+
+/**
+ * <p>Common matrix operations which are applied to every matrix in a batch of 6 x 6 matrices.
+ * The output batch is resized to match the size of the input batch.</p>
+ * <p>DO NOT MODIFY.  Automatically generated code created by GenerateCommonOpsBatch_DDF</p>
+ *
+ * @see CommonOps_DDF6
+ * @author Peter Abeles
+ */
+public class CommonOpsBatch_DDF6 {
+    /**
+     * Number of matrices processed at once by multiplication.  Each output row is computed for the
+     * entire block before moving on to the next, which keeps the number of arrays accessed in each loop small
+     * while the block stays in the cache.
+     */
+    public static int BLOCK_LENGTH = 512;
+
+    /**
+     * Invert and det eliminate without pivoting so that every matrix in a block is processed by the same
+     * loops.  Each matrix is scaled so that its largest element is one.  If a pivot is smaller than this
+     * value, which bounds the growth of the elements, then the matrix is processed again using
+     * partial pivoting.
+     */
+    public static double PIVOT_TOL = 1e-4;
+
+    /**
+     * <p>Performs the following operation on each matrix:<br>
+     * <br>
+     * c = a + b <br>
+     * c<sub>ij</sub> = a<sub>ij</sub> + b<sub>ij</sub> <br>
+     * </p>
+     *
+     * <p>
+     * Batch C can be the same instance as batch A and/or B.
+     * </p>
+     *
+     * @param a A batch. Not modified.
+     * @param b A batch. Not modified.
+     * @param c The results. Modified.
+     */
+    public static void add( DMatrix6x6Batch a , DMatrix6x6Batch b , DMatrix6x6Batch c ) {
+        checkSize(a,b);
+        c.reshape(a.size);
+        add(a.a11,b.a11,c.a11,a.size);
+        add(a.a12,b.a12,c.a12,a.size);
+        add(a.a13,b.a13,c.a13,a.size);
+        add(a.a14,b.a14,c.a14,a.size);
+        add(a.a15,b.a15,c.a15,a.size);
+        add(a.a16,b.a16,c.a16,a.size);
+        add(a.a21,b.a21,c.a21,a.size);
+        add(a.a22,b.a22,c.a22,a.size);
+        add(a.a23,b.a23,c.a23,a.size);
+        add(a.a24,b.a24,c.a24,a.size);
+        add(a.a25,b.a25,c.a25,a.size);
+        add(a.a26,b.a26,c.a26,a.size);
+        add(a.a31,b.a31,c.a31,a.size);
+        add(a.a32,b.a32,c.a32,a.size);
+        add(a.a33,b.a33,c.a33,a.size);
+        add(a.a34,b.a34,c.a34,a.size);
+        add(a.a35,b.a35,c.a35,a.size);
+        add(a.a36,b.a36,c.a36,a.size);
+        add(a.a41,b.a41,c.a41,a.size);
+        add(a.a42,b.a42,c.a42,a.size);
+        add(a.a43,b.a43,c.a43,a.size);
+        add(a.a44,b.a44,c.a44,a.size);
+        add(a.a45,b.a45,c.a45,a.size);
+        add(a.a46,b.a46,c.a46,a.size);
+        add(a.a51,b.a51,c.a51,a.size);
+        add(a.a52,b.a52,c.a52,a.size);
+        add(a.a53,b.a53,c.a53,a.size);
+        add(a.a54,b.a54,c.a54,a.size);
+        add(a.a55,b.a55,c.a55,a.size);
+        add(a.a56,b.a56,c.a56,a.size);
+        add(a.a61,b.a61,c.a61,a.size);
+        add(a.a62,b.a62,c.a62,a.size);
+        add(a.a63,b.a63,c.a63,a.size);
+        add(a.a64,b.a64,c.a64,a.size);
+        add(a.a65,b.a65,c.a65,a.size);
+        add(a.a66,b.a66,c.a66,a.size);
+    }
+
+    /**
+     * <p>Performs the following operation on each matrix:<br>
+     * <br>
+     * c = a - b <br>
+     * c<sub>ij</sub> = a<sub>ij</sub> - b<sub>ij</sub> <br>
+     * </p>
+     *
+     * <p>
+     * Batch C can be the same instance as batch A and/or B.
+     * </p>
+     *
+     * @param a A batch. Not modified.
+     * @param b A batch. Not modified.
+     * @param c The results. Modified.
+     */
+    public static void subtract( DMatrix6x6Batch a , DMatrix6x6Batch b , DMatrix6x6Batch c ) {
+        checkSize(a,b);
+        c.reshape(a.size);
+        subtract(a.a11,b.a11,c.a11,a.size);
+        subtract(a.a12,b.a12,c.a12,a.size);
+        subtract(a.a13,b.a13,c.a13,a.size);
+        subtract(a.a14,b.a14,c.a14,a.size);
+        subtract(a.a15,b.a15,c.a15,a.size);
+        subtract(a.a16,b.a16,c.a16,a.size);
+        subtract(a.a21,b.a21,c.a21,a.size);
+        subtract(a.a22,b.a22,c.a22,a.size);
+        subtract(a.a23,b.a23,c.a23,a.size);
+        subtract(a.a24,b.a24,c.a24,a.size);
+        subtract(a.a25,b.a25,c.a25,a.size);
+        subtract(a.a26,b.a26,c.a26,a.size);
+        subtract(a.a31,b.a31,c.a31,a.size);
+        subtract(a.a32,b.a32,c.a32,a.size);
+        subtract(a.a33,b.a33,c.a33,a.size);
+        subtract(a.a34,b.a34,c.a34,a.size);
+        subtract(a.a35,b.a35,c.a35,a.size);
+        subtract(a.a36,b.a36,c.a36,a.size);
+        subtract(a.a41,b.a41,c.a41,a.size);
+        subtract(a.a42,b.a42,c.a42,a.size);
+        subtract(a.a43,b.a43,c.a43,a.size);
+        subtract(a.a44,b.a44,c.a44,a.size);
+        subtract(a.a45,b.a45,c.a45,a.size);
+        subtract(a.a46,b.a46,c.a46,a.size);
+        subtract(a.a51,b.a51,c.a51,a.size);
+        subtract(a.a52,b.a52,c.a52,a.size);
+        subtract(a.a53,b.a53,c.a53,a.size);
+        subtract(a.a54,b.a54,c.a54,a.size);
+        subtract(a.a55,b.a55,c.a55,a.size);
+        subtract(a.a56,b.a56,c.a56,a.size);
+        subtract(a.a61,b.a61,c.a61,a.size);
+        subtract(a.a62,b.a62,c.a62,a.size);
+        subtract(a.a63,b.a63,c.a63,a.size);
+        subtract(a.a64,b.a64,c.a64,a.size);
+        subtract(a.a65,b.a65,c.a65,a.size);
+        subtract(a.a66,b.a66,c.a66,a.size);
+    }
+
+    /**
+     * <p>Performs the following operation on each matrix:<br>
+     * <br>
+     * b = alpha * a <br>
+     * b<sub>ij</sub> = alpha * a<sub>ij</sub> <br>
+     * </p>
+     *
+     * @param alpha The scaling factor.
+     * @param a A batch. Not modified.
+     * @param b The results. Can be the same instance as a. Modified.
+     */
+    public static void scale( double alpha , DMatrix6x6Batch a , DMatrix6x6Batch b ) {
+        b.reshape(a.size);
+        scale(alpha,a.a11,b.a11,a.size);
+        scale(alpha,a.a12,b.a12,a.size);
+        scale(alpha,a.a13,b.a13,a.size);
+        scale(alpha,a.a14,b.a14,a.size);
+        scale(alpha,a.a15,b.a15,a.size);
+        scale(alpha,a.a16,b.a16,a.size);
+        scale(alpha,a.a21,b.a21,a.size);
+        scale(alpha,a.a22,b.a22,a.size);
+        scale(alpha,a.a23,b.a23,a.size);
+        scale(alpha,a.a24,b.a24,a.size);
+        scale(alpha,a.a25,b.a25,a.size);
+        scale(alpha,a.a26,b.a26,a.size);
+        scale(alpha,a.a31,b.a31,a.size);
+        scale(alpha,a.a32,b.a32,a.size);
+        scale(alpha,a.a33,b.a33,a.size);
+        scale(alpha,a.a34,b.a34,a.size);
+        scale(alpha,a.a35,b.a35,a.size);
+        scale(alpha,a.a36,b.a36,a.size);
+        scale(alpha,a.a41,b.a41,a.size);
+        scale(alpha,a.a42,b.a42,a.size);
+        scale(alpha,a.a43,b.a43,a.size);
+        scale(alpha,a.a44,b.a44,a.size);
+        scale(alpha,a.a45,b.a45,a.size);
+        scale(alpha,a.a46,b.a46,a.size);
+        scale(alpha,a.a51,b.a51,a.size);
+        scale(alpha,a.a52,b.a52,a.size);
+        scale(alpha,a.a53,b.a53,a.size);
+        scale(alpha,a.a54,b.a54,a.size);
+        scale(alpha,a.a55,b.a55,a.size);
+        scale(alpha,a.a56,b.a56,a.size);
+        scale(alpha,a.a61,b.a61,a.size);
+        scale(alpha,a.a62,b.a62,a.size);
+        scale(alpha,a.a63,b.a63,a.size);
+        scale(alpha,a.a64,b.a64,a.size);
+        scale(alpha,a.a65,b.a65,a.size);
+        scale(alpha,a.a66,b.a66,a.size);
+    }
+
+    /**
+     * <p>Performs the following operation on each matrix:<br>
+     * <br>
+     * c = a * b <br>
+     * <br>
+     * c<sub>ij</sub> = &sum;<sub>k=1:n</sub> { a<sub>ik</sub> * b<sub>kj</sub>}
+     * </p>
+     *
+     * @param a The left batch in the multiplication operation. Not modified.
+     * @param b The right batch in the multiplication operation. Not modified.
+     * @param c Where the results of the operation are stored. Can't be a or b. Modified.
+     */
+    public static void mult( DMatrix6x6Batch a , DMatrix6x6Batch b , DMatrix6x6Batch c ) {
+        checkSize(a,b);
+        c.reshape(a.size);
+        final int size = a.size;
+        for (int i0 = 0; i0 < size; i0 += BLOCK_LENGTH) {
+            final int i1 = i0 + Math.min(BLOCK_LENGTH,size-i0);
+            for (int i = i0; i < i1; i++) {
+                double a1 = a.a11[i]; double a2 = a.a12[i]; double a3 = a.a13[i]; double a4 = a.a14[i]; double a5 = a.a15[i]; double a6 = a.a16[i];
+                c.a11[i] = a1*b.a11[i] + a2*b.a21[i] + a3*b.a31[i] + a4*b.a41[i] + a5*b.a51[i] + a6*b.a61[i];
+                c.a12[i] = a1*b.a12[i] + a2*b.a22[i] + a3*b.a32[i] + a4*b.a42[i] + a5*b.a52[i] + a6*b.a62[i];
+                c.a13[i] = a1*b.a13[i] + a2*b.a23[i] + a3*b.a33[i] + a4*b.a43[i] + a5*b.a53[i] + a6*b.a63[i];
+                c.a14[i] = a1*b.a14[i] + a2*b.a24[i] + a3*b.a34[i] + a4*b.a44[i] + a5*b.a54[i] + a6*b.a64[i];
+                c.a15[i] = a1*b.a15[i] + a2*b.a25[i] + a3*b.a35[i] + a4*b.a45[i] + a5*b.a55[i] + a6*b.a65[i];
+                c.a16[i] = a1*b.a16[i] + a2*b.a26[i] + a3*b.a36[i] + a4*b.a46[i] + a5*b.a56[i] + a6*b.a66[i];
+            }
+            for (int i = i0; i < i1; i++) {
+                double a1 = a.a21[i]; double a2 = a.a22[i]; double a3 = a.a23[i]; double a4 = a.a24[i]; double a5 = a.a25[i]; double a6 = a.a26[i];
+                c.a21[i] = a1*b.a11[i] + a2*b.a21[i] + a3*b.a31[i] + a4*b.a41[i] + a5*b.a51[i] + a6*b.a61[i];
+                c.a22[i] = a1*b.a12[i] + a2*b.a22[i] + a3*b.a32[i] + a4*b.a42[i] + a5*b.a52[i] + a6*b.a62[i];
+                c.a23[i] = a1*b.a13[i] + a2*b.a23[i] + a3*b.a33[i] + a4*b.a43[i] + a5*b.a53[i] + a6*b.a63[i];
+                c.a24[i] = a1*b.a14[i] + a2*b.a24[i] + a3*b.a34[i] + a4*b.a44[i] + a5*b.a54[i] + a6*b.a64[i];
+                c.a25[i] = a1*b.a15[i] + a2*b.a25[i] + a3*b.a35[i] + a4*b.a45[i] + a5*b.a55[i] + a6*b.a65[i];
+                c.a26[i] = a1*b.a16[i] + a2*b.a26[i] + a3*b.a36[i] + a4*b.a46[i] + a5*b.a56[i] + a6*b.a66[i];
+            }
+            for (int i = i0; i < i1; i++) {
+                double a1 = a.a31[i]; double a2 = a.a32[i]; double a3 = a.a33[i]; double a4 = a.a34[i]; double a5 = a.a35[i]; double a6 = a.a36[i];
+                c.a31[i] = a1*b.a11[i] + a2*b.a21[i] + a3*b.a31[i] + a4*b.a41[i] + a5*b.a51[i] + a6*b.a61[i];
+                c.a32[i] = a1*b.a12[i] + a2*b.a22[i] + a3*b.a32[i] + a4*b.a42[i] + a5*b.a52[i] + a6*b.a62[i];
+                c.a33[i] = a1*b.a13[i] + a2*b.a23[i] + a3*b.a33[i] + a4*b.a43[i] + a5*b.a53[i] + a6*b.a63[i];
+                c.a34[i] = a1*b.a14[i] + a2*b.a24[i] + a3*b.a34[i] + a4*b.a44[i] + a5*b.a54[i] + a6*b.a64[i];
+                c.a35[i] = a1*b.a15[i] + a2*b.a25[i] + a3*b.a35[i] + a4*b.a45[i] + a5*b.a55[i] + a6*b.a65[i];
+                c.a36[i] = a1*b.a16[i] + a2*b.a26[i] + a3*b.a36[i] + a4*b.a46[i] + a5*b.a56[i] + a6*b.a66[i];
+            }
+            for (int i = i0; i < i1; i++) {
+                double a1 = a.a41[i]; double a2 = a.a42[i]; double a3 = a.a43[i]; double a4 = a.a44[i]; double a5 = a.a45[i]; double a6 = a.a46[i];
+                c.a41[i] = a1*b.a11[i] + a2*b.a21[i] + a3*b.a31[i] + a4*b.a41[i] + a5*b.a51[i] + a6*b.a61[i];
+                c.a42[i] = a1*b.a12[i] + a2*b.a22[i] + a3*b.a32[i] + a4*b.a42[i] + a5*b.a52[i] + a6*b.a62[i];
+                c.a43[i] = a1*b.a13[i] + a2*b.a23[i] + a3*b.a33[i] + a4*b.a43[i] + a5*b.a53[i] + a6*b.a63[i];
+                c.a44[i] = a1*b.a14[i] + a2*b.a24[i] + a3*b.a34[i] + a4*b.a44[i] + a5*b.a54[i] + a6*b.a64[i];
+                c.a45[i] = a1*b.a15[i] + a2*b.a25[i] + a3*b.a35[i] + a4*b.a45[i] + a5*b.a55[i] + a6*b.a65[i];
+                c.a46[i] = a1*b.a16[i] + a2*b.a26[i] + a3*b.a36[i] + a4*b.a46[i] + a5*b.a56[i] + a6*b.a66[i];
+            }
+            for (int i = i0; i < i1; i++) {
+                double a1 = a.a51[i]; double a2 = a.a52[i]; double a3 = a.a53[i]; double a4 = a.a54[i]; double a5 = a.a55[i]; double a6 = a.a56[i];
+                c.a51[i] = a1*b.a11[i] + a2*b.a21[i] + a3*b.a31[i] + a4*b.a41[i] + a5*b.a51[i] + a6*b.a61[i];
+                c.a52[i] = a1*b.a12[i] + a2*b.a22[i] + a3*b.a32[i] + a4*b.a42[i] + a5*b.a52[i] + a6*b.a62[i];
+                c.a53[i] = a1*b.a13[i] + a2*b.a23[i] + a3*b.a33[i] + a4*b.a43[i] + a5*b.a53[i] + a6*b.a63[i];
+                c.a54[i] = a1*b.a14[i] + a2*b.a24[i] + a3*b.a34[i] + a4*b.a44[i] + a5*b.a54[i] + a6*b.a64[i];
+                c.a55[i] = a1*b.a15[i] + a2*b.a25[i] + a3*b.a35[i] + a4*b.a45[i] + a5*b.a55[i] + a6*b.a65[i];
+                c.a56[i] = a1*b.a16[i] + a2*b.a26[i] + a3*b.a36[i] + a4*b.a46[i] + a5*b.a56[i] + a6*b.a66[i];
+            }
+            for (int i = i0; i < i1; i++) {
+                double a1 = a.a61[i]; double a2 = a.a62[i]; double a3 = a.a63[i]; double a4 = a.a64[i]; double a5 = a.a65[i]; double a6 = a.a66[i];
+                c.a61[i] = a1*b.a11[i] + a2*b.a21[i] + a3*b.a31[i] + a4*b.a41[i] + a5*b.a51[i] + a6*b.a61[i];
+                c.a62[i] = a1*b.a12[i] + a2*b.a22[i] + a3*b.a32[i] + a4*b.a42[i] + a5*b.a52[i] + a6*b.a62[i];
+                c.a63[i] = a1*b.a13[i] + a2*b.a23[i] + a3*b.a33[i] + a4*b.a43[i] + a5*b.a53[i] + a6*b.a63[i];
+                c.a64[i] = a1*b.a14[i] + a2*b.a24[i] + a3*b.a34[i] + a4*b.a44[i] + a5*b.a54[i] + a6*b.a64[i];
+                c.a65[i] = a1*b.a15[i] + a2*b.a25[i] + a3*b.a35[i] + a4*b.a45[i] + a5*b.a55[i] + a6*b.a65[i];
+                c.a66[i] = a1*b.a16[i] + a2*b.a26[i] + a3*b.a36[i] + a4*b.a46[i] + a5*b.a56[i] + a6*b.a66[i];
+            }
+        }
+    }
+
+    /**
+     * <p>Performs the following operation on each matrix:<br>
+     * <br>
+     * c = a<sup>T</sup> * b <br>
+     * <br>
+     * c<sub>ij</sub> = &sum;<sub>k=1:n</sub> { a<sub>ki</sub> * b<sub>kj</sub>}
+     * </p>
+     *
+     * @param a The left batch in the multiplication operation. Not modified.
+     * @param b The right batch in the multiplication operation. Not modified.
+     * @param c Where the results of the operation are stored. Can't be a or b. Modified.
+     */
+    public static void multTransA( DMatrix6x6Batch a , DMatrix6x6Batch b , DMatrix6x6Batch c ) {
+        checkSize(a,b);
+        c.reshape(a.size);
+        final int size = a.size;
+        for (int i0 = 0; i0 < size; i0 += BLOCK_LENGTH) {
+            final int i1 = i0 + Math.min(BLOCK_LENGTH,size-i0);
+            for (int i = i0; i < i1; i++) {
+                double a1 = a.a11[i]; double a2 = a.a21[i]; double a3 = a.a31[i]; double a4 = a.a41[i]; double a5 = a.a51[i]; double a6 = a.a61[i];
+                c.a11[i] = a1*b.a11[i] + a2*b.a21[i] + a3*b.a31[i] + a4*b.a41[i] + a5*b.a51[i] + a6*b.a61[i];
+                c.a12[i] = a1*b.a12[i] + a2*b.a22[i] + a3*b.a32[i] + a4*b.a42[i] + a5*b.a52[i] + a6*b.a62[i];
+                c.a13[i] = a1*b.a13[i] + a2*b.a23[i] + a3*b.a33[i] + a4*b.a43[i] + a5*b.a53[i] + a6*b.a63[i];
+                c.a14[i] = a1*b.a14[i] + a2*b.a24[i] + a3*b.a34[i] + a4*b.a44[i] + a5*b.a54[i] + a6*b.a64[i];
+                c.a15[i] = a1*b.a15[i] + a2*b.a25[i] + a3*b.a35[i] + a4*b.a45[i] + a5*b.a55[i] + a6*b.a65[i];
+                c.a16[i] = a1*b.a16[i] + a2*b.a26[i] + a3*b.a36[i] + a4*b.a46[i] + a5*b.a56[i] + a6*b.a66[i];
+            }
+            for (int i = i0; i < i1; i++) {
+                double a1 = a.a12[i]; double a2 = a.a22[i]; double a3 = a.a32[i]; double a4 = a.a42[i]; double a5 = a.a52[i]; double a6 = a.a62[i];
+                c.a21[i] = a1*b.a11[i] + a2*b.a21[i] + a3*b.a31[i] + a4*b.a41[i] + a5*b.a51[i] + a6*b.a61[i];
+                c.a22[i] = a1*b.a12[i] + a2*b.a22[i] + a3*b.a32[i] + a4*b.a42[i] + a5*b.a52[i] + a6*b.a62[i];
+                c.a23[i] = a1*b.a13[i] + a2*b.a23[i] + a3*b.a33[i] + a4*b.a43[i] + a5*b.a53[i] + a6*b.a63[i];
+                c.a24[i] = a1*b.a14[i] + a2*b.a24[i] + a3*b.a34[i] + a4*b.a44[i] + a5*b.a54[i] + a6*b.a64[i];
+                c.a25[i] = a1*b.a15[i] + a2*b.a25[i] + a3*b.a35[i] + a4*b.a45[i] + a5*b.a55[i] + a6*b.a65[i];
+                c.a26[i] = a1*b.a16[i] + a2*b.a26[i] + a3*b.a36[i] + a4*b.a46[i] + a5*b.a56[i] + a6*b.a66[i];
+            }
+            for (int i = i0; i < i1; i++) {
+                double a1 = a.a13[i]; double a2 = a.a23[i]; double a3 = a.a33[i]; double a4 = a.a43[i]; double a5 = a.a53[i]; double a6 = a.a63[i];
+                c.a31[i] = a1*b.a11[i] + a2*b.a21[i] + a3*b.a31[i] + a4*b.a41[i] + a5*b.a51[i] + a6*b.a61[i];
+                c.a32[i] = a1*b.a12[i] + a2*b.a22[i] + a3*b.a32[i] + a4*b.a42[i] + a5*b.a52[i] + a6*b.a62[i];
+                c.a33[i] = a1*b.a13[i] + a2*b.a23[i] + a3*b.a33[i] + a4*b.a43[i] + a5*b.a53[i] + a6*b.a63[i];
+                c.a34[i] = a1*b.a14[i] + a2*b.a24[i] + a3*b.a34[i] + a4*b.a44[i] + a5*b.a54[i] + a6*b.a64[i];
+                c.a35[i] = a1*b.a15[i] + a2*b.a25[i] + a3*b.a35[i] + a4*b.a45[i] + a5*b.a55[i] + a6*b.a65[i];
+                c.a36[i] = a1*b.a16[i] + a2*b.a26[i] + a3*b.a36[i] + a4*b.a46[i] + a5*b.a56[i] + a6*b.a66[i];
+            }
+            for (int i = i0; i < i1; i++) {
+                double a1 = a.a14[i]; double a2 = a.a24[i]; double a3 = a.a34[i]; double a4 = a.a44[i]; double a5 = a.a54[i]; double a6 = a.a64[i];
+                c.a41[i] = a1*b.a11[i] + a2*b.a21[i] + a3*b.a31[i] + a4*b.a41[i] + a5*b.a51[i] + a6*b.a61[i];
+                c.a42[i] = a1*b.a12[i] + a2*b.a22[i] + a3*b.a32[i] + a4*b.a42[i] + a5*b.a52[i] + a6*b.a62[i];
+                c.a43[i] = a1*b.a13[i] + a2*b.a23[i] + a3*b.a33[i] + a4*b.a43[i] + a5*b.a53[i] + a6*b.a63[i];
+                c.a44[i] = a1*b.a14[i] + a2*b.a24[i] + a3*b.a34[i] + a4*b.a44[i] + a5*b.a54[i] + a6*b.a64[i];
+                c.a45[i] = a1*b.a15[i] + a2*b.a25[i] + a3*b.a35[i] + a4*b.a45[i] + a5*b.a55[i] + a6*b.a65[i];
+                c.a46[i] = a1*b.a16[i] + a2*b.a26[i] + a3*b.a36[i] + a4*b.a46[i] + a5*b.a56[i] + a6*b.a66[i];
+            }
+            for (int i = i0; i < i1; i++) {
+                double a1 = a.a15[i]; double a2 = a.a25[i]; double a3 = a.a35[i]; double a4 = a.a45[i]; double a5 = a.a55[i]; double a6 = a.a65[i];
+                c.a51[i] = a1*b.a11[i] + a2*b.a21[i] + a3*b.a31[i] + a4*b.a41[i] + a5*b.a51[i] + a6*b.a61[i];
+                c.a52[i] = a1*b.a12[i] + a2*b.a22[i] + a3*b.a32[i] + a4*b.a42[i] + a5*b.a52[i] + a6*b.a62[i];
+                c.a53[i] = a1*b.a13[i] + a2*b.a23[i] + a3*b.a33[i] + a4*b.a43[i] + a5*b.a53[i] + a6*b.a63[i];
+                c.a54[i] = a1*b.a14[i] + a2*b.a24[i] + a3*b.a34[i] + a4*b.a44[i] + a5*b.a54[i] + a6*b.a64[i];
+                c.a55[i] = a1*b.a15[i] + a2*b.a25[i] + a3*b.a35[i] + a4*b.a45[i] + a5*b.a55[i] + a6*b.a65[i];
+                c.a56[i] = a1*b.a16[i] + a2*b.a26[i] + a3*b.a36[i] + a4*b.a46[i] + a5*b.a56[i] + a6*b.a66[i];
+            }
+            for (int i = i0; i < i1; i++) {
+                double a1 = a.a16[i]; double a2 = a.a26[i]; double a3 = a.a36[i]; double a4 = a.a46[i]; double a5 = a.a56[i]; double a6 = a.a66[i];
+                c.a61[i] = a1*b.a11[i] + a2*b.a21[i] + a3*b.a31[i] + a4*b.a41[i] + a5*b.a51[i] + a6*b.a61[i];
+                c.a62[i] = a1*b.a12[i] + a2*b.a22[i] + a3*b.a32[i] + a4*b.a42[i] + a5*b.a52[i] + a6*b.a62[i];
+                c.a63[i] = a1*b.a13[i] + a2*b.a23[i] + a3*b.a33[i] + a4*b.a43[i] + a5*b.a53[i] + a6*b.a63[i];
+                c.a64[i] = a1*b.a14[i] + a2*b.a24[i] + a3*b.a34[i] + a4*b.a44[i] + a5*b.a54[i] + a6*b.a64[i];
+                c.a65[i] = a1*b.a15[i] + a2*b.a25[i] + a3*b.a35[i] + a4*b.a45[i] + a5*b.a55[i] + a6*b.a65[i];
+                c.a66[i] = a1*b.a16[i] + a2*b.a26[i] + a3*b.a36[i] + a4*b.a46[i] + a5*b.a56[i] + a6*b.a66[i];
+            }
+        }
+    }
+
+    /**
+     * <p>Performs the following operation on each matrix:<br>
+     * <br>
+     * c = a * b<sup>T</sup> <br>
+     * <br>
+     * c<sub>ij</sub> = &sum;<sub>k=1:n</sub> { a<sub>ik</sub> * b<sub>jk</sub>}
+     * </p>
+     *
+     * @param a The left batch in the multiplication operation. Not modified.
+     * @param b The right batch in the multiplication operation. Not modified.
+     * @param c Where the results of the operation are stored. Can't be a or b. Modified.
+     */
+    public static void multTransB( DMatrix6x6Batch a , DMatrix6x6Batch b , DMatrix6x6Batch c ) {
+        checkSize(a,b);
+        c.reshape(a.size);
+        final int size = a.size;
+        for (int i0 = 0; i0 < size; i0 += BLOCK_LENGTH) {
+            final int i1 = i0 + Math.min(BLOCK_LENGTH,size-i0);
+            for (int i = i0; i < i1; i++) {
+                double a1 = a.a11[i]; double a2 = a.a12[i]; double a3 = a.a13[i]; double a4 = a.a14[i]; double a5 = a.a15[i]; double a6 = a.a16[i];
+                c.a11[i] = a1*b.a11[i] + a2*b.a12[i] + a3*b.a13[i] + a4*b.a14[i] + a5*b.a15[i] + a6*b.a16[i];
+                c.a12[i] = a1*b.a21[i] + a2*b.a22[i] + a3*b.a23[i] + a4*b.a24[i] + a5*b.a25[i] + a6*b.a26[i];
+                c.a13[i] = a1*b.a31[i] + a2*b.a32[i] + a3*b.a33[i] + a4*b.a34[i] + a5*b.a35[i] + a6*b.a36[i];
+                c.a14[i] = a1*b.a41[i] + a2*b.a42[i] + a3*b.a43[i] + a4*b.a44[i] + a5*b.a45[i] + a6*b.a46[i];
+                c.a15[i] = a1*b.a51[i] + a2*b.a52[i] + a3*b.a53[i] + a4*b.a54[i] + a5*b.a55[i] + a6*b.a56[i];
+                c.a16[i] = a1*b.a61[i] + a2*b.a62[i] + a3*b.a63[i] + a4*b.a64[i] + a5*b.a65[i] + a6*b.a66[i];
+            }
+            for (int i = i0; i < i1; i++) {
+                double a1 = a.a21[i]; double a2 = a.a22[i]; double a3 = a.a23[i]; double a4 = a.a24[i]; double a5 = a.a25[i]; double a6 = a.a26[i];
+                c.a21[i] = a1*b.a11[i] + a2*b.a12[i] + a3*b.a13[i] + a4*b.a14[i] + a5*b.a15[i] + a6*b.a16[i];
+                c.a22[i] = a1*b.a21[i] + a2*b.a22[i] + a3*b.a23[i] + a4*b.a24[i] + a5*b.a25[i] + a6*b.a26[i];
+                c.a23[i] = a1*b.a31[i] + a2*b.a32[i] + a3*b.a33[i] + a4*b.a34[i] + a5*b.a35[i] + a6*b.a36[i];
+                c.a24[i] = a1*b.a41[i] + a2*b.a42[i] + a3*b.a43[i] + a4*b.a44[i] + a5*b.a45[i] + a6*b.a46[i];
+                c.a25[i] = a1*b.a51[i] + a2*b.a52[i] + a3*b.a53[i] + a4*b.a54[i] + a5*b.a55[i] + a6*b.a56[i];
+                c.a26[i] = a1*b.a61[i] + a2*b.a62[i] + a3*b.a63[i] + a4*b.a64[i] + a5*b.a65[i] + a6*b.a66[i];
+            }
+            for (int i = i0; i < i1; i++) {
+                double a1 = a.a31[i]; double a2 = a.a32[i]; double a3 = a.a33[i]; double a4 = a.a34[i]; double a5 = a.a35[i]; double a6 = a.a36[i];
+                c.a31[i] = a1*b.a11[i] + a2*b.a12[i] + a3*b.a13[i] + a4*b.a14[i] + a5*b.a15[i] + a6*b.a16[i];
+                c.a32[i] = a1*b.a21[i] + a2*b.a22[i] + a3*b.a23[i] + a4*b.a24[i] + a5*b.a25[i] + a6*b.a26[i];
+                c.a33[i] = a1*b.a31[i] + a2*b.a32[i] + a3*b.a33[i] + a4*b.a34[i] + a5*b.a35[i] + a6*b.a36[i];
+                c.a34[i] = a1*b.a41[i] + a2*b.a42[i] + a3*b.a43[i] + a4*b.a44[i] + a5*b.a45[i] + a6*b.a46[i];
+                c.a35[i] = a1*b.a51[i] + a2*b.a52[i] + a3*b.a53[i] + a4*b.a54[i] + a5*b.a55[i] + a6*b.a56[i];
+                c.a36[i] = a1*b.a61[i] + a2*b.a62[i] + a3*b.a63[i] + a4*b.a64[i] + a5*b.a65[i] + a6*b.a66[i];
+            }
+            for (int i = i0; i < i1; i++) {
+                double a1 = a.a41[i]; double a2 = a.a42[i]; double a3 = a.a43[i]; double a4 = a.a44[i]; double a5 = a.a45[i]; double a6 = a.a46[i];
+                c.a41[i] = a1*b.a11[i] + a2*b.a12[i] + a3*b.a13[i] + a4*b.a14[i] + a5*b.a15[i] + a6*b.a16[i];
+                c.a42[i] = a1*b.a21[i] + a2*b.a22[i] + a3*b.a23[i] + a4*b.a24[i] + a5*b.a25[i] + a6*b.a26[i];
+                c.a43[i] = a1*b.a31[i] + a2*b.a32[i] + a3*b.a33[i] + a4*b.a34[i] + a5*b.a35[i] + a6*b.a36[i];
+                c.a44[i] = a1*b.a41[i] + a2*b.a42[i] + a3*b.a43[i] + a4*b.a44[i] + a5*b.a45[i] + a6*b.a46[i];
+                c.a45[i] = a1*b.a51[i] + a2*b.a52[i] + a3*b.a53[i] + a4*b.a54[i] + a5*b.a55[i] + a6*b.a56[i];
+                c.a46[i] = a1*b.a61[i] + a2*b.a62[i] + a3*b.a63[i] + a4*b.a64[i] + a5*b.a65[i] + a6*b.a66[i];
+            }
+            for (int i = i0; i < i1; i++) {
+                double a1 = a.a51[i]; double a2 = a.a52[i]; double a3 = a.a53[i]; double a4 = a.a54[i]; double a5 = a.a55[i]; double a6 = a.a56[i];
+                c.a51[i] = a1*b.a11[i] + a2*b.a12[i] + a3*b.a13[i] + a4*b.a14[i] + a5*b.a15[i] + a6*b.a16[i];
+                c.a52[i] = a1*b.a21[i] + a2*b.a22[i] + a3*b.a23[i] + a4*b.a24[i] + a5*b.a25[i] + a6*b.a26[i];
+                c.a53[i] = a1*b.a31[i] + a2*b.a32[i] + a3*b.a33[i] + a4*b.a34[i] + a5*b.a35[i] + a6*b.a36[i];
+                c.a54[i] = a1*b.a41[i] + a2*b.a42[i] + a3*b.a43[i] + a4*b.a44[i] + a5*b.a45[i] + a6*b.a46[i];
+                c.a55[i] = a1*b.a51[i] + a2*b.a52[i] + a3*b.a53[i] + a4*b.a54[i] + a5*b.a55[i] + a6*b.a56[i];
+                c.a56[i] = a1*b.a61[i] + a2*b.a62[i] + a3*b.a63[i] + a4*b.a64[i] + a5*b.a65[i] + a6*b.a66[i];
+            }
+            for (int i = i0; i < i1; i++) {
+                double a1 = a.a61[i]; double a2 = a.a62[i]; double a3 = a.a63[i]; double a4 = a.a64[i]; double a5 = a.a65[i]; double a6 = a.a66[i];
+                c.a61[i] = a1*b.a11[i] + a2*b.a12[i] + a3*b.a13[i] + a4*b.a14[i] + a5*b.a15[i] + a6*b.a16[i];
+                c.a62[i] = a1*b.a21[i] + a2*b.a22[i] + a3*b.a23[i] + a4*b.a24[i] + a5*b.a25[i] + a6*b.a26[i];
+                c.a63[i] = a1*b.a31[i] + a2*b.a32[i] + a3*b.a33[i] + a4*b.a34[i] + a5*b.a35[i] + a6*b.a36[i];
+                c.a64[i] = a1*b.a41[i] + a2*b.a42[i] + a3*b.a43[i] + a4*b.a44[i] + a5*b.a45[i] + a6*b.a46[i];
+                c.a65[i] = a1*b.a51[i] + a2*b.a52[i] + a3*b.a53[i] + a4*b.a54[i] + a5*b.a55[i] + a6*b.a56[i];
+                c.a66[i] = a1*b.a61[i] + a2*b.a62[i] + a3*b.a63[i] + a4*b.a64[i] + a5*b.a65[i] + a6*b.a66[i];
+            }
+        }
+    }
+
+    /**
+     * Inverts each matrix in 'a' and stores the results in 'inv'.  The batch is processed in blocks of
+     * {@link #BLOCK_LENGTH} matrices using Gauss-Jordan elimination without pivoting.  Each step of the
+     * elimination is a loop through the block without branches, so the same operation is applied to
+     * every matrix and it can be vectorized.  Matrices with a pivot smaller than {@link #PIVOT_TOL} are
+     * inverted again one at a time using LU decomposition with partial pivoting.
+     *
+     * @param a Input batch. Not modified.
+     * @param inv Inverted output batch. Can be the same instance as a. Modified.
+     * @return Number of matrices which could not be inverted because they are singular.  Their
+     * inverse will contain uncountable numbers.
+     */
+    public static int invert( DMatrix6x6Batch a , DMatrix6x6Batch inv ) {
+        inv.reshape(a.size);
+        final int size = a.size;
+        final int length = Math.min(BLOCK_LENGTH,size);
+        final double[] scale = new double[length];
+        final double[] minPivot = new double[length];
+        final double[] w11 = new double[length], w12 = new double[length], w13 = new double[length], w14 = new double[length], w15 = new double[length], w16 = new double[length];
+        final double[] w21 = new double[length], w22 = new double[length], w23 = new double[length], w24 = new double[length], w25 = new double[length], w26 = new double[length];
+        final double[] w31 = new double[length], w32 = new double[length], w33 = new double[length], w34 = new double[length], w35 = new double[length], w36 = new double[length];
+        final double[] w41 = new double[length], w42 = new double[length], w43 = new double[length], w44 = new double[length], w45 = new double[length], w46 = new double[length];
+        final double[] w51 = new double[length], w52 = new double[length], w53 = new double[length], w54 = new double[length], w55 = new double[length], w56 = new double[length];
+        final double[] w61 = new double[length], w62 = new double[length], w63 = new double[length], w64 = new double[length], w65 = new double[length], w66 = new double[length];
+        final double[] lu = new double[36];
+        final double[] work = new double[36];
+        final int[] pivot = new int[6];
+        int failed = 0;
+        for (int i0 = 0; i0 < size; i0 += BLOCK_LENGTH) {
+            final int n = Math.min(BLOCK_LENGTH,size-i0);
+            for (int i = 0; i < n; i++) {
+                final int j = i0+i;
+                double s = Math.abs(a.a11[j]);
+                s = Math.max(s,Math.abs(a.a12[j]));
+                s = Math.max(s,Math.abs(a.a13[j]));
+                s = Math.max(s,Math.abs(a.a14[j]));
+                s = Math.max(s,Math.abs(a.a15[j]));
+                s = Math.max(s,Math.abs(a.a16[j]));
+                s = Math.max(s,Math.abs(a.a21[j]));
+                s = Math.max(s,Math.abs(a.a22[j]));
+                s = Math.max(s,Math.abs(a.a23[j]));
+                s = Math.max(s,Math.abs(a.a24[j]));
+                s = Math.max(s,Math.abs(a.a25[j]));
+                s = Math.max(s,Math.abs(a.a26[j]));
+                s = Math.max(s,Math.abs(a.a31[j]));
+                s = Math.max(s,Math.abs(a.a32[j]));
+                s = Math.max(s,Math.abs(a.a33[j]));
+                s = Math.max(s,Math.abs(a.a34[j]));
+                s = Math.max(s,Math.abs(a.a35[j]));
+                s = Math.max(s,Math.abs(a.a36[j]));
+                s = Math.max(s,Math.abs(a.a41[j]));
+                s = Math.max(s,Math.abs(a.a42[j]));
+                s = Math.max(s,Math.abs(a.a43[j]));
+                s = Math.max(s,Math.abs(a.a44[j]));
+                s = Math.max(s,Math.abs(a.a45[j]));
+                s = Math.max(s,Math.abs(a.a46[j]));
+                s = Math.max(s,Math.abs(a.a51[j]));
+                s = Math.max(s,Math.abs(a.a52[j]));
+                s = Math.max(s,Math.abs(a.a53[j]));
+                s = Math.max(s,Math.abs(a.a54[j]));
+                s = Math.max(s,Math.abs(a.a55[j]));
+                s = Math.max(s,Math.abs(a.a56[j]));
+                s = Math.max(s,Math.abs(a.a61[j]));
+                s = Math.max(s,Math.abs(a.a62[j]));
+                s = Math.max(s,Math.abs(a.a63[j]));
+                s = Math.max(s,Math.abs(a.a64[j]));
+                s = Math.max(s,Math.abs(a.a65[j]));
+                s = Math.max(s,Math.abs(a.a66[j]));
+                s = 1.0/s;
+                scale[i] = s;
+                minPivot[i] = Double.MAX_VALUE;
+                w11[i] = a.a11[j]*s;
+                w12[i] = a.a12[j]*s;
+                w13[i] = a.a13[j]*s;
+                w14[i] = a.a14[j]*s;
+                w15[i] = a.a15[j]*s;
+                w16[i] = a.a16[j]*s;
+                w21[i] = a.a21[j]*s;
+                w22[i] = a.a22[j]*s;
+                w23[i] = a.a23[j]*s;
+                w24[i] = a.a24[j]*s;
+                w25[i] = a.a25[j]*s;
+                w26[i] = a.a26[j]*s;
+                w31[i] = a.a31[j]*s;
+                w32[i] = a.a32[j]*s;
+                w33[i] = a.a33[j]*s;
+                w34[i] = a.a34[j]*s;
+                w35[i] = a.a35[j]*s;
+                w36[i] = a.a36[j]*s;
+                w41[i] = a.a41[j]*s;
+                w42[i] = a.a42[j]*s;
+                w43[i] = a.a43[j]*s;
+                w44[i] = a.a44[j]*s;
+                w45[i] = a.a45[j]*s;
+                w46[i] = a.a46[j]*s;
+                w51[i] = a.a51[j]*s;
+                w52[i] = a.a52[j]*s;
+                w53[i] = a.a53[j]*s;
+                w54[i] = a.a54[j]*s;
+                w55[i] = a.a55[j]*s;
+                w56[i] = a.a56[j]*s;
+                w61[i] = a.a61[j]*s;
+                w62[i] = a.a62[j]*s;
+                w63[i] = a.a63[j]*s;
+                w64[i] = a.a64[j]*s;
+                w65[i] = a.a65[j]*s;
+                w66[i] = a.a66[j]*s;
+            }
+            // eliminate column 1
+            for (int i = 0; i < n; i++) {
+                double p = w11[i];
+                minPivot[i] = Math.min(minPivot[i],Math.abs(p));
+                p = 1.0/p;
+                w11[i] = p;
+                w12[i] *= p;
+                w13[i] *= p;
+                w14[i] *= p;
+                w15[i] *= p;
+                w16[i] *= p;
+            }
+            for (int i = 0; i < n; i++) {
+                double f = w21[i];
+                w21[i] = -f*w11[i];
+                w22[i] -= f*w12[i];
+                w23[i] -= f*w13[i];
+                w24[i] -= f*w14[i];
+                w25[i] -= f*w15[i];
+                w26[i] -= f*w16[i];
+            }
+            for (int i = 0; i < n; i++) {
+                double f = w31[i];
+                w31[i] = -f*w11[i];
+                w32[i] -= f*w12[i];
+                w33[i] -= f*w13[i];
+                w34[i] -= f*w14[i];
+                w35[i] -= f*w15[i];
+                w36[i] -= f*w16[i];
+            }
+            for (int i = 0; i < n; i++) {
+                double f = w41[i];
+                w41[i] = -f*w11[i];
+                w42[i] -= f*w12[i];
+                w43[i] -= f*w13[i];
+                w44[i] -= f*w14[i];
+                w45[i] -= f*w15[i];
+                w46[i] -= f*w16[i];
+            }
+            for (int i = 0; i < n; i++) {
+                double f = w51[i];
+                w51[i] = -f*w11[i];
+                w52[i] -= f*w12[i];
+                w53[i] -= f*w13[i];
+                w54[i] -= f*w14[i];
+                w55[i] -= f*w15[i];
+                w56[i] -= f*w16[i];
+            }
+            for (int i = 0; i < n; i++) {
+                double f = w61[i];
+                w61[i] = -f*w11[i];
+                w62[i] -= f*w12[i];
+                w63[i] -= f*w13[i];
+                w64[i] -= f*w14[i];
+                w65[i] -= f*w15[i];
+                w66[i] -= f*w16[i];
+            }
+            // eliminate column 2
+            for (int i = 0; i < n; i++) {
+                double p = w22[i];
+                minPivot[i] = Math.min(minPivot[i],Math.abs(p));
+                p = 1.0/p;
+                w22[i] = p;
+                w21[i] *= p;
+                w23[i] *= p;
+                w24[i] *= p;
+                w25[i] *= p;
+                w26[i] *= p;
+            }
+            for (int i = 0; i < n; i++) {
+                double f = w12[i];
+                w12[i] = -f*w22[i];
+                w11[i] -= f*w21[i];
+                w13[i] -= f*w23[i];
+                w14[i] -= f*w24[i];
+                w15[i] -= f*w25[i];
+                w16[i] -= f*w26[i];
+            }
+            for (int i = 0; i < n; i++) {
+                double f = w32[i];
+                w32[i] = -f*w22[i];
+                w31[i] -= f*w21[i];
+                w33[i] -= f*w23[i];
+                w34[i] -= f*w24[i];
+                w35[i] -= f*w25[i];
+                w36[i] -= f*w26[i];
+            }
+            for (int i = 0; i < n; i++) {
+                double f = w42[i];
+                w42[i] = -f*w22[i];
+                w41[i] -= f*w21[i];
+                w43[i] -= f*w23[i];
+                w44[i] -= f*w24[i];
+                w45[i] -= f*w25[i];
+                w46[i] -= f*w26[i];
+            }
+            for (int i = 0; i < n; i++) {
+                double f = w52[i];
+                w52[i] = -f*w22[i];
+                w51[i] -= f*w21[i];
+                w53[i] -= f*w23[i];
+                w54[i] -= f*w24[i];
+                w55[i] -= f*w25[i];
+                w56[i] -= f*w26[i];
+            }
+            for (int i = 0; i < n; i++) {
+                double f = w62[i];
+                w62[i] = -f*w22[i];
+                w61[i] -= f*w21[i];
+                w63[i] -= f*w23[i];
+                w64[i] -= f*w24[i];
+                w65[i] -= f*w25[i];
+                w66[i] -= f*w26[i];
+            }
+            // eliminate column 3
+            for (int i = 0; i < n; i++) {
+                double p = w33[i];
+                minPivot[i] = Math.min(minPivot[i],Math.abs(p));
+                p = 1.0/p;
+                w33[i] = p;
+                w31[i] *= p;
+                w32[i] *= p;
+                w34[i] *= p;
+                w35[i] *= p;
+                w36[i] *= p;
+            }
+            for (int i = 0; i < n; i++) {
+                double f = w13[i];
+                w13[i] = -f*w33[i];
+                w11[i] -= f*w31[i];
+                w12[i] -= f*w32[i];
+                w14[i] -= f*w34[i];
+                w15[i] -= f*w35[i];
+                w16[i] -= f*w36[i];
+            }
+            for (int i = 0; i < n; i++) {
+                double f = w23[i];
+                w23[i] = -f*w33[i];
+                w21[i] -= f*w31[i];
+                w22[i] -= f*w32[i];
+                w24[i] -= f*w34[i];
+                w25[i] -= f*w35[i];
+                w26[i] -= f*w36[i];
+            }
+            for (int i = 0; i < n; i++) {
+                double f = w43[i];
+                w43[i] = -f*w33[i];
+                w41[i] -= f*w31[i];
+                w42[i] -= f*w32[i];
+                w44[i] -= f*w34[i];
+                w45[i] -= f*w35[i];
+                w46[i] -= f*w36[i];
+            }
+            for (int i = 0; i < n; i++) {
+                double f = w53[i];
+                w53[i] = -f*w33[i];
+                w51[i] -= f*w31[i];
+                w52[i] -= f*w32[i];
+                w54[i] -= f*w34[i];
+                w55[i] -= f*w35[i];
+                w56[i] -= f*w36[i];
+            }
+            for (int i = 0; i < n; i++) {
+                double f = w63[i];
+                w63[i] = -f*w33[i];
+                w61[i] -= f*w31[i];
+                w62[i] -= f*w32[i];
+                w64[i] -= f*w34[i];
+                w65[i] -= f*w35[i];
+                w66[i] -= f*w36[i];
+            }
+            // eliminate column 4
+            for (int i = 0; i < n; i++) {
+                double p = w44[i];
+                minPivot[i] = Math.min(minPivot[i],Math.abs(p));
+                p = 1.0/p;
+                w44[i] = p;
+                w41[i] *= p;
+                w42[i] *= p;
+                w43[i] *= p;
+                w45[i] *= p;
+                w46[i] *= p;
+            }
+            for (int i = 0; i < n; i++) {
+                double f = w14[i];
+                w14[i] = -f*w44[i];
+                w11[i] -= f*w41[i];
+                w12[i] -= f*w42[i];
+                w13[i] -= f*w43[i];
+                w15[i] -= f*w45[i];
+                w16[i] -= f*w46[i];
+            }
+            for (int i = 0; i < n; i++) {
+                double f = w24[i];
+                w24[i] = -f*w44[i];
+                w21[i] -= f*w41[i];
+                w22[i] -= f*w42[i];
+                w23[i] -= f*w43[i];
+                w25[i] -= f*w45[i];
+                w26[i] -= f*w46[i];
+            }
+            for (int i = 0; i < n; i++) {
+                double f = w34[i];
+                w34[i] = -f*w44[i];
+                w31[i] -= f*w41[i];
+                w32[i] -= f*w42[i];
+                w33[i] -= f*w43[i];
+                w35[i] -= f*w45[i];
+                w36[i] -= f*w46[i];
+            }
+            for (int i = 0; i < n; i++) {
+                double f = w54[i];
+                w54[i] = -f*w44[i];
+                w51[i] -= f*w41[i];
+                w52[i] -= f*w42[i];
+                w53[i] -= f*w43[i];
+                w55[i] -= f*w45[i];
+                w56[i] -= f*w46[i];
+            }
+            for (int i = 0; i < n; i++) {
+                double f = w64[i];
+                w64[i] = -f*w44[i];
+                w61[i] -= f*w41[i];
+                w62[i] -= f*w42[i];
+                w63[i] -= f*w43[i];
+                w65[i] -= f*w45[i];
+                w66[i] -= f*w46[i];
+            }
+            // eliminate column 5
+            for (int i = 0; i < n; i++) {
+                double p = w55[i];
+                minPivot[i] = Math.min(minPivot[i],Math.abs(p));
+                p = 1.0/p;
+                w55[i] = p;
+                w51[i] *= p;
+                w52[i] *= p;
+                w53[i] *= p;
+                w54[i] *= p;
+                w56[i] *= p;
+            }
+            for (int i = 0; i < n; i++) {
+                double f = w15[i];
+                w15[i] = -f*w55[i];
+                w11[i] -= f*w51[i];
+                w12[i] -= f*w52[i];
+                w13[i] -= f*w53[i];
+                w14[i] -= f*w54[i];
+                w16[i] -= f*w56[i];
+            }
+            for (int i = 0; i < n; i++) {
+                double f = w25[i];
+                w25[i] = -f*w55[i];
+                w21[i] -= f*w51[i];
+                w22[i] -= f*w52[i];
+                w23[i] -= f*w53[i];
+                w24[i] -= f*w54[i];
+                w26[i] -= f*w56[i];
+            }
+            for (int i = 0; i < n; i++) {
+                double f = w35[i];
+                w35[i] = -f*w55[i];
+                w31[i] -= f*w51[i];
+                w32[i] -= f*w52[i];
+                w33[i] -= f*w53[i];
+                w34[i] -= f*w54[i];
+                w36[i] -= f*w56[i];
+            }
+            for (int i = 0; i < n; i++) {
+                double f = w45[i];
+                w45[i] = -f*w55[i];
+                w41[i] -= f*w51[i];
+                w42[i] -= f*w52[i];
+                w43[i] -= f*w53[i];
+                w44[i] -= f*w54[i];
+                w46[i] -= f*w56[i];
+            }
+            for (int i = 0; i < n; i++) {
+                double f = w65[i];
+                w65[i] = -f*w55[i];
+                w61[i] -= f*w51[i];
+                w62[i] -= f*w52[i];
+                w63[i] -= f*w53[i];
+                w64[i] -= f*w54[i];
+                w66[i] -= f*w56[i];
+            }
+            // eliminate column 6
+            for (int i = 0; i < n; i++) {
+                double p = w66[i];
+                minPivot[i] = Math.min(minPivot[i],Math.abs(p));
+                p = 1.0/p;
+                w66[i] = p;
+                w61[i] *= p;
+                w62[i] *= p;
+                w63[i] *= p;
+                w64[i] *= p;
+                w65[i] *= p;
+            }
+            for (int i = 0; i < n; i++) {
+                double f = w16[i];
+                w16[i] = -f*w66[i];
+                w11[i] -= f*w61[i];
+                w12[i] -= f*w62[i];
+                w13[i] -= f*w63[i];
+                w14[i] -= f*w64[i];
+                w15[i] -= f*w65[i];
+            }
+            for (int i = 0; i < n; i++) {
+                double f = w26[i];
+                w26[i] = -f*w66[i];
+                w21[i] -= f*w61[i];
+                w22[i] -= f*w62[i];
+                w23[i] -= f*w63[i];
+                w24[i] -= f*w64[i];
+                w25[i] -= f*w65[i];
+            }
+            for (int i = 0; i < n; i++) {
+                double f = w36[i];
+                w36[i] = -f*w66[i];
+                w31[i] -= f*w61[i];
+                w32[i] -= f*w62[i];
+                w33[i] -= f*w63[i];
+                w34[i] -= f*w64[i];
+                w35[i] -= f*w65[i];
+            }
+            for (int i = 0; i < n; i++) {
+                double f = w46[i];
+                w46[i] = -f*w66[i];
+                w41[i] -= f*w61[i];
+                w42[i] -= f*w62[i];
+                w43[i] -= f*w63[i];
+                w44[i] -= f*w64[i];
+                w45[i] -= f*w65[i];
+            }
+            for (int i = 0; i < n; i++) {
+                double f = w56[i];
+                w56[i] = -f*w66[i];
+                w51[i] -= f*w61[i];
+                w52[i] -= f*w62[i];
+                w53[i] -= f*w63[i];
+                w54[i] -= f*w64[i];
+                w55[i] -= f*w65[i];
+            }
+
+            // redo matrices with small pivots using partial pivoting. inv(a) = inv(a*scale)*scale
+            for (int i = 0; i < n; i++) {
+                if( minPivot[i] > PIVOT_TOL )
+                    continue;
+                final int j = i0+i;
+                lu[0] = a.a11[j]; lu[1] = a.a12[j]; lu[2] = a.a13[j]; lu[3] = a.a14[j]; lu[4] = a.a15[j]; lu[5] = a.a16[j];
+                lu[6] = a.a21[j]; lu[7] = a.a22[j]; lu[8] = a.a23[j]; lu[9] = a.a24[j]; lu[10] = a.a25[j]; lu[11] = a.a26[j];
+                lu[12] = a.a31[j]; lu[13] = a.a32[j]; lu[14] = a.a33[j]; lu[15] = a.a34[j]; lu[16] = a.a35[j]; lu[17] = a.a36[j];
+                lu[18] = a.a41[j]; lu[19] = a.a42[j]; lu[20] = a.a43[j]; lu[21] = a.a44[j]; lu[22] = a.a45[j]; lu[23] = a.a46[j];
+                lu[24] = a.a51[j]; lu[25] = a.a52[j]; lu[26] = a.a53[j]; lu[27] = a.a54[j]; lu[28] = a.a55[j]; lu[29] = a.a56[j];
+                lu[30] = a.a61[j]; lu[31] = a.a62[j]; lu[32] = a.a63[j]; lu[33] = a.a64[j]; lu[34] = a.a65[j]; lu[35] = a.a66[j];
+                double det = decomposeLU(lu,pivot);
+                invertLU(lu,pivot,work);
+                if( det == 0 || UtilEjml.isUncountable(det) )
+                    failed++;
+                scale[i] = 1;
+                w11[i] = work[0]; w12[i] = work[1]; w13[i] = work[2]; w14[i] = work[3]; w15[i] = work[4]; w16[i] = work[5];
+                w21[i] = work[6]; w22[i] = work[7]; w23[i] = work[8]; w24[i] = work[9]; w25[i] = work[10]; w26[i] = work[11];
+                w31[i] = work[12]; w32[i] = work[13]; w33[i] = work[14]; w34[i] = work[15]; w35[i] = work[16]; w36[i] = work[17];
+                w41[i] = work[18]; w42[i] = work[19]; w43[i] = work[20]; w44[i] = work[21]; w45[i] = work[22]; w46[i] = work[23];
+                w51[i] = work[24]; w52[i] = work[25]; w53[i] = work[26]; w54[i] = work[27]; w55[i] = work[28]; w56[i] = work[29];
+                w61[i] = work[30]; w62[i] = work[31]; w63[i] = work[32]; w64[i] = work[33]; w65[i] = work[34]; w66[i] = work[35];
+            }
+
+            for (int i = 0; i < n; i++) {
+                final double s = scale[i];
+                inv.a11[i0+i] = w11[i]*s;
+                inv.a12[i0+i] = w12[i]*s;
+                inv.a13[i0+i] = w13[i]*s;
+                inv.a14[i0+i] = w14[i]*s;
+                inv.a15[i0+i] = w15[i]*s;
+                inv.a16[i0+i] = w16[i]*s;
+                inv.a21[i0+i] = w21[i]*s;
+                inv.a22[i0+i] = w22[i]*s;
+                inv.a23[i0+i] = w23[i]*s;
+                inv.a24[i0+i] = w24[i]*s;
+                inv.a25[i0+i] = w25[i]*s;
+                inv.a26[i0+i] = w26[i]*s;
+                inv.a31[i0+i] = w31[i]*s;
+                inv.a32[i0+i] = w32[i]*s;
+                inv.a33[i0+i] = w33[i]*s;
+                inv.a34[i0+i] = w34[i]*s;
+                inv.a35[i0+i] = w35[i]*s;
+                inv.a36[i0+i] = w36[i]*s;
+                inv.a41[i0+i] = w41[i]*s;
+                inv.a42[i0+i] = w42[i]*s;
+                inv.a43[i0+i] = w43[i]*s;
+                inv.a44[i0+i] = w44[i]*s;
+                inv.a45[i0+i] = w45[i]*s;
+                inv.a46[i0+i] = w46[i]*s;
+                inv.a51[i0+i] = w51[i]*s;
+                inv.a52[i0+i] = w52[i]*s;
+                inv.a53[i0+i] = w53[i]*s;
+                inv.a54[i0+i] = w54[i]*s;
+                inv.a55[i0+i] = w55[i]*s;
+                inv.a56[i0+i] = w56[i]*s;
+                inv.a61[i0+i] = w61[i]*s;
+                inv.a62[i0+i] = w62[i]*s;
+                inv.a63[i0+i] = w63[i]*s;
+                inv.a64[i0+i] = w64[i]*s;
+                inv.a65[i0+i] = w65[i]*s;
+                inv.a66[i0+i] = w66[i]*s;
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Computes the determinant of each matrix.  The batch is processed in blocks of {@link #BLOCK_LENGTH}
+     * matrices using Gaussian elimination without pivoting.  Each step of the elimination is a loop
+     * through the block without branches, so it can be vectorized.  Matrices with a pivot smaller than
+     * {@link #PIVOT_TOL} are computed again one at a time using LU decomposition with partial pivoting.
+     *
+     * @param mat Input batch.  Not modified.
+     * @param output (Optional) Storage for the determinants. If null or too small a new array is created.
+     * @return The determinant of each matrix.
+     */
+    public static double[] det( DMatrix6x6Batch mat , double[] output ) {
+        final int size = mat.size;
+        if( output == null || output.length < size )
+            output = new double[size];
+        final int length = Math.min(BLOCK_LENGTH,size);
+        final double[] scale = new double[length];
+        final double[] minPivot = new double[length];
+        final double[] w11 = new double[length], w12 = new double[length], w13 = new double[length], w14 = new double[length], w15 = new double[length], w16 = new double[length];
+        final double[] w21 = new double[length], w22 = new double[length], w23 = new double[length], w24 = new double[length], w25 = new double[length], w26 = new double[length];
+        final double[] w31 = new double[length], w32 = new double[length], w33 = new double[length], w34 = new double[length], w35 = new double[length], w36 = new double[length];
+        final double[] w41 = new double[length], w42 = new double[length], w43 = new double[length], w44 = new double[length], w45 = new double[length], w46 = new double[length];
+        final double[] w51 = new double[length], w52 = new double[length], w53 = new double[length], w54 = new double[length], w55 = new double[length], w56 = new double[length];
+        final double[] w61 = new double[length], w62 = new double[length], w63 = new double[length], w64 = new double[length], w65 = new double[length], w66 = new double[length];
+        final double[] det = new double[length];
+        final double[] recip = new double[length];
+        final double[] lu = new double[36];
+        final int[] pivot = new int[6];
+        for (int i0 = 0; i0 < size; i0 += BLOCK_LENGTH) {
+            final int n = Math.min(BLOCK_LENGTH,size-i0);
+            for (int i = 0; i < n; i++) {
+                final int j = i0+i;
+                double s = Math.abs(mat.a11[j]);
+                s = Math.max(s,Math.abs(mat.a12[j]));
+                s = Math.max(s,Math.abs(mat.a13[j]));
+                s = Math.max(s,Math.abs(mat.a14[j]));
+                s = Math.max(s,Math.abs(mat.a15[j]));
+                s = Math.max(s,Math.abs(mat.a16[j]));
+                s = Math.max(s,Math.abs(mat.a21[j]));
+                s = Math.max(s,Math.abs(mat.a22[j]));
+                s = Math.max(s,Math.abs(mat.a23[j]));
+                s = Math.max(s,Math.abs(mat.a24[j]));
+                s = Math.max(s,Math.abs(mat.a25[j]));
+                s = Math.max(s,Math.abs(mat.a26[j]));
+                s = Math.max(s,Math.abs(mat.a31[j]));
+                s = Math.max(s,Math.abs(mat.a32[j]));
+                s = Math.max(s,Math.abs(mat.a33[j]));
+                s = Math.max(s,Math.abs(mat.a34[j]));
+                s = Math.max(s,Math.abs(mat.a35[j]));
+                s = Math.max(s,Math.abs(mat.a36[j]));
+                s = Math.max(s,Math.abs(mat.a41[j]));
+                s = Math.max(s,Math.abs(mat.a42[j]));
+                s = Math.max(s,Math.abs(mat.a43[j]));
+                s = Math.max(s,Math.abs(mat.a44[j]));
+                s = Math.max(s,Math.abs(mat.a45[j]));
+                s = Math.max(s,Math.abs(mat.a46[j]));
+                s = Math.max(s,Math.abs(mat.a51[j]));
+                s = Math.max(s,Math.abs(mat.a52[j]));
+                s = Math.max(s,Math.abs(mat.a53[j]));
+                s = Math.max(s,Math.abs(mat.a54[j]));
+                s = Math.max(s,Math.abs(mat.a55[j]));
+                s = Math.max(s,Math.abs(mat.a56[j]));
+                s = Math.max(s,Math.abs(mat.a61[j]));
+                s = Math.max(s,Math.abs(mat.a62[j]));
+                s = Math.max(s,Math.abs(mat.a63[j]));
+                s = Math.max(s,Math.abs(mat.a64[j]));
+                s = Math.max(s,Math.abs(mat.a65[j]));
+                s = Math.max(s,Math.abs(mat.a66[j]));
+                s = 1.0/s;
+                scale[i] = s;
+                minPivot[i] = Double.MAX_VALUE;
+                w11[i] = mat.a11[j]*s;
+                w12[i] = mat.a12[j]*s;
+                w13[i] = mat.a13[j]*s;
+                w14[i] = mat.a14[j]*s;
+                w15[i] = mat.a15[j]*s;
+                w16[i] = mat.a16[j]*s;
+                w21[i] = mat.a21[j]*s;
+                w22[i] = mat.a22[j]*s;
+                w23[i] = mat.a23[j]*s;
+                w24[i] = mat.a24[j]*s;
+                w25[i] = mat.a25[j]*s;
+                w26[i] = mat.a26[j]*s;
+                w31[i] = mat.a31[j]*s;
+                w32[i] = mat.a32[j]*s;
+                w33[i] = mat.a33[j]*s;
+                w34[i] = mat.a34[j]*s;
+                w35[i] = mat.a35[j]*s;
+                w36[i] = mat.a36[j]*s;
+                w41[i] = mat.a41[j]*s;
+                w42[i] = mat.a42[j]*s;
+                w43[i] = mat.a43[j]*s;
+                w44[i] = mat.a44[j]*s;
+                w45[i] = mat.a45[j]*s;
+                w46[i] = mat.a46[j]*s;
+                w51[i] = mat.a51[j]*s;
+                w52[i] = mat.a52[j]*s;
+                w53[i] = mat.a53[j]*s;
+                w54[i] = mat.a54[j]*s;
+                w55[i] = mat.a55[j]*s;
+                w56[i] = mat.a56[j]*s;
+                w61[i] = mat.a61[j]*s;
+                w62[i] = mat.a62[j]*s;
+                w63[i] = mat.a63[j]*s;
+                w64[i] = mat.a64[j]*s;
+                w65[i] = mat.a65[j]*s;
+                w66[i] = mat.a66[j]*s;
+            }
+            for (int i = 0; i < n; i++) {
+                det[i] = 1;
+            }
+            // eliminate column 1
+            for (int i = 0; i < n; i++) {
+                double p = w11[i];
+                minPivot[i] = Math.min(minPivot[i],Math.abs(p));
+                det[i] *= p;
+                recip[i] = 1.0/p;
+            }
+            for (int i = 0; i < n; i++) {
+                double f = w21[i]*recip[i];
+                w22[i] -= f*w12[i];
+                w23[i] -= f*w13[i];
+                w24[i] -= f*w14[i];
+                w25[i] -= f*w15[i];
+                w26[i] -= f*w16[i];
+            }
+            for (int i = 0; i < n; i++) {
+                double f = w31[i]*recip[i];
+                w32[i] -= f*w12[i];
+                w33[i] -= f*w13[i];
+                w34[i] -= f*w14[i];
+                w35[i] -= f*w15[i];
+                w36[i] -= f*w16[i];
+            }
+            for (int i = 0; i < n; i++) {
+                double f = w41[i]*recip[i];
+                w42[i] -= f*w12[i];
+                w43[i] -= f*w13[i];
+                w44[i] -= f*w14[i];
+                w45[i] -= f*w15[i];
+                w46[i] -= f*w16[i];
+            }
+            for (int i = 0; i < n; i++) {
+                double f = w51[i]*recip[i];
+                w52[i] -= f*w12[i];
+                w53[i] -= f*w13[i];
+                w54[i] -= f*w14[i];
+                w55[i] -= f*w15[i];
+                w56[i] -= f*w16[i];
+            }
+            for (int i = 0; i < n; i++) {
+                double f = w61[i]*recip[i];
+                w62[i] -= f*w12[i];
+                w63[i] -= f*w13[i];
+                w64[i] -= f*w14[i];
+                w65[i] -= f*w15[i];
+                w66[i] -= f*w16[i];
+            }
+            // eliminate column 2
+            for (int i = 0; i < n; i++) {
+                double p = w22[i];
+                minPivot[i] = Math.min(minPivot[i],Math.abs(p));
+                det[i] *= p;
+                recip[i] = 1.0/p;
+            }
+            for (int i = 0; i < n; i++) {
+                double f = w32[i]*recip[i];
+                w33[i] -= f*w23[i];
+                w34[i] -= f*w24[i];
+                w35[i] -= f*w25[i];
+                w36[i] -= f*w26[i];
+            }
+            for (int i = 0; i < n; i++) {
+                double f = w42[i]*recip[i];
+                w43[i] -= f*w23[i];
+                w44[i] -= f*w24[i];
+                w45[i] -= f*w25[i];
+                w46[i] -= f*w26[i];
+            }
+            for (int i = 0; i < n; i++) {
+                double f = w52[i]*recip[i];
+                w53[i] -= f*w23[i];
+                w54[i] -= f*w24[i];
+                w55[i] -= f*w25[i];
+                w56[i] -= f*w26[i];
+            }
+            for (int i = 0; i < n; i++) {
+                double f = w62[i]*recip[i];
+                w63[i] -= f*w23[i];
+                w64[i] -= f*w24[i];
+                w65[i] -= f*w25[i];
+                w66[i] -= f*w26[i];
+            }
+            // eliminate column 3
+            for (int i = 0; i < n; i++) {
+                double p = w33[i];
+                minPivot[i] = Math.min(minPivot[i],Math.abs(p));
+                det[i] *= p;
+                recip[i] = 1.0/p;
+            }
+            for (int i = 0; i < n; i++) {
+                double f = w43[i]*recip[i];
+                w44[i] -= f*w34[i];
+                w45[i] -= f*w35[i];
+                w46[i] -= f*w36[i];
+            }
+            for (int i = 0; i < n; i++) {
+                double f = w53[i]*recip[i];
+                w54[i] -= f*w34[i];
+                w55[i] -= f*w35[i];
+                w56[i] -= f*w36[i];
+            }
+            for (int i = 0; i < n; i++) {
+                double f = w63[i]*recip[i];
+                w64[i] -= f*w34[i];
+                w65[i] -= f*w35[i];
+                w66[i] -= f*w36[i];
+            }
+            // eliminate column 4
+            for (int i = 0; i < n; i++) {
+                double p = w44[i];
+                minPivot[i] = Math.min(minPivot[i],Math.abs(p));
+                det[i] *= p;
+                recip[i] = 1.0/p;
+            }
+            for (int i = 0; i < n; i++) {
+                double f = w54[i]*recip[i];
+                w55[i] -= f*w45[i];
+                w56[i] -= f*w46[i];
+            }
+            for (int i = 0; i < n; i++) {
+                double f = w64[i]*recip[i];
+                w65[i] -= f*w45[i];
+                w66[i] -= f*w46[i];
+            }
+            // eliminate column 5
+            for (int i = 0; i < n; i++) {
+                double p = w55[i];
+                minPivot[i] = Math.min(minPivot[i],Math.abs(p));
+                det[i] *= p;
+                recip[i] = 1.0/p;
+            }
+            for (int i = 0; i < n; i++) {
+                double f = w65[i]*recip[i];
+                w66[i] -= f*w56[i];
+            }
+            // det(mat) = det(mat*scale)/scale^6
+            for (int i = 0; i < n; i++) {
+                double p = w66[i];
+                minPivot[i] = Math.min(minPivot[i],Math.abs(p));
+                double s = scale[i];
+                output[i0+i] = det[i]*p/(s*s*s*s*s*s);
+            }
+
+            // redo matrices with small pivots using partial pivoting
+            for (int i = 0; i < n; i++) {
+                if( minPivot[i] > PIVOT_TOL )
+                    continue;
+                final int j = i0+i;
+                lu[0] = mat.a11[j]; lu[1] = mat.a12[j]; lu[2] = mat.a13[j]; lu[3] = mat.a14[j]; lu[4] = mat.a15[j]; lu[5] = mat.a16[j];
+                lu[6] = mat.a21[j]; lu[7] = mat.a22[j]; lu[8] = mat.a23[j]; lu[9] = mat.a24[j]; lu[10] = mat.a25[j]; lu[11] = mat.a26[j];
+                lu[12] = mat.a31[j]; lu[13] = mat.a32[j]; lu[14] = mat.a33[j]; lu[15] = mat.a34[j]; lu[16] = mat.a35[j]; lu[17] = mat.a36[j];
+                lu[18] = mat.a41[j]; lu[19] = mat.a42[j]; lu[20] = mat.a43[j]; lu[21] = mat.a44[j]; lu[22] = mat.a45[j]; lu[23] = mat.a46[j];
+                lu[24] = mat.a51[j]; lu[25] = mat.a52[j]; lu[26] = mat.a53[j]; lu[27] = mat.a54[j]; lu[28] = mat.a55[j]; lu[29] = mat.a56[j];
+                lu[30] = mat.a61[j]; lu[31] = mat.a62[j]; lu[32] = mat.a63[j]; lu[33] = mat.a64[j]; lu[34] = mat.a65[j]; lu[35] = mat.a66[j];
+                output[j] = decomposeLU(lu,pivot);
+            }
+        }
+        return output;
+    }
+
+    /**
+     * Performs a lower Cholesky decomposition of each matrix in 'A' and stores result in A.
+     *
+     * @param A (Input) SPD Matrices. (Output) lower cholesky.
+     * @return Number of matrices where the decomposition failed.  Not always reliable.
+     */
+    public static int cholL( DMatrix6x6Batch A ) {
+        final int size = A.size;
+        int failed = 0;
+        for (int i = 0; i < size; i++) {
+            A.a11[i] = Math.sqrt(A.a11[i]);
+            A.a12[i] = 0;
+            A.a13[i] = 0;
+            A.a14[i] = 0;
+            A.a15[i] = 0;
+            A.a16[i] = 0;
+            A.a21[i] = (A.a21[i])/A.a11[i];
+            A.a22[i] = Math.sqrt(A.a22[i]-A.a21[i]*A.a21[i]);
+            A.a23[i] = 0;
+            A.a24[i] = 0;
+            A.a25[i] = 0;
+            A.a26[i] = 0;
+            A.a31[i] = (A.a31[i])/A.a11[i];
+            A.a32[i] = (A.a32[i]-A.a31[i]*A.a21[i])/A.a22[i];
+            A.a33[i] = Math.sqrt(A.a33[i]-A.a31[i]*A.a31[i]-A.a32[i]*A.a32[i]);
+            A.a34[i] = 0;
+            A.a35[i] = 0;
+            A.a36[i] = 0;
+            A.a41[i] = (A.a41[i])/A.a11[i];
+            A.a42[i] = (A.a42[i]-A.a41[i]*A.a21[i])/A.a22[i];
+            A.a43[i] = (A.a43[i]-A.a41[i]*A.a31[i]-A.a42[i]*A.a32[i])/A.a33[i];
+            A.a44[i] = Math.sqrt(A.a44[i]-A.a41[i]*A.a41[i]-A.a42[i]*A.a42[i]-A.a43[i]*A.a43[i]);
+            A.a45[i] = 0;
+            A.a46[i] = 0;
+            A.a51[i] = (A.a51[i])/A.a11[i];
+            A.a52[i] = (A.a52[i]-A.a51[i]*A.a21[i])/A.a22[i];
+            A.a53[i] = (A.a53[i]-A.a51[i]*A.a31[i]-A.a52[i]*A.a32[i])/A.a33[i];
+            A.a54[i] = (A.a54[i]-A.a51[i]*A.a41[i]-A.a52[i]*A.a42[i]-A.a53[i]*A.a43[i])/A.a44[i];
+            A.a55[i] = Math.sqrt(A.a55[i]-A.a51[i]*A.a51[i]-A.a52[i]*A.a52[i]-A.a53[i]*A.a53[i]-A.a54[i]*A.a54[i]);
+            A.a56[i] = 0;
+            A.a61[i] = (A.a61[i])/A.a11[i];
+            A.a62[i] = (A.a62[i]-A.a61[i]*A.a21[i])/A.a22[i];
+            A.a63[i] = (A.a63[i]-A.a61[i]*A.a31[i]-A.a62[i]*A.a32[i])/A.a33[i];
+            A.a64[i] = (A.a64[i]-A.a61[i]*A.a41[i]-A.a62[i]*A.a42[i]-A.a63[i]*A.a43[i])/A.a44[i];
+            A.a65[i] = (A.a65[i]-A.a61[i]*A.a51[i]-A.a62[i]*A.a52[i]-A.a63[i]*A.a53[i]-A.a64[i]*A.a54[i])/A.a55[i];
+            A.a66[i] = Math.sqrt(A.a66[i]-A.a61[i]*A.a61[i]-A.a62[i]*A.a62[i]-A.a63[i]*A.a63[i]-A.a64[i]*A.a64[i]-A.a65[i]*A.a65[i]);
+            if( UtilEjml.isUncountable(A.a66[i]) )
+                failed++;
+        }
+        return failed;
+    }
+
+    /**
+     * <p>
+     * This computes the trace of each matrix:<br>
+     * <br>
+     * trace = &sum;<sub>i=1:n</sub> { a<sub>ii</sub> }
+     * </p>
+     *
+     * @param a Input batch.  Not modified.
+     * @param output (Optional) Storage for the traces. If null or too small a new array is created.
+     * @return The trace of each matrix.
+     */
+    public static double[] trace( DMatrix6x6Batch a , double[] output ) {
+        final int size = a.size;
+        if( output == null || output.length < size )
+            output = new double[size];
+        for (int i = 0; i < size; i++) {
+            output[i] = a.a11[i] + a.a22[i] + a.a33[i] + a.a44[i] + a.a55[i] + a.a66[i];
+        }
+        return output;
+    }
+
+    private static void add( double[] a , double[] b , double[] c , int size ) {
+        for (int i = 0; i < size; i++) {
+            c[i] = a[i] + b[i];
+        }
+    }
+
+    private static void subtract( double[] a , double[] b , double[] c , int size ) {
+        for (int i = 0; i < size; i++) {
+            c[i] = a[i] - b[i];
+        }
+    }
+
+    private static void scale( double alpha , double[] a , double[] b , int size ) {
+        for (int i = 0; i < size; i++) {
+            b[i] = alpha*a[i];
+        }
+    }
+
+    /**
+     * Decomposes the row-major matrix in place into P*A = L*U using partial pivoting.  L has ones along
+     * the diagonal which are not saved.  Row k was swapped with row pivot[k].
+     *
+     * @return The determinant
+     */
+    private static double decomposeLU( double[] lu , int[] pivot ) {
+        double det = 1;
+        for (int k = 0; k < 6; k++) {
+            int p = k;
+            double max = Math.abs(lu[k*6+k]);
+            for (int row = k+1; row < 6; row++) {
+                double v = Math.abs(lu[row*6+k]);
+                if( v > max ) {
+                    max = v;
+                    p = row;
+                }
+            }
+            pivot[k] = p;
+            if( p != k ) {
+                swapRows(lu,k,p);
+                det = -det;
+            }
+            double diag = lu[k*6+k];
+            det *= diag;
+            // the column is zero below the diagonal when singular, so there is nothing to eliminate
+            if( diag == 0 )
+                continue;
+            for (int row = k+1; row < 6; row++) {
+                double f = lu[row*6+k] /= diag;
+                for (int col = k+1; col < 6; col++) {
+                    lu[row*6+col] -= f*lu[k*6+col];
+                }
+            }
+        }
+        return det;
+    }
+
+    /**
+     * Computes the inverse from the output of {@link #decomposeLU} by solving for each column of the
+     * identity matrix
+     */
+    private static void invertLU( double[] lu , int[] pivot , double[] inv ) {
+        for (int i = 0; i < 36; i++) {
+            inv[i] = 0;
+        }
+        for (int k = 0; k < 6; k++) {
+            inv[k*6+k] = 1;
+        }
+        for (int k = 0; k < 6; k++) {
+            if( pivot[k] != k )
+                swapRows(inv,k,pivot[k]);
+        }
+        // L*Y = P
+        for (int row = 1; row < 6; row++) {
+            for (int k = 0; k < row; k++) {
+                double f = lu[row*6+k];
+                for (int col = 0; col < 6; col++) {
+                    inv[row*6+col] -= f*inv[k*6+col];
+                }
+            }
+        }
+        // U*X = Y
+        for (int row = 5; row >= 0; row--) {
+            for (int k = row+1; k < 6; k++) {
+                double f = lu[row*6+k];
+                for (int col = 0; col < 6; col++) {
+                    inv[row*6+col] -= f*inv[k*6+col];
+                }
+            }
+            double diag = lu[row*6+row];
+            for (int col = 0; col < 6; col++) {
+                inv[row*6+col] /= diag;
+            }
+        }
+    }
+
+    private static void swapRows( double[] m , int rowA , int rowB ) {
+        for (int col = 0; col < 6; col++) {
+            double tmp = m[rowA*6+col];
+            m[rowA*6+col] = m[rowB*6+col];
+            m[rowB*6+col] = tmp;
+        }
+    }
+
+    private static void checkSize( DMatrix6x6Batch a , DMatrix6x6Batch b ) {
+        if( a.size != b.size )
+            throw new MatrixDimensionException("Batches must have the same size. "+a.size+" "+b.size);
+    }
+}
+
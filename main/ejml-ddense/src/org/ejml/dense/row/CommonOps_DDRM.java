@@ -18,22 +18,25 @@
 
 package org.ejml.dense.row;
 
+import org.ejml.EjmlConcurrency;
 import org.ejml.EjmlParameters;
 import org.ejml.LinearSolverSafe;
 import org.ejml.MatrixDimensionException;
 import org.ejml.UtilEjml;
 import org.ejml.data.*;
 import org.ejml.dense.row.decomposition.TriangularSolver_DDRM;
-import org.ejml.dense.row.decomposition.lu.LUDecompositionAlt_DDRM;
+import org.ejml.dense.row.factory.DecompositionFactory_DDRM;
 import org.ejml.dense.row.factory.LinearSolverFactory_DDRM;
 import org.ejml.dense.row.linsol.chol.LinearSolverChol_DDRM;
-import org.ejml.dense.row.linsol.lu.LinearSolverLu_DDRM;
 import org.ejml.dense.row.linsol.svd.SolvePseudoInverseSvd_DDRM;
 import org.ejml.dense.row.misc.*;
 import org.ejml.dense.row.mult.MatrixMatrixMult_DDRM;
+import org.ejml.dense.row.mult.MatrixMatrixMultPacked_DDRM;
+import org.ejml.dense.row.mult.MatrixMatrixMult_MT_DDRM;
 import org.ejml.dense.row.mult.MatrixMultProduct_DDRM;
 import org.ejml.dense.row.mult.MatrixVectorMult_DDRM;
 import org.ejml.dense.row.mult.VectorVectorMult_DDRM;
+import org.ejml.interfaces.decomposition.LUDecomposition_F64;
 import org.ejml.interfaces.linsol.LinearSolverDense;
 import org.ejml.interfaces.linsol.ReducedRowEchelonForm_F64;
 
@@ -51,7 +54,16 @@ import static org.ejml.UtilEjml.stringShapes;
  * <p>
  * For more exotic and specialized generic operations see {@link SpecializedOps_DDRM}.
  * </p>
+ * <p>
+ * Matrix multiplications which are larger than {@link EjmlParameters#MULT_PACKED_SWITCH} and have at least
+ * {@link EjmlParameters#MULT_COLUMN_SWITCH} columns in the output use a cache aware packed algorithm.  Narrower
+ * outputs use {@link MatrixMatrixMult_MT_DDRM}.  Either is computed concurrently once it is larger than
+ * {@link EjmlParameters#MULT_CONCURRENT_SWITCH}.  See {@link EjmlConcurrency} for how to configure the number
+ * of threads.
+ * </p>
  * @see MatrixMatrixMult_DDRM
+ * @see MatrixMatrixMult_MT_DDRM
+ * @see MatrixMatrixMultPacked_DDRM
  * @see MatrixVectorMult_DDRM
  * @see SpecializedOps_DDRM
  * @see MatrixFeatures_DDRM
@@ -76,6 +88,10 @@ public class CommonOps_DDRM {
     {
         if( b.numCols == 1 ) {
             MatrixVectorMult_DDRM.mult(a, b, c);
+        } else if( isPackedMult(a,b.numCols) ) {
+            MatrixMatrixMultPacked_DDRM.mult_packed(a, b, c);
+        } else if( isConcurrentMult(a,b.numCols) ) {
+            MatrixMatrixMult_MT_DDRM.mult_small(a,b,c);
         } else if( b.numCols >= EjmlParameters.MULT_COLUMN_SWITCH ) {
             MatrixMatrixMult_DDRM.mult_reorder(a,b,c);
         } else {
@@ -99,7 +115,11 @@ public class CommonOps_DDRM {
     public static void mult(double alpha , DMatrix1Row a , DMatrix1Row b , DMatrix1Row c )
     {
         // TODO add a matrix vectory multiply here
-        if( b.numCols >= EjmlParameters.MULT_COLUMN_SWITCH ) {
+        if( isPackedMult(a,b.numCols) ) {
+            MatrixMatrixMultPacked_DDRM.mult_packed(alpha, a, b, c);
+        } else if( isConcurrentMult(a,b.numCols) ) {
+            MatrixMatrixMult_MT_DDRM.mult_small(alpha, a, b, c);
+        } else if( b.numCols >= EjmlParameters.MULT_COLUMN_SWITCH ) {
             MatrixMatrixMult_DDRM.mult_reorder(alpha, a, b, c);
         } else {
             MatrixMatrixMult_DDRM.mult_small(alpha,a,b,c);
@@ -128,6 +148,14 @@ public class CommonOps_DDRM {
             } else {
                 MatrixVectorMult_DDRM.multTransA_small(a,b,c);
             }
+        } else if( isPackedMult(a,b.numCols) ) {
+            MatrixMatrixMultPacked_DDRM.multTransA_packed(a, b, c);
+        } else if( isConcurrentMult(a,b.numCols) ) {
+            if( a.numCols >= EjmlParameters.MULT_COLUMN_SWITCH ) {
+                MatrixMatrixMult_MT_DDRM.multTransA_reorder(a, b, c);
+            } else {
+                MatrixMatrixMult_MT_DDRM.multTransA_small(a, b, c);
+            }
         } else if( a.numCols >= EjmlParameters.MULT_COLUMN_SWITCH ||
                 b.numCols >= EjmlParameters.MULT_COLUMN_SWITCH  ) {
             MatrixMatrixMult_DDRM.multTransA_reorder(a, b, c);
@@ -152,7 +180,15 @@ public class CommonOps_DDRM {
     public static void multTransA(double alpha , DMatrix1Row a , DMatrix1Row b , DMatrix1Row c )
     {
         // TODO add a matrix vectory multiply here
-        if( a.numCols >= EjmlParameters.MULT_COLUMN_SWITCH ||
+        if( isPackedMult(a,b.numCols) ) {
+            MatrixMatrixMultPacked_DDRM.multTransA_packed(alpha, a, b, c);
+        } else if( isConcurrentMult(a,b.numCols) ) {
+            if( a.numCols >= EjmlParameters.MULT_COLUMN_SWITCH ) {
+                MatrixMatrixMult_MT_DDRM.multTransA_reorder(alpha, a, b, c);
+            } else {
+                MatrixMatrixMult_MT_DDRM.multTransA_small(alpha, a, b, c);
+            }
+        } else if( a.numCols >= EjmlParameters.MULT_COLUMN_SWITCH ||
                 b.numCols >= EjmlParameters.MULT_COLUMN_SWITCH ) {
             MatrixMatrixMult_DDRM.multTransA_reorder(alpha, a, b, c);
         } else {
@@ -176,6 +212,10 @@ public class CommonOps_DDRM {
     {
         if( b.numRows == 1 ) {
             MatrixVectorMult_DDRM.mult(a, b, c);
+        } else if( isPackedMult(a,b.numRows) ) {
+            MatrixMatrixMultPacked_DDRM.multTransB_packed(a, b, c);
+        } else if( isConcurrentMult(a,b.numRows) ) {
+            MatrixMatrixMult_MT_DDRM.multTransB(a, b, c);
         } else {
             MatrixMatrixMult_DDRM.multTransB(a, b, c);
         }
@@ -197,7 +237,13 @@ public class CommonOps_DDRM {
     public static void multTransB(double alpha , DMatrix1Row a , DMatrix1Row b , DMatrix1Row c )
     {
         // TODO add a matrix vectory multiply here
-        MatrixMatrixMult_DDRM.multTransB(alpha,a,b,c);
+        if( isPackedMult(a,b.numRows) ) {
+            MatrixMatrixMultPacked_DDRM.multTransB_packed(alpha, a, b, c);
+        } else if( isConcurrentMult(a,b.numRows) ) {
+            MatrixMatrixMult_MT_DDRM.multTransB(alpha,a,b,c);
+        } else {
+            MatrixMatrixMult_DDRM.multTransB(alpha,a,b,c);
+        }
     }
 
     /**
@@ -221,6 +267,14 @@ public class CommonOps_DDRM {
             } else {
                 MatrixVectorMult_DDRM.multTransA_small(a,b,c);
             }
+        } else if( isPackedMult(a,b.numRows) ) {
+            MatrixMatrixMultPacked_DDRM.multTransAB_packed(a, b, c);
+        } else if( isConcurrentMult(a,b.numRows) ) {
+            if( a.numCols >= EjmlParameters.MULT_TRANAB_COLUMN_SWITCH ) {
+                MatrixMatrixMult_MT_DDRM.multTransAB_aux(a, b, c);
+            } else {
+                MatrixMatrixMult_MT_DDRM.multTransAB(a, b, c);
+            }
         } else if( a.numCols >= EjmlParameters.MULT_TRANAB_COLUMN_SWITCH ) {
             MatrixMatrixMult_DDRM.multTransAB_aux(a, b, c, null);
         } else {
@@ -244,7 +298,15 @@ public class CommonOps_DDRM {
     public static void multTransAB(double alpha , DMatrix1Row a , DMatrix1Row b , DMatrix1Row c )
     {
         // TODO add a matrix vectory multiply here
-        if( a.numCols >= EjmlParameters.MULT_TRANAB_COLUMN_SWITCH ) {
+        if( isPackedMult(a,b.numRows) ) {
+            MatrixMatrixMultPacked_DDRM.multTransAB_packed(alpha, a, b, c);
+        } else if( isConcurrentMult(a,b.numRows) ) {
+            if( a.numCols >= EjmlParameters.MULT_TRANAB_COLUMN_SWITCH ) {
+                MatrixMatrixMult_MT_DDRM.multTransAB_aux(alpha, a, b, c);
+            } else {
+                MatrixMatrixMult_MT_DDRM.multTransAB(alpha, a, b, c);
+            }
+        } else if( a.numCols >= EjmlParameters.MULT_TRANAB_COLUMN_SWITCH ) {
             MatrixMatrixMult_DDRM.multTransAB_aux(alpha, a, b, c, null);
         } else {
             MatrixMatrixMult_DDRM.multTransAB(alpha, a, b, c);
@@ -334,6 +396,10 @@ public class CommonOps_DDRM {
     {
         if( b.numCols == 1 ) {
             MatrixVectorMult_DDRM.multAdd(a, b, c);
+        } else if( isPackedMult(a,b.numCols) ) {
+            MatrixMatrixMultPacked_DDRM.multAdd_packed(a, b, c);
+        } else if( isConcurrentMult(a,b.numCols) ) {
+            MatrixMatrixMult_MT_DDRM.multAdd_small(a,b,c);
         } else {
             if( b.numCols >= EjmlParameters.MULT_COLUMN_SWITCH ) {
                 MatrixMatrixMult_DDRM.multAdd_reorder(a,b,c);
@@ -359,7 +425,11 @@ public class CommonOps_DDRM {
     public static void multAdd(double alpha , DMatrix1Row a , DMatrix1Row b , DMatrix1Row c )
     {
         // TODO add a matrix vectory multiply here
-        if( b.numCols >= EjmlParameters.MULT_COLUMN_SWITCH ) {
+        if( isPackedMult(a,b.numCols) ) {
+            MatrixMatrixMultPacked_DDRM.multAdd_packed(alpha, a, b, c);
+        } else if( isConcurrentMult(a,b.numCols) ) {
+            MatrixMatrixMult_MT_DDRM.multAdd_small(alpha, a, b, c);
+        } else if( b.numCols >= EjmlParameters.MULT_COLUMN_SWITCH ) {
             MatrixMatrixMult_DDRM.multAdd_reorder(alpha, a, b, c);
         } else {
             MatrixMatrixMult_DDRM.multAdd_small(alpha,a,b,c);
@@ -386,6 +456,14 @@ public class CommonOps_DDRM {
             } else {
                 MatrixVectorMult_DDRM.multAddTransA_small(a,b,c);
             }
+        } else if( isPackedMult(a,b.numCols) ) {
+            MatrixMatrixMultPacked_DDRM.multAddTransA_packed(a, b, c);
+        } else if( isConcurrentMult(a,b.numCols) ) {
+            if( a.numCols >= EjmlParameters.MULT_COLUMN_SWITCH ) {
+                MatrixMatrixMult_MT_DDRM.multAddTransA_reorder(a, b, c);
+            } else {
+                MatrixMatrixMult_MT_DDRM.multAddTransA_small(a, b, c);
+            }
         } else {
             if( a.numCols >= EjmlParameters.MULT_COLUMN_SWITCH ||
                     b.numCols >= EjmlParameters.MULT_COLUMN_SWITCH  ) {
@@ -412,7 +490,15 @@ public class CommonOps_DDRM {
     public static void multAddTransA(double alpha , DMatrix1Row a , DMatrix1Row b , DMatrix1Row c )
     {
         // TODO add a matrix vectory multiply here
-        if( a.numCols >= EjmlParameters.MULT_COLUMN_SWITCH ||
+        if( isPackedMult(a,b.numCols) ) {
+            MatrixMatrixMultPacked_DDRM.multAddTransA_packed(alpha, a, b, c);
+        } else if( isConcurrentMult(a,b.numCols) ) {
+            if( a.numCols >= EjmlParameters.MULT_COLUMN_SWITCH ) {
+                MatrixMatrixMult_MT_DDRM.multAddTransA_reorder(alpha, a, b, c);
+            } else {
+                MatrixMatrixMult_MT_DDRM.multAddTransA_small(alpha, a, b, c);
+            }
+        } else if( a.numCols >= EjmlParameters.MULT_COLUMN_SWITCH ||
                 b.numCols >= EjmlParameters.MULT_COLUMN_SWITCH ) {
             MatrixMatrixMult_DDRM.multAddTransA_reorder(alpha, a, b, c);
         } else {
@@ -434,7 +520,13 @@ public class CommonOps_DDRM {
      */
     public static void multAddTransB(DMatrix1Row a , DMatrix1Row b , DMatrix1Row c )
     {
-        MatrixMatrixMult_DDRM.multAddTransB(a,b,c);
+        if( isPackedMult(a,b.numRows) ) {
+            MatrixMatrixMultPacked_DDRM.multAddTransB_packed(a, b, c);
+        } else if( isConcurrentMult(a,b.numRows) ) {
+            MatrixMatrixMult_MT_DDRM.multAddTransB(a,b,c);
+        } else {
+            MatrixMatrixMult_DDRM.multAddTransB(a,b,c);
+        }
     }
 
     /**
@@ -453,7 +545,13 @@ public class CommonOps_DDRM {
     public static void multAddTransB(double alpha , DMatrix1Row a , DMatrix1Row b , DMatrix1Row c )
     {
         // TODO add a matrix vectory multiply here
-        MatrixMatrixMult_DDRM.multAddTransB(alpha,a,b,c);
+        if( isPackedMult(a,b.numRows) ) {
+            MatrixMatrixMultPacked_DDRM.multAddTransB_packed(alpha, a, b, c);
+        } else if( isConcurrentMult(a,b.numRows) ) {
+            MatrixMatrixMult_MT_DDRM.multAddTransB(alpha,a,b,c);
+        } else {
+            MatrixMatrixMult_DDRM.multAddTransB(alpha,a,b,c);
+        }
     }
 
     /**
@@ -477,6 +575,14 @@ public class CommonOps_DDRM {
             } else {
                 MatrixVectorMult_DDRM.multAddTransA_small(a,b,c);
             }
+        } else if( isPackedMult(a,b.numRows) ) {
+            MatrixMatrixMultPacked_DDRM.multAddTransAB_packed(a, b, c);
+        } else if( isConcurrentMult(a,b.numRows) ) {
+            if( a.numCols >= EjmlParameters.MULT_TRANAB_COLUMN_SWITCH ) {
+                MatrixMatrixMult_MT_DDRM.multAddTransAB_aux(a,b,c);
+            } else {
+                MatrixMatrixMult_MT_DDRM.multAddTransAB(a,b,c);
+            }
         } else if( a.numCols >= EjmlParameters.MULT_TRANAB_COLUMN_SWITCH ) {
             MatrixMatrixMult_DDRM.multAddTransAB_aux(a,b,c,null);
         } else {
@@ -500,13 +606,51 @@ public class CommonOps_DDRM {
     public static void multAddTransAB(double alpha , DMatrix1Row a , DMatrix1Row b , DMatrix1Row c )
     {
         // TODO add a matrix vectory multiply here
-        if( a.numCols >= EjmlParameters.MULT_TRANAB_COLUMN_SWITCH ) {
+        if( isPackedMult(a,b.numRows) ) {
+            MatrixMatrixMultPacked_DDRM.multAddTransAB_packed(alpha, a, b, c);
+        } else if( isConcurrentMult(a,b.numRows) ) {
+            if( a.numCols >= EjmlParameters.MULT_TRANAB_COLUMN_SWITCH ) {
+                MatrixMatrixMult_MT_DDRM.multAddTransAB_aux(alpha, a, b, c);
+            } else {
+                MatrixMatrixMult_MT_DDRM.multAddTransAB(alpha, a, b, c);
+            }
+        } else if( a.numCols >= EjmlParameters.MULT_TRANAB_COLUMN_SWITCH ) {
             MatrixMatrixMult_DDRM.multAddTransAB_aux(alpha, a, b, c, null);
         } else {
             MatrixMatrixMult_DDRM.multAddTransAB(alpha, a, b, c);
         }
     }
 
+    /**
+     * Decides if a matrix multiplication should use {@link MatrixMatrixMult_MT_DDRM}.  The number of operations
+     * is the number of elements in 'a' times the number of columns in the output.  Only outputs narrower than
+     * {@link EjmlParameters#MULT_COLUMN_SWITCH} are considered.  Wider outputs are either too small to be worth
+     * running concurrently or are handled by {@link MatrixMatrixMultPacked_DDRM}, which is concurrent itself.
+     *
+     * @param a Left matrix in the multiplication
+     * @param outputCols Number of columns in the output matrix
+     */
+    static boolean isConcurrentMult( DMatrix1Row a , int outputCols ) {
+        if( outputCols >= EjmlParameters.MULT_COLUMN_SWITCH )
+            return false;
+        long operations = (long)a.numRows*a.numCols*outputCols;
+        return EjmlConcurrency.isUseConcurrent(operations,EjmlParameters.MULT_CONCURRENT_SWITCH);
+    }
+
+    /**
+     * Decides if a matrix multiplication should use the packed implementation.  Narrow outputs are excluded since
+     * most of the micro kernel would be wasted on padding.  The decision doesn't depend on concurrency being
+     * enabled, so the results are the same with any number of threads.
+     *
+     * @param a Left matrix in the multiplication
+     * @param outputCols Number of columns in the output matrix
+     */
+    static boolean isPackedMult( DMatrix1Row a , int outputCols ) {
+        long operations = (long)a.numRows*a.numCols*outputCols;
+        return operations >= EjmlParameters.MULT_PACKED_SWITCH &&
+                outputCols >= EjmlParameters.MULT_COLUMN_SWITCH;
+    }
+
     /**
      * <p>
      * Solves for x in the following equation:<br>
@@ -702,7 +846,7 @@ public class CommonOps_DDRM {
                 return mat.get(0);
             }
         } else {
-            LUDecompositionAlt_DDRM alg = new LUDecompositionAlt_DDRM();
+            LUDecomposition_F64<DMatrixRMaj> alg = DecompositionFactory_DDRM.lu(numRow,numCol);
 
             if( alg.inputModified() ) {
                 mat = mat.copy();
@@ -743,8 +887,7 @@ public class CommonOps_DDRM {
                 mat.set(0, 1.0/mat.get(0));
             }
         } else {
-            LUDecompositionAlt_DDRM alg = new LUDecompositionAlt_DDRM();
-            LinearSolverLu_DDRM solver = new LinearSolverLu_DDRM(alg);
+            LinearSolverDense<DMatrixRMaj> solver = LinearSolverFactory_DDRM.lu(mat.numRows);
             if( solver.setA(mat) ) {
                 solver.invert(mat);
             } else {
@@ -791,8 +934,7 @@ public class CommonOps_DDRM {
                 result.set(0,  1.0/mat.get(0));
             }
         } else {
-            LUDecompositionAlt_DDRM alg = new LUDecompositionAlt_DDRM();
-            LinearSolverLu_DDRM solver = new LinearSolverLu_DDRM(alg);
+            LinearSolverDense<DMatrixRMaj> solver = LinearSolverFactory_DDRM.lu(mat.numRows);
 
             if( solver.modifiesA() )
                 mat = mat.copy();
@@ -1535,9 +1677,7 @@ public class CommonOps_DDRM {
 
         int length = a.getNumElements();
 
-        for( int i = 0; i < length; i++ ) {
-            c.set(i, a.get(i) * b.get(i));
-        }
+        ArrayKernels_DDRM.IMPL.elementMult(a.data,b.data,c.data,length);
     }
 
     /**
@@ -1579,9 +1719,7 @@ public class CommonOps_DDRM {
 
         int length = a.getNumElements();
 
-        for( int i = 0; i < length; i++ ) {
-            c.set(i, a.get(i) / b.get(i));
-        }
+        ArrayKernels_DDRM.IMPL.elementDiv(a.data,b.data,c.data,length);
     }
 
     /**
@@ -1646,9 +1784,7 @@ public class CommonOps_DDRM {
         }
 
         int size = A.getNumElements();
-        for( int i = 0; i < size; i++ ) {
-            C.data[i] = Math.pow(A.data[i], B.data[i]);
-        }
+        ArrayKernels_DDRM.IMPL.elementPower(A.data,B.data,C.data,size);
     }
 
     /**
@@ -1668,9 +1804,7 @@ public class CommonOps_DDRM {
         }
 
         int size = B.getNumElements();
-        for( int i = 0; i < size; i++ ) {
-            C.data[i] = Math.pow(a, B.data[i]);
-        }
+        ArrayKernels_DDRM.IMPL.elementPower(a,B.data,C.data,size);
     }
 
     /**
@@ -1690,9 +1824,7 @@ public class CommonOps_DDRM {
         }
 
         int size = A.getNumElements();
-        for( int i = 0; i < size; i++ ) {
-            C.data[i] = Math.pow(A.data[i], b);
-        }
+        ArrayKernels_DDRM.IMPL.elementPower(A.data,b,C.data,size);
     }
 
     /**
@@ -1711,9 +1843,7 @@ public class CommonOps_DDRM {
         }
 
         int size = A.getNumElements();
-        for( int i = 0; i < size; i++ ) {
-            C.data[i] = Math.log(A.data[i]);
-        }
+        ArrayKernels_DDRM.IMPL.elementLog(A.data,C.data,size);
     }
 
     /**
@@ -1732,9 +1862,7 @@ public class CommonOps_DDRM {
         }
 
         int size = A.getNumElements();
-        for( int i = 0; i < size; i++ ) {
-            C.data[i] = Math.exp(A.data[i]);
-        }
+        ArrayKernels_DDRM.IMPL.elementExp(A.data,C.data,size);
     }
 
     /**
@@ -2115,9 +2243,7 @@ public class CommonOps_DDRM {
 
         final int length = a.getNumElements();
 
-        for( int i = 0; i < length; i++ ) {
-            c.set(i, a.get(i) + b.get(i));
-        }
+        ArrayKernels_DDRM.IMPL.add(a.data,b.data,c.data,length);
     }
 
     /**
@@ -2340,9 +2466,7 @@ public class CommonOps_DDRM {
 
         final int length = a.getNumElements();
 
-        for( int i = 0; i < length; i++ ) {
-            c.data[i] = a.data[i] - b.data[i];
-        }
+        ArrayKernels_DDRM.IMPL.subtract(a.data,b.data,c.data,length);
     }
 
     /**
@@ -2383,9 +2507,7 @@ public class CommonOps_DDRM {
 
         final int size = a.getNumElements();
 
-        for( int i = 0; i < size; i++ ) {
-            b.data[i] = a.data[i]*alpha;
-        }
+        ArrayKernels_DDRM.IMPL.scale(alpha,a.data,0,b.data,0,size);
     }
 
     /**
@@ -0,0 +1,335 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.dense.row;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.data.DMatrixOffHeap;
+import org.ejml.data.DMatrixRMaj;
+
+import java.nio.DoubleBuffer;
+
+/**
+ * <p>
+ * Common operations on {@link DMatrixOffHeap}. These are intended for tall and skinny matrices which are too
+ * large to be stored on the heap. Each function streams through the rows of the off-heap matrix once and
+ * its outputs are small {@link DMatrixRMaj}. For example, a least-squares problem can be solved by computing
+ * A<sup>T</sup>A with {@link #multInner} and A<sup>T</sup>b with {@link #multTransA} and then solving the
+ * much smaller system.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class OffHeapOps_DDRM {
+
+    /**
+     * <p>Performs the following operation:<br>
+     * <br>
+     * c = a * b <br>
+     * </p>
+     *
+     * @param a The off-heap matrix. Not modified.
+     * @param b Column vector with a.numCols elements. Not modified.
+     * @param c Storage for output. Reshaped into a column vector. Modified.
+     */
+    public static void mult( DMatrixOffHeap a , DMatrixRMaj b , DMatrixRMaj c ) {
+        if( b.getNumElements() != a.numCols || !MatrixFeatures_DDRM.isVector(b) )
+            throw new MatrixDimensionException("b must be a vector with "+a.numCols+" elements");
+        c.reshape(a.numRows,1);
+
+        final int numCols = a.numCols;
+        for (int row = 0; row < a.numRows; row++) {
+            DoubleBuffer chunk = a.getChunkOfRow(row);
+            int index = a.getIndexInChunk(row);
+            double total = 0;
+            for (int col = 0; col < numCols; col++) {
+                total += chunk.get(index+col)*b.data[col];
+            }
+            c.data[row] = total;
+        }
+    }
+
+    /**
+     * <p>Performs the following operation:<br>
+     * <br>
+     * c = a<sup>T</sup> * b <br>
+     * </p>
+     *
+     * @param a The off-heap matrix. Not modified.
+     * @param b Matrix with a.numRows rows. Not modified.
+     * @param c Storage for output. Reshaped to a.numCols by b.numCols. Modified.
+     */
+    public static void multTransA( DMatrixOffHeap a , DMatrixRMaj b , DMatrixRMaj c ) {
+        if( a.numRows != b.numRows )
+            throw new MatrixDimensionException("a and b must have the same number of rows");
+        c.reshape(a.numCols,b.numCols);
+        c.zero();
+
+        final int numCols = a.numCols;
+        final int numColsB = b.numCols;
+        for (int row = 0; row < a.numRows; row++) {
+            DoubleBuffer chunk = a.getChunkOfRow(row);
+            int index = a.getIndexInChunk(row);
+            int indexB = row*numColsB;
+            for (int i = 0; i < numCols; i++) {
+                double valA = chunk.get(index+i);
+                int indexC = i*numColsB;
+                for (int j = 0; j < numColsB; j++) {
+                    c.data[indexC+j] += valA*b.data[indexB+j];
+                }
+            }
+        }
+    }
+
+    /**
+     * <p>Performs the following operation:<br>
+     * <br>
+     * c = a<sup>T</sup> * b <br>
+     * where both a and b are off-heap matrices.
+     * </p>
+     *
+     * @param a The off-heap matrix. Not modified.
+     * @param b Off-heap matrix with a.numRows rows. Not modified.
+     * @param c Storage for output. Reshaped to a.numCols by b.numCols. Modified.
+     */
+    public static void multTransA( DMatrixOffHeap a , DMatrixOffHeap b , DMatrixRMaj c ) {
+        if( a.numRows != b.numRows )
+            throw new MatrixDimensionException("a and b must have the same number of rows");
+        c.reshape(a.numCols,b.numCols);
+        c.zero();
+
+        final int numCols = a.numCols;
+        final int numColsB = b.numCols;
+        double rowB[] = new double[numColsB];
+        for (int row = 0; row < a.numRows; row++) {
+            DoubleBuffer chunk = a.getChunkOfRow(row);
+            int index = a.getIndexInChunk(row);
+            b.getRow(row,rowB,0);
+            for (int i = 0; i < numCols; i++) {
+                double valA = chunk.get(index+i);
+                int indexC = i*numColsB;
+                for (int j = 0; j < numColsB; j++) {
+                    c.data[indexC+j] += valA*rowB[j];
+                }
+            }
+        }
+    }
+
+    /**
+     * <p>Computes the inner product of the matrix with itself:<br>
+     * <br>
+     * c = a<sup>T</sup> * a <br>
+     * </p>
+     *
+     * @param a The off-heap matrix. Not modified.
+     * @param c Storage for output. Reshaped to a.numCols by a.numCols. Modified.
+     */
+    public static void multInner( DMatrixOffHeap a , DMatrixRMaj c ) {
+        final int numCols = a.numCols;
+        c.reshape(numCols,numCols);
+        c.zero();
+
+        // only the upper triangle is computed since the output is symmetric
+        double rowA[] = new double[numCols];
+        for (int row = 0; row < a.numRows; row++) {
+            a.getRow(row,rowA,0);
+            for (int i = 0; i < numCols; i++) {
+                double valA = rowA[i];
+                int indexC = i*numCols;
+                for (int j = i; j < numCols; j++) {
+                    c.data[indexC+j] += valA*rowA[j];
+                }
+            }
+        }
+
+        for (int i = 0; i < numCols; i++) {
+            for (int j = 0; j < i; j++) {
+                c.data[i*numCols+j] = c.data[j*numCols+i];
+            }
+        }
+    }
+
+    /**
+     * Computes the sum of each column in the input matrix and returns the results in a vector.
+     *
+     * @param input Input matrix
+     * @param output Optional storage for output. Reshaped into a row vector. Modified.
+     * @return Vector containing the sum of each column
+     */
+    public static DMatrixRMaj sumCols( DMatrixOffHeap input , DMatrixRMaj output ) {
+        output = reshapeRow(output,input.numCols);
+        output.zero();
+
+        final int numCols = input.numCols;
+        for (int row = 0; row < input.numRows; row++) {
+            DoubleBuffer chunk = input.getChunkOfRow(row);
+            int index = input.getIndexInChunk(row);
+            for (int col = 0; col < numCols; col++) {
+                output.data[col] += chunk.get(index+col);
+            }
+        }
+        return output;
+    }
+
+    /**
+     * Finds the element with the minimum value along each column in the input matrix.
+     *
+     * @param input Input matrix
+     * @param output Optional storage for output. Reshaped into a row vector. Modified.
+     * @return Vector containing the minimum of each column
+     */
+    public static DMatrixRMaj minCols( DMatrixOffHeap input , DMatrixRMaj output ) {
+        output = reshapeRow(output,input.numCols);
+        CommonOps_DDRM.fill(output,Double.MAX_VALUE);
+
+        final int numCols = input.numCols;
+        for (int row = 0; row < input.numRows; row++) {
+            DoubleBuffer chunk = input.getChunkOfRow(row);
+            int index = input.getIndexInChunk(row);
+            for (int col = 0; col < numCols; col++) {
+                double v = chunk.get(index+col);
+                if( v < output.data[col] )
+                    output.data[col] = v;
+            }
+        }
+        return output;
+    }
+
+    /**
+     * Finds the element with the maximum value along each column in the input matrix.
+     *
+     * @param input Input matrix
+     * @param output Optional storage for output. Reshaped into a row vector. Modified.
+     * @return Vector containing the maximum of each column
+     */
+    public static DMatrixRMaj maxCols( DMatrixOffHeap input , DMatrixRMaj output ) {
+        output = reshapeRow(output,input.numCols);
+        CommonOps_DDRM.fill(output,-Double.MAX_VALUE);
+
+        final int numCols = input.numCols;
+        for (int row = 0; row < input.numRows; row++) {
+            DoubleBuffer chunk = input.getChunkOfRow(row);
+            int index = input.getIndexInChunk(row);
+            for (int col = 0; col < numCols; col++) {
+                double v = chunk.get(index+col);
+                if( v > output.data[col] )
+                    output.data[col] = v;
+            }
+        }
+        return output;
+    }
+
+    /**
+     * Computes the mean and sample variance of each column in a single pass using Welford's algorithm.
+     * The variance is zero if there are fewer than two rows.
+     *
+     * @param input Input matrix
+     * @param mean Storage for the mean of each column. Reshaped into a row vector. Modified.
+     * @param variance Storage for the variance of each column. Reshaped into a row vector. Modified.
+     */
+    public static void varianceCols( DMatrixOffHeap input , DMatrixRMaj mean , DMatrixRMaj variance ) {
+        final int numCols = input.numCols;
+        mean.reshape(1,numCols);
+        variance.reshape(1,numCols);
+        mean.zero();
+        variance.zero();
+
+        // variance contains the sum of squared differences from the mean until the end
+        for (int row = 0; row < input.numRows; row++) {
+            DoubleBuffer chunk = input.getChunkOfRow(row);
+            int index = input.getIndexInChunk(row);
+            double count = row+1;
+            for (int col = 0; col < numCols; col++) {
+                double v = chunk.get(index+col);
+                double delta = v - mean.data[col];
+                mean.data[col] += delta/count;
+                variance.data[col] += delta*(v - mean.data[col]);
+            }
+        }
+
+        if( input.numRows > 1 )
+            CommonOps_DDRM.divide(variance,input.numRows-1);
+    }
+
+    /**
+     * Extracts a row from the off-heap matrix.
+     *
+     * @param a Input matrix
+     * @param row Which row is to be extracted
+     * @param out Storage for the extracted row. If null then a new vector will be returned.
+     * @return The extracted row.
+     */
+    public static DMatrixRMaj extractRow( DMatrixOffHeap a , int row , DMatrixRMaj out ) {
+        if( out == null)
+            out = new DMatrixRMaj(1,a.numCols);
+        else if( !MatrixFeatures_DDRM.isVector(out) || out.getNumElements() != a.numCols )
+            throw new MatrixDimensionException("Output must be a vector of length "+a.numCols);
+
+        a.getRow(row,out.data,0);
+        return out;
+    }
+
+    /**
+     * Copies rows row0 to row1-1 into a matrix on the heap. Useful for processing the matrix in blocks.
+     *
+     * @param a Input matrix
+     * @param row0 First row, inclusive
+     * @param row1 Last row, exclusive
+     * @param out Storage for the extracted rows. Reshaped. If null then a new matrix will be returned.
+     * @return The extracted rows.
+     */
+    public static DMatrixRMaj extractRows( DMatrixOffHeap a , int row0 , int row1 , DMatrixRMaj out ) {
+        if( row0 < 0 || row1 > a.numRows || row1 < row0 )
+            throw new IllegalArgumentException("Invalid row range");
+        if( out == null )
+            out = new DMatrixRMaj(row1-row0,a.numCols);
+        else
+            out.reshape(row1-row0,a.numCols);
+
+        for (int row = row0; row < row1; row++) {
+            a.getRow(row,out.data,(row-row0)*a.numCols);
+        }
+        return out;
+    }
+
+    /**
+     * Copies all the rows in src into the off-heap matrix starting at row0.
+     *
+     * @param src Rows which are to be copied. Not modified.
+     * @param row0 Row in the off-heap matrix that the first row in src is written to.
+     * @param a Off-heap matrix. Modified.
+     */
+    public static void insertRows( DMatrixRMaj src , int row0 , DMatrixOffHeap a ) {
+        if( src.numCols != a.numCols )
+            throw new MatrixDimensionException("Number of columns must match");
+        if( row0 < 0 || row0 + src.numRows > a.numRows )
+            throw new IllegalArgumentException("Rows extend outside of the matrix");
+
+        for (int row = 0; row < src.numRows; row++) {
+            a.setRow(row0+row,src.data,row*src.numCols);
+        }
+    }
+
+    private static DMatrixRMaj reshapeRow( DMatrixRMaj output , int numCols ) {
+        if( output == null )
+            return new DMatrixRMaj(1,numCols);
+        output.reshape(1,numCols);
+        return output;
+    }
+}
@@ -21,6 +21,7 @@ package org.ejml.dense.row;
 import org.ejml.UtilEjml;
 import org.ejml.data.DGrowArray;
 import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.decomposition.svd.SvdRandomized_DDRM;
 import org.ejml.dense.row.factory.DecompositionFactory_DDRM;
 import org.ejml.dense.row.linsol.qr.SolveNullSpaceQRP_DDRM;
 import org.ejml.dense.row.linsol.qr.SolveNullSpaceQR_DDRM;
@@ -191,6 +192,42 @@ public class SingularOps_DDRM {
         return true;
     }
 
+    /**
+     * Computes an approximation of the largest singular values and their singular vectors using a randomized
+     * SVD. Much faster than {@link #svd} when only a few singular values of a large matrix are needed.
+     * Singular values are in descending order.
+     *
+     * U*W*V<sup>T</sup> &asymp; A
+     *
+     * @see SvdRandomized_DDRM
+     *
+     * @param A (Input) Matrix being decomposed. Not modified.
+     * @param rank (Input) Number of singular values which are to be computed
+     * @param U (Output) Storage for U. If null then it's ignored.
+     * @param sv (Output) sorted list of singular values.
+     * @param Vt (Output) Storage for transposed V. Can be null.
+     */
+    public static boolean svdTruncated(DMatrixRMaj A, int rank ,
+                                       @Nullable DMatrixRMaj U , DGrowArray sv , @Nullable DMatrixRMaj Vt ) {
+        SvdRandomized_DDRM svd = DecompositionFactory_DDRM.svdRandomized(rank,U != null,Vt != null);
+
+        if( !svd.decompose(A)) {
+            return false;
+        }
+
+        int N = svd.numberOfSingularValues();
+
+        if( U != null )
+            svd.getU(U,false);
+        if( Vt != null )
+            svd.getV(Vt,true);
+
+        sv.reshape(N);
+        System.arraycopy(svd.getSingularValues(), 0, sv.data, 0, N);
+
+        return true;
+    }
+
 
     /**
      * <p>
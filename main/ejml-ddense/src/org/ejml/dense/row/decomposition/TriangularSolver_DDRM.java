@@ -156,6 +156,35 @@ public class TriangularSolver_DDRM {
         }
     }
 
+    /**
+     * <p>
+     * Solves for X in X*L<sup>T</sup> = B using forward substitution, where L is a non-singular lower
+     * triangular matrix.  Each row in B is solved independently and overwritten with the solution.<br>
+     * <br>
+     * X = B*(L<sup>T</sup>)<sup>-1</sup><br>
+     * </p>
+     *
+     * @param L An n by n non-singular lower triangular matrix. Not modified.
+     * @param n The size of L and the number of columns in B.
+     * @param b Array containing B, row-major with a stride of n.  Overwritten with the solution.
+     * @param startB Index of the first element in B
+     * @param numRowsB Number of rows in B
+     */
+    public static void solveTranL_right( double []L , int n , double []b , int startB , int numRowsB )
+    {
+        for( int row = 0; row < numRowsB; row++ ) {
+            int indexB = startB + row*n;
+            for( int i = 0; i < n; i++ ) {
+                double sum = b[indexB+i];
+                int indexL = i*n;
+                for( int k = 0; k < i; k++ ) {
+                    sum -= L[indexL++]*b[indexB+k];
+                }
+                b[indexB+i] = sum / L[indexL];
+            }
+        }
+    }
+
     /**
      * <p>
      * This is a forward substitution solver for non-singular upper triangular matrices.
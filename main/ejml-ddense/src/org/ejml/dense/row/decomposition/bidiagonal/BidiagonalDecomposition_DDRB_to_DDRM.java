@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.dense.row.decomposition.bidiagonal;
+
+import org.ejml.EjmlParameters;
+import org.ejml.data.DMatrixRBlock;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.block.decomposition.bidiagonal.BidiagonalDecompositionHouseholder_DDRB;
+import org.ejml.dense.block.decomposition.bidiagonal.BidiagonalDecompositionHouseholder_MT_DDRB;
+import org.ejml.dense.row.decomposition.BaseDecomposition_DDRB_to_DDRM;
+import org.ejml.interfaces.decomposition.BidiagonalDecomposition_F64;
+
+
+/**
+ * Wrapper around a block implementation of {@link BidiagonalDecomposition_F64}
+ *
+ * @author Peter Abeles
+ */
+public class BidiagonalDecomposition_DDRB_to_DDRM
+        extends BaseDecomposition_DDRB_to_DDRM
+        implements BidiagonalDecomposition_F64<DMatrixRMaj> {
+
+    public BidiagonalDecomposition_DDRB_to_DDRM() {
+        this(EjmlParameters.BLOCK_WIDTH);
+    }
+
+    public BidiagonalDecomposition_DDRB_to_DDRM( int blockLength ) {
+        super(new BidiagonalDecompositionHouseholder_MT_DDRB(),blockLength);
+    }
+
+    @Override
+    public void getDiagonal(double[] diag, double[] off) {
+        ((BidiagonalDecompositionHouseholder_DDRB)alg).getDiagonal(diag,off);
+    }
+
+    @Override
+    public DMatrixRMaj getB(DMatrixRMaj B, boolean compact) {
+        int m = Ablock.numRows, n = Ablock.numCols;
+        B = BidiagonalDecompositionRow_DDRM.handleB(B,compact,m,n,Math.min(m,n));
+
+        ((BidiagonalDecompositionHouseholder_DDRB)alg).getB(wrap(B),compact);
+        convertBlockToRow(B.numRows,B.numCols,blockLength,B.data);
+
+        return B;
+    }
+
+    @Override
+    public DMatrixRMaj getU(DMatrixRMaj U, boolean transpose, boolean compact) {
+        int m = Ablock.numRows, n = Ablock.numCols;
+        U = BidiagonalDecompositionRow_DDRM.handleU(U,transpose,compact,m,n,Math.min(m,n));
+
+        ((BidiagonalDecompositionHouseholder_DDRB)alg).getU(wrap(U),transpose,compact);
+        convertBlockToRow(U.numRows,U.numCols,blockLength,U.data);
+
+        return U;
+    }
+
+    @Override
+    public DMatrixRMaj getV(DMatrixRMaj V, boolean transpose, boolean compact) {
+        int m = Ablock.numRows, n = Ablock.numCols;
+        V = BidiagonalDecompositionRow_DDRM.handleV(V,transpose,compact,m,n,Math.min(m,n));
+
+        ((BidiagonalDecompositionHouseholder_DDRB)alg).getV(wrap(V),transpose,compact);
+        convertBlockToRow(V.numRows,V.numCols,blockLength,V.data);
+
+        return V;
+    }
+
+    private DMatrixRBlock wrap( DMatrixRMaj M ) {
+        DMatrixRBlock block = new DMatrixRBlock();
+        block.numRows = M.numRows;
+        block.numCols = M.numCols;
+        block.blockLength = blockLength;
+        block.data = M.data;
+        return block;
+    }
+}
@@ -24,13 +24,15 @@ import org.ejml.data.DMatrixRBlock;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.dense.block.MatrixOps_DDRB;
 import org.ejml.dense.block.decomposition.chol.CholeskyOuterForm_DDRB;
+import org.ejml.dense.block.decomposition.chol.CholeskyOuterForm_MT_DDRB;
 import org.ejml.dense.row.decomposition.BaseDecomposition_DDRB_to_DDRM;
 import org.ejml.interfaces.decomposition.CholeskyDecomposition_F64;
 
 
 /**
  * Wrapper around {@link org.ejml.dense.block.decomposition.chol.CholeskyOuterForm_DDRB} that allows
- * it to process DMatrixRMaj.
+ * it to process DMatrixRMaj.  Large matrices are decomposed using the concurrent implementation
+ * {@link org.ejml.dense.block.decomposition.chol.CholeskyOuterForm_MT_DDRB}.
  *
  * @author Peter Abeles
  */
@@ -38,7 +40,7 @@ public class CholeskyDecomposition_DDRB_to_DDRM
         extends BaseDecomposition_DDRB_to_DDRM implements CholeskyDecomposition_F64<DMatrixRMaj> {
 
     public CholeskyDecomposition_DDRB_to_DDRM(boolean lower) {
-        super(new CholeskyOuterForm_DDRB(lower), EjmlParameters.BLOCK_WIDTH);
+        super(new CholeskyOuterForm_MT_DDRB(lower), EjmlParameters.BLOCK_WIDTH);
     }
 
     @Override
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.dense.row.decomposition.eig;
+
+import org.ejml.data.Complex_F64;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.decomposition.eig.symm.SymmetricDivideConquer_DDRM;
+import org.ejml.dense.row.factory.DecompositionFactory_DDRM;
+import org.ejml.interfaces.decomposition.EigenDecomposition_F64;
+import org.ejml.interfaces.decomposition.TridiagonalSimilarDecomposition_F64;
+
+/**
+ * <p>
+ * Computes the eigenvalues and eigenvectors of a real symmetric matrix using the divide and conquer algorithm.
+ * The matrix is first reduced to a tridiagonal matrix, A = Q*T*Q<sup>T</sup>, whose eigenvectors are then found
+ * using {@link SymmetricDivideConquer_DDRM}. When all the eigenvectors are needed this is faster than
+ * {@link SymmetricQRAlgorithmDecomposition_DDRM} for large matrices and most of the work is done concurrently.
+ * </p>
+ *
+ * <p>
+ * Eigenvalues are returned in increasing order. Eigenvectors are always computed.
+ * </p>
+ *
+ * @see SymmetricDivideConquer_DDRM
+ *
+ * @author Peter Abeles
+ */
+public class SymmetricDivideConquerDecomposition_DDRM
+        implements EigenDecomposition_F64<DMatrixRMaj> {
+
+    // computes a tridiagonal matrix whose eigenvalues are the same as the original
+    private TridiagonalSimilarDecomposition_F64<DMatrixRMaj> decomp;
+    // finds the eigenvalues and eigenvectors of the tridiagonal matrix
+    private SymmetricDivideConquer_DDRM alg = new SymmetricDivideConquer_DDRM();
+
+    // where the tridiagonal matrix is stored
+    private double diag[] = new double[0];
+    private double off[] = new double[0];
+
+    // orthogonal matrix from the tridiagonal decomposition
+    private DMatrixRMaj Q;
+    // eigenvectors of the original matrix stored in the columns
+    private DMatrixRMaj V = new DMatrixRMaj(1,1);
+    // the extracted eigenvectors
+    private DMatrixRMaj eigenvectors[];
+
+    public SymmetricDivideConquerDecomposition_DDRM( TridiagonalSimilarDecomposition_F64<DMatrixRMaj> decomp ) {
+        this.decomp = decomp;
+    }
+
+    public SymmetricDivideConquerDecomposition_DDRM() {
+        this(DecompositionFactory_DDRM.tridiagonal(0));
+    }
+
+    @Override
+    public boolean decompose(DMatrixRMaj orig) {
+        if( orig.numCols != orig.numRows )
+            throw new IllegalArgumentException("Matrix must be square.");
+        if( orig.numCols <= 0 )
+            return false;
+
+        int N = orig.numRows;
+
+        if( !decomp.decompose(orig) )
+            return false;
+
+        if( diag.length < N ) {
+            diag = new double[N];
+            off = new double[N];
+        }
+        decomp.getDiagonal(diag,off);
+
+        if( !alg.process(diag,off,N) )
+            return false;
+
+        // eigenvectors of A are Q times the eigenvectors of T
+        Q = decomp.getQ(Q,false);
+        V.reshape(N,N);
+        CommonOps_DDRM.mult(Q,alg.getEigenvectors(),V);
+        if( eigenvectors != null && eigenvectors.length != N )
+            eigenvectors = null;
+        eigenvectors = CommonOps_DDRM.columnsToVector(V,eigenvectors);
+
+        return true;
+    }
+
+    @Override
+    public int getNumberOfEigenvalues() {
+        return alg.getNumberOfEigenvalues();
+    }
+
+    @Override
+    public Complex_F64 getEigenvalue(int index) {
+        return new Complex_F64(alg.getEigenvalues()[index],0);
+    }
+
+    @Override
+    public DMatrixRMaj getEigenVector(int index) {
+        return eigenvectors[index];
+    }
+
+    public SymmetricDivideConquer_DDRM getAlgorithm() {
+        return alg;
+    }
+
+    @Override
+    public boolean inputModified() {
+        return decomp.inputModified();
+    }
+}
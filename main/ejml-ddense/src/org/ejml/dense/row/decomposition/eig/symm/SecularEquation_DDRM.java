@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.dense.row.decomposition.eig.symm;
+
+import org.ejml.UtilEjml;
+
+/**
+ * <p>
+ * Solves the secular equation for the eigenvalues of a diagonal matrix plus a rank-one update,
+ * D + &rho;zz<sup>T</sup>, where &rho; &gt; 0 and the diagonal elements are strictly increasing:<br>
+ * <br>
+ * f(&lambda;) = 1 + &rho; &sum;<sub>j</sub> z<sub>j</sub><sup>2</sup>/(d<sub>j</sub> - &lambda;) = 0<br>
+ * <br>
+ * The i<sup>th</sup> root is in the interval (d<sub>i</sub>,d<sub>i+1</sub>) and the last root is in
+ * (d<sub>k-1</sub>,d<sub>k-1</sub>+&rho;||z||<sup>2</sup>). Each root is stored as an offset from the
+ * closest diagonal element so that the differences d<sub>j</sub>-&lambda;<sub>i</sub>, which are needed by the
+ * eigenvectors, can be computed accurately.
+ * </p>
+ *
+ * <p>
+ * Each root is found with a safe guarded iteration which approximates the terms on either side of the root
+ * with a rational function and falls back to bisection when the step leaves the bracket. See [1] for details.
+ * The vector z is recomputed from the found roots using the method in [2] so that the eigenvectors are
+ * numerically orthogonal.
+ * </p>
+ *
+ * <p>
+ * [1] J. R. Bunch, C. P. Nielsen, and D. C. Sorensen, "Rank-one modification of the symmetric
+ * eigenproblem," Numerische Mathematik, 1978<br>
+ * [2] M. Gu and S. C. Eisenstat, "A Divide-and-Conquer Algorithm for the Symmetric Tridiagonal Eigenproblem,"
+ * SIAM J. Matrix Anal. Appl., 1995
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SecularEquation_DDRM {
+    // maximum number of iterations for a single root
+    private int maxIterations = 100;
+
+    // diagonal elements, rank-one vector, and scale factor
+    private double d[];
+    private double z[];
+    private double rho;
+    private int k;
+
+    // root i is d[origin[i]] + tau[i]
+    private int origin[] = new int[0];
+    private double tau[] = new double[0];
+
+    /**
+     * Finds all the roots of the secular equation.
+     *
+     * @param d Diagonal elements. Strictly increasing. Not modified.
+     * @param z Rank-one vector. No element can be zero. Not modified.
+     * @param rho Scale factor. Must be positive.
+     * @param k Number of elements
+     * @return true if all roots converged
+     */
+    public boolean process( double d[] , double z[] , double rho , int k ) {
+        if( rho <= 0 )
+            throw new IllegalArgumentException("rho must be positive");
+        this.d = d;
+        this.z = z;
+        this.rho = rho;
+        this.k = k;
+
+        if( origin.length < k ) {
+            origin = new int[k];
+            tau = new double[k];
+        }
+
+        double zz = 0;
+        for (int j = 0; j < k; j++) {
+            zz += z[j]*z[j];
+        }
+
+        for (int i = 0; i < k; i++) {
+            if( !solveRoot(i,zz) )
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Finds the root inside of the i<sup>th</sup> interval
+     */
+    boolean solveRoot( int i , double zz ) {
+        double lo, hi;
+        if( i < k-1 ) {
+            double half = (d[i+1]-d[i])/2;
+            if( evaluate(i,half) >= 0 ) {
+                origin[i] = i;
+                lo = 0;
+                hi = half;
+            } else {
+                origin[i] = i+1;
+                lo = -half;
+                hi = 0;
+            }
+        } else {
+            origin[i] = i;
+            lo = 0;
+            hi = rho*zz;
+        }
+
+        final int o = origin[i];
+        final boolean last = i == k-1;
+        double t = (lo+hi)/2;
+
+        for (int iteration = 0; iteration < maxIterations; iteration++) {
+            // sum the terms to the left and right of the root separately
+            double psi = 0, dpsi = 0;
+            for (int j = 0; j <= i; j++) {
+                double r = z[j]/((d[j]-d[o])-t);
+                psi += z[j]*r;
+                dpsi += r*r;
+            }
+            double phi = 0, dphi = 0;
+            for (int j = i+1; j < k; j++) {
+                double r = z[j]/((d[j]-d[o])-t);
+                phi += z[j]*r;
+                dphi += r*r;
+            }
+
+            // the rounding error of each term is relative to its magnitude so the tolerance doesn't grow with k
+            double f = 1 + rho*(psi+phi);
+            double tol = 8*UtilEjml.EPS*(1 + rho*(Math.abs(psi)+Math.abs(phi)));
+            if( Math.abs(f) <= tol )
+                break;
+
+            // f is increasing so the root is bracketed by the sign of f
+            if( f < 0 )
+                lo = t;
+            else
+                hi = t;
+
+            if( hi-lo <= 2*UtilEjml.EPS*Math.max(Math.abs(lo),Math.abs(hi)) )
+                break;
+
+            // approximate psi and phi with rational functions which match their value and derivative
+            double deltaA = (d[i]-d[o])-t;
+            double Q = rho*dpsi*deltaA*deltaA;
+            double step;
+            if( last ) {
+                double c = f - Q/deltaA;
+                step = c == 0 ? Double.NaN : deltaA + Q/c;
+            } else {
+                double deltaB = (d[i+1]-d[o])-t;
+                double S = rho*dphi*deltaB*deltaB;
+                double c = f - Q/deltaA - S/deltaB;
+                step = solveQuadratic(c,-(c*(deltaA+deltaB) + Q + S),deltaA*deltaB*f,lo-t,hi-t);
+            }
+
+            double next = t + step;
+            if( !(next > lo && next < hi) )
+                next = (lo+hi)/2;
+            t = next;
+
+            if( iteration == maxIterations-1 )
+                return false;
+        }
+
+        tau[i] = t;
+        return true;
+    }
+
+    /**
+     * Returns the root of a*x<sup>2</sup> + b*x + c = 0 which is inside of (lo,hi). NaN if neither is.
+     */
+    static double solveQuadratic( double a , double b , double c , double lo , double hi ) {
+        if( a == 0 ) {
+            return b == 0 ? Double.NaN : -c/b;
+        }
+        double disc = b*b - 4*a*c;
+        if( disc < 0 )
+            return Double.NaN;
+        double sqrtDisc = Math.sqrt(disc);
+        double q = -(b >= 0 ? b + sqrtDisc : b - sqrtDisc)/2;
+        double x0 = q/a;
+        double x1 = q != 0 ? c/q : x0;
+        boolean inside0 = x0 > lo && x0 < hi;
+        boolean inside1 = x1 > lo && x1 < hi;
+        if( inside0 && inside1 )
+            return Math.abs(x0) < Math.abs(x1) ? x0 : x1;
+        else if( inside0 )
+            return x0;
+        else if( inside1 )
+            return x1;
+        return Double.NaN;
+    }
+
+    /**
+     * Evaluates the secular equation at d[i] + t
+     */
+    double evaluate( int i , double t ) {
+        double sum = 0;
+        for (int j = 0; j < k; j++) {
+            sum += z[j]*z[j]/((d[j]-d[i])-t);
+        }
+        return 1 + rho*sum;
+    }
+
+    /**
+     * Recomputes the vector z so that the found roots are the exact eigenvalues of D + &rho;zz<sup>T</sup>.
+     * The sign of each element is the same as the original vector.
+     *
+     * @param zhat Storage for the new vector. Can be the same array as the original.
+     */
+    public void computeZ( double zhat[] ) {
+        for (int i = 0; i < k; i++) {
+            // ratios are interleaved to avoid overflow and underflow
+            double prod = -difference(i,k-1)/rho;
+            for (int j = 0; j < i; j++) {
+                prod *= difference(i,j)/(d[i]-d[j]);
+            }
+            for (int j = i; j < k-1; j++) {
+                prod *= difference(i,j)/(d[i]-d[j+1]);
+            }
+            double value = Math.sqrt(Math.abs(prod));
+            zhat[i] = z[i] >= 0 ? value : -value;
+        }
+    }
+
+    /**
+     * Computes d<sub>j</sub> - &lambda;<sub>i</sub> accurately
+     */
+    public double difference( int j , int i ) {
+        return (d[j]-d[origin[i]]) - tau[i];
+    }
+
+    /**
+     * Returns the i<sup>th</sup> root
+     */
+    public double getRoot( int i ) {
+        return d[origin[i]] + tau[i];
+    }
+
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    public void setMaxIterations(int maxIterations) {
+        this.maxIterations = maxIterations;
+    }
+}
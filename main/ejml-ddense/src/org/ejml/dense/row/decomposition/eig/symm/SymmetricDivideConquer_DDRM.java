@@ -0,0 +1,576 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.dense.row.decomposition.eig.symm;
+
+import org.ejml.EjmlConcurrency;
+import org.ejml.EjmlParameters;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Computes the eigenvalues and eigenvectors of a symmetric tridiagonal matrix using Cuppen's divide and
+ * conquer algorithm. The matrix is torn into two halves with a rank-one correction,<br>
+ * <br>
+ * T = [T<sub>1</sub> 0 ; 0 T<sub>2</sub>] + &rho;uu<sup>T</sup><br>
+ * <br>
+ * The halves are solved recursively, and are independent, so they are solved concurrently when the
+ * matrix is large enough, see {@link EjmlParameters#EIG_DIVIDE_CONQUER_CONCURRENT_SWITCH}. Their solutions are then merged by solving the eigenproblem of a diagonal matrix
+ * plus a rank-one update with {@link SecularEquation_DDRM}. Before the secular equation is solved, eigenvalues
+ * are deflated if their element in the rank-one vector is negligible or if they are too close to another
+ * eigenvalue. Small sub-problems are solved with {@link SymmetricQrAlgorithm_DDRM}.
+ * </p>
+ *
+ * <p>
+ * Eigenvalues are sorted in increasing order and the eigenvectors are stored in the columns of a matrix.
+ * </p>
+ *
+ * <p>
+ * Based on the description in "Applied Numerical Linear Algebra" by James W. Demmel, Section 5.3.3, and the
+ * deflation strategy used by LAPACK's DSTEDC.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SymmetricDivideConquer_DDRM {
+
+    // which rows a column in the merged eigenvector matrix can be non-zero in
+    private static final int TOP = 1, BOTTOM = 2, BOTH = 3;
+
+    // sub-problems this size or smaller are solved with the QR algorithm
+    private int leafSize = 25;
+
+    // size of the matrix
+    private int N;
+
+    // diagonal elements and then the eigenvalues
+    private double values[] = new double[0];
+    // off diagonal elements
+    private double off[] = new double[0];
+
+    // the eigenvectors are stored in the columns.
+    private DMatrixRMaj Q = new DMatrixRMaj(1,1);
+
+    // Sub-problems with at least this many operations have their halves solved concurrently
+    private long minConcurrentOps;
+
+    // Scratch space. Sub-problems which are solved concurrently each have their own workspace
+    private List<Workspace> workspaces = new ArrayList<>();
+
+    /**
+     * Computes the eigenvalues and eigenvectors of the tridiagonal matrix
+     *
+     * @param diag Diagonal elements. Not modified.
+     * @param off Off diagonal elements. Not modified.
+     * @param N Number of rows and columns in the matrix.
+     * @return true if successful
+     */
+    public boolean process( double diag[] , double off[] , int N ) {
+        this.N = N;
+        if( values.length < N ) {
+            values = new double[N];
+            this.off = new double[N];
+        }
+        Q.reshape(N,N);
+        Q.zero();
+
+        // decided once so that the workspace assigned to each sub-problem doesn't change
+        boolean concurrent = EjmlConcurrency.USE_CONCURRENT && EjmlConcurrency.getMaxThreads() > 1;
+        minConcurrentOps = concurrent ? EjmlParameters.EIG_DIVIDE_CONQUER_CONCURRENT_SWITCH : Long.MAX_VALUE;
+        reserveWorkspaces(N,0);
+
+        System.arraycopy(diag,0,values,0,N);
+        if( N > 1 )
+            System.arraycopy(off,0,this.off,0,N-1);
+
+        // scale the matrix to avoid overflow
+        double scale = 0;
+        for (int i = 0; i < N; i++) {
+            scale = Math.max(scale,Math.abs(values[i]));
+        }
+        for (int i = 0; i < N-1; i++) {
+            scale = Math.max(scale,Math.abs(this.off[i]));
+        }
+        if( scale == 0 ) {
+            CommonOps_DDRM.setIdentity(Q);
+            return true;
+        }
+        for (int i = 0; i < N; i++) {
+            values[i] /= scale;
+            this.off[i] /= scale;
+        }
+
+        if( !solve(0,N,0) )
+            return false;
+
+        for (int i = 0; i < N; i++) {
+            values[i] *= scale;
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if the two halves of a sub-problem should be solved concurrently
+     */
+    private boolean isConcurrent( int n ) {
+        return n > leafSize && (long)n*n*n >= minConcurrentOps;
+    }
+
+    /**
+     * Number of workspaces needed by a sub-problem. Each concurrent split needs one more.
+     */
+    private int countWorkspaces( int n ) {
+        if( !isConcurrent(n) )
+            return 1;
+        return countWorkspaces(n/2) + countWorkspaces(n-n/2);
+    }
+
+    /**
+     * Declares the workspaces used by a sub-problem and its children. The first half uses the same workspaces as
+     * its parent and the second half the ones which follow.
+     *
+     * @param n Size of the sub-problem
+     * @param first Index of the sub-problem's first workspace
+     */
+    private void reserveWorkspaces( int n , int first ) {
+        if( workspaces.size() <= first )
+            workspaces.add(new Workspace());
+        workspaces.get(first).reserve(leafSize,n);
+        if( isConcurrent(n) ) {
+            reserveWorkspaces(n/2,first);
+            reserveWorkspaces(n-n/2,first+countWorkspaces(n/2));
+        }
+    }
+
+    /**
+     * Recursively solves the sub-problem which starts at the specified row and column
+     *
+     * @param workspace Index of the workspace used by this sub-problem
+     */
+    private boolean solve( final int offset , final int n , final int workspace ) {
+        Workspace w = workspaces.get(workspace);
+        if( n <= leafSize )
+            return solveLeaf(offset,n,w);
+
+        final int n1 = n/2;
+
+        // tear the matrix in two by subtracting the rank-one correction
+        double beta = off[offset+n1-1];
+        double rho = Math.abs(beta);
+        double sign = beta >= 0 ? 1 : -1;
+        values[offset+n1-1] -= rho;
+        values[offset+n1] -= rho;
+
+        if( isConcurrent(n) ) {
+            final int workspace2 = workspace + countWorkspaces(n1);
+            final boolean success[] = new boolean[2];
+            EjmlConcurrency.loopFor(0,2,i->{
+                if( i == 0 )
+                    success[i] = solve(offset,n1,workspace);
+                else
+                    success[i] = solve(offset+n1,n-n1,workspace2);
+            });
+            if( !success[0] || !success[1] )
+                return false;
+        } else {
+            if( !solve(offset,n1,workspace) || !solve(offset+n1,n-n1,workspace) )
+                return false;
+        }
+
+        return merge(offset,n1,n,rho,sign,w);
+    }
+
+    /**
+     * Solves a small sub-problem with the QR algorithm
+     */
+    private boolean solveLeaf( int offset , int n , Workspace w ) {
+        double d[] = w.d;
+        double e[] = w.zs;
+        System.arraycopy(values,offset,d,0,n);
+        System.arraycopy(off,offset,e,0,n-1);
+
+        // each row in V will be an eigenvector
+        DMatrixRMaj V = w.V;
+        V.reshape(n,n);
+        CommonOps_DDRM.setIdentity(V);
+        w.helper.init(d,e,n);
+        w.helper.setQ(V);
+        if( !w.qr.process(-1,null,null) )
+            return false;
+
+        int order[] = w.order;
+        sortedOrder(d,n,order);
+        for (int i = 0; i < n; i++) {
+            int src = order[i];
+            values[offset+i] = d[src];
+            for (int row = 0; row < n; row++) {
+                Q.data[(offset+row)*N + offset+i] = V.data[src*n+row];
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Merges the solutions of the two halves together by solving the eigenvalue problem of
+     * D + &rho;zz<sup>T</sup>
+     *
+     * @param offset First row and column of the sub-problem
+     * @param n1 Size of the first half
+     * @param n Size of the sub-problem
+     * @param rho Magnitude of the rank-one correction
+     * @param sign Sign of the rank-one correction's second half
+     * @param w Workspace for this sub-problem
+     */
+    private boolean merge( int offset , int n1 , int n , double rho , double sign , Workspace w ) {
+        final double data[] = Q.data;
+
+        // z = [Q1 0 ; 0 Q2]^T u, the last row of Q1 and the first row of Q2
+        double z[] = w.z;
+        for (int i = 0; i < n1; i++) {
+            z[i] = data[(offset+n1-1)*N + offset+i];
+        }
+        for (int i = n1; i < n; i++) {
+            z[i] = sign*data[(offset+n1)*N + offset+i];
+        }
+        double norm = 0;
+        for (int i = 0; i < n; i++) {
+            norm += z[i]*z[i];
+        }
+        rho *= norm;
+        norm = Math.sqrt(norm);
+        for (int i = 0; i < n; i++) {
+            z[i] /= norm;
+        }
+
+        // merge the two sorted lists of eigenvalues
+        int order[] = w.order;
+        for (int i = 0, i1 = 0, i2 = n1; i < n; i++) {
+            if( i2 >= n || (i1 < n1 && values[offset+i1] <= values[offset+i2]) )
+                order[i] = i1++;
+            else
+                order[i] = i2++;
+        }
+
+        double d[] = w.d;
+        double zs[] = w.zs;
+        DMatrixRMaj Qs = w.Qs;
+        Qs.reshape(n,n);
+        double maxD = 0, maxZ = 0;
+        for (int i = 0; i < n; i++) {
+            d[i] = values[offset+order[i]];
+            zs[i] = z[order[i]];
+            maxD = Math.max(maxD,Math.abs(d[i]));
+            maxZ = Math.max(maxZ,Math.abs(zs[i]));
+        }
+        for (int row = 0; row < n; row++) {
+            int indexQ = (offset+row)*N + offset;
+            int indexS = row*n;
+            for (int col = 0; col < n; col++) {
+                Qs.data[indexS+col] = data[indexQ+order[col]];
+            }
+        }
+
+        // ------ deflation
+        double tol = 8*UtilEjml.EPS*Math.max(maxD,maxZ);
+        boolean deflated[] = w.deflated;
+        // columns in Qs are zero in the bottom rows if they came from Q1 or the top rows if from Q2
+        int halves[] = w.halves;
+        for (int j = 0; j < n; j++) {
+            deflated[j] = false;
+            halves[j] = order[j] < n1 ? TOP : BOTTOM;
+        }
+        int prev = -1;
+        for (int j = 0; j < n; j++) {
+            if( rho*Math.abs(zs[j]) <= tol ) {
+                deflated[j] = true;
+                continue;
+            }
+            if( prev >= 0 ) {
+                // rotate z so that the previous element is zero if the two eigenvalues are nearly the same
+                double s = zs[prev], c = zs[j];
+                double tau = Math.sqrt(c*c + s*s);
+                c /= tau;
+                s = -s/tau;
+                if( Math.abs((d[j]-d[prev])*c*s) <= tol ) {
+                    zs[j] = tau;
+                    zs[prev] = 0;
+                    rotateColumns(Qs,prev,j,c,s);
+                    if( halves[prev] != halves[j] )
+                        halves[prev] = halves[j] = BOTH;
+                    double dp = d[prev], dj = d[j];
+                    d[prev] = dp*c*c + dj*s*s;
+                    d[j] = dp*s*s + dj*c*c;
+                    deflated[prev] = true;
+                }
+            }
+            prev = j;
+        }
+
+        // ------ Solve for the eigenvalues and eigenvectors which were not deflated
+        int k = 0;
+        for (int j = 0; j < n; j++) {
+            if( !deflated[j] )
+                k++;
+        }
+        int numDeflated = n-k;
+
+        double dk[] = w.dk;
+        double zk[] = w.zk;
+        int kept[] = w.kept;
+        int removed[] = w.removed;
+        for (int j = 0, ik = 0, id = 0; j < n; j++) {
+            if( deflated[j] ) {
+                removed[id++] = j;
+            } else {
+                dk[ik] = d[j];
+                zk[ik] = zs[j];
+                kept[ik++] = j;
+            }
+        }
+
+        SecularEquation_DDRM secular = w.secular;
+        DMatrixRMaj W = w.W;
+        W.reshape(n,k);
+        if( k > 0 ) {
+            if( !secular.process(dk,zk,rho,k) )
+                return false;
+            secular.computeZ(zk);
+
+            // eigenvectors of D + rho*z*z^T
+            DMatrixRMaj V = w.V;
+            V.reshape(k,k);
+            for (int i = 0; i < k; i++) {
+                double sum = 0;
+                for (int j = 0; j < k; j++) {
+                    double v = zk[j]/secular.difference(j,i);
+                    V.data[j*k+i] = v;
+                    sum += v*v;
+                }
+                sum = Math.sqrt(sum);
+                for (int j = 0; j < k; j++) {
+                    V.data[j*k+i] /= sum;
+                }
+            }
+
+            multiplyVectors(Qs,V,kept,halves,n1,W,w);
+        }
+
+        // ------ Merge the deflated and non-deflated eigenvalues into a sorted list
+        // rotations can leave the deflated eigenvalues slightly out of order
+        double dd[] = w.dd;
+        for (int i = 0; i < numDeflated; i++) {
+            dd[i] = d[removed[i]];
+        }
+        int orderD[] = w.orderD;
+        sortedOrder(dd,numDeflated,orderD);
+
+        for (int i = 0, ik = 0, id = 0; i < n; i++) {
+            boolean useK = id >= numDeflated ||
+                    (ik < k && secular.getRoot(ik) <= dd[orderD[id]]);
+            if( useK ) {
+                values[offset+i] = secular.getRoot(ik);
+                for (int row = 0; row < n; row++) {
+                    data[(offset+row)*N + offset+i] = W.data[row*k+ik];
+                }
+                ik++;
+            } else {
+                int src = removed[orderD[id]];
+                values[offset+i] = dd[orderD[id]];
+                for (int row = 0; row < n; row++) {
+                    data[(offset+row)*N + offset+i] = Qs.data[row*n+src];
+                }
+                id++;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Computes W = Qs(:,kept)*V while skipping the blocks in Qs which are known to be zero. The top rows
+     * only need the columns from Q1 and the bottom rows only the columns from Q2, which halves the cost.
+     */
+    private static void multiplyVectors( DMatrixRMaj Qs , DMatrixRMaj V , int kept[] , int halves[] ,
+                                         int n1 , DMatrixRMaj W , Workspace w ) {
+        int n = Qs.numRows;
+        int k = V.numRows;
+
+        for( int half : new int[]{TOP,BOTTOM} ) {
+            int row0 = half == TOP ? 0 : n1;
+            int row1 = half == TOP ? n1 : n;
+
+            // rows in V which correspond to columns in Qs that are not zero in this half
+            int used[] = w.used;
+            int numUsed = 0;
+            for (int i = 0; i < k; i++) {
+                if( halves[kept[i]] != (half == TOP ? BOTTOM : TOP) )
+                    used[numUsed++] = i;
+            }
+
+            DMatrixRMaj Qh = w.Qh;
+            DMatrixRMaj Vh = w.Vh;
+            Qh.reshape(row1-row0,numUsed);
+            Vh.reshape(numUsed,k);
+            for (int row = row0; row < row1; row++) {
+                for (int i = 0; i < numUsed; i++) {
+                    Qh.data[(row-row0)*numUsed+i] = Qs.data[row*n+kept[used[i]]];
+                }
+            }
+            for (int i = 0; i < numUsed; i++) {
+                System.arraycopy(V.data,used[i]*k,Vh.data,i*k,k);
+            }
+            DMatrixRMaj Wh = w.Wh;
+            Wh.reshape(row1-row0,k);
+            CommonOps_DDRM.mult(Qh,Vh,Wh);
+            System.arraycopy(Wh.data,0,W.data,row0*k,Wh.getNumElements());
+        }
+    }
+
+    /**
+     * Applies a Givens rotation to two columns. x = c*x + s*y and y = c*y - s*x
+     */
+    private static void rotateColumns( DMatrixRMaj A , int colX , int colY , double c , double s ) {
+        for (int row = 0; row < A.numRows; row++) {
+            int index = row*A.numCols;
+            double x = A.data[index+colX];
+            double y = A.data[index+colY];
+            A.data[index+colX] = c*x + s*y;
+            A.data[index+colY] = c*y - s*x;
+        }
+    }
+
+    /**
+     * Computes the indexes of the values in increasing order. Insertion sort is used since the
+     * values are either nearly sorted or the list is small.
+     */
+    private static void sortedOrder( double values[] , int length , int order[] ) {
+        for (int i = 0; i < length; i++) {
+            int j = i;
+            while( j > 0 && values[order[j-1]] > values[i] ) {
+                order[j] = order[j-1];
+                j--;
+            }
+            order[j] = i;
+        }
+    }
+
+    /**
+     * Eigenvalues in increasing order
+     */
+    public double[] getEigenvalues() {
+        return values;
+    }
+
+    /**
+     * Matrix which contains the eigenvectors in its columns
+     */
+    public DMatrixRMaj getEigenvectors() {
+        return Q;
+    }
+
+    public int getNumberOfEigenvalues() {
+        return N;
+    }
+
+    public int getLeafSize() {
+        return leafSize;
+    }
+
+    /**
+     * Sub-problems this size or smaller are solved using the QR algorithm. Must be at least 2.
+     */
+    public void setLeafSize(int leafSize) {
+        if( leafSize < 2 )
+            throw new IllegalArgumentException("Leaf size must be at least 2");
+        this.leafSize = leafSize;
+    }
+
+    /**
+     * Scratch space used when solving and merging sub-problems
+     */
+    private static class Workspace {
+        double z[] = new double[0];
+        double d[] = new double[0];
+        double zs[] = new double[0];
+        double dk[] = new double[0];
+        double zk[] = new double[0];
+        double dd[] = new double[0];
+        int order[] = new int[0];
+        int orderD[] = new int[0];
+        int halves[] = new int[0];
+        int kept[] = new int[0];
+        int removed[] = new int[0];
+        int used[] = new int[0];
+        boolean deflated[] = new boolean[0];
+
+        DMatrixRMaj Qs = new DMatrixRMaj(1,1);
+        DMatrixRMaj V = new DMatrixRMaj(1,1);
+        DMatrixRMaj W = new DMatrixRMaj(1,1);
+        DMatrixRMaj Qh = new DMatrixRMaj(1,1);
+        DMatrixRMaj Vh = new DMatrixRMaj(1,1);
+        DMatrixRMaj Wh = new DMatrixRMaj(1,1);
+
+        SecularEquation_DDRM secular = new SecularEquation_DDRM();
+        SymmetricQREigenHelper_DDRM helper = new SymmetricQREigenHelper_DDRM();
+        SymmetricQrAlgorithm_DDRM qr = new SymmetricQrAlgorithm_DDRM(helper);
+
+        Workspace() {
+            qr.setFastEigenvalues(false);
+        }
+
+        /**
+         * Declares enough memory for sub-problems up to size n
+         *
+         * @param leafSize Largest sub-problem which is solved with the QR algorithm
+         * @param n Largest sub-problem
+         */
+        void reserve( int leafSize , int n ) {
+            if( z.length < n ) {
+                z = new double[n];
+                d = new double[n];
+                zs = new double[n];
+                dk = new double[n];
+                zk = new double[n];
+                dd = new double[n];
+                order = new int[n];
+                orderD = new int[n];
+                halves = new int[n];
+                kept = new int[n];
+                removed = new int[n];
+                used = new int[n];
+                deflated = new boolean[n];
+            }
+            // a merge only happens if the sub-problem is larger than a leaf
+            if( n > leafSize ) {
+                int half = n - n/2;
+                Qs.reshape(n,n);
+                W.reshape(n,n);
+                Qh.reshape(half,n);
+                Vh.reshape(n,n);
+                Wh.reshape(half,n);
+            }
+            V.reshape(n,n);
+        }
+    }
+}
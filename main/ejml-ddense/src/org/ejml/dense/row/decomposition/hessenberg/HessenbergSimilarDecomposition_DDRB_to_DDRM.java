@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.dense.row.decomposition.hessenberg;
+
+import org.ejml.EjmlParameters;
+import org.ejml.data.DMatrixRBlock;
+import org.ejml.dense.block.MatrixOps_DDRB;
+import org.ejml.dense.block.decomposition.hessenberg.HessenbergDecompositionHouseholder_DDRB;
+import org.ejml.dense.block.decomposition.hessenberg.HessenbergDecompositionHouseholder_MT_DDRB;
+
+
+/**
+ * Computes the Hessenberg decomposition using {@link HessenbergDecompositionHouseholder_DDRB}.  The block
+ * algorithm stores its results in the same format so H and Q are extracted the same way.
+ *
+ * @author Peter Abeles
+ */
+public class HessenbergSimilarDecomposition_DDRB_to_DDRM extends HessenbergSimilarDecomposition_DDRM {
+
+    private HessenbergDecompositionHouseholder_DDRB alg = new HessenbergDecompositionHouseholder_MT_DDRB();
+
+    private DMatrixRBlock Ablock = new DMatrixRBlock();
+    private int blockLength;
+    private double tmp[] = new double[1];
+
+    public HessenbergSimilarDecomposition_DDRB_to_DDRM( int blockLength ) {
+        this.blockLength = blockLength;
+    }
+
+    public HessenbergSimilarDecomposition_DDRB_to_DDRM() {
+        this(EjmlParameters.BLOCK_WIDTH);
+    }
+
+    @Override
+    protected boolean _decompose() {
+        Ablock.numRows = N;
+        Ablock.numCols = N;
+        Ablock.blockLength = blockLength;
+        Ablock.data = QH.data;
+
+        int tmpLength = Math.min(blockLength,N)*N;
+        if( tmp.length < tmpLength )
+            tmp = new double[tmpLength];
+
+        // convert in place to avoid allocating another matrix
+        MatrixOps_DDRB.convertRowToBlock(N,N,blockLength,QH.data,tmp);
+        boolean ret = alg.decompose(Ablock);
+        MatrixOps_DDRB.convertBlockToRow(N,N,blockLength,QH.data,tmp);
+
+        System.arraycopy(alg.getGammas(),0,gammas,0,Math.max(0,N-2));
+
+        return ret;
+    }
+}
@@ -48,12 +48,12 @@ import org.ejml.interfaces.decomposition.DecompositionInterface;
 public class HessenbergSimilarDecomposition_DDRM
         implements DecompositionInterface<DMatrixRMaj> {
     // A combined matrix that stores te upper Hessenberg matrix and the orthogonal matrix.
-    private DMatrixRMaj QH;
+    protected DMatrixRMaj QH;
     // number of rows and columns of the matrix being decompose
-    private int N;
+    protected int N;
 
     // the first element in the orthogonal vectors
-    private double gammas[];
+    protected double gammas[];
     // temporary storage
     private double b[];
     private double u[];
@@ -158,7 +158,7 @@ public class HessenbergSimilarDecomposition_DDRM
     /**
      * Internal function for computing the decomposition.
      */
-    private boolean _decompose() {
+    protected boolean _decompose() {
         double h[] = QH.data;
 
         for( int k = 0; k < N-2; k++ ) {
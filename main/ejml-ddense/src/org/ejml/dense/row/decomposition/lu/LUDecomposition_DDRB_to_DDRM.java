@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.dense.row.decomposition.lu;
+
+import org.ejml.EjmlParameters;
+import org.ejml.data.DMatrixRBlock;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.block.MatrixOps_DDRB;
+import org.ejml.dense.block.decomposition.lu.LUDecompositionBlock_DDRB;
+import org.ejml.dense.block.decomposition.lu.LUDecompositionBlock_MT_DDRB;
+
+
+/**
+ * Computes the LU decomposition using {@link LUDecompositionBlock_DDRB}.  The block algorithm stores its results
+ * in the same format so the same code is used to solve, invert, and compute the determinant.
+ *
+ * @author Peter Abeles
+ */
+public class LUDecomposition_DDRB_to_DDRM extends LUDecompositionBase_DDRM {
+
+    private LUDecompositionBlock_DDRB alg = new LUDecompositionBlock_MT_DDRB();
+
+    private DMatrixRBlock Ablock = new DMatrixRBlock();
+    private int blockLength;
+    private double tmp[] = new double[1];
+
+    public LUDecomposition_DDRB_to_DDRM( int blockLength ) {
+        this.blockLength = blockLength;
+    }
+
+    public LUDecomposition_DDRB_to_DDRM() {
+        this(EjmlParameters.BLOCK_WIDTH);
+    }
+
+    @Override
+    public boolean decompose( DMatrixRMaj a ) {
+        decomposeCommonInit(a);
+
+        Ablock.numRows = m;
+        Ablock.numCols = n;
+        Ablock.blockLength = blockLength;
+        Ablock.data = LU.data;
+
+        int tmpLength = Math.min(blockLength,m)*n;
+        if( tmp.length < tmpLength )
+            tmp = new double[tmpLength];
+
+        // convert in place to avoid allocating another matrix
+        MatrixOps_DDRB.convertRowToBlock(m,n,blockLength,LU.data,tmp);
+        boolean ret = alg.decompose(Ablock);
+        MatrixOps_DDRB.convertBlockToRow(m,n,blockLength,LU.data,tmp);
+
+        System.arraycopy(alg.getIndx(),0,indx,0,Math.min(m,n));
+        System.arraycopy(alg.getPivot(),0,pivot,0,m);
+        pivsign = alg.getPivotSign();
+
+        return ret;
+    }
+}
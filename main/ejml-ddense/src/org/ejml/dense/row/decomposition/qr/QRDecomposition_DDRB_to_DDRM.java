@@ -23,6 +23,7 @@ import org.ejml.data.DMatrixRBlock;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.dense.block.MatrixOps_DDRB;
 import org.ejml.dense.block.decomposition.qr.QRDecompositionHouseholder_DDRB;
+import org.ejml.dense.block.decomposition.qr.QRDecompositionHouseholder_MT_DDRB;
 import org.ejml.dense.row.CommonOps_DDRM;
 import org.ejml.dense.row.decomposition.BaseDecomposition_DDRB_to_DDRM;
 import org.ejml.interfaces.decomposition.QRDecomposition;
@@ -38,7 +39,7 @@ public class QRDecomposition_DDRB_to_DDRM
         extends BaseDecomposition_DDRB_to_DDRM implements QRDecomposition<DMatrixRMaj>  {
 
     public QRDecomposition_DDRB_to_DDRM() {
-        super(new QRDecompositionHouseholder_DDRB(), EjmlParameters.BLOCK_WIDTH);
+        super(new QRDecompositionHouseholder_MT_DDRB(), EjmlParameters.BLOCK_WIDTH);
     }
 
     @Override
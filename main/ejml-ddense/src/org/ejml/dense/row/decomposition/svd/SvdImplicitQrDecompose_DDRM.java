@@ -18,9 +18,11 @@
 
 package org.ejml.dense.row.decomposition.svd;
 
+import org.ejml.EjmlParameters;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.dense.row.CommonOps_DDRM;
 import org.ejml.dense.row.decomposition.bidiagonal.BidiagonalDecompositionRow_DDRM;
+import org.ejml.dense.row.decomposition.bidiagonal.BidiagonalDecomposition_DDRB_to_DDRM;
 import org.ejml.dense.row.decomposition.bidiagonal.BidiagonalDecompositionTall_DDRM;
 import org.ejml.dense.row.decomposition.svd.implicitqr.SvdImplicitQrAlgorithm_DDRM;
 import org.ejml.interfaces.decomposition.BidiagonalDecomposition_F64;
@@ -292,6 +294,11 @@ public class SvdImplicitQrDecompose_DDRM implements SingularValueDecomposition_F
             if( bidiag == null || !(bidiag instanceof BidiagonalDecompositionTall_DDRM) ) {
                 bidiag = new BidiagonalDecompositionTall_DDRM();
             }
+        } else if( numColsT >= EjmlParameters.SWITCH_BLOCK_BIDIAGONAL ) {
+            // large matrices are more efficiently processed using block matrix operations
+            if( bidiag == null || !(bidiag instanceof BidiagonalDecomposition_DDRB_to_DDRM) ) {
+                bidiag = new BidiagonalDecomposition_DDRB_to_DDRM();
+            }
         } else if( bidiag == null || !(bidiag instanceof BidiagonalDecompositionRow_DDRM) ) {
             bidiag = new BidiagonalDecompositionRow_DDRM();
         }
@@ -0,0 +1,323 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.dense.row.decomposition.svd;
+
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.dense.row.SingularOps_DDRM;
+import org.ejml.dense.row.factory.DecompositionFactory_DDRM;
+import org.ejml.interfaces.decomposition.QRDecomposition;
+import org.ejml.interfaces.decomposition.SingularValueDecomposition_F64;
+
+import java.util.Random;
+
+/**
+ * <p>
+ * Computes an approximation of the largest singular values and their singular vectors using a randomized
+ * range finder. Much faster than a full SVD when only a few singular values of a large matrix are needed.
+ * </p>
+ *
+ * <ol>
+ *     <li>Sample the range of A, Y = A*&Omega;, where &Omega; is a Gaussian random n by (k+p) matrix
+ *     and p is the amount of oversampling.</li>
+ *     <li>Find an orthonormal basis Q for Y using QR. Optionally improve it with power iterations which
+ *     multiply by A*A<sup>T</sup>.</li>
+ *     <li>Project A onto the basis, B = Q<sup>T</sup>A, and compute the SVD of the small matrix B</li>
+ *     <li>A &asymp; Q*B = (Q*U<sub>B</sub>)*W*V<sup>T</sup></li>
+ * </ol>
+ *
+ * <p>
+ * The matrix is only accessed through multiplication, see {@link #multA} and {@link #multTransA}, which allows
+ * other matrix formats to be supported by overriding those functions.
+ * Results are always compact. U is m by k, W is k by k, and V is n by k, where k is the requested rank
+ * or min(m,n) if that's smaller. Singular values are in descending order.
+ * </p>
+ *
+ * <p>
+ * N. Halko, P. G. Martinsson, and J. A. Tropp, "Finding structure with randomness: Probabilistic algorithms
+ * for constructing approximate matrix decompositions," SIAM Review, 2011
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SvdRandomized_DDRM implements SingularValueDecomposition_F64<DMatrixRMaj> {
+
+    // number of singular values which are requested
+    private int rank;
+    // number of extra samples used to improve accuracy
+    private int oversampling;
+    // number of power iterations
+    private int powerIterations;
+
+    private boolean computeU;
+    private boolean computeV;
+
+    private Random rand;
+
+    // the matrix being decomposed
+    protected DMatrixRMaj A;
+
+    private int numRows;
+    private int numCols;
+    // number of singular values found
+    private int numSingular;
+
+    // work space
+    private DMatrixRMaj Omega = new DMatrixRMaj(1,1);
+    private DMatrixRMaj Y = new DMatrixRMaj(1,1);
+    private DMatrixRMaj Z = new DMatrixRMaj(1,1);
+    private DMatrixRMaj Q = new DMatrixRMaj(1,1);
+    private DMatrixRMaj Qz = new DMatrixRMaj(1,1);
+    private DMatrixRMaj Bt = new DMatrixRMaj(1,1);
+    private DMatrixRMaj Ub = new DMatrixRMaj(1,1);
+    private DMatrixRMaj Vb = new DMatrixRMaj(1,1);
+    private DMatrixRMaj work = new DMatrixRMaj(1,1);
+
+    private QRDecomposition<DMatrixRMaj> qr = DecompositionFactory_DDRM.qr();
+    private SingularValueDecomposition_F64<DMatrixRMaj> svd = DecompositionFactory_DDRM.svd(true,true,true);
+
+    // the results
+    private DMatrixRMaj U = new DMatrixRMaj(1,1);
+    private DMatrixRMaj V = new DMatrixRMaj(1,1);
+    private double sv[] = new double[0];
+
+    /**
+     * Configures the decomposition
+     *
+     * @param rank Number of singular values that are computed.
+     * @param oversampling Number of extra samples of the range. 5 to 10 is typical.
+     * @param powerIterations Number of power iterations. More is needed if the singular values decay slowly.
+     * @param computeU Should it compute U
+     * @param computeV Should it compute V
+     * @param rand Used to create the random samples
+     */
+    public SvdRandomized_DDRM( int rank , int oversampling , int powerIterations ,
+                               boolean computeU , boolean computeV , Random rand ) {
+        if( rank <= 0 )
+            throw new IllegalArgumentException("rank must be positive");
+        if( oversampling < 0 || powerIterations < 0 )
+            throw new IllegalArgumentException("oversampling and powerIterations can't be negative");
+        this.rank = rank;
+        this.oversampling = oversampling;
+        this.powerIterations = powerIterations;
+        this.computeU = computeU;
+        this.computeV = computeV;
+        this.rand = rand;
+    }
+
+    /**
+     * Uses 10 for oversampling, 2 power iterations, and a fixed random seed
+     */
+    public SvdRandomized_DDRM( int rank , boolean computeU , boolean computeV ) {
+        this(rank,10,2,computeU,computeV,new Random(0xBEEF));
+    }
+
+    @Override
+    public boolean decompose(DMatrixRMaj orig) {
+        this.A = orig;
+        boolean success = process(orig.numRows,orig.numCols);
+        this.A = null;
+        return success;
+    }
+
+    /**
+     * Computes the decomposition of a matrix which is accessed through {@link #multA} and {@link #multTransA}
+     *
+     * @param numRows Number of rows in the matrix
+     * @param numCols Number of columns in the matrix
+     * @return true if successful
+     */
+    protected boolean process( int numRows , int numCols ) {
+        this.numRows = numRows;
+        this.numCols = numCols;
+        int minLength = Math.min(numRows,numCols);
+        numSingular = Math.min(rank,minLength);
+        if( numSingular == 0 )
+            return false;
+        int l = Math.min(numSingular+oversampling,minLength);
+
+        // sample the range of A
+        Omega.reshape(numCols,l);
+        RandomMatrices_DDRM.fillGaussian(Omega,0,1,rand);
+        Y.reshape(numRows,l);
+        multA(Omega,Y);
+        orthonormalize(Y,Q);
+
+        // power iterations improve the basis when the singular values decay slowly
+        for (int i = 0; i < powerIterations; i++) {
+            Z.reshape(numCols,l);
+            multTransA(Q,Z);
+            orthonormalize(Z,Qz);
+            multA(Qz,Y);
+            orthonormalize(Y,Q);
+        }
+
+        // project A onto the basis. B^T = A^T*Q is n by l
+        Bt.reshape(numCols,l);
+        multTransA(Q,Bt);
+
+        // B^T = Ub*W*Vb^T so A = Q*B = (Q*Vb)*W*Ub^T
+        if( !svd.decompose(Bt) )
+            return false;
+        svd.getU(Ub,false);
+        svd.getV(Vb,false);
+        if( sv.length < l )
+            sv = new double[l];
+        System.arraycopy(svd.getSingularValues(),0,sv,0,l);
+        SingularOps_DDRM.descendingOrder(Ub,false,sv,l,Vb,false);
+
+        if( computeU ) {
+            CommonOps_DDRM.extract(Vb,0,l,0,numSingular,work);
+            U.reshape(numRows,numSingular);
+            CommonOps_DDRM.mult(Q,work,U);
+        }
+        if( computeV ) {
+            V.reshape(numCols,numSingular);
+            CommonOps_DDRM.extract(Ub,0,numCols,0,numSingular,V);
+        }
+
+        return true;
+    }
+
+    /**
+     * Computes an orthonormal basis Q for the columns in Y.  QR "fails" when Y is rank deficient, which is
+     * expected when A has a low rank, but Q is still orthonormal and spans Y so the failure is ignored.
+     */
+    private void orthonormalize( DMatrixRMaj Y , DMatrixRMaj Q ) {
+        qr.decompose(Y);
+        Q.reshape(Y.numRows,Y.numCols);
+        qr.getQ(Q,true);
+    }
+
+    /**
+     * Computes C = A*B
+     */
+    protected void multA( DMatrixRMaj B , DMatrixRMaj C ) {
+        CommonOps_DDRM.mult(A,B,C);
+    }
+
+    /**
+     * Computes C = A<sup>T</sup>*B
+     */
+    protected void multTransA( DMatrixRMaj B , DMatrixRMaj C ) {
+        CommonOps_DDRM.multTransA(A,B,C);
+    }
+
+    @Override
+    public double[] getSingularValues() {
+        return sv;
+    }
+
+    @Override
+    public int numberOfSingularValues() {
+        return numSingular;
+    }
+
+    @Override
+    public boolean isCompact() {
+        return true;
+    }
+
+    @Override
+    public DMatrixRMaj getU(DMatrixRMaj U, boolean transposed) {
+        if( !computeU )
+            throw new IllegalArgumentException("As requested U was not computed.");
+        return copy(this.U,U,transposed);
+    }
+
+    @Override
+    public DMatrixRMaj getV(DMatrixRMaj V, boolean transposed) {
+        if( !computeV )
+            throw new IllegalArgumentException("As requested V was not computed.");
+        return copy(this.V,V,transposed);
+    }
+
+    private static DMatrixRMaj copy( DMatrixRMaj src , DMatrixRMaj dst , boolean transposed ) {
+        if( transposed ) {
+            if( dst == null )
+                dst = new DMatrixRMaj(src.numCols,src.numRows);
+            else
+                dst.reshape(src.numCols,src.numRows);
+            CommonOps_DDRM.transpose(src,dst);
+        } else {
+            if( dst == null )
+                dst = new DMatrixRMaj(src.numRows,src.numCols);
+            dst.set(src);
+        }
+        return dst;
+    }
+
+    @Override
+    public DMatrixRMaj getW(DMatrixRMaj W) {
+        if( W == null )
+            W = new DMatrixRMaj(numSingular,numSingular);
+        else {
+            W.reshape(numSingular,numSingular);
+            W.zero();
+        }
+        for (int i = 0; i < numSingular; i++) {
+            W.unsafe_set(i,i,sv[i]);
+        }
+        return W;
+    }
+
+    @Override
+    public int numRows() {
+        return numRows;
+    }
+
+    @Override
+    public int numCols() {
+        return numCols;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    public void setRank(int rank) {
+        this.rank = rank;
+    }
+
+    public int getOversampling() {
+        return oversampling;
+    }
+
+    public void setOversampling(int oversampling) {
+        this.oversampling = oversampling;
+    }
+
+    public int getPowerIterations() {
+        return powerIterations;
+    }
+
+    public void setPowerIterations(int powerIterations) {
+        this.powerIterations = powerIterations;
+    }
+
+    /**
+     * The input matrix is not modified
+     */
+    @Override
+    public boolean inputModified() {
+        return false;
+    }
+}
@@ -31,14 +31,19 @@ import org.ejml.dense.row.decomposition.chol.CholeskyDecompositionInner_DDRM;
 import org.ejml.dense.row.decomposition.chol.CholeskyDecompositionLDL_DDRM;
 import org.ejml.dense.row.decomposition.chol.CholeskyDecomposition_DDRB_to_DDRM;
 import org.ejml.dense.row.decomposition.eig.SwitchingEigenDecomposition_DDRM;
+import org.ejml.dense.row.decomposition.eig.SymmetricDivideConquerDecomposition_DDRM;
 import org.ejml.dense.row.decomposition.eig.SymmetricQRAlgorithmDecomposition_DDRM;
 import org.ejml.dense.row.decomposition.eig.WatchedDoubleStepQRDecomposition_DDRM;
+import org.ejml.dense.row.decomposition.hessenberg.HessenbergSimilarDecomposition_DDRB_to_DDRM;
+import org.ejml.dense.row.decomposition.hessenberg.HessenbergSimilarDecomposition_DDRM;
 import org.ejml.dense.row.decomposition.hessenberg.TridiagonalDecompositionHouseholder_DDRM;
 import org.ejml.dense.row.decomposition.hessenberg.TridiagonalDecomposition_DDRB_to_DDRM;
 import org.ejml.dense.row.decomposition.lu.LUDecompositionAlt_DDRM;
+import org.ejml.dense.row.decomposition.lu.LUDecomposition_DDRB_to_DDRM;
 import org.ejml.dense.row.decomposition.qr.QRColPivDecompositionHouseholderColumn_DDRM;
 import org.ejml.dense.row.decomposition.qr.QRDecompositionHouseholderColumn_DDRM;
 import org.ejml.dense.row.decomposition.svd.SvdImplicitQrDecompose_DDRM;
+import org.ejml.dense.row.decomposition.svd.SvdRandomized_DDRM;
 import org.ejml.interfaces.decomposition.*;
 
 
@@ -111,11 +116,17 @@ public class DecompositionFactory_DDRM {
      * Returns a {@link org.ejml.interfaces.decomposition.LUDecomposition} that has been optimized for the specified matrix size.
      * </p>
      *
+     * <p>
+     * Large matrices use a block algorithm, see {@link EjmlParameters#SWITCH_BLOCK_LU}.
+     * </p>
+     *
      * @param numRows Shape of the matrix that the code should be targeted towards. Does not need to be exact.
      * @param numCol Shape of the matrix that the code should be targeted towards. Does not need to be exact.
      * @return LUDecomposition
      */
     public static LUDecomposition_F64<DMatrixRMaj> lu(int numRows , int numCol ) {
+        if( Math.min(numRows,numCol) >= EjmlParameters.SWITCH_BLOCK_LU )
+            return new LUDecomposition_DDRB_to_DDRM();
         return new LUDecompositionAlt_DDRM();
     }
 
@@ -154,6 +165,19 @@ public class DecompositionFactory_DDRM {
         return svd(100,100,needU,needV,compact);
     }
 
+    /**
+     * Returns a randomized SVD which approximates the largest singular values and their singular vectors. The
+     * results are always compact and the singular values are in descending order.
+     *
+     * @param rank Number of singular values which are computed.
+     * @param needU Should it compute the U matrix. If not sure set to true.
+     * @param needV Should it compute the V matrix. If not sure set to true.
+     * @return Truncated SVD
+     */
+    public static SvdRandomized_DDRM svdRandomized(int rank , boolean needU , boolean needV ) {
+        return new SvdRandomized_DDRM(rank,needU,needV);
+    }
+
     /**
      * <p>
      * Returns a {@link org.ejml.interfaces.decomposition.QRDecomposition} that has been optimized for the specified matrix size.
@@ -212,6 +236,12 @@ public class DecompositionFactory_DDRM {
      * Returns an {@link EigenDecomposition} which is specialized for symmetric matrices or the general problem.
      * </p>
      *
+     * <p>
+     * For large symmetric matrices where the eigenvectors are needed, divide and conquer is used instead
+     * of the QR algorithm. See {@link EjmlParameters#SWITCH_EIG_DIVIDE_CONQUER}.  For large general matrices
+     * a block Hessenberg decomposition is used, see {@link #hessenberg(int)}.
+     * </p>
+     *
      * @param matrixSize Number of rows and columns that the returned decomposition is optimized for.
      * @param computeVectors Should it compute the eigenvectors or just eigenvalues.
      * @param isSymmetric If true then the returned algorithm is specialized only for symmetric matrices, if false
@@ -222,9 +252,11 @@ public class DecompositionFactory_DDRM {
                                                           boolean isSymmetric ) {
         if( isSymmetric ) {
             TridiagonalSimilarDecomposition_F64<DMatrixRMaj> decomp = DecompositionFactory_DDRM.tridiagonal(matrixSize);
+            if( computeVectors && matrixSize >= EjmlParameters.SWITCH_EIG_DIVIDE_CONQUER )
+                return new SymmetricDivideConquerDecomposition_DDRM(decomp);
             return new SymmetricQRAlgorithmDecomposition_DDRM(decomp,computeVectors);
         } else
-            return new WatchedDoubleStepQRDecomposition_DDRM(computeVectors);
+            return new WatchedDoubleStepQRDecomposition_DDRM(hessenberg(matrixSize),computeVectors);
     }
     public static EigenDecomposition_F64<DMatrixRMaj> eig( boolean computeVectors ,
                                                            boolean isSymmetric ) {
@@ -305,6 +337,20 @@ public class DecompositionFactory_DDRM {
         return error;
     }
 
+    /**
+     * Returns a Hessenberg decomposition which is appropriate for a general square matrix of the provided size.
+     * Large matrices use the block algorithm, see {@link EjmlParameters#SWITCH_BLOCK_HESSENBERG}.
+     *
+     * @param matrixSize Number of rows and columns that the returned decomposition is optimized for.
+     */
+    public static HessenbergSimilarDecomposition_DDRM hessenberg( int matrixSize ) {
+        if( matrixSize >= EjmlParameters.SWITCH_BLOCK_HESSENBERG ) {
+            return new HessenbergSimilarDecomposition_DDRB_to_DDRM();
+        } else {
+            return new HessenbergSimilarDecomposition_DDRM(matrixSize);
+        }
+    }
+
     /**
      * Checks to see if the passed in tridiagonal decomposition is of the appropriate type
      * for the matrix of the provided size.  Returns the same instance or a new instance.
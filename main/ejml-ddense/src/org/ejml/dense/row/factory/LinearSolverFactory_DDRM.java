@@ -23,6 +23,7 @@ import org.ejml.data.DMatrixRMaj;
 import org.ejml.dense.row.decomposition.chol.CholeskyDecompositionCommon_DDRM;
 import org.ejml.dense.row.decomposition.chol.CholeskyDecompositionInner_DDRM;
 import org.ejml.dense.row.decomposition.lu.LUDecompositionAlt_DDRM;
+import org.ejml.dense.row.decomposition.lu.LUDecomposition_DDRB_to_DDRM;
 import org.ejml.dense.row.decomposition.qr.QRColPivDecompositionHouseholderColumn_DDRM;
 import org.ejml.dense.row.linsol.AdjustableLinearSolver_DDRM;
 import org.ejml.dense.row.linsol.chol.LinearSolverChol_DDRB;
@@ -82,11 +83,14 @@ public class LinearSolverFactory_DDRM {
     }
 
     /**
-     * Creates a solver for linear systems.  The A matrix will have dimensions (m,m).
+     * Creates a solver for linear systems.  The A matrix will have dimensions (m,m).  Large matrices use
+     * a block LU decomposition, see {@link EjmlParameters#SWITCH_BLOCK_LU}.
      *
      * @return A new linear solver.
      */
     public static LinearSolverDense<DMatrixRMaj> linear(int matrixSize ) {
+        if( matrixSize >= EjmlParameters.SWITCH_BLOCK_LU )
+            return new LinearSolverLu_DDRM(new LUDecomposition_DDRB_to_DDRM());
         return new LinearSolverLu_DDRM(new LUDecompositionAlt_DDRM());
     }
 
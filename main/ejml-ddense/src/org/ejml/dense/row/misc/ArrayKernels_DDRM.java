@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.dense.row.misc;
+
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+/**
+ * <p>
+ * Low level kernels which operate on contiguous segments of arrays.  The inner loops of several dense
+ * algorithms are routed through these kernels so that they can be replaced at runtime by implementations
+ * which have been explicitly vectorized, e.g. the ejml-simd module.  The default implementation is plain
+ * Java and produces results which are identical to the loops it replaced.
+ * </p>
+ *
+ * <p>
+ * A replacement is found using {@link ServiceLoader} the first time this class is used.  If a provider
+ * can't be loaded (wrong JDK, missing module, ...) or reports that it isn't supported then it's skipped
+ * and the default implementation is used.  Setting the system property "ejml.kernels.scalar" to true
+ * forces the default implementation to be used.
+ * </p>
+ *
+ * <p>
+ * No sanity checks are performed on the input.  Arrays which are written to can be the same instance as
+ * arrays which are read from so long as the same offset is used.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ArrayKernels_DDRM {
+
+    /**
+     * The implementation which is used by EJML
+     */
+    public static final ArrayKernels_DDRM IMPL = load();
+
+    /**
+     * Selects the first supported provider or the default implementation if there are none.
+     */
+    static ArrayKernels_DDRM load() {
+        if( Boolean.getBoolean("ejml.kernels.scalar") )
+            return new ArrayKernels_DDRM();
+        try {
+            for( ArrayKernels_DDRM kernels : ServiceLoader.load(ArrayKernels_DDRM.class) ) {
+                if( kernels.isSupported() )
+                    return kernels;
+            }
+        } catch( ServiceConfigurationError | LinkageError ignore ) {
+            // the provider needs classes which aren't available in this JVM
+        }
+        return new ArrayKernels_DDRM();
+    }
+
+    /**
+     * Returns true if the kernels can be used on this JVM.  Called once before a provider is selected.
+     */
+    public boolean isSupported() {
+        return true;
+    }
+
+    /**
+     * Short description of the implementation
+     */
+    public String getName() {
+        return "scalar";
+    }
+
+    /**
+     * Inner product of two segments.<br>
+     * sum( x[offsetX+i] * y[offsetY+i] )
+     */
+    public double dot( double[] x , int offsetX , double[] y , int offsetY , int length ) {
+        double total = 0;
+        for( int i = 0; i < length; i++ ) {
+            total += x[offsetX+i]*y[offsetY+i];
+        }
+        return total;
+    }
+
+    /**
+     * y[offsetY+i] = &alpha;*x[offsetX+i]
+     */
+    public void scale( double alpha , double[] x , int offsetX , double[] y , int offsetY , int length ) {
+        for( int i = 0; i < length; i++ ) {
+            y[offsetY+i] = alpha*x[offsetX+i];
+        }
+    }
+
+    /**
+     * y[offsetY+i] += &alpha;*x[offsetX+i]
+     */
+    public void axpy( double alpha , double[] x , int offsetX , double[] y , int offsetY , int length ) {
+        for( int i = 0; i < length; i++ ) {
+            y[offsetY+i] += alpha*x[offsetX+i];
+        }
+    }
+
+    /**
+     * c[i] = a[i] + b[i]
+     */
+    public void add( double[] a , double[] b , double[] c , int length ) {
+        for( int i = 0; i < length; i++ ) {
+            c[i] = a[i] + b[i];
+        }
+    }
+
+    /**
+     * c[i] = a[i] - b[i]
+     */
+    public void subtract( double[] a , double[] b , double[] c , int length ) {
+        for( int i = 0; i < length; i++ ) {
+            c[i] = a[i] - b[i];
+        }
+    }
+
+    /**
+     * c[i] = a[i] * b[i]
+     */
+    public void elementMult( double[] a , double[] b , double[] c , int length ) {
+        for( int i = 0; i < length; i++ ) {
+            c[i] = a[i]*b[i];
+        }
+    }
+
+    /**
+     * c[i] = a[i] / b[i]
+     */
+    public void elementDiv( double[] a , double[] b , double[] c , int length ) {
+        for( int i = 0; i < length; i++ ) {
+            c[i] = a[i]/b[i];
+        }
+    }
+
+    /**
+     * c[i] = exp(a[i])
+     */
+    public void elementExp( double[] a , double[] c , int length ) {
+        for( int i = 0; i < length; i++ ) {
+            c[i] = Math.exp(a[i]);
+        }
+    }
+
+    /**
+     * c[i] = log(a[i])
+     */
+    public void elementLog( double[] a , double[] c , int length ) {
+        for( int i = 0; i < length; i++ ) {
+            c[i] = Math.log(a[i]);
+        }
+    }
+
+    /**
+     * c[i] = a[i] ^ b[i]
+     */
+    public void elementPower( double[] a , double[] b , double[] c , int length ) {
+        for( int i = 0; i < length; i++ ) {
+            c[i] = Math.pow(a[i], b[i]);
+        }
+    }
+
+    /**
+     * c[i] = a ^ b[i]
+     */
+    public void elementPower( double a , double[] b , double[] c , int length ) {
+        for( int i = 0; i < length; i++ ) {
+            c[i] = Math.pow(a, b[i]);
+        }
+    }
+
+    /**
+     * c[i] = a[i] ^ b
+     */
+    public void elementPower( double[] a , double b , double[] c , int length ) {
+        for( int i = 0; i < length; i++ ) {
+            c[i] = Math.pow(a[i], b);
+        }
+    }
+}
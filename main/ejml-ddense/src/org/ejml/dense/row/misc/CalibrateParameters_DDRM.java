@@ -0,0 +1,429 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.misc;
+
+import org.ejml.EjmlConcurrency;
+import org.ejml.EjmlParameters;
+import org.ejml.EjmlProfile;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.dense.row.decomposition.chol.CholeskyDecompositionBlock_DDRM;
+import org.ejml.dense.row.decomposition.chol.CholeskyDecompositionInner_DDRM;
+import org.ejml.dense.row.decomposition.chol.CholeskyDecomposition_DDRB_to_DDRM;
+import org.ejml.dense.row.decomposition.lu.LUDecompositionAlt_DDRM;
+import org.ejml.dense.row.decomposition.lu.LUDecomposition_DDRB_to_DDRM;
+import org.ejml.dense.row.decomposition.qr.QRDecomposition_DDRB_to_DDRM;
+import org.ejml.dense.row.linsol.qr.LinearSolverQrBlock64_DDRM;
+import org.ejml.dense.row.linsol.qr.LinearSolverQrHouseCol_DDRM;
+import org.ejml.dense.row.mult.MatrixMatrixMultPacked_DDRM;
+import org.ejml.dense.row.mult.MatrixMatrixMult_DDRM;
+import org.ejml.dense.row.mult.MatrixMultProduct_DDRM;
+import org.ejml.interfaces.decomposition.DecompositionInterface;
+import org.ejml.interfaces.linsol.LinearSolverDense;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Random;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ * Measures where the crossover points in {@link EjmlParameters} are on the current machine and saves them in a
+ * profile.  For each switch the two algorithms it selects between are timed directly across a range of matrix
+ * sizes and the switch is placed at the first size where the second algorithm is faster.  Block sizes are set to
+ * the fastest value tested.  See {@link EjmlProfile} for how the profile is loaded.
+ * </p>
+ *
+ * <p>
+ * Usage: java org.ejml.dense.row.misc.CalibrateParameters_DDRM [output file]<br>
+ * By default the profile is written to {@link EjmlProfile#RESOURCE}. Calibration will take a few minutes.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class CalibrateParameters_DDRM {
+
+    /**
+     * Minimum amount of time, in seconds, that each timing trial will run for
+     */
+    public double minimumTrialTime = 0.05;
+
+    /**
+     * Number of trials.  The fastest trial is used.
+     */
+    public int trials = 3;
+
+    // Where status messages are printed to.  If null nothing is printed
+    PrintStream verbose = System.out;
+
+    Random rand = new Random(234);
+
+    /**
+     * Tunes all the parameters and modifies {@link EjmlParameters}
+     */
+    public void tuneAll() {
+        tuneTransposeSwitch();
+        tuneMultColumnSwitch();
+        tuneMultTranABColumnSwitch();
+        tuneMultInnerSwitch();
+        tuneMultPackedBlocks();
+        tuneMultPackedSwitch();
+        tuneMultConcurrentSwitch();
+        tuneBlockWidth();
+        tuneBlockWidthChol();
+        tuneCholeskySwitch();
+        tuneQrSwitch();
+        tuneLuSwitch();
+    }
+
+    /**
+     * {@link EjmlParameters#TRANSPOSE_SWITCH}: standard vs block transpose
+     */
+    public void tuneTransposeSwitch() {
+        int[] sizes = {50,100,200,300,400,500,750,1000,1500};
+        int crossover = crossover("TRANSPOSE_SWITCH",sizes, size -> {
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(size,size,rand);
+            DMatrixRMaj B = new DMatrixRMaj(size,size);
+            return () -> TransposeAlgs_DDRM.standard(A,B);
+        }, size -> {
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(size,size,rand);
+            DMatrixRMaj B = new DMatrixRMaj(size,size);
+            return () -> TransposeAlgs_DDRM.block(A,B,EjmlParameters.BLOCK_WIDTH);
+        });
+        // the block algorithm is used if the size is greater than the switch
+        EjmlParameters.TRANSPOSE_SWITCH = crossover < 0 ? Math.max(EjmlParameters.TRANSPOSE_SWITCH, 1500) : crossover-1;
+    }
+
+    /**
+     * {@link EjmlParameters#MULT_COLUMN_SWITCH}: small vs reorder multiplication as the number of columns in B
+     * increases
+     */
+    public void tuneMultColumnSwitch() {
+        int[] sizes = {2,4,6,8,10,12,15,20,25,30,40,60};
+        int crossover = crossover("MULT_COLUMN_SWITCH",sizes, size -> {
+            DMatrixRMaj[] m = multInputs(100,100,size);
+            return () -> MatrixMatrixMult_DDRM.mult_small(m[0],m[1],m[2]);
+        }, size -> {
+            DMatrixRMaj[] m = multInputs(100,100,size);
+            return () -> MatrixMatrixMult_DDRM.mult_reorder(m[0],m[1],m[2]);
+        });
+        EjmlParameters.MULT_COLUMN_SWITCH = crossover < 0 ? Math.max(EjmlParameters.MULT_COLUMN_SWITCH, 61) : crossover;
+    }
+
+    /**
+     * {@link EjmlParameters#MULT_TRANAB_COLUMN_SWITCH}: standard vs aux for a<sup>T</sup>*b<sup>T</sup> as the
+     * number of columns in A increases
+     */
+    public void tuneMultTranABColumnSwitch() {
+        int[] sizes = {5,10,20,30,40,50,60,80,100};
+        int crossover = crossover("MULT_TRANAB_COLUMN_SWITCH",sizes, size -> {
+            DMatrixRMaj[] m = multInputs(100,size,100);
+            return () -> MatrixMatrixMult_DDRM.multTransAB(m[0],m[1],m[2]);
+        }, size -> {
+            DMatrixRMaj[] m = multInputs(100,size,100);
+            return () -> MatrixMatrixMult_DDRM.multTransAB_aux(m[0],m[1],m[2],null);
+        });
+        EjmlParameters.MULT_TRANAB_COLUMN_SWITCH = crossover < 0 ?
+                Math.max(EjmlParameters.MULT_TRANAB_COLUMN_SWITCH, 101) : crossover;
+    }
+
+    /**
+     * {@link EjmlParameters#MULT_INNER_SWITCH}: reorder vs small inner product as the number of columns in A
+     * increases
+     */
+    public void tuneMultInnerSwitch() {
+        int[] sizes = {10,25,50,75,100,150,200,300};
+        int crossover = crossover("MULT_INNER_SWITCH",sizes, size -> {
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(100,size,rand);
+            DMatrixRMaj C = new DMatrixRMaj(size,size);
+            return () -> MatrixMultProduct_DDRM.inner_reorder(A,C);
+        }, size -> {
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(100,size,rand);
+            DMatrixRMaj C = new DMatrixRMaj(size,size);
+            return () -> MatrixMultProduct_DDRM.inner_small(A,C);
+        });
+        EjmlParameters.MULT_INNER_SWITCH = crossover < 0 ? Math.max(EjmlParameters.MULT_INNER_SWITCH, 301) : crossover;
+    }
+
+    /**
+     * {@link EjmlParameters#MULT_PACKED_MC} and {@link EjmlParameters#MULT_PACKED_KC}: Block sizes used by
+     * the packed multiplication
+     */
+    public void tuneMultPackedBlocks() {
+        DMatrixRMaj[] m = multInputs(600,600,600);
+        Runnable task = () -> MatrixMatrixMultPacked_DDRM.mult_packed(m[0],m[1],m[2]);
+
+        EjmlParameters.MULT_PACKED_KC = fastest("MULT_PACKED_KC",new int[]{64,128,192,256,384,512},
+                value -> EjmlParameters.MULT_PACKED_KC = value, task);
+        EjmlParameters.MULT_PACKED_MC = fastest("MULT_PACKED_MC",new int[]{32,64,96,128,192,256},
+                value -> EjmlParameters.MULT_PACKED_MC = value, task);
+    }
+
+    /**
+     * {@link EjmlParameters#MULT_PACKED_SWITCH}: reorder vs packed multiplication for square matrices
+     */
+    public void tuneMultPackedSwitch() {
+        int[] sizes = {20,40,60,80,100,150,200,300,400};
+        int crossover = crossover("MULT_PACKED_SWITCH",sizes, size -> {
+            DMatrixRMaj[] m = multInputs(size,size,size);
+            return () -> MatrixMatrixMult_DDRM.mult_reorder(m[0],m[1],m[2]);
+        }, size -> {
+            DMatrixRMaj[] m = multInputs(size,size,size);
+            return () -> MatrixMatrixMultPacked_DDRM.mult_packed(m[0],m[1],m[2]);
+        });
+        EjmlParameters.MULT_PACKED_SWITCH = crossover < 0 ?
+                Math.max(EjmlParameters.MULT_PACKED_SWITCH, 401L*401L*401L) : (long)crossover*crossover*crossover;
+    }
+
+    /**
+     * {@link EjmlParameters#MULT_CONCURRENT_SWITCH}: single threaded vs concurrent multiplication for square
+     * matrices.  Skipped if there is only one thread.  Square products are only run concurrently by the packed
+     * implementation, so that's what is compared.
+     */
+    public void tuneMultConcurrentSwitch() {
+        if( EjmlConcurrency.getMaxThreads() <= 1 ) {
+            print("MULT_CONCURRENT_SWITCH: skipped. Only one thread");
+            return;
+        }
+        int[] sizes = {10,20,30,40,60,80,100,150,200};
+        int crossover = crossover("MULT_CONCURRENT_SWITCH",sizes, size -> {
+            DMatrixRMaj[] m = multInputs(size,size,size);
+            return () -> multPacked(m,false);
+        }, size -> {
+            DMatrixRMaj[] m = multInputs(size,size,size);
+            return () -> multPacked(m,true);
+        });
+        EjmlParameters.MULT_CONCURRENT_SWITCH = crossover < 0 ?
+                Math.max(EjmlParameters.MULT_CONCURRENT_SWITCH, 201*201*201) : crossover*crossover*crossover;
+    }
+
+    /**
+     * Packed multiplication which is forced to be single threaded or concurrent
+     */
+    private static void multPacked( DMatrixRMaj[] m , boolean concurrent ) {
+        int original = EjmlParameters.MULT_CONCURRENT_SWITCH;
+        EjmlParameters.MULT_CONCURRENT_SWITCH = concurrent ? 0 : Integer.MAX_VALUE;
+        try {
+            MatrixMatrixMultPacked_DDRM.mult_packed(m[0],m[1],m[2]);
+        } finally {
+            EjmlParameters.MULT_CONCURRENT_SWITCH = original;
+        }
+    }
+
+    /**
+     * {@link EjmlParameters#BLOCK_WIDTH}: Block size used by block matrix decompositions
+     */
+    public void tuneBlockWidth() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(600,600,rand);
+        // the block width is read when the decomposition is created
+        EjmlParameters.BLOCK_WIDTH = fastest("BLOCK_WIDTH",new int[]{20,40,60,80,100,120},
+                value -> EjmlParameters.BLOCK_WIDTH = value,
+                () -> decompose(new QRDecomposition_DDRB_to_DDRM(),A));
+        EjmlParameters.BLOCK_SIZE = EjmlParameters.BLOCK_WIDTH*EjmlParameters.BLOCK_WIDTH;
+    }
+
+    /**
+     * {@link EjmlParameters#BLOCK_WIDTH_CHOL}: Block size used by {@link CholeskyDecompositionBlock_DDRM}
+     */
+    public void tuneBlockWidthChol() {
+        DMatrixRMaj A = RandomMatrices_DDRM.symmetricPosDef(600,rand);
+        EjmlParameters.BLOCK_WIDTH_CHOL = fastest("BLOCK_WIDTH_CHOL",new int[]{10,20,30,40,60,80},
+                value -> EjmlParameters.BLOCK_WIDTH_CHOL = value,
+                () -> decompose(new CholeskyDecompositionBlock_DDRM(EjmlParameters.BLOCK_WIDTH_CHOL),A));
+    }
+
+    /**
+     * {@link EjmlParameters#SWITCH_BLOCK64_CHOLESKY}: inner vs block Cholesky decomposition
+     */
+    public void tuneCholeskySwitch() {
+        int[] sizes = {100,200,400,600,800,1000,1500};
+        int crossover = crossover("SWITCH_BLOCK64_CHOLESKY",sizes, size -> {
+            DMatrixRMaj A = RandomMatrices_DDRM.symmetricPosDef(size,rand);
+            return () -> decompose(new CholeskyDecompositionInner_DDRM(true),A);
+        }, size -> {
+            DMatrixRMaj A = RandomMatrices_DDRM.symmetricPosDef(size,rand);
+            return () -> decompose(new CholeskyDecomposition_DDRB_to_DDRM(true),A);
+        });
+        EjmlParameters.SWITCH_BLOCK64_CHOLESKY = crossover < 0 ?
+                Math.max(EjmlParameters.SWITCH_BLOCK64_CHOLESKY, 1501) : crossover;
+    }
+
+    /**
+     * {@link EjmlParameters#SWITCH_BLOCK64_QR}: column vs block Householder QR least squares solver
+     */
+    public void tuneQrSwitch() {
+        int[] sizes = {100,200,400,600,800,1000,1500};
+        int crossover = crossover("SWITCH_BLOCK64_QR",sizes, size -> {
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(size,size,rand);
+            return () -> solve(new LinearSolverQrHouseCol_DDRM(),A);
+        }, size -> {
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(size,size,rand);
+            return () -> solve(new LinearSolverQrBlock64_DDRM(),A);
+        });
+        EjmlParameters.SWITCH_BLOCK64_QR = crossover < 0 ? Math.max(EjmlParameters.SWITCH_BLOCK64_QR, 1501) : crossover;
+    }
+
+    /**
+     * {@link EjmlParameters#SWITCH_BLOCK_LU}: Crout vs block LU decomposition
+     */
+    public void tuneLuSwitch() {
+        int[] sizes = {100,150,200,300,400,600,800};
+        int crossover = crossover("SWITCH_BLOCK_LU",sizes, size -> {
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(size,size,rand);
+            return () -> decompose(new LUDecompositionAlt_DDRM(),A);
+        }, size -> {
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(size,size,rand);
+            return () -> decompose(new LUDecomposition_DDRB_to_DDRM(),A);
+        });
+        EjmlParameters.SWITCH_BLOCK_LU = crossover < 0 ? Math.max(EjmlParameters.SWITCH_BLOCK_LU, 801) : crossover;
+    }
+
+    /**
+     * Times the two algorithms across all the sizes and returns the size where the second algorithm becomes faster
+     *
+     * @return The crossover size or -1 if the second algorithm was never faster
+     */
+    private int crossover( String name , int[] sizes , IntFunction<Runnable> algA , IntFunction<Runnable> algB ) {
+        double[] timeA = new double[sizes.length];
+        double[] timeB = new double[sizes.length];
+        for (int i = 0; i < sizes.length; i++) {
+            timeA[i] = time(algA.apply(sizes[i]));
+            timeB[i] = time(algB.apply(sizes[i]));
+            print(String.format("%s: size=%5d  %10.4f ms  %10.4f ms",name,sizes[i],timeA[i]*1000,timeB[i]*1000));
+        }
+        int index = selectCrossover(timeA,timeB);
+        int value = index < 0 ? -1 : sizes[index];
+        print(name+": crossover="+value);
+        return value;
+    }
+
+    /**
+     * Selects the first index where B is faster than A and stays faster at the next index.  Requiring it to be
+     * faster twice makes the selection less sensitive to noise.
+     *
+     * @return index of the crossover or -1 if B is never faster
+     */
+    public static int selectCrossover( double[] timeA , double[] timeB ) {
+        for (int i = 0; i < timeA.length; i++) {
+            if( timeB[i] >= timeA[i] )
+                continue;
+            if( i+1 == timeA.length || timeB[i+1] < timeA[i+1] )
+                return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Sets the parameter to each of the values, times the task, and returns the fastest value
+     */
+    private int fastest( String name , int[] values , IntSetter setter , Runnable task ) {
+        int best = values[0];
+        double bestTime = Double.MAX_VALUE;
+        for( int value : values ) {
+            setter.set(value);
+            double t = time(task);
+            print(String.format("%s: value=%5d  %10.4f ms",name,value,t*1000));
+            if( t < bestTime ) {
+                bestTime = t;
+                best = value;
+            }
+        }
+        print(name+": best="+best);
+        return best;
+    }
+
+    /**
+     * Returns the fastest time in seconds it took to run the task once.  The task is run multiple times in each
+     * trial so that short tasks can be measured accurately.
+     */
+    public double time( Runnable task ) {
+        // warm up the JIT and figure out how many times it needs to be called to fill a trial
+        long minimumNano = (long)(minimumTrialTime*1e9);
+        int cycles = 1;
+        long elapsed;
+        while( true ) {
+            elapsed = timeCycles(task,cycles);
+            if( elapsed >= minimumNano || cycles >= (1 << 24) )
+                break;
+            cycles *= 2;
+        }
+
+        double best = elapsed/(double)cycles;
+        for (int trial = 0; trial < trials; trial++) {
+            best = Math.min(best,timeCycles(task,cycles)/(double)cycles);
+        }
+        return best*1e-9;
+    }
+
+    private static long timeCycles( Runnable task , int cycles ) {
+        long before = System.nanoTime();
+        for (int i = 0; i < cycles; i++) {
+            task.run();
+        }
+        return System.nanoTime()-before;
+    }
+
+    private DMatrixRMaj[] multInputs( int rows , int inner , int cols ) {
+        return new DMatrixRMaj[]{
+                RandomMatrices_DDRM.rectangle(rows,inner,rand),
+                RandomMatrices_DDRM.rectangle(inner,cols,rand),
+                new DMatrixRMaj(rows,cols)};
+    }
+
+    private static void decompose( DecompositionInterface<DMatrixRMaj> alg , DMatrixRMaj A ) {
+        if( !alg.decompose(alg.inputModified() ? A.copy() : A) )
+            throw new RuntimeException("Decomposition failed");
+    }
+
+    private static void solve( LinearSolverDense<DMatrixRMaj> solver , DMatrixRMaj A ) {
+        DMatrixRMaj B = new DMatrixRMaj(A.numRows,1);
+        DMatrixRMaj X = new DMatrixRMaj(A.numCols,1);
+        if( !solver.setA(solver.modifiesA() ? A.copy() : A) )
+            throw new RuntimeException("Solver failed");
+        solver.solve(B,X);
+    }
+
+    private void print( String message ) {
+        if( verbose != null )
+            verbose.println(message);
+    }
+
+    public void setVerbose( PrintStream verbose ) {
+        this.verbose = verbose;
+    }
+
+    private interface IntSetter {
+        void set( int value );
+    }
+
+    public static void main( String[] args ) throws IOException {
+        File output = new File(args.length > 0 ? args[0] : EjmlProfile.RESOURCE);
+
+        CalibrateParameters_DDRM alg = new CalibrateParameters_DDRM();
+        alg.tuneAll();
+
+        String comment = String.format("Created by %s. java=%s arch=%s processors=%d",
+                CalibrateParameters_DDRM.class.getSimpleName(), System.getProperty("java.version"),
+                System.getProperty("os.arch"), Runtime.getRuntime().availableProcessors());
+        EjmlProfile.save(output,comment);
+        System.out.println("Saved profile to "+output.getAbsolutePath());
+    }
+}
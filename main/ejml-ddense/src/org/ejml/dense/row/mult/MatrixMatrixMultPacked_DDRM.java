@@ -0,0 +1,648 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.mult;
+
+import org.ejml.EjmlConcurrency;
+import org.ejml.EjmlParameters;
+import org.ejml.MatrixDimensionException;
+import org.ejml.data.DMatrix1Row;
+import org.ejml.dense.row.CommonOps_DDRM;
+
+/**
+ * <p>
+ * Matrix multiplication for large matrices which is designed around the memory hierarchy, following the
+ * approach used in GotoBLAS and BLIS. Blocks of the inputs are copied (packed) into contiguous arrays so that
+ * they are read sequentially and stay inside the cache while they are being used. The inner most loop is a
+ * 4 x 8 register blocked micro kernel which keeps the partial sums of a small block in C in local
+ * variables.
+ * </p>
+ *
+ * <pre>
+ * for jc = 0:NC:n-1     B(:,jc) panel is packed for each pc, sized to fit in the L3 cache
+ *   for pc = 0:KC:k-1
+ *     for ic = 0:MC:m-1 A(ic,pc) block is packed, sized to fit in the L2 cache
+ *       for jr = 0:NR:NC-1
+ *         for ir = 0:MR:MC-1
+ *           C(ir,jr) += A(ir,:)*B(:,jr)  micro kernel
+ * </pre>
+ *
+ * <p>
+ * The block sizes are specified by {@link EjmlParameters#MULT_PACKED_MC}, {@link EjmlParameters#MULT_PACKED_KC},
+ * and {@link EjmlParameters#MULT_PACKED_NC}. If the matrix is large enough then C is split into blocks of
+ * rows and columns which are computed concurrently, see {@link EjmlConcurrency}. The results are the same
+ * with any number of threads.
+ * </p>
+ * 
+ * <center>******** IMPORTANT **********</center>
+ * This class was auto generated using org.ejml.dense.row.mult.GeneratorMatrixMatrixMult_DDRM
+ * 
+ * @author Peter Abeles
+ */
+public class MatrixMatrixMultPacked_DDRM {
+    /**
+     * Number of rows in C which are computed by the micro kernel
+     */
+    public static final int MR = 4;
+    /**
+     * Number of columns in C which are computed by the micro kernel
+     */
+    public static final int NR = 8;
+
+    /**
+     * @see CommonOps_DDRM#mult( org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row)
+     */
+    public static void mult_packed( DMatrix1Row a , DMatrix1Row b , DMatrix1Row c )
+    {
+        if( a == c || b == c )
+            throw new IllegalArgumentException("Neither 'a' or 'b' can be the same matrix as 'c'");
+        else if( a.numCols != b.numRows ) {
+            throw new MatrixDimensionException("The 'a' and 'b' matrices do not have compatible dimensions");
+        }
+        c.reshape(a.numRows,b.numCols);
+
+        if( a.numCols == 0 || a.numRows == 0 ) {
+            CommonOps_DDRM.fill(c,0);
+            return;
+        }
+        multPacked(1,a,false,b,false,c,false);
+    }
+
+    /**
+     * @see CommonOps_DDRM#multTransA( org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row)
+     */
+    public static void multTransA_packed( DMatrix1Row a , DMatrix1Row b , DMatrix1Row c )
+    {
+        if( a == c || b == c )
+            throw new IllegalArgumentException("Neither 'a' or 'b' can be the same matrix as 'c'");
+        else if( a.numRows != b.numRows ) {
+            throw new MatrixDimensionException("The 'a' and 'b' matrices do not have compatible dimensions");
+        }
+        c.reshape(a.numCols,b.numCols);
+
+        if( a.numCols == 0 || a.numRows == 0 ) {
+            CommonOps_DDRM.fill(c,0);
+            return;
+        }
+        multPacked(1,a,true,b,false,c,false);
+    }
+
+    /**
+     * @see CommonOps_DDRM#multTransB( org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row)
+     */
+    public static void multTransB_packed( DMatrix1Row a , DMatrix1Row b , DMatrix1Row c )
+    {
+        if( a == c || b == c )
+            throw new IllegalArgumentException("Neither 'a' or 'b' can be the same matrix as 'c'");
+        else if( a.numCols != b.numCols ) {
+            throw new MatrixDimensionException("The 'a' and 'b' matrices do not have compatible dimensions");
+        }
+        c.reshape(a.numRows,b.numRows);
+
+        if( a.numCols == 0 || a.numRows == 0 ) {
+            CommonOps_DDRM.fill(c,0);
+            return;
+        }
+        multPacked(1,a,false,b,true,c,false);
+    }
+
+    /**
+     * @see CommonOps_DDRM#multTransAB( org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row)
+     */
+    public static void multTransAB_packed( DMatrix1Row a , DMatrix1Row b , DMatrix1Row c )
+    {
+        if( a == c || b == c )
+            throw new IllegalArgumentException("Neither 'a' or 'b' can be the same matrix as 'c'");
+        else if( a.numRows != b.numCols ) {
+            throw new MatrixDimensionException("The 'a' and 'b' matrices do not have compatible dimensions");
+        }
+        c.reshape(a.numCols,b.numRows);
+
+        if( a.numCols == 0 || a.numRows == 0 ) {
+            CommonOps_DDRM.fill(c,0);
+            return;
+        }
+        multPacked(1,a,true,b,true,c,false);
+    }
+
+    /**
+     * @see CommonOps_DDRM#multAdd( org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row)
+     */
+    public static void multAdd_packed( DMatrix1Row a , DMatrix1Row b , DMatrix1Row c )
+    {
+        if( a == c || b == c )
+            throw new IllegalArgumentException("Neither 'a' or 'b' can be the same matrix as 'c'");
+        else if( a.numCols != b.numRows ) {
+            throw new MatrixDimensionException("The 'a' and 'b' matrices do not have compatible dimensions");
+        }
+        c.reshape(a.numRows,b.numCols);
+
+        if( a.numCols == 0 || a.numRows == 0 ) {
+            return;
+        }
+        multPacked(1,a,false,b,false,c,true);
+    }
+
+    /**
+     * @see CommonOps_DDRM#multAddTransA( org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row)
+     */
+    public static void multAddTransA_packed( DMatrix1Row a , DMatrix1Row b , DMatrix1Row c )
+    {
+        if( a == c || b == c )
+            throw new IllegalArgumentException("Neither 'a' or 'b' can be the same matrix as 'c'");
+        else if( a.numRows != b.numRows ) {
+            throw new MatrixDimensionException("The 'a' and 'b' matrices do not have compatible dimensions");
+        }
+        c.reshape(a.numCols,b.numCols);
+
+        if( a.numCols == 0 || a.numRows == 0 ) {
+            return;
+        }
+        multPacked(1,a,true,b,false,c,true);
+    }
+
+    /**
+     * @see CommonOps_DDRM#multAddTransB( org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row)
+     */
+    public static void multAddTransB_packed( DMatrix1Row a , DMatrix1Row b , DMatrix1Row c )
+    {
+        if( a == c || b == c )
+            throw new IllegalArgumentException("Neither 'a' or 'b' can be the same matrix as 'c'");
+        else if( a.numCols != b.numCols ) {
+            throw new MatrixDimensionException("The 'a' and 'b' matrices do not have compatible dimensions");
+        }
+        c.reshape(a.numRows,b.numRows);
+
+        if( a.numCols == 0 || a.numRows == 0 ) {
+            return;
+        }
+        multPacked(1,a,false,b,true,c,true);
+    }
+
+    /**
+     * @see CommonOps_DDRM#multAddTransAB( org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row)
+     */
+    public static void multAddTransAB_packed( DMatrix1Row a , DMatrix1Row b , DMatrix1Row c )
+    {
+        if( a == c || b == c )
+            throw new IllegalArgumentException("Neither 'a' or 'b' can be the same matrix as 'c'");
+        else if( a.numRows != b.numCols ) {
+            throw new MatrixDimensionException("The 'a' and 'b' matrices do not have compatible dimensions");
+        }
+        c.reshape(a.numCols,b.numRows);
+
+        if( a.numCols == 0 || a.numRows == 0 ) {
+            return;
+        }
+        multPacked(1,a,true,b,true,c,true);
+    }
+
+    /**
+     * @see CommonOps_DDRM#mult(double,  org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row)
+     */
+    public static void mult_packed( double alpha , DMatrix1Row a , DMatrix1Row b , DMatrix1Row c )
+    {
+        if( a == c || b == c )
+            throw new IllegalArgumentException("Neither 'a' or 'b' can be the same matrix as 'c'");
+        else if( a.numCols != b.numRows ) {
+            throw new MatrixDimensionException("The 'a' and 'b' matrices do not have compatible dimensions");
+        }
+        c.reshape(a.numRows,b.numCols);
+
+        if( a.numCols == 0 || a.numRows == 0 ) {
+            CommonOps_DDRM.fill(c,0);
+            return;
+        }
+        multPacked(alpha,a,false,b,false,c,false);
+    }
+
+    /**
+     * @see CommonOps_DDRM#multTransA(double,  org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row)
+     */
+    public static void multTransA_packed( double alpha , DMatrix1Row a , DMatrix1Row b , DMatrix1Row c )
+    {
+        if( a == c || b == c )
+            throw new IllegalArgumentException("Neither 'a' or 'b' can be the same matrix as 'c'");
+        else if( a.numRows != b.numRows ) {
+            throw new MatrixDimensionException("The 'a' and 'b' matrices do not have compatible dimensions");
+        }
+        c.reshape(a.numCols,b.numCols);
+
+        if( a.numCols == 0 || a.numRows == 0 ) {
+            CommonOps_DDRM.fill(c,0);
+            return;
+        }
+        multPacked(alpha,a,true,b,false,c,false);
+    }
+
+    /**
+     * @see CommonOps_DDRM#multTransB(double,  org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row)
+     */
+    public static void multTransB_packed( double alpha , DMatrix1Row a , DMatrix1Row b , DMatrix1Row c )
+    {
+        if( a == c || b == c )
+            throw new IllegalArgumentException("Neither 'a' or 'b' can be the same matrix as 'c'");
+        else if( a.numCols != b.numCols ) {
+            throw new MatrixDimensionException("The 'a' and 'b' matrices do not have compatible dimensions");
+        }
+        c.reshape(a.numRows,b.numRows);
+
+        if( a.numCols == 0 || a.numRows == 0 ) {
+            CommonOps_DDRM.fill(c,0);
+            return;
+        }
+        multPacked(alpha,a,false,b,true,c,false);
+    }
+
+    /**
+     * @see CommonOps_DDRM#multTransAB(double,  org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row)
+     */
+    public static void multTransAB_packed( double alpha , DMatrix1Row a , DMatrix1Row b , DMatrix1Row c )
+    {
+        if( a == c || b == c )
+            throw new IllegalArgumentException("Neither 'a' or 'b' can be the same matrix as 'c'");
+        else if( a.numRows != b.numCols ) {
+            throw new MatrixDimensionException("The 'a' and 'b' matrices do not have compatible dimensions");
+        }
+        c.reshape(a.numCols,b.numRows);
+
+        if( a.numCols == 0 || a.numRows == 0 ) {
+            CommonOps_DDRM.fill(c,0);
+            return;
+        }
+        multPacked(alpha,a,true,b,true,c,false);
+    }
+
+    /**
+     * @see CommonOps_DDRM#multAdd(double,  org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row)
+     */
+    public static void multAdd_packed( double alpha , DMatrix1Row a , DMatrix1Row b , DMatrix1Row c )
+    {
+        if( a == c || b == c )
+            throw new IllegalArgumentException("Neither 'a' or 'b' can be the same matrix as 'c'");
+        else if( a.numCols != b.numRows ) {
+            throw new MatrixDimensionException("The 'a' and 'b' matrices do not have compatible dimensions");
+        }
+        c.reshape(a.numRows,b.numCols);
+
+        if( a.numCols == 0 || a.numRows == 0 ) {
+            return;
+        }
+        multPacked(alpha,a,false,b,false,c,true);
+    }
+
+    /**
+     * @see CommonOps_DDRM#multAddTransA(double,  org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row)
+     */
+    public static void multAddTransA_packed( double alpha , DMatrix1Row a , DMatrix1Row b , DMatrix1Row c )
+    {
+        if( a == c || b == c )
+            throw new IllegalArgumentException("Neither 'a' or 'b' can be the same matrix as 'c'");
+        else if( a.numRows != b.numRows ) {
+            throw new MatrixDimensionException("The 'a' and 'b' matrices do not have compatible dimensions");
+        }
+        c.reshape(a.numCols,b.numCols);
+
+        if( a.numCols == 0 || a.numRows == 0 ) {
+            return;
+        }
+        multPacked(alpha,a,true,b,false,c,true);
+    }
+
+    /**
+     * @see CommonOps_DDRM#multAddTransB(double,  org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row)
+     */
+    public static void multAddTransB_packed( double alpha , DMatrix1Row a , DMatrix1Row b , DMatrix1Row c )
+    {
+        if( a == c || b == c )
+            throw new IllegalArgumentException("Neither 'a' or 'b' can be the same matrix as 'c'");
+        else if( a.numCols != b.numCols ) {
+            throw new MatrixDimensionException("The 'a' and 'b' matrices do not have compatible dimensions");
+        }
+        c.reshape(a.numRows,b.numRows);
+
+        if( a.numCols == 0 || a.numRows == 0 ) {
+            return;
+        }
+        multPacked(alpha,a,false,b,true,c,true);
+    }
+
+    /**
+     * @see CommonOps_DDRM#multAddTransAB(double,  org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row)
+     */
+    public static void multAddTransAB_packed( double alpha , DMatrix1Row a , DMatrix1Row b , DMatrix1Row c )
+    {
+        if( a == c || b == c )
+            throw new IllegalArgumentException("Neither 'a' or 'b' can be the same matrix as 'c'");
+        else if( a.numRows != b.numCols ) {
+            throw new MatrixDimensionException("The 'a' and 'b' matrices do not have compatible dimensions");
+        }
+        c.reshape(a.numCols,b.numRows);
+
+        if( a.numCols == 0 || a.numRows == 0 ) {
+            return;
+        }
+        multPacked(alpha,a,true,b,true,c,true);
+    }
+
+    /**
+     * Computes c = alpha*op(a)*op(b) + c, where op() optionally transposes the matrix. If add is false then c
+     * is set to zero first.
+     */
+    private static void multPacked( final double alpha ,
+                                    final DMatrix1Row a , final boolean tranA ,
+                                    final DMatrix1Row b , final boolean tranB ,
+                                    final DMatrix1Row c , final boolean add )
+    {
+        final int M = c.numRows;
+        final int N = c.numCols;
+        final int K = tranA ? a.numRows : a.numCols;
+
+        if( !add )
+            CommonOps_DDRM.fill(c,0);
+
+        // the block sizes must be a multiple of the micro kernel's size
+        final int MC = roundUp(Math.min(EjmlParameters.MULT_PACKED_MC,M),MR);
+        final int KC = Math.min(EjmlParameters.MULT_PACKED_KC,K);
+        final int NC = roundUp(Math.min(EjmlParameters.MULT_PACKED_NC,N),NR);
+
+        final double[] packB = new double[KC*NC];
+
+        if( !EjmlConcurrency.isUseConcurrent((long)M*N*K,EjmlParameters.MULT_CONCURRENT_SWITCH) ) {
+            final double[] packA = new double[MC*KC];
+            for( int jc = 0; jc < N; jc += NC ) {
+                int nc = Math.min(NC,N-jc);
+                for( int pc = 0; pc < K; pc += KC ) {
+                    int kc = Math.min(KC,K-pc);
+                    packB(b,tranB,pc,kc,jc,0,nc,packB);
+                    for( int ic = 0; ic < M; ic += MC ) {
+                        int mc = Math.min(MC,M-ic);
+                        packA(a,tranA,ic,mc,pc,kc,packA,0);
+                        macroKernel(alpha,packA,0,packB,0,mc,nc,kc,c,ic,jc);
+                    }
+                }
+            }
+            return;
+        }
+
+        // All of A(:,pc) is packed at once so that C can be split into blocks of rows and columns without two
+        // threads packing the same block of A. Each element in C is summed in the same order as above, so the
+        // results don't depend on the number of threads.
+        final double[] packA = new double[roundUp(M,MR)*KC];
+        final int numBlocksM = (M+MC-1)/MC;
+
+        for( int jc = 0; jc < N; jc += NC ) {
+            final int nc = Math.min(NC,N-jc);
+            // split the columns into just enough blocks so that every thread has work
+            final int slivers = (nc+NR-1)/NR;
+            final int targetN = Math.min(slivers,(EjmlConcurrency.getMaxThreads()+numBlocksM-1)/numBlocksM);
+            final int widthN = ((slivers+targetN-1)/targetN)*NR;
+            final int numBlocksN = (nc+widthN-1)/widthN;
+
+            for( int pc = 0; pc < K; pc += KC ) {
+                final int kc = Math.min(KC,K-pc);
+                final int _jc = jc, _pc = pc;
+
+                EjmlConcurrency.loopBlocks(0,slivers,1,(j0,j1)->
+                        packB(b,tranB,_pc,kc,_jc,j0*NR,Math.min(nc,j1*NR),packB));
+                EjmlConcurrency.loopFor(0,numBlocksM,blockM->{
+                    int ic = blockM*MC;
+                    packA(a,tranA,ic,Math.min(MC,M-ic),_pc,kc,packA,ic*kc);
+                });
+                EjmlConcurrency.loopFor(0,numBlocksM*numBlocksN,block->{
+                    int ic = (block/numBlocksN)*MC;
+                    int jr = (block%numBlocksN)*widthN;
+                    macroKernel(alpha,packA,ic*kc,packB,jr*kc,Math.min(MC,M-ic),Math.min(widthN,nc-jr),kc,c,ic,_jc+jr);
+                });
+            }
+        }
+    }
+
+    /**
+     * Multiplies a packed block of A against a packed panel of B and adds the results to C
+     */
+    private static void macroKernel( double alpha , double[] packA , int offsetA , double[] packB , int offsetB ,
+                                     int mc , int nc , int kc ,
+                                     DMatrix1Row c , int row0 , int col0 )
+    {
+        final double[] dataC = c.data;
+        final int strideC = c.numCols;
+        for( int jr = 0; jr < nc; jr += NR ) {
+            int cols = Math.min(NR,nc-jr);
+            int indexB = offsetB + jr*kc;
+            for( int ir = 0; ir < mc; ir += MR ) {
+                int rows = Math.min(MR,mc-ir);
+                int indexC = (row0+ir)*strideC + col0+jr;
+                microKernel(kc,packA,offsetA+ir*kc,packB,indexB,alpha,dataC,indexC,strideC,rows,cols);
+            }
+        }
+    }
+
+    private static int roundUp( int value , int multiple ) {
+        return ((value+multiple-1)/multiple)*multiple;
+    }
+
+    /**
+     * Copies op(a)(row0:row0+mc, k0:k0+kc) into slivers which are MR rows tall. Inside a sliver the elements are
+     * ordered by column so that the micro kernel can read them sequentially. Rows outside of the matrix are
+     * filled with zeros. The block is written starting at 'offset'.
+     */
+    private static void packA( DMatrix1Row a , boolean tranA , int row0 , int mc , int k0 , int kc ,
+                               double[] packA , int offset ) {
+        final double[] dataA = a.data;
+        int index = offset;
+        for( int ir = 0; ir < mc; ir += MR ) {
+            int rows = Math.min(MR,mc-ir);
+            if( tranA ) {
+                for( int p = 0; p < kc; p++ ) {
+                    int indexA = (k0+p)*a.numCols + row0+ir;
+                    int i = 0;
+                    for( ; i < rows; i++ ) packA[index++] = dataA[indexA+i];
+                    for( ; i < MR; i++ ) packA[index++] = 0;
+                }
+            } else {
+                for( int i = 0; i < rows; i++ ) {
+                    int indexA = (row0+ir+i)*a.numCols + k0;
+                    int indexP = index + i;
+                    for( int p = 0; p < kc; p++, indexP += MR ) {
+                        packA[indexP] = dataA[indexA+p];
+                    }
+                }
+                for( int i = rows; i < MR; i++ ) {
+                    int indexP = index + i;
+                    for( int p = 0; p < kc; p++, indexP += MR ) {
+                        packA[indexP] = 0;
+                    }
+                }
+                index += MR*kc;
+            }
+        }
+    }
+
+    /**
+     * Copies columns jr0 to jr1 of op(b)(k0:k0+kc, col0:) into slivers which are NR columns wide. Inside a sliver
+     * the elements are ordered by row so that the micro kernel can read them sequentially. Columns outside of the
+     * matrix are filled with zeros. jr0 must be a multiple of NR.
+     */
+    private static void packB( DMatrix1Row b , boolean tranB , int k0 , int kc , int col0 ,
+                               int jr0 , int jr1 , double[] packB ) {
+        final double[] dataB = b.data;
+        int index = jr0*kc;
+        for( int jr = jr0; jr < jr1; jr += NR ) {
+            int cols = Math.min(NR,jr1-jr);
+            if( tranB ) {
+                for( int j = 0; j < cols; j++ ) {
+                    int indexB = (col0+jr+j)*b.numCols + k0;
+                    int indexP = index + j;
+                    for( int p = 0; p < kc; p++, indexP += NR ) {
+                        packB[indexP] = dataB[indexB+p];
+                    }
+                }
+                for( int j = cols; j < NR; j++ ) {
+                    int indexP = index + j;
+                    for( int p = 0; p < kc; p++, indexP += NR ) {
+                        packB[indexP] = 0;
+                    }
+                }
+                index += NR*kc;
+            } else {
+                for( int p = 0; p < kc; p++ ) {
+                    int indexB = (k0+p)*b.numCols + col0+jr;
+                    int j = 0;
+                    for( ; j < cols; j++ ) packB[index++] = dataB[indexB+j];
+                    for( ; j < NR; j++ ) packB[index++] = 0;
+                }
+            }
+        }
+    }
+
+    /**
+     * C(0:rows,0:cols) += alpha*A*B where A is a packed 4 x kc sliver and B is a packed kc x 8 sliver.
+     */
+    private static void microKernel( int kc , double[] packA , int indexA , double[] packB , int indexB ,
+                                     double alpha , double[] dataC , int indexC , int strideC ,
+                                     int rows , int cols )
+    {
+        double c00=0,c01=0,c02=0,c03=0,c04=0,c05=0,c06=0,c07=0,c10=0,c11=0,c12=0,c13=0,c14=0,c15=0,c16=0,c17=0,c20=0,c21=0,c22=0,c23=0,c24=0,c25=0,c26=0,c27=0,c30=0,c31=0,c32=0,c33=0,c34=0,c35=0,c36=0,c37=0;
+
+        for( int p = 0; p < kc; p++ ) {
+            double a0 = packA[indexA+0];
+            double a1 = packA[indexA+1];
+            double a2 = packA[indexA+2];
+            double a3 = packA[indexA+3];
+            double b0 = packB[indexB+0];
+            double b1 = packB[indexB+1];
+            double b2 = packB[indexB+2];
+            double b3 = packB[indexB+3];
+            double b4 = packB[indexB+4];
+            double b5 = packB[indexB+5];
+            double b6 = packB[indexB+6];
+            double b7 = packB[indexB+7];
+            c00 += a0*b0; c01 += a0*b1; c02 += a0*b2; c03 += a0*b3; c04 += a0*b4; c05 += a0*b5; c06 += a0*b6; c07 += a0*b7;
+            c10 += a1*b0; c11 += a1*b1; c12 += a1*b2; c13 += a1*b3; c14 += a1*b4; c15 += a1*b5; c16 += a1*b6; c17 += a1*b7;
+            c20 += a2*b0; c21 += a2*b1; c22 += a2*b2; c23 += a2*b3; c24 += a2*b4; c25 += a2*b5; c26 += a2*b6; c27 += a2*b7;
+            c30 += a3*b0; c31 += a3*b1; c32 += a3*b2; c33 += a3*b3; c34 += a3*b4; c35 += a3*b5; c36 += a3*b6; c37 += a3*b7;
+            indexA += MR;
+            indexB += NR;
+        }
+
+        if( rows == MR && cols == NR ) {
+            dataC[indexC+0] += alpha*c00;
+            dataC[indexC+1] += alpha*c01;
+            dataC[indexC+2] += alpha*c02;
+            dataC[indexC+3] += alpha*c03;
+            dataC[indexC+4] += alpha*c04;
+            dataC[indexC+5] += alpha*c05;
+            dataC[indexC+6] += alpha*c06;
+            dataC[indexC+7] += alpha*c07;
+            indexC += strideC;
+            dataC[indexC+0] += alpha*c10;
+            dataC[indexC+1] += alpha*c11;
+            dataC[indexC+2] += alpha*c12;
+            dataC[indexC+3] += alpha*c13;
+            dataC[indexC+4] += alpha*c14;
+            dataC[indexC+5] += alpha*c15;
+            dataC[indexC+6] += alpha*c16;
+            dataC[indexC+7] += alpha*c17;
+            indexC += strideC;
+            dataC[indexC+0] += alpha*c20;
+            dataC[indexC+1] += alpha*c21;
+            dataC[indexC+2] += alpha*c22;
+            dataC[indexC+3] += alpha*c23;
+            dataC[indexC+4] += alpha*c24;
+            dataC[indexC+5] += alpha*c25;
+            dataC[indexC+6] += alpha*c26;
+            dataC[indexC+7] += alpha*c27;
+            indexC += strideC;
+            dataC[indexC+0] += alpha*c30;
+            dataC[indexC+1] += alpha*c31;
+            dataC[indexC+2] += alpha*c32;
+            dataC[indexC+3] += alpha*c33;
+            dataC[indexC+4] += alpha*c34;
+            dataC[indexC+5] += alpha*c35;
+            dataC[indexC+6] += alpha*c36;
+            dataC[indexC+7] += alpha*c37;
+        } else {
+            // edge of the matrix
+            if( rows > 0 ) {
+                if( cols > 0 ) dataC[indexC+0] += alpha*c00;
+                if( cols > 1 ) dataC[indexC+1] += alpha*c01;
+                if( cols > 2 ) dataC[indexC+2] += alpha*c02;
+                if( cols > 3 ) dataC[indexC+3] += alpha*c03;
+                if( cols > 4 ) dataC[indexC+4] += alpha*c04;
+                if( cols > 5 ) dataC[indexC+5] += alpha*c05;
+                if( cols > 6 ) dataC[indexC+6] += alpha*c06;
+                if( cols > 7 ) dataC[indexC+7] += alpha*c07;
+            }
+            indexC += strideC;
+            if( rows > 1 ) {
+                if( cols > 0 ) dataC[indexC+0] += alpha*c10;
+                if( cols > 1 ) dataC[indexC+1] += alpha*c11;
+                if( cols > 2 ) dataC[indexC+2] += alpha*c12;
+                if( cols > 3 ) dataC[indexC+3] += alpha*c13;
+                if( cols > 4 ) dataC[indexC+4] += alpha*c14;
+                if( cols > 5 ) dataC[indexC+5] += alpha*c15;
+                if( cols > 6 ) dataC[indexC+6] += alpha*c16;
+                if( cols > 7 ) dataC[indexC+7] += alpha*c17;
+            }
+            indexC += strideC;
+            if( rows > 2 ) {
+                if( cols > 0 ) dataC[indexC+0] += alpha*c20;
+                if( cols > 1 ) dataC[indexC+1] += alpha*c21;
+                if( cols > 2 ) dataC[indexC+2] += alpha*c22;
+                if( cols > 3 ) dataC[indexC+3] += alpha*c23;
+                if( cols > 4 ) dataC[indexC+4] += alpha*c24;
+                if( cols > 5 ) dataC[indexC+5] += alpha*c25;
+                if( cols > 6 ) dataC[indexC+6] += alpha*c26;
+                if( cols > 7 ) dataC[indexC+7] += alpha*c27;
+            }
+            indexC += strideC;
+            if( rows > 3 ) {
+                if( cols > 0 ) dataC[indexC+0] += alpha*c30;
+                if( cols > 1 ) dataC[indexC+1] += alpha*c31;
+                if( cols > 2 ) dataC[indexC+2] += alpha*c32;
+                if( cols > 3 ) dataC[indexC+3] += alpha*c33;
+                if( cols > 4 ) dataC[indexC+4] += alpha*c34;
+                if( cols > 5 ) dataC[indexC+5] += alpha*c35;
+                if( cols > 6 ) dataC[indexC+6] += alpha*c36;
+                if( cols > 7 ) dataC[indexC+7] += alpha*c37;
+            }
+        }
+    }
+}
+
@@ -21,6 +21,7 @@ package org.ejml.dense.row.mult;
 import org.ejml.MatrixDimensionException;
 import org.ejml.data.DMatrix1Row;
 import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.misc.ArrayKernels_DDRM;
 
 /**
  * <p>
@@ -81,25 +82,18 @@ public class MatrixMatrixMult_DDRM {
 
             // need to assign c.data to a value initially
             int indexB = 0;
-            int indexC = indexCbase;
-            int end = indexB + b.numCols;
 
             valA = a.get(indexA++);
 
-            while( indexB < end ) {
-                c.set(indexC++ , valA*b.get(indexB++));
-            }
+            ArrayKernels_DDRM.IMPL.scale(valA,b.data,indexB,c.data,indexCbase,b.numCols);
+            indexB += b.numCols;
 
             // now add to it
             while( indexB != endOfKLoop ) { // k loop
-                indexC = indexCbase;
-                end = indexB + b.numCols;
-
                 valA = a.get(indexA++);
 
-                while( indexB < end ) { // j loop
-                    c.plus(indexC++ , valA*b.get(indexB++));
-                }
+                ArrayKernels_DDRM.IMPL.axpy(valA,b.data,indexB,c.data,indexCbase,b.numCols);
+                indexB += b.numCols;
             }
             indexCbase += c.numCols;
         }
@@ -193,20 +187,14 @@ public class MatrixMatrixMult_DDRM {
             // first assign R
             valA = a.get(i);
             int indexB = 0;
-            int end = indexB+b.numCols;
-            int indexC = indexC_start;
-            while( indexB<end ) {
-                c.set( indexC++ , valA*b.get(indexB++));
-            }
+            ArrayKernels_DDRM.IMPL.scale(valA,b.data,indexB,c.data,indexC_start,b.numCols);
+            indexB += b.numCols;
             // now increment it
             for( int k = 1; k < a.numRows; k++ ) {
                 valA = a.unsafe_get(k,i);
-                end = indexB+b.numCols;
-                indexC = indexC_start;
                 // this is the loop for j
-                while( indexB<end ) {
-                    c.plus( indexC++ , valA*b.get(indexB++));
-                }
+                ArrayKernels_DDRM.IMPL.axpy(valA,b.data,indexB,c.data,indexC_start,b.numCols);
+                indexB += b.numCols;
             }
         }
     }
@@ -327,16 +315,10 @@ public class MatrixMatrixMult_DDRM {
         int aIndexStart = 0;
 
         for( int xA = 0; xA < a.numRows; xA++ ) {
-            int end = aIndexStart + b.numCols;
             int indexB = 0;
             for( int xB = 0; xB < b.numRows; xB++ ) {
-                int indexA = aIndexStart;
-
-                double total = 0;
-
-                while( indexA<end ) {
-                    total += a.get(indexA++) * b.get(indexB++);
-                }
+                double total = ArrayKernels_DDRM.IMPL.dot(a.data,aIndexStart,b.data,indexB,b.numCols);
+                indexB += b.numCols;
 
                 c.set( cIndex++ , total );
             }
@@ -368,25 +350,18 @@ public class MatrixMatrixMult_DDRM {
 
             // need to assign c.data to a value initially
             int indexB = 0;
-            int indexC = indexCbase;
-            int end = indexB + b.numCols;
 
             valA = a.get(indexA++);
 
-            while( indexB < end ) {
-                c.plus(indexC++ , valA*b.get(indexB++));
-            }
+            ArrayKernels_DDRM.IMPL.axpy(valA,b.data,indexB,c.data,indexCbase,b.numCols);
+            indexB += b.numCols;
 
             // now add to it
             while( indexB != endOfKLoop ) { // k loop
-                indexC = indexCbase;
-                end = indexB + b.numCols;
-
                 valA = a.get(indexA++);
 
-                while( indexB < end ) { // j loop
-                    c.plus(indexC++ , valA*b.get(indexB++));
-                }
+                ArrayKernels_DDRM.IMPL.axpy(valA,b.data,indexB,c.data,indexCbase,b.numCols);
+                indexB += b.numCols;
             }
             indexCbase += c.numCols;
         }
@@ -479,20 +454,14 @@ public class MatrixMatrixMult_DDRM {
             // first assign R
             valA = a.get(i);
             int indexB = 0;
-            int end = indexB+b.numCols;
-            int indexC = indexC_start;
-            while( indexB<end ) {
-                c.plus( indexC++ , valA*b.get(indexB++));
-            }
+            ArrayKernels_DDRM.IMPL.axpy(valA,b.data,indexB,c.data,indexC_start,b.numCols);
+            indexB += b.numCols;
             // now increment it
             for( int k = 1; k < a.numRows; k++ ) {
                 valA = a.unsafe_get(k,i);
-                end = indexB+b.numCols;
-                indexC = indexC_start;
                 // this is the loop for j
-                while( indexB<end ) {
-                    c.plus( indexC++ , valA*b.get(indexB++));
-                }
+                ArrayKernels_DDRM.IMPL.axpy(valA,b.data,indexB,c.data,indexC_start,b.numCols);
+                indexB += b.numCols;
             }
         }
     }
@@ -612,16 +581,10 @@ public class MatrixMatrixMult_DDRM {
         int aIndexStart = 0;
 
         for( int xA = 0; xA < a.numRows; xA++ ) {
-            int end = aIndexStart + b.numCols;
             int indexB = 0;
             for( int xB = 0; xB < b.numRows; xB++ ) {
-                int indexA = aIndexStart;
-
-                double total = 0;
-
-                while( indexA<end ) {
-                    total += a.get(indexA++) * b.get(indexB++);
-                }
+                double total = ArrayKernels_DDRM.IMPL.dot(a.data,aIndexStart,b.data,indexB,b.numCols);
+                indexB += b.numCols;
 
                 c.plus( cIndex++ , total );
             }
@@ -654,25 +617,18 @@ public class MatrixMatrixMult_DDRM {
 
             // need to assign c.data to a value initially
             int indexB = 0;
-            int indexC = indexCbase;
-            int end = indexB + b.numCols;
 
             valA = alpha*a.get(indexA++);
 
-            while( indexB < end ) {
-                c.set(indexC++ , valA*b.get(indexB++));
-            }
+            ArrayKernels_DDRM.IMPL.scale(valA,b.data,indexB,c.data,indexCbase,b.numCols);
+            indexB += b.numCols;
 
             // now add to it
             while( indexB != endOfKLoop ) { // k loop
-                indexC = indexCbase;
-                end = indexB + b.numCols;
-
                 valA = alpha*a.get(indexA++);
 
-                while( indexB < end ) { // j loop
-                    c.plus(indexC++ , valA*b.get(indexB++));
-                }
+                ArrayKernels_DDRM.IMPL.axpy(valA,b.data,indexB,c.data,indexCbase,b.numCols);
+                indexB += b.numCols;
             }
             indexCbase += c.numCols;
         }
@@ -766,20 +722,14 @@ public class MatrixMatrixMult_DDRM {
             // first assign R
             valA = alpha*a.get(i);
             int indexB = 0;
-            int end = indexB+b.numCols;
-            int indexC = indexC_start;
-            while( indexB<end ) {
-                c.set( indexC++ , valA*b.get(indexB++));
-            }
+            ArrayKernels_DDRM.IMPL.scale(valA,b.data,indexB,c.data,indexC_start,b.numCols);
+            indexB += b.numCols;
             // now increment it
             for( int k = 1; k < a.numRows; k++ ) {
                 valA = alpha*a.unsafe_get(k,i);
-                end = indexB+b.numCols;
-                indexC = indexC_start;
                 // this is the loop for j
-                while( indexB<end ) {
-                    c.plus( indexC++ , valA*b.get(indexB++));
-                }
+                ArrayKernels_DDRM.IMPL.axpy(valA,b.data,indexB,c.data,indexC_start,b.numCols);
+                indexB += b.numCols;
             }
         }
     }
@@ -900,16 +850,10 @@ public class MatrixMatrixMult_DDRM {
         int aIndexStart = 0;
 
         for( int xA = 0; xA < a.numRows; xA++ ) {
-            int end = aIndexStart + b.numCols;
             int indexB = 0;
             for( int xB = 0; xB < b.numRows; xB++ ) {
-                int indexA = aIndexStart;
-
-                double total = 0;
-
-                while( indexA<end ) {
-                    total += a.get(indexA++) * b.get(indexB++);
-                }
+                double total = ArrayKernels_DDRM.IMPL.dot(a.data,aIndexStart,b.data,indexB,b.numCols);
+                indexB += b.numCols;
 
                 c.set( cIndex++ , alpha*total );
             }
@@ -941,25 +885,18 @@ public class MatrixMatrixMult_DDRM {
 
             // need to assign c.data to a value initially
             int indexB = 0;
-            int indexC = indexCbase;
-            int end = indexB + b.numCols;
 
             valA = alpha*a.get(indexA++);
 
-            while( indexB < end ) {
-                c.plus(indexC++ , valA*b.get(indexB++));
-            }
+            ArrayKernels_DDRM.IMPL.axpy(valA,b.data,indexB,c.data,indexCbase,b.numCols);
+            indexB += b.numCols;
 
             // now add to it
             while( indexB != endOfKLoop ) { // k loop
-                indexC = indexCbase;
-                end = indexB + b.numCols;
-
                 valA = alpha*a.get(indexA++);
 
-                while( indexB < end ) { // j loop
-                    c.plus(indexC++ , valA*b.get(indexB++));
-                }
+                ArrayKernels_DDRM.IMPL.axpy(valA,b.data,indexB,c.data,indexCbase,b.numCols);
+                indexB += b.numCols;
             }
             indexCbase += c.numCols;
         }
@@ -1052,20 +989,14 @@ public class MatrixMatrixMult_DDRM {
             // first assign R
             valA = alpha*a.get(i);
             int indexB = 0;
-            int end = indexB+b.numCols;
-            int indexC = indexC_start;
-            while( indexB<end ) {
-                c.plus( indexC++ , valA*b.get(indexB++));
-            }
+            ArrayKernels_DDRM.IMPL.axpy(valA,b.data,indexB,c.data,indexC_start,b.numCols);
+            indexB += b.numCols;
             // now increment it
             for( int k = 1; k < a.numRows; k++ ) {
                 valA = alpha*a.unsafe_get(k,i);
-                end = indexB+b.numCols;
-                indexC = indexC_start;
                 // this is the loop for j
-                while( indexB<end ) {
-                    c.plus( indexC++ , valA*b.get(indexB++));
-                }
+                ArrayKernels_DDRM.IMPL.axpy(valA,b.data,indexB,c.data,indexC_start,b.numCols);
+                indexB += b.numCols;
             }
         }
     }
@@ -1185,16 +1116,10 @@ public class MatrixMatrixMult_DDRM {
         int aIndexStart = 0;
 
         for( int xA = 0; xA < a.numRows; xA++ ) {
-            int end = aIndexStart + b.numCols;
             int indexB = 0;
             for( int xB = 0; xB < b.numRows; xB++ ) {
-                int indexA = aIndexStart;
-
-                double total = 0;
-
-                while( indexA<end ) {
-                    total += a.get(indexA++) * b.get(indexB++);
-                }
+                double total = ArrayKernels_DDRM.IMPL.dot(a.data,aIndexStart,b.data,indexB,b.numCols);
+                indexB += b.numCols;
 
                 c.plus( cIndex++ , alpha*total );
             }
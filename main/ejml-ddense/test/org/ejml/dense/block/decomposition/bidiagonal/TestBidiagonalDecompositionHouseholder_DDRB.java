@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.dense.block.decomposition.bidiagonal;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRBlock;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.block.MatrixOps_DDRB;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.dense.row.decomposition.bidiagonal.BidiagonalDecompositionRow_DDRM;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * @author Peter Abeles
+ */
+public class TestBidiagonalDecompositionHouseholder_DDRB {
+
+    final static int r = 3;
+    Random rand = new Random(234);
+
+    /**
+     * Compare against the row major algorithm, which stores the decomposition in the same format
+     */
+    @Test
+    public void compareToRow() {
+        for( int rows : new int[]{1,2,3,5,6,7,12,13} ) {
+            for( int cols : new int[]{1,2,3,5,6,7,12,13} ) {
+                compareToRow(new BidiagonalDecompositionHouseholder_DDRB(),rows,cols);
+            }
+        }
+    }
+
+    private void compareToRow( BidiagonalDecompositionHouseholder_DDRB alg , int rows , int cols ) {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(rows,cols,-1,1,rand);
+        DMatrixRBlock Ab = MatrixOps_DDRB.convert(A,r);
+
+        BidiagonalDecompositionRow_DDRM expected = new BidiagonalDecompositionRow_DDRM();
+        assertTrue(expected.decompose(A));
+        assertTrue(alg.decompose(Ab));
+
+        int min = Math.min(rows,cols);
+        for( int i = 0; i < min; i++ ) {
+            assertEquals(expected.getGammasU()[i],alg.getGammasU()[i],UtilEjml.TEST_F64);
+            assertEquals(expected.getGammasV()[i],alg.getGammasV()[i],UtilEjml.TEST_F64);
+        }
+        assertTrue(MatrixFeatures_DDRM.isIdentical(A,MatrixOps_DDRB.convert(Ab,null),UtilEjml.TEST_F64));
+    }
+
+    /**
+     * Reconstruct the original matrix from U, B, and V
+     */
+    @Test
+    public void reconstruct() {
+        for( int rows : new int[]{1,4,6,11} ) {
+            for( int cols : new int[]{1,4,6,11} ) {
+                for( boolean compact : new boolean[]{true,false}) {
+                    reconstruct(rows,cols,compact);
+                }
+            }
+        }
+    }
+
+    private void reconstruct( int rows , int cols , boolean compact ) {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(rows,cols,-1,1,rand);
+        DMatrixRBlock Ab = MatrixOps_DDRB.convert(A,r);
+
+        BidiagonalDecompositionHouseholder_DDRB alg = new BidiagonalDecompositionHouseholder_DDRB();
+        assertTrue(alg.decompose(Ab));
+
+        DMatrixRMaj U = MatrixOps_DDRB.convert(alg.getU(null,false,compact),null);
+        DMatrixRMaj B = MatrixOps_DDRB.convert(alg.getB(null,compact),null);
+        DMatrixRMaj V = MatrixOps_DDRB.convert(alg.getV(null,false,compact),null);
+        DMatrixRMaj Ut = MatrixOps_DDRB.convert(alg.getU(null,true,compact),null);
+        DMatrixRMaj Vt = MatrixOps_DDRB.convert(alg.getV(null,true,compact),null);
+
+        DMatrixRMaj UB = new DMatrixRMaj(U.numRows,B.numCols);
+        DMatrixRMaj found = new DMatrixRMaj(rows,cols);
+        CommonOps_DDRM.mult(U,B,UB);
+        CommonOps_DDRM.multTransB(UB,V,found);
+
+        assertTrue(MatrixFeatures_DDRM.isIdentical(A,found,UtilEjml.TEST_F64));
+        assertTrue(MatrixFeatures_DDRM.isIdentical(CommonOps_DDRM.transpose(U,null),Ut,UtilEjml.TEST_F64));
+        assertTrue(MatrixFeatures_DDRM.isIdentical(CommonOps_DDRM.transpose(V,null),Vt,UtilEjml.TEST_F64));
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.dense.block.decomposition.bidiagonal;
+
+import org.ejml.EjmlConcurrency;
+import org.ejml.EjmlParameters;
+import org.ejml.data.DMatrixRBlock;
+import org.ejml.dense.block.MatrixOps_DDRB;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestBidiagonalDecompositionHouseholder_MT_DDRB {
+
+    Random rand = new Random(234);
+
+    ForkJoinPool originalPool;
+    long originalSwitch;
+
+    @Before
+    public void before() {
+        // force it to use the concurrent code even for small matrices
+        originalPool = EjmlConcurrency.getPool();
+        originalSwitch = EjmlParameters.BIDIAGONAL_CONCURRENT_SWITCH;
+        EjmlConcurrency.setMaxThreads(4);
+        EjmlParameters.BIDIAGONAL_CONCURRENT_SWITCH = 0;
+    }
+
+    @After
+    public void after() {
+        EjmlConcurrency.setPool(originalPool);
+        EjmlParameters.BIDIAGONAL_CONCURRENT_SWITCH = originalSwitch;
+    }
+
+    /**
+     * Results should be identical to the single threaded algorithm
+     */
+    @Test
+    public void compareToSingleThread() {
+        int bl = 5;
+        for( int rows : new int[]{4,5,12,23,31} ) {
+            for( int cols : new int[]{3,5,11,23,30} ) {
+                DMatrixRBlock expected = MatrixOps_DDRB.createRandom(rows,cols,-1,1,rand,bl);
+                DMatrixRBlock found = expected.copy();
+
+                BidiagonalDecompositionHouseholder_DDRB single = new BidiagonalDecompositionHouseholder_DDRB();
+                BidiagonalDecompositionHouseholder_MT_DDRB concurrent = new BidiagonalDecompositionHouseholder_MT_DDRB();
+
+                assertTrue(single.decompose(expected));
+                assertTrue(concurrent.decompose(found));
+                assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,0));
+            }
+        }
+    }
+}
@@ -18,10 +18,18 @@
 
 package org.ejml.dense.block.decomposition.bidiagonal;
 
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRBlock;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.block.MatrixOps_DDRB;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.dense.row.decomposition.bidiagonal.BidiagonalDecompositionRow_DDRM;
 import org.junit.Test;
 
 import java.util.Random;
 
+import static org.junit.Assert.assertEquals;
+
 
 /**
  * @author Peter Abeles
@@ -31,32 +39,93 @@ public class TestBidiagonalHelper_DDRB {
     final static int r = 3;
     Random rand = new Random(234);
 
+    /**
+     * The panel should be identical to what the row major algorithm computes
+     */
+    @Test
+    public void bidiagPanel() {
+        bidiagPanel(r*3+2,r*3);
+        bidiagPanel(r*3,r*3);
+        bidiagPanel(r*2+1,r*3+2);
+        bidiagPanel(r-1,r*2);
+    }
+
+    private void bidiagPanel( int numRows , int numCols ) {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(numRows,numCols,-1,1,rand);
+        DMatrixRBlock Ab = MatrixOps_DDRB.convert(A,r);
+
+        BidiagonalDecompositionRow_DDRM decompTest = new BidiagonalDecompositionRow_DDRM();
+        decompTest.decompose(A);
+
+        int width = Math.min(r,Math.min(numRows,numCols));
+        int max = Math.max(numRows,numCols);
+        double gammasU[] = new double[ max ];
+        double gammasV[] = new double[ max ];
+        DMatrixRMaj X = new DMatrixRMaj(1,1), Y = new DMatrixRMaj(1,1);
+        DMatrixRMaj U = new DMatrixRMaj(1,1), V = new DMatrixRMaj(1,1);
+
+        BidiagonalHelper_DDRB.bidiagPanel(Ab,0,width,gammasU,gammasV,X,Y,U,V,
+                new double[max],new double[max],new double[2*width],false);
+
+        for( int i = 0; i < width; i++ ) {
+            assertEquals(decompTest.getGammasU()[i],gammasU[i],UtilEjml.TEST_F64);
+            assertEquals(decompTest.getGammasV()[i],gammasV[i],UtilEjml.TEST_F64);
+        }
+
+        for( int i = 0; i < numRows; i++ ) {
+            for( int j = 0; j < numCols; j++ ) {
+                if( i < width || j < width ) {
+                    assertEquals(A.get(i,j),Ab.get(i,j),UtilEjml.TEST_F64);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void multTransA_vec() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(r*3+1,r*2+2,-1,1,rand);
+        DMatrixRBlock Ab = MatrixOps_DDRB.convert(A,r);
+        double u[] = RandomMatrices_DDRM.rectangle(1,A.numRows,-1,1,rand).data;
+
+        for( boolean concurrent : new boolean[]{false,true} ) {
+            for( int row0 : new int[]{0,2,r,r*3} ) {
+                for( int col0 : new int[]{0,1,r+1,A.numCols-1} ) {
+                    double y[] = new double[ A.numCols ];
+                    BidiagonalHelper_DDRB.multTransA_vec(Ab,row0,col0,u,y,concurrent);
+
+                    for( int j = col0; j < A.numCols; j++ ) {
+                        double expected = 0;
+                        for( int i = row0; i < A.numRows; i++ ) {
+                            expected += A.get(i,j)*u[i];
+                        }
+                        assertEquals(expected,y[j],UtilEjml.TEST_F64);
+                    }
+                }
+            }
+        }
+    }
 
     @Test
-    public void bidiagOuterBlocks() {
-//        SimpleMatrix A = SimpleMatrix.random(r*2+r-1,r*2+r-1,-1,1,rand);
-//        DMatrixRBlock Ab = DMatrixBlockOps.convert(A.getMatrix(),r);
-//
-//        A.print();
-//        BidiagonalDecompositionRow decompTest = new BidiagonalDecompositionRow();
-//        assertTrue( decompTest.decompose(A.getMatrix()) );
-//
-//        double gammasU[] = new double[ r*3 ];
-//        double gammasV[] = new double[ r*3 ];
-//
-//        BidiagonalHelper.bidiagOuterBlocks(r,new DSubmatrixD1(Ab),gammasU,gammasV);
-//
-//        for( int i = 0; i < r; i++ ) {
-//            assertEquals(decompTest.getGammasU()[i],gammasU[i],UtilEjml.TEST_64F);
-//            assertEquals(decompTest.getGammasV()[i],gammasV[i],UtilEjml.TEST_64F);
-//        }
-//
-//        for( int i = 0; i < A.numRows(); i++ ) {
-//            for( int j = 0; j < A.numCols(); j++ ) {
-//                if( i < r && j < r ) {
-//                    assertEquals(A.get(i,j),Ab.get(i,j),UtilEjml.TEST_64F);
-//                }
-//            }
-//        }
+    public void mult_vec() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(r*3+1,r*2+2,-1,1,rand);
+        DMatrixRBlock Ab = MatrixOps_DDRB.convert(A,r);
+        double v[] = RandomMatrices_DDRM.rectangle(1,A.numCols,-1,1,rand).data;
+
+        for( boolean concurrent : new boolean[]{false,true} ) {
+            for( int row0 : new int[]{0,2,r,r*3} ) {
+                for( int col0 : new int[]{0,1,r+1,A.numCols-1} ) {
+                    double x[] = new double[ A.numRows ];
+                    BidiagonalHelper_DDRB.mult_vec(Ab,row0,col0,v,x,concurrent);
+
+                    for( int i = row0; i < A.numRows; i++ ) {
+                        double expected = 0;
+                        for( int j = col0; j < A.numCols; j++ ) {
+                            expected += A.get(i,j)*v[j];
+                        }
+                        assertEquals(expected,x[i],UtilEjml.TEST_F64);
+                    }
+                }
+            }
+        }
     }
 }
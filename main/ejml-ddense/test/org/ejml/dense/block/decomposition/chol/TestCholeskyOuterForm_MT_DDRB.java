@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.block.decomposition.chol;
+
+import org.ejml.EjmlConcurrency;
+import org.ejml.EjmlParameters;
+import org.ejml.data.DMatrixRBlock;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.block.MatrixOps_DDRB;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestCholeskyOuterForm_MT_DDRB {
+
+    Random rand = new Random(1231);
+
+    // size of a block
+    int bl = 5;
+
+    ForkJoinPool originalPool;
+    long originalSwitch;
+
+    @Before
+    public void before() {
+        // force it to use the concurrent code even for small matrices
+        originalPool = EjmlConcurrency.getPool();
+        originalSwitch = EjmlParameters.CHOLESKY_CONCURRENT_SWITCH;
+        EjmlConcurrency.setMaxThreads(4);
+        EjmlParameters.CHOLESKY_CONCURRENT_SWITCH = 0;
+    }
+
+    @After
+    public void after() {
+        EjmlConcurrency.setPool(originalPool);
+        EjmlParameters.CHOLESKY_CONCURRENT_SWITCH = originalSwitch;
+    }
+
+    /**
+     * Results should be identical to the single threaded algorithm
+     */
+    @Test
+    public void compareToSingleThread() {
+        for( boolean lower : new boolean[]{true,false}) {
+            for( int N : new int[]{1,bl-2,bl,bl+1,2*bl,23,40} ) {
+                DMatrixRMaj A = RandomMatrices_DDRM.symmetricPosDef(N,rand);
+
+                DMatrixRBlock expected = MatrixOps_DDRB.convert(A,bl);
+                DMatrixRBlock found = expected.copy();
+
+                CholeskyOuterForm_DDRB single = new CholeskyOuterForm_DDRB(lower);
+                CholeskyOuterForm_MT_DDRB concurrent = new CholeskyOuterForm_MT_DDRB(lower);
+
+                assertTrue(single.decompose(expected));
+                assertTrue(concurrent.decompose(found));
+
+                assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,0));
+                assertSame(found,concurrent.getT(null));
+                assertEquals(single.computeDeterminant().real,concurrent.computeDeterminant().real,0);
+            }
+        }
+    }
+
+    /**
+     * The decomposition should fail if the matrix isn't positive definite, no matter which block it fails on.
+     */
+    @Test
+    public void notPositiveDefinite() {
+        int N = 23;
+        for( boolean lower : new boolean[]{true,false}) {
+            for( int badRow : new int[]{0,7,22} ) {
+                DMatrixRMaj A = RandomMatrices_DDRM.symmetricPosDef(N,rand);
+                A.set(badRow,badRow,-1);
+
+                CholeskyOuterForm_MT_DDRB alg = new CholeskyOuterForm_MT_DDRB(lower);
+                assertFalse(alg.decompose(MatrixOps_DDRB.convert(A,bl)));
+
+                // it should work after a failure
+                A = RandomMatrices_DDRM.symmetricPosDef(N,rand);
+                assertTrue(alg.decompose(MatrixOps_DDRB.convert(A,bl)));
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.dense.block.decomposition.hessenberg;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRBlock;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.block.MatrixOps_DDRB;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.dense.row.decomposition.hessenberg.HessenbergSimilarDecomposition_DDRM;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * @author Peter Abeles
+ */
+public class TestHessenbergDecompositionHouseholder_DDRB {
+
+    final static int r = 3;
+    Random rand = new Random(234);
+
+    /**
+     * Compare against the row major algorithm, which stores the decomposition in the same format
+     */
+    @Test
+    public void compareToRow() {
+        for( int N : new int[]{1,2,3,4,5,6,7,8,9,12,13,20} ) {
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(N,N,-1,1,rand);
+            DMatrixRBlock Ab = MatrixOps_DDRB.convert(A,r);
+
+            HessenbergSimilarDecomposition_DDRM row = new HessenbergSimilarDecomposition_DDRM();
+            HessenbergDecompositionHouseholder_DDRB alg = new HessenbergDecompositionHouseholder_DDRB();
+
+            assertTrue(row.decompose(A));
+            assertTrue(alg.decompose(Ab));
+
+            assertTrue(MatrixFeatures_DDRM.isIdentical(A,MatrixOps_DDRB.convert(alg.getQH(),null),UtilEjml.TEST_F64));
+            for( int i = 0; i < N-2; i++ ) {
+                assertEquals(row.getGammas()[i],alg.getGammas()[i],UtilEjml.TEST_F64);
+            }
+        }
+    }
+
+    /**
+     * Only the upper Hessenberg part should be non-zero when the matrix is already in Hessenberg form
+     */
+    @Test
+    public void alreadyHessenberg() {
+        int N = 10;
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(N,N,-1,1,rand);
+        for( int i = 2; i < N; i++ ) {
+            for( int j = 0; j < i-1; j++ ) {
+                A.set(i,j,0);
+            }
+        }
+        DMatrixRBlock Ab = MatrixOps_DDRB.convert(A,r);
+
+        HessenbergDecompositionHouseholder_DDRB alg = new HessenbergDecompositionHouseholder_DDRB();
+        assertTrue(alg.decompose(Ab));
+
+        for( int i = 0; i < N; i++ ) {
+            for( int j = i-1; j < N; j++ ) {
+                if( j >= 0 )
+                    assertEquals(Math.abs(A.get(i,j)),Math.abs(Ab.get(i,j)),UtilEjml.TEST_F64);
+            }
+        }
+    }
+}
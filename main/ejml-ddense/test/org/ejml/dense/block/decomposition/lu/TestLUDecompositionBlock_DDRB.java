@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.dense.block.decomposition.lu;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRBlock;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.block.MatrixOps_DDRB;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.dense.row.decomposition.lu.LUDecompositionAlt_DDRM;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * @author Peter Abeles
+ */
+public class TestLUDecompositionBlock_DDRB {
+
+    final static int r = 3;
+    Random rand = new Random(234);
+
+    /**
+     * Compare against the row major algorithm, which stores the decomposition in the same format
+     */
+    @Test
+    public void compareToRow() {
+        for( int rows : new int[]{1,2,3,4,5,6,7,12,13} ) {
+            for( int cols : new int[]{1,2,3,4,5,6,7,12,13} ) {
+                DMatrixRMaj A = RandomMatrices_DDRM.rectangle(rows,cols,-1,1,rand);
+                DMatrixRBlock Ab = MatrixOps_DDRB.convert(A,r);
+
+                LUDecompositionAlt_DDRM row = new LUDecompositionAlt_DDRM();
+                LUDecompositionBlock_DDRB alg = new LUDecompositionBlock_DDRB();
+
+                assertTrue(row.decompose(A));
+                assertTrue(alg.decompose(Ab));
+
+                DMatrixRMaj found = MatrixOps_DDRB.convert(Ab,null);
+                assertTrue(MatrixFeatures_DDRM.isIdentical(row.getLU(),found,UtilEjml.TEST_F64));
+                for( int i = 0; i < rows; i++ ) {
+                    assertEquals(row.getPivot()[i],alg.getPivot()[i]);
+                }
+                for( int i = 0; i < Math.min(rows,cols); i++ ) {
+                    assertEquals(row.getIndx()[i],alg.getIndx()[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * The first column is all zeros so no pivot can be found
+     */
+    @Test
+    public void zeroColumn() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(8,8,-1,1,rand);
+        for( int i = 0; i < A.numRows; i++ ) {
+            A.set(i,0,0);
+        }
+        DMatrixRBlock Ab = MatrixOps_DDRB.convert(A,r);
+
+        LUDecompositionAlt_DDRM row = new LUDecompositionAlt_DDRM();
+        LUDecompositionBlock_DDRB alg = new LUDecompositionBlock_DDRB();
+
+        assertTrue(row.decompose(A));
+        assertTrue(alg.decompose(Ab));
+
+        assertTrue(MatrixFeatures_DDRM.isIdentical(row.getLU(),MatrixOps_DDRB.convert(Ab,null),UtilEjml.TEST_F64));
+    }
+}
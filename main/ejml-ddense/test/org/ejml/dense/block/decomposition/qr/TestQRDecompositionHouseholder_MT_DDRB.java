@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2009-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.block.decomposition.qr;
+
+import org.ejml.EjmlConcurrency;
+import org.ejml.EjmlParameters;
+import org.ejml.data.DMatrixRBlock;
+import org.ejml.dense.block.MatrixOps_DDRB;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestQRDecompositionHouseholder_MT_DDRB {
+
+    Random rand = new Random(234);
+
+    ForkJoinPool originalPool;
+    long originalSwitch;
+
+    @Before
+    public void before() {
+        // force it to use the concurrent code even for small matrices
+        originalPool = EjmlConcurrency.getPool();
+        originalSwitch = EjmlParameters.QR_CONCURRENT_SWITCH;
+        EjmlConcurrency.setMaxThreads(4);
+        EjmlParameters.QR_CONCURRENT_SWITCH = 0;
+    }
+
+    @After
+    public void after() {
+        EjmlConcurrency.setPool(originalPool);
+        EjmlParameters.QR_CONCURRENT_SWITCH = originalSwitch;
+    }
+
+    @Test
+    public void generic() {
+        GenericBlock64QrDecompositionTests_DDRB tests;
+        tests = new GenericBlock64QrDecompositionTests_DDRB(new QRDecompositionHouseholder_MT_DDRB());
+
+        tests.allTests();
+    }
+
+    @Test
+    public void genericSaveW() {
+        QRDecompositionHouseholder_MT_DDRB decomp = new QRDecompositionHouseholder_MT_DDRB();
+        decomp.setSaveW(true);
+
+        GenericBlock64QrDecompositionTests_DDRB tests;
+        tests = new GenericBlock64QrDecompositionTests_DDRB(decomp);
+
+        tests.allTests();
+    }
+
+    /**
+     * Results should be identical to the single threaded algorithm
+     */
+    @Test
+    public void compareToSingleThread() {
+        int bl = 5;
+        for( boolean saveW : new boolean[]{false,true}) {
+            for( int rows : new int[]{4,5,12,23,31} ) {
+                for( int cols : new int[]{3,5,11,23,30} ) {
+                    DMatrixRBlock expected = MatrixOps_DDRB.createRandom(rows,cols,-1,1,rand,bl);
+                    DMatrixRBlock found = expected.copy();
+
+                    QRDecompositionHouseholder_DDRB single = new QRDecompositionHouseholder_DDRB();
+                    QRDecompositionHouseholder_MT_DDRB concurrent = new QRDecompositionHouseholder_MT_DDRB();
+                    single.setSaveW(saveW);
+                    concurrent.setSaveW(saveW);
+
+                    assertTrue(single.decompose(expected));
+                    assertTrue(concurrent.decompose(found));
+                    assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,0));
+
+                    // Q is computed from the saved state
+                    DMatrixRBlock Q0 = single.getQ(null,false);
+                    DMatrixRBlock Q1 = concurrent.getQ(null,false);
+                    assertTrue(MatrixFeatures_DDRM.isIdentical(Q0,Q1,0));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,333 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.fixed;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrix;
+import org.ejml.data.DMatrixFixed;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.NormOps_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.ops.ConvertDMatrixStruct;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares each operation on a batch against the same operation applied to each fixed sized matrix
+ *
+ * @author Peter Abeles
+ */
+public abstract class CompareBatchToFixed_DDRM {
+    Random rand = new Random(234);
+
+    Class classBatchOps;
+    Class classFixedOps;
+    Class classBatch;
+    Class classFixed;
+    int N;
+
+    // number of matrices in the batch. Larger than the block length so that multiple blocks are processed
+    int size = 21;
+
+    protected CompareBatchToFixed_DDRM( Class classBatchOps , Class classFixedOps ,
+                                        Class classBatch , Class classFixed ) {
+        this.classBatchOps = classBatchOps;
+        this.classFixedOps = classFixedOps;
+        this.classBatch = classBatch;
+        this.classFixed = classFixed;
+
+        String name = classBatchOps.getName();
+        N = Integer.parseInt(name.charAt(name.length()-1)+"");
+    }
+
+    @Test
+    public void compareToFixed() throws Exception {
+        Object blockLength = classBatchOps.getField("BLOCK_LENGTH").get(null);
+        classBatchOps.getField("BLOCK_LENGTH").set(null,8);
+        try {
+            int numCompared = 0;
+            for( Method m : classBatchOps.getMethods() ) {
+                if( !Modifier.isStatic(m.getModifiers()) || m.getDeclaringClass() != classBatchOps )
+                    continue;
+                numCompared++;
+                // there is no fixed sized equivalent for larger matrices. See invert_det_dense()
+                if( N > UtilEjml.maxInverseSize && isInvertOrDet(m) )
+                    continue;
+                compare(m,findFixed(m));
+            }
+            assertEquals(10, numCompared);
+        } finally {
+            classBatchOps.getField("BLOCK_LENGTH").set(null,blockLength);
+        }
+    }
+
+    /**
+     * Compares invert and det against the dense row-major implementation
+     */
+    @Test
+    public void invert_det_dense() throws Exception {
+        Object a = randomBatch(false);
+        Object inv = newBatch(0);
+
+        int failed = (Integer)classBatchOps.getMethod("invert",classBatch,classBatch).invoke(null,a,inv);
+        assertEquals(0,failed);
+        double[] det = (double[])classBatchOps.getMethod("det",classBatch,double[].class).invoke(null,a,null);
+
+        for (int k = 0; k < size; k++) {
+            DMatrixRMaj A = new DMatrixRMaj(N,N);
+            ConvertDMatrixStruct.convert((DMatrix)get(a,k),A);
+
+            double expectedDet = CommonOps_DDRM.det(A);
+            assertEquals(expectedDet, det[k], UtilEjml.TEST_F64*Math.max(1,Math.abs(expectedDet)));
+
+            DMatrixRMaj expected = new DMatrixRMaj(N,N);
+            assertTrue(CommonOps_DDRM.invert(A,expected));
+            DMatrixRMaj found = new DMatrixRMaj(N,N);
+            ConvertDMatrixStruct.convert((DMatrix)get(inv,k),found);
+            assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,UtilEjml.TEST_F64*Math.max(1,NormOps_DDRM.normPInf(expected))));
+        }
+    }
+
+    /**
+     * The LU based invert should report singular matrices and their determinant should be zero
+     */
+    @Test
+    public void invert_det_singular() throws Exception {
+        if( N <= UtilEjml.maxInverseSize )
+            return;
+
+        Object a = randomBatch(false);
+        DMatrixFixed F = get(a,3);
+        for (int col = 0; col < N; col++) {
+            F.set(2,col,0);
+        }
+        classBatch.getMethod("set",int.class,classFixed).invoke(a,3,F);
+
+        Object inv = newBatch(0);
+        int failed = (Integer)classBatchOps.getMethod("invert",classBatch,classBatch).invoke(null,a,inv);
+        assertEquals(1,failed);
+        double[] det = (double[])classBatchOps.getMethod("det",classBatch,double[].class).invoke(null,a,null);
+        assertEquals(0,det[3],0);
+        assertTrue(det[2] != 0);
+    }
+
+    /**
+     * Matrices which can't be eliminated without pivoting are mixed in with ones which can. Also checks
+     * inverting in place
+     */
+    @Test
+    public void invert_det_pivoting() throws Exception {
+        if( N <= UtilEjml.maxInverseSize )
+            return;
+
+        Object blockLength = classBatchOps.getField("BLOCK_LENGTH").get(null);
+        classBatchOps.getField("BLOCK_LENGTH").set(null,8);
+        try {
+            Object a = randomBatch(false);
+
+            // zero in the first pivot
+            DMatrixFixed F = get(a,2);
+            F.set(0,0,0);
+            classBatch.getMethod("set",int.class,classFixed).invoke(a,2,F);
+
+            // permutation matrix, every pivot is zero
+            F = (DMatrixFixed)classFixed.newInstance();
+            for (int row = 0; row < N; row++) {
+                F.set(row,(row+1)%N,1);
+            }
+            classBatch.getMethod("set",int.class,classFixed).invoke(a,9,F);
+
+            // small leading pivot which would produce a poor solution without pivoting
+            F = get(a,17);
+            F.set(0,0,1e-12);
+            classBatch.getMethod("set",int.class,classFixed).invoke(a,17,F);
+
+            Object original = copy(a);
+            double[] det = (double[])classBatchOps.getMethod("det",classBatch,double[].class).invoke(null,a,null);
+            int failed = (Integer)classBatchOps.getMethod("invert",classBatch,classBatch).invoke(null,a,a);
+            assertEquals(0,failed);
+
+            for (int k = 0; k < size; k++) {
+                DMatrixRMaj A = new DMatrixRMaj(N,N);
+                ConvertDMatrixStruct.convert((DMatrix)get(original,k),A);
+
+                double expectedDet = CommonOps_DDRM.det(A);
+                assertEquals(expectedDet, det[k], UtilEjml.TEST_F64*Math.max(1,Math.abs(expectedDet)));
+
+                DMatrixRMaj expected = new DMatrixRMaj(N,N);
+                assertTrue(CommonOps_DDRM.invert(A,expected));
+                DMatrixRMaj found = new DMatrixRMaj(N,N);
+                ConvertDMatrixStruct.convert((DMatrix)get(a,k),found);
+                assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,UtilEjml.TEST_F64*Math.max(1,NormOps_DDRM.normPInf(expected))));
+            }
+        } finally {
+            classBatchOps.getField("BLOCK_LENGTH").set(null,blockLength);
+        }
+    }
+
+    private static boolean isInvertOrDet( Method m ) {
+        return m.getName().equals("invert") || m.getName().equals("det");
+    }
+
+    /**
+     * Finds the fixed function which has the same name. Output arrays in the batch function become return values
+     */
+    private Method findFixed( Method batch ) throws NoSuchMethodException {
+        List<Class> types = new ArrayList<>();
+        for( Class c : batch.getParameterTypes() ) {
+            if( c == classBatch )
+                types.add(classFixed);
+            else if( c != double[].class )
+                types.add(c);
+        }
+        return classFixedOps.getMethod(batch.getName(),types.toArray(new Class[0]));
+    }
+
+    private void compare( Method batch , Method fixed ) throws Exception {
+        Class[] types = batch.getParameterTypes();
+        boolean spd = batch.getName().startsWith("chol");
+
+        Object[] inputs = new Object[types.length];
+        Object[] original = new Object[types.length];
+        double alpha = rand.nextDouble()+0.5;
+        for (int i = 0; i < types.length; i++) {
+            if( types[i] == classBatch ) {
+                inputs[i] = randomBatch(spd);
+                original[i] = copy(inputs[i]);
+            } else if( types[i] == double.class ) {
+                inputs[i] = alpha;
+            }
+        }
+
+        Object ret = batch.invoke(null,inputs);
+
+        int numFixed = fixed.getParameterTypes().length;
+        for (int k = 0; k < size; k++) {
+            Object[] inputsFixed = new Object[numFixed];
+            for (int i = 0, j = 0; i < types.length; i++) {
+                if( types[i] == classBatch )
+                    inputsFixed[j++] = get(original[i],k);
+                else if( types[i] == double.class )
+                    inputsFixed[j++] = alpha;
+            }
+
+            Object retFixed = fixed.invoke(null,inputsFixed);
+
+            String message = batch.getName()+" index "+k;
+            if( ret instanceof double[] ) {
+                double expected = (Double)retFixed;
+                assertEquals(message, expected, ((double[])ret)[k], UtilEjml.TEST_F64*Math.max(1,Math.abs(expected)));
+            } else if( ret instanceof Integer ) {
+                assertTrue(message, (Boolean)retFixed);
+            }
+
+            for (int i = 0, j = 0; i < types.length; i++) {
+                if( types[i] == classBatch ) {
+                    assertMatrixEquals(message, (DMatrixFixed)inputsFixed[j], get(inputs[i],k));
+                    j++;
+                } else if( types[i] == double.class ) {
+                    j++;
+                }
+            }
+        }
+
+        if( ret instanceof Integer )
+            assertEquals(0, ((Integer)ret).intValue());
+    }
+
+    @Test
+    public void sizeMismatch() throws Exception {
+        Object a = newBatch(3);
+        Object b = newBatch(4);
+        Object c = newBatch(0);
+        for( String name : new String[]{"add","mult"}) {
+            try {
+                classBatchOps.getMethod(name,classBatch,classBatch,classBatch).invoke(null,a,b,c);
+                fail("Should have thrown an exception");
+            } catch( InvocationTargetException e ) {
+                assertTrue(e.getCause() instanceof MatrixDimensionException);
+            }
+        }
+    }
+
+    /**
+     * The output should be resized and elements which aren't used should be ignored
+     */
+    @Test
+    public void outputReshaped() throws Exception {
+        Object a = randomBatch(false);
+        Object b = randomBatch(false);
+        Object c = newBatch(2);
+
+        classBatchOps.getMethod("add",classBatch,classBatch,classBatch).invoke(null,a,b,c);
+        assertEquals(size, classBatch.getField("size").get(c));
+
+        // shrinking the batch should not discard the values
+        classBatch.getMethod("reshape",int.class).invoke(c,3);
+        Object d = copy(c);
+        classBatch.getMethod("reshape",int.class).invoke(d,size);
+        assertMatrixEquals("", get(c,2), get(d,2));
+    }
+
+    private Object randomBatch( boolean spd ) throws Exception {
+        Object batch = newBatch(size);
+        for (int k = 0; k < size; k++) {
+            DMatrixRMaj A = spd ? RandomMatrices_DDRM.symmetricPosDef(N,rand) :
+                    RandomMatrices_DDRM.rectangle(N,N,rand);
+            if( spd )
+                CommonOps_DDRM.add(A,CommonOps_DDRM.identity(N),A);
+            DMatrixFixed F = (DMatrixFixed)classFixed.newInstance();
+            ConvertDMatrixStruct.convert((DMatrix)A,F);
+            classBatch.getMethod("set",int.class,classFixed).invoke(batch,k,F);
+        }
+        return batch;
+    }
+
+    private Object newBatch( int size ) throws Exception {
+        return classBatch.getConstructor(int.class).newInstance(size);
+    }
+
+    private Object copy( Object batch ) throws Exception {
+        return classBatch.getConstructor(classBatch).newInstance(batch);
+    }
+
+    private DMatrixFixed get( Object batch , int index ) throws Exception {
+        return (DMatrixFixed)classBatch.getMethod("get",int.class,classFixed).invoke(batch,index,null);
+    }
+
+    private static void assertMatrixEquals( String message , DMatrixFixed expected , DMatrixFixed found ) {
+        for (int row = 0; row < expected.getNumRows(); row++) {
+            for (int col = 0; col < expected.getNumCols(); col++) {
+                double e = expected.get(row,col);
+                assertEquals(message, e, found.get(row,col), UtilEjml.TEST_F64*Math.max(1,Math.abs(e)));
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.fixed;
+
+import org.ejml.data.DMatrix4x4;
+import org.ejml.data.DMatrix4x4Batch;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestCommonOpsBatch_DDF4 extends CompareBatchToFixed_DDRM {
+    public TestCommonOpsBatch_DDF4() {
+        super(CommonOpsBatch_DDF4.class, CommonOps_DDF4.class, DMatrix4x4Batch.class, DMatrix4x4.class);
+    }
+}
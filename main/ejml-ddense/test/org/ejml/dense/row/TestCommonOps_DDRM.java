@@ -18,6 +18,8 @@
 
 package org.ejml.dense.row;
 
+import org.ejml.EjmlConcurrency;
+import org.ejml.EjmlParameters;
 import org.ejml.EjmlUnitTests;
 import org.ejml.UtilEjml;
 import org.ejml.data.*;
@@ -30,8 +32,10 @@ import org.junit.Test;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -270,6 +274,93 @@ public class TestCommonOps_DDRM {
         return true;
     }
 
+    /**
+     * Checks which implementation each size of multiplication is routed to.  Wide outputs go to the packed
+     * implementation, narrow outputs to the concurrent row implementation, and everything else is single threaded.
+     */
+    @Test
+    public void mult_routing() {
+        ForkJoinPool originalPool = EjmlConcurrency.getPool();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        boolean originalUse = EjmlConcurrency.USE_CONCURRENT;
+        try {
+            EjmlConcurrency.setPool(pool);
+            int W = EjmlParameters.MULT_COLUMN_SWITCH;
+
+            for( boolean concurrent : new boolean[]{true,false}) {
+                EjmlConcurrency.USE_CONCURRENT = concurrent;
+
+                // small and wide
+                DMatrixRMaj a = new DMatrixRMaj(20,20);
+                assertFalse(CommonOps_DDRM.isPackedMult(a,W));
+                assertFalse(CommonOps_DDRM.isConcurrentMult(a,W));
+
+                // small and narrow
+                assertFalse(CommonOps_DDRM.isPackedMult(a,W-1));
+                assertFalse(CommonOps_DDRM.isConcurrentMult(a,W-1));
+
+                // large and wide. Always packed, which is concurrent internally
+                a = new DMatrixRMaj(200,200);
+                assertTrue(CommonOps_DDRM.isPackedMult(a,200));
+                assertFalse(CommonOps_DDRM.isConcurrentMult(a,200));
+
+                // large and narrow. Never packed
+                a = new DMatrixRMaj(2000,2000);
+                assertFalse(CommonOps_DDRM.isPackedMult(a,W-1));
+                assertEquals(concurrent,CommonOps_DDRM.isConcurrentMult(a,W-1));
+            }
+        } finally {
+            EjmlConcurrency.setPool(originalPool);
+            EjmlConcurrency.USE_CONCURRENT = originalUse;
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * The choice of algorithm must not depend on concurrency being enabled, otherwise the results would change.
+     * Sizes between the concurrent and packed thresholds and above both are checked.
+     */
+    @Test
+    public void mult_concurrent_identical() {
+        ForkJoinPool originalPool = EjmlConcurrency.getPool();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        boolean originalUse = EjmlConcurrency.USE_CONCURRENT;
+        int originalConcurrent = EjmlParameters.MULT_CONCURRENT_SWITCH;
+        long originalPacked = EjmlParameters.MULT_PACKED_SWITCH;
+        try {
+            EjmlConcurrency.setPool(pool);
+            EjmlParameters.MULT_CONCURRENT_SWITCH = 50*50*50;
+            EjmlParameters.MULT_PACKED_SWITCH = 200*200*200;
+
+            int[][] shapes = {{100,300,100},{150,600,150},{600,600,10}};
+            for( int[] shape : shapes ) {
+                DMatrixRMaj a = RandomMatrices_DDRM.rectangle(shape[0],shape[1],rand);
+                DMatrixRMaj b = RandomMatrices_DDRM.rectangle(shape[1],shape[2],rand);
+                DMatrixRMaj bt = CommonOps_DDRM.transpose(b,null);
+                DMatrixRMaj expected = new DMatrixRMaj(1,1);
+                DMatrixRMaj found = new DMatrixRMaj(1,1);
+
+                EjmlConcurrency.USE_CONCURRENT = false;
+                CommonOps_DDRM.mult(a,b,expected);
+                EjmlConcurrency.USE_CONCURRENT = true;
+                CommonOps_DDRM.mult(a,b,found);
+                assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,0));
+
+                EjmlConcurrency.USE_CONCURRENT = false;
+                CommonOps_DDRM.multTransB(a,bt,expected);
+                EjmlConcurrency.USE_CONCURRENT = true;
+                CommonOps_DDRM.multTransB(a,bt,found);
+                assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,0));
+            }
+        } finally {
+            EjmlConcurrency.setPool(originalPool);
+            EjmlConcurrency.USE_CONCURRENT = originalUse;
+            EjmlParameters.MULT_CONCURRENT_SWITCH = originalConcurrent;
+            EjmlParameters.MULT_PACKED_SWITCH = originalPacked;
+            pool.shutdown();
+        }
+    }
+
     @Test
     public void dot() {
         DMatrixRMaj a = RandomMatrices_DDRM.rectangle(10, 1, rand);
@@ -563,6 +654,36 @@ public class TestCommonOps_DDRM {
         }
     }
 
+    /**
+     * Large matrices use the block LU decomposition
+     */
+    @Test
+    public void invert_det_blockLU() {
+        int original = EjmlParameters.SWITCH_BLOCK_LU;
+        try {
+            EjmlParameters.SWITCH_BLOCK_LU = 10;
+            for( int N : new int[]{10,70,130} ) {
+                DMatrixRMaj A = RandomMatrices_DDRM.rectangle(N,N,-1,1,rand);
+
+                DMatrixRMaj A_inv = new DMatrixRMaj(N,N);
+                assertTrue(CommonOps_DDRM.invert(A,A_inv));
+                DMatrixRMaj I = new DMatrixRMaj(N,N);
+                CommonOps_DDRM.mult(A,A_inv,I);
+                assertTrue(MatrixFeatures_DDRM.isIdentity(I,UtilEjml.TEST_F64));
+
+                LUDecompositionAlt_DDRM lu = new LUDecompositionAlt_DDRM();
+                assertTrue(lu.decompose(A));
+                double expected = lu.computeDeterminant().real;
+                assertEquals(expected,CommonOps_DDRM.det(A),Math.abs(expected)*UtilEjml.TEST_F64);
+
+                CommonOps_DDRM.invert(A);
+                assertTrue(MatrixFeatures_DDRM.isIdentical(A_inv,A,UtilEjml.TEST_F64));
+            }
+        } finally {
+            EjmlParameters.SWITCH_BLOCK_LU = original;
+        }
+    }
+
     @Test
     public void invertSPD() {
         for( int i = 1; i <= 20; i++ ) {
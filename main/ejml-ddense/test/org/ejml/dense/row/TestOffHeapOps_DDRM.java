@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.dense.row;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixOffHeap;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.factory.LinearSolverFactory_DDRM;
+import org.ejml.interfaces.linsol.LinearSolverDense;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestOffHeapOps_DDRM {
+
+    Random rand = new Random(234);
+
+    /**
+     * Creates an off-heap matrix split into chunks with 3 rows in each
+     */
+    private DMatrixOffHeap create( DMatrixRMaj A ) {
+        DMatrixOffHeap m = new DMatrixOffHeap(1,1,Double.BYTES*A.numCols*3);
+        m.set(A);
+        return m;
+    }
+
+    @Test
+    public void mult() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(20,4,rand);
+        DMatrixRMaj x = RandomMatrices_DDRM.rectangle(4,1,rand);
+
+        DMatrixRMaj expected = new DMatrixRMaj(1,1);
+        DMatrixRMaj found = new DMatrixRMaj(1,1);
+        CommonOps_DDRM.mult(A,x,expected);
+        OffHeapOps_DDRM.mult(create(A),x,found);
+
+        assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,UtilEjml.TEST_F64));
+    }
+
+    @Test
+    public void multTransA() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(20,4,rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(20,3,rand);
+
+        DMatrixRMaj expected = new DMatrixRMaj(1,1);
+        DMatrixRMaj found = RandomMatrices_DDRM.rectangle(2,2,rand);
+        CommonOps_DDRM.multTransA(A,B,expected);
+
+        OffHeapOps_DDRM.multTransA(create(A),B,found);
+        assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,UtilEjml.TEST_F64));
+
+        found = RandomMatrices_DDRM.rectangle(2,2,rand);
+        OffHeapOps_DDRM.multTransA(create(A),create(B),found);
+        assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,UtilEjml.TEST_F64));
+    }
+
+    @Test
+    public void multInner() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(20,4,rand);
+
+        DMatrixRMaj expected = new DMatrixRMaj(1,1);
+        DMatrixRMaj found = RandomMatrices_DDRM.rectangle(2,2,rand);
+        CommonOps_DDRM.multInner(A,expected);
+        OffHeapOps_DDRM.multInner(create(A),found);
+
+        assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,UtilEjml.TEST_F64));
+    }
+
+    @Test
+    public void sumCols() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(20,4,rand);
+
+        DMatrixRMaj expected = CommonOps_DDRM.sumCols(A,null);
+        DMatrixRMaj found = OffHeapOps_DDRM.sumCols(create(A),null);
+
+        assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,UtilEjml.TEST_F64));
+    }
+
+    @Test
+    public void minCols() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(20,4,-1,1,rand);
+
+        DMatrixRMaj expected = CommonOps_DDRM.minCols(A,null);
+        DMatrixRMaj found = OffHeapOps_DDRM.minCols(create(A),new DMatrixRMaj(2,2));
+
+        assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,UtilEjml.TEST_F64));
+    }
+
+    @Test
+    public void maxCols() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(20,4,-1,1,rand);
+
+        DMatrixRMaj expected = CommonOps_DDRM.maxCols(A,null);
+        DMatrixRMaj found = OffHeapOps_DDRM.maxCols(create(A),null);
+
+        assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,UtilEjml.TEST_F64));
+    }
+
+    @Test
+    public void varianceCols() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(20,4,-1,1,rand);
+        CommonOps_DDRM.add(A,100);
+
+        DMatrixRMaj mean = new DMatrixRMaj(1,1);
+        DMatrixRMaj variance = new DMatrixRMaj(1,1);
+        OffHeapOps_DDRM.varianceCols(create(A),mean,variance);
+
+        for (int col = 0; col < A.numCols; col++) {
+            double expectedMean = 0;
+            for (int row = 0; row < A.numRows; row++) {
+                expectedMean += A.get(row,col);
+            }
+            expectedMean /= A.numRows;
+
+            double expectedVar = 0;
+            for (int row = 0; row < A.numRows; row++) {
+                double d = A.get(row,col) - expectedMean;
+                expectedVar += d*d;
+            }
+            expectedVar /= A.numRows-1;
+
+            assertEquals(expectedMean,mean.get(col),UtilEjml.TEST_F64);
+            assertEquals(expectedVar,variance.get(col),UtilEjml.TEST_F64);
+        }
+    }
+
+    @Test
+    public void extractRow() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(20,4,rand);
+
+        DMatrixRMaj expected = CommonOps_DDRM.extractRow(A,7,null);
+        DMatrixRMaj found = OffHeapOps_DDRM.extractRow(create(A),7,null);
+
+        assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,UtilEjml.TEST_F64));
+    }
+
+    @Test
+    public void extractRows_insertRows() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(20,4,rand);
+        DMatrixOffHeap m = create(A);
+
+        DMatrixRMaj expected = CommonOps_DDRM.extract(A,5,12,0,4);
+        DMatrixRMaj found = OffHeapOps_DDRM.extractRows(m,5,12,null);
+        assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,UtilEjml.TEST_F64));
+
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(7,4,rand);
+        OffHeapOps_DDRM.insertRows(B,2,m);
+        CommonOps_DDRM.insert(B,A,2,0);
+
+        found = OffHeapOps_DDRM.extractRows(m,0,20,null);
+        assertTrue(MatrixFeatures_DDRM.isIdentical(A,found,UtilEjml.TEST_F64));
+    }
+
+    /**
+     * Solve a least-squares problem using the normal equations
+     */
+    @Test
+    public void leastSquares() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(50,5,rand);
+        DMatrixRMaj x = RandomMatrices_DDRM.rectangle(5,1,rand);
+        DMatrixRMaj b = new DMatrixRMaj(1,1);
+        CommonOps_DDRM.mult(A,x,b);
+
+        DMatrixOffHeap m = create(A);
+        DMatrixRMaj ATA = new DMatrixRMaj(1,1);
+        DMatrixRMaj ATb = new DMatrixRMaj(1,1);
+        OffHeapOps_DDRM.multInner(m,ATA);
+        OffHeapOps_DDRM.multTransA(m,b,ATb);
+
+        LinearSolverDense<DMatrixRMaj> solver = LinearSolverFactory_DDRM.symmPosDef(5);
+        assertTrue(solver.setA(ATA));
+        DMatrixRMaj found = new DMatrixRMaj(5,1);
+        solver.solve(ATb,found);
+
+        assertTrue(MatrixFeatures_DDRM.isIdentical(x,found,UtilEjml.TEST_F64));
+    }
+}
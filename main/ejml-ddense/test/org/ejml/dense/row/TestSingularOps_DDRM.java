@@ -105,6 +105,34 @@ public class TestSingularOps_DDRM {
         }
     }
 
+    @Test
+    public void svdTruncated() {
+        DMatrixRMaj A = RandomMatrices_DDRM.singular(30,20,rand,9,7,4,2,1);
+        DMatrixRMaj A_orig = A.copy();
+
+        DMatrixRMaj U = new DMatrixRMaj(1,1);
+        DGrowArray sv = new DGrowArray();
+        DMatrixRMaj Vt = new DMatrixRMaj(1,1);
+
+        assertTrue(SingularOps_DDRM.svdTruncated(A,3,U,sv,Vt));
+        assertTrue( MatrixFeatures_DDRM.isIdentical(A_orig,A,0));
+
+        assertEquals(3,sv.length);
+        assertEquals(9,sv.data[0],UtilEjml.TEST_F64*10);
+        assertEquals(7,sv.data[1],UtilEjml.TEST_F64*10);
+        assertEquals(4,sv.data[2],UtilEjml.TEST_F64*10);
+        assertEquals(30,U.numRows);
+        assertEquals(3,U.numCols);
+        assertEquals(3,Vt.numRows);
+        assertEquals(20,Vt.numCols);
+
+        // the residual should only contain the singular values which were dropped
+        DMatrixRMaj W = CommonOps_DDRM.diag(null,3,sv.data);
+        DMatrixRMaj found =new Equation(U,"U",Vt,"Vt",W,"W",A,"A").
+                process("R=A-U*W*Vt").lookupDDRM("R");
+        assertEquals(Math.sqrt(2*2+1*1),NormOps_DDRM.normF(found),UtilEjml.TEST_F64*10);
+    }
+
     @Test
     public void descendingOrder() {
         // test different shapes of input matrices
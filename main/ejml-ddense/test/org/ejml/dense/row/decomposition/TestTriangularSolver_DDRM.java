@@ -132,6 +132,28 @@ public class TestTriangularSolver_DDRM {
         assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,UtilEjml.TEST_F64));
     }
 
+    @Test
+    public void solveTranL_right() {
+        DMatrixRMaj L = createRandomLowerTriangular();
+
+        // B is inside of a larger array
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(4,3,rand);
+        double[] data = new double[2+B.data.length];
+        System.arraycopy(B.data,0,data,2,B.data.length);
+
+        TriangularSolver_DDRM.solveTranL_right(L.data,3,data,2,4);
+
+        DMatrixRMaj found = new DMatrixRMaj(4,3);
+        System.arraycopy(data,2,found.data,0,found.data.length);
+
+        DMatrixRMaj expected = new DMatrixRMaj(4,3);
+        DMatrixRMaj L_inv = L.copy();
+        UnrolledInverseFromMinor_DDRM.inv(L_inv,L_inv);
+        CommonOps_DDRM.multTransB(B,L_inv,expected);
+
+        assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,UtilEjml.TEST_F64));
+    }
+
     @Test
     public void solveU() {
         DMatrixRMaj U = RandomMatrices_DDRM.rectangle(3,3,rand);
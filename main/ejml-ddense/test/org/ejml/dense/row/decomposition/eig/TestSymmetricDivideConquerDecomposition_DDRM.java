@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.dense.row.decomposition.eig;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.interfaces.decomposition.EigenDecomposition_F64;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSymmetricDivideConquerDecomposition_DDRM extends GeneralEigenDecompositionCheck_DDRM {
+
+    Random rand = new Random(234);
+    int leafSize;
+
+    @Override
+    public EigenDecomposition_F64 createDecomposition() {
+        SymmetricDivideConquerDecomposition_DDRM alg = new SymmetricDivideConquerDecomposition_DDRM();
+        alg.getAlgorithm().setLeafSize(leafSize);
+        return alg;
+    }
+
+    @Test
+    public void justSymmetricTests() {
+        computeVectors = true;
+
+        // small leaf size so that the divide and conquer part is used with these small matrices
+        for( int leafSize : new int[]{2,3,25} ) {
+            this.leafSize = leafSize;
+            checkSizeZero();
+            checkRandomSymmetric();
+            checkIdentity();
+            checkAllZeros();
+            checkWithSomeRepeatedValuesSymm();
+            checkWithSingularSymm();
+            checkSmallValue(true);
+            checkLargeValue(true);
+        }
+    }
+
+    /**
+     * Decompose larger matrices and check the eigenvalues against the QR algorithm
+     */
+    @Test
+    public void compareToQR() {
+        leafSize = 25;
+        for( int N : new int[]{30,51,120} ) {
+            DMatrixRMaj A = RandomMatrices_DDRM.symmetric(N,-1,1,rand);
+            double tol = UtilEjml.TEST_F64*N;
+
+            EigenDecomposition_F64<DMatrixRMaj> alg = createDecomposition();
+            SymmetricQRAlgorithmDecomposition_DDRM qr = new SymmetricQRAlgorithmDecomposition_DDRM(false);
+            assertTrue(alg.decompose(A.copy()));
+            assertTrue(qr.decompose(A.copy()));
+
+            double expected[] = new double[N];
+            for (int i = 0; i < N; i++) {
+                expected[i] = qr.getEigenvalue(i).real;
+            }
+            Arrays.sort(expected);
+
+            DMatrixRMaj V = new DMatrixRMaj(N,N);
+            for (int i = 0; i < N; i++) {
+                double value = alg.getEigenvalue(i).real;
+                assertEquals(expected[i],value,tol);
+
+                DMatrixRMaj v = alg.getEigenVector(i);
+                CommonOps_DDRM.insert(v,V,0,i);
+
+                // A*v = lambda*v
+                DMatrixRMaj Av = new DMatrixRMaj(N,1);
+                CommonOps_DDRM.mult(A,v,Av);
+                CommonOps_DDRM.scale(value,v);
+                assertTrue(MatrixFeatures_DDRM.isIdentical(Av,v,tol));
+            }
+
+            // eigenvectors should be orthonormal
+            DMatrixRMaj VV = new DMatrixRMaj(N,N);
+            CommonOps_DDRM.multTransA(V,V,VV);
+            assertTrue(MatrixFeatures_DDRM.isIdentity(VV,tol));
+        }
+    }
+
+    /**
+     * The accuracy should be comparable to the QR algorithm which it replaces for large matrices
+     */
+    @Test
+    public void accuracyComparedToQR() {
+        leafSize = 25;
+        int N = 250;
+        DMatrixRMaj A = RandomMatrices_DDRM.symmetric(N,-1,1,rand);
+
+        EigenDecomposition_F64<DMatrixRMaj> alg = createDecomposition();
+        SymmetricQRAlgorithmDecomposition_DDRM qr = new SymmetricQRAlgorithmDecomposition_DDRM(true);
+        assertTrue(alg.decompose(A.copy()));
+        assertTrue(qr.decompose(A.copy()));
+
+        double found = maxResidual(A,alg);
+        double expected = maxResidual(A,qr);
+        assertTrue(found+" "+expected, found <= 10*Math.max(expected,UtilEjml.EPS));
+    }
+
+    /**
+     * Largest element in A*v - lambda*v across all the eigenvectors
+     */
+    private static double maxResidual( DMatrixRMaj A , EigenDecomposition_F64<DMatrixRMaj> alg ) {
+        int N = A.numRows;
+        DMatrixRMaj Av = new DMatrixRMaj(N,1);
+        double max = 0;
+        for (int i = 0; i < N; i++) {
+            double value = alg.getEigenvalue(i).real;
+            DMatrixRMaj v = alg.getEigenVector(i);
+            CommonOps_DDRM.mult(A,v,Av);
+            for (int j = 0; j < N; j++) {
+                max = Math.max(max,Math.abs(Av.data[j]-value*v.data[j]));
+            }
+        }
+        return max;
+    }
+}
@@ -18,6 +18,7 @@
 
 package org.ejml.dense.row.decomposition.eig;
 
+import org.ejml.dense.row.decomposition.hessenberg.HessenbergSimilarDecomposition_DDRB_to_DDRM;
 import org.ejml.interfaces.decomposition.EigenDecomposition_F64;
 import org.junit.Test;
 
@@ -26,8 +27,14 @@ import org.junit.Test;
  * @author Peter Abeles
  */
 public class TestWatchedDoubleStepQRDecomposition_DDRM extends GeneralEigenDecompositionCheck_DDRM {
+
+    // if true the block Hessenberg decomposition is used
+    boolean block = false;
+
     @Override
     public EigenDecomposition_F64 createDecomposition() {
+        if( block )
+            return new WatchedDoubleStepQRDecomposition_DDRM(new HessenbergSimilarDecomposition_DDRB_to_DDRM(3),computeVectors);
         return new WatchedDoubleStepQRDecomposition_DDRM(computeVectors);
     }
 
@@ -36,4 +43,11 @@ public class TestWatchedDoubleStepQRDecomposition_DDRM extends GeneralEigenDecom
         super.allTests();
         super.justEigenValues();
     }
+
+    @Test
+    public void allTests_block() {
+        block = true;
+        super.allTests();
+        super.justEigenValues();
+    }
 }
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.dense.row.decomposition.eig.symm;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.decomposition.eig.SymmetricQRAlgorithmDecomposition_DDRM;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSecularEquation_DDRM {
+
+    Random rand = new Random(234);
+
+    /**
+     * Compare the roots to the eigenvalues of D + rho*z*z'
+     */
+    @Test
+    public void process() {
+        for( int k : new int[]{1,2,5,30} ) {
+            for( double rho : new double[]{1.0e-4,1,50} ) {
+                double d[] = new double[k];
+                double z[] = new double[k];
+                d[0] = (double)rand.nextGaussian();
+                for (int i = 1; i < k; i++) {
+                    d[i] = d[i-1] + 0.01 + rand.nextDouble();
+                }
+                for (int i = 0; i < k; i++) {
+                    z[i] = (double)rand.nextGaussian();
+                }
+
+                SecularEquation_DDRM alg = new SecularEquation_DDRM();
+                assertTrue(alg.process(d,z,rho,k));
+
+                double expected[] = eigenvalues(d,z,rho,k);
+                for (int i = 0; i < k; i++) {
+                    double found = alg.getRoot(i);
+                    assertEquals(expected[i],found,UtilEjml.TEST_F64*(1+Math.abs(expected[i])));
+                    // roots should be inside their interval. The differences are checked since a root can be
+                    // closer to d[i] than the spacing between floating point numbers
+                    assertTrue(alg.difference(i,i) < 0);
+                    if( i+1 < k )
+                        assertTrue(alg.difference(i+1,i) > 0);
+                    assertEquals(d[i]-found,alg.difference(i,i),UtilEjml.TEST_F64);
+                }
+            }
+        }
+    }
+
+    /**
+     * The recomputed z should produce a matrix with the same eigenvalues and be close to the original
+     */
+    @Test
+    public void computeZ() {
+        int k = 20;
+        double d[] = new double[k];
+        double z[] = new double[k];
+        for (int i = 0; i < k; i++) {
+            d[i] = i*0.5;
+            z[i] = (double)rand.nextGaussian();
+        }
+        double rho = 2.5;
+
+        SecularEquation_DDRM alg = new SecularEquation_DDRM();
+        assertTrue(alg.process(d,z,rho,k));
+        double zhat[] = new double[k];
+        alg.computeZ(zhat);
+
+        for (int i = 0; i < k; i++) {
+            assertEquals(z[i],zhat[i],UtilEjml.TEST_F64);
+        }
+
+        double expected[] = eigenvalues(d,zhat,rho,k);
+        for (int i = 0; i < k; i++) {
+            assertEquals(expected[i],alg.getRoot(i),UtilEjml.TEST_F64);
+        }
+    }
+
+    @Test
+    public void solveQuadratic() {
+        // (x-1)*(x-3) = x^2 - 4x + 3
+        assertEquals(1,SecularEquation_DDRM.solveQuadratic(1,-4,3,0,2),UtilEjml.TEST_F64);
+        assertEquals(3,SecularEquation_DDRM.solveQuadratic(1,-4,3,2,4),UtilEjml.TEST_F64);
+        assertTrue(Double.isNaN(SecularEquation_DDRM.solveQuadratic(1,-4,3,4,5)));
+        // linear
+        assertEquals(1.5,SecularEquation_DDRM.solveQuadratic(0,2,-3,0,2),UtilEjml.TEST_F64);
+    }
+
+    private double[] eigenvalues( double d[] , double z[] , double rho , int k ) {
+        DMatrixRMaj A = new DMatrixRMaj(k,k);
+        DMatrixRMaj Z = new DMatrixRMaj(k,1,true,Arrays.copyOf(z,k));
+        CommonOps_DDRM.multTransB(rho,Z,Z,A);
+        for (int i = 0; i < k; i++) {
+            A.add(i,i,d[i]);
+        }
+
+        SymmetricQRAlgorithmDecomposition_DDRM eig = new SymmetricQRAlgorithmDecomposition_DDRM(false);
+        assertTrue(eig.decompose(A));
+        double values[] = new double[k];
+        for (int i = 0; i < k; i++) {
+            values[i] = eig.getEigenvalue(i).real;
+        }
+        Arrays.sort(values);
+        return values;
+    }
+}
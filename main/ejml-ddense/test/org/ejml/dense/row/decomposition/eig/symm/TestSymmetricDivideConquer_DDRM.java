@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.dense.row.decomposition.eig.symm;
+
+import org.ejml.EjmlConcurrency;
+import org.ejml.EjmlParameters;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSymmetricDivideConquer_DDRM {
+
+    Random rand = new Random(234);
+
+    @Test
+    public void random() {
+        for( int N : new int[]{1,2,5,26,60,201} ) {
+            double diag[] = new double[N];
+            double off[] = new double[N];
+            for (int i = 0; i < N; i++) {
+                diag[i] = (double)rand.nextGaussian();
+                off[i] = (double)rand.nextGaussian();
+            }
+            check(diag,off,N,25);
+            check(diag,off,N,2);
+        }
+    }
+
+    /**
+     * Many of the off diagonal elements are zero or tiny, which causes deflation
+     */
+    @Test
+    public void deflateSmallZ() {
+        int N = 90;
+        double diag[] = new double[N];
+        double off[] = new double[N];
+        for (int i = 0; i < N; i++) {
+            diag[i] = (double)rand.nextGaussian();
+            off[i] = rand.nextInt(3) == 0 ? (double)rand.nextGaussian() : (rand.nextBoolean() ? 0 : 1.0e-20);
+        }
+        check(diag,off,N,4);
+    }
+
+    /**
+     * Repeated eigenvalues cause deflation by rotation
+     */
+    @Test
+    public void repeatedEigenvalues() {
+        int N = 64;
+        double diag[] = new double[N];
+        double off[] = new double[N];
+        for (int i = 0; i < N; i++) {
+            diag[i] = 2;
+            off[i] = i%8 == 7 ? 1.0e-3 : 0;
+        }
+        check(diag,off,N,3);
+
+        // identity matrix
+        Arrays.fill(off,0);
+        check(diag,off,N,3);
+
+        // every element is the same
+        Arrays.fill(off,2);
+        check(diag,off,N,3);
+    }
+
+    /**
+     * Glued Wilkinson matrices are a classic hard case with clusters of eigenvalues
+     */
+    @Test
+    public void gluedWilkinson() {
+        int m = 21;
+        int numGlued = 5;
+        int N = m*numGlued;
+        double diag[] = new double[N];
+        double off[] = new double[N];
+        for (int i = 0; i < N; i++) {
+            diag[i] = Math.abs(10 - i%m);
+            off[i] = i%m == m-1 ? 1.0e-8 : 1;
+        }
+        check(diag,off,N,25);
+        check(diag,off,N,6);
+    }
+
+    @Test
+    public void largeAndSmallValues() {
+        int N = 60;
+        double diag[] = new double[N];
+        double off[] = new double[N];
+        for (int i = 0; i < N; i++) {
+            diag[i] = (double)rand.nextGaussian();
+            off[i] = (double)rand.nextGaussian();
+        }
+        for( double scale : new double[]{1.0e-30,1.0e30} ) {
+            double d[] = diag.clone();
+            double e[] = off.clone();
+            for (int i = 0; i < N; i++) {
+                d[i] *= scale;
+                e[i] *= scale;
+            }
+            check(d,e,N,4);
+        }
+    }
+
+    /**
+     * The results should be the same when run concurrently
+     */
+    @Test
+    public void concurrent() {
+        int N = 400;
+        double diag[] = new double[N];
+        double off[] = new double[N];
+        for (int i = 0; i < N; i++) {
+            diag[i] = (double)rand.nextGaussian();
+            off[i] = (double)rand.nextGaussian();
+        }
+
+        SymmetricDivideConquer_DDRM alg = new SymmetricDivideConquer_DDRM();
+        boolean before = EjmlConcurrency.USE_CONCURRENT;
+        ForkJoinPool originalPool = EjmlConcurrency.getPool();
+        long originalSwitch = EjmlParameters.EIG_DIVIDE_CONQUER_CONCURRENT_SWITCH;
+        try {
+            EjmlConcurrency.setMaxThreads(4);
+            // several levels are split so that multiple workspaces are needed
+            EjmlParameters.EIG_DIVIDE_CONQUER_CONCURRENT_SWITCH = 60*60*60;
+            EjmlConcurrency.USE_CONCURRENT = false;
+            assertTrue(alg.process(diag,off,N));
+            double expectedValues[] = alg.getEigenvalues().clone();
+            DMatrixRMaj expectedVectors = alg.getEigenvectors().copy();
+
+            EjmlConcurrency.USE_CONCURRENT = true;
+            assertTrue(alg.process(diag,off,N));
+            for (int i = 0; i < N; i++) {
+                assertEquals(expectedValues[i],alg.getEigenvalues()[i],UtilEjml.TEST_F64);
+            }
+            assertTrue(MatrixFeatures_DDRM.isIdentical(expectedVectors,alg.getEigenvectors(),UtilEjml.TEST_F64));
+        } finally {
+            EjmlConcurrency.USE_CONCURRENT = before;
+            EjmlConcurrency.setPool(originalPool);
+            EjmlParameters.EIG_DIVIDE_CONQUER_CONCURRENT_SWITCH = originalSwitch;
+        }
+    }
+
+    /**
+     * Workspace is reused between calls. Results should be the same as a new instance
+     */
+    @Test
+    public void reuse() {
+        SymmetricDivideConquer_DDRM alg = new SymmetricDivideConquer_DDRM();
+        for( int N : new int[]{120,40,201} ) {
+            double diag[] = new double[N];
+            double off[] = new double[N];
+            for (int i = 0; i < N; i++) {
+                diag[i] = (double)rand.nextGaussian();
+                off[i] = (double)rand.nextGaussian();
+            }
+            SymmetricDivideConquer_DDRM fresh = new SymmetricDivideConquer_DDRM();
+            assertTrue(fresh.process(diag,off,N));
+            assertTrue(alg.process(diag,off,N));
+
+            for (int i = 0; i < N; i++) {
+                assertEquals(fresh.getEigenvalues()[i],alg.getEigenvalues()[i],0);
+            }
+            assertTrue(MatrixFeatures_DDRM.isIdentical(fresh.getEigenvectors(),alg.getEigenvectors(),0));
+        }
+    }
+
+    /**
+     * Checks to see if T*V = V*D, V is orthogonal, and that the eigenvalues are sorted
+     */
+    private void check( double diag[] , double off[] , int N , int leafSize ) {
+        double d[] = diag.clone();
+        double e[] = off.clone();
+
+        SymmetricDivideConquer_DDRM alg = new SymmetricDivideConquer_DDRM();
+        alg.setLeafSize(leafSize);
+        assertTrue(alg.process(d,e,N));
+
+        // input should not be modified
+        for (int i = 0; i < N; i++) {
+            assertEquals(diag[i],d[i],0);
+        }
+        for (int i = 0; i < N-1; i++) {
+            assertEquals(off[i],e[i],0);
+        }
+
+        DMatrixRMaj T = new DMatrixRMaj(N,N);
+        double scale = 0;
+        for (int i = 0; i < N; i++) {
+            T.set(i,i,diag[i]);
+            scale = Math.max(scale,Math.abs(diag[i]));
+            if( i+1 < N ) {
+                T.set(i,i+1,off[i]);
+                T.set(i+1,i,off[i]);
+                scale = Math.max(scale,Math.abs(off[i]));
+            }
+        }
+        if( scale == 0 )
+            scale = 1;
+
+        double values[] = alg.getEigenvalues();
+        DMatrixRMaj V = alg.getEigenvectors();
+
+        for (int i = 1; i < N; i++) {
+            assertTrue(values[i-1] <= values[i]);
+        }
+
+        DMatrixRMaj TV = new DMatrixRMaj(N,N);
+        CommonOps_DDRM.mult(T,V,TV);
+        DMatrixRMaj VD = V.copy();
+        for (int col = 0; col < N; col++) {
+            for (int row = 0; row < N; row++) {
+                VD.data[row*N+col] *= values[col];
+            }
+        }
+        CommonOps_DDRM.scale(1.0/scale,TV);
+        CommonOps_DDRM.scale(1.0/scale,VD);
+        assertTrue(MatrixFeatures_DDRM.isIdentical(TV,VD,UtilEjml.TEST_F64*N));
+
+        DMatrixRMaj VV = new DMatrixRMaj(N,N);
+        CommonOps_DDRM.multTransA(V,V,VV);
+        assertTrue(MatrixFeatures_DDRM.isIdentity(VV,UtilEjml.TEST_F64*N));
+    }
+}
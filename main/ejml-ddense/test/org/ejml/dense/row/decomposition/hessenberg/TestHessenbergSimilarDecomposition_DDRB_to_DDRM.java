@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.dense.row.decomposition.hessenberg;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestHessenbergSimilarDecomposition_DDRB_to_DDRM {
+
+    Random rand = new Random(5745784);
+
+    /**
+     * Compare H and Q against the row major algorithm
+     */
+    @Test
+    public void compareToRow() {
+        for( int N : new int[]{1,2,3,5,7,10,16} ) {
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(N,N,-1,1,rand);
+
+            HessenbergSimilarDecomposition_DDRM row = new HessenbergSimilarDecomposition_DDRM();
+            HessenbergSimilarDecomposition_DDRB_to_DDRM alg = new HessenbergSimilarDecomposition_DDRB_to_DDRM(3);
+
+            assertTrue(row.decompose(A.copy()));
+            assertTrue(alg.decompose(A.copy()));
+
+            assertTrue(MatrixFeatures_DDRM.isIdentical(row.getH(null),alg.getH(null),UtilEjml.TEST_F64));
+            assertTrue(MatrixFeatures_DDRM.isIdentical(row.getQ(null),alg.getQ(null),UtilEjml.TEST_F64));
+        }
+    }
+
+    /**
+     * A = Q*H*Q<sup>T</sup>
+     */
+    @Test
+    public void reconstruct() {
+        int N = 20;
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(N,N,-1,1,rand);
+
+        HessenbergSimilarDecomposition_DDRB_to_DDRM alg = new HessenbergSimilarDecomposition_DDRB_to_DDRM(3);
+        assertTrue(alg.decompose(A.copy()));
+
+        DMatrixRMaj Q = alg.getQ(null);
+        DMatrixRMaj H = alg.getH(null);
+        assertTrue(MatrixFeatures_DDRM.isOrthogonal(Q,UtilEjml.TEST_F64));
+
+        DMatrixRMaj QH = new DMatrixRMaj(N,N);
+        DMatrixRMaj found = new DMatrixRMaj(N,N);
+        CommonOps_DDRM.mult(Q,H,QH);
+        CommonOps_DDRM.multTransB(QH,Q,found);
+
+        assertTrue(MatrixFeatures_DDRM.isIdentical(A,found,UtilEjml.TEST_F64));
+    }
+}
@@ -18,6 +18,7 @@
 
 package org.ejml.dense.row.decomposition.svd;
 
+import org.ejml.EjmlParameters;
 import org.ejml.UtilEjml;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.data.UtilTestMatrix;
@@ -59,6 +60,27 @@ public class TestSvdImplicitQrDecompose_DDRM extends StandardSvdChecks_DDRM {
         allTests();
     }
 
+    /**
+     * Force it to use the block bidiagonal decomposition
+     */
+    @Test
+    public void checkBlockBidiagonal() {
+        int originalSwitch = EjmlParameters.SWITCH_BLOCK_BIDIAGONAL;
+        EjmlParameters.SWITCH_BLOCK_BIDIAGONAL = 1;
+        try {
+            for (int i = 0; i < 2; i++) {
+                compact = i == 0;
+                needU = true;
+                needV = true;
+                allTests();
+            }
+            checkAllPermutations(7, 5);
+            checkAllPermutations(5, 7);
+        } finally {
+            EjmlParameters.SWITCH_BLOCK_BIDIAGONAL = originalSwitch;
+        }
+    }
+
     /**
      * This SVD can be configured to compute or not compute different components
      * Checks to see if it has the expected behavior no matter how it is configured
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.dense.row.decomposition.svd;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.dense.row.SingularOps_DDRM;
+import org.ejml.dense.row.factory.DecompositionFactory_DDRM;
+import org.ejml.interfaces.decomposition.SingularValueDecomposition_F64;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSvdRandomized_DDRM {
+
+    Random rand = new Random(234);
+
+    /**
+     * If the matrix has a rank which is less than the number of samples then the solution is exact
+     */
+    @Test
+    public void exactLowRank() {
+        exactLowRank(40,25);
+        exactLowRank(25,40);
+        exactLowRank(30,30);
+    }
+
+    private void exactLowRank( int numRows , int numCols ) {
+        DMatrixRMaj A = RandomMatrices_DDRM.singular(numRows,numCols,rand,12,9,5,3,0.5);
+        DMatrixRMaj A_orig = A.copy();
+
+        SvdRandomized_DDRM alg = new SvdRandomized_DDRM(5,true,true);
+        assertTrue(alg.decompose(A));
+        assertTrue(MatrixFeatures_DDRM.isIdentical(A_orig,A,0));
+
+        assertEquals(5,alg.numberOfSingularValues());
+        double expected[] = new double[]{12,9,5,3,0.5};
+        for (int i = 0; i < 5; i++) {
+            assertEquals(expected[i],alg.getSingularValues()[i],UtilEjml.TEST_F64*10);
+        }
+
+        DMatrixRMaj U = alg.getU(null,false);
+        DMatrixRMaj W = alg.getW(null);
+        DMatrixRMaj Vt = alg.getV(null,true);
+
+        assertEquals(numRows,U.numRows);
+        assertEquals(5,U.numCols);
+        assertEquals(numCols,Vt.numCols);
+        checkOrthogonalColumns(U);
+        checkOrthogonalColumns(alg.getV(null,false));
+
+        DMatrixRMaj found = new DMatrixRMaj(numRows,numCols);
+        DMatrixRMaj tmp = new DMatrixRMaj(1,1);
+        CommonOps_DDRM.mult(U,W,tmp);
+        CommonOps_DDRM.mult(tmp,Vt,found);
+        assertTrue(MatrixFeatures_DDRM.isIdentical(A,found,UtilEjml.TEST_F64*10));
+    }
+
+    /**
+     * Compares the largest singular values against a full SVD when the matrix has full rank
+     */
+    @Test
+    public void compareToFullSvd() {
+        int N = 60;
+        double sv[] = new double[N];
+        for (int i = 0; i < N; i++) {
+            sv[i] = Math.pow(0.6,i);
+        }
+        DMatrixRMaj A = RandomMatrices_DDRM.singular(N+10,N,rand,sv);
+
+        SingularValueDecomposition_F64<DMatrixRMaj> full = DecompositionFactory_DDRM.svd(true,true,true);
+        assertTrue(full.decompose(A.copy()));
+        DMatrixRMaj U = full.getU(null,false);
+        DMatrixRMaj V = full.getV(null,false);
+        double expected[] = full.getSingularValues().clone();
+        SingularOps_DDRM.descendingOrder(U,false,expected,N,V,false);
+
+        SvdRandomized_DDRM alg = new SvdRandomized_DDRM(4,true,true);
+        assertTrue(alg.decompose(A));
+
+        DMatrixRMaj foundU = alg.getU(null,false);
+        DMatrixRMaj foundV = alg.getV(null,false);
+        for (int i = 0; i < 4; i++) {
+            assertEquals(expected[i],alg.getSingularValues()[i],UtilEjml.TEST_F64);
+
+            // singular vectors are the same up to their sign
+            double dotU = 0, dotV = 0;
+            for (int j = 0; j < U.numRows; j++) {
+                dotU += U.get(j,i)*foundU.get(j,i);
+            }
+            for (int j = 0; j < V.numRows; j++) {
+                dotV += V.get(j,i)*foundV.get(j,i);
+            }
+            assertEquals(1,Math.abs(dotU),UtilEjml.TEST_F64);
+            assertEquals(1,Math.abs(dotV),UtilEjml.TEST_F64);
+        }
+    }
+
+    /**
+     * Request more singular values than there are
+     */
+    @Test
+    public void rankLargerThanMatrix() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(6,4,rand);
+
+        SvdRandomized_DDRM alg = new SvdRandomized_DDRM(10,true,true);
+        assertTrue(alg.decompose(A));
+        assertEquals(4,alg.numberOfSingularValues());
+
+        DMatrixRMaj found = new DMatrixRMaj(1,1);
+        DMatrixRMaj tmp = new DMatrixRMaj(1,1);
+        CommonOps_DDRM.mult(alg.getU(null,false),alg.getW(null),tmp);
+        CommonOps_DDRM.multTransB(tmp,alg.getV(null,false),found);
+        assertTrue(MatrixFeatures_DDRM.isIdentical(A,found,UtilEjml.TEST_F64));
+
+        for (int i = 1; i < 4; i++) {
+            assertTrue(alg.getSingularValues()[i-1] >= alg.getSingularValues()[i]);
+        }
+    }
+
+    /**
+     * Decompose matrices of different sizes with the same instance
+     */
+    @Test
+    public void reuse() {
+        SvdRandomized_DDRM alg = new SvdRandomized_DDRM(3,true,true);
+
+        assertTrue(alg.decompose(RandomMatrices_DDRM.singular(30,20,rand,5,4,3)));
+        assertEquals(5,alg.getSingularValues()[0],UtilEjml.TEST_F64*10);
+        assertTrue(alg.decompose(RandomMatrices_DDRM.singular(15,35,rand,7,2,1)));
+        assertEquals(7,alg.getSingularValues()[0],UtilEjml.TEST_F64*10);
+        assertEquals(15,alg.numRows());
+        assertEquals(35,alg.numCols());
+        assertEquals(15,alg.getU(null,false).numRows);
+        assertEquals(35,alg.getV(null,false).numRows);
+    }
+
+    @Test
+    public void vectorsNotComputed() {
+        SvdRandomized_DDRM alg = new SvdRandomized_DDRM(3,false,false);
+        assertTrue(alg.decompose(RandomMatrices_DDRM.rectangle(10,8,rand)));
+        assertFalse(alg.inputModified());
+
+        try {
+            alg.getU(null,false);
+            fail("Should have thrown an exception");
+        } catch( IllegalArgumentException ignore ){}
+        try {
+            alg.getV(null,false);
+            fail("Should have thrown an exception");
+        } catch( IllegalArgumentException ignore ){}
+    }
+
+    private static void checkOrthogonalColumns( DMatrixRMaj Q ) {
+        DMatrixRMaj QtQ = new DMatrixRMaj(1,1);
+        CommonOps_DDRM.multTransA(Q,Q,QtQ);
+        assertTrue(MatrixFeatures_DDRM.isIdentity(QtQ,UtilEjml.TEST_F64));
+    }
+}
@@ -18,15 +18,23 @@
 
 package org.ejml.dense.row.factory;
 
+import org.ejml.EjmlParameters;
 import org.ejml.UtilEjml;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.dense.row.decomposition.eig.SymmetricDivideConquerDecomposition_DDRM;
+import org.ejml.dense.row.decomposition.eig.SymmetricQRAlgorithmDecomposition_DDRM;
+import org.ejml.dense.row.decomposition.hessenberg.HessenbergSimilarDecomposition_DDRB_to_DDRM;
+import org.ejml.dense.row.decomposition.hessenberg.HessenbergSimilarDecomposition_DDRM;
+import org.ejml.dense.row.decomposition.lu.LUDecompositionAlt_DDRM;
+import org.ejml.dense.row.decomposition.lu.LUDecomposition_DDRB_to_DDRM;
 import org.ejml.interfaces.decomposition.EigenDecomposition_F64;
 import org.ejml.interfaces.decomposition.SingularValueDecomposition_F64;
 import org.junit.Test;
 
 import java.util.Random;
 
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 
@@ -57,6 +65,48 @@ public class TestDecompositionFactory_DDRM {
         assertTrue(origQuality < UtilEjml.TEST_F64);
     }
 
+    /**
+     * Large symmetric matrices should use divide and conquer when eigenvectors are needed
+     */
+    @Test
+    public void eig_symmetric() {
+        int N = EjmlParameters.SWITCH_EIG_DIVIDE_CONQUER;
+
+        assertSame(SymmetricQRAlgorithmDecomposition_DDRM.class,
+                DecompositionFactory_DDRM.eig(N-1,true,true).getClass());
+        assertSame(SymmetricQRAlgorithmDecomposition_DDRM.class,
+                DecompositionFactory_DDRM.eig(N,false,true).getClass());
+
+        EigenDecomposition_F64<DMatrixRMaj> eig = DecompositionFactory_DDRM.eig(N,true,true);
+        assertSame(SymmetricDivideConquerDecomposition_DDRM.class,eig.getClass());
+
+        DMatrixRMaj A = RandomMatrices_DDRM.symmetric(N,-1,1,rand);
+        assertTrue(eig.decompose(A.copy()));
+        assertTrue(DecompositionFactory_DDRM.quality(A,eig) < UtilEjml.TEST_F64);
+    }
+
+    /**
+     * Large matrices should use the block LU decomposition
+     */
+    @Test
+    public void lu() {
+        int N = EjmlParameters.SWITCH_BLOCK_LU;
+
+        assertSame(LUDecompositionAlt_DDRM.class,DecompositionFactory_DDRM.lu(N-1,N).getClass());
+        assertSame(LUDecomposition_DDRB_to_DDRM.class,DecompositionFactory_DDRM.lu(N,N).getClass());
+    }
+
+    /**
+     * Large general matrices should use the block Hessenberg decomposition
+     */
+    @Test
+    public void hessenberg() {
+        int N = EjmlParameters.SWITCH_BLOCK_HESSENBERG;
+
+        assertSame(HessenbergSimilarDecomposition_DDRM.class,DecompositionFactory_DDRM.hessenberg(N-1).getClass());
+        assertSame(HessenbergSimilarDecomposition_DDRB_to_DDRM.class,DecompositionFactory_DDRM.hessenberg(N).getClass());
+    }
+
     @Test
     public void quality_svd() {
         // I'm assuming it can process this matrix with no problems
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.dense.row.linsol.lu;
+
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.decomposition.lu.LUDecomposition_DDRB_to_DDRM;
+import org.ejml.dense.row.linsol.GenericLinearSolverChecks_DDRM;
+import org.ejml.interfaces.linsol.LinearSolverDense;
+
+
+/**
+ * Tests {@link LinearSolverLu_DDRM} when it uses the block LU decomposition
+ *
+ * @author Peter Abeles
+ */
+public class TestLinearSolverLuBlock_DDRM extends GenericLinearSolverChecks_DDRM {
+
+    public TestLinearSolverLuBlock_DDRM() {
+        shouldWorkRectangle = true;
+        shouldFailSingular = false;
+    }
+
+    @Override
+    protected LinearSolverDense<DMatrixRMaj> createSolver(DMatrixRMaj A ) {
+        return new LinearSolverLu_DDRM(new LUDecomposition_DDRB_to_DDRM(3));
+    }
+
+    @Override
+    public void rectangular() {
+        // it kinda works on rectangular matrices. skip this test
+    }
+}
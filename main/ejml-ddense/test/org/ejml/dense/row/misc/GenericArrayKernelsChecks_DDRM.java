@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.dense.row.misc;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares an implementation of {@link ArrayKernels_DDRM} against the default implementation.  Segments of
+ * many different lengths and offsets are used so that the remainder of vectorized loops are exercised.
+ *
+ * @author Peter Abeles
+ */
+public abstract class GenericArrayKernelsChecks_DDRM {
+
+    protected Random rand = new Random(234);
+
+    private ArrayKernels_DDRM expected = new ArrayKernels_DDRM();
+
+    protected abstract ArrayKernels_DDRM createKernels();
+
+    /**
+     * Relative tolerance used when comparing results.  Zero if they should be identical.
+     */
+    protected abstract double tolerance();
+
+    @Test
+    public void dot() {
+        ArrayKernels_DDRM alg = createKernels();
+        for( int length = 0; length < 40; length++ ) {
+            double[] x = random(length+3);
+            double[] y = random(length+5);
+
+            check(expected.dot(x,3,y,1,length), alg.dot(x,3,y,1,length));
+            check(expected.dot(x,0,y,5,length), alg.dot(x,0,y,5,length));
+        }
+    }
+
+    @Test
+    public void scale() {
+        ArrayKernels_DDRM alg = createKernels();
+        for( int length = 0; length < 40; length++ ) {
+            double[] x = random(length+3);
+            double[] y = random(length+5);
+            double[] found = y.clone();
+
+            expected.scale(1.5,x,3,y,2,length);
+            alg.scale(1.5,x,3,found,2,length);
+            check(y,found);
+        }
+    }
+
+    @Test
+    public void axpy() {
+        ArrayKernels_DDRM alg = createKernels();
+        for( int length = 0; length < 40; length++ ) {
+            double[] x = random(length+3);
+            double[] y = random(length+5);
+            double[] found = y.clone();
+
+            expected.axpy(-0.7,x,1,y,5,length);
+            alg.axpy(-0.7,x,1,found,5,length);
+            check(y,found);
+        }
+    }
+
+    @Test
+    public void elementWise() {
+        ArrayKernels_DDRM alg = createKernels();
+        for( int length = 0; length < 40; length++ ) {
+            double[] a = random(length+2);
+            double[] b = random(length+2);
+            double[] c0 = new double[length+2];
+            double[] c1 = new double[length+2];
+
+            expected.add(a,b,c0,length);alg.add(a,b,c1,length);check(c0,c1);
+            expected.subtract(a,b,c0,length);alg.subtract(a,b,c1,length);check(c0,c1);
+            expected.elementMult(a,b,c0,length);alg.elementMult(a,b,c1,length);check(c0,c1);
+            expected.elementDiv(a,b,c0,length);alg.elementDiv(a,b,c1,length);check(c0,c1);
+            expected.elementExp(a,c0,length);alg.elementExp(a,c1,length);check(c0,c1);
+            expected.elementLog(a,c0,length);alg.elementLog(a,c1,length);check(c0,c1);
+            expected.elementPower(a,b,c0,length);alg.elementPower(a,b,c1,length);check(c0,c1);
+            expected.elementPower(1.3,b,c0,length);alg.elementPower(1.3,b,c1,length);check(c0,c1);
+            expected.elementPower(a,-2.1,c0,length);alg.elementPower(a,-2.1,c1,length);check(c0,c1);
+
+            // the output can be the same array as an input
+            double[] found = a.clone();
+            expected.add(a,b,c0,length);alg.add(found,b,found,length);
+            for( int i = 0; i < length; i++ ) {
+                check(c0[i],found[i]);
+            }
+        }
+    }
+
+    /**
+     * Random values which are strictly positive so that they are valid input to log and pow
+     */
+    private double[] random( int length ) {
+        double[] a = new double[length];
+        for( int i = 0; i < length; i++ ) {
+            a[i] = 0.1 + rand.nextDouble()*2;
+        }
+        return a;
+    }
+
+    private void check( double[] expected , double[] found ) {
+        assertEquals(expected.length,found.length);
+        for( int i = 0; i < expected.length; i++ ) {
+            check(expected[i],found[i]);
+        }
+    }
+
+    private void check( double expected , double found ) {
+        assertEquals(expected,found,tolerance()*Math.max(1,Math.abs(expected)));
+    }
+}
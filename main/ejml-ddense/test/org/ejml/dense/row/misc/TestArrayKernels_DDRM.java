@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.dense.row.misc;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestArrayKernels_DDRM extends GenericArrayKernelsChecks_DDRM {
+    @Override
+    protected ArrayKernels_DDRM createKernels() {
+        return new ArrayKernels_DDRM();
+    }
+
+    @Override
+    protected double tolerance() {
+        return 0;
+    }
+
+    @Test
+    public void load() {
+        assertNotNull(ArrayKernels_DDRM.IMPL);
+        assertTrue(ArrayKernels_DDRM.IMPL.isSupported());
+
+        String before = System.getProperty("ejml.kernels.scalar");
+        try {
+            System.setProperty("ejml.kernels.scalar","true");
+            ArrayKernels_DDRM found = ArrayKernels_DDRM.load();
+            assertSame(ArrayKernels_DDRM.class,found.getClass());
+            assertEquals("scalar",found.getName());
+        } finally {
+            if( before == null )
+                System.clearProperty("ejml.kernels.scalar");
+            else
+                System.setProperty("ejml.kernels.scalar",before);
+        }
+    }
+}
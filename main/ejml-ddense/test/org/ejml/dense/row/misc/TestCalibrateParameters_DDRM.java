@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.misc;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestCalibrateParameters_DDRM {
+    @Test
+    public void selectCrossover() {
+        // B is never faster
+        assertEquals(-1, CalibrateParameters_DDRM.selectCrossover(new double[]{1,2,3},new double[]{2,3,4}));
+        // B is faster from the start
+        assertEquals(0, CalibrateParameters_DDRM.selectCrossover(new double[]{2,3,4},new double[]{1,2,3}));
+        // a single noisy point should be ignored
+        assertEquals(3, CalibrateParameters_DDRM.selectCrossover(
+                new double[]{1,2,3,4,5},new double[]{2,1.9,4,3,4}));
+        // faster at the last size only
+        assertEquals(2, CalibrateParameters_DDRM.selectCrossover(new double[]{1,2,3},new double[]{2,3,2}));
+    }
+
+    @Test
+    public void time() {
+        CalibrateParameters_DDRM alg = new CalibrateParameters_DDRM();
+        alg.minimumTrialTime = 0.001;
+        double t = alg.time(() -> {
+            long end = System.nanoTime()+100_000;
+            while( System.nanoTime() < end ) {}
+        });
+        // lower bound is exact. upper bound is loose in case the machine is busy
+        assertEquals(1e-4, t, 1e-4);
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.mult;
+
+import org.ejml.EjmlConcurrency;
+import org.ejml.EjmlParameters;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMatrixMatrixMultPacked_DDRM {
+    Random rand = new Random(234);
+
+    ForkJoinPool original;
+    int originalMC, originalKC, originalNC;
+    int originalConcurrent;
+
+    @Before
+    public void before() {
+        original = EjmlConcurrency.getPool();
+        originalMC = EjmlParameters.MULT_PACKED_MC;
+        originalKC = EjmlParameters.MULT_PACKED_KC;
+        originalNC = EjmlParameters.MULT_PACKED_NC;
+        originalConcurrent = EjmlParameters.MULT_CONCURRENT_SWITCH;
+    }
+
+    @After
+    public void after() {
+        EjmlConcurrency.setPool(original);
+        EjmlParameters.MULT_PACKED_MC = originalMC;
+        EjmlParameters.MULT_PACKED_KC = originalKC;
+        EjmlParameters.MULT_PACKED_NC = originalNC;
+        EjmlParameters.MULT_CONCURRENT_SWITCH = originalConcurrent;
+    }
+
+    @Test
+    public void checkShapesOfInput() {
+        CheckMatrixMultShape_DDRM check = new CheckMatrixMultShape_DDRM(MatrixMatrixMultPacked_DDRM.class);
+        check.checkAll();
+    }
+
+    /**
+     * Compare against the reference implementation using the default block sizes
+     */
+    @Test
+    public void compareToReference() throws InvocationTargetException, IllegalAccessException {
+        compareToReference(new int[][]{{1,7,5},{7,1,5},{37,23,31},{101,13,67},{130,300,97}});
+    }
+
+    /**
+     * Block sizes are made very small so that the matrices are split up into many blocks which are not evenly
+     * divisible by the size of the micro kernel
+     */
+    @Test
+    public void compareToReference_smallBlocks() throws InvocationTargetException, IllegalAccessException {
+        EjmlParameters.MULT_PACKED_MC = 9;
+        EjmlParameters.MULT_PACKED_KC = 5;
+        EjmlParameters.MULT_PACKED_NC = 11;
+        compareToReference(new int[][]{{1,7,5},{7,1,5},{37,23,31},{101,13,67}});
+    }
+
+    /**
+     * Blocks of rows and columns are computed in parallel. The second shape has fewer blocks of rows than threads
+     * so the columns must be split too.
+     */
+    @Test
+    public void compareToReference_concurrent() throws InvocationTargetException, IllegalAccessException {
+        EjmlConcurrency.setMaxThreads(4);
+        EjmlParameters.MULT_PACKED_MC = 8;
+        EjmlParameters.MULT_CONCURRENT_SWITCH = 0;
+        compareToReference(new int[][]{{101,113,107},{10,50,300}});
+    }
+
+    /**
+     * The results should be identical down to the last bit with and without concurrency
+     */
+    @Test
+    public void concurrent_identical() {
+        EjmlConcurrency.setMaxThreads(4);
+        EjmlParameters.MULT_PACKED_MC = 8;
+        EjmlParameters.MULT_PACKED_KC = 16;
+        EjmlParameters.MULT_PACKED_NC = 64;
+
+        for( int[] s : new int[][]{{101,113,107},{10,50,300}} ) {
+            DMatrixRMaj a = RandomMatrices_DDRM.rectangle(s[0],s[1],rand);
+            DMatrixRMaj b = RandomMatrices_DDRM.rectangle(s[1],s[2],rand);
+            DMatrixRMaj expected = new DMatrixRMaj(1,1);
+            DMatrixRMaj found = new DMatrixRMaj(1,1);
+
+            EjmlParameters.MULT_CONCURRENT_SWITCH = Integer.MAX_VALUE;
+            MatrixMatrixMultPacked_DDRM.mult_packed(a,b,expected);
+            EjmlParameters.MULT_CONCURRENT_SWITCH = 0;
+            MatrixMatrixMultPacked_DDRM.mult_packed(a,b,found);
+
+            assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,0));
+        }
+    }
+
+    private void compareToReference( int[][] shapes ) throws InvocationTargetException, IllegalAccessException {
+        int numChecked = 0;
+        for( Method packed : MatrixMatrixMultPacked_DDRM.class.getMethods() ) {
+            String name = packed.getName();
+            if( !name.contains("mult") )
+                continue;
+
+            Method reference = findReference(name.substring(0,name.length()-"_packed".length()),
+                    packed.getParameterTypes());
+
+            boolean transA = name.contains("TransA");
+            boolean transB = name.contains("TransAB") || name.contains("TransB");
+
+            for( int[] s : shapes ) {
+                DMatrixRMaj a = transA ? RandomMatrices_DDRM.rectangle(s[1],s[0],rand) :
+                        RandomMatrices_DDRM.rectangle(s[0],s[1],rand);
+                DMatrixRMaj b = transB ? RandomMatrices_DDRM.rectangle(s[2],s[1],rand) :
+                        RandomMatrices_DDRM.rectangle(s[1],s[2],rand);
+                DMatrixRMaj expected = RandomMatrices_DDRM.rectangle(s[0],s[2],rand);
+                DMatrixRMaj found = expected.copy();
+
+                TestMatrixMatrixMult_DDRM.invoke(reference,2.5,a,b,expected);
+                TestMatrixMatrixMult_DDRM.invoke(packed,2.5,a,b,found);
+
+                // errors grow with the number of elements being summed
+                assertTrue(name,MatrixFeatures_DDRM.isIdentical(expected,found,UtilEjml.TEST_F64*s[1]));
+            }
+            numChecked++;
+        }
+
+        assertEquals(16,numChecked);
+    }
+
+    private static Method findReference( String name , Class[] params ) {
+        for( String suffix : new String[]{"","_small"}) {
+            try {
+                return MatrixMatrixMult_DDRM.class.getMethod(name+suffix,params);
+            } catch (NoSuchMethodException ignore) {}
+        }
+        throw new RuntimeException("Can't find reference for "+name);
+    }
+
+    /**
+     * Make sure CommonOps switches to the packed code
+     */
+    @Test
+    public void commonOps_switch() {
+        long switchOriginal = EjmlParameters.MULT_PACKED_SWITCH;
+        try {
+            DMatrixRMaj a = RandomMatrices_DDRM.rectangle(45,30,rand);
+            DMatrixRMaj b = RandomMatrices_DDRM.rectangle(30,50,rand);
+            DMatrixRMaj expected = new DMatrixRMaj(1,1);
+            DMatrixRMaj found = new DMatrixRMaj(1,1);
+
+            EjmlParameters.MULT_PACKED_SWITCH = Long.MAX_VALUE;
+            CommonOps_DDRM.mult(a,b,expected);
+            EjmlParameters.MULT_PACKED_SWITCH = 10;
+            CommonOps_DDRM.mult(a,b,found);
+
+            assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,UtilEjml.TEST_F64));
+
+            // the output should be identical down to the last bit if the packed code was used
+            MatrixMatrixMultPacked_DDRM.mult_packed(a,b,expected);
+            assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,0));
+        } finally {
+            EjmlParameters.MULT_PACKED_SWITCH = switchOriginal;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.mult;
+
+import org.ejml.EjmlConcurrency;
+import org.ejml.EjmlParameters;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMatrixMatrixMult_MT_DDRM {
+    Random rand = new Random(234);
+
+    ForkJoinPool original;
+
+    @Before
+    public void before() {
+        original = EjmlConcurrency.getPool();
+        EjmlConcurrency.setMaxThreads(4);
+    }
+
+    @After
+    public void after() {
+        EjmlConcurrency.setPool(original);
+    }
+
+    @Test
+    public void checkShapesOfInput() {
+        CheckMatrixMultShape_DDRM check = new CheckMatrixMultShape_DDRM(MatrixMatrixMult_MT_DDRM.class);
+        check.checkAll();
+    }
+
+    /**
+     * Every function in the concurrent class should have a single threaded equivalent and produce
+     * results which are identical down to the last bit
+     */
+    @Test
+    public void compareToSingleThread() throws InvocationTargetException, IllegalAccessException, NoSuchMethodException {
+        int numChecked = 0;
+        for( Method mt : MatrixMatrixMult_MT_DDRM.class.getMethods() ) {
+            String name = mt.getName();
+            if( !name.contains("mult") )
+                continue;
+
+            Class[] params = mt.getParameterTypes();
+            Method st;
+            if( name.endsWith("_aux") ) {
+                Class[] paramsAux = new Class[params.length+1];
+                System.arraycopy(params,0,paramsAux,0,params.length);
+                paramsAux[params.length] = double[].class;
+                st = MatrixMatrixMult_DDRM.class.getMethod(name,paramsAux);
+            } else {
+                st = MatrixMatrixMult_DDRM.class.getMethod(name,params);
+            }
+
+            boolean transA = name.contains("TransA");
+            boolean transB = name.contains("TransAB") || name.contains("TransB");
+
+            // odd sizes to make sure the blocks are not evenly divisible
+            int[][] shapes = new int[][]{{1,7,5},{7,1,5},{37,23,31},{101,13,67}};
+            for( int[] s : shapes ) {
+                DMatrixRMaj a = transA ? RandomMatrices_DDRM.rectangle(s[1],s[0],rand) :
+                        RandomMatrices_DDRM.rectangle(s[0],s[1],rand);
+                DMatrixRMaj b = transB ? RandomMatrices_DDRM.rectangle(s[2],s[1],rand) :
+                        RandomMatrices_DDRM.rectangle(s[1],s[2],rand);
+                DMatrixRMaj expected = RandomMatrices_DDRM.rectangle(s[0],s[2],rand);
+                DMatrixRMaj found = expected.copy();
+
+                TestMatrixMatrixMult_DDRM.invoke(st,2.5,a,b,expected);
+                TestMatrixMatrixMult_DDRM.invoke(mt,2.5,a,b,found);
+
+                assertTrue(name,MatrixFeatures_DDRM.isIdentical(expected,found,0));
+            }
+            numChecked++;
+        }
+
+        assertEquals(32,numChecked);
+    }
+
+    /**
+     * Make sure CommonOps switches to the concurrent code and produces the same results. Only outputs which are
+     * too narrow for the packed multiplication use the concurrent kernels. The pool is only started if the
+     * concurrent code was called.
+     */
+    @Test
+    public void commonOps_switch() {
+        int switchOriginal = EjmlParameters.MULT_CONCURRENT_SWITCH;
+        try {
+            DMatrixRMaj a = RandomMatrices_DDRM.rectangle(45,30,rand);
+            DMatrixRMaj b = RandomMatrices_DDRM.rectangle(30,EjmlParameters.MULT_COLUMN_SWITCH-1,rand);
+            DMatrixRMaj expected = new DMatrixRMaj(45,b.numCols);
+            DMatrixRMaj found = new DMatrixRMaj(1,1);
+            MatrixMatrixMult_DDRM.mult_small(a,b,expected);
+
+            // below the threshold it should be single threaded
+            EjmlParameters.MULT_CONCURRENT_SWITCH = Integer.MAX_VALUE;
+            ForkJoinPool pool = new ForkJoinPool(4);
+            EjmlConcurrency.setPool(pool);
+            CommonOps_DDRM.mult(a,b,found);
+            assertEquals(0,pool.getPoolSize());
+            assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,0));
+            pool.shutdown();
+
+            EjmlParameters.MULT_CONCURRENT_SWITCH = 1000;
+            pool = new ForkJoinPool(4);
+            EjmlConcurrency.setPool(pool);
+            CommonOps_DDRM.mult(a,b,found);
+            assertTrue(pool.getPoolSize() > 0);
+            assertTrue(MatrixFeatures_DDRM.isIdentical(expected,found,0));
+            pool.shutdown();
+        } finally {
+            EjmlParameters.MULT_CONCURRENT_SWITCH = switchOriginal;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc;
+
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.DMatrixSparseTriplet;
+import org.ejml.data.IGrowArray;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.ops.ConvertDMatrixStruct;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Frequently used operations in {@link CommonOps_DSCC} on random square matrices with 'nzPerCol' non-zero
+ * elements in each column.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkCommonOps_DSCC {
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    @Param({"2", "8"})
+    public int nzPerCol;
+
+    public DMatrixSparseCSC A,B,C;
+    public DMatrixRMaj denseB,denseC;
+
+    IGrowArray gw = new IGrowArray();
+    DGrowArray gx = new DGrowArray();
+
+    @Setup
+    public void setup() {
+        Random rand = new Random(234);
+
+        A = randomColumns(size,nzPerCol,rand);
+        B = randomColumns(size,nzPerCol,rand);
+        C = new DMatrixSparseCSC(size,size,0);
+        denseB = RandomMatrices_DDRM.rectangle(size,4,-1,1,rand);
+        denseC = new DMatrixRMaj(size,4);
+    }
+
+    @Benchmark
+    public void mult() {
+        CommonOps_DSCC.mult(A,B,C,gw,gx);
+    }
+
+    @Benchmark
+    public void multTransA() {
+        CommonOps_DSCC.multTransA(A,B,C,gw,gx);
+    }
+
+    @Benchmark
+    public void multTransB() {
+        CommonOps_DSCC.multTransB(A,B,C,gw,gx);
+    }
+
+    @Benchmark
+    public void mult_dense() {
+        CommonOps_DSCC.mult(A,denseB,denseC);
+    }
+
+    @Benchmark
+    public void add() {
+        CommonOps_DSCC.add(1.0,A,2.0,B,C,gw,gx);
+    }
+
+    @Benchmark
+    public void transpose() {
+        CommonOps_DSCC.transpose(A,C,gw);
+    }
+
+    /**
+     * Creates a square matrix with exactly 'nzPerCol' elements in each column.  Unlike
+     * {@link RandomMatrices_DSCC#rectangle} this does not need to allocate an array with every element in it.
+     */
+    public static DMatrixSparseCSC randomColumns( int size , int nzPerCol , Random rand ) {
+        DMatrixSparseTriplet T = new DMatrixSparseTriplet(size,size,size*nzPerCol);
+        Set<Integer> rows = new HashSet<>();
+        for (int col = 0; col < size; col++) {
+            rows.clear();
+            while( rows.size() < Math.min(size,nzPerCol) ) {
+                rows.add(rand.nextInt(size));
+            }
+            for( int row : rows ) {
+                T.addItem(row,col,rand.nextDouble()*2-1);
+            }
+        }
+        DMatrixSparseCSC A = ConvertDMatrixStruct.convert(T,(DMatrixSparseCSC)null);
+        A.sortIndices(null);
+        return A;
+    }
+
+    public static void main( String[] args ) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkCommonOps_DSCC.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
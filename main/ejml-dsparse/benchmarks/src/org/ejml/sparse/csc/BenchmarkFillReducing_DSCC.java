@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc;
+
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.interfaces.linsol.LinearSolverSparse;
+import org.ejml.sparse.FillReducing;
+import org.ejml.sparse.csc.factory.LinearSolverFactory_DSCC;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares how long it takes to solve a system using a sparse Cholesky decomposition with different fill
+ * reducing permutations. The matrix is a 2D grid Laplacian, which is typical of finite element problems.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkFillReducing_DSCC {
+
+    @Param({"30", "100", "200"})
+    public int width;
+
+    @Param({"NONE", "AMD"})
+    public FillReducing permutation;
+
+    public DMatrixSparseCSC A;
+    public DMatrixRMaj B,X;
+
+    LinearSolverSparse<DMatrixSparseCSC,DMatrixRMaj> solver;
+
+    @Setup
+    public void setup() {
+        A = laplacian2D(width);
+        B = new DMatrixRMaj(A.numRows,1);
+        CommonOps_DDRM.fill(B,1.0);
+        X = new DMatrixRMaj(A.numRows,1);
+        solver = LinearSolverFactory_DSCC.cholesky(permutation);
+    }
+
+    @Benchmark
+    public void cholesky_solve() {
+        if( !solver.setA(A) )
+            throw new RuntimeException("Decomposition failed");
+        solver.solve(B,X);
+    }
+
+    /**
+     * Symmetric positive definite matrix from a 5-point finite difference stencil on a width by width grid
+     */
+    public static DMatrixSparseCSC laplacian2D( int width ) {
+        int N = width*width;
+        DMatrixSparseCSC A = new DMatrixSparseCSC(N,N,5*N);
+        for (int y = 0; y < width; y++) {
+            for (int x = 0; x < width; x++) {
+                int i = y*width+x;
+                A.set(i,i,4);
+                if( x > 0 ) { A.set(i,i-1,-1); A.set(i-1,i,-1); }
+                if( y > 0 ) { A.set(i,i-width,-1); A.set(i-width,i,-1); }
+            }
+        }
+        return A;
+    }
+
+    public static void main( String[] args ) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkFillReducing_DSCC.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
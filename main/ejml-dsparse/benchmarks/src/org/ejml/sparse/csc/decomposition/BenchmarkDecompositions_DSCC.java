@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.decomposition;
+
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.interfaces.decomposition.DecompositionInterface;
+import org.ejml.interfaces.linsol.LinearSolverSparse;
+import org.ejml.sparse.FillReducing;
+import org.ejml.sparse.csc.BenchmarkFillReducing_DSCC;
+import org.ejml.sparse.csc.factory.DecompositionFactory_DSCC;
+import org.ejml.sparse.csc.factory.LinearSolverFactory_DSCC;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sparse Cholesky, QR, and LU decompositions and linear solvers on a 2D grid Laplacian. Each decomposition
+ * recomputes the symbolic factorization and the fill reducing permutation every time it's called.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkDecompositions_DSCC {
+
+    @Param({"30", "100"})
+    public int width;
+
+    public DMatrixSparseCSC A;
+    public DMatrixRMaj B,X;
+
+    DecompositionInterface<DMatrixSparseCSC> cholesky,qr,lu;
+    LinearSolverSparse<DMatrixSparseCSC,DMatrixRMaj> solverChol,solverQr,solverLu;
+
+    @Setup
+    public void setup() {
+        A = BenchmarkFillReducing_DSCC.laplacian2D(width);
+        B = new DMatrixRMaj(A.numRows,1);
+        CommonOps_DDRM.fill(B,1.0);
+        X = new DMatrixRMaj(A.numRows,1);
+
+        cholesky = DecompositionFactory_DSCC.cholesky();
+        qr = DecompositionFactory_DSCC.qr(FillReducing.AMD);
+        lu = DecompositionFactory_DSCC.lu(FillReducing.AMD);
+
+        solverChol = LinearSolverFactory_DSCC.cholesky(FillReducing.AMD);
+        solverQr = LinearSolverFactory_DSCC.qr(FillReducing.AMD);
+        solverLu = LinearSolverFactory_DSCC.lu(FillReducing.AMD);
+    }
+
+    @Benchmark
+    public void cholesky() {
+        decompose(cholesky);
+    }
+
+    @Benchmark
+    public void qr() {
+        decompose(qr);
+    }
+
+    @Benchmark
+    public void lu() {
+        decompose(lu);
+    }
+
+    @Benchmark
+    public void solve_cholesky() {
+        solve(solverChol);
+    }
+
+    @Benchmark
+    public void solve_qr() {
+        solve(solverQr);
+    }
+
+    @Benchmark
+    public void solve_lu() {
+        solve(solverLu);
+    }
+
+    private void decompose( DecompositionInterface<DMatrixSparseCSC> alg ) {
+        if( !alg.decompose(A) )
+            throw new RuntimeException("Decomposition failed");
+    }
+
+    private void solve( LinearSolverSparse<DMatrixSparseCSC,DMatrixRMaj> solver ) {
+        if( !solver.setA(A) )
+            throw new RuntimeException("Decomposition failed");
+        solver.solve(B,X);
+    }
+
+    public static void main( String[] args ) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkDecompositions_DSCC.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
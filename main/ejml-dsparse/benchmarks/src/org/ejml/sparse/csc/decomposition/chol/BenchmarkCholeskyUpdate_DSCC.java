@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.decomposition.chol;
+
+import org.ejml.data.DMatrixSparseCSC;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost of a rank-1 update and downdate of the Cholesky factor against refactoring the matrix with
+ * a locked structure. The vector has two non-zero elements in rows which are already coupled in L, so there
+ * is no fill in.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkCholeskyUpdate_DSCC {
+
+    @Param({"2D-150", "2D-300", "3D-15", "3D-30"})
+    public String mesh;
+
+    public DMatrixSparseCSC A;
+    public DMatrixSparseCSC c;
+
+    CholeskyUpLooking_DSCC decompose = new CholeskyUpLooking_DSCC();
+    CholeskyUpLooking_DSCC modify = new CholeskyUpLooking_DSCC();
+
+    @Setup
+    public void setup() {
+        String[] words = mesh.split("-");
+        A = BenchmarkCholesky_DSCC.mesh(Integer.parseInt(words[1]), words[0].equals("3D"));
+
+        decompose.setStructureLocked(true);
+        decompose.decompose(A);
+        modify.decompose(A);
+
+        // pick an off diagonal element of L in the middle of the matrix
+        DMatrixSparseCSC L = modify.getL();
+        int col = A.numCols/2;
+        int row = L.nz_rows[L.col_idx[col]+1];
+        c = new DMatrixSparseCSC(A.numRows,1,2);
+        c.set(col,0,0.5);
+        c.set(row,0,-0.25);
+    }
+
+    @Benchmark
+    public void decompose() {
+        decompose.decompose(A);
+    }
+
+    @Benchmark
+    public void updateDowndate() {
+        modify.update(c);
+        modify.downdate(c);
+    }
+
+    public static void main( String[] args ) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkCholeskyUpdate_DSCC.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
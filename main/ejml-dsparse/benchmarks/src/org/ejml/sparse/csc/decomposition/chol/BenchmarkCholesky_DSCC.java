@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.decomposition.chol;
+
+import org.ejml.EjmlParameters;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+import org.ejml.sparse.csc.misc.ApproximateMinimumDegree_DSCC;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the up looking and supernodal Cholesky decompositions on 2D and 3D finite difference meshes which
+ * have been reordered with AMD. The symbolic factorization is only computed once.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkCholesky_DSCC {
+
+    @Param({"2D-150", "2D-300", "3D-15", "3D-30"})
+    public String mesh;
+
+    public DMatrixSparseCSC A;
+
+    CholeskyUpLooking_DSCC upLooking = new CholeskyUpLooking_DSCC();
+    CholeskySupernodal_DSCC supernodal = new CholeskySupernodal_DSCC();
+
+    @Setup
+    public void setup() {
+        String[] words = mesh.split("-");
+        A = mesh(Integer.parseInt(words[1]), words[0].equals("3D"));
+
+        // force the supernodal algorithm to be used
+        double original = EjmlParameters.SWITCH_SUPERNODAL_CHOLESKY;
+        EjmlParameters.SWITCH_SUPERNODAL_CHOLESKY = 0;
+        upLooking.setStructureLocked(true);
+        upLooking.decompose(A);
+        supernodal.setStructureLocked(true);
+        supernodal.decompose(A);
+        EjmlParameters.SWITCH_SUPERNODAL_CHOLESKY = original;
+    }
+
+    @Benchmark
+    public void upLooking() {
+        upLooking.decompose(A);
+    }
+
+    @Benchmark
+    public void supernodal() {
+        supernodal.decompose(A);
+    }
+
+    /**
+     * Symmetric positive definite matrix from a finite difference stencil on a grid, reordered with AMD
+     */
+    public static DMatrixSparseCSC mesh( int width , boolean threeD ) {
+        int N = threeD ? width*width*width : width*width;
+        DMatrixSparseCSC A = new DMatrixSparseCSC(N,N,7*N);
+        for (int i = 0; i < N; i++) {
+            int x = i%width, y = (i/width)%width, z = i/(width*width);
+            A.set(i,i,threeD ? 6.1 : 4.1);
+            if( x > 0 ) { A.set(i,i-1,-1); A.set(i-1,i,-1); }
+            if( y > 0 ) { A.set(i,i-width,-1); A.set(i-width,i,-1); }
+            if( threeD && z > 0 ) { A.set(i,i-width*width,-1); A.set(i-width*width,i,-1); }
+        }
+
+        ApproximateMinimumDegree_DSCC amd = new ApproximateMinimumDegree_DSCC();
+        amd.process(A);
+        int pinv[] = CommonOps_DSCC.permutationInverse(amd.getRow().data,N);
+        DMatrixSparseCSC B = new DMatrixSparseCSC(1,1,0);
+        CommonOps_DSCC.permuteSymmetric(A,pinv,B,null);
+        return B;
+    }
+
+    public static void main( String[] args ) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkCholesky_DSCC.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.sparse.csc.decomposition.eig;
+
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.sparse.csc.BenchmarkFillReducing_DSCC;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finds the 20 smallest eigenpairs of a 2D grid Laplacian using shift-invert
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkKrylovEigen_DSCC {
+
+    @Param({"100", "300"})
+    public int width;
+
+    public DMatrixSparseCSC A;
+
+    @Setup
+    public void setup() {
+        A = BenchmarkFillReducing_DSCC.laplacian2D(width);
+    }
+
+    @Benchmark
+    public void lanczos_smallest_shiftInvert() {
+        LanczosEigen_DSCC alg = new LanczosEigen_DSCC(20,EigenTarget.LARGEST_MAGNITUDE);
+        alg.setShiftInvert(0,null);
+        decompose(alg);
+    }
+
+    @Benchmark
+    public void arnoldi_smallest_shiftInvert() {
+        ArnoldiEigen_DSCC alg = new ArnoldiEigen_DSCC(20,EigenTarget.LARGEST_MAGNITUDE);
+        alg.setShiftInvert(0,null);
+        decompose(alg);
+    }
+
+    private void decompose( KrylovEigen_DSCC alg ) {
+        alg.setTolerance(1e-8);
+        if( !alg.decompose(A) )
+            throw new RuntimeException("Failed");
+    }
+
+    public static void main( String[] args ) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkKrylovEigen_DSCC.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
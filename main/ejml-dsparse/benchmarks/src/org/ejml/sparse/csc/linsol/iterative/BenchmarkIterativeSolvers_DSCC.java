@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.sparse.csc.linsol.iterative;
+
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.interfaces.linsol.LinearSolverSparse;
+import org.ejml.sparse.FillReducing;
+import org.ejml.sparse.csc.BenchmarkFillReducing_DSCC;
+import org.ejml.sparse.csc.factory.LinearSolverFactory_DSCC;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares iterative solvers against a direct Cholesky solver on a 2D grid Laplacian
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkIterativeSolvers_DSCC {
+
+    @Param({"100", "300"})
+    public int width;
+
+    public DMatrixSparseCSC A;
+    public DMatrixRMaj B,X;
+
+    @Setup
+    public void setup() {
+        A = BenchmarkFillReducing_DSCC.laplacian2D(width);
+        B = new DMatrixRMaj(A.numRows,1);
+        CommonOps_DDRM.fill(B,1.0);
+        X = new DMatrixRMaj(A.numRows,1);
+    }
+
+    @Benchmark
+    public void cholesky() {
+        solve(LinearSolverFactory_DSCC.cholesky(FillReducing.AMD));
+    }
+
+    @Benchmark
+    public void cg_jacobi() {
+        solve(LinearSolverFactory_DSCC.conjugateGradient(new PreconditionerJacobi_DSCC()));
+    }
+
+    @Benchmark
+    public void cg_ssor() {
+        solve(LinearSolverFactory_DSCC.conjugateGradient(new PreconditionerSSOR_DSCC(1.5)));
+    }
+
+    @Benchmark
+    public void minres_jacobi() {
+        solve(LinearSolverFactory_DSCC.minres(new PreconditionerJacobi_DSCC()));
+    }
+
+    @Benchmark
+    public void gmres_jacobi() {
+        solve(LinearSolverFactory_DSCC.gmres(30,new PreconditionerJacobi_DSCC()));
+    }
+
+    @Benchmark
+    public void bicgstab_jacobi() {
+        solve(LinearSolverFactory_DSCC.bicgstab(new PreconditionerJacobi_DSCC()));
+    }
+
+    private void solve( LinearSolverSparse<DMatrixSparseCSC,DMatrixRMaj> solver ) {
+        if( solver instanceof LinearSolverIterative_DSCC )
+            ((LinearSolverIterative_DSCC)solver).setMaxIterations(10000);
+        if( !solver.setA(A) )
+            throw new RuntimeException("Failed");
+        solver.solve(B,X);
+    }
+
+    public static void main( String[] args ) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkIterativeSolvers_DSCC.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
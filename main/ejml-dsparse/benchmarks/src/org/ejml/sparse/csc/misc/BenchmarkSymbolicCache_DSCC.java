@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.sparse.csc.misc;
+
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.interfaces.linsol.LinearSolverSparse;
+import org.ejml.sparse.FillReducing;
+import org.ejml.sparse.csc.BenchmarkFillReducing_DSCC;
+import org.ejml.sparse.csc.factory.LinearSolverFactory_DSCC;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates a new solver for every system, like a server which processes each request independently, with and
+ * without the symbolic cache.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkSymbolicCache_DSCC {
+
+    @Param({"30", "100"})
+    public int width;
+
+    @Param({"true", "false"})
+    public boolean cached;
+
+    public DMatrixSparseCSC A;
+    public DMatrixRMaj B,X;
+
+    @Setup
+    public void setup() {
+        A = BenchmarkFillReducing_DSCC.laplacian2D(width);
+        B = new DMatrixRMaj(A.numRows,1);
+        CommonOps_DDRM.fill(B,1.0);
+        X = new DMatrixRMaj(A.numRows,1);
+
+        SymbolicCache_DSCC.getGlobal().clear();
+        SymbolicCache_DSCC.getGlobal().setMaxBytes(cached ? SymbolicCache_DSCC.DEFAULT_MAX_BYTES : 0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        SymbolicCache_DSCC.getGlobal().setMaxBytes(SymbolicCache_DSCC.DEFAULT_MAX_BYTES);
+    }
+
+    @Benchmark
+    public void cholesky() {
+        solve(LinearSolverFactory_DSCC.cholesky(FillReducing.AMD));
+    }
+
+    @Benchmark
+    public void qr() {
+        solve(LinearSolverFactory_DSCC.qr(FillReducing.AMD));
+    }
+
+    @Benchmark
+    public void lu() {
+        solve(LinearSolverFactory_DSCC.lu(FillReducing.AMD));
+    }
+
+    private void solve( LinearSolverSparse<DMatrixSparseCSC,DMatrixRMaj> solver ) {
+        if( !solver.setA(A) )
+            throw new RuntimeException("Decomposition failed");
+        solver.solve(B,X);
+    }
+
+    public static void main( String[] args ) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkSymbolicCache_DSCC.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.mult;
+
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.DMatrixSparseCSR;
+import org.ejml.data.IGrowArray;
+import org.ejml.ops.ConvertDMatrixStruct;
+import org.ejml.sparse.csc.BenchmarkCommonOps_DSCC;
+import org.ejml.sparse.csr.mult.MatrixVectorMult_DSCR;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link MatrixVectorMult_DSCC} against the concurrent {@link MatrixVectorMult_MT_DSCC} and the
+ * compressed row {@link MatrixVectorMult_DSCR}
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkMatrixVectorMult_DSCC {
+
+    @Param({"10000", "1000000"})
+    public int size;
+
+    @Param({"8"})
+    public int nzPerCol;
+
+    public DMatrixSparseCSC A;
+    public DMatrixSparseCSR A_csr = new DMatrixSparseCSR(1,1,0);
+    public double[] b,c;
+    IGrowArray gw = new IGrowArray();
+
+    MatrixVectorMult_MT_DSCC concurrent = new MatrixVectorMult_MT_DSCC();
+
+    @Setup
+    public void setup() {
+        Random rand = new Random(234);
+
+        A = BenchmarkCommonOps_DSCC.randomColumns(size,nzPerCol,rand);
+        ConvertDMatrixStruct.convert(A,A_csr,gw);
+        b = new double[size];
+        c = new double[size];
+        for (int i = 0; i < size; i++) {
+            b[i] = rand.nextDouble()*2-1;
+        }
+    }
+
+    @Benchmark
+    public void mult() {
+        MatrixVectorMult_DSCC.mult(A,b,0,c,0);
+    }
+
+    @Benchmark
+    public void mult_MT() {
+        concurrent.mult(A,b,0,c,0);
+    }
+
+    @Benchmark
+    public void mult_CSR() {
+        MatrixVectorMult_DSCR.mult(A_csr,b,0,c,0);
+    }
+
+    @Benchmark
+    public void convert_CSC_to_CSR() {
+        ConvertDMatrixStruct.convert(A,A_csr,gw);
+    }
+
+    @Benchmark
+    public void multTransA() {
+        MatrixVectorMult_DSCC.mult(b,0,A,c,0);
+    }
+
+    @Benchmark
+    public void multAddTransA_MT() {
+        concurrent.multAddTransA(A,b,0,c,0);
+    }
+
+    public static void main( String[] args ) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkMatrixVectorMult_DSCC.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
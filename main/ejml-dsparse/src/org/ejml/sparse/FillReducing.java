@@ -28,6 +28,14 @@ public enum FillReducing {
      * No fill reduction permutation will be applied
      */
     NONE,
+    /**
+     * Approximate Minimum Degree ordering. For square matrices the ordering is computed from
+     * A+A<sup>T</sup>, which is what Cholesky and LU need. For rectangular matrices a column ordering is
+     * computed from A<sup>T</sup>A, which is what QR needs.
+     *
+     * @see org.ejml.sparse.csc.misc.ApproximateMinimumDegree_DSCC
+     */
+    AMD,
     /**
      * TESTING ONLY. Completely random permutation
      */
@@ -0,0 +1,418 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.decomposition.chol;
+
+import org.ejml.EjmlParameters;
+import org.ejml.data.DMatrixRBlock;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.DSubmatrixD1;
+import org.ejml.dense.block.MatrixOps_DDRB;
+import org.ejml.dense.block.TriangularSolver_DDRB;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.decomposition.TriangularSolver_DDRM;
+import org.ejml.dense.row.factory.DecompositionFactory_DDRM;
+import org.ejml.interfaces.decomposition.CholeskyDecomposition_F64;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+import org.ejml.sparse.csc.misc.TriangularSolver_DSCC;
+
+import java.util.Arrays;
+
+import static org.ejml.UtilEjml.adjust;
+
+/**
+ * <p>
+ * Left looking supernodal Cholesky decomposition of a {@link DMatrixSparseCSC}. Consecutive columns in L which
+ * form a chain in the elimination tree and have the same non-zero pattern, below the diagonal, are grouped together
+ * into a supernode. Each supernode is stored as a dense matrix which allows the numerical factorization to be
+ * performed with the dense matrix multiplication, triangular solvers, and Cholesky decompositions in ejml-ddense
+ * instead of indirect addressing one element at a time.
+ * </p>
+ *
+ * <p>
+ * Supernodes are found after the symbolic factorization. If they are on average too narrow, see
+ * {@link EjmlParameters#SWITCH_SUPERNODAL_CHOLESKY}, then the up looking algorithm in
+ * {@link CholeskyUpLooking_DSCC} is used instead. Either way the same L is returned. Only the upper triangular
+ * portion of the input matrix is read.
+ * </p>
+ *
+ * <p>See "Supernodal Sparse Cholesky Factorization" section 9.1 in "Direct Methods for Sparse Linear Systems"
+ * by Timothy A. Davis</p>
+ *
+ * @author Peter Abeles
+ */
+public class CholeskySupernodal_DSCC extends CholeskyUpLooking_DSCC {
+
+    // number of supernodes
+    int numSuper;
+    // super[s] is the first column in supernode s. super[numSuper] = N
+    int []super_ = new int[1];
+    // which supernode each column belongs to
+    int []snode = new int[1];
+    // location of the dense row-major storage for each supernode
+    int []blockOffset = new int[1];
+
+    // storage for all the dense supernodes. row-major with the supernode's pattern along the rows
+    double []blocks = new double[1];
+
+    // linked list of supernodes which need to update supernode 'head'. next points to the next element
+    int []head = new int[1];
+    int []next = new int[1];
+    // the row in a supernode's pattern which is the start of its next update
+    int []updateRow = new int[1];
+    // maps a row in L into a row in the supernode currently being processed
+    int []map = new int[1];
+
+    // Transpose of the input. Used to look up the lower triangular portion of A one column at a time
+    DMatrixSparseCSC At = new DMatrixSparseCSC(1,1,0);
+
+    // true if the supernodal algorithm is being used for the current structure
+    boolean supernodal;
+
+    // work space for dense matrix operations
+    DMatrixRMaj Ljj = new DMatrixRMaj(1,1);
+    DMatrixRMaj rowsA = new DMatrixRMaj(1,1);
+    DMatrixRMaj rowsB = new DMatrixRMaj(1,1);
+    DMatrixRMaj update = new DMatrixRMaj(1,1);
+    DMatrixRMaj updateTop = new DMatrixRMaj(1,1);
+    // rows below the diagonal block and their transpose, used when solving for them
+    DMatrixRMaj panel = new DMatrixRMaj(1,1);
+    DMatrixRMaj panelT = new DMatrixRMaj(1,1);
+    // diagonal block and the transposed rows below it in block format
+    DMatrixRBlock blockL = new DMatrixRBlock(1,1);
+    DMatrixRBlock blockB = new DMatrixRBlock(1,1);
+    CholeskyDecomposition_F64<DMatrixRMaj> cholSmall;
+    CholeskyDecomposition_F64<DMatrixRMaj> cholLarge;
+
+    @Override
+    public void performSymbolic(DMatrixSparseCSC A) {
+        super.performSymbolic(A);
+
+        // The supernodes only depend on the elimination tree and column counts, so the decision can be made
+        // before the more expensive pattern of L is computed. The up looking algorithm doesn't need the pattern.
+        findSupernodes();
+        supernodal = averageSupernodeWidth() >= EjmlParameters.SWITCH_SUPERNODAL_CHOLESKY;
+
+        if( supernodal ) {
+            computePatternOfL(A);
+            declareBlocks();
+        }
+    }
+
+    /**
+     * Fills in the row indexes in L. Since the up looking algorithm computes L one row at a time the
+     * row indexes are computed in the same way, but without any of the numerical work.
+     */
+    private void computePatternOfL( DMatrixSparseCSC A ) {
+        int []c = adjust(gw,N);
+        int []s = adjust(gs,N);
+
+        System.arraycopy(L.col_idx, 0, c, 0, N);
+
+        for (int k = 0; k < N; k++) {
+            int top = TriangularSolver_DSCC.searchNzRowsElim(A,k,parent,s,c);
+            for (; top < N; top++) {
+                L.nz_rows[c[s[top]]++] = k;
+            }
+            L.nz_rows[c[k]++] = k;
+        }
+        L.indicesSorted = true;
+    }
+
+    /**
+     * Finds the fundamental supernodes. Column j+1 is added to the same supernode as column j if j+1 is the parent
+     * of j, j is the only child of j+1, and the two columns have the same pattern below the diagonal.
+     */
+    private void findSupernodes() {
+        if( super_.length < N+1 ) {
+            super_ = new int[N+1];
+            snode = new int[N];
+            blockOffset = new int[N+1];
+            head = new int[N];
+            next = new int[N];
+            updateRow = new int[N];
+            map = new int[N];
+        }
+
+        // count the number of children for each node
+        int []children = adjust(gs,N);
+        Arrays.fill(children,0,N,0);
+        for (int j = 0; j < N; j++) {
+            if( parent[j] >= 0 )
+                children[parent[j]]++;
+        }
+
+        numSuper = 0;
+        for (int j = 0; j < N; j++) {
+            if( j == 0 || parent[j-1] != j || children[j] != 1 || counts[j] != counts[j-1]-1 ) {
+                super_[numSuper++] = j;
+            }
+            snode[j] = numSuper-1;
+        }
+        super_[numSuper] = N;
+    }
+
+    /**
+     * Average number of columns in a supernode, weighted by the number of non-zero elements in L it contains.
+     */
+    double averageSupernodeWidth() {
+        if( L.nz_length == 0 )
+            return 0;
+        double total = 0;
+        for (int s = 0; s < numSuper; s++) {
+            int f = super_[s];
+            int width = super_[s+1]-f;
+            total += width*(double)(L.col_idx[super_[s+1]]-L.col_idx[f]);
+        }
+        return total/L.nz_length;
+    }
+
+    private void declareBlocks() {
+        int total = 0;
+        for (int s = 0; s < numSuper; s++) {
+            blockOffset[s] = total;
+            int f = super_[s];
+            int width = super_[s+1]-f;
+            int height = L.col_idx[f+1]-L.col_idx[f];
+            total += width*height;
+        }
+        blockOffset[numSuper] = total;
+        if( blocks.length < total )
+            blocks = new double[total];
+    }
+
+    @Override
+    protected boolean performDecomposition(DMatrixSparseCSC A) {
+        if( !supernodal )
+            return super.performDecomposition(A);
+
+        // the lower triangular portion of A is needed. Since A is symmetric that's the transpose of the upper
+        CommonOps_DSCC.transpose(A,At,gw);
+
+        Arrays.fill(head,0,numSuper,-1);
+        Arrays.fill(blocks,0,blockOffset[numSuper],0);
+
+        for (int s = 0; s < numSuper; s++) {
+            int f = super_[s];
+            int width = super_[s+1]-f;
+            int rowStart = L.col_idx[f];
+            int height = L.col_idx[f+1]-rowStart;
+            int offset = blockOffset[s];
+
+            for (int i = 0; i < height; i++) {
+                map[L.nz_rows[rowStart+i]] = i;
+            }
+
+            //----- Copy the lower triangular portion of A into the supernode
+            for (int j = f; j < f+width; j++) {
+                int idx0 = At.col_idx[j], idx1 = At.col_idx[j+1];
+                for (int p = idx0; p < idx1; p++) {
+                    int row = At.nz_rows[p];
+                    if( row >= j )
+                        blocks[offset + map[row]*width + j-f] = At.nz_values[p];
+                }
+            }
+
+            //----- Apply updates from all the descendants which modify this supernode
+            int d = head[s];
+            while( d >= 0 ) {
+                int nextD = next[d];
+                applyUpdate(d,s);
+                d = nextD;
+            }
+
+            //----- Dense factorization of the supernode
+            if( !factorSupernode(width,height,offset) )
+                return false;
+
+            //----- Add the supernode to the list of the first supernode it updates
+            if( height > width ) {
+                updateRow[s] = width;
+                link(s, snode[L.nz_rows[rowStart+width]]);
+            }
+        }
+
+        copyBlocksIntoL();
+        return true;
+    }
+
+    /**
+     * Subtracts the contribution of the descendant supernode 'd' from supernode 's'. Only rows in 'd' which are
+     * inside of 's' columns or below are involved.
+     */
+    private void applyUpdate( int d , int s ) {
+        int f = super_[s];
+        int l = super_[s+1];
+        int width = l-f;
+        int offset = blockOffset[s];
+
+        int fd = super_[d];
+        int widthD = super_[d+1]-fd;
+        int rowStartD = L.col_idx[fd];
+        int heightD = L.col_idx[fd+1]-rowStartD;
+
+        // rows in 'd' which correspond to columns in 's'
+        int r0 = updateRow[d];
+        int r1 = r0;
+        while( r1 < heightD && L.nz_rows[rowStartD+r1] < l )
+            r1++;
+
+        // The update is L(r0:,:)*L(r0:r1,:)'. It's split into the square symmetric top, of which only the lower
+        // triangle is needed, and the rectangular bottom
+        int numRowsB = r1-r0;
+        int numRowsA = heightD-r1;
+        int indexD = blockOffset[d]+r0*widthD;
+        rowsB.reshape(numRowsB,widthD);
+        System.arraycopy(blocks,indexD,rowsB.data,0,numRowsB*widthD);
+        CommonOps_DDRM.multOuter(rowsB,updateTop);
+
+        for (int i = 0; i < numRowsB; i++) {
+            int indexDst = offset + map[L.nz_rows[rowStartD+r0+i]]*width;
+            int indexSrc = i*numRowsB;
+            for (int j = 0; j <= i; j++) {
+                blocks[indexDst + L.nz_rows[rowStartD+r0+j]-f] -= updateTop.data[indexSrc+j];
+            }
+        }
+
+        if( numRowsA > 0 ) {
+            rowsA.reshape(numRowsA,widthD);
+            System.arraycopy(blocks,indexD+numRowsB*widthD,rowsA.data,0,numRowsA*widthD);
+            update.reshape(numRowsA,numRowsB);
+            CommonOps_DDRM.multTransB(rowsA,rowsB,update);
+
+            for (int i = 0; i < numRowsA; i++) {
+                int indexDst = offset + map[L.nz_rows[rowStartD+r1+i]]*width;
+                int indexSrc = i*numRowsB;
+                for (int j = 0; j < numRowsB; j++) {
+                    blocks[indexDst + L.nz_rows[rowStartD+r0+j]-f] -= update.data[indexSrc+j];
+                }
+            }
+        }
+
+        // move on to the next supernode which 'd' updates
+        if( r1 < heightD ) {
+            updateRow[d] = r1;
+            link(d, snode[L.nz_rows[rowStartD+r1]]);
+        }
+    }
+
+    private void link( int d , int s ) {
+        next[d] = head[s];
+        head[s] = d;
+    }
+
+    /**
+     * Performs a Cholesky decomposition on the diagonal block then solves for the rows below it with a dense
+     * triangular solve, L(below,:) = A(below,:)*inv(Ljj)'.
+     */
+    private boolean factorSupernode( int width , int height , int offset ) {
+        Ljj.reshape(width,width);
+        System.arraycopy(blocks,offset,Ljj.data,0,width*width);
+        // only the lower triangle has been filled in. Dense decompositions can read either half
+        for (int i = 0; i < width; i++) {
+            for (int j = 0; j < i; j++) {
+                Ljj.data[j*width+i] = Ljj.data[i*width+j];
+            }
+        }
+
+        CholeskyDecomposition_F64<DMatrixRMaj> chol = selectDense(width);
+        if( !chol.decompose(Ljj) )
+            return false;
+        chol.getT(Ljj);
+        System.arraycopy(Ljj.data,0,blocks,offset,width*width);
+
+        int numBelow = height-width;
+        if( numBelow > 0 )
+            solvePanel(width,numBelow,offset+width*width);
+        return true;
+    }
+
+    /**
+     * Solves for the rows below the diagonal block, X*Ljj' = B.  When the supernode fits inside a single inner
+     * block the blocked solve reduces to a forward substitution, so that's done in place.  Otherwise it's solved
+     * as Ljj*X' = B' using the blocked triangular solver in ejml-ddense, which updates the remaining rows with
+     * block matrix multiplications.
+     */
+    private void solvePanel( int width , int numBelow , int offsetB ) {
+        int blockLength = EjmlParameters.BLOCK_WIDTH;
+        if( width <= blockLength ) {
+            TriangularSolver_DDRM.solveTranL_right(Ljj.data,width,blocks,offsetB,numBelow);
+            return;
+        }
+
+        blockL.reshape(width,width,blockLength,false);
+        MatrixOps_DDRB.convert(Ljj,blockL);
+
+        panel.reshape(numBelow,width);
+        System.arraycopy(blocks,offsetB,panel.data,0,numBelow*width);
+        blockB.reshape(width,numBelow,blockLength,false);
+        MatrixOps_DDRB.convertTranSrc(panel,blockB);
+
+        TriangularSolver_DDRB.solve(blockLength,false,new DSubmatrixD1(blockL),new DSubmatrixD1(blockB),false);
+
+        panelT.reshape(width,numBelow);
+        MatrixOps_DDRB.convert(blockB,panelT);
+        CommonOps_DDRM.transpose(panelT,panel);
+        System.arraycopy(panel.data,0,blocks,offsetB,numBelow*width);
+    }
+
+    private CholeskyDecomposition_F64<DMatrixRMaj> selectDense( int width ) {
+        if( width < EjmlParameters.SWITCH_BLOCK64_CHOLESKY ) {
+            if( cholSmall == null )
+                cholSmall = DecompositionFactory_DDRM.chol(width,true);
+            return cholSmall;
+        } else {
+            if( cholLarge == null )
+                cholLarge = DecompositionFactory_DDRM.chol(width,true);
+            return cholLarge;
+        }
+    }
+
+    /**
+     * Copies the dense supernodes into the column compressed L
+     */
+    private void copyBlocksIntoL() {
+        for (int s = 0; s < numSuper; s++) {
+            int f = super_[s];
+            int width = super_[s+1]-f;
+            int offset = blockOffset[s];
+
+            for (int j = 0; j < width; j++) {
+                int idx0 = L.col_idx[f+j];
+                int idx1 = L.col_idx[f+j+1];
+                int index = offset + j*width + j;
+                for (int p = idx0; p < idx1; p++, index += width) {
+                    L.nz_values[p] = blocks[index];
+                }
+            }
+        }
+    }
+
+    public int getNumSupernodes() {
+        return numSuper;
+    }
+
+    /**
+     * Returns true if the supernodal algorithm will be used to decompose the matrix or false if it has fallen
+     * back to the up looking algorithm.
+     */
+    public boolean isSupernodal() {
+        return supernodal;
+    }
+}
@@ -18,14 +18,18 @@
 
 package org.ejml.sparse.csc.decomposition.chol;
 
+import org.ejml.MatrixDimensionException;
 import org.ejml.data.Complex_F64;
 import org.ejml.data.DGrowArray;
 import org.ejml.data.DMatrixSparseCSC;
 import org.ejml.data.IGrowArray;
 import org.ejml.interfaces.decomposition.CholeskySparseDecomposition_F64;
 import org.ejml.sparse.csc.misc.ColumnCounts_DSCC;
+import org.ejml.sparse.csc.misc.SymbolicCache_DSCC;
 import org.ejml.sparse.csc.misc.TriangularSolver_DSCC;
 
+import java.util.Arrays;
+
 import static org.ejml.UtilEjml.adjust;
 
 /**
@@ -33,12 +37,15 @@ import static org.ejml.UtilEjml.adjust;
  *
  * <p>See page 59 in "Direct Methods for Sparse Linear Systems" by Tomothy A. Davis</p>
  *
+ * <p>Once decomposed, the factor can be modified by a rank-1 {@link #update} or {@link #downdate} which only
+ * touches the columns of L along a path in the elimination tree.</p>
+ *
  * @author Peter Abeles
  */
 public class CholeskyUpLooking_DSCC implements
         CholeskySparseDecomposition_F64<DMatrixSparseCSC>
 {
-    private int N;
+    int N;
 
     // storage for decomposition
     DMatrixSparseCSC L = new DMatrixSparseCSC(1,1,0);
@@ -52,8 +59,20 @@ public class CholeskyUpLooking_DSCC implements
     int []counts = new int[1];
     ColumnCounts_DSCC columnCounter = new ColumnCounts_DSCC(false);
 
+    // if not null then the symbolic decomposition is looked up here first
+    SymbolicCache_DSCC symbolicCache;
+
+    // workspace for rank-1 updates
+    IGrowArray gpathA = new IGrowArray(1);
+    IGrowArray gpathB = new IGrowArray(1);
+    // patterns of columns which gained elements from an update. (column, length, rows...)
+    IGrowArray gfill = new IGrowArray(1);
+    IGrowArray gfillStart = new IGrowArray(1);
+
     // true if it has successfully decomposed a matrix
     private boolean decomposed = false;
+    // true if a rank-1 update added elements to L and the symbolic decomposition no longer matches it
+    private boolean structureModified = false;
     // if true then the structure is locked and won't be computed again
     private boolean locked = false;
 
@@ -62,7 +81,7 @@ public class CholeskyUpLooking_DSCC implements
         if( orig.numCols != orig.numRows )
             throw new IllegalArgumentException("Must be a square matrix");
 
-        if( !locked || !decomposed)
+        if( !locked || !decomposed || structureModified )
             performSymbolic(orig);
 
         if( performDecomposition(orig) ) {
@@ -76,11 +95,23 @@ public class CholeskyUpLooking_DSCC implements
     public void performSymbolic(DMatrixSparseCSC A) {
         init(A.numCols);
 
-        TriangularSolver_DSCC.eliminationTree(A,false,parent, gw);
-        TriangularSolver_DSCC.postorder(parent,N,post, gw);
-        columnCounter.process(A,parent,post,counts);
+        int[][] cached = symbolicCache == null ? null : symbolicCache.lookup("cholesky",A);
+        if( cached != null ) {
+            System.arraycopy(cached[0],0,parent,0,N);
+            System.arraycopy(cached[1],0,post,0,N);
+            System.arraycopy(cached[2],0,counts,0,N);
+        } else {
+            TriangularSolver_DSCC.eliminationTree(A,false,parent, gw);
+            TriangularSolver_DSCC.postorder(parent,N,post, gw);
+            columnCounter.process(A,parent,post,counts);
+            if( symbolicCache != null ) {
+                symbolicCache.store("cholesky",A,new int[][]{
+                        Arrays.copyOf(parent,N),Arrays.copyOf(post,N),Arrays.copyOf(counts,N)});
+            }
+        }
         L.reshape(A.numRows,A.numCols,0);
         L.histogramToStructure(counts);
+        structureModified = false;
     }
 
     private void init( int N ) {
@@ -93,7 +124,7 @@ public class CholeskyUpLooking_DSCC implements
         }
     }
 
-    private boolean performDecomposition(DMatrixSparseCSC A) {
+    protected boolean performDecomposition(DMatrixSparseCSC A) {
         int []c = adjust(gw,N);
         int []s = adjust(gs,N);
         double []x = adjust(gx,N);
@@ -145,6 +176,222 @@ public class CholeskyUpLooking_DSCC implements
         return true;
     }
 
+    /**
+     * <p>
+     * Rank-1 update of the decomposition, L*L<sup>T</sup> = L*L<sup>T</sup> + c*c<sup>T</sup>. Only the columns
+     * of L along the path in the elimination tree which starts at the first non-zero row in 'c' are modified. If
+     * the update causes fill in then elements are inserted into L.
+     * </p>
+     *
+     * <p>See cs_updown in CSparse and "Modifying a sparse Cholesky factorization" by Davis and Hager.</p>
+     *
+     * @param c Sparse column vector with N rows. Not modified.
+     * @return true if successful
+     */
+    public boolean update( DMatrixSparseCSC c ) {
+        return updown(c,true);
+    }
+
+    /**
+     * Rank-1 downdate of the decomposition, L*L<sup>T</sup> = L*L<sup>T</sup> - c*c<sup>T</sup>. If the
+     * downdated matrix is not positive definite then false is returned and the matrix must be decomposed again.
+     *
+     * @see #update
+     *
+     * @param c Sparse column vector with N rows. Not modified.
+     * @return true if successful
+     */
+    public boolean downdate( DMatrixSparseCSC c ) {
+        return updown(c,false);
+    }
+
+    private boolean updown( DMatrixSparseCSC c , boolean up ) {
+        if( !decomposed )
+            throw new IllegalArgumentException("A matrix must be decomposed first");
+        if( c.numRows != N || c.numCols != 1 )
+            throw new MatrixDimensionException("Expected a column vector with "+N+" rows");
+        if( c.col_idx[0] == c.col_idx[1] )
+            return true;
+
+        int start = symbolicUpdate(c);
+
+        // w = c, only the path needs to be cleared since c's pattern is a subset of it
+        double []w = adjust(gx,N);
+        for( int j = start; j != -1; j = parent[j] )
+            w[j] = 0;
+        for (int p = c.col_idx[0]; p < c.col_idx[1]; p++) {
+            w[c.nz_rows[p]] = c.nz_values[p];
+        }
+
+        double sigma = up ? 1 : -1;
+        double beta = 1;
+        for( int j = start; j != -1; j = parent[j] ) {
+            int p = L.col_idx[j];
+            double alpha = w[j]/L.nz_values[p];
+            double beta2 = beta*beta + sigma*alpha*alpha;
+            if( beta2 <= 0 ) {
+                // not positive definite, L has been partially modified
+                decomposed = false;
+                return false;
+            }
+            beta2 = Math.sqrt(beta2);
+            double delta = up ? beta/beta2 : beta2/beta;
+            double gamma = sigma*alpha/(beta2*beta);
+            L.nz_values[p] = delta*L.nz_values[p] + (up ? gamma*w[j] : 0);
+            beta = beta2;
+
+            int end = L.col_idx[j+1];
+            for (p++; p < end; p++) {
+                int row = L.nz_rows[p];
+                double w1 = w[row];
+                double w2 = w1 - alpha*L.nz_values[p];
+                w[row] = w2;
+                L.nz_values[p] = delta*L.nz_values[p] + gamma*(up ? w1 : w2);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Walks up the elimination tree from the first non-zero row in c. The pattern of each column along the path
+     * is merged with the pattern of the previous column, which is the fill in the update can create. Parents
+     * along the path are updated and any new elements are inserted into L with a value of zero.
+     *
+     * @return The first column in the path
+     */
+    private int symbolicUpdate( DMatrixSparseCSC c ) {
+        int idx0 = c.col_idx[0];
+        int lengthW = c.col_idx[1]-idx0;
+
+        int []W = adjust(gpathA,N);
+        int []M = adjust(gpathB,N);
+        System.arraycopy(c.nz_rows,idx0,W,0,lengthW);
+        Arrays.sort(W,0,lengthW);
+
+        gfill.length = 0;
+        gfillStart.length = 0;
+        int totalFill = 0;
+
+        int start = W[0];
+        int j = start;
+        while( true ) {
+            // merge rows below the diagonal in L(:,j) with W, excluding j
+            int p0 = L.col_idx[j]+1, p1 = L.col_idx[j+1];
+            int lengthM = 0;
+            int a = p0, b = 1;
+            while( a < p1 || b < lengthW ) {
+                int rowA = a < p1 ? L.nz_rows[a] : Integer.MAX_VALUE;
+                int rowB = b < lengthW ? W[b] : Integer.MAX_VALUE;
+                if( rowA <= rowB ) {
+                    M[lengthM++] = rowA;
+                    a++;
+                    if( rowA == rowB )
+                        b++;
+                } else {
+                    M[lengthM++] = rowB;
+                    b++;
+                }
+            }
+
+            int added = lengthM-(p1-p0);
+            if( added > 0 ) {
+                totalFill += added;
+                saveFillPattern(j,added,M,lengthM);
+            }
+
+            if( lengthM == 0 ) {
+                parent[j] = -1;
+                break;
+            }
+            parent[j] = M[0];
+
+            int []tmp = W; W = M; M = tmp;
+            lengthW = lengthM;
+            j = W[0];
+        }
+
+        if( totalFill > 0 ) {
+            insertFill(totalFill);
+            structureModified = true;
+        }
+
+        return start;
+    }
+
+    private void saveFillPattern( int col , int added , int []rows , int length ) {
+        if( gfillStart.length == gfillStart.data.length )
+            gfillStart.growInternal(gfillStart.data.length+1);
+        gfillStart.data[gfillStart.length++] = gfill.length;
+
+        if( gfill.length + length + 3 > gfill.data.length )
+            gfill.growInternal(gfill.length + length + 3);
+        int []fill = gfill.data;
+        fill[gfill.length++] = col;
+        fill[gfill.length++] = added;
+        fill[gfill.length++] = length;
+        System.arraycopy(rows,0,fill,gfill.length,length);
+        gfill.length += length;
+    }
+
+    /**
+     * Inserts elements into L which were saved by {@link #saveFillPattern}. Columns are processed from last to
+     * first so that L's arrays can be modified in place.
+     */
+    private void insertFill( int totalFill ) {
+        L.growMaxLength(L.nz_length+totalFill,true);
+        int []rows = L.nz_rows;
+        double []values = L.nz_values;
+        int []fill = gfill.data;
+
+        int src = L.nz_length-1;
+        int dst = src+totalFill;
+        for (int k = gfillStart.length-1; k >= 0; k--) {
+            int idx = gfillStart.data[k];
+            int col = fill[idx];
+            int length = fill[idx+2];
+            int begin = idx+3;
+
+            // move columns after this one
+            int colEnd = L.col_idx[col+1];
+            for (; src >= colEnd; src--, dst--) {
+                rows[dst] = rows[src];
+                values[dst] = values[src];
+            }
+
+            // merge the new pattern with existing elements, new elements are zero
+            int diag = L.col_idx[col];
+            for (int i = begin+length-1; i >= begin; i--, dst--) {
+                int row = fill[i];
+                rows[dst] = row;
+                if( src > diag && rows[src] == row ) {
+                    values[dst] = values[src--];
+                } else {
+                    values[dst] = 0;
+                }
+            }
+            rows[dst] = rows[src];
+            values[dst--] = values[src--];
+        }
+
+        // adjust where each column starts
+        int shift = 0;
+        int prev = 0;
+        for (int k = 0; k < gfillStart.length; k++) {
+            int idx = gfillStart.data[k];
+            int col = fill[idx];
+            for (int i = prev+1; i <= col; i++) {
+                L.col_idx[i] += shift;
+            }
+            shift += fill[idx+1];
+            prev = col;
+        }
+        for (int i = prev+1; i <= N; i++) {
+            L.col_idx[i] += shift;
+        }
+        L.nz_length += totalFill;
+    }
+
     @Override
     public boolean inputModified() {
         return false;
@@ -186,6 +433,18 @@ public class CholeskyUpLooking_DSCC implements
         return gw;
     }
 
+    public SymbolicCache_DSCC getSymbolicCache() {
+        return symbolicCache;
+    }
+
+    /**
+     * Specifies a cache which the symbolic decomposition is saved to and looked up from. If null then it
+     * is always computed.
+     */
+    public void setSymbolicCache( SymbolicCache_DSCC symbolicCache ) {
+        this.symbolicCache = symbolicCache;
+    }
+
     @Override
     public void setStructureLocked( boolean locked ) {
         this.locked = locked;
@@ -0,0 +1,421 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.sparse.csc.decomposition.eig;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.Complex_F64;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.NormOps_DDRM;
+import org.ejml.dense.row.factory.DecompositionFactory_DDRM;
+import org.ejml.interfaces.decomposition.EigenDecomposition_F64;
+import org.ejml.interfaces.decomposition.QRDecomposition;
+import org.ejml.interfaces.linsol.LinearSolverSparse;
+import org.ejml.sparse.FillReducing;
+import org.ejml.sparse.csc.factory.LinearSolverFactory_DSCC;
+
+import javax.annotation.Nullable;
+
+/**
+ * <p>
+ * Restarted Arnoldi for finding a few eigenvalues and eigenvectors of a large sparse general matrix.
+ * </p>
+ *
+ * <p>
+ * The Arnoldi process builds an orthonormal basis V of the Krylov subspace and the projection of the operator
+ * onto it, H = V<sup>T</sup>AV, which is upper Hessenberg. Once the basis has m vectors the eigenvalues of
+ * H are computed. If the requested Ritz pairs haven't converged then the basis is compressed onto the invariant
+ * subspace of H belonging to the k best Ritz values, which is equivalent to implicitly restarting with the
+ * unwanted Ritz values as exact shifts. A real orthonormal basis Q of the invariant subspace is found from the
+ * eigenvectors of H, which are computed with inverse iteration, and the new projection is Q<sup>T</sup>HQ.
+ * This is the same restart as used by Krylov-Schur without needing to reorder a Schur form.
+ * </p>
+ *
+ * <p>
+ * Eigenvalues of a real matrix can be complex. Complex eigenvalues are returned but their eigenvectors are not.
+ * </p>
+ *
+ * <p>
+ * A single Krylov sequence contains only one vector from each eigenspace, so when an eigenvalue is repeated
+ * only one copy of it might be found and the next best eigenvalue returned in place of the others. For
+ * symmetric matrices use {@link LanczosEigen_DSCC}, which searches for the missing copies.
+ * </p>
+ *
+ * <p>
+ * R. B. Lehoucq, D. C. Sorensen, and C. Yang, "ARPACK Users' Guide," SIAM, 1998<br>
+ * G. W. Stewart, "A Krylov-Schur Algorithm for Large Eigenproblems," SIAM J. Matrix Anal. Appl., 2001
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ArnoldiEigen_DSCC extends KrylovEigen_DSCC {
+
+    // projection of the operator onto the basis
+    private DMatrixRMaj H = new DMatrixRMaj(1,1);
+    private DMatrixRMaj work = new DMatrixRMaj(1,1);
+    private EigenDecomposition_F64<DMatrixRMaj> eig = DecompositionFactory_DDRM.eig(false,false);
+
+    // Ritz values
+    private double ritzRe[] = new double[0];
+    private double ritzIm[] = new double[0];
+    private int order[] = new int[0];
+    // complex eigenvectors of H with interleaved real and imaginary components. Row i is for Ritz value i
+    private DMatrixRMaj Z = new DMatrixRMaj(1,1);
+
+    // workspace for inverse iteration
+    private double lu[] = new double[0];
+    private int pivots[] = new int[0];
+
+    // workspace for restarts
+    private QRDecomposition<DMatrixRMaj> qr = DecompositionFactory_DDRM.qr();
+    private DMatrixRMaj X = new DMatrixRMaj(1,1);
+    private DMatrixRMaj Q = new DMatrixRMaj(1,1);
+    private DMatrixRMaj HQ = new DMatrixRMaj(1,1);
+    private DMatrixRMaj S = new DMatrixRMaj(1,1);
+    private DMatrixRMaj y = new DMatrixRMaj(1,1);
+
+    // the found eigenvalues and eigenvectors
+    private Complex_F64 values[] = new Complex_F64[0];
+    private DMatrixRMaj vectors[] = new DMatrixRMaj[0];
+
+    /**
+     * @param numEigen Number of eigenvalues which are to be found
+     * @param target Which eigenvalues are to be found
+     */
+    public ArnoldiEigen_DSCC( int numEigen , EigenTarget target ) {
+        super(numEigen,target);
+    }
+
+    @Override
+    protected boolean iterate() {
+        H.reshape(m,m);
+        H.zero();
+        Z.reshape(m,2*m);
+        if( ritzRe.length < m ) {
+            ritzRe = new double[m];
+            ritzIm = new double[m];
+            order = new int[m];
+            pivots = new int[m];
+            lu = new double[2*m*m];
+        }
+
+        int k = 0;
+        while( true ) {
+            double beta = 0;
+            for (int j = k; j < m; j++) {
+                beta = expandBasis(j);
+                for (int i = 0; i <= j; i++) {
+                    H.unsafe_set(i,j,h[i]);
+                }
+                if( j+1 < m )
+                    H.unsafe_set(j+1,j,beta);
+            }
+
+            if( !computeRitz() )
+                return false;
+
+            double largest = 0;
+            for (int i = 0; i < m; i++) {
+                largest = Math.max(largest,Math.sqrt(ritzRe[i]*ritzRe[i] + ritzIm[i]*ritzIm[i]));
+            }
+
+            // don't split up a complex conjugate pair
+            int wanted = numEigen;
+            if( wanted < m && isFirstOfPair(wanted-1) )
+                wanted++;
+
+            double normH = NormOps_DDRM.normF(H);
+            boolean done = true;
+            for (int i = 0; i < wanted; i++) {
+                int idx = order[i];
+                eigenvectorOfH(idx,normH);
+                double re = Z.unsafe_get(idx,2*(m-1));
+                double im = Z.unsafe_get(idx,2*(m-1)+1);
+                double magnitude = Math.sqrt(ritzRe[idx]*ritzRe[idx] + ritzIm[idx]*ritzIm[idx]);
+                done &= isConverged(Math.abs(beta)*Math.sqrt(re*re + im*im),magnitude,largest);
+            }
+
+            if( done || restarts >= maxRestarts || m == N ) {
+                saveResults();
+                return done;
+            }
+            restarts++;
+
+            // keep the wanted Ritz vectors and some extra to speed up convergence
+            k = Math.min(wanted + (m-wanted)/2,m-1);
+            if( isFirstOfPair(k-1) )
+                k--;
+            for (int i = wanted; i < k; i++) {
+                eigenvectorOfH(order[i],normH);
+            }
+            restart(k,beta);
+        }
+    }
+
+    /**
+     * Computes the eigenvalues of H and sorts them
+     */
+    private boolean computeRitz() {
+        work.set(H);
+        if( !eig.decompose(work) )
+            return false;
+        for (int i = 0; i < m; i++) {
+            Complex_F64 c = eig.getEigenvalue(i);
+            ritzRe[i] = c.real;
+            ritzIm[i] = c.imaginary;
+        }
+        sortRitz(ritzRe,ritzIm,order);
+        return true;
+    }
+
+    /**
+     * Returns true if the Ritz value is complex and its conjugate comes next
+     */
+    private boolean isFirstOfPair( int i ) {
+        return ritzIm[order[i]] > 0;
+    }
+
+    /**
+     * Compresses the basis onto the invariant subspace of H which belongs to the first k sorted Ritz values.
+     * A*V<sub>m</sub> = V<sub>m</sub>*H + &beta;v<sub>m</sub>e<sup>T</sup> and H*Q = Q*S so
+     * A*(V<sub>m</sub>Q) = (V<sub>m</sub>Q)*S + v<sub>m</sub>(&beta;e<sup>T</sup>Q)
+     */
+    private void restart( int k , double beta ) {
+        // real basis for the invariant subspace from the real and imaginary components of the eigenvectors
+        X.reshape(m,k);
+        for (int c = 0; c < k; c++) {
+            int idx = order[c];
+            for (int i = 0; i < m; i++) {
+                X.unsafe_set(i,c,Z.unsafe_get(idx,2*i));
+            }
+            if( ritzIm[idx] != 0 ) {
+                c++;
+                for (int i = 0; i < m; i++) {
+                    X.unsafe_set(i,c,Z.unsafe_get(idx,2*i+1));
+                }
+            }
+        }
+        // QR "fails" if X is rank deficient but Q is still orthonormal
+        qr.decompose(X);
+        Q.reshape(m,k);
+        qr.getQ(Q,true);
+
+        CommonOps_DDRM.mult(H,Q,HQ);
+        CommonOps_DDRM.multTransA(Q,HQ,S);
+
+        rotateBasis(Q,k);
+
+        H.zero();
+        for (int i = 0; i < k; i++) {
+            for (int j = 0; j < k; j++) {
+                H.unsafe_set(i,j,S.unsafe_get(i,j));
+            }
+            H.unsafe_set(k,i,beta*Q.unsafe_get(m-1,i));
+        }
+    }
+
+    /**
+     * Computes the eigenvector of H for Ritz value 'idx' using two steps of inverse iteration in complex
+     * arithmetic, then saves it in row 'idx' of Z with a norm of one.
+     */
+    private void eigenvectorOfH( int idx , double normH ) {
+        double thetaRe = ritzRe[idx];
+        double thetaIm = ritzIm[idx];
+
+        // LU decomposition of H - theta*I with partial pivoting
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < m; j++) {
+                int index = (i*m+j)*2;
+                lu[index] = H.unsafe_get(i,j);
+                lu[index+1] = 0;
+            }
+            lu[(i*m+i)*2] -= thetaRe;
+            lu[(i*m+i)*2+1] = -thetaIm;
+        }
+        // a singular pivot is expected since theta is an eigenvalue
+        double small = UtilEjml.EPS*Math.max(normH,1e-300);
+
+        for (int c = 0; c < m; c++) {
+            int best = c;
+            double bestMag = -1;
+            for (int r = c; r < m; r++) {
+                double mag = magnitude2(lu,(r*m+c)*2);
+                if( mag > bestMag ) {
+                    bestMag = mag;
+                    best = r;
+                }
+            }
+            pivots[c] = best;
+            if( best != c ) {
+                for (int j = 0; j < 2*m; j++) {
+                    double tmp = lu[c*2*m+j];
+                    lu[c*2*m+j] = lu[best*2*m+j];
+                    lu[best*2*m+j] = tmp;
+                }
+            }
+            int indexP = (c*m+c)*2;
+            if( Math.sqrt(bestMag) < small ) {
+                lu[indexP] = small;
+                lu[indexP+1] = 0;
+            }
+            double pr = lu[indexP], pi = lu[indexP+1];
+            double pm = pr*pr + pi*pi;
+
+            for (int r = c+1; r < m; r++) {
+                int indexR = (r*m+c)*2;
+                double ar = lu[indexR], ai = lu[indexR+1];
+                if( ar == 0 && ai == 0 )
+                    continue;
+                double fr = (ar*pr + ai*pi)/pm;
+                double fi = (ai*pr - ar*pi)/pm;
+                lu[indexR] = fr;
+                lu[indexR+1] = fi;
+                for (int j = c+1; j < m; j++) {
+                    int indexU = (c*m+j)*2;
+                    int indexA = (r*m+j)*2;
+                    double ur = lu[indexU], ui = lu[indexU+1];
+                    lu[indexA]   -= fr*ur - fi*ui;
+                    lu[indexA+1] -= fr*ui + fi*ur;
+                }
+            }
+        }
+
+        double[] z = Z.data;
+        int offset = idx*2*m;
+        for (int i = 0; i < m; i++) {
+            z[offset+2*i] = 1;
+            z[offset+2*i+1] = 0;
+        }
+
+        for (int iteration = 0; iteration < 2; iteration++) {
+            // apply the row swaps
+            for (int c = 0; c < m; c++) {
+                int p = pivots[c];
+                if( p == c )
+                    continue;
+                double tr = z[offset+2*c], ti = z[offset+2*c+1];
+                z[offset+2*c] = z[offset+2*p];
+                z[offset+2*c+1] = z[offset+2*p+1];
+                z[offset+2*p] = tr;
+                z[offset+2*p+1] = ti;
+            }
+            // forward substitution with unit lower triangular L
+            for (int r = 1; r < m; r++) {
+                double sr = z[offset+2*r], si = z[offset+2*r+1];
+                for (int c = 0; c < r; c++) {
+                    int index = (r*m+c)*2;
+                    double lr = lu[index], li = lu[index+1];
+                    double zr = z[offset+2*c], zi = z[offset+2*c+1];
+                    sr -= lr*zr - li*zi;
+                    si -= lr*zi + li*zr;
+                }
+                z[offset+2*r] = sr;
+                z[offset+2*r+1] = si;
+            }
+            // back substitution with U
+            for (int r = m-1; r >= 0; r--) {
+                double sr = z[offset+2*r], si = z[offset+2*r+1];
+                for (int c = r+1; c < m; c++) {
+                    int index = (r*m+c)*2;
+                    double ur = lu[index], ui = lu[index+1];
+                    double zr = z[offset+2*c], zi = z[offset+2*c+1];
+                    sr -= ur*zr - ui*zi;
+                    si -= ur*zi + ui*zr;
+                }
+                int index = (r*m+r)*2;
+                double dr = lu[index], di = lu[index+1];
+                double dm = dr*dr + di*di;
+                z[offset+2*r] = (sr*dr + si*di)/dm;
+                z[offset+2*r+1] = (si*dr - sr*di)/dm;
+            }
+            // normalize to avoid overflow
+            double total = 0;
+            for (int i = 0; i < 2*m; i++) {
+                total += z[offset+i]*z[offset+i];
+            }
+            total = Math.sqrt(total);
+            for (int i = 0; i < 2*m; i++) {
+                z[offset+i] /= total;
+            }
+        }
+    }
+
+    private static double magnitude2( double[] d , int index ) {
+        return d[index]*d[index] + d[index+1]*d[index+1];
+    }
+
+    private void saveResults() {
+        if( values.length != numEigen ) {
+            values = new Complex_F64[numEigen];
+            vectors = new DMatrixRMaj[numEigen];
+        }
+        y.reshape(m,1);
+        for (int i = 0; i < numEigen; i++) {
+            int idx = order[i];
+            double re = ritzRe[idx], im = ritzIm[idx];
+            if( shiftInvert ) {
+                // lambda = shift + 1/theta
+                double mag2 = re*re + im*im;
+                values[i] = new Complex_F64(shift + re/mag2, -im/mag2);
+            } else {
+                values[i] = new Complex_F64(re,im);
+            }
+
+            if( im == 0 ) {
+                for (int j = 0; j < m; j++) {
+                    y.data[j] = Z.unsafe_get(idx,2*j);
+                }
+                vectors[i] = ritzVector(y,0);
+            } else {
+                vectors[i] = null;
+            }
+        }
+    }
+
+    /**
+     * Uses LU since A - &sigma;I is not symmetric
+     */
+    @Override
+    protected LinearSolverSparse<DMatrixSparseCSC, DMatrixRMaj> createShiftSolver() {
+        return LinearSolverFactory_DSCC.lu(FillReducing.AMD);
+    }
+
+    /**
+     * Returns an eigenvalue. They are ordered by how well they match the target.
+     */
+    public Complex_F64 getEigenvalue( int index ) {
+        return values[index];
+    }
+
+    @Override
+    protected double getRealEigenvalue(int index) {
+        return values[index].real;
+    }
+
+    /**
+     * Returns the eigenvector with a norm of one which is associated with the eigenvalue at the same index.
+     * null if the eigenvalue is complex.
+     */
+    @Override
+    public @Nullable DMatrixRMaj getEigenVector(int index) {
+        return vectors[index];
+    }
+}
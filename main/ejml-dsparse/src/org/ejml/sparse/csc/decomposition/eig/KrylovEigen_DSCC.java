@@ -0,0 +1,600 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.sparse.csc.decomposition.eig;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.UtilEjml;
+import org.ejml.data.DEigenpair;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.interfaces.decomposition.DecompositionInterface;
+import org.ejml.interfaces.linsol.LinearSolverSparse;
+import org.ejml.sparse.FillReducing;
+import org.ejml.dense.row.NormOps_DDRM;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+import org.ejml.sparse.csc.NormOps_DSCC;
+import org.ejml.sparse.csc.factory.LinearSolverFactory_DSCC;
+import org.ejml.sparse.csc.mult.MatrixVectorMult_DSCC;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * <p>
+ * Base class for restarted Krylov subspace eigen solvers which find a few eigenvalues of a large sparse
+ * matrix. The matrix is only used in matrix-vector products, or in shift-invert mode when solving
+ * (A - &sigma;I)x = b, so memory is dominated by the m+1 basis vectors of length N.
+ * </p>
+ *
+ * <p>
+ * Each basis vector is a row in {@link #V} and is kept orthonormal with two passes of Gram-Schmidt.
+ * An eigenpair has converged when the residual norm |A*x - &theta;x| of the operator is at or below
+ * tolerance times the magnitude of its own Ritz value &theta;. Ritz values which are effectively zero
+ * relative to the largest one are compared against machine precision instead.
+ * </p>
+ *
+ * <p>
+ * In shift-invert mode the solver is applied to (A - &sigma;I)<sup>-1</sup> and the eigenvalues closest to
+ * &sigma; are found, no matter what the {@link EigenTarget} is. This converges much faster when searching for
+ * the smallest eigenvalues. If &sigma; is an eigenvalue, or very close to one, then A - &sigma;I is singular
+ * and the solutions are dominated by round off errors. When that's detected the shift is moved slightly
+ * away from &sigma;, and if that doesn't help the decomposition fails.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public abstract class KrylovEigen_DSCC implements DecompositionInterface<DMatrixSparseCSC> {
+    // number of eigenvalues which are requested
+    protected int numEigen;
+    // maximum number of basis vectors. if <= 0 then it's selected automatically
+    protected int subspaceSize;
+    protected EigenTarget target;
+
+    protected double tolerance = 1e-10;
+    protected int maxRestarts = 300;
+
+    protected Random rand = new Random(0xBEEF);
+
+    // the matrix being decomposed and its size
+    protected DMatrixSparseCSC A;
+    protected int N;
+    // number of basis vectors in the current problem
+    protected int m;
+
+    // shift-invert
+    protected boolean shiftInvert;
+    protected double sigma;
+    // shift which is actually used. Differs from sigma when A - sigma*I is singular
+    protected double shift;
+    protected @Nullable LinearSolverSparse<DMatrixSparseCSC,DMatrixRMaj> userSolver;
+    protected LinearSolverSparse<DMatrixSparseCSC,DMatrixRMaj> solver;
+    private DMatrixSparseCSC shifted = new DMatrixSparseCSC(1,1,0);
+    private DMatrixRMaj vb = new DMatrixRMaj(1,1);
+    private DMatrixRMaj vx = new DMatrixRMaj(1,1);
+
+    // Krylov basis. Each row is a basis vector
+    protected DMatrixRMaj V = new DMatrixRMaj(1,1);
+    // coefficients found when orthogonalizing a vector
+    protected double h[] = new double[0];
+    // workspace for rotating the basis
+    private double work[] = new double[0];
+
+    // Converged eigenvectors which are deflated from the operator. Each row is a vector
+    protected DMatrixRMaj locked = new DMatrixRMaj(1,1);
+    protected int numLocked;
+
+    // results
+    protected int restarts;
+    protected boolean converged;
+
+    protected KrylovEigen_DSCC( int numEigen , EigenTarget target ) {
+        if( numEigen <= 0 )
+            throw new IllegalArgumentException("numEigen must be positive");
+        this.numEigen = numEigen;
+        this.target = target;
+    }
+
+    /**
+     * Computes the requested eigenvalues and eigenvectors
+     *
+     * @param A Square sparse matrix. Not modified.
+     * @return true if all the requested eigenpairs converged
+     */
+    @Override
+    public boolean decompose(DMatrixSparseCSC A) {
+        if( A.numRows != A.numCols )
+            throw new MatrixDimensionException("Must be a square matrix");
+        if( numEigen > A.numCols )
+            throw new IllegalArgumentException("Requested more eigenvalues than the matrix has");
+
+        this.A = A;
+        this.N = A.numCols;
+        this.m = Math.min(N, subspaceSize > 0 ? subspaceSize : Math.max(2*numEigen,numEigen+20));
+        if( m <= numEigen && m < N )
+            throw new IllegalArgumentException("The subspace must be larger than the number of eigenvalues");
+
+        V.reshape(m+1,N);
+        if( h.length < m+1 )
+            h = new double[m+1];
+        restarts = 0;
+        converged = false;
+        numLocked = 0;
+
+        if( shiftInvert && !setupShiftInvert() )
+            return false;
+
+        randomOrthogonal(0,0);
+        converged = iterate();
+
+        this.A = null;
+        return converged;
+    }
+
+    /**
+     * Runs the restarted iterations. The first basis vector has already been initialized.
+     *
+     * @return true if converged
+     */
+    protected abstract boolean iterate();
+
+    /**
+     * Creates the default solver for (A - &sigma;I)x = b
+     */
+    protected abstract LinearSolverSparse<DMatrixSparseCSC,DMatrixRMaj> createShiftSolver();
+
+    /**
+     * Decomposes A - &sigma;I. If it's singular or nearly singular then the shift is moved by a small
+     * amount in either direction.
+     */
+    private boolean setupShiftInvert() {
+        vb.reshape(N,1);
+        vx.reshape(N,1);
+
+        double delta = 10*Math.sqrt(UtilEjml.EPS)*Math.max(NormOps_DSCC.normF(A),UtilEjml.EPS);
+        for (int trial = 0; trial < 3; trial++) {
+            shift = trial == 0 ? sigma : (trial == 1 ? sigma + delta : sigma - delta);
+            if( decomposeShifted() && !isNearlySingular() )
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Decomposes A - shift*I. If the default solver fails then LU is tried.
+     */
+    private boolean decomposeShifted() {
+        CommonOps_DSCC.add(1,A,-shift,CommonOps_DSCC.identity(N),shifted,null,null);
+
+        if( userSolver != null ) {
+            solver = userSolver;
+            return solver.setA(shifted);
+        }
+
+        solver = createShiftSolver();
+        if( solver.setA(shifted) )
+            return true;
+        solver = LinearSolverFactory_DSCC.lu(FillReducing.AMD);
+        return solver.setA(shifted);
+    }
+
+    /**
+     * Estimates the condition number of A - shift*I using a few steps of inverse iteration, which
+     * approximates the norm of its inverse. Returns true if it's too large for the solutions to be accurate.
+     */
+    private boolean isNearlySingular() {
+        double normShifted = NormOps_DSCC.normF(shifted);
+        for (int i = 0; i < N; i++) {
+            vb.data[i] = rand.nextDouble()-0.5;
+        }
+        double ratio = 0;
+        for (int iteration = 0; iteration < 3; iteration++) {
+            double normB = NormOps_DDRM.normF(vb);
+            solver.solve(vb,vx);
+            double normX = NormOps_DDRM.normF(vx);
+            if( UtilEjml.isUncountable(normX) )
+                return true;
+            if( normX == 0 )
+                return false;
+            ratio = normX/normB;
+            for (int i = 0; i < N; i++) {
+                vb.data[i] = vx.data[i]/normX;
+            }
+        }
+        return ratio*normShifted*Math.sqrt(UtilEjml.EPS) > 1;
+    }
+
+    /**
+     * Applies the operator to vector x and writes the results to vector y. Either y = A*x or
+     * y = (A - &sigma;I)<sup>-1</sup>x.
+     */
+    protected void operator( double[] x , int offsetX , double[] y , int offsetY ) {
+        if( shiftInvert ) {
+            System.arraycopy(x,offsetX,vb.data,0,N);
+            solver.solve(vb,vx);
+            System.arraycopy(vx.data,0,y,offsetY,N);
+        } else {
+            MatrixVectorMult_DSCC.mult(A,x,offsetX,y,offsetY);
+        }
+    }
+
+    /**
+     * Applies the operator to basis vector j, orthogonalizes the result against basis vectors 0 to j, and
+     * saves it as basis vector j+1. If the result is in the span of the basis a random orthogonal vector
+     * is used instead and the returned norm is zero.
+     *
+     * @return Norm of the new vector before it was normalized
+     */
+    protected double expandBasis( int j ) {
+        double[] d = V.data;
+        operator(d,j*N,d,(j+1)*N);
+        double before = norm(d,(j+1)*N);
+        double beta = orthogonalize(j+1,j+1);
+
+        if( beta <= 10*UtilEjml.EPS*before ) {
+            double saved[] = h.clone();
+            randomOrthogonal(j+1,j+1);
+            System.arraycopy(saved,0,h,0,saved.length);
+            return 0;
+        }
+        scale(1.0/beta,d,(j+1)*N);
+        return beta;
+    }
+
+    /**
+     * Removes the components of the locked vectors and basis vectors 0 to count-1 from vector 'row' using two
+     * passes of modified Gram-Schmidt. The basis coefficients are saved in {@link #h}.
+     *
+     * @return The norm of the vector after orthogonalization
+     */
+    protected double orthogonalize( int row , int count ) {
+        double[] d = V.data;
+        int w = row*N;
+        Arrays.fill(h,0,count,0);
+        for (int pass = 0; pass < 2; pass++) {
+            for (int i = 0; i < numLocked; i++) {
+                removeComponent(locked.data,i*N,d,w);
+            }
+            for (int i = 0; i < count; i++) {
+                h[i] += removeComponent(d,i*N,d,w);
+            }
+        }
+        return norm(d,w);
+    }
+
+    /**
+     * Removes the component of unit vector 'v' from vector 'w'
+     *
+     * @return The dot product of the two vectors
+     */
+    private double removeComponent( double[] v , int offsetV , double[] w , int offsetW ) {
+        double c = 0;
+        for (int p = 0; p < N; p++) {
+            c += v[offsetV+p]*w[offsetW+p];
+        }
+        for (int p = 0; p < N; p++) {
+            w[offsetW+p] -= c*v[offsetV+p];
+        }
+        return c;
+    }
+
+    /**
+     * Copies the vectors into {@link #locked}. They will be removed from all new basis vectors.
+     */
+    protected void lock( DMatrixRMaj[] vectors , int count ) {
+        locked.reshape(count,N);
+        for (int i = 0; i < count; i++) {
+            System.arraycopy(vectors[i].data,0,locked.data,i*N,N);
+        }
+        numLocked = count;
+    }
+
+    /**
+     * Fills 'row' with a random unit vector which is orthogonal to the locked vectors and basis vectors 0 to
+     * count-1. If they already span the entire space then it's filled with zeros.
+     */
+    protected void randomOrthogonal( int row , int count ) {
+        double[] d = V.data;
+        int w = row*N;
+        if( count + numLocked < N ) {
+            for (int trial = 0; trial < 5; trial++) {
+                for (int p = 0; p < N; p++) {
+                    d[w+p] = rand.nextDouble()-0.5;
+                }
+                double n = orthogonalize(row,count);
+                if( n > UtilEjml.EPS ) {
+                    scale(1.0/n,d,w);
+                    return;
+                }
+            }
+        }
+        Arrays.fill(d,w,w+N,0);
+    }
+
+    /**
+     * Replaces the first k basis vectors with V<sup>T</sup>*Y, where Y is an m by k matrix, then moves
+     * basis vector m to k. Columns are processed in blocks so that only a small workspace is needed.
+     */
+    protected void rotateBasis( DMatrixRMaj Y , int k ) {
+        double[] d = V.data;
+        int block = Math.min(N,1024);
+        if( work.length < k*block )
+            work = new double[k*block];
+
+        for (int p0 = 0; p0 < N; p0 += block) {
+            int w = Math.min(N,p0+block)-p0;
+            Arrays.fill(work,0,k*w,0);
+            for (int i = 0; i < m; i++) {
+                int indexV = i*N + p0;
+                for (int c = 0; c < k; c++) {
+                    double y = Y.data[i*Y.numCols+c];
+                    if( y == 0 )
+                        continue;
+                    int indexW = c*w;
+                    for (int p = 0; p < w; p++) {
+                        work[indexW+p] += y*d[indexV+p];
+                    }
+                }
+            }
+            for (int c = 0; c < k; c++) {
+                System.arraycopy(work,c*w,d,c*N+p0,w);
+            }
+        }
+        System.arraycopy(d,m*N,d,k*N,N);
+    }
+
+    /**
+     * Computes the Ritz vector V<sup>T</sup>*y
+     *
+     * @param Y Matrix which contains y
+     * @param col The column in Y which is y
+     */
+    protected DMatrixRMaj ritzVector( DMatrixRMaj Y , int col ) {
+        DMatrixRMaj x = new DMatrixRMaj(N,1);
+        double[] d = V.data;
+        for (int i = 0; i < m; i++) {
+            double y = Y.data[i*Y.numCols+col];
+            int indexV = i*N;
+            for (int p = 0; p < N; p++) {
+                x.data[p] += y*d[indexV+p];
+            }
+        }
+        return x;
+    }
+
+    /**
+     * Sorts the Ritz values so that the ones which best match the target are first. Complex conjugate
+     * pairs are adjacent with the positive imaginary component first.
+     *
+     * @param re Real component of each Ritz value
+     * @param im Imaginary component of each Ritz value. null if all are real.
+     * @param order (Output) Indexes of the Ritz values in sorted order
+     */
+    protected void sortRitz( double[] re , @Nullable double[] im , int[] order ) {
+        for (int i = 0; i < m; i++) {
+            order[i] = i;
+        }
+        // insertion sort since the subspace is small
+        for (int i = 1; i < m; i++) {
+            int v = order[i];
+            int j = i-1;
+            while( j >= 0 && compareRitz(re,im,v,order[j]) < 0 ) {
+                order[j+1] = order[j];
+                j--;
+            }
+            order[j+1] = v;
+        }
+    }
+
+    private int compareRitz( double[] re , @Nullable double[] im , int a , int b ) {
+        double imA = im == null ? 0 : im[a];
+        double imB = im == null ? 0 : im[b];
+        double keyA = ritzKey(re[a],imA);
+        double keyB = ritzKey(re[b],imB);
+        if( keyA != keyB )
+            return keyA < keyB ? -1 : 1;
+        if( Math.abs(imA) != Math.abs(imB) )
+            return Math.abs(imA) > Math.abs(imB) ? -1 : 1;
+        return Double.compare(imB,imA);
+    }
+
+    /**
+     * Returns true if real Ritz value 'a' is a better match for the target than 'b' by more than 'margin'
+     */
+    protected boolean isBetterRitz( double a , double b , double margin ) {
+        return ritzKey(a,0) < ritzKey(b,0) - margin;
+    }
+
+    /**
+     * Value which is used to sort Ritz values. Smaller values are a better match for the target
+     */
+    private double ritzKey( double re , double im ) {
+        EigenTarget t = shiftInvert ? EigenTarget.LARGEST_MAGNITUDE : target;
+        switch( t ) {
+            case LARGEST_MAGNITUDE: return -magnitude(re,im);
+            case SMALLEST_MAGNITUDE: return magnitude(re,im);
+            case LARGEST_REAL: return -re;
+            case SMALLEST_REAL: return re;
+            default: throw new RuntimeException("Unknown target "+t);
+        }
+    }
+
+    private static double magnitude( double re , double im ) {
+        return im == 0 ? Math.abs(re) : Math.sqrt(re*re + im*im);
+    }
+
+    /**
+     * Returns true if the residual of a Ritz pair is small enough relative to its Ritz value. Testing
+     * against the largest Ritz value instead would accept inaccurate pairs whenever one Ritz value is much
+     * larger than the others, e.g. in shift-invert mode with &sigma; close to an eigenvalue.
+     *
+     * @param residual Norm of the Ritz pair's residual
+     * @param magnitude Magnitude of the Ritz pair's value
+     * @param largest Magnitude of the largest Ritz value
+     */
+    protected boolean isConverged( double residual , double magnitude , double largest ) {
+        return residual <= Math.max(tolerance*magnitude,10*UtilEjml.EPS*largest);
+    }
+
+    protected double norm( double[] d , int offset ) {
+        double sum = 0;
+        for (int p = 0; p < N; p++) {
+            sum += d[offset+p]*d[offset+p];
+        }
+        return Math.sqrt(sum);
+    }
+
+    protected void scale( double alpha , double[] d , int offset ) {
+        for (int p = 0; p < N; p++) {
+            d[offset+p] *= alpha;
+        }
+    }
+
+    /**
+     * Number of eigenvalues which were requested
+     */
+    public int getNumberOfEigenvalues() {
+        return numEigen;
+    }
+
+    /**
+     * Returns the eigenpairs with real eigenvalues in order of how well they match the target
+     */
+    public List<DEigenpair> getEigenpairs() {
+        List<DEigenpair> list = new ArrayList<>();
+        for (int i = 0; i < numEigen; i++) {
+            DMatrixRMaj v = getEigenVector(i);
+            if( v != null )
+                list.add(new DEigenpair(getRealEigenvalue(i),v));
+        }
+        return list;
+    }
+
+    /**
+     * Returns the real component of an eigenvalue
+     */
+    protected abstract double getRealEigenvalue( int index );
+
+    /**
+     * Returns the eigenvector of an eigenvalue. null if the eigenvalue is complex.
+     */
+    public abstract @Nullable DMatrixRMaj getEigenVector( int index );
+
+    /**
+     * Finds the eigenvalues closest to &sigma; by applying the solver to (A - &sigma;I)<sup>-1</sup>.
+     *
+     * @param sigma The shift
+     * @param solver Solver for (A - &sigma;I)x = b. If null a default direct solver is used.
+     */
+    public void setShiftInvert( double sigma , @Nullable LinearSolverSparse<DMatrixSparseCSC,DMatrixRMaj> solver ) {
+        this.shiftInvert = true;
+        this.sigma = sigma;
+        this.userSolver = solver;
+    }
+
+    /**
+     * Turns off shift-invert mode
+     */
+    public void clearShiftInvert() {
+        this.shiftInvert = false;
+        this.userSolver = null;
+        this.solver = null;
+    }
+
+    public boolean isShiftInvert() {
+        return shiftInvert;
+    }
+
+    public double getSigma() {
+        return sigma;
+    }
+
+    /**
+     * The shift which was used in the most recent call to decompose. Same as &sigma; unless A - &sigma;I
+     * was nearly singular.
+     */
+    public double getShift() {
+        return shift;
+    }
+
+    /**
+     * True if all the requested eigenpairs converged in the most recent call to decompose
+     */
+    public boolean isConverged() {
+        return converged;
+    }
+
+    /**
+     * Number of restarts in the most recent call to decompose
+     */
+    public int getRestarts() {
+        return restarts;
+    }
+
+    public int getSubspaceSize() {
+        return subspaceSize;
+    }
+
+    /**
+     * Maximum number of basis vectors. Must be larger than the number of eigenvalues. If &le; 0 then
+     * max(2*numEigen, numEigen+20) is used.
+     */
+    public void setSubspaceSize(int subspaceSize) {
+        this.subspaceSize = subspaceSize;
+    }
+
+    public EigenTarget getTarget() {
+        return target;
+    }
+
+    public void setTarget(EigenTarget target) {
+        this.target = target;
+    }
+
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    public void setTolerance(double tolerance) {
+        this.tolerance = tolerance;
+    }
+
+    public int getMaxRestarts() {
+        return maxRestarts;
+    }
+
+    public void setMaxRestarts(int maxRestarts) {
+        this.maxRestarts = maxRestarts;
+    }
+
+    public void setRandom( Random rand ) {
+        this.rand = rand;
+    }
+
+    /**
+     * The input matrix is not modified
+     */
+    @Override
+    public boolean inputModified() {
+        return false;
+    }
+}
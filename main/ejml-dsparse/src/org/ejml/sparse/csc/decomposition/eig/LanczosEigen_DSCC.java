@@ -0,0 +1,251 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.sparse.csc.decomposition.eig;
+
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.dense.row.factory.DecompositionFactory_DDRM;
+import org.ejml.interfaces.decomposition.EigenDecomposition_F64;
+import org.ejml.interfaces.linsol.LinearSolverSparse;
+import org.ejml.sparse.FillReducing;
+import org.ejml.sparse.csc.factory.LinearSolverFactory_DSCC;
+
+/**
+ * <p>
+ * Thick-restart Lanczos for finding a few eigenvalues and eigenvectors of a large sparse symmetric matrix.
+ * </p>
+ *
+ * <p>
+ * The Lanczos process builds an orthonormal basis V of the Krylov subspace and the projection of the operator
+ * onto it, T = V<sup>T</sup>AV, which is tridiagonal. Once the basis has m vectors the eigenvalues of T
+ * are computed. If the requested Ritz pairs haven't converged the basis is restarted with the best Ritz
+ * vectors, which turns T into a diagonal matrix with an arrow in the last kept row and column, and the
+ * iterations continue from there. The basis is fully reorthogonalized to avoid ghost eigenvalues.
+ * </p>
+ *
+ * <p>
+ * A single Krylov sequence contains only one vector from each eigenspace, so only one copy of a repeated
+ * eigenvalue can be found. After the requested eigenpairs have converged their eigenvectors are locked,
+ * i.e. removed from the operator, and the process is started again from a new random vector which is
+ * orthogonal to them. If it finds an eigenvalue which is a better match than one already found then it
+ * replaces it and the search is repeated. This costs at least one extra run, which usually converges
+ * quickly since only one eigenvalue is requested.
+ * </p>
+ *
+ * <p>
+ * K. Wu and H. Simon, "Thick-restart Lanczos method for large symmetric eigenvalue problems,"
+ * SIAM Journal on Matrix Analysis and Applications, 2000
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class LanczosEigen_DSCC extends KrylovEigen_DSCC {
+
+    // projection of the operator onto the basis
+    private DMatrixRMaj T = new DMatrixRMaj(1,1);
+    private DMatrixRMaj work = new DMatrixRMaj(1,1);
+    private EigenDecomposition_F64<DMatrixRMaj> eig;
+    private int eigSize = -1;
+
+    // Ritz values and their eigenvectors in T
+    private double ritz[] = new double[0];
+    private int order[] = new int[0];
+    private DMatrixRMaj Y = new DMatrixRMaj(1,1);
+    private DMatrixRMaj Yk = new DMatrixRMaj(1,1);
+
+    // the found Ritz values, eigenvalues, and eigenvectors
+    private double thetas[] = new double[0];
+    private double values[] = new double[0];
+    private DMatrixRMaj vectors[] = new DMatrixRMaj[0];
+
+    /**
+     * @param numEigen Number of eigenvalues which are to be found
+     * @param target Which eigenvalues are to be found
+     */
+    public LanczosEigen_DSCC( int numEigen , EigenTarget target ) {
+        super(numEigen,target);
+    }
+
+    @Override
+    protected boolean iterate() {
+        if( ritz.length < m ) {
+            ritz = new double[m];
+            order = new int[m];
+        }
+        if( thetas.length != numEigen ) {
+            thetas = new double[numEigen];
+            values = new double[numEigen];
+            vectors = new DMatrixRMaj[numEigen];
+        }
+
+        int maxBasis = m;
+        boolean success = lanczos(numEigen);
+        saveResults();
+
+        // search the space orthogonal to the found eigenvectors for missed copies of repeated eigenvalues
+        while( success && N > numEigen ) {
+            lock(vectors,numEigen);
+            m = Math.min(maxBasis,N-numLocked);
+            randomOrthogonal(0,0);
+            success = lanczos(1);
+            if( !success )
+                break;
+
+            double theta = ritz[order[0]];
+            double margin = 10*tolerance*Math.max(Math.abs(theta),Math.abs(thetas[numEigen-1]));
+            if( !isBetterRitz(theta,thetas[numEigen-1],margin) )
+                break;
+
+            // insert it into the sorted list and discard the worst
+            int index = numEigen-1;
+            while( index > 0 && isBetterRitz(theta,thetas[index-1],0) ) {
+                thetas[index] = thetas[index-1];
+                vectors[index] = vectors[index-1];
+                index--;
+            }
+            thetas[index] = theta;
+            vectors[index] = ritzVector(Y,order[0]);
+        }
+        numLocked = 0;
+        m = maxBasis;
+
+        for (int i = 0; i < numEigen; i++) {
+            values[i] = shiftInvert ? shift + 1.0/thetas[i] : thetas[i];
+        }
+        return success;
+    }
+
+    /**
+     * Thick-restart Lanczos starting from the first basis vector. The basis is orthogonal to the locked vectors.
+     *
+     * @param wanted Number of Ritz pairs which must converge
+     * @return true if converged
+     */
+    private boolean lanczos( int wanted ) {
+        T.reshape(m,m);
+        T.zero();
+        Y.reshape(m,m);
+        if( eigSize != m ) {
+            eig = DecompositionFactory_DDRM.eig(m,true,true);
+            eigSize = m;
+        }
+
+        int k = 0;
+        while( true ) {
+            double beta = 0;
+            for (int j = k; j < m; j++) {
+                beta = expandBasis(j);
+                T.unsafe_set(j,j,h[j]);
+                if( j+1 < m ) {
+                    T.unsafe_set(j,j+1,beta);
+                    T.unsafe_set(j+1,j,beta);
+                }
+            }
+
+            if( !computeRitz() )
+                return false;
+
+            double largest = 0;
+            for (int i = 0; i < m; i++) {
+                largest = Math.max(largest,Math.abs(ritz[i]));
+            }
+            boolean done = true;
+            for (int i = 0; i < wanted && done; i++) {
+                double theta = ritz[order[i]];
+                done = isConverged(Math.abs(beta*Y.get(m-1,order[i])),Math.abs(theta),largest);
+            }
+
+            if( done || restarts >= maxRestarts || m == N-numLocked )
+                return done;
+            restarts++;
+
+            // keep the wanted Ritz vectors and some extra to speed up convergence
+            k = Math.min(wanted + (m-wanted)/2,m-1);
+            Yk.reshape(m,k);
+            for (int i = 0; i < m; i++) {
+                for (int c = 0; c < k; c++) {
+                    Yk.unsafe_set(i,c,Y.unsafe_get(i,order[c]));
+                }
+            }
+            rotateBasis(Yk,k);
+
+            T.zero();
+            for (int c = 0; c < k; c++) {
+                double s = beta*Yk.unsafe_get(m-1,c);
+                T.unsafe_set(c,c,ritz[order[c]]);
+                T.unsafe_set(c,k,s);
+                T.unsafe_set(k,c,s);
+            }
+        }
+    }
+
+    /**
+     * Computes the eigenvalues and eigenvectors of T and sorts them
+     */
+    private boolean computeRitz() {
+        work.set(T);
+        if( !eig.decompose(work) )
+            return false;
+        for (int i = 0; i < m; i++) {
+            ritz[i] = eig.getEigenvalue(i).real;
+            DMatrixRMaj v = eig.getEigenVector(i);
+            for (int j = 0; j < m; j++) {
+                Y.unsafe_set(j,i,v.data[j]);
+            }
+        }
+        sortRitz(ritz,null,order);
+        return true;
+    }
+
+    private void saveResults() {
+        for (int i = 0; i < numEigen; i++) {
+            thetas[i] = ritz[order[i]];
+            vectors[i] = ritzVector(Y,order[i]);
+        }
+    }
+
+    /**
+     * Uses Cholesky since A - &sigma;I is symmetric. Falls back to LU if it's not positive definite.
+     */
+    @Override
+    protected LinearSolverSparse<DMatrixSparseCSC, DMatrixRMaj> createShiftSolver() {
+        return LinearSolverFactory_DSCC.cholesky(FillReducing.AMD);
+    }
+
+    /**
+     * Returns an eigenvalue. They are ordered by how well they match the target.
+     */
+    public double getEigenvalue( int index ) {
+        return values[index];
+    }
+
+    @Override
+    protected double getRealEigenvalue(int index) {
+        return values[index];
+    }
+
+    /**
+     * Returns the eigenvector with a norm of one which is associated with the eigenvalue at the same index
+     */
+    @Override
+    public DMatrixRMaj getEigenVector(int index) {
+        return vectors[index];
+    }
+}
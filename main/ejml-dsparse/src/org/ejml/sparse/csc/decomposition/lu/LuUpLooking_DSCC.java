@@ -64,7 +64,8 @@ public class LuUpLooking_DSCC
     @Override
     public boolean decompose(DMatrixSparseCSC A) {
         initialize(A);
-        return performLU(applyReduce.apply(A));
+        // rows are selected through partial pivoting, only the column ordering is applied
+        return performLU(applyReduce.applyColumns(A));
     }
 
     private void initialize(DMatrixSparseCSC A) {
@@ -92,7 +93,6 @@ public class LuUpLooking_DSCC
     private boolean performLU(DMatrixSparseCSC A ) {
         int m = A.numRows;
         int n = A.numCols;
-        int q[] = applyReduce.getArrayP();
 
         int[] w = UtilEjml.adjust(gw,m*2, m);
 
@@ -108,8 +108,7 @@ public class LuUpLooking_DSCC
             if( U.nz_length+n > U.nz_values.length )
                 U.growMaxLength(2*U.nz_values.length+n, true);
 
-            int col = q != null ? q[k] : k;
-            int top = TriangularSolver_DSCC.solveColB(L,true,A,col,x,pinv,gxi,w);
+            int top = TriangularSolver_DSCC.solveColB(L,true,A,k,x,pinv,gxi,w);
             int []xi = gxi.data;
 
             //--------- Find the Next Pivot. That will be the row with the largest value
@@ -180,6 +179,8 @@ public class LuUpLooking_DSCC
         // see dense algorithm. There is probably a faster way to compute the sign while decomposing
         // the matrix.
         double value = permutationSign(pinv,U.numCols,gw.data);
+        if( applyReduce.isApplied() )
+            value *= permutationSign(applyReduce.getArrayQ(),U.numCols,gw.data);
         for (int i = 0; i < U.numCols; i++) {
             value *= U.nz_values[U.col_idx[i+1]-1];
         }
@@ -250,8 +251,11 @@ public class LuUpLooking_DSCC
         return applyReduce.getFillReduce();
     }
 
+    /**
+     * Returns the fill reducing column ordering or null if there is none
+     */
     public int[] getReducePermutation() {
-        return applyReduce.getArrayP();
+        return applyReduce.getArrayQ();
     }
 
     @Override
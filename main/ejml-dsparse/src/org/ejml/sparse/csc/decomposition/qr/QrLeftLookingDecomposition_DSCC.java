@@ -27,6 +27,7 @@ import org.ejml.interfaces.decomposition.QRSparseDecomposition;
 import org.ejml.sparse.ComputePermutation;
 import org.ejml.sparse.csc.CommonOps_DSCC;
 import org.ejml.sparse.csc.misc.ApplyFillReductionPermutation;
+import org.ejml.sparse.csc.misc.SymbolicCache_DSCC;
 import org.ejml.sparse.csc.mult.ImplSparseSparseMult_DSCC;
 
 import java.util.Arrays;
@@ -61,6 +62,9 @@ public class QrLeftLookingDecomposition_DSCC implements
     IGrowArray gwork = new IGrowArray();
     DGrowArray gx = new DGrowArray();
 
+    // if not null then the structure is looked up here first
+    SymbolicCache_DSCC symbolicCache;
+
     // if true that means a singular matrix was detected
     boolean singular;
 
@@ -78,11 +82,12 @@ public class QrLeftLookingDecomposition_DSCC implements
 
     @Override
     public boolean decompose(DMatrixSparseCSC A) {
-        DMatrixSparseCSC C = applyReduce.apply(A);
+        // row pivots are computed when the structure is found, only the column ordering is applied
+        DMatrixSparseCSC C = applyReduce.applyColumns(A);
 
         if( !decomposed || !locked ) {
             // compute the structure of V and R
-            if (!structure.process(C))
+            if (!computeStructure(C))
                 return false;
 
             // Initialize data structured used in the decomposition
@@ -96,9 +101,21 @@ public class QrLeftLookingDecomposition_DSCC implements
         return true;
     }
 
+    private boolean computeStructure( DMatrixSparseCSC A ) {
+        int[][] cached = symbolicCache == null ? null : symbolicCache.lookup("qr",A);
+        if( cached != null ) {
+            structure.setResults(A,cached);
+            return true;
+        }
+        if( !structure.process(A) )
+            return false;
+        if( symbolicCache != null )
+            symbolicCache.store("qr",A,structure.copyResults());
+        return true;
+    }
+
     private void performDecomposition(DMatrixSparseCSC A) {
         int w[] = gwork.data;
-        int permCol[] = applyReduce.getArrayQ();
         int parent[] = structure.getParent();
         int leftmost[] = structure.getLeftMost();
         // permutation that was done to ensure all rows have non-zero elements
@@ -120,10 +137,8 @@ public class QrLeftLookingDecomposition_DSCC implements
             w[k] = k;
             V.nz_rows[V.nz_length++] = k;                       // Add V(k,k) to V's pattern
             int top = n;
-            int col = permCol != null ? permCol[k] : k;
-
-            int idx0 = A.col_idx[col];
-            int idx1 = A.col_idx[col+1];
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k+1];
 
             for (int p = idx0; p <idx1 ; p++) {
                 int i = leftmost[A.nz_rows[p]];
@@ -272,8 +287,11 @@ public class QrLeftLookingDecomposition_DSCC implements
         return beta[index];
     }
 
+    /**
+     * Returns the fill reducing column ordering or null if there is none
+     */
     public int[] getFillPermutation() {
-        return applyReduce.getArrayP();
+        return applyReduce.getArrayQ();
     }
 
     public boolean isFillPermutated() {
@@ -284,6 +302,18 @@ public class QrLeftLookingDecomposition_DSCC implements
         return singular;
     }
 
+    public SymbolicCache_DSCC getSymbolicCache() {
+        return symbolicCache;
+    }
+
+    /**
+     * Specifies a cache which the structure of V and R is saved to and looked up from. If null then it
+     * is always computed.
+     */
+    public void setSymbolicCache( SymbolicCache_DSCC symbolicCache ) {
+        this.symbolicCache = symbolicCache;
+    }
+
     @Override
     public void setStructureLocked( boolean locked ) {
         this.locked = locked;
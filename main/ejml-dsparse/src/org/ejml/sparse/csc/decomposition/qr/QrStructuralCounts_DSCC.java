@@ -83,6 +83,27 @@ public class QrStructuralCounts_DSCC {
         return true;
     }
 
+    /**
+     * Copies the results needed by the decomposition so that they can be saved in a cache
+     */
+    int[][] copyResults() {
+        return new int[][]{Arrays.copyOf(parent,n),Arrays.copyOf(leftmost,m),Arrays.copyOf(pinv,m+n),
+                new int[]{m2,nz_in_V,nz_in_R}};
+    }
+
+    /**
+     * Restores the results from {@link #copyResults()} instead of processing A
+     */
+    void setResults( DMatrixSparseCSC A , int[][] results ) {
+        init(A);
+        System.arraycopy(results[0],0,parent,0,n);
+        System.arraycopy(results[1],0,leftmost,0,m);
+        System.arraycopy(results[2],0,pinv,0,m+n);
+        m2 = results[3][0];
+        nz_in_V = results[3][1];
+        nz_in_R = results[3][2];
+    }
+
     /**
      * Initializes data structures
      */
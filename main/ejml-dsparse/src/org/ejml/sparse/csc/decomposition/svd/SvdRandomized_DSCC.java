@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.sparse.csc.decomposition.svd;
+
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.dense.row.decomposition.svd.SvdRandomized_DDRM;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+
+import java.util.Random;
+
+/**
+ * Randomized truncated SVD of a sparse matrix. The sparse matrix is only used in multiplications with
+ * thin dense matrices and the singular vectors are returned as dense matrices.
+ *
+ * @see SvdRandomized_DDRM
+ *
+ * @author Peter Abeles
+ */
+public class SvdRandomized_DSCC extends SvdRandomized_DDRM {
+
+    // the sparse matrix being decomposed
+    private DMatrixSparseCSC S;
+
+    public SvdRandomized_DSCC(int rank, int oversampling, int powerIterations,
+                              boolean computeU, boolean computeV, Random rand) {
+        super(rank, oversampling, powerIterations, computeU, computeV, rand);
+    }
+
+    public SvdRandomized_DSCC(int rank, boolean computeU, boolean computeV) {
+        super(rank, computeU, computeV);
+    }
+
+    /**
+     * Computes the decomposition of a sparse matrix
+     *
+     * @param orig The matrix being decomposed. Not modified.
+     * @return true if successful
+     */
+    public boolean decompose(DMatrixSparseCSC orig) {
+        this.S = orig;
+        boolean success = process(orig.numRows,orig.numCols);
+        this.S = null;
+        return success;
+    }
+
+    @Override
+    protected void multA(DMatrixRMaj B, DMatrixRMaj C) {
+        if( S == null )
+            super.multA(B,C);
+        else
+            CommonOps_DSCC.mult(S,B,C);
+    }
+
+    @Override
+    protected void multTransA(DMatrixRMaj B, DMatrixRMaj C) {
+        if( S == null )
+            super.multTransA(B,C);
+        else
+            CommonOps_DSCC.multTransA(S,B,C);
+    }
+}
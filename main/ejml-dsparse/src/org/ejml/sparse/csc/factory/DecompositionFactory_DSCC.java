@@ -24,9 +24,13 @@ import org.ejml.interfaces.decomposition.LUSparseDecomposition_F64;
 import org.ejml.interfaces.decomposition.QRSparseDecomposition;
 import org.ejml.sparse.ComputePermutation;
 import org.ejml.sparse.FillReducing;
-import org.ejml.sparse.csc.decomposition.chol.CholeskyUpLooking_DSCC;
+import org.ejml.sparse.csc.decomposition.chol.CholeskySupernodal_DSCC;
+import org.ejml.sparse.csc.decomposition.eig.ArnoldiEigen_DSCC;
+import org.ejml.sparse.csc.decomposition.eig.EigenTarget;
+import org.ejml.sparse.csc.decomposition.eig.LanczosEigen_DSCC;
 import org.ejml.sparse.csc.decomposition.lu.LuUpLooking_DSCC;
 import org.ejml.sparse.csc.decomposition.qr.QrLeftLookingDecomposition_DSCC;
+import org.ejml.sparse.csc.decomposition.svd.SvdRandomized_DSCC;
 
 /**
  * Factory for sparse matrix decompositions
@@ -34,8 +38,14 @@ import org.ejml.sparse.csc.decomposition.qr.QrLeftLookingDecomposition_DSCC;
  * @author Peter Abeles
  */
 public class DecompositionFactory_DSCC {
+    /**
+     * Creates a Cholesky decomposition. A supernodal algorithm is used if the matrix's supernodes are wide enough,
+     * otherwise it will use an up looking algorithm.
+     *
+     * @see CholeskySupernodal_DSCC
+     */
     public static CholeskySparseDecomposition_F64 cholesky() {
-        return new CholeskyUpLooking_DSCC();
+        return new CholeskySupernodal_DSCC();
     }
 
     public static QRSparseDecomposition<DMatrixSparseCSC> qr(FillReducing permutation) {
@@ -47,4 +57,31 @@ public class DecompositionFactory_DSCC {
         ComputePermutation<DMatrixSparseCSC> cp = FillReductionFactory_DSCC.create(permutation);
         return new LuUpLooking_DSCC(cp);
     }
+
+    /**
+     * Creates a randomized SVD which approximates the largest singular values and their singular vectors.
+     *
+     * @see SvdRandomized_DSCC
+     */
+    public static SvdRandomized_DSCC svdRandomized(int rank , boolean needU , boolean needV ) {
+        return new SvdRandomized_DSCC(rank,needU,needV);
+    }
+
+    /**
+     * Creates an iterative eigen solver for large sparse symmetric matrices which finds a few eigenvalues.
+     *
+     * @see LanczosEigen_DSCC
+     */
+    public static LanczosEigen_DSCC eigSymmetric( int numEigen , EigenTarget target ) {
+        return new LanczosEigen_DSCC(numEigen,target);
+    }
+
+    /**
+     * Creates an iterative eigen solver for large sparse general matrices which finds a few eigenvalues.
+     *
+     * @see ArnoldiEigen_DSCC
+     */
+    public static ArnoldiEigen_DSCC eig( int numEigen , EigenTarget target ) {
+        return new ArnoldiEigen_DSCC(numEigen,target);
+    }
 }
@@ -23,6 +23,7 @@ import org.ejml.data.DMatrixSparseCSC;
 import org.ejml.data.IGrowArray;
 import org.ejml.sparse.ComputePermutation;
 import org.ejml.sparse.FillReducing;
+import org.ejml.sparse.csc.misc.ApproximateMinimumDegree_DSCC;
 
 import java.util.Random;
 
@@ -37,6 +38,9 @@ public class FillReductionFactory_DSCC {
             case NONE:
                 return null;
 
+            case AMD:
+                return new ApproximateMinimumDegree_DSCC();
+
             case RANDOM:
                 return new ComputePermutation<DMatrixSparseCSC>(true,true) {
                     @Override
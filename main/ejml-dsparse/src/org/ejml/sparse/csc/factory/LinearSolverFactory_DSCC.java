@@ -27,30 +27,98 @@ import org.ejml.sparse.csc.decomposition.chol.CholeskyUpLooking_DSCC;
 import org.ejml.sparse.csc.decomposition.lu.LuUpLooking_DSCC;
 import org.ejml.sparse.csc.decomposition.qr.QrLeftLookingDecomposition_DSCC;
 import org.ejml.sparse.csc.linsol.chol.LinearSolverCholesky_DSCC;
+import org.ejml.sparse.csc.linsol.iterative.LinearSolverBiCGStab_DSCC;
+import org.ejml.sparse.csc.linsol.iterative.LinearSolverCG_DSCC;
+import org.ejml.sparse.csc.linsol.iterative.LinearSolverGmres_DSCC;
+import org.ejml.sparse.csc.linsol.iterative.LinearSolverMinres_DSCC;
+import org.ejml.sparse.csc.linsol.iterative.PreconditionerJacobi_DSCC;
+import org.ejml.sparse.csc.linsol.iterative.Preconditioner_DSCC;
 import org.ejml.sparse.csc.linsol.lu.LinearSolverLu_DSCC;
 import org.ejml.sparse.csc.linsol.qr.LinearSolverQrLeftLooking_DSCC;
+import org.ejml.sparse.csc.misc.CachedPermutation_DSCC;
+import org.ejml.sparse.csc.misc.SymbolicCache_DSCC;
 
 /**
- * Factory for sparse linear solvers
+ * Factory for sparse linear solvers. The results of symbolic analysis, i.e. fill reducing permutations and
+ * structure, are shared between solvers through {@link SymbolicCache_DSCC#getGlobal()}. Set its budget to zero
+ * to disable it.
  *
  * @author Peter Abeles
  */
 public class LinearSolverFactory_DSCC {
+    /**
+     * Creates a Cholesky solver for symmetric positive definite matrices using the default fill reducing
+     * permutation, {@link FillReducing#AMD}.
+     */
+    public static LinearSolverSparse<DMatrixSparseCSC,DMatrixRMaj> cholesky() {
+        return cholesky(FillReducing.AMD);
+    }
+
     public static LinearSolverSparse<DMatrixSparseCSC,DMatrixRMaj> cholesky(FillReducing permutation) {
-        ComputePermutation<DMatrixSparseCSC> cp = FillReductionFactory_DSCC.create(permutation);
+        ComputePermutation<DMatrixSparseCSC> cp = createPermutation(permutation);
         CholeskyUpLooking_DSCC chol = (CholeskyUpLooking_DSCC)DecompositionFactory_DSCC.cholesky();
+        chol.setSymbolicCache(SymbolicCache_DSCC.getGlobal());
         return new LinearSolverCholesky_DSCC(chol,cp);
     }
 
     public static LinearSolverSparse<DMatrixSparseCSC,DMatrixRMaj> qr(FillReducing permutation) {
-        ComputePermutation<DMatrixSparseCSC> cp = FillReductionFactory_DSCC.create(permutation);
+        ComputePermutation<DMatrixSparseCSC> cp = createPermutation(permutation);
         QrLeftLookingDecomposition_DSCC qr = new QrLeftLookingDecomposition_DSCC(cp);
+        qr.setSymbolicCache(SymbolicCache_DSCC.getGlobal());
         return new LinearSolverQrLeftLooking_DSCC(qr);
     }
 
     public static LinearSolverSparse<DMatrixSparseCSC,DMatrixRMaj> lu(FillReducing permutation) {
-        ComputePermutation<DMatrixSparseCSC> cp = FillReductionFactory_DSCC.create(permutation);
+        // rows are selected by partial pivoting so only the fill reducing permutation can be cached
+        ComputePermutation<DMatrixSparseCSC> cp = createPermutation(permutation);
         LuUpLooking_DSCC lu = new LuUpLooking_DSCC(cp);
         return new LinearSolverLu_DSCC(lu);
     }
+
+    /**
+     * Creates an iterative conjugate gradient solver for symmetric positive definite matrices.
+     *
+     * @param preconditioner Preconditioner, e.g. {@link PreconditionerJacobi_DSCC}. Can be null.
+     */
+    public static LinearSolverCG_DSCC conjugateGradient( Preconditioner_DSCC preconditioner ) {
+        return new LinearSolverCG_DSCC(preconditioner);
+    }
+
+    /**
+     * Creates an iterative MINRES solver for symmetric matrices, which can be indefinite.
+     *
+     * @param preconditioner Symmetric positive definite preconditioner. Can be null.
+     */
+    public static LinearSolverMinres_DSCC minres( Preconditioner_DSCC preconditioner ) {
+        return new LinearSolverMinres_DSCC(preconditioner);
+    }
+
+    /**
+     * Creates an iterative restarted GMRES solver for general square matrices.
+     *
+     * @param restart Number of iterations before restarting. Memory is proportional to restart*N.
+     * @param preconditioner Preconditioner. Can be null.
+     */
+    public static LinearSolverGmres_DSCC gmres( int restart , Preconditioner_DSCC preconditioner ) {
+        return new LinearSolverGmres_DSCC(restart,preconditioner);
+    }
+
+    /**
+     * Creates an iterative BiCGSTAB solver for general square matrices.
+     *
+     * @param preconditioner Preconditioner. Can be null.
+     */
+    public static LinearSolverBiCGStab_DSCC bicgstab( Preconditioner_DSCC preconditioner ) {
+        return new LinearSolverBiCGStab_DSCC(preconditioner);
+    }
+
+    /**
+     * Creates the fill reducing permutation and looks it up in the global cache, unless it's random
+     */
+    private static ComputePermutation<DMatrixSparseCSC> createPermutation( FillReducing permutation ) {
+        ComputePermutation<DMatrixSparseCSC> cp = FillReductionFactory_DSCC.create(permutation);
+        if( cp == null || permutation == FillReducing.RANDOM )
+            return cp;
+        return new CachedPermutation_DSCC(cp,permutation.name(),SymbolicCache_DSCC.getGlobal());
+    }
 }
@@ -48,6 +48,8 @@ public class LinearSolverCholesky_DSCC implements LinearSolverSparse<DMatrixSpar
     IGrowArray gw = new IGrowArray();
 
     DMatrixSparseCSC tmp = new DMatrixSparseCSC(1,1,1);
+    DMatrixSparseCSC Bp = new DMatrixSparseCSC(1,1,1);
+    DMatrixSparseCSC Cp = new DMatrixSparseCSC(1,1,1);
 
     public LinearSolverCholesky_DSCC(CholeskyUpLooking_DSCC cholesky , ComputePermutation<DMatrixSparseCSC> fillReduce) {
         this.cholesky = cholesky;
@@ -74,8 +76,52 @@ public class LinearSolverCholesky_DSCC implements LinearSolverSparse<DMatrixSpar
         tmp.reshape(L.numRows,B.numCols,1);
         int[] Pinv = reduce.getArrayPinv();
 
-        TriangularSolver_DSCC.solve(L,true,B,tmp,Pinv,gx,gw,gw1);
-        TriangularSolver_DSCC.solveTran(L,true,tmp,X,null,gx,gw,gw1);
+        if( Pinv != null ) {
+            // solve P*A*P' * (P*x) = P*b
+            CommonOps_DSCC.permuteRowInv(Pinv,B,Bp);
+            TriangularSolver_DSCC.solve(L,true,Bp,tmp,null,gx,gw,gw1);
+            TriangularSolver_DSCC.solveTran(L,true,tmp,Bp,null,gx,gw,gw1);
+            CommonOps_DSCC.permuteRowInv(reduce.getArrayP(),Bp,X);
+        } else {
+            TriangularSolver_DSCC.solve(L,true,B,tmp,null,gx,gw,gw1);
+            TriangularSolver_DSCC.solveTran(L,true,tmp,X,null,gx,gw,gw1);
+        }
+    }
+
+    /**
+     * Rank-1 update of the decomposition so that it now solves A + c*c<sup>T</sup>.
+     *
+     * @see CholeskyUpLooking_DSCC#update
+     *
+     * @param c Sparse column vector. Not modified.
+     * @return true if successful
+     */
+    public boolean update( DMatrixSparseCSC c ) {
+        return cholesky.update(permute(c));
+    }
+
+    /**
+     * Rank-1 downdate of the decomposition so that it now solves A - c*c<sup>T</sup>. If false is returned
+     * then {@link #setA} must be called again.
+     *
+     * @see CholeskyUpLooking_DSCC#downdate
+     *
+     * @param c Sparse column vector. Not modified.
+     * @return true if successful
+     */
+    public boolean downdate( DMatrixSparseCSC c ) {
+        return cholesky.downdate(permute(c));
+    }
+
+    /**
+     * Applies the fill reducing permutation to the vector, if there is one
+     */
+    private DMatrixSparseCSC permute( DMatrixSparseCSC c ) {
+        int[] Pinv = reduce.getArrayPinv();
+        if( Pinv == null )
+            return c;
+        CommonOps_DSCC.permuteRowInv(Pinv,c,Cp);
+        return Cp;
     }
 
     @Override
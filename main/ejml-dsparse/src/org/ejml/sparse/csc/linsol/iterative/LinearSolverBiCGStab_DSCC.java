@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.sparse.csc.linsol.iterative;
+
+import org.ejml.data.DGrowArray;
+import org.ejml.sparse.csc.mult.MatrixVectorMult_DSCC;
+
+import static org.ejml.UtilEjml.adjust;
+
+/**
+ * <p>
+ * Biconjugate gradient stabilized method (BiCGSTAB) for general square matrices with a right preconditioner.
+ * Unlike GMRES the memory used doesn't grow with the number of iterations. Each iteration has two half steps
+ * and the residual of each is saved in the convergence history.
+ * </p>
+ *
+ * <p>See "Bi-CGSTAB: A fast and smoothly converging variant of Bi-CG" by H. A. van der Vorst, 1992</p>
+ *
+ * @author Peter Abeles
+ */
+public class LinearSolverBiCGStab_DSCC extends LinearSolverIterative_DSCC {
+
+    DGrowArray gr = new DGrowArray();
+    DGrowArray grhat = new DGrowArray();
+    DGrowArray gp = new DGrowArray();
+    DGrowArray gv = new DGrowArray();
+    DGrowArray gphat = new DGrowArray();
+    DGrowArray gs = new DGrowArray();
+    DGrowArray gshat = new DGrowArray();
+    DGrowArray gt = new DGrowArray();
+
+    public LinearSolverBiCGStab_DSCC( Preconditioner_DSCC preconditioner ) {
+        super(preconditioner);
+    }
+
+    public LinearSolverBiCGStab_DSCC() {
+        this(null);
+    }
+
+    @Override
+    protected void declareWork(int N) {
+        adjust(gr,N);
+        adjust(grhat,N);
+        adjust(gp,N);
+        adjust(gv,N);
+        adjust(gphat,N);
+        adjust(gs,N);
+        adjust(gshat,N);
+        adjust(gt,N);
+    }
+
+    @Override
+    protected boolean solve(double[] b, double[] x) {
+        int N = A.numCols;
+        double[] r = gr.data, rhat = grhat.data, p = gp.data, v = gv.data;
+        double[] phat = gphat.data, s = gs.data, shat = gshat.data, t = gt.data;
+
+        double normB = norm(b,N);
+        if( normB == 0 )
+            return true;
+
+        // x = 0 so r = b
+        System.arraycopy(b,0,r,0,N);
+        System.arraycopy(b,0,rhat,0,N);
+
+        double rho = 1, alpha = 1, omega = 1;
+        boolean first = true;
+
+        while( history.length < maxIterations ) {
+            double rhoNext = dot(rhat,r,N);
+            if( rhoNext == 0 )
+                return false; // breakdown
+
+            if( first ) {
+                System.arraycopy(r,0,p,0,N);
+                first = false;
+            } else {
+                double beta = (rhoNext/rho)*(alpha/omega);
+                for (int i = 0; i < N; i++) {
+                    p[i] = r[i] + beta*(p[i] - omega*v[i]);
+                }
+            }
+            rho = rhoNext;
+
+            precondition(p,phat);
+            MatrixVectorMult_DSCC.mult(A,phat,0,v,0);
+            double rv = dot(rhat,v,N);
+            if( rv == 0 )
+                return false; // breakdown
+            alpha = rho/rv;
+
+            // s = r - alpha*v
+            for (int i = 0; i < N; i++) {
+                s[i] = r[i] - alpha*v[i];
+            }
+            addScaled(alpha,phat,x,N);
+            if( checkConverged(norm(s,N),normB) )
+                return true;
+            if( history.length >= maxIterations )
+                return false;
+
+            precondition(s,shat);
+            MatrixVectorMult_DSCC.mult(A,shat,0,t,0);
+            double tt = dot(t,t,N);
+            if( tt == 0 )
+                return false; // breakdown
+            omega = dot(t,s,N)/tt;
+
+            // r = s - omega*t
+            addScaled(omega,shat,x,N);
+            for (int i = 0; i < N; i++) {
+                r[i] = s[i] - omega*t[i];
+            }
+            if( checkConverged(norm(r,N),normB) )
+                return true;
+            if( omega == 0 )
+                return false; // breakdown
+        }
+        return false;
+    }
+}
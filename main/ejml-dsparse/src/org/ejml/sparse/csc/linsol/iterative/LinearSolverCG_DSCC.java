@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.sparse.csc.linsol.iterative;
+
+import org.ejml.data.DGrowArray;
+import org.ejml.sparse.csc.mult.MatrixVectorMult_DSCC;
+
+import static org.ejml.UtilEjml.adjust;
+
+/**
+ * <p>
+ * Preconditioned conjugate gradient method. A must be symmetric positive definite and so must the
+ * preconditioner.
+ * </p>
+ *
+ * <p>See Algorithm 10.3.1 in "Matrix Computations" 3rd Ed. by Golub and Van Loan</p>
+ *
+ * @author Peter Abeles
+ */
+public class LinearSolverCG_DSCC extends LinearSolverIterative_DSCC {
+
+    DGrowArray gr = new DGrowArray();
+    DGrowArray gz = new DGrowArray();
+    DGrowArray gp = new DGrowArray();
+    DGrowArray gq = new DGrowArray();
+
+    public LinearSolverCG_DSCC( Preconditioner_DSCC preconditioner ) {
+        super(preconditioner);
+    }
+
+    public LinearSolverCG_DSCC() {
+        this(null);
+    }
+
+    @Override
+    protected void declareWork(int N) {
+        adjust(gr,N);
+        adjust(gz,N);
+        adjust(gp,N);
+        adjust(gq,N);
+    }
+
+    @Override
+    protected boolean solve(double[] b, double[] x) {
+        int N = A.numCols;
+        double[] r = gr.data, z = gz.data, p = gp.data, q = gq.data;
+
+        double normB = norm(b,N);
+        if( normB == 0 )
+            return true;
+
+        // x = 0 so r = b
+        System.arraycopy(b,0,r,0,N);
+        precondition(r,z);
+        System.arraycopy(z,0,p,0,N);
+        double rz = dot(r,z,N);
+
+        while( history.length < maxIterations ) {
+            MatrixVectorMult_DSCC.mult(A,p,0,q,0);
+            double pq = dot(p,q,N);
+            if( pq <= 0 )
+                return false; // not positive definite
+            double alpha = rz/pq;
+            addScaled(alpha,p,x,N);
+            addScaled(-alpha,q,r,N);
+
+            if( checkConverged(norm(r,N),normB) )
+                return true;
+
+            precondition(r,z);
+            double rzNext = dot(r,z,N);
+            double beta = rzNext/rz;
+            rz = rzNext;
+            for (int i = 0; i < N; i++) {
+                p[i] = z[i] + beta*p[i];
+            }
+        }
+        return false;
+    }
+}
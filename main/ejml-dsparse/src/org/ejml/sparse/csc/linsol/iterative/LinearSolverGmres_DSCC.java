@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.sparse.csc.linsol.iterative;
+
+import org.ejml.data.DGrowArray;
+import org.ejml.sparse.csc.mult.MatrixVectorMult_DSCC;
+
+import java.util.Arrays;
+
+import static org.ejml.UtilEjml.adjust;
+
+/**
+ * <p>
+ * Restarted generalized minimal residual method, GMRES(m), for general square matrices. The Arnoldi basis is
+ * orthogonalized with modified Gram-Schmidt and the least-squares problem is updated with Givens rotations.
+ * A right preconditioner is used so the residual being minimized is the true residual.
+ * </p>
+ *
+ * <p>
+ * Memory grows with the restart length since the basis of m+1 vectors of length N is saved.
+ * </p>
+ *
+ * <p>See Algorithm 6.10 in "Iterative Methods for Sparse Linear Systems" 2nd Ed. by Yousef Saad</p>
+ *
+ * @author Peter Abeles
+ */
+public class LinearSolverGmres_DSCC extends LinearSolverIterative_DSCC {
+
+    // number of iterations before restarting
+    int restart;
+
+    // Arnoldi basis. Each row is a vector
+    DGrowArray gV = new DGrowArray();
+    // upper Hessenberg matrix, (m+1) by m, row major
+    DGrowArray gH = new DGrowArray();
+    // Givens rotations
+    double[] cs = new double[0];
+    double[] sn = new double[0];
+    // right hand side of the least-squares problem
+    double[] g = new double[0];
+
+    DGrowArray gr = new DGrowArray();
+    DGrowArray gz = new DGrowArray();
+    DGrowArray gw = new DGrowArray();
+
+    /**
+     * @param restart Number of iterations before it's restarted. Try 30.
+     * @param preconditioner Preconditioner. Can be null.
+     */
+    public LinearSolverGmres_DSCC( int restart , Preconditioner_DSCC preconditioner ) {
+        super(preconditioner);
+        if( restart <= 0 )
+            throw new IllegalArgumentException("restart must be more than zero");
+        this.restart = restart;
+    }
+
+    public LinearSolverGmres_DSCC() {
+        this(30,null);
+    }
+
+    @Override
+    protected void declareWork(int N) {
+        int m = restart;
+        adjust(gV,(m+1)*N);
+        adjust(gH,(m+1)*m);
+        if( g.length != m+1 ) {
+            cs = new double[m];
+            sn = new double[m];
+            g = new double[m+1];
+        }
+        adjust(gr,N);
+        adjust(gz,N);
+        adjust(gw,N);
+    }
+
+    @Override
+    protected boolean solve(double[] b, double[] x) {
+        int N = A.numCols;
+        int m = restart;
+        double[] V = gV.data, H = gH.data;
+        double[] r = gr.data, z = gz.data, w = gw.data;
+
+        double normB = norm(b,N);
+        if( normB == 0 )
+            return true;
+
+        while( history.length < maxIterations ) {
+            // r = b - A*x
+            MatrixVectorMult_DSCC.mult(A,x,0,r,0);
+            for (int i = 0; i < N; i++) {
+                r[i] = b[i] - r[i];
+            }
+            double beta = norm(r,N);
+            if( beta/normB <= tolerance )
+                return true;
+
+            for (int i = 0; i < N; i++) {
+                V[i] = r[i]/beta;
+            }
+            Arrays.fill(g,0);
+            g[0] = beta;
+
+            boolean done = false;
+            int j = 0;
+            while( j < m && history.length < maxIterations ) {
+                // w = A*inv(M)*v_j
+                System.arraycopy(V,j*N,r,0,N);
+                precondition(r,z);
+                MatrixVectorMult_DSCC.mult(A,z,0,w,0);
+
+                // orthogonalize against the previous basis vectors
+                for (int i = 0; i <= j; i++) {
+                    int offset = i*N;
+                    double h = 0;
+                    for (int k = 0; k < N; k++) {
+                        h += w[k]*V[offset+k];
+                    }
+                    for (int k = 0; k < N; k++) {
+                        w[k] -= h*V[offset+k];
+                    }
+                    H[i*m+j] = h;
+                }
+                double hNext = norm(w,N);
+                H[(j+1)*m+j] = hNext;
+                if( hNext != 0 ) {
+                    int offset = (j+1)*N;
+                    for (int k = 0; k < N; k++) {
+                        V[offset+k] = w[k]/hNext;
+                    }
+                }
+
+                // apply the previous rotations to the new column
+                for (int i = 0; i < j; i++) {
+                    double h0 = H[i*m+j], h1 = H[(i+1)*m+j];
+                    H[i*m+j]     =  cs[i]*h0 + sn[i]*h1;
+                    H[(i+1)*m+j] = -sn[i]*h0 + cs[i]*h1;
+                }
+
+                // rotation which zeros the sub diagonal element
+                double h0 = H[j*m+j];
+                double d = Math.hypot(h0,hNext);
+                if( d == 0 ) {
+                    cs[j] = 1; sn[j] = 0;
+                } else {
+                    cs[j] = h0/d; sn[j] = hNext/d;
+                }
+                H[j*m+j] = d;
+                H[(j+1)*m+j] = 0;
+                g[j+1] = -sn[j]*g[j];
+                g[j] = cs[j]*g[j];
+                j++;
+
+                if( checkConverged(Math.abs(g[j]),normB) || hNext == 0 ) {
+                    done = true;
+                    break;
+                }
+            }
+
+            // solve the upper triangular system, H*y = g, y is written into g
+            for (int i = j-1; i >= 0; i--) {
+                double sum = g[i];
+                for (int k = i+1; k < j; k++) {
+                    sum -= H[i*m+k]*g[k];
+                }
+                g[i] = H[i*m+i] == 0 ? 0 : sum/H[i*m+i];
+            }
+
+            // x = x + inv(M)*V*y
+            Arrays.fill(r,0,N,0);
+            for (int i = 0; i < j; i++) {
+                int offset = i*N;
+                double y = g[i];
+                for (int k = 0; k < N; k++) {
+                    r[k] += y*V[offset+k];
+                }
+            }
+            precondition(r,z);
+            addScaled(1.0,z,x,N);
+
+            if( done )
+                return history.data[history.length-1] <= tolerance;
+        }
+        return false;
+    }
+
+    public int getRestart() {
+        return restart;
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.sparse.csc.linsol.iterative;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.interfaces.decomposition.DecompositionInterface;
+import org.ejml.interfaces.linsol.LinearSolverSparse;
+import org.ejml.ops.ConvertDMatrixStruct;
+
+import static org.ejml.UtilEjml.adjust;
+
+/**
+ * <p>
+ * Base class for iterative Krylov subspace solvers of A*x=b. Unlike the direct solvers the matrix is not
+ * decomposed and only matrix-vector products with A are needed, so memory use is a few vectors of length N.
+ * Each column in B is solved independently with an initial guess of zero.
+ * </p>
+ *
+ * <p>
+ * Iterations stop once the relative residual norm, |b-A*x|/|b|, is at or below the tolerance or the maximum
+ * number of iterations has been reached. The relative residual after each iteration is saved in the
+ * convergence history, for the most recently solved column. All workspace is declared before iterating
+ * starts.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public abstract class LinearSolverIterative_DSCC implements LinearSolverSparse<DMatrixSparseCSC,DMatrixRMaj> {
+    protected DMatrixSparseCSC A;
+    // if null then no preconditioner is used
+    protected Preconditioner_DSCC preconditioner;
+
+    // relative residual which is considered converged
+    protected double tolerance = 1e-8;
+    protected int maxIterations = 1000;
+
+    // relative residual after each iteration
+    protected DGrowArray history = new DGrowArray();
+    // true if all the columns converged
+    protected boolean converged;
+    // largest final relative residual across all the columns. NaN if nothing has been solved
+    protected double finalResidual = Double.NaN;
+
+    // storage for a column in B and X
+    DGrowArray gb = new DGrowArray();
+    DGrowArray gx = new DGrowArray();
+    DMatrixRMaj denseB = new DMatrixRMaj(1,1);
+    DMatrixRMaj denseX = new DMatrixRMaj(1,1);
+
+    protected LinearSolverIterative_DSCC( Preconditioner_DSCC preconditioner ) {
+        this.preconditioner = preconditioner;
+    }
+
+    @Override
+    public boolean setA(DMatrixSparseCSC A) {
+        if( A.numRows != A.numCols )
+            throw new MatrixDimensionException("Must be a square matrix");
+        this.A = A;
+        finalResidual = Double.NaN;
+        if( preconditioner != null )
+            preconditioner.setA(A);
+        declareWork(A.numCols);
+        return true;
+    }
+
+    /**
+     * Declares the workspace needed by the solver
+     */
+    protected abstract void declareWork( int N );
+
+    /**
+     * Solves A*x = b, x is initially zero
+     *
+     * @return true if converged
+     */
+    protected abstract boolean solve( double[] b , double[] x );
+
+    @Override
+    public void solve(DMatrixRMaj B, DMatrixRMaj X) {
+        if( B.numRows != A.numRows )
+            throw new MatrixDimensionException("Number of rows in B must match A");
+        X.reshape(A.numCols,B.numCols);
+        int N = A.numCols;
+
+        double[] b = adjust(gb,N);
+        double[] x = adjust(gx,N);
+        history.reshape(maxIterations+1);
+
+        converged = true;
+        finalResidual = 0;
+        for (int col = 0; col < B.numCols; col++) {
+            int index = col;
+            for( int i = 0; i < N; i++ , index += B.numCols ) b[i] = B.data[index];
+
+            history.length = 0;
+            for (int i = 0; i < N; i++) {
+                x[i] = 0;
+            }
+            converged &= solve(b,x);
+            if( history.length > 0 )
+                finalResidual = Math.max(finalResidual,history.data[history.length-1]);
+
+            index = col;
+            for( int i = 0; i < N; i++ , index += X.numCols ) X.data[index] = x[i];
+        }
+    }
+
+    @Override
+    public void solveSparse(DMatrixSparseCSC B, DMatrixSparseCSC X) {
+        ConvertDMatrixStruct.convert(B,denseB);
+        solve(denseB,denseX);
+        ConvertDMatrixStruct.convert(denseX,X,0);
+    }
+
+    /**
+     * Saves the relative residual for the current iteration and checks for convergence
+     *
+     * @return true if converged
+     */
+    protected boolean checkConverged( double residual , double normB ) {
+        double relative = residual/normB;
+        history.data[history.length++] = relative;
+        return relative <= tolerance;
+    }
+
+    /**
+     * z = M<sup>-1</sup>*r
+     */
+    protected void precondition( double[] r , double[] z ) {
+        if( preconditioner == null )
+            System.arraycopy(r,0,z,0,A.numCols);
+        else
+            preconditioner.apply(r,z);
+    }
+
+    protected static double dot( double[] a , double[] b , int N ) {
+        double sum = 0;
+        for (int i = 0; i < N; i++) {
+            sum += a[i]*b[i];
+        }
+        return sum;
+    }
+
+    protected static double norm( double[] a , int N ) {
+        return Math.sqrt(dot(a,a,N));
+    }
+
+    /**
+     * y = y + alpha*x
+     */
+    protected static void addScaled( double alpha , double[] x , double[] y , int N ) {
+        for (int i = 0; i < N; i++) {
+            y[i] += alpha*x[i];
+        }
+    }
+
+    /**
+     * Not supported.  A is never decomposed so there's no quick measure of how singular it is.  See
+     * {@link #getFinalResidual()} for the accuracy of the most recent solution.
+     */
+    @Override
+    public double quality() {
+        throw new IllegalArgumentException("Not supported by iterative solvers. See getFinalResidual()");
+    }
+
+    /**
+     * Iterative solvers have no structure to lock. Does nothing.
+     */
+    @Override
+    public void setStructureLocked(boolean locked) {}
+
+    @Override
+    public boolean isStructureLocked() {
+        return false;
+    }
+
+    @Override
+    public boolean modifiesA() {
+        return false;
+    }
+
+    @Override
+    public boolean modifiesB() {
+        return false;
+    }
+
+    @Override
+    public <D extends DecompositionInterface> D getDecomposition() {
+        return null;
+    }
+
+    /**
+     * Relative residual norm after each iteration for the most recently solved column in B
+     */
+    public DGrowArray getHistory() {
+        return history;
+    }
+
+    /**
+     * Largest relative residual norm, |b-A*x|/|b|, at the final iteration across all the columns in B in the
+     * most recent call to solve, as estimated by the solver. Smaller is better. Zero columns in B have a
+     * residual of zero.  See {@link #getHistory()} for every iteration.
+     *
+     * @return Largest final relative residual or NaN if solve hasn't been called since A was set.
+     */
+    public double getFinalResidual() {
+        return finalResidual;
+    }
+
+    /**
+     * True if every column converged in the most recent call to solve
+     */
+    public boolean isConverged() {
+        return converged;
+    }
+
+    /**
+     * Number of iterations for the most recently solved column in B
+     */
+    public int getIterations() {
+        return history.length;
+    }
+
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    public void setTolerance(double tolerance) {
+        this.tolerance = tolerance;
+    }
+
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    public void setMaxIterations(int maxIterations) {
+        this.maxIterations = maxIterations;
+    }
+
+    public Preconditioner_DSCC getPreconditioner() {
+        return preconditioner;
+    }
+
+    public void setPreconditioner(Preconditioner_DSCC preconditioner) {
+        this.preconditioner = preconditioner;
+        if( preconditioner != null && A != null )
+            preconditioner.setA(A);
+    }
+}
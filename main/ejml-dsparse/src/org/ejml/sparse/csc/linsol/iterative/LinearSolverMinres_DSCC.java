@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.sparse.csc.linsol.iterative;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DGrowArray;
+import org.ejml.sparse.csc.mult.MatrixVectorMult_DSCC;
+
+import java.util.Arrays;
+
+import static org.ejml.UtilEjml.adjust;
+
+/**
+ * <p>
+ * Preconditioned minimum residual method (MINRES) for symmetric matrices, which can be indefinite.
+ * The preconditioner must be symmetric positive definite.
+ * </p>
+ *
+ * <p>
+ * The residual is estimated from the Lanczos recurrence instead of being explicitly computed. When a
+ * preconditioner is used the estimate is of |r|<sub>M<sup>-1</sup></sub>/|b|<sub>M<sup>-1</sup></sub>.
+ * </p>
+ *
+ * <p>See "Solution of sparse indefinite systems of linear equations" by Paige and Saunders, 1975</p>
+ *
+ * @author Peter Abeles
+ */
+public class LinearSolverMinres_DSCC extends LinearSolverIterative_DSCC {
+
+    DGrowArray gr1 = new DGrowArray();
+    DGrowArray gr2 = new DGrowArray();
+    DGrowArray gy = new DGrowArray();
+    DGrowArray gv = new DGrowArray();
+    DGrowArray gw = new DGrowArray();
+    DGrowArray gw1 = new DGrowArray();
+    DGrowArray gw2 = new DGrowArray();
+
+    public LinearSolverMinres_DSCC( Preconditioner_DSCC preconditioner ) {
+        super(preconditioner);
+    }
+
+    public LinearSolverMinres_DSCC() {
+        this(null);
+    }
+
+    @Override
+    protected void declareWork(int N) {
+        adjust(gr1,N);
+        adjust(gr2,N);
+        adjust(gy,N);
+        adjust(gv,N);
+        adjust(gw,N);
+        adjust(gw1,N);
+        adjust(gw2,N);
+    }
+
+    @Override
+    protected boolean solve(double[] b, double[] x) {
+        int N = A.numCols;
+        double[] r1 = gr1.data, r2 = gr2.data, y = gy.data, v = gv.data;
+        double[] w = gw.data, w1 = gw1.data, w2 = gw2.data;
+
+        // x = 0 so r = b
+        System.arraycopy(b,0,r1,0,N);
+        precondition(r1,y);
+        double beta1 = dot(r1,y,N);
+        if( beta1 < 0 )
+            return false; // preconditioner isn't positive definite
+        if( beta1 == 0 )
+            return true;
+        beta1 = Math.sqrt(beta1);
+
+        System.arraycopy(r1,0,r2,0,N);
+        Arrays.fill(w,0,N,0);
+        Arrays.fill(w2,0,N,0);
+
+        double oldb = 0, beta = beta1, dbar = 0, epsln = 0, phibar = beta1;
+        double cs = -1, sn = 0;
+
+        while( history.length < maxIterations ) {
+            //----- Lanczos step
+            double s = 1.0/beta;
+            for (int i = 0; i < N; i++) {
+                v[i] = s*y[i];
+            }
+            MatrixVectorMult_DSCC.mult(A,v,0,y,0);
+            if( history.length > 0 )
+                addScaled(-beta/oldb,r1,y,N);
+            double alpha = dot(v,y,N);
+            addScaled(-alpha/beta,r2,y,N);
+
+            // r1 = r2, r2 = y, y = inv(M)*r2
+            double[] tmp = r1; r1 = r2; r2 = y; y = tmp;
+            precondition(r2,y);
+            oldb = beta;
+            beta = dot(r2,y,N);
+            if( beta < 0 )
+                return false;
+            beta = Math.sqrt(beta);
+
+            //----- Apply the previous rotation and compute the next one
+            double oldeps = epsln;
+            double delta = cs*dbar + sn*alpha;
+            double gbar = sn*dbar - cs*alpha;
+            epsln = sn*beta;
+            dbar = -cs*beta;
+
+            double gamma = Math.max(Math.hypot(gbar,beta),UtilEjml.EPS);
+            cs = gbar/gamma;
+            sn = beta/gamma;
+            double phi = cs*phibar;
+            phibar = sn*phibar;
+
+            //----- Update the solution
+            tmp = w1; w1 = w2; w2 = w; w = tmp;
+            for (int i = 0; i < N; i++) {
+                w[i] = (v[i] - oldeps*w1[i] - delta*w2[i])/gamma;
+            }
+            addScaled(phi,w,x,N);
+
+            if( checkConverged(phibar,beta1) )
+                return true;
+            if( beta == 0 )
+                return false; // the Krylov subspace can't be expanded
+        }
+        return false;
+    }
+}
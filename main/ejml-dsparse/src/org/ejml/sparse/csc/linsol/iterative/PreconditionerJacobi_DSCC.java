@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.sparse.csc.linsol.iterative;
+
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixSparseCSC;
+
+import static org.ejml.UtilEjml.adjust;
+
+/**
+ * Jacobi preconditioner, M = diag(A). Diagonal elements which are zero are treated as one.
+ *
+ * @author Peter Abeles
+ */
+public class PreconditionerJacobi_DSCC implements Preconditioner_DSCC {
+    // inverse of the diagonal elements
+    DGrowArray ginvDiag = new DGrowArray();
+    int N;
+
+    @Override
+    public void setA(DMatrixSparseCSC A) {
+        N = A.numCols;
+        double[] invDiag = adjust(ginvDiag,N);
+        for (int col = 0; col < N; col++) {
+            double d = A.unsafe_get(col,col);
+            invDiag[col] = d == 0 ? 1.0 : 1.0/d;
+        }
+    }
+
+    @Override
+    public void apply(double[] r, double[] z) {
+        double[] invDiag = ginvDiag.data;
+        for (int i = 0; i < N; i++) {
+            z[i] = r[i]*invDiag[i];
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.sparse.csc.linsol.iterative;
+
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixSparseCSC;
+
+import static org.ejml.UtilEjml.adjust;
+
+/**
+ * <p>
+ * Symmetric successive over-relaxation (SSOR) preconditioner. A = L + D + U where L is strictly lower
+ * triangular, D is diagonal and U is strictly upper triangular.
+ * </p>
+ *
+ * <p>
+ * M = 1/(&omega;(2-&omega;)) (D + &omega;L) D<sup>-1</sup> (D + &omega;U)
+ *   = 1/(2-&omega;) (D/&omega; + L) (D/&omega;)<sup>-1</sup> (D/&omega; + U)
+ * </p>
+ *
+ * <p>
+ * M<sup>-1</sup> is applied with a forward and a backward triangular solve on A. The diagonal of A must
+ * not have any zeros. If A is symmetric positive definite then so is M for 0 &lt; &omega; &lt; 2.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class PreconditionerSSOR_DSCC implements Preconditioner_DSCC {
+    // relaxation parameter
+    double omega;
+
+    DMatrixSparseCSC A;
+    DGrowArray gdiag = new DGrowArray();
+
+    public PreconditionerSSOR_DSCC( double omega ) {
+        if( omega <= 0 || omega >= 2 )
+            throw new IllegalArgumentException("omega must be between 0 and 2");
+        this.omega = omega;
+    }
+
+    /**
+     * Symmetric Gauss-Seidel, &omega; = 1
+     */
+    public PreconditionerSSOR_DSCC() {
+        this(1.0);
+    }
+
+    @Override
+    public void setA(DMatrixSparseCSC A) {
+        this.A = A;
+        int N = A.numCols;
+        double[] diag = adjust(gdiag,N);
+        for (int col = 0; col < N; col++) {
+            diag[col] = A.unsafe_get(col,col);
+            if( diag[col] == 0 )
+                throw new IllegalArgumentException("Zero on the diagonal at "+col);
+        }
+    }
+
+    @Override
+    public void apply(double[] r, double[] z) {
+        int N = A.numCols;
+        double[] diag = gdiag.data;
+        System.arraycopy(r,0,z,0,N);
+
+        // solve (D/w + L)*y = r
+        for (int col = 0; col < N; col++) {
+            double v = z[col] *= omega/diag[col];
+            int idx1 = A.col_idx[col+1];
+            for (int i = A.col_idx[col]; i < idx1; i++) {
+                int row = A.nz_rows[i];
+                if( row > col )
+                    z[row] -= A.nz_values[i]*v;
+            }
+        }
+
+        // y = (D/w)*y
+        for (int i = 0; i < N; i++) {
+            z[i] *= diag[i]/omega;
+        }
+
+        // solve (D/w + U)*z = y
+        for (int col = N-1; col >= 0; col--) {
+            double v = z[col] *= omega/diag[col];
+            int idx1 = A.col_idx[col+1];
+            for (int i = A.col_idx[col]; i < idx1; i++) {
+                int row = A.nz_rows[i];
+                if( row < col )
+                    z[row] -= A.nz_values[i]*v;
+            }
+        }
+
+        double scale = 2.0-omega;
+        for (int i = 0; i < N; i++) {
+            z[i] *= scale;
+        }
+    }
+
+    public double getOmega() {
+        return omega;
+    }
+}
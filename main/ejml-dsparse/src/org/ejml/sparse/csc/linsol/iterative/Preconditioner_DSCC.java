@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.sparse.csc.linsol.iterative;
+
+import org.ejml.data.DMatrixSparseCSC;
+
+/**
+ * Preconditioner M for iterative solvers, where M approximates A and M<sup>-1</sup> is inexpensive to apply.
+ *
+ * @author Peter Abeles
+ */
+public interface Preconditioner_DSCC {
+    /**
+     * Computes the preconditioner for the matrix A. A reference to A might be saved.
+     *
+     * @param A Square matrix. Not modified.
+     */
+    void setA( DMatrixSparseCSC A );
+
+    /**
+     * z = M<sup>-1</sup>*r
+     *
+     * @param r (Input) vector
+     * @param z (Output) vector. Can't be the same array as r.
+     */
+    void apply( double[] r , double[] z );
+}
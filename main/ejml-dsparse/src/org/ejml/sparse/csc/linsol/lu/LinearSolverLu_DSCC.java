@@ -76,7 +76,15 @@ public class LinearSolverLu_DSCC implements LinearSolverSparse<DMatrixSparseCSC,
         tmp.reshape(L.numRows,B.numCols,1);
 
         TriangularSolver_DSCC.solve(L,true,Bp,tmp,null,gx,gw,gw1);
-        TriangularSolver_DSCC.solve(U,false,tmp,X,null,gx,gw,gw1);
+
+        // undo the fill reducing column permutation
+        int[] q = decomposition.getReducePermutation();
+        if( q != null ) {
+            TriangularSolver_DSCC.solve(U,false,tmp,Bp,null,gx,gw,gw1);
+            CommonOps_DSCC.permuteRowInv(q,Bp,X);
+        } else {
+            TriangularSolver_DSCC.solve(U,false,tmp,X,null,gx,gw,gw1);
+        }
     }
 
     @Override
@@ -115,7 +123,7 @@ public class LinearSolverLu_DSCC implements LinearSolverSparse<DMatrixSparseCSC,
             TriangularSolver_DSCC.solveU(U,x);
             double d[];
             if( reduceFill ) {
-                CommonOps_DSCC.permute(q, x, b, X.numRows);
+                CommonOps_DSCC.permuteInv(q, x, b, X.numRows);
                 d = b;
             } else {
                 d = x;
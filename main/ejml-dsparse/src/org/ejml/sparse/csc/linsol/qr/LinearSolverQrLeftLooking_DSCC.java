@@ -94,7 +94,14 @@ public class LinearSolverQrLeftLooking_DSCC implements LinearSolverSparse<DMatri
 
         // Solve for X
         DMatrixSparseCSC R = qr.getR();
-        TriangularSolver_DSCC.solve(R,false,B,X,null,gx,gw,gw1);
+        if( qr.isFillPermutated() ) {
+            B_tmp.reshape(X.numRows,X.numCols,1);
+            TriangularSolver_DSCC.solve(R,false,B,B_tmp,null,gx,gw,gw1);
+            // undo the fill reducing column permutation
+            CommonOps_DSCC.permuteRowInv(qr.getFillPermutation(),B_tmp,X);
+        } else {
+            TriangularSolver_DSCC.solve(R,false,B,X,null,gx,gw,gw1);
+        }
     }
 
     @Override
@@ -133,7 +140,7 @@ public class LinearSolverQrLeftLooking_DSCC implements LinearSolverSparse<DMatri
             // undo the permutation
             double out[];
             if( qr.isFillPermutated()) {
-                CommonOps_DSCC.permute(qr.getFillPermutation(), bp, x, X.numRows);
+                CommonOps_DSCC.permuteInv(qr.getFillPermutation(), bp, x, X.numRows);
                 out = x;
             } else {
                 out = bp;
@@ -71,6 +71,22 @@ public class ApplyFillReductionPermutation {
         return Aperm;
     }
 
+    /**
+     * Computes the fill reduction permutation and only applies the column ordering, i.e. A*Q. Used by
+     * decompositions which select the row order themselves through pivoting. Either A is returned (unmodified)
+     * or the permutated version of A.
+     * @param A Input matrix. unmodified.
+     * @return A permuted matrix. Might be A or a different matrix.
+     */
+    public DMatrixSparseCSC applyColumns( DMatrixSparseCSC A ) {
+        if( fillReduce == null )
+            return A;
+        fillReduce.process(A);
+
+        CommonOps_DSCC.permute(null, A, fillReduce.getColumn().data, Aperm);
+        return Aperm;
+    }
+
     public int[] getArrayPinv() {
         return fillReduce == null ? null : pinv;
     }
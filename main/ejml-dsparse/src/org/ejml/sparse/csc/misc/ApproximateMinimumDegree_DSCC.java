@@ -0,0 +1,454 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.misc;
+
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.IGrowArray;
+import org.ejml.sparse.ComputePermutation;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+
+/**
+ * <p>
+ * Approximate Minimum Degree (AMD) fill reducing ordering.  The ordering is computed from the non-zero pattern
+ * of a symmetric matrix C.  If the input matrix is square then C = A + A<sup>T</sup>, which is the correct
+ * ordering for Cholesky and LU.  If A is not square then C = A<sup>T</sup>A and only a column permutation
+ * is computed, which is the correct ordering for QR.  For square matrices the row and column permutation
+ * are the same.
+ * </p>
+ *
+ * <p>
+ * Nodes are eliminated using a quotient graph with element absorption, mass elimination, supernode detection
+ * and approximate external degrees. Dense rows/columns are removed and ordered last.
+ * </p>
+ *
+ * <p>See cs_amd() in chapter 7 of "Direct Methods for Sparse Linear Systems"</p>
+ *
+ * @author Peter Abeles
+ */
+public class ApproximateMinimumDegree_DSCC extends ComputePermutation<DMatrixSparseCSC> {
+
+    // Workspace for building C
+    DMatrixSparseCSC At = new DMatrixSparseCSC(1,1,0);
+    DMatrixSparseCSC C = new DMatrixSparseCSC(1,1,0);
+    IGrowArray gw = new IGrowArray();
+    DGrowArray gx = new DGrowArray();
+
+    // quotient graph. Cp = column pointers, Ci = row indexes with extra elbow room
+    IGrowArray gCp = new IGrowArray();
+    IGrowArray gCi = new IGrowArray();
+    // 8*(n+1) workspace for the graph's data structures
+    IGrowArray gW = new IGrowArray();
+    // output permutation, n+1 elements since node n is the dense node element
+    IGrowArray gP = new IGrowArray();
+
+    public ApproximateMinimumDegree_DSCC() {
+        super(true, true);
+    }
+
+    @Override
+    public void process(DMatrixSparseCSC A) {
+        int n = A.numCols;
+
+        computeOrdering(A);
+
+        pcol.reshape(n);
+        System.arraycopy(gP.data,0,pcol.data,0,n);
+
+        if( A.numRows == A.numCols ) {
+            prow.reshape(n);
+            System.arraycopy(gP.data,0,prow.data,0,n);
+        } else {
+            prow.reshape(A.numRows);
+            for (int i = 0; i < A.numRows; i++) {
+                prow.data[i] = i;
+            }
+        }
+    }
+
+    /**
+     * Constructs the symmetric matrix C with no diagonal elements.  Extra space is added to the end of
+     * the array which is used by the quotient graph.
+     *
+     * @return Number of non-zero elements in C
+     */
+    private int constructGraph( DMatrixSparseCSC A ) {
+        int n = A.numCols;
+
+        At.reshape(A.numCols,A.numRows,A.nz_length);
+        CommonOps_DSCC.transpose(A,At,gw);
+        if( A.numRows == A.numCols ) {
+            CommonOps_DSCC.add(1,A,1,At,C,gw,gx);
+        } else {
+            CommonOps_DSCC.mult(At,A,C,gw,gx);
+        }
+
+        // copy the pattern of C while dropping diagonal elements
+        int nz = C.nz_length;
+        gCp.reshape(n+1);
+        gCi.reshape(nz + nz/5 + 2*n);
+        int[] Cp = gCp.data;
+        int[] Ci = gCi.data;
+        int cnz = 0;
+        for (int j = 0; j < n; j++) {
+            Cp[j] = cnz;
+            int idx0 = C.col_idx[j];
+            int idx1 = C.col_idx[j+1];
+            for (int p = idx0; p < idx1; p++) {
+                int i = C.nz_rows[p];
+                if( i != j )
+                    Ci[cnz++] = i;
+            }
+        }
+        Cp[n] = cnz;
+        return cnz;
+    }
+
+    /**
+     * Computes the AMD ordering and stores it in gP
+     */
+    private void computeOrdering( DMatrixSparseCSC A ) {
+        int n = A.numCols;
+        int cnz = constructGraph(A);
+
+        int[] Cp = gCp.data;
+        int[] Ci = gCi.data;
+        int nzmax = gCi.length;
+
+        int dense = (int)Math.max(16,10*Math.sqrt(n));
+        dense = Math.min(n-2,dense);
+
+        gP.reshape(n+1);
+        gW.reshape(8*(n+1));
+        int[] P = gP.data;
+        int[] W = gW.data;
+
+        // offsets of each array inside the workspace
+        final int len = 0, nv = n+1, next = 2*(n+1), head = 3*(n+1),
+                elen = 4*(n+1), degree = 5*(n+1), w = 6*(n+1), hhead = 7*(n+1);
+        final int[] last = P; // P is used as workspace for last
+
+        int lemax = 0, mindeg = 0, nel = 0;
+
+        //----------------- Initialize quotient graph
+        for (int k = 0; k < n; k++) {
+            W[len+k] = Cp[k+1] - Cp[k];
+        }
+        W[len+n] = 0;
+        for (int i = 0; i <= n; i++) {
+            W[head+i] = -1;      // degree list i is empty
+            last[i] = -1;
+            W[next+i] = -1;
+            W[hhead+i] = -1;     // hash list i is empty
+            W[nv+i] = 1;         // node i is just one node
+            W[w+i] = 1;          // node i is alive
+            W[elen+i] = 0;       // Ek of node i is empty
+            W[degree+i] = W[len+i]; // degree of node i
+        }
+        int mark = clearW(0,0,W,w,n);
+        W[elen+n] = -2;          // n is a dead element
+        Cp[n] = -1;              // n is a root of the assembly tree
+        W[w+n] = 0;              // n is a dead element
+
+        //----------------- Initialize degree lists
+        for (int i = 0; i < n; i++) {
+            int d = W[degree+i];
+            if( d == 0 ) {                // node i is empty
+                W[elen+i] = -2;           // element i is dead
+                nel++;
+                Cp[i] = -1;               // i is a root of the assembly tree
+                W[w+i] = 0;
+            } else if( d > dense ) {      // node i is dense
+                W[nv+i] = 0;              // absorb i into element n
+                W[elen+i] = -1;           // node i is dead
+                nel++;
+                Cp[i] = flip(n);
+                W[nv+n]++;
+            } else {
+                if( W[head+d] != -1 ) last[W[head+d]] = i;
+                W[next+i] = W[head+d];    // put node i in degree list d
+                W[head+d] = i;
+            }
+        }
+
+        while( nel < n ) {
+            //----------------- Select node of minimum approximate degree
+            int k;
+            for (k = -1; mindeg < n && (k = W[head+mindeg]) == -1; mindeg++) {}
+            if( W[next+k] != -1 ) last[W[next+k]] = -1;
+            W[head+mindeg] = W[next+k];   // remove k from degree list
+            int elenk = W[elen+k];        // elenk = |Ek|
+            int nvk = W[nv+k];            // # of nodes k represents
+            nel += nvk;                   // nv[k] nodes of A eliminated
+
+            //----------------- Garbage collection
+            if( elenk > 0 && cnz + mindeg >= nzmax ) {
+                for (int j = 0; j < n; j++) {
+                    int p;
+                    if( (p = Cp[j]) >= 0 ) {  // j is a live node or element
+                        Cp[j] = Ci[p];        // save first entry of object
+                        Ci[p] = flip(j);      // first entry is now flip(j)
+                    }
+                }
+                int q = 0;
+                for (int p = 0; p < cnz; ) {  // scan all of memory
+                    int j;
+                    if( (j = flip(Ci[p++])) >= 0 ) { // found object j
+                        Ci[q] = Cp[j];        // restore first entry of object
+                        Cp[j] = q++;          // new pointer to object j
+                        for (int k3 = 0; k3 < W[len+j]-1; k3++) Ci[q++] = Ci[p++];
+                    }
+                }
+                cnz = q;                      // Ci[cnz...nzmax-1] now free
+            }
+
+            //----------------- Construct new element
+            int dk = 0;
+            W[nv+k] = -nvk;                   // flag k as in Lk
+            int p = Cp[k];
+            int pk1 = (elenk == 0) ? p : cnz; // do in place if elen[k] == 0
+            int pk2 = pk1;
+            for (int k1 = 1; k1 <= elenk + 1; k1++) {
+                int e, pj, ln;
+                if( k1 > elenk ) {
+                    e = k;                    // search the nodes in k
+                    pj = p;                   // list of nodes starts at Ci[pj]
+                    ln = W[len+k] - elenk;    // length of list of nodes in k
+                } else {
+                    e = Ci[p++];              // search the nodes in e
+                    pj = Cp[e];
+                    ln = W[len+e];            // length of list of nodes in e
+                }
+                for (int k2 = 1; k2 <= ln; k2++) {
+                    int i = Ci[pj++];
+                    int nvi;
+                    if( (nvi = W[nv+i]) <= 0 ) continue; // node i dead, or seen
+                    dk += nvi;                // degree[Lk] += size of node i
+                    W[nv+i] = -nvi;           // negate nv[i] to denote i in Lk
+                    Ci[pk2++] = i;            // place i in Lk
+                    if( W[next+i] != -1 ) last[W[next+i]] = last[i];
+                    if( last[i] != -1 ) {     // remove i from degree list
+                        W[next+last[i]] = W[next+i];
+                    } else {
+                        W[head+W[degree+i]] = W[next+i];
+                    }
+                }
+                if( e != k ) {
+                    Cp[e] = flip(k);          // absorb e into k
+                    W[w+e] = 0;               // e is now a dead element
+                }
+            }
+            if( elenk != 0 ) cnz = pk2;       // Ci[cnz...nzmax] is free
+            W[degree+k] = dk;                 // external degree of k - |Lk\i|
+            Cp[k] = pk1;                      // element k is in Ci[pk1..pk2-1]
+            W[len+k] = pk2 - pk1;
+            W[elen+k] = -2;                   // k is now an element
+
+            //----------------- Find set differences
+            mark = clearW(mark,lemax,W,w,n);
+            for (int pk = pk1; pk < pk2; pk++) { // scan 1: find |Le\Lk|
+                int i = Ci[pk];
+                int eln;
+                if( (eln = W[elen+i]) <= 0 ) continue; // skip if elen[i] empty
+                int nvi = -W[nv+i];                    // nv[i] was negated
+                int wnvi = mark - nvi;
+                for (p = Cp[i]; p <= Cp[i] + eln - 1; p++) { // scan Ei
+                    int e = Ci[p];
+                    if( W[w+e] >= mark ) {
+                        W[w+e] -= nvi;        // decrement |Le\Lk|
+                    } else if( W[w+e] != 0 ) {// ensure e is a live element
+                        W[w+e] = W[degree+e] + wnvi; // 1st time e seen in scan 1
+                    }
+                }
+            }
+
+            //----------------- Degree update
+            for (int pk = pk1; pk < pk2; pk++) { // scan2: degree update
+                int i = Ci[pk];                  // consider node i in Lk
+                int p1 = Cp[i];
+                int p2 = p1 + W[elen+i] - 1;
+                int pn = p1;
+                long h = 0;
+                int d = 0;
+                for (p = p1; p <= p2; p++) {     // scan Ei
+                    int e = Ci[p];
+                    if( W[w+e] != 0 ) {          // e is an unabsorbed element
+                        int dext = W[w+e] - mark;// dext = |Le\Lk|
+                        if( dext > 0 ) {
+                            d += dext;           // sum up the set differences
+                            Ci[pn++] = e;        // keep e in Ei
+                            h += e;              // compute the hash of node i
+                        } else {
+                            Cp[e] = flip(k);     // aggressive absorb. e->k
+                            W[w+e] = 0;          // e is a dead element
+                        }
+                    }
+                }
+                W[elen+i] = pn - p1 + 1;         // elen[i] = |Ei|
+                int p3 = pn;
+                int p4 = p1 + W[len+i];
+                for (p = p2 + 1; p < p4; p++) {  // prune edges in Ai
+                    int j = Ci[p];
+                    int nvj;
+                    if( (nvj = W[nv+j]) <= 0 ) continue; // node j dead or in Lk
+                    d += nvj;                    // degree(i) += |j|
+                    Ci[pn++] = j;                // place j in node list of i
+                    h += j;                      // compute hash for node i
+                }
+                if( d == 0 ) {                   // check for mass elimination
+                    Cp[i] = flip(k);             // absorb i into k
+                    int nvi = -W[nv+i];
+                    dk -= nvi;                   // |Lk| -= |i|
+                    nvk += nvi;                  // |k| += nv[i]
+                    nel += nvi;
+                    W[nv+i] = 0;
+                    W[elen+i] = -1;              // node i is dead
+                } else {
+                    W[degree+i] = Math.min(W[degree+i],d); // update degree(i)
+                    Ci[pn] = Ci[p3];             // move first node to end
+                    Ci[p3] = Ci[p1];             // move 1st el. to end of Ei
+                    Ci[p1] = k;                  // add k as 1st element in of Ei
+                    W[len+i] = pn - p1 + 1;      // new len of adj. list of node i
+                    int hash = (int)(Math.abs(h) % n); // finalize hash of i
+                    W[next+i] = W[hhead+hash];   // place i in hash bucket
+                    W[hhead+hash] = i;
+                    last[i] = hash;              // save hash of i in last[i]
+                }
+            }
+            W[degree+k] = dk;                    // finalize |Lk|
+            lemax = Math.max(lemax,dk);
+            mark = clearW(mark+lemax,lemax,W,w,n);
+
+            //----------------- Supernode detection
+            for (int pk = pk1; pk < pk2; pk++) {
+                int i = Ci[pk];
+                if( W[nv+i] >= 0 ) continue;     // skip if i is dead
+                int hash = last[i];              // scan hash bucket of node i
+                i = W[hhead+hash];
+                W[hhead+hash] = -1;              // hash bucket will be empty
+                for (; i != -1 && W[next+i] != -1; i = W[next+i], mark++) {
+                    int ln = W[len+i];
+                    int eln = W[elen+i];
+                    for (p = Cp[i] + 1; p <= Cp[i] + ln - 1; p++) W[w+Ci[p]] = mark;
+                    int jlast = i;
+                    for (int j = W[next+i]; j != -1; ) { // compare i with all j
+                        boolean ok = (W[len+j] == ln) && (W[elen+j] == eln);
+                        for (p = Cp[j] + 1; ok && p <= Cp[j] + ln - 1; p++) {
+                            if( W[w+Ci[p]] != mark ) ok = false; // compare i and j
+                        }
+                        if( ok ) {                   // i and j are identical
+                            Cp[j] = flip(i);         // absorb j into i
+                            W[nv+i] += W[nv+j];
+                            W[nv+j] = 0;
+                            W[elen+j] = -1;          // node j is dead
+                            j = W[next+j];           // delete j from hash bucket
+                            W[next+jlast] = j;
+                        } else {
+                            jlast = j;               // j and i are different
+                            j = W[next+j];
+                        }
+                    }
+                }
+            }
+
+            //----------------- Finalize new element
+            p = pk1;
+            for (int pk = pk1; pk < pk2; pk++) { // finalize Lk
+                int i = Ci[pk];
+                int nvi;
+                if( (nvi = -W[nv+i]) <= 0 ) continue; // skip if i is dead
+                W[nv+i] = nvi;                   // restore nv[i]
+                int d = W[degree+i] + dk - nvi;  // compute external degree(i)
+                d = Math.min(d, n - nel - nvi);
+                if( W[head+d] != -1 ) last[W[head+d]] = i;
+                W[next+i] = W[head+d];           // put i back in degree list
+                last[i] = -1;
+                W[head+d] = i;
+                mindeg = Math.min(mindeg,d);     // find new minimum degree
+                W[degree+i] = d;
+                Ci[p++] = i;                     // place i in Lk
+            }
+            W[nv+k] = nvk;                       // # nodes absorbed into k
+            if( (W[len+k] = p-pk1) == 0 ) {      // length of adj list of element k
+                Cp[k] = -1;                      // k is a root of the tree
+                W[w+k] = 0;                      // k is now a dead element
+            }
+            if( elenk != 0 ) cnz = p;            // free unused space in Lk
+        }
+
+        //----------------- Post ordering
+        for (int i = 0; i < n; i++) Cp[i] = flip(Cp[i]); // fix assembly tree
+        for (int j = 0; j <= n; j++) W[head+j] = -1;
+        for (int j = n; j >= 0; j--) {           // place unordered nodes in lists
+            if( W[nv+j] > 0 ) continue;          // skip if j is an element
+            W[next+j] = W[head+Cp[j]];           // place j in list of its parent
+            W[head+Cp[j]] = j;
+        }
+        for (int e = n; e >= 0; e--) {           // place elements in lists
+            if( W[nv+e] <= 0 ) continue;         // skip unless e is an element
+            if( Cp[e] != -1 ) {
+                W[next+e] = W[head+Cp[e]];       // place e in list of its parent
+                W[head+Cp[e]] = e;
+            }
+        }
+        for (int k = 0, i = 0; i <= n; i++) {    // postorder the assembly tree
+            if( Cp[i] == -1 ) k = depthFirstSearch(i,k,W,head,next,P,w);
+        }
+    }
+
+    /**
+     * Clears the w array if mark is about to overflow.  At the end w[0..n-1] &lt; mark
+     */
+    private static int clearW( int mark , int lemax , int[] W , int w , int n ) {
+        if( mark < 2 || (mark + lemax < 0) ) {
+            for (int k = 0; k < n; k++) {
+                if( W[w+k] != 0 )
+                    W[w+k] = 1;
+            }
+            mark = 2;
+        }
+        return mark;
+    }
+
+    /**
+     * Depth first search and post ordering of a tree rooted at node j.
+     *
+     * <p>See cs_tdfs() on page 43 of "Direct Methods for Sparse Linear Systems"</p>
+     */
+    private static int depthFirstSearch( int j , int k , int[] W , int head , int next , int[] post , int stack ) {
+        int top = 0;
+        W[stack] = j;
+        while( top >= 0 ) {
+            int p = W[stack+top];
+            int i = W[head+p];          // i = youngest child of p
+            if( i == -1 ) {
+                top--;
+                post[k++] = p;          // node p is the kth post ordered node
+            } else {
+                W[head+p] = W[next+i];  // remove i from children of p
+                W[stack+(++top)] = i;   // start dfs on child i
+            }
+        }
+        return k;
+    }
+
+    private static int flip( int i ) {
+        return -i-2;
+    }
+}
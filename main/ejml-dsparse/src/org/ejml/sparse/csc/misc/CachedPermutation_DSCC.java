@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.sparse.csc.misc;
+
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.IGrowArray;
+import org.ejml.sparse.ComputePermutation;
+
+import java.util.Arrays;
+
+/**
+ * Fill reducing permutation which first checks a {@link SymbolicCache_DSCC} for a permutation of a matrix with
+ * the same non-zero pattern. If there's none then it's computed by the wrapped algorithm and saved.
+ *
+ * @author Peter Abeles
+ */
+public class CachedPermutation_DSCC extends ComputePermutation<DMatrixSparseCSC> {
+    ComputePermutation<DMatrixSparseCSC> alg;
+    SymbolicCache_DSCC cache;
+    // name used to identify the permutation in the cache
+    String type;
+
+    /**
+     * @param alg Algorithm which computes the permutation. Must only depend on the matrix's non-zero pattern.
+     * @param type Unique name of the algorithm
+     * @param cache The cache
+     */
+    public CachedPermutation_DSCC(ComputePermutation<DMatrixSparseCSC> alg, String type, SymbolicCache_DSCC cache) {
+        super(alg.hasRowPermutation(),alg.hasColumnPermutation());
+        this.alg = alg;
+        this.type = "permutation-"+type;
+        this.cache = cache;
+    }
+
+    @Override
+    public void process(DMatrixSparseCSC m) {
+        int[][] found = cache.lookup(type,m);
+        if( found != null ) {
+            copy(found[0],prow);
+            copy(found[1],pcol);
+            return;
+        }
+
+        alg.process(m);
+        copy(alg.getRow(),prow);
+        copy(alg.getColumn(),pcol);
+        cache.store(type,m,new int[][]{copy(prow),copy(pcol)});
+    }
+
+    private static void copy( int[] src , IGrowArray dst ) {
+        if( dst == null )
+            return;
+        dst.reshape(src.length);
+        System.arraycopy(src,0,dst.data,0,src.length);
+    }
+
+    private static void copy( IGrowArray src , IGrowArray dst ) {
+        if( dst == null )
+            return;
+        dst.set(src);
+    }
+
+    private static int[] copy( IGrowArray src ) {
+        return src == null ? null : Arrays.copyOf(src.data,src.length);
+    }
+
+    public ComputePermutation<DMatrixSparseCSC> getAlgorithm() {
+        return alg;
+    }
+
+    public SymbolicCache_DSCC getCache() {
+        return cache;
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.sparse.csc.misc;
+
+import org.ejml.data.DMatrixSparseCSC;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * <p>
+ * Cache for the results of symbolic analysis, e.g. fill reducing permutations and elimination trees. Results
+ * only depend on the matrix's non-zero pattern, so they can be reused by different solver instances when the
+ * pattern is the same. Entries are looked up by the type of analysis and a hash of col_idx and nz_rows. The
+ * pattern is compared element by element, so hash collisions can't return the wrong result.
+ * </p>
+ *
+ * <p>
+ * Least recently used entries are evicted when the estimated memory used by the cache exceeds its budget. A
+ * budget of zero disables the cache and lookups return immediately without hashing the pattern. All functions
+ * are thread safe. The pattern is hashed and compared without holding the lock, so threads only wait on each
+ * other for the map lookup and eviction. If two different patterns have the same hash then only the most
+ * recently stored one is kept. The returned arrays are shared and must not be modified.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SymbolicCache_DSCC {
+    /** Default memory budget of the global cache in bytes */
+    public static final long DEFAULT_MAX_BYTES = 32*1024*1024;
+
+    private static final SymbolicCache_DSCC global = new SymbolicCache_DSCC(DEFAULT_MAX_BYTES);
+
+    // estimated overhead of an entry, in bytes
+    private static final int ENTRY_OVERHEAD = 128;
+
+    // access ordered so the first element is the least recently used
+    private final LinkedHashMap<Key,Entry> entries = new LinkedHashMap<>(16,0.75f,true);
+
+    // memory budget in bytes. Read without the lock to skip hashing when the cache is disabled
+    private volatile long maxBytes;
+    // estimated memory used by all the entries
+    private long bytes;
+
+    private long hits;
+    private long misses;
+
+    public SymbolicCache_DSCC( long maxBytes ) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Cache which is shared by solvers created with {@link org.ejml.sparse.csc.factory.LinearSolverFactory_DSCC}
+     */
+    public static SymbolicCache_DSCC getGlobal() {
+        return global;
+    }
+
+    /**
+     * Looks up the results for a matrix with the same non-zero pattern as A
+     *
+     * @param type Name of the symbolic analysis
+     * @param A Matrix. Not modified.
+     * @return The saved results or null if there are none. Don't modify.
+     */
+    public int[][] lookup( String type , DMatrixSparseCSC A ) {
+        // don't pay for hashing the pattern when the cache is disabled
+        if( maxBytes <= 0 )
+            return null;
+        Key key = new Key(type,A,false);
+        Entry found;
+        synchronized( this ) {
+            found = entries.get(key);
+        }
+        // the stored pattern is never modified so it can be compared without the lock
+        int[][] results = found != null && found.key.samePattern(key) ? found.results : null;
+        synchronized( this ) {
+            if( results == null )
+                misses++;
+            else
+                hits++;
+        }
+        return results;
+    }
+
+    /**
+     * Saves the results of symbolic analysis on A. The cache takes ownership of the arrays, which
+     * should not be modified after this call.
+     *
+     * @param type Name of the symbolic analysis
+     * @param A Matrix. Not modified.
+     * @param results Results from the analysis. Null elements are allowed.
+     */
+    public void store( String type , DMatrixSparseCSC A , int[][] results ) {
+        if( maxBytes <= 0 )
+            return;
+        Entry entry = new Entry(new Key(type,A,true),results);
+
+        synchronized( this ) {
+            if( entry.size > maxBytes )
+                return;
+            Entry previous = entries.put(entry.key,entry);
+            if( previous != null )
+                bytes -= previous.size;
+            bytes += entry.size;
+            evict();
+        }
+    }
+
+    /**
+     * Removes the least recently used entries until the budget is satisfied
+     */
+    private void evict() {
+        Iterator<Entry> iter = entries.values().iterator();
+        while( bytes > maxBytes && iter.hasNext() ) {
+            bytes -= iter.next().size;
+            iter.remove();
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+        hits = 0;
+        misses = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Estimated memory used by the cache in bytes
+     */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public synchronized long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Changes the memory budget. Entries are evicted if needed. Zero will disable the cache.
+     */
+    public synchronized void setMaxBytes( long maxBytes ) {
+        this.maxBytes = maxBytes;
+        evict();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Saved results and the pattern they were computed from
+     */
+    private static class Entry {
+        Key key;
+        int[][] results;
+        // estimated memory used in bytes
+        long size;
+
+        Entry( Key key , int[][] results ) {
+            this.key = key;
+            this.results = results;
+            size = ENTRY_OVERHEAD + 4L*(key.col_idx.length + key.nz_rows.length);
+            for( int[] a : results ) {
+                if( a != null )
+                    size += 4L*a.length;
+            }
+        }
+    }
+
+    /**
+     * Non-zero pattern of a matrix and the type of analysis. Keys are equal if the type, shape, and hash are
+     * the same, which is checked in constant time while the lock is held. The pattern itself is compared with
+     * {@link #samePattern}.
+     */
+    private static class Key {
+        String type;
+        int numRows, numCols;
+        int[] col_idx;
+        int[] nz_rows;
+        int nz_length;
+        int hash;
+
+        /**
+         * @param copy If true the pattern is copied, otherwise it references A's arrays
+         */
+        Key( String type , DMatrixSparseCSC A , boolean copy ) {
+            this.type = type;
+            this.numRows = A.numRows;
+            this.numCols = A.numCols;
+            this.nz_length = A.nz_length;
+            if( copy ) {
+                col_idx = new int[numCols+1];
+                nz_rows = new int[nz_length];
+                System.arraycopy(A.col_idx,0,col_idx,0,numCols+1);
+                System.arraycopy(A.nz_rows,0,nz_rows,0,nz_length);
+            } else {
+                col_idx = A.col_idx;
+                nz_rows = A.nz_rows;
+            }
+
+            int h = type.hashCode();
+            h = 31*h + numRows;
+            h = 31*h + numCols;
+            for (int i = 0; i <= numCols; i++) {
+                h = 31*h + col_idx[i];
+            }
+            for (int i = 0; i < nz_length; i++) {
+                h = 31*h + nz_rows[i];
+            }
+            hash = h;
+        }
+
+        /**
+         * Compares the pattern element by element. Only valid if the two keys are equal.
+         */
+        boolean samePattern( Key k ) {
+            for (int i = 0; i <= numCols; i++) {
+                if( col_idx[i] != k.col_idx[i] )
+                    return false;
+            }
+            for (int i = 0; i < nz_length; i++) {
+                if( nz_rows[i] != k.nz_rows[i] )
+                    return false;
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals( Object o ) {
+            if( !(o instanceof Key) )
+                return false;
+            Key k = (Key)o;
+            return hash == k.hash && numRows == k.numRows && numCols == k.numCols &&
+                    nz_length == k.nz_length && type.equals(k.type);
+        }
+    }
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.mult;
+
+import org.ejml.EjmlConcurrency;
+import org.ejml.EjmlParameters;
+import org.ejml.data.DMatrixSparseCSC;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Concurrent sparse matrix-vector multiplication.  {@link MatrixVectorMult_DSCC} computes A*b by scattering
+ * each column into the output, which can't be split between threads without write conflicts.  This class
+ * instead builds a compressed row index of the matrix's non-zero pattern and then each thread computes a
+ * range of output rows.  The rows are partitioned so that each thread processes approximately the same number
+ * of non-zero elements.  A<sup>T</sup>*b is computed directly from the column format since each column produces a single output.
+ * </p>
+ *
+ * <p>
+ * The row index stores the column of each element and its location in the input matrix.  Values are not
+ * copied and are read from the matrix during every multiplication, so changing values in place, e.g. with
+ * {@link DMatrixSparseCSC#set(int, int, double)} on an existing element or an in-place scale, is always seen.
+ * The index is built the first time a matrix is multiplied and reused until a different pattern is passed in.
+ * Before it's used only the matrix's identity, the references to nz_rows and col_idx, and its shape (rows, columns, and
+ * number of non-zero elements) are compared against the values saved when the index was built.  These checks
+ * are constant time.  If the row indexes in nz_rows or col_idx are written to directly without changing the
+ * shape then {@link #invalidate()} must be called.  The index requires two integers for each non-zero element.
+ * When the operation is too small to run concurrently {@link MatrixVectorMult_DSCC} is called instead and
+ * nothing is cached.
+ * </p>
+ *
+ * <p>
+ * Each output element is computed by a single thread in the same order, so the results do not depend on the
+ * number of threads.  An instance should not be used by multiple threads at the same time.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class MatrixVectorMult_MT_DSCC {
+
+    // The matrix which the row index was built from, along with its index arrays and shape at that time
+    DMatrixSparseCSC source;
+    int[] source_rows;
+    int[] source_colidx;
+    int source_numRows, source_numCols, source_length;
+
+    // Compressed row index of the source matrix. Elements in row i are from row_idx[i] to row_idx[i+1]-1
+    int[] row_idx = new int[0];
+    // column of each element
+    int[] row_cols = new int[0];
+    // location of each element in the source matrix's nz_values
+    int[] row_src = new int[0];
+
+    // first row/column in each partition of work
+    int[] partitions = new int[0];
+
+    /**
+     * c = A*b
+     *
+     * @param A (Input) Matrix
+     * @param b (Input) vector
+     * @param offsetB (Input) first index in vector b
+     * @param c (Output) vector
+     * @param offsetC (Output) first index in vector c
+     */
+    public void mult( DMatrixSparseCSC A ,
+                      double b[] , int offsetB ,
+                      double c[] , int offsetC )
+    {
+        if( b.length-offsetB < A.numCols)
+            throw new IllegalArgumentException("Length of 'b' isn't long enough");
+        if( c.length-offsetC < A.numRows)
+            throw new IllegalArgumentException("Length of 'c' isn't long enough");
+
+        if( !isConcurrent(A) ) {
+            MatrixVectorMult_DSCC.mult(A,b,offsetB,c,offsetC);
+            return;
+        }
+
+        if( !isCached(A) )
+            buildView(A);
+
+        int numParts = partition(row_idx,A.numRows);
+        EjmlConcurrency.loopFor(0,numParts,part->
+                mult(A.nz_values,partitions[part],partitions[part+1],b,offsetB,c,offsetC));
+    }
+
+    /**
+     * Computes rows row0 to row1-1 in c = A*b using the row index and the values in the matrix
+     */
+    private void mult( double[] nz_values , int row0 , int row1 ,
+                       double b[] , int offsetB , double c[] , int offsetC ) {
+        final int[] row_idx = this.row_idx;
+        final int[] row_cols = this.row_cols;
+        final int[] row_src = this.row_src;
+
+        for (int row = row0; row < row1; row++) {
+            int idx0 = row_idx[row];
+            int idx1 = row_idx[row+1];
+
+            double sum = 0;
+            for (int i = idx0; i < idx1; i++) {
+                sum += nz_values[row_src[i]]*b[offsetB+row_cols[i]];
+            }
+            c[offsetC+row] = sum;
+        }
+    }
+
+    /**
+     * c = c + A<sup>T</sup>*b
+     *
+     * @param A (Input) Matrix
+     * @param b (Input) vector
+     * @param offsetB (Input) first index in vector b
+     * @param c (Output) vector
+     * @param offsetC (Output) first index in vector c
+     */
+    public void multAddTransA( DMatrixSparseCSC A ,
+                               double b[] , int offsetB ,
+                               double c[] , int offsetC )
+    {
+        if( b.length-offsetB < A.numRows)
+            throw new IllegalArgumentException("Length of 'b' isn't long enough");
+        if( c.length-offsetC < A.numCols)
+            throw new IllegalArgumentException("Length of 'c' isn't long enough");
+
+        if( !isConcurrent(A) ) {
+            multAddTransA(A,0,A.numCols,b,offsetB,c,offsetC);
+            return;
+        }
+
+        int numParts = partition(A.col_idx,A.numCols);
+        EjmlConcurrency.loopFor(0,numParts,part->
+                multAddTransA(A,partitions[part],partitions[part+1],b,offsetB,c,offsetC));
+    }
+
+    private static void multAddTransA( DMatrixSparseCSC A , int col0 , int col1 ,
+                                       double b[] , int offsetB , double c[] , int offsetC ) {
+        final int[] col_idx = A.col_idx;
+        final int[] nz_rows = A.nz_rows;
+        final double[] nz_values = A.nz_values;
+
+        for (int col = col0; col < col1; col++) {
+            int idx0 = col_idx[col];
+            int idx1 = col_idx[col+1];
+
+            double sum = 0;
+            for (int i = idx0; i < idx1; i++) {
+                sum += nz_values[i]*b[offsetB+nz_rows[i]];
+            }
+            c[offsetC+col] += sum;
+        }
+    }
+
+    /**
+     * Returns true if the cached row index was built from this matrix and its index arrays and shape haven't changed.
+     * Only the pattern is cached, so values which are modified in place don't matter.  Row indexes which are
+     * modified in place without changing the shape are not detected, see {@link #invalidate()}.
+     */
+    public boolean isCached( DMatrixSparseCSC A ) {
+        if( A != source || A.nz_rows != source_rows || A.col_idx != source_colidx )
+            return false;
+        return A.numRows == source_numRows && A.numCols == source_numCols && A.nz_length == source_length;
+    }
+
+    /**
+     * Discards the row index. It will be rebuilt the next time a matrix is multiplied.  Must be called after
+     * the non-zero pattern of the cached matrix has been modified in place.
+     */
+    public void invalidate() {
+        source = null;
+        source_rows = null;
+        source_colidx = null;
+    }
+
+    /**
+     * Builds the compressed row index of the matrix and records which matrix it came from.
+     * Within a row the elements are ordered by column.
+     */
+    void buildView( DMatrixSparseCSC A ) {
+        if( row_idx.length < A.numRows+1 )
+            row_idx = new int[A.numRows+1];
+        if( row_cols.length < A.nz_length ) {
+            row_cols = new int[A.nz_length];
+            row_src = new int[A.nz_length];
+        }
+
+        // count the number of elements in each row
+        Arrays.fill(row_idx,0,A.numRows+1,0);
+        for (int i = 0; i < A.nz_length; i++) {
+            row_idx[A.nz_rows[i]+1]++;
+        }
+        for (int row = 0; row < A.numRows; row++) {
+            row_idx[row+1] += row_idx[row];
+        }
+
+        // row_idx[row] is used to track where the next element in the row goes, then restored at the end
+        for (int col = 0; col < A.numCols; col++) {
+            int idx1 = A.col_idx[col+1];
+            for (int i = A.col_idx[col]; i < idx1; i++) {
+                int index = row_idx[A.nz_rows[i]]++;
+                row_cols[index] = col;
+                row_src[index] = i;
+            }
+        }
+        for (int row = A.numRows; row > 0; row--) {
+            row_idx[row] = row_idx[row-1];
+        }
+        row_idx[0] = 0;
+
+        source = A;
+        source_rows = A.nz_rows;
+        source_colidx = A.col_idx;
+        source_numRows = A.numRows;
+        source_numCols = A.numCols;
+        source_length = A.nz_length;
+    }
+
+    /**
+     * Splits the rows (or columns) into ranges that have approximately the same number of non-zero elements.
+     *
+     * @param idx Compressed index of the first element in each row
+     * @param length Number of rows
+     * @return Number of partitions
+     */
+    int partition( int[] idx , int length ) {
+        int numParts = Math.max(1,Math.min(length,EjmlConcurrency.getMaxThreads()*4));
+        if( partitions.length < numParts+1 )
+            partitions = new int[numParts+1];
+
+        int total = idx[length];
+        partitions[0] = 0;
+        for (int part = 1; part < numParts; part++) {
+            int target = (int)((long)total*part/numParts);
+            int row = Arrays.binarySearch(idx,0,length+1,target);
+            // find the first row which starts at or after the target
+            if( row < 0 )
+                row = -row-1;
+            else
+                while( row > 0 && idx[row-1] == target ) row--;
+            partitions[part] = Math.max(partitions[part-1],Math.min(row,length));
+        }
+        partitions[numParts] = length;
+        return numParts;
+    }
+
+    private static boolean isConcurrent( DMatrixSparseCSC A ) {
+        return EjmlConcurrency.isUseConcurrent(A.nz_length,EjmlParameters.SPARSE_MULT_CONCURRENT_SWITCH);
+    }
+}
@@ -0,0 +1,545 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csr;
+
+import org.ejml.EjmlConcurrency;
+import org.ejml.EjmlParameters;
+import org.ejml.MatrixDimensionException;
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSR;
+import org.ejml.data.IGrowArray;
+import org.ejml.sparse.csr.misc.ImplCommonOps_DSCR;
+import org.ejml.sparse.csr.mult.ImplSparseSparseMult_DSCR;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+
+import static org.ejml.UtilEjml.stringShapes;
+
+/**
+ * <p>
+ * Common matrix operations for {@link DMatrixSparseCSR}.  In a compressed row matrix each row in the output of
+ * A*B only depends on the same row in A, which makes it a better fit than {@link org.ejml.data.DMatrixSparseCSC}
+ * when the rows are processed independently.  Conversions to and from the column format are done in
+ * {@link org.ejml.ops.ConvertDMatrixStruct} in O(N + nz_length) time.
+ * </p>
+ *
+ * <p>
+ * Multiplications with a dense matrix which are larger than {@link EjmlParameters#SPARSE_MULT_CONCURRENT_SWITCH}
+ * are computed concurrently by splitting up the rows.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class CommonOps_DSCR {
+
+    /**
+     * Checks to see if column indicies are sorted into ascending order.  O(N)
+     * @return true if sorted and false if not
+     */
+    public static boolean checkIndicesSorted( DMatrixSparseCSR A ) {
+        for (int j = 0; j < A.numRows; j++) {
+            int idx0 = A.row_idx[j];
+            int idx1 = A.row_idx[j+1];
+
+            if( idx0 != idx1 && A.nz_cols[idx0] >= A.numCols )
+                return false;
+
+            for (int i = idx0+1; i < idx1; i++) {
+                int col = A.nz_cols[i];
+                if( A.nz_cols[i-1] >= col)
+                    return false;
+                if( col >= A.numCols )
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    public static boolean checkStructure( DMatrixSparseCSR A ) {
+        if( A.row_idx.length < A.numRows+1)
+            return false;
+        if( A.row_idx[A.numRows] != A.nz_length )
+            return false;
+        if( A.nz_cols.length < A.nz_length)
+            return false;
+        if( A.nz_values.length < A.nz_length)
+            return false;
+        if( A.row_idx[0] != 0 )
+            return false;
+        for (int i = 0; i < A.numRows; i++) {
+            if( A.row_idx[i] > A.row_idx[i+1] ) {
+                return false;
+            }
+            if( A.row_idx[i+1]-A.row_idx[i] > A.numCols)
+                return false;
+        }
+        if( A.indicesSorted && !checkIndicesSorted(A) )
+            return false;
+        // duplicate elements will show up as unsorted columns after sorting
+        DMatrixSparseCSR B = A.copy();
+        B.sortIndices(null);
+        return checkIndicesSorted(B);
+    }
+
+    /**
+     * Perform matrix transpose
+     *
+     * @param a Input matrix.  Not modified
+     * @param a_t Storage for transpose of 'a'.  Must be correct shape.  data length might be adjusted.
+     * @param gw (Optional) Storage for internal workspace.  Can be null.
+     * @return The transposed matrix
+     */
+    public static DMatrixSparseCSR transpose(DMatrixSparseCSR a , @Nullable DMatrixSparseCSR a_t , @Nullable IGrowArray gw ) {
+        if( a_t == null ) {
+            a_t = new DMatrixSparseCSR(a.numCols,a.numRows,a.nz_length);
+        } else {
+            a_t.reshape(a.numCols,a.numRows,a.nz_length);
+        }
+
+        ImplCommonOps_DSCR.transpose(a, a_t, gw);
+        return a_t;
+    }
+
+    public static void mult(DMatrixSparseCSR A , DMatrixSparseCSR B , DMatrixSparseCSR C ) {
+        mult(A,B,C,null,null);
+    }
+
+    /**
+     * Performs matrix multiplication.  C = A*B
+     *
+     * @param A (Input) Matrix. Not modified.
+     * @param B (Input) Matrix. Not modified.
+     * @param C (Output) Storage for results.  Data length is increased if increased if insufficient.
+     * @param gw (Optional) Storage for internal workspace.  Can be null.
+     * @param gx (Optional) Storage for internal workspace.  Can be null.
+     */
+    public static void mult(DMatrixSparseCSR A , DMatrixSparseCSR B , DMatrixSparseCSR C ,
+                            @Nullable IGrowArray gw, @Nullable DGrowArray gx )
+    {
+        if( A.numCols != B.numRows )
+            throw new MatrixDimensionException("Inconsistent matrix shapes. "+stringShapes(A,B));
+        C.reshape(A.numRows,B.numCols);
+
+        ImplSparseSparseMult_DSCR.mult(A,B,C, gw, gx);
+    }
+
+    /**
+     * Performs matrix multiplication.  C = A<sup>T</sup>*B.  A is transposed internally first, which requires
+     * additional memory.
+     *
+     * @param A (Input) Matrix. Not modified.
+     * @param B (Input) Matrix. Not modified.
+     * @param C (Output) Storage for results.  Data length is increased if increased if insufficient.
+     * @param gw (Optional) Storage for internal workspace.  Can be null.
+     * @param gx (Optional) Storage for internal workspace.  Can be null.
+     */
+    public static void multTransA(DMatrixSparseCSR A , DMatrixSparseCSR B , DMatrixSparseCSR C ,
+                                  @Nullable IGrowArray gw, @Nullable DGrowArray gx )
+    {
+        if( A.numRows != B.numRows )
+            throw new MatrixDimensionException("Inconsistent matrix shapes. "+stringShapes(A,B));
+        C.reshape(A.numCols,B.numCols);
+
+        DMatrixSparseCSR At = transpose(A,null,gw);
+        ImplSparseSparseMult_DSCR.mult(At,B,C, gw, gx);
+    }
+
+    /**
+     * Performs matrix multiplication.  C = A*B
+     *
+     * @param A Matrix
+     * @param B Dense Matrix
+     * @param C Dense Matrix
+     */
+    public static void mult(DMatrixSparseCSR A , DMatrixRMaj B , DMatrixRMaj C )
+    {
+        if( A.numCols != B.numRows )
+            throw new MatrixDimensionException("Inconsistent matrix shapes. "+stringShapes(A,B));
+        C.reshape(A.numRows,B.numCols);
+
+        if( isConcurrentMult(A,B) ) {
+            EjmlConcurrency.loopBlocks(0,A.numRows,1,(row0,row1)->
+                    ImplSparseSparseMult_DSCR.mult(A,B,C,row0,row1));
+        } else {
+            ImplSparseSparseMult_DSCR.mult(A,B,C,0,A.numRows);
+        }
+    }
+
+    /**
+     * <p>C = C + A*B</p>
+     */
+    public static void multAdd(DMatrixSparseCSR A , DMatrixRMaj B , DMatrixRMaj C )
+    {
+        if( A.numCols != B.numRows || A.numRows != C.numRows || B.numCols != C.numCols )
+            throw new MatrixDimensionException("Inconsistent matrix shapes. "+stringShapes(A,B,C));
+
+        if( isConcurrentMult(A,B) ) {
+            EjmlConcurrency.loopBlocks(0,A.numRows,1,(row0,row1)->
+                    ImplSparseSparseMult_DSCR.multAdd(A,B,C,row0,row1));
+        } else {
+            ImplSparseSparseMult_DSCR.multAdd(A,B,C,0,A.numRows);
+        }
+    }
+
+    /**
+     * Performs matrix multiplication.  C = A<sup>T</sup>*B
+     *
+     * @param A Matrix
+     * @param B Dense Matrix
+     * @param C Dense Matrix
+     */
+    public static void multTransA(DMatrixSparseCSR A , DMatrixRMaj B , DMatrixRMaj C )
+    {
+        if( A.numRows != B.numRows )
+            throw new MatrixDimensionException("Inconsistent matrix shapes. "+stringShapes(A,B));
+        C.reshape(A.numCols,B.numCols);
+
+        ImplSparseSparseMult_DSCR.multTransA(A,B,C);
+    }
+
+    /**
+     * <p>C = C + A<sup>T</sup>*B</p>
+     */
+    public static void multAddTransA(DMatrixSparseCSR A , DMatrixRMaj B , DMatrixRMaj C )
+    {
+        if( A.numRows != B.numRows || A.numCols != C.numRows || B.numCols != C.numCols )
+            throw new MatrixDimensionException("Inconsistent matrix shapes. "+stringShapes(A,B,C));
+
+        ImplSparseSparseMult_DSCR.multAddTransA(A,B,C);
+    }
+
+    private static boolean isConcurrentMult( DMatrixSparseCSR A , DMatrixRMaj B ) {
+        long operations = (long)A.nz_length*B.numCols;
+        return EjmlConcurrency.isUseConcurrent(operations,EjmlParameters.SPARSE_MULT_CONCURRENT_SWITCH);
+    }
+
+    /**
+     * Performs matrix addition:<br>
+     * C = &alpha;A + &beta;B
+     *
+     * @param alpha scalar value multiplied against A
+     * @param A Matrix
+     * @param beta scalar value multiplied against B
+     * @param B Matrix
+     * @param C Output matrix.
+     * @param gw (Optional) Storage for internal workspace.  Can be null.
+     * @param gx (Optional) Storage for internal workspace.  Can be null.
+     */
+    public static void add(double alpha, DMatrixSparseCSR A, double beta, DMatrixSparseCSR B, DMatrixSparseCSR C,
+                           @Nullable IGrowArray gw, @Nullable DGrowArray gx)
+    {
+        if( A.numRows != B.numRows || A.numCols != B.numCols )
+            throw new MatrixDimensionException("Inconsistent matrix shapes. "+stringShapes(A,B));
+        C.reshape(A.numRows,A.numCols,A.nz_length+B.nz_length);
+
+        ImplCommonOps_DSCR.add(alpha,A,beta,B,C, gw, gx);
+    }
+
+    public static DMatrixSparseCSR identity(int length ) {
+        return identity(length, length);
+    }
+
+    public static DMatrixSparseCSR identity(int numRows , int numCols ) {
+        int min = Math.min(numRows, numCols);
+        DMatrixSparseCSR A = new DMatrixSparseCSR(numRows, numCols, min);
+        setIdentity(A);
+        return A;
+    }
+
+    public static void setIdentity(DMatrixSparseCSR A ) {
+        int min = Math.min(A.numRows, A.numCols);
+        A.growMaxLength(min,false);
+        A.nz_length = min;
+        A.indicesSorted = true;
+
+        Arrays.fill(A.nz_values,0,min,1);
+        for (int i = 1; i <= min; i++) {
+            A.row_idx[i] = i;
+            A.nz_cols[i-1] = i-1;
+        }
+        for (int i = min+1; i <= A.numRows; i++) {
+            A.row_idx[i] = min;
+        }
+    }
+
+    /**
+     * B = scalar*A.   A and B can be the same instance.
+     *
+     * @param scalar (Input) Scalar value
+     * @param A (Input) Matrix. Not modified.
+     * @param B (Output) Matrix. Modified.
+     */
+    public static void scale(double scalar, DMatrixSparseCSR A, DMatrixSparseCSR B) {
+        if( A != B ) {
+            B.copyStructure(A);
+        }
+        for(int i = 0; i < A.nz_length; i++ ) {
+            B.nz_values[i] = A.nz_values[i]*scalar;
+        }
+    }
+
+    /**
+     * B = A/scalar.   A and B can be the same instance.
+     *
+     * @param scalar (Input) Scalar value
+     * @param A (Input) Matrix. Not modified.
+     * @param B (Output) Matrix. Modified.
+     */
+    public static void divide(DMatrixSparseCSR A , double scalar , DMatrixSparseCSR B ) {
+        if( A != B ) {
+            B.copyStructure(A);
+        }
+        for (int i = 0; i < A.nz_length; i++) {
+            B.nz_values[i] = A.nz_values[i] / scalar;
+        }
+    }
+
+    /**
+     * B = scalar/A.   A and B can be the same instance. Only non-zero values are affected
+     *
+     * @param A (Input) Matrix. Not modified.
+     * @param scalar (Input) Scalar value
+     * @param B (Output) Matrix. Modified.
+     */
+    public static void divide( double scalar, DMatrixSparseCSR A , DMatrixSparseCSR B ) {
+        if( A != B ) {
+            B.copyStructure(A);
+        }
+        for (int i = 0; i < A.nz_length; i++) {
+            B.nz_values[i] = scalar / A.nz_values[i];
+        }
+    }
+
+    /**
+     * B = -A.   Changes the sign of elements in A and stores it in B. A and B can be the same instance.
+     *
+     * @param A (Input) Matrix. Not modified.
+     * @param B (Output) Matrix. Modified.
+     */
+    public static void changeSign(DMatrixSparseCSR A , DMatrixSparseCSR B ) {
+        if( A != B ) {
+            B.copyStructure(A);
+        }
+        for (int i = 0; i < A.nz_length; i++) {
+            B.nz_values[i] = -A.nz_values[i];
+        }
+    }
+
+    /**
+     * Returns the value of the element with the smallest abs()
+     * @param A (Input) Matrix. Not modified.
+     * @return scalar
+     */
+    public static double elementMinAbs( DMatrixSparseCSR A ) {
+        if( A.nz_length == 0)
+            return 0;
+
+        double min = A.isFull() ? Math.abs(A.nz_values[0]) : 0;
+        for(int i = 0; i < A.nz_length; i++ ) {
+            double val = Math.abs(A.nz_values[i]);
+            if( val < min ) {
+                min = val;
+            }
+        }
+
+        return min;
+    }
+
+    /**
+     * Returns the value of the element with the largest abs()
+     * @param A (Input) Matrix. Not modified.
+     * @return scalar
+     */
+    public static double elementMaxAbs( DMatrixSparseCSR A ) {
+        if( A.nz_length == 0)
+            return 0;
+
+        double max = A.isFull() ? Math.abs(A.nz_values[0]) : 0;
+        for(int i = 0; i < A.nz_length; i++ ) {
+            double val = Math.abs(A.nz_values[i]);
+            if( val > max ) {
+                max = val;
+            }
+        }
+
+        return max;
+    }
+
+    /**
+     * Returns the value of the element with the minimum value
+     * @param A (Input) Matrix. Not modified.
+     * @return scalar
+     */
+    public static double elementMin( DMatrixSparseCSR A ) {
+        if( A.nz_length == 0)
+            return 0;
+
+        // if every element is assigned a value then the first element can be a minimum.
+        // Otherwise zero needs to be considered
+        double min = A.isFull() ? A.nz_values[0] : 0;
+        for(int i = 0; i < A.nz_length; i++ ) {
+            double val = A.nz_values[i];
+            if( val < min ) {
+                min = val;
+            }
+        }
+
+        return min;
+    }
+
+    /**
+     * Returns the value of the element with the largest value
+     * @param A (Input) Matrix. Not modified.
+     * @return scalar
+     */
+    public static double elementMax( DMatrixSparseCSR A ) {
+        if( A.nz_length == 0)
+            return 0;
+
+        // if every element is assigned a value then the first element can be a max.
+        // Otherwise zero needs to be considered
+        double max = A.isFull() ? A.nz_values[0] : 0;
+        for(int i = 0; i < A.nz_length; i++ ) {
+            double val = A.nz_values[i];
+            if( val > max ) {
+                max = val;
+            }
+        }
+
+        return max;
+    }
+
+    /**
+     * Sum of all elements
+     *
+     * @param A (Input) Matrix. Not modified.
+     * @return scalar
+     */
+    public static double elementSum( DMatrixSparseCSR A ) {
+        double sum = 0;
+        for(int i = 0; i < A.nz_length; i++ ) {
+            sum += A.nz_values[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Performs an element-wise multiplication.<br>
+     * C[i,j] = A[i,j]*B[i,j]<br>
+     * All matrices must have the same shape.
+     *
+     * @param A (Input) Matrix.
+     * @param B (Input) Matrix
+     * @param C (Output) Matrix. data array is grown to min(A.nz_length,B.nz_length), resulting a in a large speed boost.
+     * @param gw (Optional) Storage for internal workspace.  Can be null.
+     * @param gx (Optional) Storage for internal workspace.  Can be null.
+     */
+    public static void elementMult( DMatrixSparseCSR A, DMatrixSparseCSR B, DMatrixSparseCSR C ,
+                                    @Nullable IGrowArray gw, @Nullable DGrowArray gx) {
+        if( A.numCols != B.numCols || A.numRows != B.numRows )
+            throw new MatrixDimensionException("All inputs must have the same number of rows and columns. "+stringShapes(A,B));
+        C.reshape(A.numRows,A.numCols);
+
+        ImplCommonOps_DSCR.elementMult(A,B,C,gw,gx);
+    }
+
+    /**
+     * Creates a submatrix by extracting the specified rows from A. rows = {row0 &le; i &lt; row1}.  The rows
+     * are stored in a continuous block so they are copied directly.
+     *
+     * @param A (Input) matrix
+     * @param row0 First row. Inclusive
+     * @param row1 Last row+1.
+     * @param out (Output, Option) Storage for output matrix
+     * @return The submatrix
+     */
+    public static DMatrixSparseCSR extractRows(DMatrixSparseCSR A , int row0 , int row1 ,
+                                               @Nullable DMatrixSparseCSR out ) {
+        if( row0 < 0 || row1 > A.numRows || row0 > row1 )
+            throw new IllegalArgumentException("Invalid row range. "+row0+" to "+row1);
+
+        int idx0 = A.row_idx[row0];
+        int idx1 = A.row_idx[row1];
+
+        if( out == null )
+            out = new DMatrixSparseCSR(row1-row0,A.numCols,idx1-idx0);
+        else
+            out.reshape(row1-row0,A.numCols,idx1-idx0);
+
+        for (int row = row0; row <= row1; row++) {
+            out.row_idx[row-row0] = A.row_idx[row]-idx0;
+        }
+        System.arraycopy(A.nz_cols,idx0,out.nz_cols,0,idx1-idx0);
+        System.arraycopy(A.nz_values,idx0,out.nz_values,0,idx1-idx0);
+        out.nz_length = idx1-idx0;
+        out.indicesSorted = A.indicesSorted;
+
+        return out;
+    }
+
+    /**
+     * <p>
+     * Extracts the diagonal elements 'src' write it to the 'dst' vector.  'dst'
+     * can either be a row or column vector.
+     * <p>
+     *
+     * @param src Matrix whose diagonal elements are being extracted. Not modified.
+     * @param dst A vector the results will be written into. Modified.
+     */
+    public static void extractDiag(DMatrixSparseCSR src, DMatrixRMaj dst ) {
+        int N = Math.min(src.numRows, src.numCols);
+
+        if( dst.getNumElements() != N || !(dst.numRows==1 || dst.numCols==1) ) {
+            dst.reshape(N, 1);
+        }
+
+        for (int i = 0; i < N; i++) {
+            dst.data[i] = src.unsafe_get(i, i);
+        }
+    }
+
+    /**
+     * This computes the trace of the matrix:<br>
+     * <br>
+     * trace = &sum;<sub>i=1:n</sub> { a<sub>ii</sub> }<br>
+     * where n = min(numRows,numCols)
+     *
+     * @param A (Input) Matrix.  Not modified.
+     */
+    public static double trace( DMatrixSparseCSR A ) {
+        double output = 0;
+
+        int o = Math.min(A.numCols,A.numRows);
+        for (int row = 0; row < o; row++) {
+            int idx0 = A.row_idx[row];
+            int idx1 = A.row_idx[row+1];
+
+            for (int i = idx0; i < idx1; i++) {
+                if( A.nz_cols[i] == row ) {
+                    output += A.nz_values[i];
+                    break;
+                }
+            }
+        }
+
+        return output;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csr;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixSparseCSR;
+
+/**
+ * @author Peter Abeles
+ */
+public class MatrixFeatures_DSCR {
+
+    public static boolean isEquals(DMatrixSparseCSR a , DMatrixSparseCSR b , double tol ) {
+        if( !a.indicesSorted || !b.indicesSorted )
+            throw new IllegalArgumentException("Inputs must have sorted indices");
+        if( !isSameStructure(a,b) )
+            return false;
+
+        for (int i = 0; i < a.nz_length; i++) {
+            if( Math.abs(a.nz_values[i]-b.nz_values[i]) > tol )
+                return false;
+        }
+        return true;
+    }
+
+    public static boolean isEqualsSort(DMatrixSparseCSR a , DMatrixSparseCSR b , double tol ) {
+        if( !a.indicesSorted )
+            a.sortIndices(null);
+        if( !b.indicesSorted )
+            b.sortIndices(null);
+        return isEquals(a,b,tol);
+    }
+
+    public static boolean isIdenticalSort(DMatrixSparseCSR a , DMatrixSparseCSR b , double tol ) {
+        if( !a.indicesSorted )
+            a.sortIndices(null);
+        if( !b.indicesSorted )
+            b.sortIndices(null);
+        if( !isSameStructure(a,b) )
+            return false;
+
+        for (int i = 0; i < a.nz_length; i++) {
+            if( !UtilEjml.isIdentical(a.nz_values[i],b.nz_values[i], tol))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks to see if the two matrices have the same shape and same pattern of non-zero elements
+     *
+     * @param a Matrix
+     * @param b Matrix
+     * @return true if the structure is the same
+     */
+    public static boolean isSameStructure(DMatrixSparseCSR a , DMatrixSparseCSR b) {
+        if( a.numRows == b.numRows && a.numCols == b.numCols && a.nz_length == b.nz_length) {
+            for (int i = 0; i <= a.numRows; i++) {
+                if( a.row_idx[i] != b.row_idx[i] )
+                    return false;
+            }
+            for (int i = 0; i < a.nz_length; i++) {
+                if( a.nz_cols[i] != b.nz_cols[i] )
+                    return false;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    public static boolean hasUncountable( DMatrixSparseCSR A ) {
+        for(int i = 0; i < A.nz_length; i++ ) {
+            if(UtilEjml.isUncountable(A.nz_values[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static boolean isZeros(DMatrixSparseCSR A , double tol ) {
+        for(int i = 0; i < A.nz_length; i++ ) {
+            if(Math.abs(A.nz_values[i]) > tol) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
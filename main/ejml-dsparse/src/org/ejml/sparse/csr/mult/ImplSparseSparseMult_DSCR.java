@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csr.mult;
+
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSR;
+import org.ejml.data.IGrowArray;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+
+import static org.ejml.UtilEjml.adjust;
+
+/**
+ * Matrix multiplication kernels for compressed row matrices.  Every row in the output only depends on the same
+ * row in A, so the dense kernels operate on a range of rows.
+ *
+ * @author Peter Abeles
+ */
+public class ImplSparseSparseMult_DSCR {
+
+    /**
+     * Performs matrix multiplication.  C = A*B
+     *
+     * @param A Matrix
+     * @param B Matrix
+     * @param C Storage for results.  Data length is increased if increased if insufficient.
+     * @param gw (Optional) Storage for internal workspace.  Can be null.
+     * @param gx (Optional) Storage for internal workspace.  Can be null.
+     */
+    public static void mult(DMatrixSparseCSR A, DMatrixSparseCSR B, DMatrixSparseCSR C,
+                            @Nullable IGrowArray gw, @Nullable DGrowArray gx )
+    {
+        double []x = adjust(gx, B.numCols);
+        int []w = adjust(gw, B.numCols, B.numCols);
+
+        C.growMaxLength(A.nz_length+B.nz_length,false);
+        C.indicesSorted = false;
+        C.nz_length = 0;
+        C.row_idx[0] = 0;
+
+        // C(i,:) = sum_k A(i,k)*B(k,:)
+        for (int rowA = 0; rowA < A.numRows; rowA++) {
+            int idx0 = A.row_idx[rowA];
+            int idx1 = A.row_idx[rowA+1];
+            C.row_idx[rowA+1] = C.nz_length;
+
+            if( idx0 == idx1 )
+                continue;
+
+            for (int i = idx0; i < idx1; i++) {
+                multAddRowA(B,A.nz_cols[i],A.nz_values[i],C,rowA+1,x,w);
+            }
+
+            // take the values in the dense vector 'x' and put them into 'C'
+            int idxC0 = C.row_idx[rowA];
+            int idxC1 = C.row_idx[rowA+1];
+
+            for (int i = idxC0; i < idxC1; i++) {
+                C.nz_values[i] = x[C.nz_cols[i]];
+            }
+        }
+    }
+
+    /**
+     * Performs the performing operation x = x + A(i,:)*alpha and adds new columns to the last row in C.
+     *
+     * @param A Matrix
+     * @param rowA The row in A that is being added
+     * @param alpha scalar
+     * @param C Matrix which new columns are added to
+     * @param mark Index of the row in C plus one.  Columns with w[col] &lt; mark are added to C.
+     * @param x Dense storage for the row's values
+     * @param w Marks which columns are in the row
+     */
+    public static void multAddRowA(DMatrixSparseCSR A , int rowA ,
+                                   double alpha,
+                                   DMatrixSparseCSR C, int mark,
+                                   double x[] , int w[] ) {
+        int idxA0 = A.row_idx[rowA];
+        int idxA1 = A.row_idx[rowA+1];
+
+        for (int j = idxA0; j < idxA1; j++) {
+            int col = A.nz_cols[j];
+
+            if( w[col] < mark ) {
+                if( C.nz_length >= C.nz_cols.length ) {
+                    C.growMaxLength(C.nz_length *2+1,true);
+                }
+
+                w[col] = mark;
+                C.nz_cols[C.nz_length] = col;
+                C.row_idx[mark] = ++C.nz_length;
+                x[col] = A.nz_values[j]*alpha;
+            } else {
+                x[col] += A.nz_values[j]*alpha;
+            }
+        }
+    }
+
+    /**
+     * Computes rows row0 to row1-1 in C = A*B
+     *
+     * @param A Sparse matrix
+     * @param B Dense matrix
+     * @param C Dense matrix.  Must be the correct shape.
+     * @param row0 First row which is computed
+     * @param row1 Last row which is computed, exclusive
+     */
+    public static void mult(DMatrixSparseCSR A, DMatrixRMaj B, DMatrixRMaj C, int row0 , int row1 )
+    {
+        Arrays.fill(C.data,row0*C.numCols,row1*C.numCols,0);
+        multAdd(A,B,C,row0,row1);
+    }
+
+    /**
+     * Computes rows row0 to row1-1 in C = C + A*B
+     *
+     * @param A Sparse matrix
+     * @param B Dense matrix
+     * @param C Dense matrix.  Must be the correct shape.
+     * @param row0 First row which is computed
+     * @param row1 Last row which is computed, exclusive
+     */
+    public static void multAdd(DMatrixSparseCSR A, DMatrixRMaj B, DMatrixRMaj C, int row0 , int row1 )
+    {
+        final int N = B.numCols;
+
+        for (int row = row0; row < row1; row++) {
+            int idx0 = A.row_idx[row];
+            int idx1 = A.row_idx[row+1];
+            int indexC = row*N;
+
+            for (int i = idx0; i < idx1; i++) {
+                double valA = A.nz_values[i];
+                int indexB = A.nz_cols[i]*N;
+
+                for (int j = 0; j < N; j++) {
+                    C.data[indexC+j] += valA*B.data[indexB+j];
+                }
+            }
+        }
+    }
+
+    /**
+     * Performs matrix multiplication.  C = A<sup>T</sup>*B
+     *
+     * @param A Sparse matrix
+     * @param B Dense matrix
+     * @param C Dense matrix.  Must be the correct shape.
+     */
+    public static void multTransA(DMatrixSparseCSR A, DMatrixRMaj B, DMatrixRMaj C )
+    {
+        C.zero();
+        multAddTransA(A,B,C);
+    }
+
+    /**
+     * Performs matrix multiplication.  C = C + A<sup>T</sup>*B
+     *
+     * @param A Sparse matrix
+     * @param B Dense matrix
+     * @param C Dense matrix.  Must be the correct shape.
+     */
+    public static void multAddTransA(DMatrixSparseCSR A, DMatrixRMaj B, DMatrixRMaj C )
+    {
+        final int N = B.numCols;
+
+        // C(k,:) += A(i,k)*B(i,:)
+        for (int row = 0; row < A.numRows; row++) {
+            int idx0 = A.row_idx[row];
+            int idx1 = A.row_idx[row+1];
+            int indexB = row*N;
+
+            for (int i = idx0; i < idx1; i++) {
+                double valA = A.nz_values[i];
+                int indexC = A.nz_cols[i]*N;
+
+                for (int j = 0; j < N; j++) {
+                    C.data[indexC+j] += valA*B.data[indexB+j];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csr.mult;
+
+import org.ejml.data.DMatrixSparseCSR;
+
+/**
+ * Matrix-vector multiplication with a compressed row matrix.  Each output element of A*b only depends on a
+ * single row, which allows ranges of rows to be computed independently.
+ *
+ * @author Peter Abeles
+ */
+public class MatrixVectorMult_DSCR {
+    /**
+     * c = A*b
+     *
+     * @param A (Input) Matrix
+     * @param b (Input) vector
+     * @param offsetB (Input) first index in vector b
+     * @param c (Output) vector
+     * @param offsetC (Output) first index in vector c
+     */
+    public static void mult(DMatrixSparseCSR A ,
+                            double b[] , int offsetB ,
+                            double c[] , int offsetC )
+    {
+        if( b.length-offsetB < A.numCols)
+            throw new IllegalArgumentException("Length of 'b' isn't long enough");
+        if( c.length-offsetC < A.numRows)
+            throw new IllegalArgumentException("Length of 'c' isn't long enough");
+
+        mult(A,0,A.numRows,b,offsetB,c,offsetC);
+    }
+
+    /**
+     * c(row0:row1-1) = A(row0:row1-1,:)*b.  Array lengths are not checked.
+     *
+     * @param A (Input) Matrix
+     * @param row0 (Input) first row which is computed
+     * @param row1 (Input) last row which is computed, exclusive
+     * @param b (Input) vector
+     * @param offsetB (Input) first index in vector b
+     * @param c (Output) vector
+     * @param offsetC (Output) first index in vector c
+     */
+    public static void mult(DMatrixSparseCSR A , int row0 , int row1 ,
+                            double b[] , int offsetB ,
+                            double c[] , int offsetC )
+    {
+        final int[] row_idx = A.row_idx;
+        final int[] nz_cols = A.nz_cols;
+        final double[] nz_values = A.nz_values;
+
+        for (int row = row0; row < row1; row++) {
+            int idx0 = row_idx[row];
+            int idx1 = row_idx[row+1];
+
+            double sum = 0;
+            for (int i = idx0; i < idx1; i++) {
+                sum += nz_values[i]*b[offsetB+nz_cols[i]];
+            }
+            c[offsetC+row] = sum;
+        }
+    }
+
+    /**
+     * c = c + A*b
+     *
+     * @param A (Input) Matrix
+     * @param b (Input) vector
+     * @param offsetB (Input) first index in vector b
+     * @param c (Output) vector
+     * @param offsetC (Output) first index in vector c
+     */
+    public static void multAdd(DMatrixSparseCSR A ,
+                               double b[] , int offsetB ,
+                               double c[] , int offsetC )
+    {
+        if( b.length-offsetB < A.numCols)
+            throw new IllegalArgumentException("Length of 'b' isn't long enough");
+        if( c.length-offsetC < A.numRows)
+            throw new IllegalArgumentException("Length of 'c' isn't long enough");
+
+        for (int row = 0; row < A.numRows; row++) {
+            int idx0 = A.row_idx[row];
+            int idx1 = A.row_idx[row+1];
+
+            double sum = 0;
+            for (int i = idx0; i < idx1; i++) {
+                sum += A.nz_values[i]*b[offsetB+A.nz_cols[i]];
+            }
+            c[offsetC+row] += sum;
+        }
+    }
+
+    /**
+     * c = c + A<sup>T</sup>*b
+     *
+     * @param A (Input) Matrix
+     * @param b (Input) vector
+     * @param offsetB (Input) first index in vector b
+     * @param c (Output) vector
+     * @param offsetC (Output) first index in vector c
+     */
+    public static void multAddTransA(DMatrixSparseCSR A ,
+                                     double b[] , int offsetB ,
+                                     double c[] , int offsetC )
+    {
+        if( b.length-offsetB < A.numRows)
+            throw new IllegalArgumentException("Length of 'b' isn't long enough");
+        if( c.length-offsetC < A.numCols)
+            throw new IllegalArgumentException("Length of 'c' isn't long enough");
+
+        for (int row = 0; row < A.numRows; row++) {
+            int idx0 = A.row_idx[row];
+            int idx1 = A.row_idx[row+1];
+
+            double valB = b[offsetB+row];
+            for (int i = idx0; i < idx1; i++) {
+                c[offsetC+A.nz_cols[i]] += A.nz_values[i]*valB;
+            }
+        }
+    }
+
+    /**
+     * scalar = a<sup>T</sup>*B*c
+     *
+     * @param a (Input) vector
+     * @param offsetA (Input) first index in vector a
+     * @param B (Input) Matrix
+     * @param c (Input) vector
+     * @param offsetC (Input) first index in vector c
+     */
+    public static double innerProduct( double a[] , int offsetA ,
+                                       DMatrixSparseCSR B ,
+                                       double c[] , int offsetC )
+    {
+        if( a.length-offsetA < B.numRows)
+            throw new IllegalArgumentException("Length of 'a' isn't long enough");
+        if( c.length-offsetC < B.numCols)
+            throw new IllegalArgumentException("Length of 'c' isn't long enough");
+
+        double output = 0;
+        for (int row = 0; row < B.numRows; row++) {
+            int idx0 = B.row_idx[row];
+            int idx1 = B.row_idx[row+1];
+
+            double sum = 0;
+            for (int i = idx0; i < idx1; i++) {
+                sum += B.nz_values[i]*c[offsetC+B.nz_cols[i]];
+            }
+            output += a[offsetA+row]*sum;
+        }
+        return output;
+    }
+}
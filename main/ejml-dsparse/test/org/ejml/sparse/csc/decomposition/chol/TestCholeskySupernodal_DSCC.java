@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.decomposition.chol;
+
+import org.ejml.EjmlParameters;
+import org.ejml.EjmlUnitTests;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.interfaces.decomposition.CholeskySparseDecomposition_F64;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.ejml.sparse.csc.misc.ApproximateMinimumDegree_DSCC;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * The switch is set so that the supernodal algorithm is always used
+ *
+ * @author Peter Abeles
+ */
+public class TestCholeskySupernodal_DSCC extends GenericCholeskyTests_DSCC {
+
+    double originalSwitch;
+
+    public TestCholeskySupernodal_DSCC() {
+        canR = false;
+    }
+
+    @Before
+    public void before() {
+        originalSwitch = EjmlParameters.SWITCH_SUPERNODAL_CHOLESKY;
+        EjmlParameters.SWITCH_SUPERNODAL_CHOLESKY = 0;
+    }
+
+    @After
+    public void after() {
+        EjmlParameters.SWITCH_SUPERNODAL_CHOLESKY = originalSwitch;
+    }
+
+    @Override
+    public CholeskySparseDecomposition_F64<DMatrixSparseCSC> create(boolean lower) {
+        return new CholeskySupernodal_DSCC();
+    }
+
+    /**
+     * Compare against the up looking algorithm on matrices with large supernodes
+     */
+    @Test
+    public void compareToUpLooking_grid() {
+        for( int width : new int[]{1,2,5,12} ) {
+            DMatrixSparseCSC A = permutedGrid(width);
+
+            CholeskySupernodal_DSCC alg = new CholeskySupernodal_DSCC();
+            CholeskyUpLooking_DSCC expected = new CholeskyUpLooking_DSCC();
+
+            assertTrue(alg.decompose(A));
+            assertTrue(alg.isSupernodal());
+            assertTrue(expected.decompose(A));
+            if( width > 2 )
+                assertTrue(alg.getNumSupernodes() < A.numCols);
+
+            checkSame(expected.getL(),alg.getL());
+        }
+    }
+
+    @Test
+    public void compareToUpLooking_random() {
+        for (int trial = 0; trial < 40; trial++) {
+            int N = rand.nextInt(60)+1;
+            DMatrixSparseCSC A = RandomMatrices_DSCC.symmetricPosDef(N,(int)(N*N*(rand.nextDouble()*0.1+0.01))+1,rand);
+
+            CholeskySupernodal_DSCC alg = new CholeskySupernodal_DSCC();
+            CholeskyUpLooking_DSCC expected = new CholeskyUpLooking_DSCC();
+
+            assertTrue(alg.decompose(A));
+            assertTrue(expected.decompose(A));
+
+            checkSame(expected.getL(),alg.getL());
+        }
+    }
+
+    /**
+     * Supernodes which are wider than an inner block are solved with the blocked triangular solver. Shrink the
+     * blocks so that happens with small matrices and the supernodes span several blocks.
+     */
+    @Test
+    public void compareToUpLooking_blockedPanel() {
+        int originalWidth = EjmlParameters.BLOCK_WIDTH;
+        try {
+            for( int blockWidth : new int[]{1,2,3,5} ) {
+                EjmlParameters.BLOCK_WIDTH = blockWidth;
+                for( int width : new int[]{5,12} ) {
+                    DMatrixSparseCSC A = permutedGrid(width);
+
+                    CholeskySupernodal_DSCC alg = new CholeskySupernodal_DSCC();
+                    CholeskyUpLooking_DSCC expected = new CholeskyUpLooking_DSCC();
+
+                    assertTrue(alg.decompose(A));
+                    assertTrue(expected.decompose(A));
+
+                    checkSame(expected.getL(),alg.getL());
+                }
+            }
+        } finally {
+            EjmlParameters.BLOCK_WIDTH = originalWidth;
+        }
+    }
+
+    /**
+     * The rows below the diagonal block of an ill-conditioned supernode should be solved accurately
+     */
+    @Test
+    public void illConditioned() {
+        // Hilbert matrix H with a row and column appended which forms one wide supernode. The appended row is
+        // v = 0.5*H(:,0), so the solution below the diagonal block is inv(L)*v = 0.5*L(0,0)*e_0
+        int N = 10;
+        DMatrixSparseCSC A = new DMatrixSparseCSC(N+1,N+1,0);
+        for (int i = 0; i < N; i++) {
+            for (int j = 0; j < N; j++) {
+                A.set(i,j,1.0/(i+j+1));
+            }
+            A.set(N,i,0.5/(i+1));
+            A.set(i,N,0.5/(i+1));
+        }
+        A.set(N,N,2.0);
+
+        CholeskySupernodal_DSCC alg = new CholeskySupernodal_DSCC();
+        assertTrue(alg.decompose(A));
+        assertTrue(alg.isSupernodal());
+
+        DMatrixSparseCSC L = alg.getL();
+        assertEquals(0.5*L.get(0,0),L.get(N,0),UtilEjml.TEST_F64);
+        for (int j = 1; j < N; j++) {
+            assertEquals(0,L.get(N,j),UtilEjml.TEST_F64);
+        }
+    }
+
+    /**
+     * Only the upper triangular portion of the input should be read
+     */
+    @Test
+    public void upperTriangleOnly() {
+        DMatrixSparseCSC A = permutedGrid(6);
+        DMatrixSparseCSC U = new DMatrixSparseCSC(A.numRows,A.numCols,A.nz_length);
+        for (int col = 0; col < A.numCols; col++) {
+            for (int i = A.col_idx[col]; i < A.col_idx[col+1]; i++) {
+                if( A.nz_rows[i] <= col )
+                    U.set(A.nz_rows[i],col,A.nz_values[i]);
+            }
+        }
+
+        CholeskySupernodal_DSCC alg = new CholeskySupernodal_DSCC();
+        assertTrue(alg.decompose(A));
+        DMatrixSparseCSC expected = alg.getL().copy();
+        assertTrue(alg.decompose(U));
+
+        checkSame(expected,alg.getL());
+    }
+
+    /**
+     * If the supernodes are too narrow it should switch to the up looking algorithm
+     */
+    @Test
+    public void switchToUpLooking() {
+        EjmlParameters.SWITCH_SUPERNODAL_CHOLESKY = 4;
+
+        DMatrixSparseCSC A = new DMatrixSparseCSC(10,10,10);
+        for (int i = 0; i < 10; i++) {
+            A.set(i,i,2+i);
+        }
+        CholeskySupernodal_DSCC alg = new CholeskySupernodal_DSCC();
+        assertTrue(alg.decompose(A));
+        assertFalse(alg.isSupernodal());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(Math.sqrt(2+i),alg.getL().get(i,i),UtilEjml.TEST_F64);
+        }
+
+        // a dense matrix is a single supernode
+        A = RandomMatrices_DSCC.symmetricPosDef(10,100,rand);
+        assertTrue(alg.decompose(A));
+        assertTrue(alg.isSupernodal());
+        assertEquals(1,alg.getNumSupernodes());
+    }
+
+    private void checkSame( DMatrixSparseCSC expected , DMatrixSparseCSC found ) {
+        assertEquals(expected.nz_length,found.nz_length);
+        for (int i = 0; i <= expected.numCols; i++) {
+            assertEquals(expected.col_idx[i],found.col_idx[i]);
+        }
+        for (int i = 0; i < expected.nz_length; i++) {
+            assertEquals(expected.nz_rows[i],found.nz_rows[i]);
+        }
+        EjmlUnitTests.assertEquals(expected,found,UtilEjml.TEST_F64);
+    }
+
+    /**
+     * Grid Laplacian with a fill reducing permutation applied. This will have a few large supernodes
+     */
+    private static DMatrixSparseCSC permutedGrid( int width ) {
+        int N = width*width;
+        DMatrixSparseCSC A = new DMatrixSparseCSC(N,N,5*N);
+        for (int y = 0; y < width; y++) {
+            for (int x = 0; x < width; x++) {
+                int i = y*width+x;
+                A.set(i,i,4.1);
+                if( x > 0 ) { A.set(i,i-1,-1); A.set(i-1,i,-1); }
+                if( y > 0 ) { A.set(i,i-width,-1); A.set(i-width,i,-1); }
+            }
+        }
+
+        ApproximateMinimumDegree_DSCC amd = new ApproximateMinimumDegree_DSCC();
+        amd.process(A);
+        int pinv[] = CommonOps_DSCC.permutationInverse(amd.getRow().data,N);
+        DMatrixSparseCSC B = new DMatrixSparseCSC(1,1,0);
+        CommonOps_DSCC.permute(pinv,A,amd.getColumn().data,B);
+        return B;
+    }
+}
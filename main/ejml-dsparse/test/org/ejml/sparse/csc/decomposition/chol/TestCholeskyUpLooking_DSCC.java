@@ -18,8 +18,20 @@
 
 package org.ejml.sparse.csc.decomposition.chol;
 
+import org.ejml.EjmlUnitTests;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
 import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.dense.row.CommonOps_DDRM;
 import org.ejml.interfaces.decomposition.CholeskySparseDecomposition_F64;
+import org.ejml.ops.ConvertDMatrixStruct;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class TestCholeskyUpLooking_DSCC extends GenericCholeskyTests_DSCC {
 
@@ -31,4 +43,121 @@ public class TestCholeskyUpLooking_DSCC extends GenericCholeskyTests_DSCC {
     public CholeskySparseDecomposition_F64<DMatrixSparseCSC> create(boolean lower) {
         return new CholeskyUpLooking_DSCC();
     }
+
+    /**
+     * Compare the updated factor against A + c*c' for random matrices and vectors
+     */
+    @Test
+    public void update_random() {
+        for (int trial = 0; trial < 20; trial++) {
+            int N = 5+rand.nextInt(20);
+            DMatrixSparseCSC A = RandomMatrices_DSCC.symmetricPosDef(N,N/3+1,rand);
+            DMatrixSparseCSC c = RandomMatrices_DSCC.rectangle(N,1,1+rand.nextInt(N),rand);
+
+            CholeskyUpLooking_DSCC alg = new CholeskyUpLooking_DSCC();
+            assertTrue(alg.decompose(A));
+            assertTrue(alg.update(c));
+
+            checkFactor(alg.getL(),addOuter(A,c,1));
+        }
+    }
+
+    /**
+     * A downdate should undo an update
+     */
+    @Test
+    public void downdate_undoUpdate() {
+        for (int trial = 0; trial < 20; trial++) {
+            int N = 5+rand.nextInt(20);
+            DMatrixSparseCSC A = RandomMatrices_DSCC.symmetricPosDef(N,N/3+1,rand);
+            DMatrixSparseCSC c = RandomMatrices_DSCC.rectangle(N,1,1+rand.nextInt(N),rand);
+
+            CholeskyUpLooking_DSCC alg = new CholeskyUpLooking_DSCC();
+            assertTrue(alg.decompose(A));
+            assertTrue(alg.update(c));
+            assertTrue(alg.downdate(c));
+
+            checkFactor(alg.getL(),addOuter(A,c,0));
+        }
+    }
+
+    /**
+     * The update adds elements to L which were not in the original structure
+     */
+    @Test
+    public void update_fill() {
+        int N = 8;
+        DMatrixSparseCSC A = CommonOps_DSCC.identity(N);
+        CommonOps_DSCC.scale(2.0,A,A);
+
+        DMatrixSparseCSC c = new DMatrixSparseCSC(N,1,3);
+        c.set(6,0,0.5);
+        c.set(1,0,1.5);
+        c.set(4,0,-2.0);
+
+        CholeskyUpLooking_DSCC alg = new CholeskyUpLooking_DSCC();
+        alg.setStructureLocked(true);
+        assertTrue(alg.decompose(A));
+        assertEquals(N,alg.getL().nz_length);
+        assertTrue(alg.update(c));
+        assertEquals(N+3,alg.getL().nz_length);
+        checkFactor(alg.getL(),addOuter(A,c,1));
+
+        // a second update along the same path shouldn't add elements
+        assertTrue(alg.update(c));
+        assertEquals(N+3,alg.getL().nz_length);
+        checkFactor(alg.getL(),addOuter(A,c,2));
+
+        // the structure no longer matches the symbolic decomposition so it should be recomputed
+        assertTrue(alg.decompose(A));
+        assertEquals(N,alg.getL().nz_length);
+        checkFactor(alg.getL(),addOuter(A,c,0));
+    }
+
+    /**
+     * Downdating a matrix so that it's no longer positive definite should fail
+     */
+    @Test
+    public void downdate_notPositiveDefinite() {
+        int N = 6;
+        DMatrixSparseCSC A = CommonOps_DSCC.identity(N);
+        DMatrixSparseCSC c = new DMatrixSparseCSC(N,1,2);
+        c.set(2,0,2.0);
+        c.set(3,0,0.1);
+
+        CholeskyUpLooking_DSCC alg = new CholeskyUpLooking_DSCC();
+        assertTrue(alg.decompose(A));
+        assertFalse(alg.downdate(c));
+
+        // it can still decompose a new matrix
+        assertTrue(alg.decompose(A));
+        checkFactor(alg.getL(),addOuter(A,c,0));
+    }
+
+    @Test
+    public void update_emptyVector() {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.symmetricPosDef(10,5,rand);
+        CholeskyUpLooking_DSCC alg = new CholeskyUpLooking_DSCC();
+        assertTrue(alg.decompose(A));
+        assertTrue(alg.update(new DMatrixSparseCSC(10,1,0)));
+        checkFactor(alg.getL(),addOuter(A,new DMatrixSparseCSC(10,1,0),0));
+    }
+
+    /**
+     * Returns A + scale*c*c' as a dense matrix
+     */
+    private static DMatrixRMaj addOuter( DMatrixSparseCSC A , DMatrixSparseCSC c , double scale ) {
+        DMatrixRMaj c_d = ConvertDMatrixStruct.convert(c,(DMatrixRMaj)null);
+        DMatrixRMaj found = ConvertDMatrixStruct.convert(A,(DMatrixRMaj)null);
+        CommonOps_DDRM.multAddTransB(scale,c_d,c_d,found);
+        return found;
+    }
+
+    private static void checkFactor( DMatrixSparseCSC L , DMatrixRMaj expected ) {
+        assertTrue(CommonOps_DSCC.checkStructure(L));
+        DMatrixRMaj L_d = ConvertDMatrixStruct.convert(L,(DMatrixRMaj)null);
+        DMatrixRMaj found = new DMatrixRMaj(L.numRows,L.numRows);
+        CommonOps_DDRM.multTransB(L_d,L_d,found);
+        EjmlUnitTests.assertEquals(expected,found,UtilEjml.TEST_F64);
+    }
 }
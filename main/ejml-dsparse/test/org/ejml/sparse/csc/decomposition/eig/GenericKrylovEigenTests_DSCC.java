@@ -0,0 +1,314 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.sparse.csc.decomposition.eig;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DEigenpair;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.dense.row.NormOps_DDRM;
+import org.ejml.dense.row.factory.DecompositionFactory_DDRM;
+import org.ejml.interfaces.decomposition.EigenDecomposition_F64;
+import org.ejml.ops.ConvertDMatrixStruct;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests which apply to all iterative sparse eigen solvers using symmetric matrices
+ *
+ * @author Peter Abeles
+ */
+public abstract class GenericKrylovEigenTests_DSCC {
+
+    protected Random rand = new Random(234);
+
+    public abstract KrylovEigen_DSCC createSolver( int numEigen , EigenTarget target );
+
+    /**
+     * Returns the real component of an eigenvalue
+     */
+    public abstract double getEigenvalue( KrylovEigen_DSCC alg , int index );
+
+    @Test
+    public void laplacian_largest() {
+        int width = 20;
+        DMatrixSparseCSC A = laplacian2D(width,width+2);
+        double expected[] = laplacianEigenvalues(width,width+2);
+
+        KrylovEigen_DSCC alg = createSolver(6,EigenTarget.LARGEST_REAL);
+        assertTrue(alg.decompose(A));
+        assertTrue(alg.isConverged());
+
+        for (int i = 0; i < 6; i++) {
+            assertEquals(expected[expected.length-1-i],getEigenvalue(alg,i),UtilEjml.TEST_F64);
+        }
+        checkEigenpairs(A,alg,6);
+    }
+
+    /**
+     * Shift-invert is used to find the smallest eigenvalues quickly
+     */
+    @Test
+    public void laplacian_smallestShiftInvert() {
+        int width = 30;
+        DMatrixSparseCSC A = laplacian2D(width,width+2);
+        double expected[] = laplacianEigenvalues(width,width+2);
+
+        KrylovEigen_DSCC alg = createSolver(5,EigenTarget.LARGEST_MAGNITUDE);
+        alg.setShiftInvert(0,null);
+        assertTrue(alg.decompose(A));
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(expected[i],getEigenvalue(alg,i),UtilEjml.TEST_F64);
+        }
+        checkEigenpairs(A,alg,5);
+
+        // should converge much faster than without shift-invert
+        assertTrue(alg.getRestarts() < 5);
+    }
+
+    /**
+     * &sigma; is exactly an eigenvalue so A - &sigma;I is singular. The shift should be moved and the
+     * eigenvalues should still be accurate
+     */
+    @Test
+    public void shiftInvert_singular() {
+        int width = 30;
+        DMatrixSparseCSC A = graphLaplacian(width,width+2);
+        double expected[] = graphLaplacianEigenvalues(width,width+2);
+
+        KrylovEigen_DSCC alg = createSolver(5,EigenTarget.LARGEST_MAGNITUDE);
+        alg.setShiftInvert(0,null);
+        assertTrue(alg.decompose(A));
+        assertTrue(alg.getShift() != 0);
+        assertEquals(0,alg.getSigma(),0);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(expected[i],getEigenvalue(alg,i),UtilEjml.TEST_F64);
+        }
+        checkEigenpairs(A,alg,5);
+    }
+
+    /**
+     * Each Ritz pair should be compared against its own Ritz value and not the largest
+     */
+    @Test
+    public void isConverged_relative() {
+        KrylovEigen_DSCC alg = createSolver(1,EigenTarget.LARGEST_MAGNITUDE);
+        double tol = alg.getTolerance();
+        assertTrue(alg.isConverged(tol*0.9,1,1e3));
+        assertFalse(alg.isConverged(tol*2,1,1e3));
+        // Ritz values which are zero are compared against machine precision
+        assertTrue(alg.isConverged(UtilEjml.EPS,0,1));
+        assertFalse(alg.isConverged(100*UtilEjml.EPS,0,1));
+    }
+
+    @Test
+    public void laplacian_smallest() {
+        int width = 8;
+        DMatrixSparseCSC A = laplacian2D(width,width+2);
+        double expected[] = laplacianEigenvalues(width,width+2);
+
+        KrylovEigen_DSCC alg = createSolver(3,EigenTarget.SMALLEST_REAL);
+        assertTrue(alg.decompose(A));
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(expected[i],getEigenvalue(alg,i),UtilEjml.TEST_F64);
+        }
+        checkEigenpairs(A,alg,3);
+    }
+
+    /**
+     * Random symmetric matrix with positive and negative eigenvalues
+     */
+    @Test
+    public void compareToDense_symmetric() {
+        int N = 150;
+        DMatrixSparseCSC A = RandomMatrices_DSCC.symmetric(N,N*4,-1,1,rand);
+        DMatrixSparseCSC A_orig = A.copy();
+
+        double expected[] = denseEigenvalues(A);
+
+        KrylovEigen_DSCC alg = createSolver(4,EigenTarget.LARGEST_MAGNITUDE);
+        assertTrue(alg.decompose(A));
+        assertTrue(CommonOps_DSCC.checkStructure(A));
+        assertTrue(Arrays.equals(A_orig.nz_values,A.nz_values));
+
+        double found[] = new double[4];
+        for (int i = 0; i < 4; i++) {
+            found[i] = Math.abs(getEigenvalue(alg,i));
+            assertTrue(found[i] <= Math.abs(getEigenvalue(alg,Math.max(0,i-1)))+UtilEjml.TEST_F64);
+        }
+        double magnitudes[] = new double[N];
+        for (int i = 0; i < N; i++) {
+            magnitudes[i] = Math.abs(expected[i]);
+        }
+        Arrays.sort(magnitudes);
+        for (int i = 0; i < 4; i++) {
+            assertEquals(magnitudes[N-1-i],found[i],UtilEjml.TEST_F64);
+        }
+        checkEigenpairs(A,alg,4);
+    }
+
+    /**
+     * The subspace is as large as the matrix. The solution is found without restarting
+     */
+    @Test
+    public void entireSpace() {
+        int N = 12;
+        DMatrixSparseCSC A = RandomMatrices_DSCC.symmetric(N,30,-1,1,rand);
+        double expected[] = denseEigenvalues(A);
+
+        KrylovEigen_DSCC alg = createSolver(N,EigenTarget.SMALLEST_REAL);
+        assertTrue(alg.decompose(A));
+        assertEquals(0,alg.getRestarts());
+        for (int i = 0; i < N; i++) {
+            assertEquals(expected[i],getEigenvalue(alg,i),UtilEjml.TEST_F64);
+        }
+    }
+
+    @Test
+    public void maxRestarts() {
+        DMatrixSparseCSC A = laplacian2D(20,22);
+
+        KrylovEigen_DSCC alg = createSolver(5,EigenTarget.SMALLEST_REAL);
+        alg.setSubspaceSize(8);
+        alg.setMaxRestarts(2);
+        assertFalse(alg.decompose(A));
+        assertFalse(alg.isConverged());
+        assertEquals(2,alg.getRestarts());
+    }
+
+    /**
+     * Checks that A*x = &lambda;x and that the eigenvectors are orthonormal
+     */
+    protected void checkEigenpairs( DMatrixSparseCSC A , KrylovEigen_DSCC alg , int count ) {
+        List<DEigenpair> pairs = alg.getEigenpairs();
+        assertEquals(count,pairs.size());
+
+        DMatrixRMaj Ax = new DMatrixRMaj(1,1);
+        for (int i = 0; i < count; i++) {
+            DEigenpair p = pairs.get(i);
+            assertEquals(1,NormOps_DDRM.normF(p.vector),UtilEjml.TEST_F64);
+            CommonOps_DSCC.mult(A,p.vector,Ax);
+            for (int j = 0; j < Ax.numRows; j++) {
+                Ax.data[j] -= p.value*p.vector.data[j];
+            }
+            assertEquals(0,NormOps_DDRM.normF(Ax),UtilEjml.TEST_F64*Math.max(1,Math.abs(p.value)));
+
+            for (int j = 0; j < i; j++) {
+                double dot = 0;
+                for (int k = 0; k < A.numRows; k++) {
+                    dot += p.vector.data[k]*pairs.get(j).vector.data[k];
+                }
+                assertEquals(0,dot,UtilEjml.TEST_F64);
+            }
+        }
+    }
+
+    /**
+     * Laplacian on a grid. The width and height should be selected so that the eigenvalues are distinct
+     */
+    public static DMatrixSparseCSC laplacian2D( int width , int height ) {
+        int N = width*height;
+        DMatrixSparseCSC A = new DMatrixSparseCSC(N,N,5*N);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int i = y*width+x;
+                A.set(i,i,4);
+                if( x > 0 ) { A.set(i,i-1,-1); A.set(i-1,i,-1); }
+                if( y > 0 ) { A.set(i,i-width,-1); A.set(i-width,i,-1); }
+            }
+        }
+        return A;
+    }
+
+    /**
+     * Graph Laplacian of a grid. It's singular since the rows sum to zero.
+     */
+    public static DMatrixSparseCSC graphLaplacian( int width , int height ) {
+        int N = width*height;
+        DMatrixSparseCSC A = new DMatrixSparseCSC(N,N,5*N);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int i = y*width+x;
+                int degree = 0;
+                if( x > 0 ) { A.set(i,i-1,-1); A.set(i-1,i,-1); degree++; }
+                if( y > 0 ) { A.set(i,i-width,-1); A.set(i-width,i,-1); degree++; }
+                if( x+1 < width ) degree++;
+                if( y+1 < height ) degree++;
+                A.set(i,i,degree);
+            }
+        }
+        return A;
+    }
+
+    /**
+     * Eigenvalues of the grid's graph Laplacian in ascending order
+     */
+    public static double[] graphLaplacianEigenvalues( int width , int height ) {
+        double values[] = new double[width*height];
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++) {
+                values[i*width+j] = 4 - 2*Math.cos(Math.PI*i/height) - 2*Math.cos(Math.PI*j/width);
+            }
+        }
+        Arrays.sort(values);
+        return values;
+    }
+
+    /**
+     * Eigenvalues of the 2D Laplacian in ascending order
+     */
+    public static double[] laplacianEigenvalues( int width , int height ) {
+        double values[] = new double[width*height];
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++) {
+                values[i*width+j] = 4 - 2*Math.cos(Math.PI*(i+1)/(height+1)) - 2*Math.cos(Math.PI*(j+1)/(width+1));
+            }
+        }
+        Arrays.sort(values);
+        return values;
+    }
+
+    /**
+     * Eigenvalues of a symmetric matrix in ascending order
+     */
+    public static double[] denseEigenvalues( DMatrixSparseCSC A ) {
+        DMatrixRMaj D = ConvertDMatrixStruct.convert(A,(DMatrixRMaj)null);
+        EigenDecomposition_F64<DMatrixRMaj> eig = DecompositionFactory_DDRM.eig(false,true);
+        assertTrue(eig.decompose(D));
+        double values[] = new double[A.numRows];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = eig.getEigenvalue(i).real;
+        }
+        Arrays.sort(values);
+        return values;
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.sparse.csc.decomposition.eig;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.Complex_F64;
+import org.ejml.data.DEigenpair;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.dense.row.NormOps_DDRM;
+import org.ejml.dense.row.factory.DecompositionFactory_DDRM;
+import org.ejml.interfaces.decomposition.EigenDecomposition_F64;
+import org.ejml.ops.ConvertDMatrixStruct;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestArnoldiEigen_DSCC extends GenericKrylovEigenTests_DSCC {
+
+    @Override
+    public KrylovEigen_DSCC createSolver(int numEigen, EigenTarget target) {
+        return new ArnoldiEigen_DSCC(numEigen,target);
+    }
+
+    @Override
+    public double getEigenvalue(KrylovEigen_DSCC alg, int index) {
+        Complex_F64 c = ((ArnoldiEigen_DSCC)alg).getEigenvalue(index);
+        assertEquals(0,c.imaginary,UtilEjml.TEST_F64);
+        return c.real;
+    }
+
+    /**
+     * Non-symmetric tridiagonal matrix from a 1D convection-diffusion problem. The eigenvalues are real and known.
+     * Convection is kept weak since the eigenvalues become very ill-conditioned as it increases.
+     */
+    @Test
+    public void convectionDiffusion() {
+        int N = 100;
+        double c = 0.1;
+        DMatrixSparseCSC A = new DMatrixSparseCSC(N,N,3*N);
+        for (int i = 0; i < N; i++) {
+            A.set(i,i,2);
+            if( i > 0 ) A.set(i,i-1,-1-c);
+            if( i+1 < N ) A.set(i,i+1,-1+c);
+        }
+        double expected[] = new double[N];
+        for (int k = 0; k < N; k++) {
+            expected[k] = 2 - 2*Math.sqrt((1+c)*(1-c))*Math.cos(Math.PI*(k+1)/(N+1));
+        }
+        Arrays.sort(expected);
+
+        // largest
+        ArnoldiEigen_DSCC alg = new ArnoldiEigen_DSCC(4,EigenTarget.LARGEST_REAL);
+        assertTrue(alg.decompose(A));
+        for (int i = 0; i < 4; i++) {
+            assertEquals(expected[N-1-i],alg.getEigenvalue(i).real,UtilEjml.TEST_F64);
+            assertEquals(0,alg.getEigenvalue(i).imaginary,UtilEjml.TEST_F64);
+        }
+        checkResiduals(A,alg);
+
+        // smallest using shift-invert
+        alg = new ArnoldiEigen_DSCC(4,EigenTarget.LARGEST_MAGNITUDE);
+        alg.setShiftInvert(0,null);
+        assertTrue(alg.decompose(A));
+        for (int i = 0; i < 4; i++) {
+            assertEquals(expected[i],alg.getEigenvalue(i).real,UtilEjml.TEST_F64);
+        }
+        checkResiduals(A,alg);
+    }
+
+    /**
+     * Random non-symmetric matrix with complex eigenvalues
+     */
+    @Test
+    public void compareToDense_general() {
+        compareToDense_general(EigenTarget.LARGEST_MAGNITUDE);
+        compareToDense_general(EigenTarget.LARGEST_REAL);
+        compareToDense_general(EigenTarget.SMALLEST_REAL);
+    }
+
+    private void compareToDense_general( EigenTarget target ) {
+        int N = 200;
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(N,N,N*5,-1,1,rand);
+        for (int i = 0; i < N; i++) {
+            A.set(i,i,A.get(i,i)+0.05*i);
+        }
+
+        DMatrixRMaj D = ConvertDMatrixStruct.convert(A,(DMatrixRMaj)null);
+        EigenDecomposition_F64<DMatrixRMaj> eig = DecompositionFactory_DDRM.eig(false,false);
+        assertTrue(eig.decompose(D));
+        Complex_F64 expected[] = new Complex_F64[N];
+        for (int i = 0; i < N; i++) {
+            expected[i] = eig.getEigenvalue(i);
+        }
+
+        int numEigen = 6;
+        ArnoldiEigen_DSCC alg = new ArnoldiEigen_DSCC(numEigen,target);
+        assertTrue(alg.decompose(A));
+
+        for (int i = 0; i < numEigen; i++) {
+            Complex_F64 found = alg.getEigenvalue(i);
+
+            // every found eigenvalue is an eigenvalue
+            double best = Double.MAX_VALUE;
+            for (Complex_F64 e : expected) {
+                best = Math.min(best,distance(e,found));
+            }
+            assertEquals(0,best,UtilEjml.TEST_F64*10);
+
+            // and no other eigenvalue is a better match for the target
+            int better = 0;
+            for (Complex_F64 e : expected) {
+                if( score(target,e) < score(target,found)-UtilEjml.TEST_F64 )
+                    better++;
+            }
+            assertTrue(better <= i);
+        }
+        checkResiduals(A,alg);
+    }
+
+    /**
+     * A rotation matrix has only complex eigenvalues. Eigenvectors aren't returned for them.
+     */
+    @Test
+    public void complexEigenvalues() {
+        int N = 40;
+        DMatrixSparseCSC A = new DMatrixSparseCSC(N,N,2*N);
+        for (int i = 0; i < N; i += 2) {
+            double scale = 1+i;
+            A.set(i,i+1,scale);
+            A.set(i+1,i,-scale);
+        }
+
+        ArnoldiEigen_DSCC alg = new ArnoldiEigen_DSCC(2,EigenTarget.LARGEST_MAGNITUDE);
+        assertTrue(alg.decompose(A));
+        assertEquals(0,alg.getEigenvalue(0).real,UtilEjml.TEST_F64);
+        assertEquals(N-1,Math.abs(alg.getEigenvalue(0).imaginary),UtilEjml.TEST_F64);
+        assertEquals(-alg.getEigenvalue(0).imaginary,alg.getEigenvalue(1).imaginary,UtilEjml.TEST_F64);
+        assertNull(alg.getEigenVector(0));
+        assertNull(alg.getEigenVector(1));
+        assertEquals(0,alg.getEigenpairs().size());
+    }
+
+    private void checkResiduals( DMatrixSparseCSC A , ArnoldiEigen_DSCC alg ) {
+        DMatrixRMaj Ax = new DMatrixRMaj(1,1);
+        for (int i = 0; i < alg.getNumberOfEigenvalues(); i++) {
+            Complex_F64 value = alg.getEigenvalue(i);
+            DMatrixRMaj v = alg.getEigenVector(i);
+            if( value.imaginary != 0 ) {
+                assertNull(v);
+                continue;
+            }
+            assertNotNull(v);
+            assertEquals(1,NormOps_DDRM.normF(v),UtilEjml.TEST_F64);
+            CommonOps_DSCC.mult(A,v,Ax);
+            for (int j = 0; j < Ax.numRows; j++) {
+                Ax.data[j] -= value.real*v.data[j];
+            }
+            assertEquals(0,NormOps_DDRM.normF(Ax),UtilEjml.TEST_F64*Math.max(1,Math.abs(value.real)));
+        }
+
+        List<DEigenpair> pairs = alg.getEigenpairs();
+        for (DEigenpair p : pairs) {
+            assertNotNull(p.vector);
+        }
+    }
+
+    private static double distance( Complex_F64 a , Complex_F64 b ) {
+        double dr = a.real-b.real, di = a.imaginary-b.imaginary;
+        return Math.sqrt(dr*dr + di*di);
+    }
+
+    private static double score( EigenTarget target , Complex_F64 c ) {
+        switch( target ) {
+            case LARGEST_MAGNITUDE: return -c.getMagnitude();
+            case SMALLEST_MAGNITUDE: return c.getMagnitude();
+            case LARGEST_REAL: return -c.real;
+            case SMALLEST_REAL: return c.real;
+            default: throw new RuntimeException("Unknown");
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.sparse.csc.decomposition.eig;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.sparse.FillReducing;
+import org.ejml.sparse.csc.factory.LinearSolverFactory_DSCC;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestLanczosEigen_DSCC extends GenericKrylovEigenTests_DSCC {
+
+    @Override
+    public KrylovEigen_DSCC createSolver(int numEigen, EigenTarget target) {
+        return new LanczosEigen_DSCC(numEigen,target);
+    }
+
+    @Override
+    public double getEigenvalue(KrylovEigen_DSCC alg, int index) {
+        return ((LanczosEigen_DSCC)alg).getEigenvalue(index);
+    }
+
+    /**
+     * On a square grid most of the eigenvalues have a multiplicity of two. All the copies should be found.
+     */
+    @Test
+    public void repeatedEigenvalues() {
+        int width = 20;
+        DMatrixSparseCSC A = laplacian2D(width,width);
+        double expected[] = laplacianEigenvalues(width,width);
+        int N = expected.length;
+
+        // make sure the test is testing what it should
+        assertEquals(expected[N-2],expected[N-3],UtilEjml.TEST_F64);
+
+        LanczosEigen_DSCC alg = new LanczosEigen_DSCC(4,EigenTarget.LARGEST_MAGNITUDE);
+        assertTrue(alg.decompose(A));
+        for (int i = 0; i < 4; i++) {
+            assertEquals(expected[N-1-i],alg.getEigenvalue(i),UtilEjml.TEST_F64);
+        }
+        checkEigenpairs(A,alg,4);
+
+        alg.setShiftInvert(-0.01,null);
+        assertTrue(alg.decompose(A));
+        for (int i = 0; i < 4; i++) {
+            assertEquals(expected[i],alg.getEigenvalue(i),UtilEjml.TEST_F64);
+        }
+        checkEigenpairs(A,alg,4);
+    }
+
+    /**
+     * The shift is inside the spectrum so A - &sigma;I is indefinite and Cholesky can't be used
+     */
+    @Test
+    public void shiftInvert_interior() {
+        int width = 15;
+        DMatrixSparseCSC A = laplacian2D(width,width+2);
+        double expected[] = laplacianEigenvalues(width,width+2);
+
+        double sigma = 3.05;
+        LanczosEigen_DSCC alg = new LanczosEigen_DSCC(3,EigenTarget.LARGEST_MAGNITUDE);
+        alg.setShiftInvert(sigma,LinearSolverFactory_DSCC.lu(FillReducing.AMD));
+        assertTrue(alg.decompose(A));
+
+        for (int i = 0; i < 3; i++) {
+            double found = alg.getEigenvalue(i);
+            // it should be one of the three closest eigenvalues
+            int closer = 0;
+            for (double e : expected) {
+                if( Math.abs(e-sigma) < Math.abs(found-sigma)-UtilEjml.TEST_F64 )
+                    closer++;
+            }
+            assertTrue(closer <= i);
+            double best = Double.MAX_VALUE;
+            for (double e : expected) {
+                best = Math.min(best,Math.abs(e-found));
+            }
+            assertEquals(0,best,UtilEjml.TEST_F64);
+        }
+        checkEigenpairs(A,alg,3);
+
+        // the default solver should fall back on LU
+        alg.setShiftInvert(sigma,null);
+        assertTrue(alg.decompose(A));
+        checkEigenpairs(A,alg,3);
+    }
+}
@@ -44,7 +44,7 @@ import static org.junit.Assert.*;
 public abstract class GenericLuTests_DSCC extends GenericDecompositionTests_DSCC {
 
     private FillReducing permTests[] =
-            new FillReducing[]{FillReducing.NONE, FillReducing.IDENTITY};
+            new FillReducing[]{FillReducing.NONE, FillReducing.IDENTITY, FillReducing.RANDOM, FillReducing.AMD};
 
     public abstract LUSparseDecomposition_F64<DMatrixSparseCSC> create(FillReducing permutation );
 
@@ -108,6 +108,14 @@ public abstract class GenericLuTests_DSCC extends GenericDecompositionTests_DSCC
         DMatrixSparseCSC found = new DMatrixSparseCSC(PL.numCols,U.numCols,0);
         CommonOps_DSCC.mult(PL,U,found);
 
+        // P'*L*U = A*Q when a fill reducing column ordering is used
+        int q[] = ((LuUpLooking_DSCC)lu).getReducePermutation();
+        if( q != null ) {
+            DMatrixSparseCSC AQ = new DMatrixSparseCSC(1,1,0);
+            CommonOps_DSCC.permute(null,Acpy,q,AQ);
+            Acpy = AQ;
+        }
+
         EjmlUnitTests.assertEquals(Acpy,found,UtilEjml.TEST_F64);
     }
 
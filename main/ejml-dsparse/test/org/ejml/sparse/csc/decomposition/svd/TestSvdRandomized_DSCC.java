@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.sparse.csc.decomposition.svd;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.decomposition.svd.SvdRandomized_DDRM;
+import org.ejml.ops.ConvertDMatrixStruct;
+import org.ejml.sparse.csc.MatrixFeatures_DSCC;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSvdRandomized_DSCC {
+
+    Random rand = new Random(234);
+
+    /**
+     * The sparse and dense implementations should produce identical results when given the same seed
+     */
+    @Test
+    public void compareToDense() {
+        compareToDense(60,40);
+        compareToDense(40,60);
+    }
+
+    private void compareToDense( int numRows , int numCols ) {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(numRows,numCols,numRows*numCols/8,rand);
+        DMatrixSparseCSC A_orig = A.copy();
+        DMatrixRMaj D = ConvertDMatrixStruct.convert(A,(DMatrixRMaj)null);
+
+        SvdRandomized_DSCC sparse = new SvdRandomized_DSCC(5,10,2,true,true,new Random(3));
+        SvdRandomized_DDRM dense = new SvdRandomized_DDRM(5,10,2,true,true,new Random(3));
+
+        assertTrue(sparse.decompose(A));
+        assertTrue(dense.decompose(D));
+        assertTrue(MatrixFeatures_DSCC.isEquals(A_orig,A));
+
+        assertEquals(5,sparse.numberOfSingularValues());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(dense.getSingularValues()[i],sparse.getSingularValues()[i],UtilEjml.TEST_F64);
+        }
+        assertTrue(MatrixFeatures_DDRM.isIdentical(dense.getU(null,false),sparse.getU(null,false),UtilEjml.TEST_F64));
+        assertTrue(MatrixFeatures_DDRM.isIdentical(dense.getV(null,false),sparse.getV(null,false),UtilEjml.TEST_F64));
+    }
+
+    /**
+     * A low rank sparse matrix should be decomposed exactly
+     */
+    @Test
+    public void exactLowRank() {
+        // diagonal matrix with only 3 non-zero elements
+        DMatrixSparseCSC A = new DMatrixSparseCSC(50,30,3);
+        A.set(4,2,7);
+        A.set(10,20,-5);
+        A.set(30,11,2);
+
+        SvdRandomized_DSCC alg = new SvdRandomized_DSCC(3,true,true);
+        assertTrue(alg.decompose(A));
+
+        assertEquals(7,alg.getSingularValues()[0],UtilEjml.TEST_F64);
+        assertEquals(5,alg.getSingularValues()[1],UtilEjml.TEST_F64);
+        assertEquals(2,alg.getSingularValues()[2],UtilEjml.TEST_F64);
+
+        DMatrixRMaj U = alg.getU(null,false);
+        DMatrixRMaj V = alg.getV(null,false);
+        assertEquals(1,Math.abs(U.get(4,0)),UtilEjml.TEST_F64);
+        assertEquals(1,Math.abs(V.get(2,0)),UtilEjml.TEST_F64);
+        assertEquals(1,Math.abs(U.get(10,1)),UtilEjml.TEST_F64);
+        assertEquals(1,Math.abs(V.get(20,1)),UtilEjml.TEST_F64);
+    }
+}
@@ -44,7 +44,7 @@ public abstract class GenericLinearSolverSparseTests_DSCC {
     protected Random rand = new Random(234);
 
     protected FillReducing permutationTests[] = new FillReducing[]
-            {FillReducing.NONE, FillReducing.IDENTITY};
+            {FillReducing.NONE, FillReducing.IDENTITY, FillReducing.RANDOM, FillReducing.AMD};
 
     // used to adjust tolerance threshold
     protected double equalityTolerance = UtilEjml.TEST_F64;
@@ -18,16 +18,22 @@
 
 package org.ejml.sparse.csc.linsol.chol;
 
+import org.ejml.EjmlUnitTests;
 import org.ejml.UtilEjml;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.dense.row.CommonOps_DDRM;
 import org.ejml.interfaces.linsol.LinearSolverSparse;
 import org.ejml.sparse.ComputePermutation;
 import org.ejml.sparse.FillReducing;
+import org.ejml.sparse.csc.CommonOps_DSCC;
 import org.ejml.sparse.csc.RandomMatrices_DSCC;
 import org.ejml.sparse.csc.decomposition.chol.CholeskyUpLooking_DSCC;
 import org.ejml.sparse.csc.factory.FillReductionFactory_DSCC;
 import org.ejml.sparse.csc.linsol.GenericLinearSolverSparseTests_DSCC;
+import org.junit.Test;
+
+import static org.junit.Assert.assertTrue;
 
 /**
  * @author Peter Abeles
@@ -41,7 +47,7 @@ public class TestLinearSolverCholesky_DSCC extends GenericLinearSolverSparseTest
         canDecomposeZeros = false;
 
         permutationTests =
-                new FillReducing[]{FillReducing.NONE, FillReducing.IDENTITY}; // todo add a cholesky specific
+                new FillReducing[]{FillReducing.NONE, FillReducing.IDENTITY, FillReducing.RANDOM, FillReducing.AMD};
     }
 
     @Override
@@ -58,4 +64,47 @@ public class TestLinearSolverCholesky_DSCC extends GenericLinearSolverSparseTest
 
         return RandomMatrices_DSCC.symmetricPosDef(N,nz,rand);
     }
+
+    /**
+     * Solutions after an update and downdate should match solving the modified matrix directly, with and
+     * without a fill reducing permutation
+     */
+    @Test
+    public void updateDowndate() {
+        for( FillReducing perm : permutationTests ) {
+            for (int trial = 0; trial < 5; trial++) {
+                int N = 10+rand.nextInt(10);
+                DMatrixSparseCSC A = createA(N);
+                DMatrixSparseCSC c = RandomMatrices_DSCC.rectangle(N,1,1+rand.nextInt(N/2),rand);
+                DMatrixRMaj B = create(N,2);
+
+                // A + c*c'
+                DMatrixSparseCSC ccT = new DMatrixSparseCSC(N,N,0);
+                CommonOps_DSCC.multTransB(c,c,ccT,null,null);
+                DMatrixSparseCSC A_up = new DMatrixSparseCSC(N,N,0);
+                CommonOps_DSCC.add(1,A,1,ccT,A_up,null,null);
+
+                LinearSolverSparse<DMatrixSparseCSC,DMatrixRMaj> expectedSolver = createSolver(perm);
+                assertTrue(expectedSolver.setA(A_up));
+                DMatrixRMaj expected = new DMatrixRMaj(N,2);
+                expectedSolver.solve(B,expected);
+
+                LinearSolverCholesky_DSCC solver = (LinearSolverCholesky_DSCC)createSolver(perm);
+                assertTrue(solver.setA(A));
+                assertTrue(solver.update(c));
+                DMatrixRMaj found = new DMatrixRMaj(N,2);
+                solver.solve(B,found);
+                double tol = equalityTolerance*Math.max(1,CommonOps_DDRM.elementMaxAbs(expected));
+                EjmlUnitTests.assertEquals(expected,found,tol);
+
+                // undo the update and compare against the original matrix
+                assertTrue(expectedSolver.setA(A));
+                expectedSolver.solve(B,expected);
+                assertTrue(solver.downdate(c));
+                solver.solve(B,found);
+                tol = equalityTolerance*Math.max(1,CommonOps_DDRM.elementMaxAbs(expected));
+                EjmlUnitTests.assertEquals(expected,found,tol);
+            }
+        }
+    }
 }
@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.sparse.csc.linsol.iterative;
+
+import org.ejml.EjmlUnitTests;
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.NormOps_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.ops.ConvertDMatrixStruct;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Generic tests for iterative sparse linear solvers
+ *
+ * @author Peter Abeles
+ */
+public abstract class GenericLinearSolverIterativeTests_DSCC {
+
+    protected Random rand = new Random(234);
+
+    // true if the solver requires a symmetric matrix
+    protected boolean symmetric = false;
+
+    public abstract LinearSolverIterative_DSCC create( Preconditioner_DSCC preconditioner );
+
+    /**
+     * Creates a random sparse matrix which is diagonally dominant and symmetric positive definite if required
+     */
+    public DMatrixSparseCSC createA( int N ) {
+        DMatrixRMaj A = new DMatrixRMaj(N,N);
+        for (int row = 0; row < N; row++) {
+            for (int col = 0; col < N; col++) {
+                if( row != col && rand.nextDouble() < 0.2 )
+                    A.set(row,col,rand.nextDouble()*2-1);
+            }
+        }
+        if( symmetric ) {
+            DMatrixRMaj At = CommonOps_DDRM.transpose(A,null);
+            CommonOps_DDRM.addEquals(A,At);
+        }
+        for (int i = 0; i < N; i++) {
+            double sumRow = 0, sumCol = 0;
+            for (int j = 0; j < N; j++) {
+                sumRow += Math.abs(A.get(i,j));
+                sumCol += Math.abs(A.get(j,i));
+            }
+            A.set(i,i,Math.max(sumRow,sumCol)+0.5);
+        }
+        return ConvertDMatrixStruct.convert(A,(DMatrixSparseCSC)null,0);
+    }
+
+    @Test
+    public void solve_noPreconditioner() {
+        checkSolve(null);
+    }
+
+    @Test
+    public void solve_jacobi() {
+        checkSolve(new PreconditionerJacobi_DSCC());
+    }
+
+    @Test
+    public void solve_ssor() {
+        checkSolve(new PreconditionerSSOR_DSCC(1.2));
+    }
+
+    private void checkSolve( Preconditioner_DSCC preconditioner ) {
+        for (int N : new int[]{1,5,30,80}) {
+            DMatrixSparseCSC A = createA(N);
+            DMatrixRMaj B = RandomMatrices_DDRM.rectangle(N,3,rand);
+            DMatrixRMaj X = new DMatrixRMaj(1,1);
+
+            LinearSolverIterative_DSCC solver = create(preconditioner);
+            solver.setTolerance(1e-10);
+            assertTrue(solver.setA(A));
+            solver.solve(B,X);
+            assertTrue(solver.isConverged());
+
+            DMatrixRMaj A_d = ConvertDMatrixStruct.convert(A,(DMatrixRMaj)null);
+            DMatrixRMaj expected = new DMatrixRMaj(N,3);
+            assertTrue(CommonOps_DDRM.solve(A_d,B,expected));
+            EjmlUnitTests.assertEquals(expected,X,1e-7);
+        }
+    }
+
+    @Test
+    public void history() {
+        DMatrixSparseCSC A = createA(50);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(50,1,rand);
+        DMatrixRMaj X = new DMatrixRMaj(50,1);
+
+        LinearSolverIterative_DSCC solver = create(new PreconditionerJacobi_DSCC());
+        solver.setA(A);
+        solver.solve(B,X);
+
+        assertTrue(solver.isConverged());
+        assertTrue(solver.getIterations() > 0);
+        assertEquals(solver.getIterations(),solver.getHistory().length);
+        double last = solver.getHistory().data[solver.getHistory().length-1];
+        assertTrue(last <= solver.getTolerance());
+
+        // the final entry should agree with the true residual
+        DMatrixRMaj A_d = ConvertDMatrixStruct.convert(A,(DMatrixRMaj)null);
+        DMatrixRMaj R = B.copy();
+        CommonOps_DDRM.multAdd(-1,A_d,X,R);
+        double found = Math.sqrt(CommonOps_DDRM.dot(R,R)/CommonOps_DDRM.dot(B,B));
+        assertTrue(found <= solver.getTolerance()*10);
+    }
+
+    @Test
+    public void maxIterations() {
+        DMatrixSparseCSC A = createA(80);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(80,1,rand);
+        DMatrixRMaj X = new DMatrixRMaj(80,1);
+
+        LinearSolverIterative_DSCC solver = create(null);
+        solver.setMaxIterations(2);
+        solver.setTolerance(1e-15);
+        solver.setA(A);
+        solver.solve(B,X);
+
+        assertFalse(solver.isConverged());
+        assertTrue(solver.getIterations() <= 2);
+    }
+
+    /**
+     * The final residual is the largest final relative residual across all the columns
+     */
+    @Test
+    public void finalResidual() {
+        DMatrixSparseCSC A = createA(20);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(20,2,rand);
+        DMatrixRMaj X = new DMatrixRMaj(20,2);
+
+        LinearSolverIterative_DSCC solver = create(null);
+        solver.setA(A);
+        assertTrue(Double.isNaN(solver.getFinalResidual()));
+        solver.solve(B,X);
+        assertTrue(solver.isConverged());
+        double found = solver.getFinalResidual();
+        assertTrue(found >= 0 && found <= solver.getTolerance());
+        DGrowArray history = solver.getHistory();
+        assertTrue(found >= history.data[history.length-1]);
+
+        // it should be close to the actual residual of the worst column
+        DMatrixRMaj R = new DMatrixRMaj(20,2);
+        CommonOps_DSCC.mult(A,X,R);
+        CommonOps_DDRM.subtract(B,R,R);
+        double expected = 0;
+        for (int col = 0; col < 2; col++) {
+            DMatrixRMaj r = CommonOps_DDRM.extractColumn(R,col,null);
+            DMatrixRMaj b = CommonOps_DDRM.extractColumn(B,col,null);
+            expected = Math.max(expected,NormOps_DDRM.normF(r)/NormOps_DDRM.normF(b));
+        }
+        assertEquals(expected,found,Math.max(expected,found)*0.5);
+
+        // failing to converge gives a large residual
+        solver.setMaxIterations(1);
+        solver.solve(B,X);
+        assertFalse(solver.isConverged());
+        assertTrue(solver.getFinalResidual() > solver.getTolerance());
+    }
+
+    /**
+     * Iterative solvers can't compute the quality
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void quality() {
+        LinearSolverIterative_DSCC solver = create(null);
+        solver.setA(createA(20));
+        solver.quality();
+    }
+
+    @Test
+    public void zeroB() {
+        DMatrixSparseCSC A = createA(20);
+        DMatrixRMaj B = new DMatrixRMaj(20,2);
+        DMatrixRMaj X = RandomMatrices_DDRM.rectangle(20,2,rand);
+
+        LinearSolverIterative_DSCC solver = create(null);
+        solver.setA(A);
+        solver.solve(B,X);
+        assertTrue(solver.isConverged());
+        assertTrue(MatrixFeatures_DDRM.isZeros(X,0));
+    }
+
+    @Test
+    public void solveSparse() {
+        DMatrixSparseCSC A = createA(30);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(30,2,rand);
+        DMatrixSparseCSC B_s = ConvertDMatrixStruct.convert(B,(DMatrixSparseCSC)null,0);
+
+        LinearSolverIterative_DSCC solver = create(null);
+        solver.setA(A);
+        DMatrixRMaj expected = new DMatrixRMaj(30,2);
+        solver.solve(B,expected);
+
+        DMatrixSparseCSC found = new DMatrixSparseCSC(1,1,0);
+        solver.solveSparse(B_s,found);
+        EjmlUnitTests.assertEquals(expected,ConvertDMatrixStruct.convert(found,(DMatrixRMaj)null),1e-12);
+    }
+
+    /**
+     * Solving the same system twice should produce identical results since workspace is reused
+     */
+    @Test
+    public void reuse() {
+        DMatrixSparseCSC A = createA(30);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(30,2,rand);
+
+        LinearSolverIterative_DSCC solver = create(new PreconditionerSSOR_DSCC());
+        solver.setA(A);
+        DMatrixRMaj X0 = new DMatrixRMaj(30,2);
+        solver.solve(B,X0);
+
+        solver.setA(createA(10));
+        solver.solve(RandomMatrices_DDRM.rectangle(10,1,rand),new DMatrixRMaj(10,1));
+
+        solver.setA(A);
+        DMatrixRMaj X1 = new DMatrixRMaj(30,2);
+        solver.solve(B,X1);
+        EjmlUnitTests.assertEquals(X0,X1,0);
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.sparse.csc.linsol.iterative;
+
+import org.ejml.EjmlUnitTests;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.ops.ConvertDMatrixStruct;
+import org.junit.Test;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestLinearSolverMinres_DSCC extends GenericLinearSolverIterativeTests_DSCC {
+    public TestLinearSolverMinres_DSCC() {
+        symmetric = true;
+    }
+
+    @Override
+    public LinearSolverIterative_DSCC create(Preconditioner_DSCC preconditioner) {
+        return new LinearSolverMinres_DSCC(preconditioner);
+    }
+
+    /**
+     * Symmetric matrix with positive and negative eigenvalues
+     */
+    @Test
+    public void indefinite() {
+        int N = 40;
+        DMatrixSparseCSC A = createA(N);
+        for (int i = 0; i < N; i += 2) {
+            A.set(i,i,-A.get(i,i));
+        }
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(N,1,rand);
+        DMatrixRMaj X = new DMatrixRMaj(N,1);
+
+        LinearSolverIterative_DSCC solver = create(null);
+        solver.setTolerance(1e-12);
+        solver.setA(A);
+        solver.solve(B,X);
+        assertTrue(solver.isConverged());
+
+        DMatrixRMaj expected = new DMatrixRMaj(N,1);
+        assertTrue(CommonOps_DDRM.solve(ConvertDMatrixStruct.convert(A,(DMatrixRMaj)null),B,expected));
+        EjmlUnitTests.assertEquals(expected,X,1e-8);
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.sparse.csc.linsol.iterative;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPreconditionerJacobi_DSCC {
+    Random rand = new Random(234);
+
+    @Test
+    public void apply() {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(10,10,40,rand);
+        A.set(3,3,0); // zero is handled as one
+        double[] r = new double[10];
+        double[] z = new double[10];
+        for (int i = 0; i < 10; i++) {
+            r[i] = rand.nextDouble();
+        }
+
+        PreconditionerJacobi_DSCC alg = new PreconditionerJacobi_DSCC();
+        alg.setA(A);
+        alg.apply(r,z);
+
+        for (int i = 0; i < 10; i++) {
+            double d = A.get(i,i);
+            double expected = d == 0 ? r[i] : r[i]/d;
+            assertEquals(expected,z[i],UtilEjml.TEST_F64);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.sparse.csc.linsol.iterative;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.ops.ConvertDMatrixStruct;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPreconditionerSSOR_DSCC {
+    Random rand = new Random(234);
+
+    /**
+     * Compare against explicitly computing M and solving M*z = r
+     */
+    @Test
+    public void apply() {
+        int N = 12;
+        double omega = 1.3;
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(N,N,50,rand);
+        for (int i = 0; i < N; i++) {
+            A.set(i,i,5+rand.nextDouble());
+        }
+        DMatrixRMaj A_d = ConvertDMatrixStruct.convert(A,(DMatrixRMaj)null);
+
+        // standard definition, M = 1/(w(2-w)) * (D + w*L) * inv(D) * (D + w*U)
+        DMatrixRMaj lower = new DMatrixRMaj(N,N);
+        DMatrixRMaj upper = new DMatrixRMaj(N,N);
+        DMatrixRMaj invD = new DMatrixRMaj(N,N);
+        for (int row = 0; row < N; row++) {
+            for (int col = 0; col < N; col++) {
+                double v = A_d.get(row,col);
+                if( row == col ) {
+                    lower.set(row,col,v);
+                    upper.set(row,col,v);
+                    invD.set(row,col,1.0/v);
+                } else if( row > col ) {
+                    lower.set(row,col,omega*v);
+                } else {
+                    upper.set(row,col,omega*v);
+                }
+            }
+        }
+        DMatrixRMaj tmp = new DMatrixRMaj(N,N);
+        DMatrixRMaj M = new DMatrixRMaj(N,N);
+        CommonOps_DDRM.mult(lower,invD,tmp);
+        CommonOps_DDRM.mult(1.0/(omega*(2-omega)),tmp,upper,M);
+
+        DMatrixRMaj r = new DMatrixRMaj(N,1);
+        for (int i = 0; i < N; i++) {
+            r.data[i] = rand.nextDouble()-0.5;
+        }
+        DMatrixRMaj expected = new DMatrixRMaj(N,1);
+        CommonOps_DDRM.solve(M,r,expected);
+
+        PreconditionerSSOR_DSCC alg = new PreconditionerSSOR_DSCC(omega);
+        alg.setA(A);
+        double[] z = new double[N];
+        alg.apply(r.data,z);
+
+        for (int i = 0; i < N; i++) {
+            assertEquals(expected.data[i],z[i],UtilEjml.TEST_F64);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void badOmega() {
+        new PreconditionerSSOR_DSCC(2.0);
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.misc;
+
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.IGrowArray;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.ejml.sparse.csc.decomposition.chol.CholeskyUpLooking_DSCC;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestApproximateMinimumDegree_DSCC {
+    private Random rand = new Random(234);
+
+    /**
+     * The output must always be a valid permutation
+     */
+    @Test
+    public void validPermutation() {
+        ApproximateMinimumDegree_DSCC alg = new ApproximateMinimumDegree_DSCC();
+
+        for (int trial = 0; trial < 30; trial++) {
+            int N = rand.nextInt(40)+1;
+            DMatrixSparseCSC A = RandomMatrices_DSCC.symmetric(N,rand.nextInt(N*N/2+1)+N,-1,1,rand);
+
+            alg.process(A);
+
+            checkPermutation(alg.getRow(),N);
+            checkPermutation(alg.getColumn(),N);
+            assertArrayEquals(copy(alg.getRow()),copy(alg.getColumn()));
+        }
+    }
+
+    /**
+     * An arrow matrix has no fill if the dense row/column is eliminated last, but complete fill if first.
+     */
+    @Test
+    public void arrowMatrix() {
+        int N = 20;
+        DMatrixSparseCSC A = new DMatrixSparseCSC(N,N,3*N);
+        for (int i = 0; i < N; i++) {
+            A.set(i,i,N+1);
+            if( i > 0 ) {
+                A.set(0, i, 1);
+                A.set(i, 0, 1);
+            }
+        }
+
+        assertEquals(N*(N+1)/2, countFill(A,null));
+
+        ApproximateMinimumDegree_DSCC alg = new ApproximateMinimumDegree_DSCC();
+        alg.process(A);
+
+        checkPermutation(alg.getRow(),N);
+        assertEquals(2*N-1, countFill(A,alg.getRow()));
+    }
+
+    /**
+     * On a 2D grid the ordering should significantly reduce the fill in compared to the natural ordering
+     */
+    @Test
+    public void gridLaplacian() {
+        DMatrixSparseCSC A = laplacian2D(15);
+
+        ApproximateMinimumDegree_DSCC alg = new ApproximateMinimumDegree_DSCC();
+        alg.process(A);
+
+        int fillNone = countFill(A,null);
+        int fillAmd = countFill(A,alg.getRow());
+
+        assertTrue(fillAmd < fillNone*0.8);
+    }
+
+    /**
+     * Only the upper triangle of a symmetric matrix is provided. Should produce the same ordering.
+     */
+    @Test
+    public void upperTriangleOnly() {
+        DMatrixSparseCSC A = laplacian2D(8);
+        DMatrixSparseCSC U = upper(A);
+
+        ApproximateMinimumDegree_DSCC alg = new ApproximateMinimumDegree_DSCC();
+        alg.process(A);
+        int[] expected = copy(alg.getRow());
+        alg.process(U);
+
+        assertArrayEquals(expected,copy(alg.getRow()));
+    }
+
+    /**
+     * For rectangular matrices only the columns are ordered
+     */
+    @Test
+    public void rectangular() {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(30,12,80,-1,1,rand);
+
+        ApproximateMinimumDegree_DSCC alg = new ApproximateMinimumDegree_DSCC();
+        alg.process(A);
+
+        checkPermutation(alg.getColumn(),12);
+        checkPermutation(alg.getRow(),30);
+        for (int i = 0; i < 30; i++) {
+            assertEquals(i,alg.getRow().data[i]);
+        }
+    }
+
+    @Test
+    public void emptyAndDiagonal() {
+        ApproximateMinimumDegree_DSCC alg = new ApproximateMinimumDegree_DSCC();
+
+        DMatrixSparseCSC A = new DMatrixSparseCSC(5,5,0);
+        alg.process(A);
+        checkPermutation(alg.getRow(),5);
+
+        for (int i = 0; i < 5; i++) {
+            A.set(i,i,1);
+        }
+        alg.process(A);
+        checkPermutation(alg.getRow(),5);
+    }
+
+    /**
+     * Number of non-zero elements in the Cholesky factor after the symmetric permutation has been applied
+     */
+    private static int countFill( DMatrixSparseCSC A , IGrowArray perm ) {
+        DMatrixSparseCSC C = upper(A);
+        if( perm != null ) {
+            int pinv[] = CommonOps_DSCC.permutationInverse(perm.data,A.numCols);
+            DMatrixSparseCSC tmp = new DMatrixSparseCSC(1,1,0);
+            CommonOps_DSCC.permuteSymmetric(C,pinv,tmp,null);
+            C = tmp;
+        }
+        CholeskyUpLooking_DSCC chol = new CholeskyUpLooking_DSCC();
+        assertTrue(chol.decompose(C));
+        return chol.getL().nz_length;
+    }
+
+    private static DMatrixSparseCSC upper( DMatrixSparseCSC A ) {
+        DMatrixSparseCSC U = new DMatrixSparseCSC(A.numRows,A.numCols,A.nz_length);
+        for (int col = 0; col < A.numCols; col++) {
+            for (int i = A.col_idx[col]; i < A.col_idx[col+1]; i++) {
+                int row = A.nz_rows[i];
+                if( row <= col )
+                    U.set(row,col,A.nz_values[i]);
+            }
+        }
+        return U;
+    }
+
+    public static DMatrixSparseCSC laplacian2D( int width ) {
+        int N = width*width;
+        DMatrixSparseCSC A = new DMatrixSparseCSC(N,N,5*N);
+        for (int y = 0; y < width; y++) {
+            for (int x = 0; x < width; x++) {
+                int i = y*width+x;
+                A.set(i,i,4);
+                if( x > 0 ) { A.set(i,i-1,-1); A.set(i-1,i,-1); }
+                if( y > 0 ) { A.set(i,i-width,-1); A.set(i-width,i,-1); }
+            }
+        }
+        return A;
+    }
+
+    private static int[] copy( IGrowArray a ) {
+        int[] out = new int[a.length];
+        System.arraycopy(a.data,0,out,0,a.length);
+        return out;
+    }
+
+    private static void checkPermutation( IGrowArray perm , int N ) {
+        assertEquals(N,perm.length);
+        boolean found[] = new boolean[N];
+        for (int i = 0; i < N; i++) {
+            int v = perm.data[i];
+            assertTrue(v >= 0 && v < N);
+            assertFalse(found[v]);
+            found[v] = true;
+        }
+    }
+}
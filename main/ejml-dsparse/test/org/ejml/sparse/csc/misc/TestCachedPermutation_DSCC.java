@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.sparse.csc.misc;
+
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestCachedPermutation_DSCC {
+    Random rand = new Random(234);
+
+    @Test
+    public void compareToOriginal() {
+        SymbolicCache_DSCC cache = new SymbolicCache_DSCC(1_000_000);
+        DMatrixSparseCSC A = RandomMatrices_DSCC.symmetricPosDef(30,40,rand);
+
+        ApproximateMinimumDegree_DSCC amd = new ApproximateMinimumDegree_DSCC();
+        amd.process(A);
+
+        for (int trial = 0; trial < 2; trial++) {
+            CachedPermutation_DSCC alg =
+                    new CachedPermutation_DSCC(new ApproximateMinimumDegree_DSCC(),"AMD",cache);
+            alg.process(A);
+
+            assertEquals(amd.getRow().length,alg.getRow().length);
+            assertEquals(amd.getColumn().length,alg.getColumn().length);
+            assertArrayEquals(copy(amd.getRow().data,amd.getRow().length),copy(alg.getRow().data,alg.getRow().length));
+            assertArrayEquals(copy(amd.getColumn().data,amd.getColumn().length),
+                    copy(alg.getColumn().data,alg.getColumn().length));
+        }
+        assertEquals(1,cache.getHits());
+        assertEquals(1,cache.getMisses());
+    }
+
+    private static int[] copy( int[] a , int length ) {
+        int[] out = new int[length];
+        System.arraycopy(a,0,out,0,length);
+        return out;
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.sparse.csc.misc;
+
+import org.ejml.EjmlUnitTests;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.interfaces.linsol.LinearSolverSparse;
+import org.ejml.sparse.FillReducing;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.ejml.sparse.csc.decomposition.chol.CholeskyUpLooking_DSCC;
+import org.ejml.sparse.csc.factory.LinearSolverFactory_DSCC;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSymbolicCache_DSCC {
+    Random rand = new Random(234);
+
+    @Test
+    public void lookup_store() {
+        SymbolicCache_DSCC cache = new SymbolicCache_DSCC(1_000_000);
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(20,15,60,rand);
+
+        assertNull(cache.lookup("foo",A));
+        int[][] results = new int[][]{{1,2,3},null};
+        cache.store("foo",A,results);
+        assertSame(results,cache.lookup("foo",A));
+        assertEquals(1,cache.getHits());
+        assertEquals(1,cache.getMisses());
+
+        // different type
+        assertNull(cache.lookup("bar",A));
+
+        // same pattern but different values
+        DMatrixSparseCSC B = A.copy();
+        CommonOps_DSCC.scale(2.0,B,B);
+        assertSame(results,cache.lookup("foo",B));
+
+        // different pattern with the same number of elements
+        B.nz_rows[0] = B.nz_rows[0] == 0 ? 1 : 0;
+        assertNull(cache.lookup("foo",B));
+
+        // modifying A after it has been stored should have no effect
+        A.nz_rows[0] = A.nz_rows[0] == 0 ? 1 : 0;
+        assertNull(cache.lookup("foo",A));
+    }
+
+    @Test
+    public void store_replace() {
+        SymbolicCache_DSCC cache = new SymbolicCache_DSCC(1_000_000);
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(20,15,60,rand);
+
+        cache.store("foo",A,new int[][]{new int[100]});
+        long before = cache.getBytes();
+        cache.store("foo",A,new int[][]{new int[10]});
+        assertEquals(1,cache.size());
+        assertEquals(before-4*90,cache.getBytes());
+    }
+
+    /**
+     * The least recently used entry should be evicted when over budget
+     */
+    @Test
+    public void evictLeastRecentlyUsed() {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(20,15,60,rand);
+        DMatrixSparseCSC B = RandomMatrices_DSCC.rectangle(20,15,60,rand);
+        DMatrixSparseCSC C = RandomMatrices_DSCC.rectangle(20,15,60,rand);
+
+        SymbolicCache_DSCC cache = new SymbolicCache_DSCC(Long.MAX_VALUE);
+        cache.store("foo",A,new int[][]{new int[100]});
+        long entryBytes = cache.getBytes();
+        cache.setMaxBytes(entryBytes*2+10);
+
+        cache.store("foo",B,new int[][]{new int[100]});
+        // A is now the most recently used
+        assertNotNull(cache.lookup("foo",A));
+        cache.store("foo",C,new int[][]{new int[100]});
+
+        assertEquals(2,cache.size());
+        assertTrue(cache.getBytes() <= cache.getMaxBytes());
+        assertNotNull(cache.lookup("foo",A));
+        assertNull(cache.lookup("foo",B));
+        assertNotNull(cache.lookup("foo",C));
+
+        // shrinking the budget evicts entries
+        cache.setMaxBytes(entryBytes);
+        assertEquals(1,cache.size());
+        assertNotNull(cache.lookup("foo",C));
+
+        // too large to ever fit
+        cache.store("foo",B,new int[][]{new int[1000]});
+        assertNull(cache.lookup("foo",B));
+
+        // disabled
+        cache.setMaxBytes(0);
+        assertEquals(0,cache.size());
+        assertEquals(0,cache.getBytes());
+    }
+
+    /**
+     * A disabled cache should do nothing, not even count misses
+     */
+    @Test
+    public void disabled() {
+        SymbolicCache_DSCC cache = new SymbolicCache_DSCC(0);
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(20,15,60,rand);
+
+        assertNull(cache.lookup("foo",A));
+        cache.store("foo",A,new int[][]{new int[100]});
+        assertNull(cache.lookup("foo",A));
+        assertEquals(0,cache.size());
+        assertEquals(0,cache.getBytes());
+        assertEquals(0,cache.getMisses());
+        assertEquals(0,cache.getHits());
+    }
+
+    @Test
+    public void clear() {
+        SymbolicCache_DSCC cache = new SymbolicCache_DSCC(1_000_000);
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(20,15,60,rand);
+        cache.store("foo",A,new int[][]{new int[100]});
+        cache.clear();
+        assertEquals(0,cache.size());
+        assertEquals(0,cache.getBytes());
+        assertNull(cache.lookup("foo",A));
+    }
+
+    /**
+     * A decomposition which uses the cache should produce the same results as one which doesn't
+     */
+    @Test
+    public void cholesky() {
+        SymbolicCache_DSCC cache = new SymbolicCache_DSCC(1_000_000);
+        DMatrixSparseCSC A = RandomMatrices_DSCC.symmetricPosDef(30,40,rand);
+
+        CholeskyUpLooking_DSCC expected = new CholeskyUpLooking_DSCC();
+        assertTrue(expected.decompose(A));
+
+        for (int i = 0; i < 2; i++) {
+            CholeskyUpLooking_DSCC alg = new CholeskyUpLooking_DSCC();
+            alg.setSymbolicCache(cache);
+            assertTrue(alg.decompose(A));
+            EjmlUnitTests.assertEquals(expected.getL(),alg.getL(),UtilEjml.TEST_F64);
+        }
+        assertEquals(1,cache.getHits());
+    }
+
+    /**
+     * New solvers from the factory should reuse the symbolic analysis of previous solvers
+     */
+    @Test
+    public void factorySolvers() {
+        SymbolicCache_DSCC cache = SymbolicCache_DSCC.getGlobal();
+        cache.clear();
+
+        DMatrixSparseCSC A = RandomMatrices_DSCC.symmetricPosDef(30,40,rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(30,2,rand);
+
+        for (int type = 0; type < 3; type++) {
+            DMatrixRMaj expected = null;
+            for (int trial = 0; trial < 2; trial++) {
+                LinearSolverSparse<DMatrixSparseCSC,DMatrixRMaj> solver;
+                switch( type ) {
+                    case 0: solver = LinearSolverFactory_DSCC.cholesky(FillReducing.AMD); break;
+                    case 1: solver = LinearSolverFactory_DSCC.qr(FillReducing.AMD); break;
+                    default: solver = LinearSolverFactory_DSCC.lu(FillReducing.AMD); break;
+                }
+                long hits = cache.getHits();
+                assertTrue(solver.setA(A));
+                if( trial == 1 )
+                    assertTrue(cache.getHits() > hits);
+
+                DMatrixRMaj X = new DMatrixRMaj(30,2);
+                solver.solve(B,X);
+                if( expected == null )
+                    expected = X;
+                else
+                    EjmlUnitTests.assertEquals(expected,X,UtilEjml.TEST_F64);
+            }
+        }
+        cache.clear();
+    }
+}
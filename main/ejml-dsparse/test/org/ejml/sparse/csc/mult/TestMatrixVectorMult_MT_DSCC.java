@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.mult;
+
+import org.ejml.EjmlConcurrency;
+import org.ejml.EjmlParameters;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMatrixVectorMult_MT_DSCC {
+    Random rand = new Random(234);
+
+    ForkJoinPool originalPool;
+    int originalSwitch;
+
+    @Before
+    public void before() {
+        // force it to use the concurrent code even for small matrices
+        originalPool = EjmlConcurrency.getPool();
+        originalSwitch = EjmlParameters.SPARSE_MULT_CONCURRENT_SWITCH;
+        EjmlConcurrency.setMaxThreads(4);
+        EjmlParameters.SPARSE_MULT_CONCURRENT_SWITCH = 0;
+    }
+
+    @After
+    public void after() {
+        EjmlConcurrency.setPool(originalPool);
+        EjmlParameters.SPARSE_MULT_CONCURRENT_SWITCH = originalSwitch;
+    }
+
+    @Test
+    public void mult() {
+        MatrixVectorMult_MT_DSCC alg = new MatrixVectorMult_MT_DSCC();
+
+        for( int threshold : new int[]{0,Integer.MAX_VALUE}) {
+            EjmlParameters.SPARSE_MULT_CONCURRENT_SWITCH = threshold;
+            for( int rows : new int[]{1,7,50}) {
+                DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(rows,30,Math.min(rows*30,200),rand);
+                checkMult(alg,A);
+            }
+        }
+    }
+
+    @Test
+    public void multAddTransA() {
+        MatrixVectorMult_MT_DSCC alg = new MatrixVectorMult_MT_DSCC();
+
+        for( int threshold : new int[]{0,Integer.MAX_VALUE}) {
+            EjmlParameters.SPARSE_MULT_CONCURRENT_SWITCH = threshold;
+            for( int cols : new int[]{1,7,50}) {
+                DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(30,cols,Math.min(cols*30,200),rand);
+
+                double b[] = randomArray(A.numRows+2);
+                double found[] = randomArray(A.numCols+1);
+                double expected[] = found.clone();
+
+                alg.multAddTransA(A,b,2,found,1);
+
+                for (int col = 0; col < A.numCols; col++) {
+                    for (int row = 0; row < A.numRows; row++) {
+                        expected[col+1] += A.get(row,col)*b[row+2];
+                    }
+                }
+                assertArrayEquals(expected,found,UtilEjml.TEST_F64);
+            }
+        }
+    }
+
+    @Test
+    public void stale_values() {
+        MatrixVectorMult_MT_DSCC alg = new MatrixVectorMult_MT_DSCC();
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(20,15,60,rand);
+        checkMult(alg,A);
+
+        assertTrue(alg.isCached(A));
+
+        // values are read from the matrix, so in place modifications are used without rebuilding the index
+        A.nz_values[A.nz_length-1] += 0.5;
+        assertTrue(alg.isCached(A));
+        checkMult(alg,A);
+
+        int col = 0;
+        while( A.col_idx[col+1] == A.col_idx[col] )
+            col++;
+        A.set(A.nz_rows[A.col_idx[col]],col,-3.0);
+        assertTrue(alg.isCached(A));
+        checkMult(alg,A);
+
+        CommonOps_DSCC.scale(2.5,A,A);
+        assertTrue(alg.isCached(A));
+        checkMult(alg,A);
+    }
+
+    @Test
+    public void stale_structure() {
+        MatrixVectorMult_MT_DSCC alg = new MatrixVectorMult_MT_DSCC();
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(20,15,60,rand);
+        checkMult(alg,A);
+
+        // Change the row of an element without changing anything else
+        int col = 0;
+        while( A.col_idx[col+1]-A.col_idx[col] == 0 )
+            col++;
+        int index = A.col_idx[col];
+        for (int row = 0; row < A.numRows; row++) {
+            if( !A.isAssigned(row,col) ) {
+                A.nz_rows[index] = row;
+                break;
+            }
+        }
+        A.indicesSorted = false;
+        alg.invalidate();
+        assertFalse(alg.isCached(A));
+        checkMult(alg,A);
+
+        // add an element, which changes col_idx
+        int row = 0;
+        while( A.isAssigned(row,5) )
+            row++;
+        A.set(row,5,2.5);
+        assertFalse(alg.isCached(A));
+        checkMult(alg,A);
+
+        // change the shape
+        A.reshape(25,10,20);
+        A.set(24,9,1.0);
+        assertFalse(alg.isCached(A));
+        checkMult(alg,A);
+
+        // Different matrix with the same values
+        DMatrixSparseCSC B = A.copy();
+        assertFalse(alg.isCached(B));
+        checkMult(alg,B);
+        assertTrue(alg.isCached(B));
+
+        alg.invalidate();
+        assertFalse(alg.isCached(B));
+    }
+
+    @Test
+    public void partition() {
+        MatrixVectorMult_MT_DSCC alg = new MatrixVectorMult_MT_DSCC();
+
+        // One row with most of the elements
+        int idx[] = new int[]{0,1,2,100,101,102,103,104,105,106,107};
+        int N = alg.partition(idx,10);
+        assertEquals(10,N);
+        assertEquals(0,alg.partitions[0]);
+        assertEquals(10,alg.partitions[N]);
+        for (int i = 0; i < N; i++) {
+            assertTrue(alg.partitions[i] <= alg.partitions[i+1]);
+        }
+
+        // Evenly distributed
+        idx = new int[101];
+        for (int i = 0; i < idx.length; i++) {
+            idx[i] = i*3;
+        }
+        N = alg.partition(idx,100);
+        assertEquals(16,N);
+        for (int i = 0; i < N; i++) {
+            int length = alg.partitions[i+1]-alg.partitions[i];
+            assertTrue(length >= 6 && length <= 7);
+        }
+    }
+
+    private void checkMult( MatrixVectorMult_MT_DSCC alg , DMatrixSparseCSC A ) {
+        double b[] = randomArray(A.numCols+2);
+        double found[] = randomArray(A.numRows+1);
+        double expected[] = found.clone();
+
+        alg.mult(A,b,2,found,1);
+        MatrixVectorMult_DSCC.mult(A,b,2,expected,1);
+
+        assertArrayEquals(expected,found,UtilEjml.TEST_F64);
+    }
+
+    private double[] randomArray( int length ) {
+        double a[] = new double[length];
+        for (int i = 0; i < length; i++) {
+            a[i] = rand.nextDouble()*2-1;
+        }
+        return a;
+    }
+}
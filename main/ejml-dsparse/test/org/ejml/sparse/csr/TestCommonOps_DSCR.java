@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csr;
+
+import org.ejml.EjmlConcurrency;
+import org.ejml.EjmlParameters;
+import org.ejml.EjmlUnitTests;
+import org.ejml.MatrixDimensionException;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSR;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.ops.ConvertDMatrixStruct;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestCommonOps_DSCR {
+
+    Random rand = new Random(234);
+
+    private DMatrixSparseCSR random( int numRows , int numCols , int nz ) {
+        return ConvertDMatrixStruct.convert(
+                RandomMatrices_DSCC.rectangle(numRows,numCols,nz,-1,1,rand),(DMatrixSparseCSR)null);
+    }
+
+    private DMatrixRMaj dense( DMatrixSparseCSR A ) {
+        return ConvertDMatrixStruct.convert(A,(DMatrixRMaj)null);
+    }
+
+    @Test
+    public void checkStructure() {
+        DMatrixSparseCSR A = random(5,6,12);
+        assertTrue(CommonOps_DSCR.checkStructure(A));
+
+        // duplicate column in the same row
+        DMatrixSparseCSR B = new DMatrixSparseCSR(2,3,2);
+        B.row_idx[1] = 2;
+        B.row_idx[2] = 2;
+        B.nz_length = 2;
+        B.nz_cols[0] = 1;
+        B.nz_cols[1] = 1;
+        assertFalse(CommonOps_DSCR.checkStructure(B));
+    }
+
+    @Test
+    public void transpose() {
+        DMatrixSparseCSR A = random(5,7,14);
+        DMatrixSparseCSR At = CommonOps_DSCR.transpose(A,null,null);
+
+        assertTrue(CommonOps_DSCR.checkStructure(At));
+        EjmlUnitTests.assertEquals(CommonOps_DDRM.transpose(dense(A),null),At);
+    }
+
+    @Test
+    public void mult_s_s() {
+        for( int[] shape : new int[][]{{5,4,6},{1,5,5},{6,3,1},{4,4,4}}) {
+            DMatrixSparseCSR A = random(shape[0],shape[1],shape[0]*shape[1]/2);
+            DMatrixSparseCSR B = random(shape[1],shape[2],shape[1]*shape[2]/2);
+            DMatrixSparseCSR C = new DMatrixSparseCSR(1,1,0);
+
+            CommonOps_DSCR.mult(A,B,C);
+            assertTrue(CommonOps_DSCR.checkStructure(C));
+
+            DMatrixRMaj expected = new DMatrixRMaj(1,1);
+            CommonOps_DDRM.mult(dense(A),dense(B),expected);
+            EjmlUnitTests.assertEquals(expected,C);
+        }
+
+        try {
+            CommonOps_DSCR.mult(random(3,4,5),random(3,4,5),new DMatrixSparseCSR(1,1));
+            fail("Expected exception");
+        } catch( MatrixDimensionException ignore ) {}
+    }
+
+    @Test
+    public void multTransA_s_s() {
+        DMatrixSparseCSR A = random(6,4,10);
+        DMatrixSparseCSR B = random(6,5,12);
+        DMatrixSparseCSR C = new DMatrixSparseCSR(1,1,0);
+
+        CommonOps_DSCR.multTransA(A,B,C,null,null);
+        assertTrue(CommonOps_DSCR.checkStructure(C));
+
+        DMatrixRMaj expected = new DMatrixRMaj(1,1);
+        CommonOps_DDRM.multTransA(dense(A),dense(B),expected);
+        EjmlUnitTests.assertEquals(expected,C);
+    }
+
+    @Test
+    public void mult_s_d() {
+        DMatrixSparseCSR A = random(7,5,15);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(5,3,-1,1,rand);
+        DMatrixRMaj C = RandomMatrices_DDRM.rectangle(2,2,-1,1,rand);
+
+        CommonOps_DSCR.mult(A,B,C);
+        DMatrixRMaj expected = new DMatrixRMaj(1,1);
+        CommonOps_DDRM.mult(dense(A),B,expected);
+        EjmlUnitTests.assertEquals(expected,C,UtilEjml.TEST_F64);
+
+        // C = C + A*B
+        CommonOps_DSCR.multAdd(A,B,C);
+        CommonOps_DDRM.multAdd(dense(A),B,expected);
+        EjmlUnitTests.assertEquals(expected,C,UtilEjml.TEST_F64);
+    }
+
+    /**
+     * Rows are split between threads when the matrix is large enough
+     */
+    @Test
+    public void mult_s_d_concurrent() {
+        ForkJoinPool originalPool = EjmlConcurrency.getPool();
+        int before = EjmlParameters.SPARSE_MULT_CONCURRENT_SWITCH;
+        try {
+            EjmlConcurrency.setMaxThreads(3);
+            EjmlParameters.SPARSE_MULT_CONCURRENT_SWITCH = 0;
+
+            DMatrixSparseCSR A = random(40,30,300);
+            DMatrixRMaj B = RandomMatrices_DDRM.rectangle(30,7,-1,1,rand);
+            DMatrixRMaj C = new DMatrixRMaj(1,1);
+
+            CommonOps_DSCR.mult(A,B,C);
+            DMatrixRMaj expected = new DMatrixRMaj(1,1);
+            CommonOps_DDRM.mult(dense(A),B,expected);
+            EjmlUnitTests.assertEquals(expected,C,UtilEjml.TEST_F64);
+
+            CommonOps_DSCR.multAdd(A,B,C);
+            CommonOps_DDRM.multAdd(dense(A),B,expected);
+            EjmlUnitTests.assertEquals(expected,C,UtilEjml.TEST_F64);
+        } finally {
+            EjmlConcurrency.setPool(originalPool);
+            EjmlParameters.SPARSE_MULT_CONCURRENT_SWITCH = before;
+        }
+    }
+
+    @Test
+    public void multTransA_s_d() {
+        DMatrixSparseCSR A = random(7,5,15);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(7,3,-1,1,rand);
+        DMatrixRMaj C = RandomMatrices_DDRM.rectangle(2,2,-1,1,rand);
+
+        CommonOps_DSCR.multTransA(A,B,C);
+        DMatrixRMaj expected = new DMatrixRMaj(1,1);
+        CommonOps_DDRM.multTransA(dense(A),B,expected);
+        EjmlUnitTests.assertEquals(expected,C,UtilEjml.TEST_F64);
+
+        CommonOps_DSCR.multAddTransA(A,B,C);
+        CommonOps_DDRM.multAddTransA(dense(A),B,expected);
+        EjmlUnitTests.assertEquals(expected,C,UtilEjml.TEST_F64);
+    }
+
+    @Test
+    public void add() {
+        DMatrixSparseCSR A = random(6,5,10);
+        DMatrixSparseCSR B = random(6,5,12);
+        DMatrixSparseCSR C = new DMatrixSparseCSR(1,1,0);
+
+        CommonOps_DSCR.add(1.5,A,-0.5,B,C,null,null);
+        assertTrue(CommonOps_DSCR.checkStructure(C));
+
+        DMatrixRMaj expected = new DMatrixRMaj(6,5);
+        CommonOps_DDRM.add(1.5,dense(A),-0.5,dense(B),expected);
+        EjmlUnitTests.assertEquals(expected,C);
+    }
+
+    @Test
+    public void elementMult() {
+        DMatrixSparseCSR A = random(6,5,15);
+        DMatrixSparseCSR B = random(6,5,15);
+        DMatrixSparseCSR C = new DMatrixSparseCSR(1,1,0);
+
+        CommonOps_DSCR.elementMult(A,B,C,null,null);
+        assertTrue(CommonOps_DSCR.checkStructure(C));
+
+        DMatrixRMaj expected = new DMatrixRMaj(6,5);
+        CommonOps_DDRM.elementMult(dense(A),dense(B),expected);
+        EjmlUnitTests.assertEquals(expected,C);
+    }
+
+    @Test
+    public void scale_divide_changeSign() {
+        DMatrixSparseCSR A = random(6,5,10);
+        DMatrixRMaj Ad = dense(A);
+        DMatrixRMaj expected = new DMatrixRMaj(6,5);
+        DMatrixSparseCSR B = new DMatrixSparseCSR(1,1,0);
+
+        CommonOps_DSCR.scale(2.5,A,B);
+        CommonOps_DDRM.scale(2.5,Ad,expected);
+        EjmlUnitTests.assertEquals(expected,B);
+
+        CommonOps_DSCR.divide(A,2.5,B);
+        CommonOps_DDRM.divide(Ad,2.5,expected);
+        EjmlUnitTests.assertEquals(expected,B);
+
+        CommonOps_DSCR.divide(2.5,A,B);
+        for (int i = 0; i < A.nz_length; i++) {
+            assertEquals(2.5/A.nz_values[i],B.nz_values[i],UtilEjml.TEST_F64);
+        }
+
+        CommonOps_DSCR.changeSign(A,B);
+        CommonOps_DDRM.changeSign(Ad,expected);
+        EjmlUnitTests.assertEquals(expected,B);
+
+        // same instance
+        CommonOps_DSCR.scale(-1,A,A);
+        EjmlUnitTests.assertEquals(expected,A);
+    }
+
+    @Test
+    public void elementOps() {
+        DMatrixSparseCSR A = random(6,5,10);
+        DMatrixRMaj Ad = dense(A);
+
+        assertEquals(CommonOps_DDRM.elementMin(Ad),CommonOps_DSCR.elementMin(A),UtilEjml.TEST_F64);
+        assertEquals(CommonOps_DDRM.elementMax(Ad),CommonOps_DSCR.elementMax(A),UtilEjml.TEST_F64);
+        assertEquals(CommonOps_DDRM.elementMinAbs(Ad),CommonOps_DSCR.elementMinAbs(A),UtilEjml.TEST_F64);
+        assertEquals(CommonOps_DDRM.elementMaxAbs(Ad),CommonOps_DSCR.elementMaxAbs(A),UtilEjml.TEST_F64);
+        assertEquals(CommonOps_DDRM.elementSum(Ad),CommonOps_DSCR.elementSum(A),UtilEjml.TEST_F64);
+        assertEquals(CommonOps_DDRM.trace(Ad),CommonOps_DSCR.trace(A),UtilEjml.TEST_F64);
+    }
+
+    @Test
+    public void extractRows() {
+        DMatrixSparseCSR A = random(8,5,20);
+        DMatrixRMaj Ad = dense(A);
+
+        DMatrixSparseCSR B = CommonOps_DSCR.extractRows(A,2,6,null);
+        assertTrue(CommonOps_DSCR.checkStructure(B));
+        EjmlUnitTests.assertEquals(CommonOps_DDRM.extract(Ad,2,6,0,5),B);
+
+        // empty range
+        CommonOps_DSCR.extractRows(A,3,3,B);
+        assertEquals(0,B.numRows);
+        assertEquals(0,B.nz_length);
+    }
+
+    @Test
+    public void identity_extractDiag() {
+        DMatrixSparseCSR A = CommonOps_DSCR.identity(4,6);
+        assertTrue(CommonOps_DSCR.checkStructure(A));
+        EjmlUnitTests.assertEquals(CommonOps_DDRM.identity(4,6),A);
+
+        DMatrixRMaj d = new DMatrixRMaj(1,1);
+        A = random(5,4,12);
+        CommonOps_DSCR.extractDiag(A,d);
+        assertEquals(4,d.getNumElements());
+        for (int i = 0; i < 4; i++) {
+            assertEquals(A.get(i,i),d.get(i),0);
+        }
+    }
+}
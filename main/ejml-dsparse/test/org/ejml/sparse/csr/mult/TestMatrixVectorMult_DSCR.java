@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csr.mult;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSR;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.ops.ConvertDMatrixStruct;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMatrixVectorMult_DSCR {
+    Random rand = new Random(234);
+
+    DMatrixSparseCSR A = ConvertDMatrixStruct.convert(
+            RandomMatrices_DSCC.rectangle(6,4,14,rand),(DMatrixSparseCSR)null);
+    DMatrixRMaj Ad = ConvertDMatrixStruct.convert(A,(DMatrixRMaj)null);
+
+    @Test
+    public void mult() {
+        int offsetB = 2, offsetC = 1;
+        DMatrixRMaj b = RandomMatrices_DDRM.rectangle(4,1,-1,1,rand);
+        double bv[] = new double[offsetB+4];
+        System.arraycopy(b.data,0,bv,offsetB,4);
+        double found[] = new double[offsetC+6];
+
+        MatrixVectorMult_DSCR.mult(A,bv,offsetB,found,offsetC);
+
+        DMatrixRMaj expected = new DMatrixRMaj(6,1);
+        CommonOps_DDRM.mult(Ad,b,expected);
+        for (int i = 0; i < 6; i++) {
+            assertEquals(expected.data[i], found[offsetC+i], UtilEjml.TEST_F64);
+        }
+
+        // only compute a range of rows
+        double range[] = new double[offsetC+6];
+        MatrixVectorMult_DSCR.mult(A,2,5,bv,offsetB,range,offsetC);
+        for (int i = 0; i < 6; i++) {
+            assertEquals(i >= 2 && i < 5 ? expected.data[i] : 0, range[offsetC+i], UtilEjml.TEST_F64);
+        }
+    }
+
+    @Test
+    public void multAdd() {
+        DMatrixRMaj b = RandomMatrices_DDRM.rectangle(4,1,-1,1,rand);
+        DMatrixRMaj c = RandomMatrices_DDRM.rectangle(6,1,-1,1,rand);
+        double found[] = c.data.clone();
+
+        MatrixVectorMult_DSCR.multAdd(A,b.data,0,found,0);
+
+        DMatrixRMaj expected = c.copy();
+        CommonOps_DDRM.multAdd(Ad,b,expected);
+        for (int i = 0; i < 6; i++) {
+            assertEquals(expected.data[i], found[i], UtilEjml.TEST_F64);
+        }
+    }
+
+    @Test
+    public void multAddTransA() {
+        DMatrixRMaj b = RandomMatrices_DDRM.rectangle(6,1,-1,1,rand);
+        DMatrixRMaj c = RandomMatrices_DDRM.rectangle(4,1,-1,1,rand);
+        double found[] = c.data.clone();
+
+        MatrixVectorMult_DSCR.multAddTransA(A,b.data,0,found,0);
+
+        DMatrixRMaj expected = c.copy();
+        CommonOps_DDRM.multAddTransA(Ad,b,expected);
+        for (int i = 0; i < 4; i++) {
+            assertEquals(expected.data[i], found[i], UtilEjml.TEST_F64);
+        }
+    }
+
+    @Test
+    public void innerProduct() {
+        DMatrixRMaj a = RandomMatrices_DDRM.rectangle(6,1,-1,1,rand);
+        DMatrixRMaj c = RandomMatrices_DDRM.rectangle(4,1,-1,1,rand);
+
+        DMatrixRMaj tmp = new DMatrixRMaj(6,1);
+        CommonOps_DDRM.mult(Ad,c,tmp);
+        double expected = CommonOps_DDRM.dot(a,tmp);
+
+        assertEquals(expected, MatrixVectorMult_DSCR.innerProduct(a.data,0,A,c.data,0), UtilEjml.TEST_F64);
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.simd;
+
+import org.ejml.dense.row.misc.ArrayKernels_DDRM;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the default kernels against the explicitly vectorized kernels
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1, jvmArgsAppend = {"--add-modules","jdk.incubator.vector"})
+public class BenchmarkArrayKernels_DDRM {
+
+    @Param({"simd", "scalar"})
+    public String kernels;
+
+    @Param({"60", "1000", "100000"})
+    public int length;
+
+    ArrayKernels_DDRM alg;
+    double[] a, b, c;
+
+    @Setup
+    public void setup() {
+        Random rand = new Random(234);
+
+        alg = kernels.equals("simd") ? new ArrayKernelsSimd_DDRM() : new ArrayKernels_DDRM();
+        a = new double[length];
+        b = new double[length];
+        c = new double[length];
+        for (int i = 0; i < length; i++) {
+            a[i] = 0.1 + rand.nextDouble();
+            b[i] = 0.1 + rand.nextDouble();
+        }
+    }
+
+    @Benchmark
+    public double dot() {
+        return alg.dot(a,0,b,0,length);
+    }
+
+    @Benchmark
+    public double[] axpy() {
+        alg.axpy(0.5,a,0,c,0,length);
+        return c;
+    }
+
+    @Benchmark
+    public double[] elementMult() {
+        alg.elementMult(a,b,c,length);
+        return c;
+    }
+
+    @Benchmark
+    public double[] elementExp() {
+        alg.elementExp(a,c,length);
+        return c;
+    }
+
+    @Benchmark
+    public double[] elementLog() {
+        alg.elementLog(a,c,length);
+        return c;
+    }
+
+    @Benchmark
+    public double[] elementPower() {
+        alg.elementPower(a,b,c,length);
+        return c;
+    }
+
+    public static void main( String[] args ) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkArrayKernels_DDRM.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
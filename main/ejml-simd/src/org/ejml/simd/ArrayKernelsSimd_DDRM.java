@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.simd;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+import org.ejml.dense.row.misc.ArrayKernels_DDRM;
+
+/**
+ * <p>
+ * Implementation of {@link ArrayKernels_DDRM} which has been explicitly vectorized using the Vector API in
+ * jdk.incubator.vector.  It's registered as a service and replaces the default kernels when this module is on
+ * the class path and the JVM was launched with "--add-modules jdk.incubator.vector".
+ * </p>
+ *
+ * <p>
+ * scale and axpy perform the same operations on each element as the default implementation and produce
+ * identical results.  Inner products are accumulated in several partial sums and the transcendental
+ * functions use the JDK's vectorized math routines, so those results can differ in the last few bits.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ArrayKernelsSimd_DDRM extends ArrayKernels_DDRM {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    // number of doubles in a vector
+    private final int lanes;
+
+    public ArrayKernelsSimd_DDRM() {
+        // Fails here if the incubator module hasn't been added. ServiceLoader will then skip this provider
+        lanes = SPECIES.length();
+    }
+
+    /**
+     * Only worth using if the hardware can process more than one double at a time
+     */
+    @Override
+    public boolean isSupported() {
+        return lanes > 1;
+    }
+
+    @Override
+    public String getName() {
+        return "simd "+SPECIES.vectorBitSize()+"-bit";
+    }
+
+    @Override
+    public double dot( double[] x , int offsetX , double[] y , int offsetY , int length ) {
+        int upper = SPECIES.loopBound(length);
+        int i = 0;
+        double total = 0;
+        if( upper > 0 ) {
+            DoubleVector sum = DoubleVector.zero(SPECIES);
+            for( ; i < upper; i += SPECIES.length() ) {
+                DoubleVector vx = DoubleVector.fromArray(SPECIES,x,offsetX+i);
+                DoubleVector vy = DoubleVector.fromArray(SPECIES,y,offsetY+i);
+                sum = vx.fma(vy,sum);
+            }
+            total = sum.reduceLanes(VectorOperators.ADD);
+        }
+        for( ; i < length; i++ ) {
+            total += x[offsetX+i]*y[offsetY+i];
+        }
+        return total;
+    }
+
+    @Override
+    public void scale( double alpha , double[] x , int offsetX , double[] y , int offsetY , int length ) {
+        int upper = SPECIES.loopBound(length);
+        int i = 0;
+        for( ; i < upper; i += SPECIES.length() ) {
+            DoubleVector.fromArray(SPECIES,x,offsetX+i).mul(alpha).intoArray(y,offsetY+i);
+        }
+        for( ; i < length; i++ ) {
+            y[offsetY+i] = alpha*x[offsetX+i];
+        }
+    }
+
+    @Override
+    public void axpy( double alpha , double[] x , int offsetX , double[] y , int offsetY , int length ) {
+        int upper = SPECIES.loopBound(length);
+        int i = 0;
+        for( ; i < upper; i += SPECIES.length() ) {
+            DoubleVector vx = DoubleVector.fromArray(SPECIES,x,offsetX+i);
+            DoubleVector vy = DoubleVector.fromArray(SPECIES,y,offsetY+i);
+            vy.add(vx.mul(alpha)).intoArray(y,offsetY+i);
+        }
+        for( ; i < length; i++ ) {
+            y[offsetY+i] += alpha*x[offsetX+i];
+        }
+    }
+
+    @Override
+    public void add( double[] a , double[] b , double[] c , int length ) {
+        int upper = SPECIES.loopBound(length);
+        int i = 0;
+        for( ; i < upper; i += SPECIES.length() ) {
+            DoubleVector va = DoubleVector.fromArray(SPECIES,a,i);
+            DoubleVector vb = DoubleVector.fromArray(SPECIES,b,i);
+            va.add(vb).intoArray(c,i);
+        }
+        for( ; i < length; i++ ) {
+            c[i] = a[i] + b[i];
+        }
+    }
+
+    @Override
+    public void subtract( double[] a , double[] b , double[] c , int length ) {
+        int upper = SPECIES.loopBound(length);
+        int i = 0;
+        for( ; i < upper; i += SPECIES.length() ) {
+            DoubleVector va = DoubleVector.fromArray(SPECIES,a,i);
+            DoubleVector vb = DoubleVector.fromArray(SPECIES,b,i);
+            va.sub(vb).intoArray(c,i);
+        }
+        for( ; i < length; i++ ) {
+            c[i] = a[i] - b[i];
+        }
+    }
+
+    @Override
+    public void elementMult( double[] a , double[] b , double[] c , int length ) {
+        int upper = SPECIES.loopBound(length);
+        int i = 0;
+        for( ; i < upper; i += SPECIES.length() ) {
+            DoubleVector va = DoubleVector.fromArray(SPECIES,a,i);
+            DoubleVector vb = DoubleVector.fromArray(SPECIES,b,i);
+            va.mul(vb).intoArray(c,i);
+        }
+        for( ; i < length; i++ ) {
+            c[i] = a[i]*b[i];
+        }
+    }
+
+    @Override
+    public void elementDiv( double[] a , double[] b , double[] c , int length ) {
+        int upper = SPECIES.loopBound(length);
+        int i = 0;
+        for( ; i < upper; i += SPECIES.length() ) {
+            DoubleVector va = DoubleVector.fromArray(SPECIES,a,i);
+            DoubleVector vb = DoubleVector.fromArray(SPECIES,b,i);
+            va.div(vb).intoArray(c,i);
+        }
+        for( ; i < length; i++ ) {
+            c[i] = a[i]/b[i];
+        }
+    }
+
+    @Override
+    public void elementExp( double[] a , double[] c , int length ) {
+        int upper = SPECIES.loopBound(length);
+        int i = 0;
+        for( ; i < upper; i += SPECIES.length() ) {
+            DoubleVector.fromArray(SPECIES,a,i).lanewise(VectorOperators.EXP).intoArray(c,i);
+        }
+        for( ; i < length; i++ ) {
+            c[i] = Math.exp(a[i]);
+        }
+    }
+
+    @Override
+    public void elementLog( double[] a , double[] c , int length ) {
+        int upper = SPECIES.loopBound(length);
+        int i = 0;
+        for( ; i < upper; i += SPECIES.length() ) {
+            DoubleVector.fromArray(SPECIES,a,i).lanewise(VectorOperators.LOG).intoArray(c,i);
+        }
+        for( ; i < length; i++ ) {
+            c[i] = Math.log(a[i]);
+        }
+    }
+
+    @Override
+    public void elementPower( double[] a , double[] b , double[] c , int length ) {
+        int upper = SPECIES.loopBound(length);
+        int i = 0;
+        for( ; i < upper; i += SPECIES.length() ) {
+            DoubleVector va = DoubleVector.fromArray(SPECIES,a,i);
+            DoubleVector vb = DoubleVector.fromArray(SPECIES,b,i);
+            va.lanewise(VectorOperators.POW,vb).intoArray(c,i);
+        }
+        for( ; i < length; i++ ) {
+            c[i] = Math.pow(a[i], b[i]);
+        }
+    }
+
+    @Override
+    public void elementPower( double a , double[] b , double[] c , int length ) {
+        int upper = SPECIES.loopBound(length);
+        int i = 0;
+        DoubleVector va = DoubleVector.broadcast(SPECIES,a);
+        for( ; i < upper; i += SPECIES.length() ) {
+            va.lanewise(VectorOperators.POW,DoubleVector.fromArray(SPECIES,b,i)).intoArray(c,i);
+        }
+        for( ; i < length; i++ ) {
+            c[i] = Math.pow(a, b[i]);
+        }
+    }
+
+    @Override
+    public void elementPower( double[] a , double b , double[] c , int length ) {
+        int upper = SPECIES.loopBound(length);
+        int i = 0;
+        for( ; i < upper; i += SPECIES.length() ) {
+            DoubleVector.fromArray(SPECIES,a,i).lanewise(VectorOperators.POW,b).intoArray(c,i);
+        }
+        for( ; i < length; i++ ) {
+            c[i] = Math.pow(a[i], b);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.ejml.simd;
+
+import org.ejml.dense.row.misc.ArrayKernels_DDRM;
+import org.ejml.dense.row.misc.GenericArrayKernelsChecks_DDRM;
+import org.junit.Test;
+
+import static org.junit.Assert.assertSame;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestArrayKernelsSimd_DDRM extends GenericArrayKernelsChecks_DDRM {
+    @Override
+    protected ArrayKernels_DDRM createKernels() {
+        return new ArrayKernelsSimd_DDRM();
+    }
+
+    @Override
+    protected double tolerance() {
+        return 1e-14;
+    }
+
+    /**
+     * The kernels should be found by the service loader and replace the default implementation
+     */
+    @Test
+    public void registered() {
+        if( !new ArrayKernelsSimd_DDRM().isSupported() )
+            return;
+
+        assertSame(ArrayKernelsSimd_DDRM.class,ArrayKernels_DDRM.IMPL.getClass());
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.equation;
+
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares compiled equations made up of element-wise operations with and without {@link ElementWiseFusion}
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkElementWiseFusion {
+
+    @Param({"1000", "1000000"})
+    public int length;
+
+    @Param({"C = A + 2*B .* D - E", "C = exp(A) .* B + a*D"})
+    public String equation;
+
+    Sequence fused, unfused;
+
+    @Setup
+    public void setup() {
+        Random rand = new Random(234);
+
+        Equation eq = new Equation();
+        for( String name : new String[]{"A","B","C","D","E"}) {
+            eq.alias(RandomMatrices_DDRM.rectangle(length,1,-1,1,rand),name);
+        }
+        eq.alias(1.5,"a");
+
+        fused = eq.compile(equation);
+        eq.setFuseElementWise(false);
+        unfused = eq.compile(equation);
+    }
+
+    @Benchmark
+    public void fused() {
+        fused.perform();
+    }
+
+    @Benchmark
+    public void unfused() {
+        unfused.perform();
+    }
+
+    public static void main( String[] args ) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkElementWiseFusion.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.simple;
+
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the overhead of chaining operations together with {@link SimpleMatrix}.  Each chained operation
+ * has a procedural equivalent which reuses its memory.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkSimpleMatrix {
+
+    @Param({"5", "50", "500"})
+    public int size;
+
+    public SimpleMatrix A,B,C;
+
+    DMatrixRMaj tmp0,tmp1,found;
+
+    @Setup
+    public void setup() {
+        Random rand = new Random(234);
+
+        A = SimpleMatrix.random_DDRM(size,size,-1,1,rand);
+        B = SimpleMatrix.random_DDRM(size,size,-1,1,rand);
+        C = SimpleMatrix.random_DDRM(size,size,-1,1,rand);
+
+        tmp0 = new DMatrixRMaj(size,size);
+        tmp1 = new DMatrixRMaj(size,size);
+        found = new DMatrixRMaj(size,size);
+    }
+
+    /**
+     * (A*B + C)<sup>T</sup>*2
+     */
+    @Benchmark
+    public SimpleMatrix chain_mult_plus() {
+        return A.mult(B).plus(C).transpose().scale(2);
+    }
+
+    @Benchmark
+    public DMatrixRMaj procedural_mult_plus() {
+        CommonOps_DDRM.mult(A.getDDRM(),B.getDDRM(),tmp0);
+        CommonOps_DDRM.add(tmp0,C.getDDRM(),tmp1);
+        CommonOps_DDRM.transpose(tmp1,tmp0);
+        CommonOps_DDRM.scale(2,tmp0,found);
+        return found;
+    }
+
+    /**
+     * A<sup>-1</sup>*(B - C)
+     */
+    @Benchmark
+    public SimpleMatrix chain_solve() {
+        return A.solve(B.minus(C));
+    }
+
+    @Benchmark
+    public DMatrixRMaj procedural_solve() {
+        CommonOps_DDRM.subtract(B.getDDRM(),C.getDDRM(),tmp0);
+        CommonOps_DDRM.solve(A.getDDRM(),tmp0,found);
+        return found;
+    }
+
+    /**
+     * A<sup>T</sup>*A<sup>-1</sup>
+     */
+    @Benchmark
+    public SimpleMatrix chain_invert() {
+        return A.transpose().mult(A.invert());
+    }
+
+    @Benchmark
+    public SimpleMatrix svd() {
+        return A.svd().getW();
+    }
+
+    public static void main( String[] args ) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkSimpleMatrix.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.equation;
+
+/**
+ * Describes an {@link Operation} which computes each element in its output matrix independently from the same
+ * element in its input matrices.  Chains of these operations are merged together by {@link ElementWiseFusion}.
+ *
+ * @author Peter Abeles
+ */
+public class ElementWise {
+    public final Type type;
+    /** Inputs to the operation. Either {@link VariableMatrix} or {@link VariableScalar} */
+    public final Variable[] inputs;
+    public final VariableMatrix output;
+
+    public ElementWise(Type type, VariableMatrix output, Variable ...inputs ) {
+        this.type = type;
+        this.inputs = inputs;
+        this.output = output;
+    }
+
+    public enum Type {
+        /** output = a + b */
+        ADD(2),
+        /** output = a - b */
+        SUBTRACT(2),
+        /** output = a .* b */
+        MULTIPLY(2),
+        /** output = a ./ b */
+        DIVIDE(2),
+        /** output = a .^ b */
+        POWER(2),
+        /** output = -a */
+        NEGATIVE(1),
+        /** output = exp(a) */
+        EXP(1),
+        /** output = log(a) */
+        LOG(1),
+        /** output = a. Output is resized even if it's not a temporary variable. */
+        COPY(1);
+
+        final int numInputs;
+
+        Type(int numInputs) {
+            this.numInputs = numInputs;
+        }
+
+        public int getNumInputs() {
+            return numInputs;
+        }
+    }
+}
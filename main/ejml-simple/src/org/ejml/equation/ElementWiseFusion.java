@@ -0,0 +1,294 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.equation;
+
+import org.ejml.data.DMatrixRMaj;
+
+import java.util.*;
+
+/**
+ * <p>
+ * Merges chains of {@link ElementWise element-wise} operations in a {@link Sequence} into a single operation.
+ * For example, "C = A + 2*B .* D - E" is compiled into four operations which each write to a temporary matrix
+ * followed by a copy into C.  After fusion it's a single operation which computes C directly from A, B, D, and E
+ * with one pass through memory.
+ * </p>
+ *
+ * <p>
+ * The fused operation is evaluated in blocks of {@link #BLOCK_LENGTH} elements.  Each intermediate result is
+ * written to a small buffer which is allocated when the equation is compiled and stays inside the cache.
+ * Every element is computed using the same floating point operations as the original sequence, so the results
+ * are identical.  If the input matrices don't all have the same shape then the original operations are
+ * performed instead so that the same error is reported.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ElementWiseFusion {
+    /**
+     * Number of elements which are processed at once.  Intermediate results for a block need to fit inside the cache.
+     */
+    public static int BLOCK_LENGTH = 1024;
+
+    /**
+     * Replaces chains of element-wise operations in the sequence with fused operations. An operation is merged into
+     * the one that consumes its output.  This relies on each temporary variable being an input to at most one
+     * operation, which is true for sequences created by {@link Equation}.
+     */
+    public static void fuse( Sequence sequence ) {
+        List<Operation> operations = sequence.operations;
+
+        // Look up the operation which produced each temporary variable
+        Map<Variable,Operation> producers = new HashMap<>();
+        for( Operation op : operations ) {
+            if( op.elementWise != null && op.elementWise.output.isTemp() )
+                producers.put(op.elementWise.output,op);
+        }
+        if( producers.isEmpty() )
+            return;
+
+        // Find operations whose output is consumed by another element-wise operation
+        Set<Operation> absorbed = new HashSet<>();
+        for( Operation op : operations ) {
+            if( op.elementWise == null )
+                continue;
+            for( Variable v : op.elementWise.inputs ) {
+                Operation producer = producers.get(v);
+                if( producer != null && v != sequence.output )
+                    absorbed.add(producer);
+            }
+        }
+        if( absorbed.isEmpty() )
+            return;
+
+        List<Operation> fused = new ArrayList<>();
+        for( Operation op : operations ) {
+            if( absorbed.contains(op) )
+                continue;
+            if( op.elementWise == null || !hasAbsorbedInput(op,producers,absorbed) ) {
+                fused.add(op);
+            } else {
+                fused.add(new Fused(op,producers,absorbed));
+            }
+        }
+        sequence.operations = fused;
+    }
+
+    private static boolean hasAbsorbedInput( Operation op , Map<Variable,Operation> producers , Set<Operation> absorbed ) {
+        for( Variable v : op.elementWise.inputs ) {
+            Operation producer = producers.get(v);
+            if( producer != null && absorbed.contains(producer) )
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * A tree of element-wise operations evaluated as a single operation
+     */
+    static class Fused extends Operation {
+        // the original operations in the order they were performed
+        List<Operation> original = new ArrayList<>();
+        List<MatrixLeaf> matrices = new ArrayList<>();
+        List<ScalarLeaf> scalars = new ArrayList<>();
+
+        OpNode root;
+        VariableMatrix output;
+
+        Fused( Operation rootOp , Map<Variable,Operation> producers , Set<Operation> absorbed ) {
+            super("fused");
+            output = rootOp.elementWise.output;
+            root = (OpNode)createNode(rootOp,producers,absorbed);
+
+            StringBuilder name = new StringBuilder("fused(");
+            for (int i = 0; i < original.size(); i++) {
+                name.append(i == 0 ? "" : ",").append(original.get(i).name());
+            }
+            this.name = name.append(")").toString();
+        }
+
+        private Node createNode( Operation op , Map<Variable,Operation> producers , Set<Operation> absorbed ) {
+            ElementWise ew = op.elementWise;
+            OpNode node = new OpNode(ew.type);
+            node.inputs = new Node[ew.inputs.length];
+            for (int i = 0; i < ew.inputs.length; i++) {
+                Variable v = ew.inputs[i];
+                Operation producer = producers.get(v);
+                if( producer != null && absorbed.contains(producer) ) {
+                    node.inputs[i] = createNode(producer,producers,absorbed);
+                } else if( v instanceof VariableMatrix ) {
+                    MatrixLeaf leaf = new MatrixLeaf((VariableMatrix)v);
+                    matrices.add(leaf);
+                    node.inputs[i] = leaf;
+                } else {
+                    ScalarLeaf leaf = new ScalarLeaf((VariableScalar)v);
+                    scalars.add(leaf);
+                    node.inputs[i] = leaf;
+                }
+            }
+            // inputs are computed before the operation which uses them
+            original.add(op);
+            return node;
+        }
+
+        @Override
+        public void process() {
+            // All the input matrices must be the same shape, otherwise let the original operations handle it
+            DMatrixRMaj first = matrices.get(0).variable.matrix;
+            for (int i = 1; i < matrices.size(); i++) {
+                DMatrixRMaj m = matrices.get(i).variable.matrix;
+                if( m.numRows != first.numRows || m.numCols != first.numCols ) {
+                    for (int j = 0; j < original.size(); j++) {
+                        original.get(j).process();
+                    }
+                    return;
+                }
+            }
+
+            int numRows = first.numRows, numCols = first.numCols;
+            for (int i = 0; i < scalars.size(); i++) {
+                scalars.get(i).initialize(Math.min(BLOCK_LENGTH,numRows*numCols));
+            }
+
+            DMatrixRMaj out = output.matrix;
+            if( output.isTemp() || root.type == ElementWise.Type.COPY )
+                out.reshape(numRows,numCols);
+
+            int N = numRows*numCols;
+            if( N <= BLOCK_LENGTH ) {
+                // Only one block so the arrays can be used directly without copying
+                root.output = out.data;
+                root.compute(0,N,true);
+                root.output = null;
+            } else {
+                for (int i0 = 0; i0 < N; i0 += BLOCK_LENGTH) {
+                    int length = Math.min(BLOCK_LENGTH,N-i0);
+                    root.compute(i0,length,false);
+                    System.arraycopy(root.array,0,out.data,i0,length);
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes the value of elements i0 to i0+length-1 and writes them to the start of 'array'.  Every operation
+     * reads and writes its arrays starting from index 0, which allows the JIT to vectorize the loops.
+     */
+    static abstract class Node {
+        // Location of the results for the block
+        double[] array;
+        // Storage for the block's results
+        double[] storage = new double[BLOCK_LENGTH];
+
+        /**
+         * @param direct If true then the block starts at index 0 and matrices can be read directly
+         */
+        abstract void compute( int i0 , int length , boolean direct );
+
+        void ensureCapacity( int length ) {
+            if( storage.length < length )
+                storage = new double[length];
+            array = storage;
+        }
+    }
+
+    static class MatrixLeaf extends Node {
+        VariableMatrix variable;
+
+        MatrixLeaf(VariableMatrix variable) {
+            this.variable = variable;
+        }
+
+        @Override
+        void compute(int i0, int length, boolean direct) {
+            if( direct ) {
+                array = variable.matrix.data;
+            } else {
+                ensureCapacity(length);
+                System.arraycopy(variable.matrix.data,i0,array,0,length);
+            }
+        }
+    }
+
+    /**
+     * Scalars are expanded into an array so that every operation only needs to handle matrices
+     */
+    static class ScalarLeaf extends Node {
+        VariableScalar variable;
+
+        ScalarLeaf(VariableScalar variable) {
+            this.variable = variable;
+        }
+
+        void initialize( int length ) {
+            ensureCapacity(length);
+            Arrays.fill(array,0,length,variable.getDouble());
+        }
+
+        @Override
+        void compute(int i0, int length, boolean direct) {}
+    }
+
+    static class OpNode extends Node {
+        ElementWise.Type type;
+        Node[] inputs;
+        // If not null then the results are written here instead
+        double[] output;
+
+        OpNode(ElementWise.Type type) {
+            this.type = type;
+        }
+
+        @Override
+        void compute(int i0, int length, boolean direct) {
+            for (int i = 0; i < inputs.length; i++) {
+                inputs[i].compute(i0,length,direct);
+            }
+            if( output != null )
+                array = output;
+            else
+                ensureCapacity(length);
+
+            final double[] c = array;
+            final double[] a = inputs[0].array;
+
+            if( type.numInputs == 1 ) {
+                switch( type ) {
+                    case NEGATIVE: for (int i = 0; i < length; i++) c[i] = -a[i]; break;
+                    case EXP: for (int i = 0; i < length; i++) c[i] = Math.exp(a[i]); break;
+                    case LOG: for (int i = 0; i < length; i++) c[i] = Math.log(a[i]); break;
+                    case COPY: System.arraycopy(a,0,c,0,length); break;
+                    default: throw new RuntimeException("BUG");
+                }
+                return;
+            }
+
+            final double[] b = inputs[1].array;
+
+            switch( type ) {
+                case ADD: for (int i = 0; i < length; i++) c[i] = a[i] + b[i]; break;
+                case SUBTRACT: for (int i = 0; i < length; i++) c[i] = a[i] - b[i]; break;
+                case MULTIPLY: for (int i = 0; i < length; i++) c[i] = a[i] * b[i]; break;
+                case DIVIDE: for (int i = 0; i < length; i++) c[i] = a[i] / b[i]; break;
+                case POWER: for (int i = 0; i < length; i++) c[i] = Math.pow(a[i],b[i]); break;
+                default: throw new RuntimeException("BUG");
+            }
+        }
+    }
+}
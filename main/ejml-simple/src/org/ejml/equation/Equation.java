@@ -244,6 +244,9 @@ public class Equation {
     ManagerFunctions functions = new ManagerFunctions();
     ManagerTempVariables managerTemp = new ManagerTempVariables();
 
+    // If true then chains of element-wise operations are merged into a single operation
+    boolean fuseElementWise = true;
+
     public Equation() {
         alias(Math.PI,"pi");
         alias(Math.E,"e");
@@ -276,6 +279,20 @@ public class Equation {
         functions.managerTemp.rand = new Random();
     }
 
+    /**
+     * If true then chains of element-wise operations, e.g. "A + 2*B .* C", are merged into a single operation
+     * when compiled.  This avoids creating temporary matrices and is true by default.
+     *
+     * @see ElementWiseFusion
+     */
+    public void setFuseElementWise( boolean fuseElementWise ) {
+        this.fuseElementWise = fuseElementWise;
+    }
+
+    public boolean isFuseElementWise() {
+        return fuseElementWise;
+    }
+
     /**
      * Adds a new Matrix variable.  If one already has the same name it is written over.
      *
@@ -308,6 +325,12 @@ public class Equation {
         alias(f,name);
     }
 
+    public void alias(DMatrixSparseCSR variable , String name ) {
+        DMatrixRMaj f = new DMatrixRMaj(variable.numRows,variable.numCols);
+        ConvertDMatrixStruct.convert(variable,f);
+        alias(f,name);
+    }
+
     public void alias( SimpleMatrix variable , String name ) {
         alias((Object)variable.getMatrix(),name);
     }
@@ -386,6 +409,8 @@ public class Equation {
             alias((FMatrixRMaj)variable,name);
         } else if( variable.getClass() == DMatrixSparseCSC.class ) {
             alias((DMatrixSparseCSC)variable,name);
+        } else if( variable.getClass() == DMatrixSparseCSR.class ) {
+            alias((DMatrixSparseCSR)variable,name);
         } else if( variable.getClass() == SimpleMatrix.class ) {
             alias((SimpleMatrix) variable, name);
         } else if( variable instanceof DMatrixFixed ) {
@@ -454,6 +479,9 @@ public class Equation {
                 compileAssignment(sequence, tokens, t0);
             }
 
+            if( fuseElementWise )
+                ElementWiseFusion.fuse(sequence);
+
             if (debug) {
                 System.out.println("Operations:\n------------");
                 for (int i = 0; i < sequence.operations.size(); i++) {
@@ -41,6 +41,9 @@ public abstract class Operation {
 
     String name;
 
+    // Not null if the operation is element-wise and can be fused with other element-wise operations
+    ElementWise elementWise;
+
     protected Operation(String name) {
         this.name = name;
     }
@@ -132,6 +135,7 @@ public abstract class Operation {
                     CommonOps_DDRM.scale(s.getDouble(),m.matrix,output.matrix);
                 }
             };
+            ret.op.elementWise = new ElementWise(ElementWise.Type.MULTIPLY, output, A, B);
         }
 
         return ret;
@@ -155,6 +159,7 @@ public abstract class Operation {
                     CommonOps_DDRM.divide(m.matrix,s.getDouble(),output.matrix);
                 }
             };
+            ret.op.elementWise = new ElementWise(ElementWise.Type.DIVIDE, output, A, B);
         } else if( A instanceof VariableScalar && B instanceof VariableMatrix ) {
             final VariableMatrix output = manager.createMatrix();
             final VariableMatrix m = (VariableMatrix)B;
@@ -167,6 +172,7 @@ public abstract class Operation {
                     CommonOps_DDRM.divide(s.getDouble(), m.matrix, output.matrix);
                 }
             };
+            ret.op.elementWise = new ElementWise(ElementWise.Type.DIVIDE, output, A, B);
         } else if( A instanceof VariableInteger && B instanceof VariableInteger ) {
             final VariableInteger output = manager.createInteger();
             ret.output = output;
@@ -231,6 +237,7 @@ public abstract class Operation {
                     CommonOps_DDRM.changeSign(a, output.matrix);
                 }
             };
+            ret.op.elementWise = new ElementWise(ElementWise.Type.NEGATIVE, output, A);
         } else {
             throw new RuntimeException("Unsupported variable "+A);
         }
@@ -391,6 +398,7 @@ public abstract class Operation {
                     CommonOps_DDRM.elementExp(a, out);
                 }
             };
+            ret.op.elementWise = new ElementWise(ElementWise.Type.EXP, output, A);
         } else {
             throw new RuntimeException("Only scalars are supported");
         }
@@ -422,6 +430,7 @@ public abstract class Operation {
                     CommonOps_DDRM.elementLog(a, out);
                 }
             };
+            ret.op.elementWise = new ElementWise(ElementWise.Type.LOG, output, A);
         } else {
             throw new RuntimeException("Only scalars are supported");
         }
@@ -449,6 +458,7 @@ public abstract class Operation {
                     }
                 }
             };
+            ret.op.elementWise = new ElementWise(ElementWise.Type.ADD, output, A, B);
         } else if( A instanceof VariableInteger && B instanceof VariableInteger ) {
             final VariableInteger output = manager.createInteger(0);
             ret.output = output;
@@ -494,6 +504,7 @@ public abstract class Operation {
                     CommonOps_DDRM.add(m.matrix, s.getDouble(), output.matrix);
                 }
             };
+            ret.op.elementWise = new ElementWise(ElementWise.Type.ADD, output, A, B);
         }
 
         return ret;
@@ -527,6 +538,7 @@ public abstract class Operation {
                     }
                 }
             };
+            ret.op.elementWise = new ElementWise(ElementWise.Type.SUBTRACT, output, A, B);
         } else if( A instanceof VariableInteger && B instanceof VariableInteger ) {
             final VariableInteger output = manager.createInteger(0);
             ret.output = output;
@@ -565,6 +577,7 @@ public abstract class Operation {
                         CommonOps_DDRM.subtract(m, v, output.matrix);
                     }
                 };
+                ret.op.elementWise = new ElementWise(ElementWise.Type.SUBTRACT, output, A, B);
             } else {
                 ret.op = new Operation("subtract-sm") {
                     @Override
@@ -575,6 +588,7 @@ public abstract class Operation {
                         CommonOps_DDRM.subtract(v, m, output.matrix);
                     }
                 };
+                ret.op.elementWise = new ElementWise(ElementWise.Type.SUBTRACT, output, A, B);
             }
         }
 
@@ -597,6 +611,7 @@ public abstract class Operation {
                     CommonOps_DDRM.elementMult(mA.matrix, mB.matrix, output.matrix);
                 }
             };
+            ret.op.elementWise = new ElementWise(ElementWise.Type.MULTIPLY, output, A, B);
         } else {
             throw new RuntimeException("Both inputs must be matrices for element wise multiplication");
         }
@@ -620,6 +635,7 @@ public abstract class Operation {
                     CommonOps_DDRM.elementDiv(mA.matrix, mB.matrix, output.matrix);
                 }
             };
+            ret.op.elementWise = new ElementWise(ElementWise.Type.DIVIDE, output, A, B);
         } else {
             throw new RuntimeException("Both inputs must be matrices for element wise multiplication");
         }
@@ -660,6 +676,7 @@ public abstract class Operation {
                     CommonOps_DDRM.elementPower(a, b, output.matrix);
                 }
             };
+            ret.op.elementWise = new ElementWise(ElementWise.Type.POWER, output, A, B);
         } else if( A instanceof VariableMatrix && B instanceof VariableScalar ) {
 
             final VariableMatrix output = manager.createMatrix();
@@ -675,6 +692,7 @@ public abstract class Operation {
                     CommonOps_DDRM.elementPower(a, b, output.matrix);
                 }
             };
+            ret.op.elementWise = new ElementWise(ElementWise.Type.POWER, output, A, B);
         } else if( A instanceof VariableScalar && B instanceof VariableMatrix ) {
 
             final VariableMatrix output = manager.createMatrix();
@@ -690,6 +708,7 @@ public abstract class Operation {
                     CommonOps_DDRM.elementPower(a, b, output.matrix);
                 }
             };
+            ret.op.elementWise = new ElementWise(ElementWise.Type.POWER, output, A, B);
         } else {
             throw new RuntimeException("Unsupport element-wise power input types");
         }
@@ -701,7 +720,7 @@ public abstract class Operation {
 
         if( src instanceof VariableMatrix  ) {
             if( dst instanceof VariableMatrix ) {
-                return new Operation("copy-mm") {
+                Operation op = new Operation("copy-mm") {
                     @Override
                     public void process() {
                         DMatrixRMaj d = ((VariableMatrix) dst).matrix;
@@ -710,6 +729,8 @@ public abstract class Operation {
                         d.set(((VariableMatrix) src).matrix);
                     }
                 };
+                op.elementWise = new ElementWise(ElementWise.Type.COPY, (VariableMatrix)dst, src);
+                return op;
             } else if( dst instanceof VariableDouble ) {
                 return new Operation("copy-sm1") {
                     @Override
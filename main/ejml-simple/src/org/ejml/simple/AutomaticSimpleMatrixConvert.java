@@ -41,7 +41,9 @@ public class AutomaticSimpleMatrixConvert {
         boolean dense=false;
         boolean real=true;
         int bits=32;
-        
+        // if every input has the same type then nothing needs to be converted
+        MatrixType sameType = inputs.length > 0 ? inputs[0].mat.getType() : null;
+
         for( SimpleBase s : inputs ) {
             MatrixType t = s.mat.getType();
             if( t.isDense() )
@@ -50,9 +52,14 @@ public class AutomaticSimpleMatrixConvert {
                 real = false;
             if( t.getBits() == 64 )
                 bits=64;
+            if( t != sameType )
+                sameType = null;
         }
 
-        commonType = MatrixType.lookup(dense,real,bits);
+        if( sameType != null )
+            commonType = sameType;
+        else
+            commonType = MatrixType.lookup(dense,real,bits);
     }
 
     public <T extends SimpleBase<T>>T convert( SimpleBase matrix ) {
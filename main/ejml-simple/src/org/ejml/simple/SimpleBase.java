@@ -28,6 +28,7 @@ import org.ejml.ops.ConvertFMatrixStruct;
 import org.ejml.ops.MatrixIO;
 import org.ejml.simple.ops.*;
 
+import java.io.File;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
@@ -113,6 +114,10 @@ public abstract class SimpleBase <T extends SimpleBase<T>> implements Serializab
         return (FMatrixSparseCSC)mat;
     }
 
+    public DMatrixSparseCSR getDSCR() {
+        return (DMatrixSparseCSR)mat;
+    }
+
     protected static SimpleOperations lookupOps( MatrixType type ) {
         switch( type ) {
             case DDRM: return new SimpleOperations_DDRM();
@@ -120,6 +125,7 @@ public abstract class SimpleBase <T extends SimpleBase<T>> implements Serializab
             case ZDRM: return new SimpleOperations_ZDRM();
             case CDRM: return new SimpleOperations_CDRM();
             case DSCC: return new SimpleOperations_SPARSE();
+            case DSCR: return new SimpleOperations_SPARSE_CSR();
         }
         throw new RuntimeException("Unknown Matrix Type. "+type);
     }
@@ -935,6 +941,18 @@ public abstract class SimpleBase <T extends SimpleBase<T>> implements Serializab
         return new SimpleSVD(mat,compact);
     }
 
+    /**
+     * Computes a truncated SVD which only contains the largest singular values and their singular vectors.
+     * A randomized algorithm is used which is much faster than a full SVD when the rank is small.  Works with
+     * dense and sparse matrices.
+     *
+     * @param rank Number of singular values which are computed.
+     * @return Truncated SVD of this matrix.
+     */
+    public SimpleSVD<T> svd( int rank ) {
+        return new SimpleSVD(mat,rank);
+    }
+
     /**
      * Returns the Eigen Value Decomposition (EVD) of this matrix.
      */
@@ -1245,10 +1263,10 @@ public abstract class SimpleBase <T extends SimpleBase<T>> implements Serializab
 
     /**
      * <p>
-     * Saves this matrix to a file as a serialized binary object.
+     * Saves this matrix to a file in a binary format.
      * </p>
      *
-     * @see MatrixIO#saveBin( DMatrix, String)
+     * @see MatrixIO#saveBin( Matrix, String)
      *
      * @param fileName
      * @throws java.io.IOException
@@ -1256,30 +1274,57 @@ public abstract class SimpleBase <T extends SimpleBase<T>> implements Serializab
     public void saveToFileBinary( String fileName )
         throws IOException
     {
-        MatrixIO.saveBin((DMatrixRMaj)mat, fileName);
+        MatrixIO.saveBin(mat, fileName);
     }
 
     /**
      * <p>
-     * Loads a new matrix from a serialized binary file.
+     * Loads a new matrix from a binary file. Types which SimpleMatrix doesn't support are converted. Block
+     * and other real dense matrices become row-major and {@link FMatrixSparseCSC} becomes {@link DMatrixSparseCSC}.
      * </p>
      *
-     * @see MatrixIO#loadBin(String)
+     * @see MatrixIO#loadBin(File)
      *
      * @param fileName File which is to be loaded.
      * @return The matrix.
      * @throws IOException
+     * @throws IllegalArgumentException If the file contains a matrix type which can't be converted
      */
     public static SimpleMatrix loadBinary( String fileName )
             throws IOException {
-        DMatrix mat = MatrixIO.loadBin(fileName);
-
-        // see if its a DMatrixRMaj
-        if( mat instanceof DMatrixRMaj) {
-            return SimpleMatrix.wrap((DMatrixRMaj)mat);
+        Matrix mat = MatrixIO.loadBin(new File(fileName));
+
+        // see if it's a type that SimpleMatrix can wrap directly
+        if( mat instanceof DMatrixRMaj || mat instanceof FMatrixRMaj || mat instanceof ZMatrixRMaj ||
+                mat instanceof CMatrixRMaj || mat instanceof DMatrixSparseCSC || mat instanceof DMatrixSparseCSR ) {
+            return SimpleMatrix.wrap(mat);
+        } else if( mat instanceof DMatrixRBlock ) {
+            DMatrixRMaj a = new DMatrixRMaj(mat.getNumRows(),mat.getNumCols());
+            ConvertDMatrixStruct.convert((DMatrixRBlock)mat,a);
+            return SimpleMatrix.wrap(a);
+        } else if( mat instanceof FMatrixRBlock ) {
+            FMatrixRMaj a = new FMatrixRMaj(mat.getNumRows(),mat.getNumCols());
+            ConvertFMatrixStruct.convert((FMatrixRBlock)mat,a);
+            return SimpleMatrix.wrap(a);
+        } else if( mat instanceof FMatrixSparseCSC ) {
+            // there are no sparse 32-bit operations. Converting to 64-bit is exact and keeps the pattern
+            FMatrixSparseCSC src = (FMatrixSparseCSC)mat;
+            DMatrixSparseCSC dst = new DMatrixSparseCSC(src.numRows,src.numCols,src.nz_length);
+            dst.nz_length = src.nz_length;
+            dst.indicesSorted = src.indicesSorted;
+            System.arraycopy(src.col_idx,0,dst.col_idx,0,src.numCols+1);
+            System.arraycopy(src.nz_rows,0,dst.nz_rows,0,src.nz_length);
+            for (int i = 0; i < src.nz_length; i++) {
+                dst.nz_values[i] = src.nz_values[i];
+            }
+            return SimpleMatrix.wrap(dst);
+        } else if( mat instanceof DMatrix ) {
+            // e.g. fixed sized matrices saved with serialization
+            return SimpleMatrix.wrap(new DMatrixRMaj((DMatrix)mat));
+        } else if( mat instanceof FMatrix ) {
+            return SimpleMatrix.wrap(new FMatrixRMaj((FMatrix)mat));
         } else {
-            // if not convert it into one and wrap it
-            return SimpleMatrix.wrap( new DMatrixRMaj(mat));
+            throw new IllegalArgumentException("SimpleMatrix doesn't support "+mat.getClass().getSimpleName());
         }
     }
 
@@ -1288,7 +1333,7 @@ public abstract class SimpleBase <T extends SimpleBase<T>> implements Serializab
      * Saves this matrix to a file in a CSV format.  For the file format see {@link MatrixIO}.
      * </p>
      *
-     * @see MatrixIO#saveBin( DMatrix, String)
+     * @see MatrixIO#saveDenseCSV(DMatrix, String)
      *
      * @param fileName
      * @throws java.io.IOException
@@ -1513,6 +1558,7 @@ public abstract class SimpleBase <T extends SimpleBase<T>> implements Serializab
 
             case DSCC:
             case FSCC:
+            case DSCR:
                 break;
             default:
                 throw new RuntimeException("Conversion not supported!");
@@ -1524,7 +1570,8 @@ public abstract class SimpleBase <T extends SimpleBase<T>> implements Serializab
      */
     public void convertToDense() {
         switch ( mat.getType() ) {
-            case DSCC: {
+            case DSCC:
+            case DSCR: {
                 DMatrix m = new DMatrixRMaj(mat.getNumRows(), mat.getNumCols());
                 ConvertDMatrixStruct.convert((DMatrix) mat, m);
                 setMatrix(m);
@@ -172,6 +172,7 @@ public class SimpleMatrix extends SimpleBase<SimpleMatrix> {
             case CDRM:setMatrix(new CMatrixRMaj(numRows, numCols));break;
             case DSCC:setMatrix(new DMatrixSparseCSC(numRows, numCols));break;
             case FSCC:setMatrix(new FMatrixSparseCSC(numRows, numCols));break;
+            case DSCR:setMatrix(new DMatrixSparseCSR(numRows, numCols));break;
             default:
                 throw new RuntimeException("Unknown matrix type");
         }
@@ -20,6 +20,7 @@ package org.ejml.simple;
 
 import org.ejml.UtilEjml;
 import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
 import org.ejml.data.FMatrixRMaj;
 import org.ejml.data.Matrix;
 import org.ejml.dense.row.SingularOps_DDRM;
@@ -29,6 +30,8 @@ import org.ejml.dense.row.factory.DecompositionFactory_FDRM;
 import org.ejml.interfaces.decomposition.SingularValueDecomposition;
 import org.ejml.interfaces.decomposition.SingularValueDecomposition_F32;
 import org.ejml.interfaces.decomposition.SingularValueDecomposition_F64;
+import org.ejml.sparse.csc.decomposition.svd.SvdRandomized_DSCC;
+import org.ejml.sparse.csc.factory.DecompositionFactory_DSCC;
 
 
 /**
@@ -57,6 +60,8 @@ public class SimpleSVD<T extends SimpleBase> {
 
     private Matrix mat;
     final boolean is64;
+    // true if only the largest singular values were computed
+    final boolean truncated;
 
     // tolerance for singular values
     double tol;
@@ -64,6 +69,7 @@ public class SimpleSVD<T extends SimpleBase> {
     public SimpleSVD( Matrix mat , boolean compact ) {
         this.mat = mat;
         this.is64 = mat instanceof DMatrixRMaj;
+        this.truncated = false;
         if( is64 ) {
             DMatrixRMaj m = (DMatrixRMaj)mat;
             svd = DecompositionFactory_DDRM.svd(m.numRows,m.numCols,true,true,compact);
@@ -93,6 +99,49 @@ public class SimpleSVD<T extends SimpleBase> {
 
     }
 
+    /**
+     * Computes a truncated SVD with only the largest singular values using a randomized algorithm.
+     * U, W, and V are always compact and the singular values are ordered from largest to smallest.
+     * Since the smallest singular values are not known, {@link #rank()}, {@link #nullity()}, and
+     * {@link #nullSpace()} can't be computed and will throw an exception.
+     *
+     * @param mat Dense or sparse matrix which is to be decomposed. Not modified.
+     * @param rank Number of singular values which are to be computed
+     */
+    public SimpleSVD( Matrix mat , int rank ) {
+        this.mat = mat;
+        this.is64 = mat instanceof DMatrixRMaj || mat instanceof DMatrixSparseCSC;
+        this.truncated = true;
+
+        boolean success;
+        if( mat instanceof DMatrixSparseCSC ) {
+            SvdRandomized_DSCC svd = DecompositionFactory_DSCC.svdRandomized(rank,true,true);
+            success = svd.decompose((DMatrixSparseCSC)mat);
+            this.svd = svd;
+        } else if( mat instanceof DMatrixRMaj ) {
+            svd = DecompositionFactory_DDRM.svdRandomized(rank,true,true);
+            success = svd.decompose(mat);
+        } else if( mat instanceof FMatrixRMaj ) {
+            svd = DecompositionFactory_FDRM.svdRandomized(rank,true,true);
+            success = svd.decompose(mat);
+        } else {
+            throw new IllegalArgumentException("Unsupported matrix type "+mat.getClass().getSimpleName());
+        }
+
+        if( !success )
+            throw new RuntimeException("Decomposition failed");
+        U = (T)SimpleMatrix.wrap(svd.getU(null,false));
+        W = (T)SimpleMatrix.wrap(svd.getW(null));
+        V = (T)SimpleMatrix.wrap(svd.getV(null,false));
+
+        // singular values are already in descending order
+        if( is64 ) {
+            tol = SingularOps_DDRM.singularThreshold((SingularValueDecomposition_F64)svd);
+        } else {
+            tol = SingularOps_FDRM.singularThreshold((SingularValueDecomposition_F32)svd);
+        }
+    }
+
     /**
      * <p>
      * Returns the orthogonal 'U' matrix.
@@ -150,8 +199,10 @@ public class SimpleSVD<T extends SimpleBase> {
     /**
      * Computes the null space from an SVD.  For more information see {@link SingularOps_DDRM#nullSpace}.
      * @return Null space vector.
+     * @throws IllegalArgumentException If the decomposition is truncated
      */
     public SimpleMatrix nullSpace() {
+        checkNotTruncated();
         // TODO take advantage of the singular values being ordered already
         if( is64 ) {
             return SimpleMatrix.wrap(SingularOps_DDRM.nullSpace((SingularValueDecomposition_F64)svd, null, tol));
@@ -188,8 +239,10 @@ public class SimpleSVD<T extends SimpleBase> {
      * @see SingularOps_DDRM#rank(SingularValueDecomposition_F64, double)
      *
      * @return The matrix's rank
+     * @throws IllegalArgumentException If the decomposition is truncated
      */
     public int rank() {
+        checkNotTruncated();
         if( is64 ) {
             return SingularOps_DDRM.rank((SingularValueDecomposition_F64)svd, tol);
         } else {
@@ -203,8 +256,10 @@ public class SimpleSVD<T extends SimpleBase> {
      * @see SingularOps_DDRM#nullity(SingularValueDecomposition_F64, double)
      *
      * @return The matrix's nullity
+     * @throws IllegalArgumentException If the decomposition is truncated
      */
     public int nullity() {
+        checkNotTruncated();
         if( is64 ) {
             return SingularOps_DDRM.nullity((SingularValueDecomposition_F64)svd, 10.0 * UtilEjml.EPS);
         } else {
@@ -212,6 +267,18 @@ public class SimpleSVD<T extends SimpleBase> {
         }
     }
 
+    /**
+     * Returns true if only the largest singular values were computed
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    private void checkNotTruncated() {
+        if( truncated )
+            throw new IllegalArgumentException("Not supported by a truncated decomposition. Only the largest singular values are known.");
+    }
+
     /**
      * Returns the underlying decomposition that this is a wrapper around.
      *
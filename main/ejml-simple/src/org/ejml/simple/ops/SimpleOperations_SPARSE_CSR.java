@@ -0,0 +1,343 @@
+/*
+ * Copyright (c) 2009-2018, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.simple.ops;
+
+import org.ejml.data.*;
+import org.ejml.ops.ConvertDMatrixStruct;
+import org.ejml.ops.MatrixIO;
+import org.ejml.simple.ConvertToDenseException;
+import org.ejml.simple.ConvertToImaginaryException;
+import org.ejml.simple.SimpleSparseOperations;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+import org.ejml.sparse.csr.CommonOps_DSCR;
+import org.ejml.sparse.csr.MatrixFeatures_DSCR;
+
+import java.io.PrintStream;
+
+/**
+ * Operations for {@link DMatrixSparseCSR}.  Operations which require a decomposition, such as solve and invert,
+ * are computed by converting into {@link DMatrixSparseCSC} first.
+ *
+ * @author Peter Abeles
+ */
+public class SimpleOperations_SPARSE_CSR implements SimpleSparseOperations<DMatrixSparseCSR,DMatrixRMaj> {
+
+    // Workspace variables
+    public transient IGrowArray gw = new IGrowArray();
+    public transient DGrowArray gx = new DGrowArray();
+
+    @Override
+    public void set(DMatrixSparseCSR A, int row, int column, double value) {
+        A.set(row,column,value);
+    }
+
+    @Override
+    public void set(DMatrixSparseCSR A, int row, int column, double real, double imaginary) {
+        throw new ConvertToImaginaryException();
+    }
+
+    @Override
+    public double get(DMatrixSparseCSR A, int row, int column) {
+        return A.get(row,column);
+    }
+
+    @Override
+    public void get(DMatrixSparseCSR A, int row, int column, Complex_F64 value) {
+        value.real = A.get(row,column);
+        value.imaginary = 0;
+    }
+
+    @Override
+    public void fill(DMatrixSparseCSR A, double value) {
+        if( value == 0 ) {
+            A.zero();
+        } else {
+            throw new ConvertToDenseException();
+        }
+    }
+
+    @Override
+    public void transpose(DMatrixSparseCSR input, DMatrixSparseCSR output) {
+        CommonOps_DSCR.transpose(input,output,gw);
+    }
+
+    @Override
+    public void mult(DMatrixSparseCSR A, DMatrixSparseCSR B, DMatrixSparseCSR output) {
+        CommonOps_DSCR.mult(A,B,output,gw,gx);
+    }
+
+    @Override
+    public void multTransA(DMatrixSparseCSR A, DMatrixSparseCSR B, DMatrixSparseCSR output) {
+        CommonOps_DSCR.multTransA(A,B,output,gw,gx);
+    }
+
+    @Override
+    public void extractDiag(DMatrixSparseCSR input, DMatrixRMaj output) {
+        CommonOps_DSCR.extractDiag(input,output);
+    }
+
+    @Override
+    public void multTransA(DMatrixSparseCSR A, DMatrixRMaj B, DMatrixRMaj output) {
+        CommonOps_DSCR.multTransA(A,B,output);
+    }
+
+    @Override
+    public void mult(DMatrixSparseCSR A , DMatrixRMaj B , DMatrixRMaj output ) {
+        CommonOps_DSCR.mult(A,B,output);
+    }
+
+    @Override
+    public void kron(DMatrixSparseCSR A, DMatrixSparseCSR B, DMatrixSparseCSR output) {
+        throw new RuntimeException("Unsupported");
+    }
+
+    @Override
+    public void plus(DMatrixSparseCSR A, DMatrixSparseCSR B, DMatrixSparseCSR output) {
+        CommonOps_DSCR.add(1,A,1,B,output,gw,gx);
+    }
+
+    @Override
+    public void minus(DMatrixSparseCSR A, DMatrixSparseCSR B, DMatrixSparseCSR output) {
+        CommonOps_DSCR.add(1,A,-1,B,output,gw,gx);
+    }
+
+    @Override
+    public void minus(DMatrixSparseCSR A, double b, DMatrixSparseCSR output) {
+        throw new ConvertToDenseException();
+    }
+
+    @Override
+    public void plus(DMatrixSparseCSR A, double b, DMatrixSparseCSR output) {
+        throw new ConvertToDenseException();
+    }
+
+    @Override
+    public void plus(DMatrixSparseCSR A, double beta, DMatrixSparseCSR b, DMatrixSparseCSR output) {
+        CommonOps_DSCR.add(1,A,beta,b,output,gw,gx);
+    }
+
+    @Override
+    public void plus(double alpha, DMatrixSparseCSR A, double beta, DMatrixSparseCSR b, DMatrixSparseCSR output) {
+        CommonOps_DSCR.add(alpha,A,beta,b,output,gw,gx);
+    }
+
+    @Override
+    public double dot(DMatrixSparseCSR A, DMatrixSparseCSR v) {
+        double sum = 0;
+        for (int row = 0; row < A.numRows; row++) {
+            int idx0 = A.row_idx[row];
+            int idx1 = A.row_idx[row+1];
+            for (int i = idx0; i < idx1; i++) {
+                sum += A.nz_values[i]*v.unsafe_get(row,A.nz_cols[i]);
+            }
+        }
+        return sum;
+    }
+
+    @Override
+    public void scale(DMatrixSparseCSR A, double val, DMatrixSparseCSR output) {
+        CommonOps_DSCR.scale(val,A,output);
+    }
+
+    @Override
+    public void divide(DMatrixSparseCSR A, double val, DMatrixSparseCSR output) {
+        CommonOps_DSCR.divide(A,val,output);
+    }
+
+    @Override
+    public boolean invert(DMatrixSparseCSR A, DMatrixSparseCSR output) {
+        return solve(A,output,CommonOps_DSCR.identity(A.numRows,A.numCols));
+    }
+
+    @Override
+    public void setIdentity(DMatrixSparseCSR A) {
+        CommonOps_DSCR.setIdentity(A);
+    }
+
+    @Override
+    public void pseudoInverse(DMatrixSparseCSR A, DMatrixSparseCSR output) {
+        throw new RuntimeException("Unsupported");
+    }
+
+    @Override
+    public boolean solve(DMatrixSparseCSR A, DMatrixSparseCSR X, DMatrixSparseCSR B) {
+        DMatrixSparseCSC X_csc = new DMatrixSparseCSC(1,1,0);
+        if( !CommonOps_DSCC.solve(toCSC(A),X_csc,toCSC(B)) )
+            return false;
+        ConvertDMatrixStruct.convert(X_csc,X,gw);
+        return true;
+    }
+
+    public boolean solve(DMatrixSparseCSR A, DMatrixRMaj X, DMatrixRMaj B) {
+        return CommonOps_DSCC.solve(toCSC(A), X, B);
+    }
+
+    @Override
+    public void zero(DMatrixSparseCSR A) {
+        A.zero();
+    }
+
+    @Override
+    public double normF(DMatrixSparseCSR A) {
+        double max = CommonOps_DSCR.elementMaxAbs(A);
+        if( max == 0 )
+            return 0;
+
+        double total = 0;
+        for (int i = 0; i < A.nz_length; i++) {
+            double x = A.nz_values[i]/max;
+            total += x*x;
+        }
+        return max*Math.sqrt(total);
+    }
+
+    @Override
+    public double conditionP2(DMatrixSparseCSR A) {
+        throw new RuntimeException("Unsupported");
+    }
+
+    @Override
+    public double determinant(DMatrixSparseCSR A) {
+        return CommonOps_DSCC.det(toCSC(A));
+    }
+
+    @Override
+    public double trace(DMatrixSparseCSR A) {
+        return CommonOps_DSCR.trace(A);
+    }
+
+    @Override
+    public void setRow(DMatrixSparseCSR A, int row, int startColumn, double... values) {
+        for (int i = 0; i < values.length; i++) {
+            A.set(row, startColumn + i, values[i]);
+        }
+    }
+
+    @Override
+    public void setColumn(DMatrixSparseCSR A, int column, int startRow, double... values) {
+        for (int i = 0; i < values.length; i++) {
+            A.set(startRow + i, column, values[i]);
+        }
+    }
+
+    @Override
+    public void extract(DMatrixSparseCSR src, int srcY0, int srcY1, int srcX0, int srcX1, DMatrixSparseCSR dst, int dstY0, int dstX0) {
+        for (int row = srcY0; row < srcY1; row++) {
+            for (int col = srcX0; col < srcX1; col++) {
+                int dstRow = dstY0+row-srcY0;
+                int dstCol = dstX0+col-srcX0;
+                if( src.isAssigned(row,col) )
+                    dst.set(dstRow,dstCol,src.get(row,col));
+                else if( dst.isAssigned(dstRow,dstCol) )
+                    dst.remove(dstRow,dstCol);
+            }
+        }
+    }
+
+    @Override
+    public DMatrixSparseCSR diag(DMatrixSparseCSR A) {
+        DMatrixSparseCSR output;
+        if( A.numRows == 1 || A.numCols == 1 ) {
+            int N = Math.max(A.numCols,A.numRows);
+            output = new DMatrixSparseCSR(N,N,A.nz_length);
+            for (int i = 0; i < N; i++) {
+                double value = A.numRows == 1 ? A.get(0,i) : A.get(i,0);
+                if( value != 0 )
+                    output.unsafe_set(i,i,value);
+            }
+        } else {
+            int N = Math.min(A.numCols,A.numRows);
+            output = new DMatrixSparseCSR(N,1,N);
+            for (int i = 0; i < N; i++) {
+                if( A.isAssigned(i,i) )
+                    output.unsafe_set(i,0,A.get(i,i));
+            }
+        }
+        return output;
+    }
+
+    @Override
+    public boolean hasUncountable(DMatrixSparseCSR M) {
+        return MatrixFeatures_DSCR.hasUncountable(M);
+    }
+
+    @Override
+    public void changeSign(DMatrixSparseCSR a) {
+        CommonOps_DSCR.changeSign(a,a);
+    }
+
+    @Override
+    public double elementMaxAbs(DMatrixSparseCSR A) {
+        return CommonOps_DSCR.elementMaxAbs(A);
+    }
+
+    @Override
+    public double elementMinAbs(DMatrixSparseCSR A) {
+        return CommonOps_DSCR.elementMinAbs(A);
+    }
+
+    @Override
+    public double elementSum(DMatrixSparseCSR A) {
+        return CommonOps_DSCR.elementSum(A);
+    }
+
+    @Override
+    public void elementMult(DMatrixSparseCSR A, DMatrixSparseCSR B, DMatrixSparseCSR output) {
+        CommonOps_DSCR.elementMult(A,B,output,gw,gx);
+    }
+
+    @Override
+    public void elementDiv(DMatrixSparseCSR A, DMatrixSparseCSR B, DMatrixSparseCSR output) {
+        throw new ConvertToDenseException();
+    }
+
+    @Override
+    public void elementPower(DMatrixSparseCSR A, DMatrixSparseCSR B, DMatrixSparseCSR output) {
+        throw new ConvertToDenseException();
+    }
+
+    @Override
+    public void elementPower(DMatrixSparseCSR A, double b, DMatrixSparseCSR output) {
+        throw new ConvertToDenseException();
+    }
+
+    @Override
+    public void elementExp(DMatrixSparseCSR A, DMatrixSparseCSR output) {
+        throw new ConvertToDenseException();
+    }
+
+    @Override
+    public void elementLog(DMatrixSparseCSR A, DMatrixSparseCSR output) {
+        throw new ConvertToDenseException();
+    }
+
+    @Override
+    public boolean isIdentical(DMatrixSparseCSR A, DMatrixSparseCSR B, double tol) {
+        return MatrixFeatures_DSCR.isIdenticalSort(A, B, tol);
+    }
+
+    @Override
+    public void print(PrintStream out, Matrix mat, String format ) {
+        MatrixIO.print(out, (DMatrix)mat, format);
+    }
+
+    private DMatrixSparseCSC toCSC( DMatrixSparseCSR A ) {
+        return ConvertDMatrixStruct.convert(A,(DMatrixSparseCSC)null,gw);
+    }
+}
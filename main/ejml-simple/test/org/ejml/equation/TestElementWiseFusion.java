@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.equation;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestElementWiseFusion {
+    Random rand = new Random(234);
+
+    String[] equations = new String[]{
+            "C = A + 2*B .* D - E",
+            "C = -A + B",
+            "C = exp(A) .* log(B) ./ D",
+            "C = A .^ 2 + 2 .^ B - A .^ B",
+            "C = 3 - A/2 + 1/B - a*D",
+            "C = A*a + i + B",
+            "C = A*B + D .* E",
+            "C = (A + B)*(D - E/2)",
+            "C = A + B'",
+            "A = A + B .* D",
+            "A = B .* D + A",
+    };
+
+    /**
+     * The fused and unfused sequences should produce identical results
+     */
+    @Test
+    public void compareToUnfused() {
+        // larger than the block length
+        for( int size : new int[]{1,5,40} ) {
+            for( String text : equations ) {
+                compareToUnfused(text, size);
+            }
+        }
+    }
+
+    private void compareToUnfused( String text , int size ) {
+        Equation fused = createEquation(size,new Random(size));
+        Equation unfused = createEquation(size,new Random(size));
+        unfused.setFuseElementWise(false);
+
+        // run it twice to make sure the state isn't modified
+        for (int trial = 0; trial < 2; trial++) {
+            fused.process(text);
+            unfused.process(text);
+
+            for( String name : new String[]{"A","B","C","D","E"}) {
+                DMatrixRMaj expected = unfused.lookupDDRM(name);
+                DMatrixRMaj found = fused.lookupDDRM(name);
+                assertTrue(text+" "+name,MatrixFeatures_DDRM.isIdentical(expected,found,0));
+            }
+        }
+    }
+
+    private Equation createEquation( int size , Random rand ) {
+        Equation eq = new Equation();
+        // positive so that log is defined
+        for( String name : new String[]{"A","B","D","E"}) {
+            eq.alias(RandomMatrices_DDRM.rectangle(size,size,0.1,2,rand),name);
+        }
+        eq.alias(new DMatrixRMaj(1,1),"C");
+        eq.alias(1.5,"a");
+        eq.alias(3,"i");
+        return eq;
+    }
+
+    @Test
+    public void numberOfOperations() {
+        Equation eq = createEquation(3,rand);
+
+        Sequence sequence = eq.compile("C = A + 2*B .* D - E");
+        assertEquals(1,sequence.operations.size());
+        assertEquals("fused(multiply-ms,elementMult-mm,add-mm,subtract-mm,copy-mm)",sequence.operations.get(0).name());
+
+        // only the element-wise operations should be fused
+        sequence = eq.compile("C = A*B + D .* E");
+        assertEquals(2,sequence.operations.size());
+        assertEquals("multiply-mm",sequence.operations.get(0).name());
+        assertEquals("fused(elementMult-mm,add-mm,copy-mm)",sequence.operations.get(1).name());
+
+        // nothing to fuse
+        sequence = eq.compile("C = A*B");
+        assertEquals(2,sequence.operations.size());
+
+        eq.setFuseElementWise(false);
+        sequence = eq.compile("C = A + 2*B .* D - E");
+        assertEquals(5,sequence.operations.size());
+    }
+
+    /**
+     * No assignment so the output is a temporary variable
+     */
+    @Test
+    public void noAssignment() {
+        Equation eq = createEquation(3,rand);
+
+        Sequence sequence = eq.compile("(A + 2*B)",false,false);
+        assertEquals(1,sequence.operations.size());
+        sequence.perform();
+
+        DMatrixRMaj A = eq.lookupDDRM("A");
+        DMatrixRMaj B = eq.lookupDDRM("B");
+        DMatrixRMaj found = ((VariableMatrix)sequence.output).matrix;
+        assertEquals(3,found.numRows);
+        for (int i = 0; i < A.getNumElements(); i++) {
+            assertEquals(A.data[i]+2*B.data[i],found.data[i],0);
+        }
+    }
+
+    /**
+     * The size of an input is changed after it has been compiled
+     */
+    @Test
+    public void changeInputSize() {
+        Equation eq = createEquation(3,rand);
+        Sequence sequence = eq.compile("C = A + 2*B");
+
+        eq.alias(RandomMatrices_DDRM.rectangle(50,40,rand),"A");
+        eq.alias(RandomMatrices_DDRM.rectangle(50,40,rand),"B");
+        sequence.perform();
+
+        DMatrixRMaj A = eq.lookupDDRM("A");
+        DMatrixRMaj B = eq.lookupDDRM("B");
+        DMatrixRMaj C = eq.lookupDDRM("C");
+        assertEquals(50,C.numRows);
+        assertEquals(40,C.numCols);
+        for (int i = 0; i < A.getNumElements(); i++) {
+            assertEquals(A.data[i]+2*B.data[i],C.data[i],0);
+        }
+    }
+
+    /**
+     * If the input shapes don't match the same exception should be thrown
+     */
+    @Test
+    public void shapeMismatch() {
+        Equation eq = createEquation(3,rand);
+        eq.alias(new DMatrixRMaj(4,3),"F");
+        eq.alias(new DMatrixRMaj(1,1),"G");
+
+        try {
+            eq.process("C = A .* F + B");
+            fail("Should have thrown an exception");
+        } catch( MatrixDimensionException ignore ) {}
+
+        try {
+            eq.process("C = A + G - B");
+            fail("Should have thrown an exception");
+        } catch( MatrixDimensionException e ) {
+            assertTrue(e.getMessage().contains("1x1"));
+        }
+    }
+}
@@ -20,6 +20,8 @@ package org.ejml.equation;
 
 import org.ejml.UtilEjml;
 import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSR;
+import org.ejml.ops.ConvertDMatrixStruct;
 import org.ejml.dense.row.MatrixFeatures_DDRM;
 import org.ejml.simple.SimpleMatrix;
 import org.junit.Test;
@@ -194,6 +196,25 @@ public class TestEquation {
         assertTrue(MatrixFeatures_DDRM.isEquals((DMatrixRMaj)A.getMatrix(), B));
     }
 
+    /**
+     * Sparse matrices are converted into dense matrices when aliased
+     */
+    @Test
+    public void alias_sparseCSR() {
+        Equation eq = new Equation();
+
+        DMatrixRMaj A = SimpleMatrix.random_DDRM(4, 3, -1, 1, rand).getDDRM();
+        A.set(1,2,0);
+        DMatrixSparseCSR A_csr = ConvertDMatrixStruct.convert(A,(DMatrixSparseCSR)null,0);
+        eq.alias(A_csr, "A", 2.0, "b");
+        eq.process("B=b*A");
+
+        DMatrixRMaj B = eq.lookupDDRM("B");
+        for (int i = 0; i < A.getNumElements(); i++) {
+            assertEquals(2.0*A.get(i), B.get(i), UtilEjml.TEST_F64);
+        }
+    }
+
     /**
      * Place an unknown variable on the right and see if it blows up
      */
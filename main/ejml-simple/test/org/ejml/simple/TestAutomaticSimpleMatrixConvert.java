@@ -19,10 +19,13 @@
 package org.ejml.simple;
 
 import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.DMatrixSparseCSR;
 import org.ejml.data.FMatrixRMaj;
 import org.ejml.data.MatrixType;
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -46,4 +49,24 @@ public class TestAutomaticSimpleMatrixConvert {
         assertFalse(b==alg.convert(b));
         assertTrue(alg.convert(b).getType()== MatrixType.DDRM);
     }
-}
\ No newline at end of file
+
+    /**
+     * If all the inputs have the same type then that type should be used
+     */
+    @Test
+    public void sameType() {
+        AutomaticSimpleMatrixConvert alg = new AutomaticSimpleMatrixConvert();
+
+        SimpleMatrix a = SimpleMatrix.wrap(new DMatrixSparseCSR(2,2));
+        SimpleMatrix b = SimpleMatrix.wrap(new DMatrixSparseCSR(2,2));
+
+        alg.specify(a,b);
+        assertEquals(MatrixType.DSCR,alg.commonType);
+        assertTrue(b==alg.convert(b));
+
+        // mixed sparse formats are converted into the column format
+        alg.specify(a,SimpleMatrix.wrap(new DMatrixSparseCSC(2,2)));
+        assertEquals(MatrixType.DSCC,alg.commonType);
+        assertEquals(MatrixType.DSCC,alg.convert(a).getType());
+    }
+}
@@ -21,11 +21,14 @@ package org.ejml.simple;
 import org.ejml.EjmlUnitTests;
 import org.ejml.UtilEjml;
 import org.ejml.data.*;
-import org.ejml.dense.row.CommonOps_DDRM;
-import org.ejml.dense.row.NormOps_DDRM;
-import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.dense.block.MatrixOps_DDRB;
+import org.ejml.dense.block.MatrixOps_FDRB;
+import org.ejml.dense.row.*;
+import org.ejml.ops.ConvertFMatrixStruct;
 import org.ejml.ops.ConvertMatrixType;
+import org.ejml.ops.MatrixIO;
 import org.ejml.simple.ops.SimpleOperations_SPARSE;
+import org.ejml.sparse.csc.MatrixFeatures_DSCC;
 import org.ejml.sparse.csc.RandomMatrices_DSCC;
 import org.junit.Test;
 
@@ -495,6 +498,44 @@ public class TestSimpleMatrix {
         EjmlUnitTests.assertEquals(a.mat,a_found.mat);
     }
 
+    @Test
+    public void svd_rank() {
+        SimpleMatrix a = new SimpleMatrix(RandomMatrices_DDRM.singular(20,15,rand,6,3,2,1));
+
+        SimpleSVD<SimpleMatrix> svd = a.svd(2);
+        assertEquals(2,svd.getW().numRows());
+        assertEquals(6,svd.getSingleValue(0),UtilEjml.TEST_F64*10);
+        assertEquals(3,svd.getSingleValue(1),UtilEjml.TEST_F64*10);
+
+        // same decomposition for the sparse matrix
+        SimpleMatrix b = a.copy();
+        b.convertToSparse();
+        SimpleSVD<SimpleMatrix> svdSparse = b.svd(2);
+        assertEquals(6,svdSparse.getSingleValue(0),UtilEjml.TEST_F64*10);
+        assertEquals(3,svdSparse.getSingleValue(1),UtilEjml.TEST_F64*10);
+
+        // with full rank it should be the same as the regular SVD
+        SimpleSVD<SimpleMatrix> svdFull = a.svd(15);
+        SimpleMatrix a_found = svdFull.getU().mult(svdFull.getW()).mult(svdFull.getV().transpose());
+        EjmlUnitTests.assertEquals(a.mat,a_found.mat);
+    }
+
+    /**
+     * The smallest singular values are unknown in a truncated SVD so rank and null space can't be computed
+     */
+    @Test
+    public void svd_rank_truncatedUnsupported() {
+        SimpleMatrix a = SimpleMatrix.random_DDRM(30,20, -1, 1, rand);
+
+        SimpleSVD<SimpleMatrix> svd = a.svd(5);
+        assertTrue(svd.isTruncated());
+        assertFalse(a.svd().isTruncated());
+
+        try { svd.rank(); fail("Expected exception"); } catch( IllegalArgumentException ignore ){}
+        try { svd.nullity(); fail("Expected exception"); } catch( IllegalArgumentException ignore ){}
+        try { svd.nullSpace(); fail("Expected exception"); } catch( IllegalArgumentException ignore ){}
+    }
+
     @Test
     public void eig() {
         SimpleMatrix a = SimpleMatrix.random_DDRM(4,4, 0, 1, rand);
@@ -893,6 +934,7 @@ public class TestSimpleMatrix {
         matrixTypes.add( new ZMatrixRMaj(2,3));
         matrixTypes.add( new CMatrixRMaj(2,3));
         matrixTypes.add( new DMatrixSparseCSC(2,3));
+        matrixTypes.add( new DMatrixSparseCSR(2,3));
 //        matrixTypes.add( new FMatrixSparseCSC(2,3));
 
 
@@ -964,6 +1006,105 @@ public class TestSimpleMatrix {
         assertTrue(ops.specalized);
     }
 
+    /**
+     * Operations on compressed row matrices should produce compressed row matrices and match the dense results
+     */
+    @Test
+    public void sparseCSR() {
+        DMatrixRMaj Ad = RandomMatrices_DDRM.rectangle(5,4,-1,1,rand);
+        DMatrixRMaj Bd = RandomMatrices_DDRM.rectangle(4,3,-1,1,rand);
+
+        SimpleMatrix A = SimpleMatrix.wrap(ConvertMatrixType.convert(Ad,MatrixType.DSCR));
+        SimpleMatrix B = SimpleMatrix.wrap(ConvertMatrixType.convert(Bd,MatrixType.DSCR));
+        SimpleMatrix expectedAB = SimpleMatrix.wrap(Ad).mult(SimpleMatrix.wrap(Bd));
+
+        SimpleMatrix found = A.mult(B);
+        assertEquals(MatrixType.DSCR, found.getType());
+        found.convertToDense();
+        assertTrue(expectedAB.isIdentical(found,UtilEjml.TEST_F64));
+
+        found = A.plus(A).minus(A.scale(3));
+        assertEquals(MatrixType.DSCR, found.getType());
+        assertEquals(-Ad.get(2,1), found.get(2,1), UtilEjml.TEST_F64);
+
+        found = A.transpose();
+        assertEquals(MatrixType.DSCR, found.getType());
+        assertEquals(Ad.get(3,2), found.get(2,3), UtilEjml.TEST_F64);
+
+        // sparse times dense produces a dense matrix
+        found = A.mult(SimpleMatrix.wrap(Bd));
+        assertEquals(MatrixType.DDRM, found.getType());
+        assertTrue(expectedAB.isIdentical(found,UtilEjml.TEST_F64));
+
+        assertEquals(SimpleMatrix.wrap(Ad).normF(), A.normF(), UtilEjml.TEST_F64);
+    }
+
+    /**
+     * Save and load every type of matrix the binary format can write
+     */
+    @Test
+    public void saveLoadBinary() throws IOException {
+        DMatrixRMaj D = RandomMatrices_DDRM.rectangle(4,3,rand);
+        SimpleMatrix found = saveLoadBinary(D);
+        assertEquals(MatrixType.DDRM,found.getType());
+        assertTrue(MatrixFeatures_DDRM.isIdentical(D,found.getDDRM(),0));
+
+        FMatrixRMaj F = RandomMatrices_FDRM.rectangle(4,3,rand);
+        found = saveLoadBinary(F);
+        assertEquals(MatrixType.FDRM,found.getType());
+        assertTrue(MatrixFeatures_FDRM.isIdentical(F,found.getFDRM(),0));
+
+        ZMatrixRMaj Z = RandomMatrices_ZDRM.rectangle(4,3,-1,1,rand);
+        found = saveLoadBinary(Z);
+        assertEquals(MatrixType.ZDRM,found.getType());
+        assertTrue(MatrixFeatures_ZDRM.isIdentical(Z,found.getZDRM(),0));
+
+        CMatrixRMaj C = RandomMatrices_CDRM.rectangle(4,3,-1,1,rand);
+        found = saveLoadBinary(C);
+        assertEquals(MatrixType.CDRM,found.getType());
+        assertTrue(MatrixFeatures_CDRM.isIdentical(C,found.getCDRM(),0));
+
+        // block matrices are converted into row-major
+        DMatrixRBlock DB = MatrixOps_DDRB.createRandom(7,5,-1,1,rand,3);
+        found = saveLoadBinary(DB);
+        assertEquals(MatrixType.DDRM,found.getType());
+        assertTrue(MatrixFeatures_DDRM.isIdentical(new DMatrixRMaj(DB),found.getDDRM(),0));
+
+        FMatrixRBlock FB = MatrixOps_FDRB.createRandom(7,5,-1,1,rand,3);
+        found = saveLoadBinary(FB);
+        assertEquals(MatrixType.FDRM,found.getType());
+        FMatrixRMaj expectedF = new FMatrixRMaj(7,5);
+        ConvertFMatrixStruct.convert(FB,expectedF);
+        assertTrue(MatrixFeatures_FDRM.isIdentical(expectedF,found.getFDRM(),0));
+
+        DMatrixSparseCSC DS = RandomMatrices_DSCC.rectangle(8,6,15,rand);
+        found = saveLoadBinary(DS);
+        assertEquals(MatrixType.DSCC,found.getType());
+        assertTrue(MatrixFeatures_DSCC.isEquals(DS,found.getDSCC()));
+
+        // there are no 32-bit sparse operations so it's converted into 64-bit
+        FMatrixSparseCSC FS = ConvertFMatrixStruct.convert(RandomMatrices_FDRM.rectangle(8,6,rand),
+                (FMatrixSparseCSC)null,0.5f);
+        found = saveLoadBinary(FS);
+        assertEquals(MatrixType.DSCC,found.getType());
+        assertEquals(FS.nz_length,found.getDSCC().nz_length);
+        for (int row = 0; row < FS.numRows; row++) {
+            for (int col = 0; col < FS.numCols; col++) {
+                assertEquals(FS.get(row,col),found.get(row,col),0.0);
+            }
+        }
+    }
+
+    private static SimpleMatrix saveLoadBinary( Matrix A ) throws IOException {
+        File file = File.createTempFile("ejml",".bin");
+        try {
+            MatrixIO.saveBin(A,file.getPath());
+            return SimpleMatrix.loadBinary(file.getPath());
+        } finally {
+            assertTrue(file.delete());
+        }
+    }
+
     /**
      * Helper used to test to see if a specialized function was called
      */
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decompose;
+
+import org.ejml.data.ZMatrixRMaj;
+import org.ejml.dense.row.RandomMatrices_ZDRM;
+import org.ejml.dense.row.decompose.bidiagonal.BidiagonalDecompositionRow_ZDRM;
+import org.ejml.dense.row.decompose.hessenberg.HessenbergSimilarDecomposition_ZDRM;
+import org.ejml.dense.row.decompose.hessenberg.TridiagonalDecompositionHouseholder_ZDRM;
+import org.ejml.dense.row.factory.DecompositionFactory_ZDRM;
+import org.ejml.interfaces.decomposition.DecompositionInterface;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Covers every family of complex dense decomposition. If a decomposition modifies its input then a copy of the
+ * input is decomposed, which is included in the time.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkDecompositions_ZDRM {
+
+    @Param({"10", "100", "500"})
+    public int size;
+
+    // general square matrix
+    public ZMatrixRMaj A;
+    // hermitian positive definite matrix
+    public ZMatrixRMaj H;
+
+    ZMatrixRMaj work = new ZMatrixRMaj(1,1);
+
+    DecompositionInterface<ZMatrixRMaj> chol,lu,qr,tridiagonal,hessenberg,bidiagonal,svd,eig;
+
+    @Setup
+    public void setup() {
+        Random rand = new Random(234);
+
+        A = RandomMatrices_ZDRM.rectangle(size,size,-1,1,rand);
+        H = RandomMatrices_ZDRM.hermitianPosDef(size,rand);
+
+        chol = DecompositionFactory_ZDRM.chol(size,true);
+        lu = DecompositionFactory_ZDRM.lu(size,size);
+        qr = DecompositionFactory_ZDRM.qr(size,size);
+        tridiagonal = new TridiagonalDecompositionHouseholder_ZDRM();
+        hessenberg = new HessenbergSimilarDecomposition_ZDRM(size);
+        bidiagonal = new BidiagonalDecompositionRow_ZDRM();
+        svd = DecompositionFactory_ZDRM.svd(size,size,true,true,true);
+        eig = DecompositionFactory_ZDRM.eig(size,true,true);
+    }
+
+    @Benchmark
+    public void cholesky() {
+        decompose(chol,H);
+    }
+
+    @Benchmark
+    public void lu() {
+        decompose(lu,A);
+    }
+
+    @Benchmark
+    public void qr() {
+        decompose(qr,A);
+    }
+
+    @Benchmark
+    public void tridiagonal() {
+        decompose(tridiagonal,H);
+    }
+
+    @Benchmark
+    public void hessenberg() {
+        decompose(hessenberg,A);
+    }
+
+    @Benchmark
+    public void bidiagonal() {
+        decompose(bidiagonal,A);
+    }
+
+    @Benchmark
+    public void svd() {
+        decompose(svd,A);
+    }
+
+    @Benchmark
+    public void eig() {
+        decompose(eig,H);
+    }
+
+    private void decompose( DecompositionInterface<ZMatrixRMaj> alg , ZMatrixRMaj input ) {
+        if( alg.inputModified() ) {
+            work.set(input);
+            input = work;
+        }
+        if( !alg.decompose(input) )
+            throw new RuntimeException("Decomposition failed");
+    }
+
+    public static void main( String[] args ) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkDecompositions_ZDRM.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -18,6 +18,7 @@
 
 package org.ejml.dense.row.decompose;
 
+import org.ejml.data.DMatrixRMaj;
 import org.ejml.data.ZMatrixRMaj;
 import org.ejml.dense.row.CommonOps_ZDRM;
 
@@ -91,4 +92,45 @@ public class UtilDecompositons_ZDRM {
         return A;
     }
 
+    /**
+     * Multiplies a row by a complex number
+     */
+    public static void scaleRow( ZMatrixRMaj A , int row , double real , double imag ) {
+        int index = row*A.numCols*2;
+        int end = index + A.numCols*2;
+        for (; index < end; index += 2) {
+            double r = A.data[index], i = A.data[index+1];
+            A.data[index]   = r*real - i*imag;
+            A.data[index+1] = r*imag + i*real;
+        }
+    }
+
+    /**
+     * Multiplies the first N rows in A by a real N by N matrix, A(0:N,:) = R*A(0:N,:).  Used to apply the
+     * rotations found when diagonalizing a real bidiagonal or tridiagonal matrix to complex vectors.
+     *
+     * @param R Real square matrix. Not modified.
+     * @param A Complex matrix with at least R.numRows rows. Modified.
+     * @param work Storage for the product. Reshaped.
+     */
+    public static void multRows( DMatrixRMaj R , ZMatrixRMaj A , ZMatrixRMaj work ) {
+        int N = R.numRows;
+        int length = A.numCols*2;
+        work.reshape(N,A.numCols);
+        work.zero();
+
+        for (int i = 0; i < N; i++) {
+            int indexW = i*length;
+            for (int k = 0; k < N; k++) {
+                double r = R.data[i*N+k];
+                if( r == 0 )
+                    continue;
+                int indexA = k*length;
+                for (int j = 0; j < length; j++) {
+                    work.data[indexW+j] += r*A.data[indexA+j];
+                }
+            }
+        }
+        System.arraycopy(work.data,0,A.data,0,N*length);
+    }
 }
@@ -0,0 +1,334 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decompose.bidiagonal;
+
+import org.ejml.data.Complex_F64;
+import org.ejml.data.ZMatrixRMaj;
+import org.ejml.dense.row.decompose.UtilDecompositons_ZDRM;
+import org.ejml.dense.row.decompose.qr.QrHelperFunctions_ZDRM;
+import org.ejml.interfaces.decomposition.BidiagonalDecomposition_F64;
+
+/**
+ * <p>
+ * Performs a complex {@link BidiagonalDecomposition_F64} using householder reflectors.
+ * </p>
+ *
+ * <p>
+ * A = U*B*V<sup>H</sup><br>
+ * <br>
+ * where U and V are unitary and B is an upper bidiagonal matrix with complex elements.  Reflectors from the left
+ * are stored in the lower triangle and reflectors from the right in the upper triangle above the off diagonal.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class BidiagonalDecompositionRow_ZDRM
+        implements BidiagonalDecomposition_F64<ZMatrixRMaj>
+{
+    // A combined matrix that stores te upper Hessenberg matrix and the orthogonal matrix.
+    private ZMatrixRMaj UBV;
+
+    // number of rows
+    private int m;
+    // number of columns
+    private int n;
+    // the smaller of m or n
+    private int min;
+
+    // the first element in the orthogonal vectors
+    private double gammasU[];
+    private double gammasV[];
+    // temporary storage
+    private double b[];
+    private double u[];
+
+    private Complex_F64 tau = new Complex_F64();
+
+    public BidiagonalDecompositionRow_ZDRM() {
+        gammasU = new double[ 1 ];
+        gammasV = new double[ 1 ];
+        b = new double[ 2 ];
+        u = new double[ 2 ];
+    }
+
+    /**
+     * Computes the decomposition of the provided matrix.  If no errors are detected then true is returned,
+     * false otherwise.
+     *
+     * @param A  The matrix that is being decomposed.  Modified.
+     * @return If it detects any errors or not.
+     */
+    @Override
+    public boolean decompose( ZMatrixRMaj A  )
+    {
+        init(A);
+
+        for( int k = 0; k < min; k++ ) {
+            computeU(k);
+            computeV(k);
+        }
+
+        return true;
+    }
+
+    /**
+     * Sets up internal data structures.
+     *
+     * @param A The input matrix.
+     */
+    protected void init( ZMatrixRMaj A ) {
+        UBV = A;
+
+        m = UBV.numRows;
+        n = UBV.numCols;
+
+        min = Math.min(m,n);
+        int max = Math.max(m,n);
+
+        if( b.length < (max+1)*2 ) {
+            b = new double[ (max+1)*2 ];
+            u = new double[ (max+1)*2 ];
+        }
+        if( gammasU.length < m ) {
+            gammasU = new double[ m ];
+        }
+        if( gammasV.length < n ) {
+            gammasV = new double[ n ];
+        }
+    }
+
+    /**
+     * The raw UBV matrix that is stored internally.
+     *
+     * @return UBV matrix.
+     */
+    public ZMatrixRMaj getUBV() {
+        return UBV;
+    }
+
+    /**
+     * Extracts the diagonal and off diagonal elements.  Elements are complex and interleaved, real then imaginary.
+     */
+    @Override
+    public void getDiagonal(double[] diag, double[] off) {
+        for( int i = 0; i < min; i++ ) {
+            int index = UBV.getIndex(i,i);
+            diag[i*2]   = UBV.data[index];
+            diag[i*2+1] = UBV.data[index+1];
+
+            if( i+1 < min || n > m ) {
+                off[i*2]   = UBV.data[index+2];
+                off[i*2+1] = UBV.data[index+3];
+            }
+        }
+    }
+
+    /**
+     * Returns the bidiagonal matrix.
+     *
+     * @param B If not null the results are stored here, if null a new matrix is created.
+     * @return The bidiagonal matrix.
+     */
+    @Override
+    public ZMatrixRMaj getB( ZMatrixRMaj B , boolean compact ) {
+        int w = n > m ? min + 1 : min;
+
+        if( compact )
+            B = UtilDecompositons_ZDRM.checkZeros(B,min,w);
+        else
+            B = UtilDecompositons_ZDRM.checkZeros(B,m,n);
+
+        for( int i = 0; i < min; i++ ) {
+            B.set(i,i, UBV.getReal(i,i), UBV.getImag(i,i));
+            if( i+1 < w )
+                B.set(i,i+1, UBV.getReal(i,i+1), UBV.getImag(i,i+1));
+        }
+
+        return B;
+    }
+
+    /**
+     * Returns the unitary U matrix.
+     *
+     * @param U If not null then the results will be stored here.  Otherwise a new matrix will be created.
+     * @param transpose If true then the conjugate transpose is returned
+     * @return The extracted U matrix.
+     */
+    @Override
+    public ZMatrixRMaj getU( ZMatrixRMaj U , boolean transpose , boolean compact ) {
+        if( compact ) {
+            if( transpose )
+                U = UtilDecompositons_ZDRM.checkIdentity(U,min,m);
+            else
+                U = UtilDecompositons_ZDRM.checkIdentity(U,m,min);
+        } else {
+            U = UtilDecompositons_ZDRM.checkIdentity(U,m,m);
+        }
+
+        for( int j = min-1; j >= 0; j-- ) {
+            QrHelperFunctions_ZDRM.extractHouseholderColumn(UBV,j,m,j,u,0);
+            if( transpose )
+                QrHelperFunctions_ZDRM.rank1UpdateMultL(U,u,0,gammasU[j],j,j,m);
+            else
+                QrHelperFunctions_ZDRM.rank1UpdateMultR(U,u,0,gammasU[j],j,j,m,this.b);
+        }
+
+        return U;
+    }
+
+    /**
+     * Returns the unitary V matrix.
+     *
+     * @param V If not null then the results will be stored here.  Otherwise a new matrix will be created.
+     * @param transpose If true then the conjugate transpose is returned
+     * @return The extracted V matrix.
+     */
+    @Override
+    public ZMatrixRMaj getV( ZMatrixRMaj V , boolean transpose , boolean compact ) {
+        int w = n > m ? min + 1 : min;
+
+        if( compact ) {
+            if( transpose )
+                V = UtilDecompositons_ZDRM.checkIdentity(V,w,n);
+            else
+                V = UtilDecompositons_ZDRM.checkIdentity(V,n,w);
+        } else {
+            V = UtilDecompositons_ZDRM.checkIdentity(V,n,n);
+        }
+
+        for( int j = min-1; j >= 0; j-- ) {
+            if( j+1 >= n )
+                continue;
+            QrHelperFunctions_ZDRM.extractHouseholderRow(UBV,j,j+1,n,u,0);
+            if( transpose )
+                QrHelperFunctions_ZDRM.rank1UpdateMultL(V,u,0,gammasV[j],j+1,j+1,n);
+            else
+                QrHelperFunctions_ZDRM.rank1UpdateMultR(V,u,0,gammasV[j],j+1,j+1,n,this.b);
+        }
+
+        return V;
+    }
+
+    /**
+     * Zeros the elements below the diagonal in column k using a reflector from the left.
+     */
+    protected void computeU( int k ) {
+        double max = QrHelperFunctions_ZDRM.extractColumnAndMax(UBV,k,m,k,u,0);
+
+        if( max > 0 ) {
+            double gamma = QrHelperFunctions_ZDRM.computeTauGammaAndDivide(k,m,u,max,tau);
+            gammasU[k] = gamma;
+
+            // divide u by u_0
+            double real_u_0 = u[k*2]   + tau.real;
+            double imag_u_0 = u[k*2+1] + tau.imaginary;
+            QrHelperFunctions_ZDRM.divideElements(k + 1, m, u, 0, real_u_0, imag_u_0);
+
+            // write the reflector into the lower left column of the matrix
+            double data[] = UBV.data;
+            for (int i = k+1; i < m; i++) {
+                data[(i*n+k)*2]   = u[i*2];
+                data[(i*n+k)*2+1] = u[i*2+1];
+            }
+
+            u[k*2]   = 1;
+            u[k*2+1] = 0;
+
+            // ---------- multiply on the left by Q_k
+            QrHelperFunctions_ZDRM.rank1UpdateMultR(UBV,u,0,gamma,k+1,k,m,this.b);
+
+            data[(k*n+k)*2]   = -tau.real*max;
+            data[(k*n+k)*2+1] = -tau.imaginary*max;
+        } else {
+            gammasU[k] = 0;
+        }
+    }
+
+    /**
+     * Zeros the elements in row k to the right of the off diagonal using a reflector from the right.  The
+     * reflector is computed from the conjugate of the row.
+     */
+    protected void computeV( int k ) {
+        double data[] = UBV.data;
+
+        if( k+1 >= n ) {
+            gammasV[k] = 0;
+            return;
+        }
+
+        // copy the conjugate of the row
+        int index = (k*n+k+1)*2;
+        for (int i = k+1; i < n; i++) {
+            u[i*2]   = data[index++];
+            u[i*2+1] = -data[index++];
+        }
+        double max = QrHelperFunctions_ZDRM.findMax(u,k+1,n-k-1);
+
+        if( max > 0 ) {
+            double gamma = QrHelperFunctions_ZDRM.computeTauGammaAndDivide(k+1,n,u,max,tau);
+            gammasV[k] = gamma;
+
+            // divide u by u_0
+            double real_u_0 = u[(k+1)*2]   + tau.real;
+            double imag_u_0 = u[(k+1)*2+1] + tau.imaginary;
+            QrHelperFunctions_ZDRM.divideElements(k + 2, n, u, 0, real_u_0, imag_u_0);
+
+            // write the reflector into the row
+            for (int i = k+2; i < n; i++) {
+                data[(k*n+i)*2]   = u[i*2];
+                data[(k*n+i)*2+1] = u[i*2+1];
+            }
+
+            u[(k+1)*2]   = 1;
+            u[(k+1)*2+1] = 0;
+
+            // ---------- multiply on the right by Q_k
+            QrHelperFunctions_ZDRM.rank1UpdateMultL(UBV,u,0,gamma,k+1,k+1,n);
+
+            // the row is the conjugate of the vector which the reflector was computed from
+            data[(k*n+k+1)*2]   = -tau.real*max;
+            data[(k*n+k+1)*2+1] = tau.imaginary*max;
+        } else {
+            gammasV[k] = 0;
+        }
+    }
+
+    /**
+     * Returns gammas from the householder operations for the U matrix.
+     *
+     * @return gammas for householder operations
+     */
+    public double[] getGammasU() {
+        return gammasU;
+    }
+
+    /**
+     * Returns gammas from the householder operations for the V matrix.
+     *
+     * @return gammas for householder operations
+     */
+    public double[] getGammasV() {
+        return gammasV;
+    }
+
+    @Override
+    public boolean inputModified() {
+        return true;
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decompose.eig;
+
+import org.ejml.data.Complex_F64;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.ZMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.decompose.UtilDecompositons_ZDRM;
+import org.ejml.dense.row.decompose.hessenberg.TridiagonalDecompositionHouseholder_ZDRM;
+import org.ejml.dense.row.decomposition.eig.symm.SymmetricQREigenHelper_DDRM;
+import org.ejml.dense.row.decomposition.eig.symm.SymmetricQrAlgorithm_DDRM;
+import org.ejml.interfaces.decomposition.EigenDecomposition_F64;
+
+/**
+ * <p>
+ * Computes the eigenvalues and eigenvectors of a Hermitian matrix.  The eigenvalues of a Hermitian matrix are
+ * always real and its eigenvectors are orthogonal.
+ * </p>
+ *
+ * <p>
+ * The matrix is first reduced to a tridiagonal matrix, A = Q*T*Q<sup>H</sup>.  The diagonal of T is real and
+ * its off diagonal elements are turned into real numbers using a diagonal unitary similar transform.  The
+ * real symmetric tridiagonal matrix is then diagonalized by {@link SymmetricQrAlgorithm_DDRM} and its real
+ * eigenvectors are multiplied into the complex ones.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class HermitianQRAlgorithmDecomposition_ZDRM implements EigenDecomposition_F64<ZMatrixRMaj> {
+
+    private TridiagonalDecompositionHouseholder_ZDRM decomp;
+
+    // should it compute eigenvectors or just eigenvalues?
+    private boolean computeVectors;
+
+    // computes the eigenvalues and eigenvectors of the real tridiagonal matrix
+    private SymmetricQREigenHelper_DDRM helper = new SymmetricQREigenHelper_DDRM();
+    private SymmetricQrAlgorithm_DDRM vector = new SymmetricQrAlgorithm_DDRM(helper);
+
+    // size of the matrix
+    private int N;
+
+    // complex diagonal and off diagonal elements in the tridiagonal matrix
+    private double diag[] = new double[0];
+    private double off[] = new double[0];
+
+    // diagonal elements of the real tridiagonal matrix, which become the eigenvalues
+    private double values[] = new double[0];
+    // real off diagonal elements. e[i] is in row i and column i+1
+    private double e[] = new double[0];
+
+    // conjugate transpose of the eigenvectors.  Each row is an eigenvector
+    private ZMatrixRMaj Zh = new ZMatrixRMaj(1,1);
+    // transpose of the eigenvectors of the real tridiagonal matrix
+    private DMatrixRMaj Wt = new DMatrixRMaj(1,1);
+    // storage for multiplying the real eigenvectors into the complex ones
+    private ZMatrixRMaj work = new ZMatrixRMaj(1,1);
+
+    private ZMatrixRMaj eigenvectors[] = new ZMatrixRMaj[0];
+
+    public HermitianQRAlgorithmDecomposition_ZDRM( TridiagonalDecompositionHouseholder_ZDRM decomp ,
+                                                   boolean computeVectors ) {
+        this.decomp = decomp;
+        this.computeVectors = computeVectors;
+    }
+
+    public HermitianQRAlgorithmDecomposition_ZDRM( boolean computeVectors ) {
+        this(new TridiagonalDecompositionHouseholder_ZDRM(),computeVectors);
+    }
+
+    /**
+     * Decomposes the matrix.  The matrix is assumed to be Hermitian and only the upper triangle is used.
+     *
+     * @param orig A Hermitian matrix.
+     * @return true if it could decompose the matrix.
+     */
+    @Override
+    public boolean decompose(ZMatrixRMaj orig) {
+        if( orig.numCols != orig.numRows )
+            throw new IllegalArgumentException("Matrix must be square.");
+
+        N = orig.numRows;
+        if( N == 0 )
+            return false;
+        if( values.length < N ) {
+            diag = new double[N*2];
+            off = new double[N*2];
+            values = new double[N];
+            e = new double[N];
+        }
+
+        if( !decomp.decompose(orig) )
+            return false;
+        decomp.getDiagonal(diag,off);
+
+        if( computeVectors ) {
+            Zh.reshape(N,N);
+            decomp.getQ(Zh,true);
+        }
+
+        makeReal();
+
+        if( !diagonalize() )
+            return false;
+
+        if( computeVectors )
+            extractVectors();
+
+        return true;
+    }
+
+    /**
+     * T = D*R*D<sup>H</sup> where R is a real symmetric tridiagonal matrix and D is a diagonal matrix whose elements
+     * have a magnitude of one.  After this function has been called values and e contain R and row i in Zh has
+     * been multiplied by the conjugate of D[i].
+     */
+    private void makeReal() {
+        double realD = 1, imagD = 0;
+
+        for (int i = 0; i < N; i++) {
+            values[i] = diag[i*2];
+            e[i] = 0;
+
+            if( computeVectors )
+                UtilDecompositons_ZDRM.scaleRow(Zh,i,realD,-imagD);
+
+            if( i+1 < N ) {
+                // D[i+1] = D[i]*conj(off[i])/|off[i]|
+                double realO = off[i*2], imagO = off[i*2+1];
+                double magO = Math.sqrt(realO*realO + imagO*imagO);
+                if( magO != 0 ) {
+                    double r = (realD*realO + imagD*imagO)/magO;
+                    imagD = (imagD*realO - realD*imagO)/magO;
+                    realD = r;
+                }
+                e[i] = magO;
+            }
+        }
+    }
+
+    /**
+     * Computes the eigenvalues and eigenvectors of the real symmetric tridiagonal matrix,
+     * R = W*&Lambda;*W<sup>T</sup>, and multiplies its eigenvectors into the complex ones.
+     */
+    private boolean diagonalize() {
+        helper.init(values,e,N);
+
+        if( computeVectors ) {
+            Wt.reshape(N,N);
+            CommonOps_DDRM.setIdentity(Wt);
+            helper.setQ(Wt);
+        }
+        vector.setFastEigenvalues(!computeVectors);
+
+        if( !vector.process(-1,null,null) )
+            return false;
+
+        if( computeVectors )
+            UtilDecompositons_ZDRM.multRows(Wt,Zh,work);
+        return true;
+    }
+
+    /**
+     * Eigenvectors are the conjugate of the rows in Zh
+     */
+    private void extractVectors() {
+        if( eigenvectors.length != N ) {
+            eigenvectors = new ZMatrixRMaj[N];
+            for (int i = 0; i < N; i++) {
+                eigenvectors[i] = new ZMatrixRMaj(N,1);
+            }
+        }
+
+        for (int i = 0; i < N; i++) {
+            double v[] = eigenvectors[i].data;
+            int index = i*N*2;
+            for (int j = 0; j < N; j++) {
+                v[j*2]   = Zh.data[index++];
+                v[j*2+1] = -Zh.data[index++];
+            }
+        }
+    }
+
+    @Override
+    public int getNumberOfEigenvalues() {
+        return N;
+    }
+
+    /**
+     * Returns the eigenvalue at the specified index.  The imaginary component is always zero.
+     */
+    @Override
+    public Complex_F64 getEigenvalue(int index) {
+        return new Complex_F64(values[index],0);
+    }
+
+    /**
+     * Returns the eigenvector associated with the eigenvalue at the same index.  Null if vectors were not computed.
+     */
+    @Override
+    public ZMatrixRMaj getEigenVector(int index) {
+        if( !computeVectors )
+            return null;
+        return eigenvectors[index];
+    }
+
+    /**
+     * Maximum number of QR iterations for each eigenvalue before it gives up.
+     */
+    public void setMaxIterations(int maxIterations) {
+        vector.setMaxIterations(maxIterations);
+    }
+
+    @Override
+    public boolean inputModified() {
+        return decomp.inputModified();
+    }
+}
@@ -0,0 +1,313 @@
+/*
+ * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decompose.svd;
+
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.ZMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.CommonOps_ZDRM;
+import org.ejml.dense.row.decompose.UtilDecompositons_ZDRM;
+import org.ejml.dense.row.decompose.bidiagonal.BidiagonalDecompositionRow_ZDRM;
+import org.ejml.dense.row.decomposition.svd.implicitqr.SvdImplicitQrAlgorithm_DDRM;
+import org.ejml.interfaces.decomposition.SingularValueDecomposition_F64;
+
+/**
+ * <p>
+ * Computes the Singular value decomposition of a complex matrix using the implicit QR algorithm
+ * for singular value decomposition.
+ * </p>
+ *
+ * <p>
+ * A = U*W*V<sup>H</sup>
+ * </p>
+ *
+ * <p>
+ * The matrix is first reduced to a complex bidiagonal matrix B.  B is then turned into a real bidiagonal matrix
+ * by scaling its rows and columns by complex numbers with a magnitude of one, which is a unitary transform.
+ * The real bidiagonal matrix is diagonalized by {@link SvdImplicitQrAlgorithm_DDRM} and its real singular
+ * vectors are then multiplied into the complex singular vectors. If the matrix is wider than it is tall then
+ * the decomposition of its conjugate transpose is computed instead.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SvdImplicitQrDecompose_ZDRM implements SingularValueDecomposition_F64<ZMatrixRMaj> {
+
+    // dimension of the input matrix
+    private int numRows;
+    private int numCols;
+
+    // dimension of the tall matrix that is decomposed
+    private int m,n;
+
+    // true if the conjugate transpose of the input matrix was decomposed
+    private boolean transposed;
+
+    private boolean compact;
+    private boolean computeU;
+    private boolean computeV;
+
+    // Storage for the tall matrix which is decomposed
+    private ZMatrixRMaj tall = new ZMatrixRMaj(1,1);
+
+    private BidiagonalDecompositionRow_ZDRM bidiag = new BidiagonalDecompositionRow_ZDRM();
+    private SvdImplicitQrAlgorithm_DDRM qralg = new SvdImplicitQrAlgorithm_DDRM();
+
+    // conjugate transpose of the singular vectors of the tall matrix.  Each row is a singular vector
+    private ZMatrixRMaj Uh;
+    private ZMatrixRMaj Vh;
+
+    // transpose of the singular vectors of the real bidiagonal matrix
+    private DMatrixRMaj Ut = new DMatrixRMaj(1,1);
+    private DMatrixRMaj Vt = new DMatrixRMaj(1,1);
+    // storage for multiplying the real singular vectors into the complex ones
+    private ZMatrixRMaj work = new ZMatrixRMaj(1,1);
+
+    // complex diagonal and off diagonal elements in the bidiagonal matrix
+    private double diag[] = new double[0];
+    private double off[] = new double[0];
+
+    // diagonal elements of the real bidiagonal matrix, which become the singular values
+    private double s[] = new double[0];
+    // real off diagonal elements. e[i] is in row i and column i+1
+    private double e[] = new double[0];
+
+    /**
+     * Configures the decomposition
+     *
+     * @param compact Compute a compact SVD
+     * @param computeU If true it will compute the U matrix
+     * @param computeV If true it will compute the V matrix
+     */
+    public SvdImplicitQrDecompose_ZDRM(boolean compact, boolean computeU, boolean computeV) {
+        this.compact = compact;
+        this.computeU = computeU;
+        this.computeV = computeV;
+    }
+
+    @Override
+    public boolean decompose(ZMatrixRMaj orig) {
+        numRows = orig.numRows;
+        numCols = orig.numCols;
+
+        transposed = numCols > numRows;
+        if( transposed ) {
+            tall.reshape(numCols,numRows);
+            CommonOps_ZDRM.transposeConjugate(orig,tall);
+        } else {
+            tall.set(orig);
+        }
+        m = tall.numRows;
+        n = tall.numCols;
+        if( n == 0 )
+            return false;
+
+        if( diag.length < n*2 ) {
+            diag = new double[n*2];
+            off = new double[n*2];
+            s = new double[n];
+            e = new double[n];
+        }
+
+        if( !bidiag.decompose(tall) )
+            return false;
+        bidiag.getDiagonal(diag,off);
+
+        boolean needU = transposed ? computeV : computeU;
+        boolean needV = transposed ? computeU : computeV;
+
+        Uh = needU ? bidiag.getU(reshape(Uh,compact ? n : m,m),true,compact) : null;
+        Vh = needV ? bidiag.getV(reshape(Vh,n,n),true,compact) : null;
+
+        makeReal();
+
+        return diagonalize(needU,needV);
+    }
+
+    private static ZMatrixRMaj reshape( ZMatrixRMaj M , int rows , int cols ) {
+        if( M == null )
+            return null;
+        M.reshape(rows,cols);
+        return M;
+    }
+
+    /**
+     * B = P*R*Q<sup>H</sup> where R is a real bidiagonal matrix and P and Q are diagonal matrices whose elements have
+     * a magnitude of one.  After this function is called s and e will contain R and the rows in Uh and Vh will have
+     * been multiplied by conjugate of the elements in P and Q.
+     */
+    private void makeReal() {
+        // element in Q for the current row
+        double realQ = 1, imagQ = 0;
+
+        for (int i = 0; i < n; i++) {
+            // P[i] = diag[i]*Q[i]/|diag[i]|
+            double realD = diag[i*2], imagD = diag[i*2+1];
+            double magD = Math.sqrt(realD*realD + imagD*imagD);
+            double realP = realQ, imagP = imagQ;
+            if( magD != 0 ) {
+                realP = (realD*realQ - imagD*imagQ)/magD;
+                imagP = (realD*imagQ + imagD*realQ)/magD;
+            }
+            s[i] = magD;
+            if( Uh != null )
+                UtilDecompositons_ZDRM.scaleRow(Uh,i,realP,-imagP);
+
+            if( i+1 < n ) {
+                // Q[i+1] = P[i]*conj(off[i])/|off[i]|
+                double realO = off[i*2], imagO = off[i*2+1];
+                double magO = Math.sqrt(realO*realO + imagO*imagO);
+                realQ = realP; imagQ = imagP;
+                if( magO != 0 ) {
+                    realQ = (realP*realO + imagP*imagO)/magO;
+                    imagQ = (imagP*realO - realP*imagO)/magO;
+                }
+                e[i] = magO;
+                if( Vh != null )
+                    UtilDecompositons_ZDRM.scaleRow(Vh,i+1,realQ,-imagQ);
+            }
+        }
+    }
+
+    /**
+     * Computes the SVD of the real bidiagonal matrix, R = U<sub>R</sub>*W*V<sub>R</sub><sup>T</sup>, and
+     * multiplies its singular vectors into the complex ones.
+     */
+    private boolean diagonalize( boolean needU , boolean needV ) {
+        qralg.setMatrix(n,n,s,e);
+        qralg.setFastValues(false);
+        qralg.setUt(needU ? identity(Ut) : null);
+        qralg.setVt(needV ? identity(Vt) : null);
+
+        if( !qralg.process() )
+            return false;
+
+        // the singular values must be positive
+        for (int i = 0; i < n; i++) {
+            if( s[i] < 0 ) {
+                s[i] = -s[i];
+                if( needU ) {
+                    for (int j = 0; j < n; j++) {
+                        Ut.data[i*n+j] = -Ut.data[i*n+j];
+                    }
+                }
+            }
+        }
+
+        if( needU )
+            UtilDecompositons_ZDRM.multRows(Ut,Uh,work);
+        if( needV )
+            UtilDecompositons_ZDRM.multRows(Vt,Vh,work);
+
+        return true;
+    }
+
+    private DMatrixRMaj identity( DMatrixRMaj M ) {
+        M.reshape(n,n);
+        CommonOps_DDRM.setIdentity(M);
+        return M;
+    }
+
+    @Override
+    public double[] getSingularValues() {
+        return s;
+    }
+
+    @Override
+    public int numberOfSingularValues() {
+        return n;
+    }
+
+    @Override
+    public boolean isCompact() {
+        return compact;
+    }
+
+    /**
+     * Returns the unitary U matrix.  If transposed is true then the conjugate transpose is returned.
+     */
+    @Override
+    public ZMatrixRMaj getU(ZMatrixRMaj U, boolean transposed) {
+        if( !computeU )
+            throw new IllegalArgumentException("As requested U was not computed.");
+        return extract(this.transposed ? Vh : Uh, U, transposed);
+    }
+
+    /**
+     * Returns the unitary V matrix.  If transposed is true then the conjugate transpose is returned.
+     */
+    @Override
+    public ZMatrixRMaj getV(ZMatrixRMaj V, boolean transposed) {
+        if( !computeV )
+            throw new IllegalArgumentException("As requested V was not computed.");
+        return extract(this.transposed ? Uh : Vh, V, transposed);
+    }
+
+    private static ZMatrixRMaj extract( ZMatrixRMaj Mh , ZMatrixRMaj M , boolean transposed ) {
+        if( transposed ) {
+            if( M == null )
+                return Mh.copy();
+            M.set(Mh);
+        } else {
+            if( M == null )
+                M = new ZMatrixRMaj(Mh.numCols,Mh.numRows);
+            else
+                M.reshape(Mh.numCols,Mh.numRows);
+            CommonOps_ZDRM.transposeConjugate(Mh,M);
+        }
+        return M;
+    }
+
+    /**
+     * Returns a real diagonal matrix with the singular values along the diagonal
+     */
+    @Override
+    public ZMatrixRMaj getW(ZMatrixRMaj W) {
+        int rows = compact ? n : numRows;
+        int cols = compact ? n : numCols;
+
+        if( W == null )
+            W = new ZMatrixRMaj(rows,cols);
+        else {
+            W.reshape(rows,cols);
+            W.zero();
+        }
+
+        for (int i = 0; i < n; i++) {
+            W.set(i,i,s[i],0);
+        }
+
+        return W;
+    }
+
+    @Override
+    public int numRows() {
+        return numRows;
+    }
+
+    @Override
+    public int numCols() {
+        return numCols;
+    }
+
+    @Override
+    public boolean inputModified() {
+        return false;
+    }
+}
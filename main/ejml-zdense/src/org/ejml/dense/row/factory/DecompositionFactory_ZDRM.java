@@ -20,12 +20,11 @@ package org.ejml.dense.row.factory;
 
 import org.ejml.data.ZMatrixRMaj;
 import org.ejml.dense.row.decompose.chol.CholeskyDecompositionInner_ZDRM;
+import org.ejml.dense.row.decompose.eig.HermitianQRAlgorithmDecomposition_ZDRM;
 import org.ejml.dense.row.decompose.lu.LUDecompositionAlt_ZDRM;
 import org.ejml.dense.row.decompose.qr.QRDecompositionHouseholderColumn_ZDRM;
-import org.ejml.interfaces.decomposition.CholeskyDecomposition_F64;
-import org.ejml.interfaces.decomposition.DecompositionInterface;
-import org.ejml.interfaces.decomposition.LUDecomposition_F64;
-import org.ejml.interfaces.decomposition.QRDecomposition;
+import org.ejml.dense.row.decompose.svd.SvdImplicitQrDecompose_ZDRM;
+import org.ejml.interfaces.decomposition.*;
 
 /**
  * <p>
@@ -77,6 +76,42 @@ public class DecompositionFactory_ZDRM {
         return new CholeskyDecompositionInner_ZDRM(lower);
     }
 
+    /**
+     * <p>
+     * Returns a {@link SingularValueDecomposition_F64} that has been optimized for the specified matrix size.
+     * U and V are unitary and W is a real diagonal matrix.
+     * </p>
+     *
+     * @param numRows Number of rows the returned decomposition is optimized for.
+     * @param numCols Number of columns that the returned decomposition is optimized for.
+     * @param needU Should it compute the U matrix. If not sure set to true.
+     * @param needV Should it compute the V matrix. If not sure set to true.
+     * @param compact Should it compute the SVD in compact form.  If not sure set to false.
+     * @return SVD
+     */
+    public static SingularValueDecomposition_F64<ZMatrixRMaj> svd(int numRows , int numCols ,
+                                                                  boolean needU , boolean needV , boolean compact ) {
+        return new SvdImplicitQrDecompose_ZDRM(compact,needU,needV);
+    }
+
+    /**
+     * <p>
+     * Returns an {@link EigenDecomposition_F64} for Hermitian matrices.  Eigenvalues are real and eigenvectors
+     * are orthogonal.
+     * </p>
+     *
+     * @param matrixSize Number of rows and columns that the returned decomposition is optimized for.
+     * @param computeVectors Should it compute the eigenvectors or just eigenvalues.
+     * @param isHermitian Must be true.  A decomposition for general complex matrices is not yet available.
+     * @return EVD for Hermitian matrices.
+     */
+    public static EigenDecomposition_F64<ZMatrixRMaj> eig(int matrixSize , boolean computeVectors ,
+                                                          boolean isHermitian ) {
+        if( !isHermitian )
+            throw new IllegalArgumentException("Only Hermitian matrices are currently supported");
+        return new HermitianQRAlgorithmDecomposition_ZDRM(computeVectors);
+    }
+
     /**
      * Decomposes the input matrix 'a' and makes sure it isn't modified.
      */
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2009-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ejml.dense.row.decompose.bidiagonal;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.ZMatrixRMaj;
+import org.ejml.dense.row.CommonOps_ZDRM;
+import org.ejml.dense.row.MatrixFeatures_ZDRM;
+import org.ejml.dense.row.RandomMatrices_ZDRM;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestBidiagonalDecompositionRow_ZDRM {
+
+    Random rand = new Random(0xff);
+
+    @Test
+    public void testModified() {
+        ZMatrixRMaj A = RandomMatrices_ZDRM.rectangle(5,4,-1,1,rand);
+        ZMatrixRMaj A_orig = A.copy();
+
+        BidiagonalDecompositionRow_ZDRM alg = new BidiagonalDecompositionRow_ZDRM();
+        assertTrue(alg.decompose(A));
+
+        assertTrue(alg.inputModified() != MatrixFeatures_ZDRM.isIdentical(A,A_orig,0));
+    }
+
+    @Test
+    public void checkAgainstInput() {
+        checkAgainstInput(5,5);
+        checkAgainstInput(7,4);
+        checkAgainstInput(4,7);
+        checkAgainstInput(1,1);
+        checkAgainstInput(1,3);
+        checkAgainstInput(3,1);
+    }
+
+    private void checkAgainstInput( int m , int n ) {
+        ZMatrixRMaj A = RandomMatrices_ZDRM.rectangle(m,n,-1,1,rand);
+
+        for( boolean compact : new boolean[]{false,true} ) {
+            BidiagonalDecompositionRow_ZDRM alg = new BidiagonalDecompositionRow_ZDRM();
+            assertTrue(alg.decompose(A.copy()));
+
+            ZMatrixRMaj U = alg.getU(null,false,compact);
+            ZMatrixRMaj B = alg.getB(null,compact);
+            ZMatrixRMaj V = alg.getV(null,false,compact);
+
+            assertTrue(MatrixFeatures_ZDRM.isUnitary(U,UtilEjml.TEST_F64));
+            assertTrue(MatrixFeatures_ZDRM.isUnitary(V,UtilEjml.TEST_F64));
+            assertTrue(MatrixFeatures_ZDRM.isUpperTriangle(B,0,UtilEjml.TEST_F64));
+
+            // only the diagonal and off diagonal can be non-zero
+            for( int i = 0; i < B.numRows; i++ ) {
+                for( int j = 0; j < B.numCols; j++ ) {
+                    if( j != i && j != i+1 ) {
+                        assertEquals(0,B.getReal(i,j),UtilEjml.TEST_F64);
+                        assertEquals(0,B.getImag(i,j),UtilEjml.TEST_F64);
+                    }
+                }
+            }
+
+            // A = U*B*V^H
+            ZMatrixRMaj UB = new ZMatrixRMaj(U.numRows,B.numCols);
+            ZMatrixRMaj found = new ZMatrixRMaj(m,n);
+            CommonOps_ZDRM.mult(U,B,UB);
+            CommonOps_ZDRM.multTransB(UB,V,found);
+
+            assertTrue(MatrixFeatures_ZDRM.isIdentical(A,found,UtilEjml.TEST_F64));
+
+            // the transposed form should be the conjugate transpose
+            ZMatrixRMaj Ut = alg.getU(null,true,compact);
+            ZMatrixRMaj Vt = alg.getV(null,true,compact);
+            ZMatrixRMaj expected = new ZMatrixRMaj(1,1);
+            expected.reshape(U.numCols,U.numRows);
+            CommonOps_ZDRM.transposeConjugate(U,expected);
+            assertTrue(MatrixFeatures_ZDRM.isIdentical(expected,Ut,UtilEjml.TEST_F64));
+            expected.reshape(V.numCols,V.numRows);
+            CommonOps_ZDRM.transposeConjugate(V,expected);
+            assertTrue(MatrixFeatures_ZDRM.isIdentical(expected,Vt,UtilEjml.TEST_F64));
+        }
+    }
+
+    @Test
+    public void getDiagonal() {
+        for( int[] shape : new int[][]{{5,5},{6,3},{3,6}} ) {
+            ZMatrixRMaj A = RandomMatrices_ZDRM.rectangle(shape[0],shape[1],-1,1,rand);
+
+            BidiagonalDecompositionRow_ZDRM alg = new BidiagonalDecompositionRow_ZDRM();
+            assertTrue(alg.decompose(A));
+
+            ZMatrixRMaj B = alg.getB(null,false);
+            int min = Math.min(shape[0],shape[1]);
+            double diag[] = new double[min*2];
+            double off[] = new double[min*2];
+            alg.getDiagonal(diag,off);
+
+            for( int i = 0; i < min; i++ ) {
+                assertEquals(B.getReal(i,i),diag[i*2],UtilEjml.TEST_F64);
+                assertEquals(B.getImag(i,i),diag[i*2+1],UtilEjml.TEST_F64);
+                if( i+1 < B.numCols ) {
+                    assertEquals(B.getReal(i,i+1),off[i*2],UtilEjml.TEST_F64);
+                    assertEquals(B.getImag(i,i+1),off[i*2+1],UtilEjml.TEST_F64);
+                }
+            }
+        }
+    }
+}
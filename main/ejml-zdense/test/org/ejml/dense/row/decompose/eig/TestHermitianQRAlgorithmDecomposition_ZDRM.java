@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2009-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ejml.dense.row.decompose.eig;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.Complex_F64;
+import org.ejml.data.ZMatrixRMaj;
+import org.ejml.dense.row.CommonOps_ZDRM;
+import org.ejml.dense.row.MatrixFeatures_ZDRM;
+import org.ejml.dense.row.RandomMatrices_ZDRM;
+import org.ejml.dense.row.decompose.CheckDecompositionInterface_ZDRM;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestHermitianQRAlgorithmDecomposition_ZDRM {
+
+    Random rand = new Random(2345);
+
+    @Test
+    public void checkModifiedInput() {
+        CheckDecompositionInterface_ZDRM.checkModifiedInput(new HermitianQRAlgorithmDecomposition_ZDRM(true));
+    }
+
+    @Test
+    public void randomMatrices() {
+        for( int N : new int[]{1,2,3,5,10,31} ) {
+            ZMatrixRMaj A = RandomMatrices_ZDRM.hermitian(N,-1,1,rand);
+            checkEigenPairs(A);
+        }
+    }
+
+    /**
+     * Repeated eigenvalues and a zero off diagonal
+     */
+    @Test
+    public void diagonalAndRepeated() {
+        ZMatrixRMaj A = new ZMatrixRMaj(4,4);
+        A.set(0,0,2,0);
+        A.set(1,1,2,0);
+        A.set(2,2,-1,0);
+        A.set(3,3,2,0);
+        checkEigenPairs(A);
+
+        // identity times a constant
+        A = CommonOps_ZDRM.identity(5);
+        checkEigenPairs(A);
+
+        checkEigenPairs(new ZMatrixRMaj(3,3));
+    }
+
+    @Test
+    public void valuesOnly() {
+        ZMatrixRMaj A = RandomMatrices_ZDRM.hermitian(8,-1,1,rand);
+
+        HermitianQRAlgorithmDecomposition_ZDRM full = new HermitianQRAlgorithmDecomposition_ZDRM(true);
+        HermitianQRAlgorithmDecomposition_ZDRM values = new HermitianQRAlgorithmDecomposition_ZDRM(false);
+        assertTrue(full.decompose(A.copy()));
+        assertTrue(values.decompose(A.copy()));
+
+        assertEquals(8,values.getNumberOfEigenvalues());
+        for( int i = 0; i < 8; i++ ) {
+            assertEquals(full.getEigenvalue(i).real,values.getEigenvalue(i).real,UtilEjml.TEST_F64);
+            assertNull(values.getEigenVector(i));
+        }
+    }
+
+    private void checkEigenPairs( ZMatrixRMaj A ) {
+        int N = A.numRows;
+        HermitianQRAlgorithmDecomposition_ZDRM alg = new HermitianQRAlgorithmDecomposition_ZDRM(true);
+        assertTrue(alg.decompose(A.copy()));
+
+        assertEquals(N,alg.getNumberOfEigenvalues());
+
+        ZMatrixRMaj V = new ZMatrixRMaj(N,N);
+        ZMatrixRMaj Av = new ZMatrixRMaj(N,1);
+        double trace = 0;
+        for( int i = 0; i < N; i++ ) {
+            Complex_F64 value = alg.getEigenvalue(i);
+            ZMatrixRMaj v = alg.getEigenVector(i);
+            assertEquals(0,value.imaginary,0);
+            trace += value.real;
+
+            // A*v = lambda*v
+            CommonOps_ZDRM.mult(A,v,Av);
+            for( int j = 0; j < N; j++ ) {
+                assertEquals(value.real*v.getReal(j,0),Av.getReal(j,0),UtilEjml.TEST_F64);
+                assertEquals(value.real*v.getImag(j,0),Av.getImag(j,0),UtilEjml.TEST_F64);
+                V.set(j,i,v.getReal(j,0),v.getImag(j,0));
+            }
+        }
+
+        // the eigenvectors are orthonormal
+        assertTrue(MatrixFeatures_ZDRM.isUnitary(V,UtilEjml.TEST_F64));
+
+        double expectedTrace = 0;
+        for( int i = 0; i < N; i++ )
+            expectedTrace += A.getReal(i,i);
+        assertEquals(expectedTrace,trace,UtilEjml.TEST_F64);
+    }
+}
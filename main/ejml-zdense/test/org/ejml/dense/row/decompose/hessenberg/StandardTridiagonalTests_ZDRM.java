@@ -46,7 +46,7 @@ public abstract class StandardTridiagonalTests_ZDRM {
     @Test
     public void fullTest() {
 
-        for( int width = 1; width < 20; width += 2 ) {
+        for( int width = 1; width < 20; width++ ) {
 
             ZMatrixRMaj A = RandomMatrices_ZDRM.hermitian(width,-1,1,rand);
 
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2009-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ejml.dense.row.decompose.svd;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.ZMatrixRMaj;
+import org.ejml.dense.row.CommonOps_ZDRM;
+import org.ejml.dense.row.MatrixFeatures_ZDRM;
+import org.ejml.dense.row.RandomMatrices_ZDRM;
+import org.ejml.dense.row.decompose.CheckDecompositionInterface_ZDRM;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSvdImplicitQrDecompose_ZDRM {
+
+    Random rand = new Random(234);
+
+    @Test
+    public void checkModifiedInput() {
+        CheckDecompositionInterface_ZDRM.checkModifiedInput(new SvdImplicitQrDecompose_ZDRM(false,true,true));
+    }
+
+    @Test
+    public void reconstruct() {
+        int shapes[][] = new int[][]{{1,1},{5,5},{10,4},{4,10},{1,6},{6,1},{30,25}};
+        for( int[] shape : shapes ) {
+            for( boolean compact : new boolean[]{false,true} ) {
+                ZMatrixRMaj A = RandomMatrices_ZDRM.rectangle(shape[0],shape[1],-1,1,rand);
+                checkReconstruct(A,compact);
+            }
+        }
+    }
+
+    /**
+     * Rank deficient matrices have singular values which are zero
+     */
+    @Test
+    public void rankDeficient() {
+        ZMatrixRMaj B = RandomMatrices_ZDRM.rectangle(8,2,-1,1,rand);
+        ZMatrixRMaj C = RandomMatrices_ZDRM.rectangle(2,6,-1,1,rand);
+        ZMatrixRMaj A = new ZMatrixRMaj(8,6);
+        CommonOps_ZDRM.mult(B,C,A);
+
+        checkReconstruct(A,false);
+        checkReconstruct(A,true);
+
+        SvdImplicitQrDecompose_ZDRM alg = new SvdImplicitQrDecompose_ZDRM(true,false,false);
+        assertTrue(alg.decompose(A));
+        int numZero = 0;
+        for( double s : alg.getSingularValues() ) {
+            if( s <= UtilEjml.TEST_F64 )
+                numZero++;
+        }
+        assertEquals(4,numZero);
+    }
+
+    @Test
+    public void zeroMatrix() {
+        ZMatrixRMaj A = new ZMatrixRMaj(4,5);
+        checkReconstruct(A,false);
+    }
+
+    /**
+     * The singular values of a Hermitian matrix are the magnitude of its eigenvalues
+     */
+    @Test
+    public void singularValuesOnly() {
+        ZMatrixRMaj A = RandomMatrices_ZDRM.rectangle(7,5,-1,1,rand);
+
+        SvdImplicitQrDecompose_ZDRM full = new SvdImplicitQrDecompose_ZDRM(true,true,true);
+        SvdImplicitQrDecompose_ZDRM values = new SvdImplicitQrDecompose_ZDRM(true,false,false);
+        assertTrue(full.decompose(A));
+        assertTrue(values.decompose(A));
+
+        assertEquals(5,values.numberOfSingularValues());
+        for( int i = 0; i < 5; i++ ) {
+            assertEquals(full.getSingularValues()[i],values.getSingularValues()[i],UtilEjml.TEST_F64);
+        }
+
+        try {
+            values.getU(null,false);
+            fail("Should have thrown an exception");
+        } catch( IllegalArgumentException ignore ){}
+    }
+
+    private void checkReconstruct( ZMatrixRMaj A , boolean compact ) {
+        SvdImplicitQrDecompose_ZDRM alg = new SvdImplicitQrDecompose_ZDRM(compact,true,true);
+        assertTrue(alg.decompose(A));
+
+        ZMatrixRMaj U = alg.getU(null,false);
+        ZMatrixRMaj W = alg.getW(null);
+        ZMatrixRMaj V = alg.getV(null,false);
+
+        assertTrue(MatrixFeatures_ZDRM.isUnitary(U,UtilEjml.TEST_F64));
+        assertTrue(MatrixFeatures_ZDRM.isUnitary(V,UtilEjml.TEST_F64));
+
+        for( int i = 0; i < alg.numberOfSingularValues(); i++ ) {
+            assertTrue(alg.getSingularValues()[i] >= 0);
+            assertEquals(alg.getSingularValues()[i],W.getReal(i,i),0);
+            assertEquals(0,W.getImag(i,i),0);
+        }
+
+        // A = U*W*V^H
+        ZMatrixRMaj UW = new ZMatrixRMaj(U.numRows,W.numCols);
+        ZMatrixRMaj found = new ZMatrixRMaj(A.numRows,A.numCols);
+        CommonOps_ZDRM.mult(U,W,UW);
+        CommonOps_ZDRM.multTransB(UW,V,found);
+
+        assertTrue(MatrixFeatures_ZDRM.isIdentical(A,found,UtilEjml.TEST_F64));
+
+        // transposed should be the conjugate transpose
+        ZMatrixRMaj Uh = alg.getU(null,true);
+        ZMatrixRMaj expected = new ZMatrixRMaj(U.numCols,U.numRows);
+        CommonOps_ZDRM.transposeConjugate(U,expected);
+        assertTrue(MatrixFeatures_ZDRM.isIdentical(expected,Uh,0));
+    }
+}